@@ -0,0 +1,318 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.core.designer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe, size bounded cache with approximate least-recently-used eviction, meant as a drop-in replacement for an
+ * {@link LRUCache} wrapped in {@link java.util.Collections#synchronizedMap(Map)} when many threads read the cache.
+ * <p>
+ * Entries live in a {@link ConcurrentHashMap}, so reads never lock. Every entry remembers the value of a logical clock when it
+ * was last read; the clock only advances on writes, which keeps reads free of shared writes. Once the cache grows past its
+ * capacity one writer evicts the least recently read tenth of the entries in a single batch, while other writers carry on.
+ * </p>
+ * <p>
+ * {@link #get(Object, Loader)} loads a missing key at most once: concurrent callers asking for the same key wait for the
+ * first caller's load instead of repeating it. Hit, miss and eviction counts are kept for tuning.
+ * </p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @since 8.1
+ */
+public class ConcurrentLRUCache<K, V> {
+
+    /**
+     * Computes the value of a key that is missing from the cache.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    public interface Loader<K, V> {
+
+        /**
+         * @param key the missing key (never <code>null</code>)
+         * @return the value to cache, or <code>null</code> if there is none (nothing is cached then)
+         * @throws Exception if the value cannot be computed
+         */
+        V load( K key ) throws Exception;
+    }
+
+    /**
+     * The percentage of the capacity evicted at once when the cache is full.
+     */
+    private static final int EVICTION_PERCENTAGE = 10;
+
+    private static final int COUNTER_STRIPES = 16;
+
+    private final int capacity;
+    private final int evictionBatchSize;
+    private final ConcurrentMap<K, Entry<V>> map;
+    private final ConcurrentMap<K, FutureTask<V>> loads = new ConcurrentHashMap<K, FutureTask<V>>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final StripedCounter hits = new StripedCounter();
+    private final StripedCounter misses = new StripedCounter();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of entries (must be positive)
+     */
+    public ConcurrentLRUCache( final int capacity ) {
+        CoreArgCheck.isPositive(capacity);
+        this.capacity = capacity;
+        this.evictionBatchSize = Math.max(1, capacity * EVICTION_PERCENTAGE / 100);
+        this.map = new ConcurrentHashMap<K, Entry<V>>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * @param key the key (cannot be <code>null</code>)
+     * @return the cached value, or <code>null</code> if the key is not cached
+     */
+    public V get( final K key ) {
+        final Entry<V> entry = this.map.get(key);
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        entry.lastAccess = this.clock.get();
+        this.hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value of the key, loading and caching it first if it is missing. Only one caller loads a given key at a
+     * time; concurrent callers for the same key wait for, and share, its result. A <code>null</code> result is returned to all
+     * of them but is not cached.
+     *
+     * @param key the key (cannot be <code>null</code>)
+     * @param loader computes the value if the key is missing (cannot be <code>null</code>)
+     * @return the cached or loaded value (may be <code>null</code>)
+     * @throws Exception the exception thrown by the loader
+     */
+    public V get( final K key,
+                  final Loader<K, V> loader ) throws Exception {
+        final V cached = get(key);
+        if (cached != null) return cached;
+
+        final FutureTask<V> task = new FutureTask<V>(new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                // another caller may have finished loading between our miss and registering this task
+                final Entry<V> entry = ConcurrentLRUCache.this.map.get(key);
+                if (entry != null) return entry.value;
+
+                final V value = loader.load(key);
+                if (value != null) put(key, value);
+                return value;
+            }
+        });
+
+        FutureTask<V> load = this.loads.putIfAbsent(key, task);
+        if (load == null) {
+            load = task;
+            try {
+                task.run();
+            } finally {
+                // the value is cached before the task is removed, so later callers find one or the other
+                this.loads.remove(key, task);
+            }
+        }
+
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    return load.get();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception)cause;
+            if (cause instanceof Error) throw (Error)cause;
+            throw e;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @param key the key (cannot be <code>null</code>)
+     * @param value the value (cannot be <code>null</code>)
+     * @return the value previously cached for the key, or <code>null</code>
+     */
+    public V put( final K key,
+                  final V value ) {
+        final Entry<V> entry = new Entry<V>(value, this.clock.incrementAndGet());
+        final Entry<V> previous = this.map.put(key, entry);
+        if (previous != null) return previous.value;
+
+        if (this.size.incrementAndGet() > this.capacity) {
+            evict();
+        }
+        return null;
+    }
+
+    /**
+     * @param key the key (cannot be <code>null</code>)
+     * @return the removed value, or <code>null</code> if the key was not cached
+     */
+    public V remove( final K key ) {
+        final Entry<V> previous = this.map.remove(key);
+        if (previous == null) return null;
+        this.size.decrementAndGet();
+        return previous.value;
+    }
+
+    /**
+     * Removes all entries. The hit, miss and eviction counts are kept.
+     */
+    public void clear() {
+        for (final Iterator<K> iter = this.map.keySet().iterator(); iter.hasNext();) {
+            remove(iter.next());
+        }
+    }
+
+    /**
+     * @return the number of cached entries; may briefly exceed the capacity while an eviction is running
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * @return the maximum number of entries
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return the number of reads that found their key
+     */
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    /**
+     * @return the number of reads that did not find their key
+     */
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    /**
+     * @return the number of entries removed to make room for new ones
+     */
+    public long getEvictionCount() {
+        return this.evictions.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ConcurrentLRUCache[size=" + size() + ", capacity=" + this.capacity + ", hits=" + getHitCount() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+               + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + ']'; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Removes the least recently read entries until the cache is back under its capacity by one eviction batch. Only one thread
+     * evicts at a time; others skip, since the running eviction makes room for them too.
+     */
+    private void evict() {
+        if (!this.evictionLock.tryLock()) return;
+        try {
+            final int excess = this.size.get() - this.capacity;
+            if (excess <= 0) return;
+
+            // snapshot the access stamps and find the stamp below which the oldest entries fall
+            final List<Map.Entry<K, Entry<V>>> entries = new ArrayList<Map.Entry<K, Entry<V>>>(this.map.entrySet());
+            final long[] stamps = new long[entries.size()];
+            for (int i = 0; i < stamps.length; i++) {
+                stamps[i] = entries.get(i).getValue().lastAccess;
+            }
+            Arrays.sort(stamps);
+            final int toEvict = Math.min(stamps.length, excess + this.evictionBatchSize);
+            if (toEvict == 0) return;
+            final long threshold = stamps[toEvict - 1];
+
+            int evicted = 0;
+            for (int i = 0, count = entries.size(); i < count && evicted < toEvict; i++) {
+                final Map.Entry<K, Entry<V>> candidate = entries.get(i);
+                final Entry<V> entry = candidate.getValue();
+                // skip entries read since the snapshot was taken
+                if (entry.lastAccess <= threshold && this.map.remove(candidate.getKey(), entry)) {
+                    this.size.decrementAndGet();
+                    evicted++;
+                }
+            }
+            this.evictions.addAndGet(evicted);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        volatile long lastAccess;
+
+        Entry( final V value,
+               final long lastAccess ) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * A counter spread over several padded slots, so threads reading the cache at the same time do not all update one memory
+     * location.
+     */
+    private static final class StripedCounter {
+        // every eighth long is used so that two slots never share a cache line
+        private static final int PADDING = 8;
+
+        private final AtomicLongArray slots = new AtomicLongArray(COUNTER_STRIPES * PADDING);
+
+        void increment() {
+            final int stripe = (int)(Thread.currentThread().getId() % COUNTER_STRIPES);
+            this.slots.incrementAndGet(stripe * PADDING);
+        }
+
+        long get() {
+            long sum = 0;
+            for (int i = 0; i < COUNTER_STRIPES; i++) {
+                sum += this.slots.get(i * PADDING);
+            }
+            return sum;
+        }
+    }
+}
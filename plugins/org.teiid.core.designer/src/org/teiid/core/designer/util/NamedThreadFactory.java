@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.core.designer.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ThreadFactory} for background worker pools. Threads are daemons, so an idle pool never keeps the workbench from
+ * shutting down, and are named after the pool so they can be identified in thread dumps.
+ *
+ * @since 8.1
+ */
+public class NamedThreadFactory implements ThreadFactory {
+
+    private final String namePrefix;
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    /**
+     * @param poolName the name used as the prefix of every thread name (cannot be empty)
+     */
+    public NamedThreadFactory( final String poolName ) {
+        CoreArgCheck.isNotEmpty(poolName, "poolName"); //$NON-NLS-1$
+        this.namePrefix = poolName + '-';
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+     */
+    @Override
+    public Thread newThread( final Runnable runnable ) {
+        final Thread thread = new Thread(runnable, this.namePrefix + this.threadNumber.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
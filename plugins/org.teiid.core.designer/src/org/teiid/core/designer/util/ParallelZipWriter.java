@@ -0,0 +1,732 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.core.designer.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * Writes a zip archive whose entries are compressed on a worker pool, as a faster replacement for a
+ * {@link java.util.zip.ZipOutputStream} when an archive holds many or large entries.
+ * <p>
+ * Entries are written in the order they are added. Each added entry is deflated into memory by a worker while the entries
+ * before it are written, so only a bounded number of entries is buffered at a time. Entries at least as large as the buffered
+ * entry limit are instead deflated straight into the archive by the calling thread. If a previous version of the archive is
+ * supplied, an entry whose content has the same size and CRC-32 as the entry of the same name in that archive is copied from
+ * it still compressed, without being deflated again.
+ * </p>
+ * <p>
+ * The archive does not use the Zip64 extensions, so it is limited to 65535 entries and 4 GB. Instances are not thread-safe.
+ * </p>
+ *
+ * @since 8.1
+ */
+public final class ParallelZipWriter {
+
+    /**
+     * The default size, in bytes, from which entries are deflated by the calling thread instead of being buffered. ( {@value} )
+     */
+    public static final int DEFAULT_BUFFERED_ENTRY_LIMIT = 16 * 1024 * 1024;
+
+    /** The number of bytes of buffered entries after which the calling thread waits for the oldest one to be written */
+    private static final long MAX_PENDING_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_PENDING_ENTRIES = 64;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_SIZE = 22;
+    private static final int VERSION = 20;
+    private static final int FLAG_ENCRYPTED = 0x0001;
+    private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final long MAX_UINT32 = 0xFFFFFFFFL;
+    private static final int MAX_ENTRIES = 0xFFFF;
+    private static final String UTF8 = "UTF-8"; //$NON-NLS-1$
+
+    private final CountingOutputStream out;
+    private final ExecutorService executor;
+    private final int bufferedEntryLimit;
+    private final int dosTime;
+    private final Map<String, PreviousEntry> previousEntries;
+    private final RandomAccessFile previousArchive;
+
+    private final LinkedList<Future<Part>> pending = new LinkedList<Future<Part>>();
+    private final LinkedList<Long> pendingSizes = new LinkedList<Long>();
+    private long pendingBytes;
+    private final Set<String> names = new HashSet<String>();
+    private final List<CentralEntry> centralEntries = new ArrayList<CentralEntry>();
+    private int copiedEntryCount;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * @param destination the archive to write (cannot be <code>null</code>)
+     * @param previousArchive the previous version of the archive, from which unchanged entries are copied (may be
+     *        <code>null</code>, and need not exist)
+     * @param executor the pool the entries are deflated on, or <code>null</code> to deflate them on the calling thread
+     * @throws IOException if the destination cannot be created
+     */
+    public ParallelZipWriter( final File destination,
+                              final File previousArchive,
+                              final ExecutorService executor ) throws IOException {
+        this(destination, previousArchive, executor, DEFAULT_BUFFERED_ENTRY_LIMIT);
+    }
+
+    /**
+     * @param destination the archive to write (cannot be <code>null</code>)
+     * @param previousArchive the previous version of the archive, from which unchanged entries are copied (may be
+     *        <code>null</code>, and need not exist)
+     * @param executor the pool the entries are deflated on, or <code>null</code> to deflate them on the calling thread
+     * @param bufferedEntryLimit the size, in bytes, from which entries are deflated by the calling thread
+     * @throws IOException if the destination cannot be created
+     */
+    public ParallelZipWriter( final File destination,
+                              final File previousArchive,
+                              final ExecutorService executor,
+                              final int bufferedEntryLimit ) throws IOException {
+        CoreArgCheck.isNotNull(destination);
+        this.executor = executor;
+        this.bufferedEntryLimit = bufferedEntryLimit;
+        this.dosTime = toDosTime(System.currentTimeMillis());
+
+        Map<String, PreviousEntry> entries = Collections.emptyMap();
+        RandomAccessFile archive = null;
+        if (previousArchive != null && previousArchive.isFile()) {
+            try {
+                archive = new RandomAccessFile(previousArchive, "r"); //$NON-NLS-1$
+                entries = readCentralDirectory(archive);
+            } catch (final IOException e) {
+                // an unreadable previous archive only means that nothing can be copied from it
+                if (archive != null) archive.close();
+                archive = null;
+                entries = Collections.emptyMap();
+            }
+        }
+        this.previousEntries = entries;
+        this.previousArchive = archive;
+        try {
+            this.out = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(destination), BUFFER_SIZE));
+        } catch (final IOException e) {
+            if (archive != null) archive.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds an entry with the content of a file.
+     *
+     * @param entry the entry whose name and comment are used (cannot be <code>null</code>)
+     * @param source the file holding the content of the entry (cannot be <code>null</code>)
+     * @throws IOException if an earlier entry could not be written
+     */
+    public void add( final ZipEntry entry,
+                     final File source ) throws IOException {
+        CoreArgCheck.isNotNull(source);
+        final long size = source.length();
+        add(entry, new EntrySource(source, null, size), size < this.bufferedEntryLimit ? size : 0L);
+    }
+
+    /**
+     * Adds an entry with the given content.
+     *
+     * @param entry the entry whose name and comment are used (cannot be <code>null</code>)
+     * @param content the content of the entry (cannot be <code>null</code>)
+     * @throws IOException if an earlier entry could not be written
+     */
+    public void add( final ZipEntry entry,
+                     final byte[] content ) throws IOException {
+        CoreArgCheck.isNotNull(content);
+        add(entry, new EntrySource(null, content, content.length), content.length);
+    }
+
+    /**
+     * @return the number of entries copied from the previous archive so far
+     */
+    public int getCopiedEntryCount() {
+        return this.copiedEntryCount;
+    }
+
+    /**
+     * Writes the remaining entries and the central directory. The archive is complete once this method returns, but must still
+     * be {@link #close() closed}.
+     *
+     * @throws IOException if an entry or the central directory cannot be written
+     */
+    public void finish() throws IOException {
+        if (this.finished) return;
+        while (!this.pending.isEmpty()) {
+            writeNext();
+        }
+
+        final long centralOffset = this.out.getCount();
+        for (final CentralEntry entry : this.centralEntries) {
+            writeInt(CENTRAL_HEADER_SIGNATURE);
+            writeShort(VERSION);
+            writeShort(VERSION);
+            writeShort(entry.flags);
+            writeShort(entry.method);
+            writeInt(entry.time);
+            writeInt(entry.crc);
+            writeInt(entry.compressedSize);
+            writeInt(entry.size);
+            writeShort(entry.name.length);
+            writeShort(0);
+            writeShort(entry.comment.length);
+            writeShort(0);
+            writeShort(0);
+            writeInt(0);
+            writeInt(entry.offset);
+            this.out.write(entry.name);
+            this.out.write(entry.comment);
+        }
+        final long centralSize = this.out.getCount() - centralOffset;
+        checkSize(centralOffset + centralSize);
+
+        writeInt(END_SIGNATURE);
+        writeShort(0);
+        writeShort(0);
+        writeShort(this.centralEntries.size());
+        writeShort(this.centralEntries.size());
+        writeInt(centralSize);
+        writeInt(centralOffset);
+        writeShort(0);
+        this.out.flush();
+        this.finished = true;
+    }
+
+    /**
+     * Closes the archive and the previous archive, abandoning the entries not written yet if {@link #finish()} was not called.
+     *
+     * @throws IOException if the archive cannot be closed
+     */
+    public void close() throws IOException {
+        if (this.closed) return;
+        this.closed = true;
+        for (final Future<Part> part : this.pending) {
+            part.cancel(false);
+        }
+        this.pending.clear();
+        try {
+            if (this.previousArchive != null) this.previousArchive.close();
+        } finally {
+            this.out.close();
+        }
+    }
+
+    private void add( final ZipEntry entry,
+                      final EntrySource source,
+                      final long bufferedSize ) throws IOException {
+        CoreArgCheck.isNotNull(entry);
+        if (this.finished || this.closed) throw new ZipException("The archive is already finished"); //$NON-NLS-1$
+        final String name = entry.getName();
+        if (!this.names.add(name)) throw new ZipException("duplicate entry: " + name); //$NON-NLS-1$
+        if (this.names.size() > MAX_ENTRIES) throw new ZipException("Too many entries: " + name); //$NON-NLS-1$
+
+        final FutureTask<Part> task = new FutureTask<Part>(new PrepareTask(name, entry.getComment(), source));
+        if (this.executor == null) {
+            task.run();
+        } else {
+            this.executor.execute(task);
+        }
+        this.pending.add(task);
+        this.pendingSizes.add(bufferedSize);
+        this.pendingBytes += bufferedSize;
+
+        while (this.pending.size() > MAX_PENDING_ENTRIES || (this.pendingBytes > MAX_PENDING_BYTES && this.pending.size() > 1)) {
+            writeNext();
+        }
+    }
+
+    /**
+     * Waits for the oldest pending entry to be prepared and writes it.
+     */
+    private void writeNext() throws IOException {
+        final Future<Part> future = this.pending.removeFirst();
+        this.pendingBytes -= this.pendingSizes.removeFirst().longValue();
+
+        Part part;
+        try {
+            part = getUninterruptibly(future);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException)cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+            if (cause instanceof Error) throw (Error)cause;
+            throw new IOException(cause);
+        }
+
+        final long offset = this.out.getCount();
+        checkSize(offset);
+        if (part.previous != null) {
+            copy(part, offset);
+        } else if (part.compressed != null) {
+            writeLocalHeader(part.name, FLAG_UTF8, ZipEntry.DEFLATED, this.dosTime, part.crc, part.compressed.length, part.size);
+            this.out.write(part.compressed);
+            addCentralEntry(part, FLAG_UTF8, ZipEntry.DEFLATED, this.dosTime, part.crc, part.compressed.length, part.size, offset);
+        } else {
+            stream(part, offset);
+        }
+    }
+
+    /**
+     * Copies the still compressed content of an unchanged entry from the previous archive.
+     */
+    private void copy( final Part part,
+                       final long offset ) throws IOException {
+        final PreviousEntry previous = part.previous;
+        final byte[] header = new byte[LOCAL_HEADER_SIZE];
+        this.previousArchive.seek(previous.offset);
+        this.previousArchive.readFully(header);
+        if (readInt(header, 0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header in previous archive: " + part.name); //$NON-NLS-1$
+        }
+        this.previousArchive.seek(previous.offset + LOCAL_HEADER_SIZE + readShort(header, 26) + readShort(header, 28));
+
+        writeLocalHeader(part.name, FLAG_UTF8, previous.method, previous.time, previous.crc, previous.compressedSize, previous.size);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        for (long remaining = previous.compressedSize; remaining > 0;) {
+            final int count = this.previousArchive.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+            if (count < 0) throw new ZipException("Truncated entry in previous archive: " + part.name); //$NON-NLS-1$
+            this.out.write(buffer, 0, count);
+            remaining -= count;
+        }
+        addCentralEntry(part, FLAG_UTF8, previous.method, previous.time, previous.crc, previous.compressedSize, previous.size, offset);
+        this.copiedEntryCount++;
+    }
+
+    /**
+     * Deflates a large entry straight into the archive, followed by a data descriptor holding its sizes and CRC-32.
+     */
+    private void stream( final Part part,
+                         final long offset ) throws IOException {
+        final int flags = FLAG_UTF8 | FLAG_DATA_DESCRIPTOR;
+        writeLocalHeader(part.name, flags, ZipEntry.DEFLATED, this.dosTime, 0, 0, 0);
+        final long start = this.out.getCount();
+        final CRC32 crc = new CRC32();
+        final InputStream in = part.source.open();
+        final long size;
+        try {
+            size = deflate(in, new NonClosingOutputStream(this.out), crc);
+        } finally {
+            in.close();
+        }
+        final long compressedSize = this.out.getCount() - start;
+        writeInt(DATA_DESCRIPTOR_SIGNATURE);
+        writeInt(crc.getValue());
+        writeInt(compressedSize);
+        writeInt(size);
+        addCentralEntry(part, flags, ZipEntry.DEFLATED, this.dosTime, crc.getValue(), compressedSize, size, offset);
+    }
+
+    private void writeLocalHeader( final byte[] name,
+                                   final int flags,
+                                   final int method,
+                                   final int time,
+                                   final long crc,
+                                   final long compressedSize,
+                                   final long size ) throws IOException {
+        writeInt(LOCAL_HEADER_SIGNATURE);
+        writeShort(VERSION);
+        writeShort(flags);
+        writeShort(method);
+        writeInt(time);
+        writeInt(crc);
+        writeInt(compressedSize);
+        writeInt(size);
+        writeShort(name.length);
+        writeShort(0);
+        this.out.write(name);
+    }
+
+    private void addCentralEntry( final Part part,
+                                  final int flags,
+                                  final int method,
+                                  final int time,
+                                  final long crc,
+                                  final long compressedSize,
+                                  final long size,
+                                  final long offset ) throws ZipException {
+        checkSize(compressedSize);
+        checkSize(size);
+        this.centralEntries.add(new CentralEntry(part.name, part.comment, flags, method, time, crc, compressedSize, size, offset));
+    }
+
+    private void writeShort( final int value ) throws IOException {
+        this.out.write(value & 0xFF);
+        this.out.write((value >>> 8) & 0xFF);
+    }
+
+    private void writeInt( final long value ) throws IOException {
+        this.out.write((int)(value & 0xFF));
+        this.out.write((int)((value >>> 8) & 0xFF));
+        this.out.write((int)((value >>> 16) & 0xFF));
+        this.out.write((int)((value >>> 24) & 0xFF));
+    }
+
+    private static void checkSize( final long value ) throws ZipException {
+        if (value >= MAX_UINT32) throw new ZipException("The archive is larger than 4 GB"); //$NON-NLS-1$
+    }
+
+    private static int readShort( final byte[] bytes,
+                                  final int index ) {
+        return (bytes[index] & 0xFF) | ((bytes[index + 1] & 0xFF) << 8);
+    }
+
+    private static long readInt( final byte[] bytes,
+                                 final int index ) {
+        return (readShort(bytes, index) | ((long)readShort(bytes, index + 2) << 16)) & MAX_UINT32;
+    }
+
+    /**
+     * Reads the central directory of an archive, skipping the entries that cannot be copied as they are.
+     */
+    private static Map<String, PreviousEntry> readCentralDirectory( final RandomAccessFile archive ) throws IOException {
+        final long length = archive.length();
+        if (length < END_SIZE) return Collections.emptyMap();
+
+        // the end record is followed by a comment of at most 64 KB
+        final int tailLength = (int)Math.min(length, END_SIZE + 0xFFFF);
+        final byte[] tail = new byte[tailLength];
+        archive.seek(length - tailLength);
+        archive.readFully(tail);
+        int end = -1;
+        for (int i = tailLength - END_SIZE; i >= 0; i--) {
+            if (readInt(tail, i) == END_SIGNATURE) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) throw new ZipException("No central directory"); //$NON-NLS-1$
+
+        final int count = readShort(tail, end + 10);
+        final long centralSize = readInt(tail, end + 12);
+        final long centralOffset = readInt(tail, end + 16);
+        if (centralOffset + centralSize > length) throw new ZipException("Invalid central directory"); //$NON-NLS-1$
+
+        final byte[] central = new byte[(int)centralSize];
+        archive.seek(centralOffset);
+        archive.readFully(central);
+
+        final Map<String, PreviousEntry> entries = new HashMap<String, PreviousEntry>(count * 2);
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            if (index + CENTRAL_HEADER_SIZE > central.length || readInt(central, index) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory"); //$NON-NLS-1$
+            }
+            final int flags = readShort(central, index + 8);
+            final int method = readShort(central, index + 10);
+            final int time = (int)readInt(central, index + 12);
+            final long crc = readInt(central, index + 16);
+            final long compressedSize = readInt(central, index + 20);
+            final long size = readInt(central, index + 24);
+            final int nameLength = readShort(central, index + 28);
+            final int extraLength = readShort(central, index + 30);
+            final int commentLength = readShort(central, index + 32);
+            final long offset = readInt(central, index + 42);
+            final String name = new String(central, index + CENTRAL_HEADER_SIZE, nameLength, UTF8);
+            index += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+
+            final boolean copyable = (flags & FLAG_ENCRYPTED) == 0
+                                     && (method == ZipEntry.DEFLATED || method == ZipEntry.STORED)
+                                     && compressedSize != MAX_UINT32 && size != MAX_UINT32 && offset != MAX_UINT32;
+            if (copyable) {
+                entries.put(name, new PreviousEntry(method, time, crc, compressedSize, size, offset));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Deflates the stream into the target and returns the number of bytes read.
+     */
+    static long deflate( final InputStream in,
+                         final OutputStream target,
+                         final CRC32 crc ) throws IOException {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            final DeflaterOutputStream deflaterStream = new DeflaterOutputStream(target, deflater, BUFFER_SIZE);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            long size = 0;
+            for (int count = in.read(buffer); count >= 0; count = in.read(buffer)) {
+                crc.update(buffer, 0, count);
+                deflaterStream.write(buffer, 0, count);
+                size += count;
+            }
+            deflaterStream.finish();
+            return size;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static long computeCrc( final InputStream in ) throws IOException {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        for (int count = in.read(buffer); count >= 0; count = in.read(buffer)) {
+            crc.update(buffer, 0, count);
+        }
+        return crc.getValue();
+    }
+
+    static int toDosTime( final long time ) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        final int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) return (1 << 21) | (1 << 16);
+        return ((year - 1980) << 25) | ((calendar.get(Calendar.MONTH) + 1) << 21) | (calendar.get(Calendar.DAY_OF_MONTH) << 16)
+               | (calendar.get(Calendar.HOUR_OF_DAY) << 11) | (calendar.get(Calendar.MINUTE) << 5)
+               | (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    private static <T> T getUninterruptibly( final Future<T> future ) throws ExecutionException {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    return future.get();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Decides, on a worker, how an entry is written: copied from the previous archive, deflated into memory, or left to be
+     * deflated by the calling thread.
+     */
+    private final class PrepareTask implements Callable<Part> {
+        private final String name;
+        private final String comment;
+        private final EntrySource source;
+
+        PrepareTask( final String name,
+                     final String comment,
+                     final EntrySource source ) {
+            this.name = name;
+            this.comment = comment;
+            this.source = source;
+        }
+
+        @Override
+        public Part call() throws IOException {
+            final Part part = new Part(this.name.getBytes(UTF8), this.comment == null ? new byte[0] : this.comment.getBytes(UTF8),
+                                       this.source);
+
+            final PreviousEntry previous = previousEntries.get(this.name);
+            if (previous != null && previous.size == this.source.size) {
+                final InputStream in = this.source.open();
+                try {
+                    if (computeCrc(in) == previous.crc) {
+                        part.previous = previous;
+                        return part;
+                    }
+                } finally {
+                    in.close();
+                }
+            }
+
+            if (this.source.size >= bufferedEntryLimit) return part;
+
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream((int)(this.source.size / 2) + 64);
+            final CRC32 crc = new CRC32();
+            final InputStream in = this.source.open();
+            try {
+                part.size = deflate(in, compressed, crc);
+            } finally {
+                in.close();
+            }
+            part.crc = crc.getValue();
+            part.compressed = compressed.toByteArray();
+            return part;
+        }
+    }
+
+    /**
+     * The content of an entry, either a file or bytes.
+     */
+    private static final class EntrySource {
+        final File file;
+        final byte[] content;
+        final long size;
+
+        EntrySource( final File file,
+                     final byte[] content,
+                     final long size ) {
+            this.file = file;
+            this.content = content;
+            this.size = size;
+        }
+
+        InputStream open() throws IOException {
+            if (this.content != null) return new ByteArrayInputStream(this.content);
+            return new FileInputStream(this.file);
+        }
+    }
+
+    /**
+     * An entry ready to be written.
+     */
+    private static final class Part {
+        final byte[] name;
+        final byte[] comment;
+        final EntrySource source;
+        PreviousEntry previous;
+        byte[] compressed;
+        long crc;
+        long size;
+
+        Part( final byte[] name,
+              final byte[] comment,
+              final EntrySource source ) {
+            this.name = name;
+            this.comment = comment;
+            this.source = source;
+        }
+    }
+
+    private static final class PreviousEntry {
+        final int method;
+        final int time;
+        final long crc;
+        final long compressedSize;
+        final long size;
+        final long offset;
+
+        PreviousEntry( final int method,
+                       final int time,
+                       final long crc,
+                       final long compressedSize,
+                       final long size,
+                       final long offset ) {
+            this.method = method;
+            this.time = time;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.offset = offset;
+        }
+    }
+
+    private static final class CentralEntry {
+        final byte[] name;
+        final byte[] comment;
+        final int flags;
+        final int method;
+        final int time;
+        final long crc;
+        final long compressedSize;
+        final long size;
+        final long offset;
+
+        CentralEntry( final byte[] name,
+                      final byte[] comment,
+                      final int flags,
+                      final int method,
+                      final int time,
+                      final long crc,
+                      final long compressedSize,
+                      final long size,
+                      final long offset ) {
+            this.name = name;
+            this.comment = comment;
+            this.flags = flags;
+            this.method = method;
+            this.time = time;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.offset = offset;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream( final OutputStream out ) {
+            super(out);
+        }
+
+        long getCount() {
+            return this.count;
+        }
+
+        @Override
+        public void write( final int b ) throws IOException {
+            this.out.write(b);
+            this.count++;
+        }
+
+        @Override
+        public void write( final byte[] b,
+                           final int off,
+                           final int len ) throws IOException {
+            this.out.write(b, off, len);
+            this.count += len;
+        }
+    }
+
+    /**
+     * Keeps a {@link DeflaterOutputStream} from closing the archive.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream( final OutputStream out ) {
+            super(out);
+        }
+
+        @Override
+        public void write( final byte[] b,
+                           final int off,
+                           final int len ) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            // the archive is closed by the writer
+        }
+    }
+}
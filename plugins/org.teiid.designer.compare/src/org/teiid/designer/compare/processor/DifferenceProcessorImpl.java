@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -104,6 +105,7 @@ public class DifferenceProcessorImpl implements DifferenceProcessor {
     private DifferenceGuidelines guidelines;
     private MappingProducer mappingProducer;
     private boolean isMultiModel;
+    private final Map<EClass, List<EStructuralFeature>> comparedFeatures = new HashMap<EClass, List<EStructuralFeature>>();
 
     /**
      * Construct a DifferenceProcessor for a single model. This form of the constructor is used to signal that there are no
@@ -178,6 +180,7 @@ public class DifferenceProcessorImpl implements DifferenceProcessor {
     @Override
 	public void setDifferenceGuidelines( final DifferenceGuidelines guidelines ) {
         this.guidelines = guidelines != null ? guidelines : NullDifferenceGuidelines.INSTANCE;
+        this.comparedFeatures.clear();
     }
 
     /**
@@ -291,6 +294,7 @@ public class DifferenceProcessorImpl implements DifferenceProcessor {
             if (!this.isMultiModel) {
                 this.inputsToObjects.clear();
             }
+            this.comparedFeatures.clear();
             this.totalAdditions = 0;
             this.totalChanges = 0;
             this.totalDeletions = 0;
@@ -647,35 +651,56 @@ public class DifferenceProcessorImpl implements DifferenceProcessor {
     protected boolean computeFeatureDifferences( final DifferenceDescriptor descriptor,
                                                  final EObject input,
                                                  final EObject output ) {
-        final EClass eclass = input.eClass();
         boolean changed = false;
         // Assume that if we are computing feature differences, that we're guaranteed the
         // input's EClass and output's EClass are identical
-        final List features = eclass.getEAllStructuralFeatures();
-        final Iterator iter = features.iterator();
+        final Iterator iter = getComparedFeatures(input.eClass()).iterator();
         while (iter.hasNext()) {
             final EStructuralFeature feature = (EStructuralFeature)iter.next();
-            if (this.includeInReport(feature)) {
-                // Look at only attributes and non-containment references ...
-                if (feature instanceof EAttribute
-                    || (!((EReference)feature).isContainment() && !((EReference)feature).isContainer())) {
-                    final Object inputValue = input.eGet(feature);
-                    final Object outputValue = output.eGet(feature);
-                    final boolean sameValue = feature.isMany() ? isEqual(feature, (EList)inputValue, (EList)outputValue) : isEqual(feature,
-                                                                                                                                   inputValue,
-                                                                                                                                   outputValue);
-                    if (!sameValue) {
-                        final PropertyDifference diff = this.getCompareFactory().createPropertyDifference();
-                        diff.setAffectedFeature(feature);
-                        diff.setDescriptor(descriptor);
-                        diff.setNewValue(outputValue);
-                        diff.setOldValue(inputValue);
-                        changed = true;
+            final Object inputValue = input.eGet(feature);
+            final Object outputValue = output.eGet(feature);
+            final boolean sameValue = feature.isMany() ? isEqual(feature, (EList)inputValue, (EList)outputValue) : isEqual(feature,
+                                                                                                                           inputValue,
+                                                                                                                           outputValue);
+            if (!sameValue) {
+                final PropertyDifference diff = this.getCompareFactory().createPropertyDifference();
+                diff.setAffectedFeature(feature);
+                diff.setDescriptor(descriptor);
+                diff.setNewValue(outputValue);
+                diff.setOldValue(inputValue);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Return the features of the supplied metaclass whose values are compared: the attributes and non-containment references that
+     * are {@link #includeInReport(EStructuralFeature) included in the report}. These are found once per metaclass rather than
+     * once per compared object, since a large model has many objects of few metaclasses.
+     * 
+     * @param eclass the metaclass of the compared objects
+     * @return the compared features; never null
+     * @since 8.1
+     */
+    protected List getComparedFeatures( final EClass eclass ) {
+        List<EStructuralFeature> features = this.comparedFeatures.get(eclass);
+        if (features == null) {
+            features = new ArrayList<EStructuralFeature>();
+            final Iterator iter = eclass.getEAllStructuralFeatures().iterator();
+            while (iter.hasNext()) {
+                final EStructuralFeature feature = (EStructuralFeature)iter.next();
+                if (this.includeInReport(feature)) {
+                    // Look at only attributes and non-containment references ...
+                    if (feature instanceof EAttribute
+                        || (!((EReference)feature).isContainment() && !((EReference)feature).isContainer())) {
+                        features.add(feature);
                     }
                 }
             }
+            this.comparedFeatures.put(eclass, features);
         }
-        return changed;
+        return features;
     }
 
     /**
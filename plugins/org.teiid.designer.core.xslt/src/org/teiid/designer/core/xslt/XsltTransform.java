@@ -9,11 +9,18 @@ package org.teiid.designer.core.xslt;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import org.jdom.Document;
@@ -25,6 +32,12 @@ import org.teiid.core.designer.util.CoreArgCheck;
  */
 public class XsltTransform {
 
+    /**
+     * The compiled stylesheets, so that each style is only compiled once; Templates are thread-safe.
+     * @since 8.1
+     */
+    private static final Map<Style, Templates> TEMPLATES = Collections.synchronizedMap(new WeakHashMap<Style, Templates>());
+
 	private final Style style;
 
 	/**
@@ -43,17 +56,42 @@ public class XsltTransform {
     protected static Templates getTemplates( final Style style ) throws IOException, TeiidDesignerException,
                                                                         TransformerConfigurationException {
         CoreArgCheck.isNotNull(style);
+        Templates templates = TEMPLATES.get(style);
+        if ( templates != null ) {
+            return templates;
+        }
+
         // Create a source for the stylesheet ...
         final StreamSource source = style.getStreamSource();
         
         // Load the templates ...
-        final Templates templates = CoreXsltPlugin.createFactory().newTemplates(source);
+        templates = CoreXsltPlugin.createFactory().newTemplates(source);
         if ( templates == null ) {
             throw new TransformerConfigurationException(CoreXsltPlugin.Util.getString("XsltTransform.TransformerFactory_created_a_null_Templates_object")); //$NON-NLS-1$
         }
+        TEMPLATES.put(style, templates);
         return templates;
     }
 
+    /**
+     * Create a handler that transforms the SAX events it is sent using the XSLT, so that a source document
+     * can be transformed as it is produced rather than first being built and serialized.
+     * @param result the result to which the transformed content is to be written; may not be null
+     * @return the handler to which the events of the source document are to be sent; never null
+     * @since 8.1
+     */
+    public TransformerHandler createTransformerHandler( final Result result ) throws IOException, TeiidDesignerException,
+                                                                                     TransformerConfigurationException {
+        CoreArgCheck.isNotNull(result);
+        final TransformerFactory factory = CoreXsltPlugin.createFactory();
+        if ( !factory.getFeature(SAXTransformerFactory.FEATURE) ) {
+            throw new TransformerConfigurationException(CoreXsltPlugin.Util.getString("XsltTransform.TransformerFactory_does_not_support_SAX")); //$NON-NLS-1$
+        }
+        final TransformerHandler handler = ((SAXTransformerFactory)factory).newTransformerHandler(getTemplates(this.style));
+        handler.setResult(result);
+        return handler;
+    }
+
     /**
      * Transform the supplied source document (or fragment of the source document, if the URI of
      * a fragment root is specified) using the XSLT.
@@ -8,6 +8,7 @@
 package org.teiid.designer.core;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -23,6 +24,7 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.ISaveParticipant;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
@@ -89,6 +91,8 @@ import org.teiid.designer.core.util.InvocationFactoryHelper;
 import org.teiid.designer.core.util.StartupLogger;
 import org.teiid.designer.core.util.WorkspaceUriPathConverter;
 import org.teiid.designer.core.validation.ValidationRuleManager;
+import org.teiid.designer.core.workspace.ModelDependencyGraph;
+import org.teiid.designer.core.workspace.ModelDependencyTracker;
 import org.teiid.designer.core.workspace.ModelProject;
 import org.teiid.designer.core.workspace.ModelResource;
 import org.teiid.designer.core.workspace.ModelStatusImpl;
@@ -144,6 +148,13 @@ public class ModelerCore extends Plugin implements DeclarativeTransactionManager
      */
     public static final String WORKSPACE_UUID_FILE = "workspace.uuid"; //$NON-NLS-1$
 
+    /**
+     * The name of the file the {@link #getModelDependencyTracker() model dependency graph} is saved to between sessions: {@value}
+     *
+     * @since 8.1
+     */
+    public static final String MODEL_DEPENDENCIES_FILE = "model.dependencies"; //$NON-NLS-1$
+
     private static final String MINIMUM_JAVA_VERSION = "1.6"; //$NON-NLS-1$
 
     /**
@@ -317,6 +328,8 @@ public class ModelerCore extends Plugin implements DeclarativeTransactionManager
     public static final String VALIDATION_RULE_MANAGER_KEY = "Validation Rule Manager"; //$NON-NLS-1$
     
     public static final String UUID_KEY = "Workspace UUID"; //$NON-NLS-1$
+
+    public static final String MODEL_DEPENDENCY_TRACKER_KEY = "Model Dependency Tracker"; //$NON-NLS-1$
     
     public static final String WORKSPACE_KEY = "Workspace"; //$NON-NLS-1$
     
@@ -1582,6 +1595,14 @@ public class ModelerCore extends Plugin implements DeclarativeTransactionManager
         return registry.lookup(UUID_KEY, UUID.class);
     }
 
+    /**
+     * @return the tracker of the dependencies between the models of the workspace, or <code>null</code> if not running in Eclipse
+     * @since 8.1
+     */
+    public static ModelDependencyTracker getModelDependencyTracker() {
+        return registry.lookup(MODEL_DEPENDENCY_TRACKER_KEY, ModelDependencyTracker.class);
+    }
+
     private ISaveParticipant saveParticipant;
 
     private final CopyOnWriteArrayList<IRefactorResourceListener> refactorListeners;
@@ -1679,6 +1700,24 @@ public class ModelerCore extends Plugin implements DeclarativeTransactionManager
         
         registry.register(UUID_KEY, WorkspaceUUIDService.getInstance().getUUID());
 
+        // restore the model dependencies of the last session, and keep them up to date from now on
+        final File dependenciesFile = getStateLocation().append(MODEL_DEPENDENCIES_FILE).toFile();
+        ModelDependencyGraph dependencyGraph = null;
+        if (dependenciesFile.exists()) {
+            try {
+                dependencyGraph = ModelDependencyGraph.load(dependenciesFile);
+            } catch (final IOException e) {
+                Util.log(IStatus.WARNING, e, e.getMessage());
+            }
+        }
+        if (dependencyGraph == null) {
+            dependencyGraph = new ModelDependencyGraph();
+        }
+        final ModelDependencyTracker dependencyTracker = new ModelDependencyTracker(dependencyGraph);
+        getWorkspace().addResourceChangeListener(dependencyTracker, IResourceChangeEvent.PRE_BUILD
+                                                                          | IResourceChangeEvent.POST_CHANGE);
+        registry.register(MODEL_DEPENDENCY_TRACKER_KEY, dependencyTracker);
+
         watch.stop();
         StartupLogger.log(" ModelerCore.startup() FINISHED", watch.getTotalDuration()); //$NON-NLS-1$
     }
@@ -1721,6 +1760,18 @@ public class ModelerCore extends Plugin implements DeclarativeTransactionManager
         final IWorkspace workspace = getWorkspace();
         workspace.removeSaveParticipant(this);
 
+        // Save the model dependencies for the next session ...
+        final ModelDependencyTracker dependencyTracker = registry.lookup(MODEL_DEPENDENCY_TRACKER_KEY, ModelDependencyTracker.class);
+        if (dependencyTracker != null) {
+            workspace.removeResourceChangeListener(dependencyTracker);
+            registry.unregister(MODEL_DEPENDENCY_TRACKER_KEY);
+            try {
+                dependencyTracker.getGraph().save(getStateLocation().append(MODEL_DEPENDENCIES_FILE).toFile());
+            } catch (final IOException e) {
+                Util.log(e);
+            }
+        }
+
         // Shut down the model workspace manager ...
         IStatus wsMgrProblem = null;
         try {
@@ -28,6 +28,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Plugin;
+import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.teiid.core.designer.ModelerCoreException;
@@ -44,7 +45,9 @@ import org.teiid.designer.core.index.ResourceIndexer;
 import org.teiid.designer.core.refactor.OrganizeImportCommand;
 import org.teiid.designer.core.refactor.OrganizeImportHandler;
 import org.teiid.designer.core.resource.EmfResource;
+import org.teiid.designer.core.resource.ParallelResourceLoader;
 import org.teiid.designer.core.validation.ValidationContext;
+import org.teiid.designer.core.validation.ValidationRuleTimings;
 import org.teiid.designer.core.workspace.ModelResource;
 import org.teiid.designer.core.workspace.ModelUtil;
 import org.teiid.designer.core.workspace.ModelWorkspace;
@@ -64,6 +67,15 @@ public class ModelBuildUtil {
     public static final String MONITOR_RESOURCE_VALIDATION_MSG = ModelerCore.Util.getString("ModelBuildUtil.Validating_Resource__1"); //$NON-NLS-1$
     public static final String MONITOR_OBJECT_VALIDATION_MSG = ModelerCore.Util.getString("ModelBuildUtil.Validating__2"); //$NON-NLS-1$	
 
+    /**
+     * The system property that enables logging the time spent in each validation rule after a build.
+     * 
+     * @since 8.1
+     */
+    public static final String RULE_TIMING_PROPERTY = "org.teiid.designer.validation.ruleTiming"; //$NON-NLS-1$
+
+    private static volatile boolean ruleTiming = Boolean.getBoolean(RULE_TIMING_PROPERTY);
+
     private static Collection VALIDATORS;
 
     private static Collection INDEXERS;
@@ -75,6 +87,22 @@ public class ModelBuildUtil {
         initIndexers();
     }
 
+    /**
+     * @return <code>true</code> if the time spent in each validation rule is logged
+     * @since 8.1
+     */
+    public static boolean isRuleTiming() {
+        return ruleTiming;
+    }
+
+    /**
+     * @param timing <code>true</code> if the time spent in each validation rule should be logged
+     * @since 8.1
+     */
+    public static void setRuleTiming( final boolean timing ) {
+        ruleTiming = timing;
+    }
+
     /**
      * Index and validate the collection of IResources being passed. Validation of the resources can be within the context of the
      * resources being passed in. The validation rules that use the context may use this information.
@@ -96,6 +124,10 @@ public class ModelBuildUtil {
         // not modified
         final List modifiedResources = getModifiedResources();
 
+        if (ParallelResourceLoader.isParallelLoad()) {
+            loadResources(monitor, iResources);
+        }
+
         Map<IProject, Collection<IResource>> projToResMap = getProjectToResourcesMap(iResources);
         
         // collection of models dependent on the models being validated
@@ -181,6 +213,30 @@ public class ModelBuildUtil {
         setModifiedResources(modifiedResources);
     }
 
+    /**
+     * Loads the EMF resources of the models on several threads, so that indexing and validation find them loaded.
+     */
+    private static void loadResources( final IProgressMonitor monitor,
+                                       final Collection iResources ) {
+        final List<URI> uris = new ArrayList<URI>(iResources.size());
+        for (final Iterator iter = iResources.iterator(); iter.hasNext();) {
+            final IResource iResource = (IResource)iter.next();
+            if (ModelUtil.isModelFile(iResource) && !ModelUtil.isVdbArchiveFile(iResource) && iResource.getRawLocation() != null) {
+                uris.add(URI.createFileURI(iResource.getRawLocation().toString()));
+            }
+        }
+        if (uris.isEmpty()) {
+            return;
+        }
+        // the loader begins and ends its own task, so give it a share of the build's monitor rather than the monitor itself
+        final IProgressMonitor loadMonitor = (monitor != null ? new SubProgressMonitor(monitor, uris.size()) : null);
+        try {
+            new ParallelResourceLoader(ModelerCore.getModelContainer()).load(uris, loadMonitor);
+        } catch (final CoreException e) {
+            ModelerCore.Util.log(e);
+        }
+    }
+
     // ############################################################################################################################
     // # Validation Methods #
     // ############################################################################################################################
@@ -703,6 +759,9 @@ public class ModelBuildUtil {
 
         clearResourceMarkers(iResources);
 
+        final ValidationRuleTimings timings = (isRuleTiming() ? new ValidationRuleTimings() : null);
+        context.setRuleTimings(timings);
+
         // get all validators and validate
         for (final Iterator validateIter = VALIDATORS.iterator(); validateIter.hasNext();) {
             final ResourceValidator validator = (ResourceValidator)validateIter.next();
@@ -717,6 +776,10 @@ public class ModelBuildUtil {
             }
         }
 
+        if (timings != null) {
+            ModelerCore.Util.log(IStatus.INFO, timings.toString());
+        }
+
         // clear the context after validation to free up memory
         context.clearState();
     }
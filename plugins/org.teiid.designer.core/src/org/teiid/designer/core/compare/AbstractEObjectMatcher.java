@@ -7,6 +7,9 @@
  */
 package org.teiid.designer.core.compare;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.mapping.Mapping;
 import org.eclipse.emf.mapping.MappingFactory;
@@ -34,4 +37,25 @@ public abstract class AbstractEObjectMatcher implements EObjectMatcher {
         parentMapping.getNested().add(nested);
     }
 
+    /**
+     * Remove the matched objects from the supplied inputs or outputs in a single pass. Removing each match with
+     * {@link List#remove(Object)} searches the list once per match, which is quadratic in the number of siblings.
+     *
+     * @param objects the inputs or outputs being matched; may not be null
+     * @param matched the objects that were matched; may not be null
+     * @since 8.1
+     */
+    protected static void removeMatched( final List objects,
+                                         final Set matched ) {
+        if (matched.isEmpty()) {
+            return;
+        }
+        final Iterator iter = objects.iterator();
+        while (iter.hasNext()) {
+            if (matched.contains(iter.next())) {
+                iter.remove();
+            }
+        }
+    }
+
 }
@@ -8,9 +8,11 @@
 package org.teiid.designer.core.compare;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
@@ -66,6 +68,7 @@ public abstract class AbstractEObjectNameMatcher extends AbstractEObjectMatcher
         }
 
         // Loop over the outputs and compare the names ...
+        final Set matchedInputs = new HashSet();
         final Iterator outputIter = outputs.iterator();
         while (outputIter.hasNext()) {
             final EObject output = (EObject)outputIter.next();
@@ -76,13 +79,14 @@ public abstract class AbstractEObjectNameMatcher extends AbstractEObjectMatcher
                     final EClass inputMetaclass = inputEntity.eClass();
                     final EClass outputMetaclass = output.eClass();
                     if ( inputMetaclass.equals(outputMetaclass) ) {
-                        inputs.remove(inputEntity);
+                        matchedInputs.add(inputEntity);
                         outputIter.remove();
                         addMapping(inputEntity,output,mapping,factory);
                     }
                 }
             }
-        }        
+        }
+        removeMatched(inputs, matchedInputs);
     }
 
     protected abstract String getInputKey(final EObject entity );
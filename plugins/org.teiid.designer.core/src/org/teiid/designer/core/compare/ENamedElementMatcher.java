@@ -8,9 +8,11 @@
 package org.teiid.designer.core.compare;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.ENamedElement;
 import org.eclipse.emf.ecore.EObject;
@@ -70,6 +72,7 @@ public class ENamedElementMatcher extends AbstractEObjectMatcher {
         }
         
         // Loop over the outputs and compare the names ...
+        final Set matchedInputs = new HashSet();
         final Iterator outputIter = outputs.iterator();
         while (outputIter.hasNext()) {
             final EObject output = (EObject)outputIter.next();
@@ -82,7 +85,7 @@ public class ENamedElementMatcher extends AbstractEObjectMatcher {
                         final EClass inputMetaclass = inputEntity.eClass();
                         final EClass outputMetaclass = outputEntity.eClass();
                         if ( inputMetaclass.equals(outputMetaclass) ) {
-                            inputs.remove(inputEntity);
+                            matchedInputs.add(inputEntity);
                             outputIter.remove();
                             addMapping(inputEntity,outputEntity,mapping,factory);
                         }
@@ -90,7 +93,7 @@ public class ENamedElementMatcher extends AbstractEObjectMatcher {
                 }
             }
         }
-
+        removeMatched(inputs, matchedInputs);
     }
 
 }
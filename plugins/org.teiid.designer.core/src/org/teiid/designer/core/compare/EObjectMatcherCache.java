@@ -16,8 +16,8 @@ import java.util.Map;
 import org.eclipse.emf.ecore.EReference;
 
 /**
- * A cache of {@link org.teiid.designer.core.compare.EObjectMatcher instances}.  This class
- * is not thread-safe.
+ * A cache of {@link org.teiid.designer.core.compare.EObjectMatcher instances}.  The matchers
+ * may be looked up from several threads, but the factories must not be changed while they are.
  *
  * @since 8.0
  */
@@ -51,7 +51,7 @@ public class EObjectMatcherCache {
         }
     }
 
-    public List getEObjectMatchersForRoots() {
+    public synchronized List getEObjectMatchersForRoots() {
         if ( this.rootMatchers == null ) {
             this.rootMatchers = new ArrayList();
             final Iterator iter = this.matcherFactories.iterator();
@@ -64,7 +64,7 @@ public class EObjectMatcherCache {
         return this.rootMatchers;
     }
 
-    public List getEObjectMatchers( final EReference reference) {
+    public synchronized List getEObjectMatchers( final EReference reference) {
         List results = (List) this.matchersByFeature.get(reference);
         if ( results == null ) {
             results = new LinkedList();
@@ -8,12 +8,22 @@
 package org.teiid.designer.core.compare;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
@@ -22,6 +32,7 @@ import org.eclipse.emf.mapping.Mapping;
 import org.eclipse.emf.mapping.MappingFactory;
 import org.teiid.core.designer.ModelerCoreException;
 import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.core.designer.util.NamedThreadFactory;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.util.ModelVisitor;
 import org.teiid.designer.core.util.ModelVisitorProcessor;
@@ -34,22 +45,91 @@ import org.teiid.designer.core.util.ModelVisitorProcessor;
  */
 public class MappingProducer {
 
+    /**
+     * The system property that enables matching the contents of the compared models on several threads.
+     *
+     * @since 8.1
+     */
+    public static final String PARALLEL_MAPPING_PROPERTY = "org.teiid.designer.compare.parallelMapping"; //$NON-NLS-1$
+
+    /**
+     * The system property that sets the number of threads that match the contents of the compared models. Defaults to the number
+     * of processors, but no more than {@link #DEFAULT_MAX_THREADS}; one or less matches on the calling thread.
+     *
+     * @since 8.1
+     */
+    public static final String MAPPING_THREADS_PROPERTY = "org.teiid.designer.compare.mappingThreads"; //$NON-NLS-1$
+
+    /**
+     * @since 8.1
+     */
+    public static final int DEFAULT_MAX_THREADS = 4;
+
+    /**
+     * The smallest number of sibling mappings whose contents are matched on several threads; the contents of fewer are matched on
+     * the calling thread, where handing them to the workers would cost more than it saves.
+     *
+     * @since 8.1
+     */
+    public static final int PARALLEL_THRESHOLD = 256;
+
+    private static volatile boolean parallelMapping = Boolean.getBoolean(PARALLEL_MAPPING_PROPERTY);
+
+    /**
+     * @return <code>true</code> if the contents of the compared models are matched on several threads
+     * @since 8.1
+     */
+    public static boolean isParallelMapping() {
+        return parallelMapping;
+    }
+
+    /**
+     * @param parallel <code>true</code> if the contents of the compared models should be matched on several threads
+     * @since 8.1
+     */
+    public static void setParallelMapping( final boolean parallel ) {
+        parallelMapping = parallel;
+    }
+
+    /**
+     * @return the number of threads set by the {@link #MAPPING_THREADS_PROPERTY}
+     * @since 8.1
+     */
+    public static int getDefaultThreads() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        return Integer.getInteger(MAPPING_THREADS_PROPERTY, Math.min(processors, DEFAULT_MAX_THREADS)).intValue();
+    }
+
     private final EObjectMatcherCache matchers;
     private final LinkedList unmappedObjects;
     private final Map inputsToOutputs;
+    private final int threads;
 
     public MappingProducer() {
         this(new HashMap());
     }
 
     /**
-     * Construct an instance of MappingProducer.
+     * Construct an instance of MappingProducer that matches on several threads if {@link #isParallelMapping() enabled}.
      */
     public MappingProducer( final HashMap inputsToOutputs ) {
+        this(inputsToOutputs, isParallelMapping() ? getDefaultThreads() : 1);
+    }
+
+    /**
+     * Construct an instance of MappingProducer.
+     *
+     * @param inputsToOutputs the map of output object keyed by input object; may not be null
+     * @param threads the number of threads that match the contents of the models; one or less matches on the calling thread
+     * @since 8.1
+     */
+    public MappingProducer( final HashMap inputsToOutputs,
+                            final int threads ) {
         super();
         this.matchers = new EObjectMatcherCache();
         this.unmappedObjects = new LinkedList();
         this.inputsToOutputs = inputsToOutputs;
+        this.threads = threads;
     }
 
     public EObjectMatcherCache getEObjectMatcherCache() {
@@ -122,7 +202,11 @@ public class MappingProducer {
         enqueueUnmappedMappings(null, inputCopies, outputCopies, mappingRoot, factory);
 
         // Go through all of the mappings that were generated ...
-        doProcessNestedMappings(factory, mappingRoot);
+        if (this.threads > 1) {
+            processNestedMappingsInParallel(factory, mappingRoot);
+        } else {
+            doProcessNestedMappings(factory, mappingRoot);
+        }
 
         // -------------------------------------------------------------
         // Perform phase 2 - Match remaining using inputs-to-outputs
@@ -135,7 +219,7 @@ public class MappingProducer {
             final UnmappedObjects uo = (UnmappedObjects)this.unmappedObjects.removeFirst();
             final Mapping parentMapping = uo.parentMapping;
             // Make a copy of the existing nested mappings ...
-            final List existingNested = new ArrayList(parentMapping.getNested());
+            final Set existingNested = new HashSet(parentMapping.getNested());
 
             final EReference ref = uo.reference;
             if (ref == null) {
@@ -185,12 +269,13 @@ public class MappingProducer {
             if (nested.size() != existingNested.size()) {
                 // Must have added at least one ...
                 final List newNestedMappings = new ArrayList(parentMapping.getNested());
-                newNestedMappings.removeAll(existingNested);
                 final Iterator newNestedIter = newNestedMappings.iterator();
                 while (newNestedIter.hasNext()) {
                     final Mapping newNested = (Mapping)newNestedIter.next();
-                    // Go through all of the mappings under new mappings ...
-                    doProcessMapping(factory, newNested);
+                    if (!existingNested.contains(newNested)) {
+                        // Go through all of the mappings under new mappings ...
+                        doProcessMapping(factory, newNested);
+                    }
                 }
             }
 
@@ -213,6 +298,20 @@ public class MappingProducer {
 
     protected void doProcessMapping( final MappingFactory factory,
                                      final Mapping mapping ) {
+        this.unmappedObjects.addAll(mapContents(factory, mapping));
+
+        // Go through all of the mappings that were generated ...
+        doProcessNestedMappings(factory, mapping);
+    }
+
+    /**
+     * Match the contents of the input and output of the supplied mapping, adding a nested mapping for each match.
+     *
+     * @return the contents that were not matched; never null
+     */
+    private List mapContents( final MappingFactory factory,
+                              final Mapping mapping ) {
+        List unmapped = Collections.EMPTY_LIST;
         final List nestedInputs = mapping.getInputs();
         final List nestedOutputs = mapping.getOutputs();
         if (nestedInputs.size() == 1 && nestedOutputs.size() == 1) {
@@ -259,13 +358,107 @@ public class MappingProducer {
 
                     // If there are any left ...
                     if (inputValues.size() != 0 || outputValues.size() != 0) {
-                        enqueueUnmappedMappings(ref, inputValues, outputValues, mapping, factory);
+                        if (unmapped.isEmpty()) {
+                            unmapped = new ArrayList();
+                        }
+                        unmapped.add(new UnmappedObjects(ref, inputValues, outputValues, mapping));
                     }
                 }
             }
         }
-        // Go through all of the mappings that were generated ...
-        doProcessNestedMappings(factory, mapping);
+        return unmapped;
+    }
+
+    /**
+     * Match the contents of the mappings below the supplied mapping one level at a time, matching the contents of the mappings of
+     * each large level on several threads. The contents of each mapping are matched by one thread, which adds the nested mappings
+     * of only that mapping, so the matchers (which are stateless) need no locking. The unmatched contents are then queued in the
+     * order {@link #doProcessNestedMappings(MappingFactory, Mapping)} queues them, so the second phase is not affected.
+     */
+    private void processNestedMappingsInParallel( final MappingFactory factory,
+                                                  final Mapping mappingRoot ) {
+        final Map<Mapping, List> unmappedByMapping = new IdentityHashMap<Mapping, List>();
+        final ExecutorService executor = Executors.newFixedThreadPool(this.threads, new NamedThreadFactory("Model Compare Worker")); //$NON-NLS-1$
+        try {
+            List<Mapping> level = new ArrayList<Mapping>(mappingRoot.getNested());
+            while (!level.isEmpty()) {
+                mapContents(factory, level, unmappedByMapping, executor);
+                final List<Mapping> nextLevel = new ArrayList<Mapping>();
+                for (final Mapping mapping : level) {
+                    nextLevel.addAll(mapping.getNested());
+                }
+                level = nextLevel;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        enqueueUnmappedMappings(mappingRoot, unmappedByMapping);
+    }
+
+    private void mapContents( final MappingFactory factory,
+                              final List<Mapping> level,
+                              final Map<Mapping, List> unmappedByMapping,
+                              final ExecutorService executor ) {
+        if (level.size() < PARALLEL_THRESHOLD) {
+            for (final Mapping mapping : level) {
+                unmappedByMapping.put(mapping, mapContents(factory, mapping));
+            }
+            return;
+        }
+
+        // Hand the mappings to the workers in a few batches per thread, so that a batch of large mappings does not hold up the rest
+        final int batchSize = (level.size() + this.threads * 4 - 1) / (this.threads * 4);
+        final List<Future<List<List>>> batches = new ArrayList<Future<List<List>>>();
+        for (int start = 0; start < level.size(); start += batchSize) {
+            final List<Mapping> batch = level.subList(start, Math.min(start + batchSize, level.size()));
+            batches.add(executor.submit(new Callable<List<List>>() {
+                @Override
+                public List<List> call() {
+                    final List<List> unmapped = new ArrayList<List>(batch.size());
+                    for (final Mapping mapping : batch) {
+                        unmapped.add(mapContents(factory, mapping));
+                    }
+                    return unmapped;
+                }
+            }));
+        }
+        int index = 0;
+        for (final Future<List<List>> batch : batches) {
+            for (final List unmapped : getResult(batch)) {
+                unmappedByMapping.put(level.get(index++), unmapped);
+            }
+        }
+    }
+
+    private void enqueueUnmappedMappings( final Mapping mapping,
+                                          final Map<Mapping, List> unmappedByMapping ) {
+        final Iterator iter = mapping.getNested().iterator();
+        while (iter.hasNext()) {
+            final Mapping nested = (Mapping)iter.next();
+            final List unmapped = unmappedByMapping.get(nested);
+            if (unmapped != null) {
+                this.unmappedObjects.addAll(unmapped);
+            }
+            enqueueUnmappedMappings(nested, unmappedByMapping);
+        }
+    }
+
+    private static <T> T getResult( final Future<T> future ) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IllegalStateException(cause);
+        }
     }
 
     protected void enqueueUnmappedMappings( final EReference reference,
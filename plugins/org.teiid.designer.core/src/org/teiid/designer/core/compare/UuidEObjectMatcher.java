@@ -8,9 +8,11 @@
 package org.teiid.designer.core.compare;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
@@ -71,6 +73,7 @@ public class UuidEObjectMatcher extends AbstractEObjectMatcher {
         }
 
         // Loop over the outputs and compare the UUIDs ...
+        final Set matchedInputs = new HashSet();
         final Iterator outputIter = outputs.iterator();
         while (outputIter.hasNext()) {
             final EObject output = (EObject)outputIter.next();
@@ -88,7 +91,7 @@ public class UuidEObjectMatcher extends AbstractEObjectMatcher {
                  *  would be expensive.
                  */
                 if (input.eIsProxy() || output.eIsProxy()) {
-                    inputs.remove(input);
+                    matchedInputs.add(input);
                     outputIter.remove();
                     addMapping(input, output, mapping, factory);
 
@@ -96,13 +99,14 @@ public class UuidEObjectMatcher extends AbstractEObjectMatcher {
                     final EClass inputMetaclass = input.eClass();
                     final EClass outputMetaclass = output.eClass();
                     if (inputMetaclass.equals(outputMetaclass)) {
-                        inputs.remove(input);
+                        matchedInputs.add(input);
                         outputIter.remove();
                         addMapping(input, output, mapping, factory);
                     }
                 }
             }
         }
+        removeMatched(inputs, matchedInputs);
     }
 
     /*
@@ -9,12 +9,16 @@ package org.teiid.designer.core.extension;
 
 import static org.teiid.designer.core.ModelerCore.Util;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Properties;
+import java.util.WeakHashMap;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IWorkspace;
@@ -49,7 +53,24 @@ public class EmfModelObjectExtensionAssistant extends ModelObjectExtensionAssist
 
     private static final String PREFIX = I18nUtil.getPropertyPrefix(EmfModelObjectExtensionAssistant.class);
 
-    
+    /**
+     * Key is a model object annotation, value is the overridden values of the properties of this assistant's namespace found in
+     * the annotation's tags. An entry is only used while the annotation has the same tags it was computed from, so reading the
+     * values does not need to listen to the model. Never <code>null</code>.
+     */
+    private final Map<Annotation, OverriddenValues> overriddenValuesCache = Collections.synchronizedMap(new WeakHashMap<Annotation, OverriddenValues>());
+
+    /**
+     * Clears the cached overridden values when the MED is changed in place, since its property definitions decide which tags are
+     * properties and what their default values are. Never <code>null</code>.
+     */
+    private final PropertyChangeListener medListener = new PropertyChangeListener() {
+        @Override
+        public void propertyChange( PropertyChangeEvent e ) {
+            overriddenValuesCache.clear();
+        }
+    };
+
     /**
      * {@inheritDoc}
      * 
@@ -163,13 +184,23 @@ public class EmfModelObjectExtensionAssistant extends ModelObjectExtensionAssist
     public Properties getOverriddenValues( Object modelObject ) throws Exception {
         CoreArgCheck.isInstanceOf(EObject.class, modelObject);
         Properties props = new Properties();
+        ModelResource modelResource = getModelResource(modelObject);
 
-        if (supportsMyNamespace(modelObject)) {
+        if ((modelResource != null) && ModelExtensionUtils.isSupportedNamespace(modelResource, getNamespacePrefix())) {
             Annotation annotation = ModelExtensionUtils.getModelObjectAnnotation((EObject)modelObject, false);
 
             if (annotation != null) {
                 ModelExtensionDefinition med = getModelExtensionDefinition();
+                String modelTypeLiteral = modelResource.getModelType().getLiteral();
                 EMap<String, String> tags = annotation.getTags();
+                OverriddenValues cached = this.overriddenValuesCache.get(annotation);
+
+                if ((cached != null) && cached.isCurrent(med, modelTypeLiteral, tags)) {
+                    props.putAll(cached.values);
+                    return props;
+                }
+
+                med.addListener(this.medListener);
 
                 for (String propId : tags.keySet()) {
                     // only get properties of my namespace
@@ -185,6 +216,10 @@ public class EmfModelObjectExtensionAssistant extends ModelObjectExtensionAssist
                         }
                     }
                 }
+
+                Properties values = new Properties();
+                values.putAll(props);
+                this.overriddenValuesCache.put(annotation, new OverriddenValues(med, modelTypeLiteral, tags, values));
             }
         }
 
@@ -390,6 +425,7 @@ public class EmfModelObjectExtensionAssistant extends ModelObjectExtensionAssist
     @Override
     public void removeModelExtensionDefinition( Object modelObject ) throws Exception {
         ModelResource modelResource = getModelResource(modelObject);
+        this.overriddenValuesCache.clear();
 
         if (modelResource != null) {
             ModelExtensionUtils.removeModelExtensionDefinition(modelResource, getNamespacePrefix());
@@ -445,6 +481,7 @@ public class EmfModelObjectExtensionAssistant extends ModelObjectExtensionAssist
         assert (modelResource !=  null) : "Model resource should not be null"; //$NON-NLS-1$
         boolean update = supportsMyNamespace(modelObject); // see if this is an update
         ModelExtensionUtils.updateModelExtensionDefinition(modelResource, getModelExtensionDefinition());
+        this.overriddenValuesCache.clear();
 
         // remove any properties that are no longer supported by the MED
         if (update) {
@@ -598,4 +635,55 @@ public class EmfModelObjectExtensionAssistant extends ModelObjectExtensionAssist
         return ModelExtensionUtils.isSupportedNamespace(modelResource, getNamespacePrefix());
     }
 
+    /**
+     * The overridden property values of a model object annotation, and what they were computed from.
+     */
+    private static class OverriddenValues {
+        final ModelExtensionDefinition med;
+        final String modelTypeLiteral;
+        // the keys and values of the annotation's tags, in order
+        final String[] tags;
+        final Properties values;
+
+        OverriddenValues( ModelExtensionDefinition med,
+                          String modelTypeLiteral,
+                          EMap<String, String> tags,
+                          Properties values ) {
+            this.med = med;
+            this.modelTypeLiteral = modelTypeLiteral;
+            this.tags = new String[tags.size() * 2];
+            int i = 0;
+
+            for (Map.Entry<String, String> tag : tags) {
+                this.tags[i++] = tag.getKey();
+                this.tags[i++] = tag.getValue();
+            }
+
+            this.values = values;
+        }
+
+        /**
+         * @return <code>true</code> if the values were computed with the same MED and model type, from the same tags
+         */
+        boolean isCurrent( ModelExtensionDefinition currentMed,
+                           String currentModelTypeLiteral,
+                           EMap<String, String> currentTags ) {
+            // the supported model types of the MED decide which tags are properties
+            if ((this.med != currentMed) || !CoreStringUtil.equals(this.modelTypeLiteral, currentModelTypeLiteral)
+                || (this.tags.length != (currentTags.size() * 2))) {
+                return false;
+            }
+
+            int i = 0;
+
+            for (Map.Entry<String, String> tag : currentTags) {
+                if (!CoreStringUtil.equals(this.tags[i++], tag.getKey()) || !CoreStringUtil.equals(this.tags[i++], tag.getValue())) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
 }
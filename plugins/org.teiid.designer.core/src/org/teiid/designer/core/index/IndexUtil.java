@@ -8,6 +8,7 @@
 package org.teiid.designer.core.index;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.zip.CRC32;
 
@@ -26,6 +27,7 @@ import org.teiid.designer.core.resource.EmfResource;
 import org.teiid.designer.core.workspace.ModelResource;
 import org.teiid.designer.core.workspace.ModelWorkspace;
 import org.teiid.designer.core.workspace.ModelWorkspaceManager;
+import org.teiid.designer.metadata.runtime.impl.BinaryIndexRecord;
 
 
 /**
@@ -52,6 +54,11 @@ public class IndexUtil {
 		public void worked( int work ) {
             monitor.worked(work);
         }
+
+        @Override
+        public boolean isCanceled() {
+            return monitor.isCanceled();
+        }
     }
 
     public static final boolean CASE_SENSITIVE_INDEX_FILE_NAMES = false;
@@ -106,12 +113,47 @@ public class IndexUtil {
                                         final String resourcePath,
                                         final String indexDirectoryPath,
                                         final String indexFileName ) throws ModelerCoreException {
+        return indexResource(resource, resourcePath, indexDirectoryPath, indexFileName, new ModelIndexer());
+    }
+
+    /**
+     * Create an {@link IIndex} from the {@link org.eclipse.emf.ecore.resource.Resource}, with text table and column records
+     * whatever the {@link org.teiid.designer.core.metadata.runtime.RuntimeAdapter#BINARY_RECORDS_PROPERTY}, for packaging into a
+     * VDB.
+     * 
+     * @param resource The EMF resource to use
+     * @param resourcePath The path to the EMF resource
+     * @param indexDirectoryPath The path to the directory into which the index file is written
+     * @param indexFileName The name of the output index file
+     * @return the index
+     * @since 8.1
+     */
+    public static IIndex indexResourceForVdb( final Resource resource,
+                                              final String resourcePath,
+                                              final String indexDirectoryPath,
+                                              final String indexFileName ) throws ModelerCoreException {
+        return indexResource(resource, resourcePath, indexDirectoryPath, indexFileName, createVdbIndexer());
+    }
+
+    /**
+     * @return the indexer for the indexes packaged into a VDB, which writes text records
+     */
+    static ModelIndexer createVdbIndexer() {
+        final ModelIndexer indexer = new ModelIndexer();
+        indexer.setBinaryRecords(false);
+        return indexer;
+    }
+
+    private static IIndex indexResource( final Resource resource,
+                                         final String resourcePath,
+                                         final String indexDirectoryPath,
+                                         final String indexFileName,
+                                         final IIndexer indexer ) throws ModelerCoreException {
         if (resource == null) {
             CoreArgCheck.isNotNull(resource, ModelerCore.Util.getString("IndexUtil.The_Resource_reference_may_not_be_null_1")); //$NON-NLS-1$
         }
 
         try {
-            IIndexer indexer = new ModelIndexer();
             // runtime index
             String indexFilePath = getIndexFilePath(indexDirectoryPath, indexFileName);
             // IIndex runtimeIndex = new Index(indexFilePath, false);
@@ -133,6 +175,32 @@ public class IndexUtil {
 
     }
 
+    /**
+     * Whether an index holds table or column records in the binary form, which only Designer reads.
+     * 
+     * @param index the index to look at (may not be <code>null</code>)
+     * @return <code>true</code> if the index holds a binary record
+     * @throws IOException if the index cannot be read
+     * @since 8.1
+     */
+    public static boolean hasBinaryRecords( final IIndex index ) throws IOException {
+        CoreArgCheck.isNotNull(index);
+        final char[] recordTypes = {IndexConstants.RECORD_TYPE.TABLE, IndexConstants.RECORD_TYPE.COLUMN};
+        for (int i = 0; i < recordTypes.length; i++) {
+            final char[] prefix = {recordTypes[i], IndexConstants.RECORD_STRING.RECORD_DELIMITER};
+            final IEntryResult[] results = index.queryEntries(prefix);
+            if (results == null) {
+                continue;
+            }
+            for (int j = 0; j < results.length; j++) {
+                if (BinaryIndexRecord.isBinaryRecord(results[j].getWord())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Adds/removes an EmfResource to an Index if the resource exists, if the resource does not exist, the resource is removed
      * from the index.
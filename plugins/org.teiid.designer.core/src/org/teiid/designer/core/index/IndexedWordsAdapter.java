@@ -0,0 +1,349 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.teiid.core.designer.util.CoreArgCheck;
+
+/**
+ * Remembers the {@link WordEntry word entries} last indexed for each object of a model, and listens to the model so that a
+ * {@link ModelIndexer} only has to recompute the words of the objects changed since.
+ * <p>
+ * A change to an object marks as changed the object, everything it contains (their full names may have changed), its
+ * containers (their words may describe their contents) and the objects its containers reference within the same model (an
+ * annotation holds the extension properties of the object it annotates). Objects added to or removed from the model are
+ * marked as well, so that their words are added or dropped. Changes made while an indexer is running are picked up by its
+ * next run.
+ * </p>
+ * <p>
+ * A notification only records the changed object and the objects added to the model as changed subtrees; their contents are
+ * collected once, when an indexer {@link IndexedWords#takeChangedObjects(String) takes} the changes, so that many changes to
+ * the same objects cost no more than one. The contents of removed objects are collected when they are removed, since the
+ * adapter no longer follows them afterwards.
+ * </p>
+ * <p>
+ * The words of an object also hold the names and types of the objects it references in the models its model imports, so the
+ * whole model is indexed again once one of those models has changed since the model was last indexed.
+ * </p>
+ *
+ * @since 8.1
+ */
+final class IndexedWordsAdapter extends EContentAdapter {
+
+    /**
+     * Returns the adapter of the resource, attaching a new one if the resource has none.
+     *
+     * @param resource the model (may not be <code>null</code>)
+     * @return the adapter (never <code>null</code>)
+     */
+    static IndexedWordsAdapter adapt( final Resource resource ) {
+        CoreArgCheck.isNotNull(resource);
+        synchronized (resource) {
+            IndexedWordsAdapter adapter = (IndexedWordsAdapter)EcoreUtil.getExistingAdapter(resource, IndexedWordsAdapter.class);
+            if (adapter == null) {
+                adapter = new IndexedWordsAdapter();
+                resource.eAdapters().add(adapter);
+            }
+            return adapter;
+        }
+    }
+
+    /** Counts the changes to all adapted models, so that the changes to different models can be ordered */
+    private static final AtomicLong CHANGE_COUNT = new AtomicLong();
+
+    /** Indexer name -> the words last indexed by that indexer */
+    private final Map<String, IndexedWords> wordsByIndexer = new HashMap<String, IndexedWords>();
+
+    /** The change count of the last change to the model; the model may have changed before it was adapted */
+    private volatile long lastChange = CHANGE_COUNT.incrementAndGet();
+
+    private IndexedWordsAdapter() {
+    }
+
+    /**
+     * @return the change count of the last change to the model, or of the adapter's creation if the model has not changed since
+     */
+    long getLastChange() {
+        return this.lastChange;
+    }
+
+    /**
+     * @param indexerName identifies the indexer, since each indexer produces different words for the same object
+     * @return the words indexed by the indexer (never <code>null</code>)
+     */
+    synchronized IndexedWords getIndexedWords( final String indexerName ) {
+        IndexedWords words = this.wordsByIndexer.get(indexerName);
+        if (words == null) {
+            words = new IndexedWords();
+            this.wordsByIndexer.put(indexerName, words);
+        }
+        return words;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.eclipse.emf.common.notify.impl.AdapterImpl#isAdapterForType(java.lang.Object)
+     */
+    @Override
+    public boolean isAdapterForType( final Object type ) {
+        return type == IndexedWordsAdapter.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.eclipse.emf.ecore.util.EContentAdapter#notifyChanged(org.eclipse.emf.common.notify.Notification)
+     */
+    @Override
+    public void notifyChanged( final Notification notification ) {
+        // keeps this adapter attached to added contents and detaches it from removed ones
+        super.notifyChanged(notification);
+        if (notification.isTouch()) return;
+
+        final Object notifier = notification.getNotifier();
+        if (notifier instanceof Resource) {
+            switch (notification.getFeatureID(Resource.class)) {
+                case Resource.RESOURCE__CONTENTS:
+                    this.lastChange = CHANGE_COUNT.incrementAndGet();
+                    final Set<EObject> changed = new HashSet<EObject>();
+                    final Set<EObject> changedSubtrees = new HashSet<EObject>();
+                    addChangedContents(notification, changed, changedSubtrees);
+                    markChanged(changed, changedSubtrees);
+                    break;
+                case Resource.RESOURCE__IS_LOADED:
+                    this.lastChange = CHANGE_COUNT.incrementAndGet();
+                    invalidate();
+                    break;
+                default:
+                    // URI, modification and tracking changes do not affect the words
+            }
+        } else if (notifier instanceof EObject) {
+            this.lastChange = CHANGE_COUNT.incrementAndGet();
+            final EObject eObject = (EObject)notifier;
+            final Set<EObject> changed = new HashSet<EObject>();
+            final Set<EObject> changedSubtrees = new HashSet<EObject>();
+            changedSubtrees.add(eObject);
+            for (EObject object = eObject.eContainer(); object != null; object = object.eContainer()) {
+                changed.add(object);
+                addReferencedObjects(object, changed);
+            }
+            addReferencedObjects(eObject, changed);
+            if (notification.getFeature() instanceof EReference && ((EReference)notification.getFeature()).isContainment()) {
+                addChangedContents(notification, changed, changedSubtrees);
+            }
+            markChanged(changed, changedSubtrees);
+        }
+    }
+
+    private synchronized void markChanged( final Collection<EObject> changed,
+                                           final Collection<EObject> changedSubtrees ) {
+        for (final IndexedWords words : this.wordsByIndexer.values()) {
+            words.changed.addAll(changed);
+            words.changedSubtrees.addAll(changedSubtrees);
+        }
+    }
+
+    private synchronized void invalidate() {
+        for (final IndexedWords words : this.wordsByIndexer.values()) {
+            words.valid = false;
+        }
+    }
+
+    /**
+     * Adds the objects removed by the notification with all of their contents, and the objects added by it as changed subtrees.
+     */
+    private static void addChangedContents( final Notification notification,
+                                            final Set<EObject> changed,
+                                            final Set<EObject> changedSubtrees ) {
+        addValue(notification.getOldValue(), changed, true);
+        addValue(notification.getNewValue(), changedSubtrees, false);
+    }
+
+    private static void addValue( final Object value,
+                                  final Set<EObject> changed,
+                                  final boolean withContents ) {
+        if (value instanceof EObject) {
+            changed.add((EObject)value);
+            if (withContents) {
+                for (final Iterator iter = ((EObject)value).eAllContents(); iter.hasNext();) {
+                    changed.add((EObject)iter.next());
+                }
+            }
+        } else if (value instanceof Collection) {
+            for (final Iterator iter = ((Collection)value).iterator(); iter.hasNext();) {
+                addValue(iter.next(), changed, withContents);
+            }
+        }
+    }
+
+    /**
+     * Adds the objects of the same model that the single-valued, non-containment references of the object point to.
+     */
+    private static void addReferencedObjects( final EObject eObject,
+                                              final Set<EObject> changed ) {
+        final Resource resource = eObject.eResource();
+        if (resource == null) return;
+        for (final Iterator iter = eObject.eClass().getEAllReferences().iterator(); iter.hasNext();) {
+            final EReference reference = (EReference)iter.next();
+            if (reference.isMany() || reference.isContainment() || reference.isContainer() || reference.isDerived()) {
+                continue;
+            }
+            final Object value = eObject.eGet(reference, false);
+            if (value instanceof EObject && ((EObject)value).eResource() == resource) {
+                changed.add((EObject)value);
+            }
+        }
+    }
+
+    /**
+     * The words one indexer last produced for the objects of a model. Callers synchronize on the instance while indexing.
+     */
+    static final class IndexedWords {
+
+        /** Objects changed since they were last indexed; written by the notification thread without locking the instance */
+        final Set<EObject> changed = Collections.newSetFromMap(new ConcurrentHashMap<EObject, Boolean>());
+        /** Objects changed since they were last indexed together with all of their contents; written like {@link #changed} */
+        final Set<EObject> changedSubtrees = Collections.newSetFromMap(new ConcurrentHashMap<EObject, Boolean>());
+        volatile boolean valid;
+
+        private final Map<EObject, List> wordsByObject = new HashMap<EObject, List>();
+        private String modelPath;
+        private IndexingContext context;
+        /** The change count when the words were last computed */
+        private long indexedChange;
+
+        /**
+         * Returns the objects whose words must be recomputed, and forgets that they have changed. Returns <code>null</code> if
+         * the whole model must be indexed instead: it has not been indexed yet, it was reloaded, it has moved, or so much of it
+         * changed that walking it all is as cheap.
+         *
+         * @param theModelPath the path of the model being indexed
+         * @return the changed objects, or <code>null</code>
+         */
+        Collection<EObject> takeChangedObjects( final String theModelPath ) {
+            return takeChangedObjects(theModelPath, Collections.<Resource>emptyList());
+        }
+
+        /**
+         * Returns the objects whose words must be recomputed, as {@link #takeChangedObjects(String)} does, or <code>null</code>
+         * if one of the models the model imports has changed since the model was last indexed.
+         *
+         * @param theModelPath the path of the model being indexed
+         * @param importedModels the loaded models the model imports
+         * @return the changed objects, or <code>null</code>
+         */
+        Collection<EObject> takeChangedObjects( final String theModelPath,
+                                                final Collection<Resource> importedModels ) {
+            if (!this.valid || !theModelPath.equals(this.modelPath)) {
+                return null;
+            }
+            for (final Resource importedModel : importedModels) {
+                if (adapt(importedModel).getLastChange() > this.indexedChange) {
+                    return null;
+                }
+            }
+            this.indexedChange = CHANGE_COUNT.get();
+            final int indexed = this.wordsByObject.size();
+            final Set<EObject> objects = new HashSet<EObject>(this.changed);
+            this.changed.removeAll(objects);
+            final List<EObject> subtrees = new ArrayList<EObject>(this.changedSubtrees);
+            this.changedSubtrees.removeAll(subtrees);
+
+            final Set<EObject> subtreeSet = new HashSet<EObject>(subtrees);
+            for (final EObject subtree : subtrees) {
+                if (objects.size() * 2 > indexed) break;
+                if (hasAncestorIn(subtree, subtreeSet)) {
+                    // collected with the contents of its ancestor
+                    continue;
+                }
+                objects.add(subtree);
+                for (final Iterator iter = subtree.eAllContents(); iter.hasNext() && objects.size() * 2 <= indexed;) {
+                    objects.add((EObject)iter.next());
+                }
+            }
+            if (objects.size() * 2 > indexed) {
+                return null;
+            }
+            return new ArrayList<EObject>(objects);
+        }
+
+        private static boolean hasAncestorIn( final EObject eObject,
+                                              final Set<EObject> objects ) {
+            for (EObject container = eObject.eContainer(); container != null; container = container.eContainer()) {
+                if (objects.contains(container)) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Forgets all words, before the whole model is indexed.
+         *
+         * @param theModelPath the path of the model being indexed
+         * @param theContext the context the model is indexed in
+         */
+        void reset( final String theModelPath,
+                    final IndexingContext theContext ) {
+            this.changed.clear();
+            this.changedSubtrees.clear();
+            this.wordsByObject.clear();
+            this.modelPath = theModelPath;
+            this.context = theContext;
+            this.indexedChange = CHANGE_COUNT.get();
+            this.valid = true;
+        }
+
+        /**
+         * @return the context the model was last indexed in, which remembers the transformation that claimed each target
+         */
+        IndexingContext getContext() {
+            return this.context;
+        }
+
+        void setWords( final EObject eObject,
+                       final List words ) {
+            this.wordsByObject.put(eObject, words);
+        }
+
+        void removeWords( final EObject eObject ) {
+            this.wordsByObject.remove(eObject);
+        }
+
+        /**
+         * @param words the list to which all indexed words are added
+         */
+        void addAllWords( final List words ) {
+            for (final List objectWords : this.wordsByObject.values()) {
+                words.addAll(objectWords);
+            }
+        }
+
+        /**
+         * @return the number of indexed objects
+         */
+        int size() {
+            return this.wordsByObject.size();
+        }
+    }
+}
@@ -54,6 +54,17 @@ public class IndexingContext {
 		}
 	}
 	
+	/**
+	 * Forgets the target registered for the given transformation, so that the target can be claimed again
+	 * when the transformation, or another one, is re-indexed.
+	 * @since 8.1
+	 */
+	public void removeTargetTransform(final EObject transform) {
+		if(targetTransformMap != null) {
+		    targetTransformMap.values().remove(transform);
+		}
+	}
+
 	public boolean hasTransformation(final EObject target) {
 	    if(targetTransformMap != null) {
 	        return this.targetTransformMap.containsKey(target);
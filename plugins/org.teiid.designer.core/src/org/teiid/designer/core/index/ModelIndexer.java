@@ -19,6 +19,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -27,8 +28,10 @@ import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.container.Container;
 import org.teiid.designer.core.container.DuplicateResourceException;
+import org.teiid.designer.core.index.IndexedWordsAdapter.IndexedWords;
 import org.teiid.designer.core.metadata.runtime.RuntimeAdapter;
 import org.teiid.designer.core.util.ModelObjectCollector;
+import org.teiid.designer.core.workspace.ModelDependencyTracker;
 import org.teiid.designer.core.workspace.ModelResource;
 import org.teiid.designer.core.workspace.ModelWorkspace;
 import org.teiid.designer.core.workspace.ModelWorkspaceException;
@@ -46,10 +49,22 @@ public class ModelIndexer implements ResourceIndexer {
     /** If true the contents of the index files will be printed to System.out */
     public static boolean PRINT_INDEX_CONTENTS = false;
 
+    /**
+     * System property which, when set to <code>true</code>, makes the indexer remember the words of each model it indexes and
+     * recompute only the words of the objects changed since the model was last indexed.
+     * 
+     * @since 8.1
+     */
+    public static final String INCREMENTAL_INDEXING_PROPERTY = "org.teiid.designer.index.incremental"; //$NON-NLS-1$
+
+    private static volatile boolean incrementalIndexing = Boolean.getBoolean(INCREMENTAL_INDEXING_PROPERTY);
+
     private static final String[] FILE_TYPES = new String[] {"model"}; //$NON-NLS-1$
 
     private static String INDEX_TYPES = ModelerCore.Util.getString("ModelIndexer.Metadata_Indexes_1"); //$NON-NLS-1$
 
+    private boolean binaryRecords = Boolean.getBoolean(RuntimeAdapter.BINARY_RECORDS_PROPERTY);
+
     // ==================================================================================
     // I N T E R F A C E M E T H O D S
     // ==================================================================================
@@ -57,21 +72,68 @@ public class ModelIndexer implements ResourceIndexer {
     public ModelIndexer() {
     }
 
+    /**
+     * @return <code>true</code> if models are indexed incrementally
+     * @see #INCREMENTAL_INDEXING_PROPERTY
+     * @since 8.1
+     */
+    public static boolean isIncrementalIndexing() {
+        return incrementalIndexing;
+    }
+
+    /**
+     * Switches incremental indexing on or off. Words also hold what the objects reference in other models, such as resolved
+     * datatypes, so a model is indexed again in full once one of the models it imports has changed.
+     * 
+     * @param theIncrementalIndexing <code>true</code> to index models incrementally
+     * @see #INCREMENTAL_INDEXING_PROPERTY
+     * @since 8.1
+     */
+    public static void setIncrementalIndexing( final boolean theIncrementalIndexing ) {
+        incrementalIndexing = theIncrementalIndexing;
+    }
+
+    /**
+     * @return <code>true</code> if table and column records are written in the compact binary form
+     * @see RuntimeAdapter#BINARY_RECORDS_PROPERTY
+     * @since 8.1
+     */
+    public boolean isBinaryRecords() {
+        return this.binaryRecords;
+    }
+
+    /**
+     * Switches binary table and column records on or off. Binary records are off by default, unless the
+     * {@link RuntimeAdapter#BINARY_RECORDS_PROPERTY} is set, and must stay off for indexes that are packaged into VDBs, since
+     * Teiid servers only read text records.
+     * 
+     * @param theBinaryRecords <code>true</code> to write binary records
+     * @since 8.1
+     */
+    public void setBinaryRecords( final boolean theBinaryRecords ) {
+        this.binaryRecords = theBinaryRecords;
+    }
+
     private IndexingContext createQueryContext() {
-        Collection resources;
+        Collection resources = getResourcesInContext();
+        if (resources == null) {
+            return null;
+        }
+        IndexingContext context = new IndexingContext();
+        context.setResourcesInContext(resources);
+        return context;
+    }
+
+    private Collection getResourcesInContext() {
         Container container;
         try {
             // assume model container...modler metadata is for workspace
             container = ModelerCore.getModelContainer();
             ModelWorkspace workspace = ModelerCore.getModelWorkspace();
             if (workspace.isOpen()) {
-                resources = Arrays.asList(workspace.getEmfResources());
-            } else {
-                resources = container.getResources();
+                return Arrays.asList(workspace.getEmfResources());
             }
-            IndexingContext context = new IndexingContext();
-            context.setResourcesInContext(resources);
-            return context;
+            return container.getResources();
         } catch (CoreException e) {
             ModelerCore.Util.log(e);
         }
@@ -127,53 +189,26 @@ public class ModelIndexer implements ResourceIndexer {
             return;
         }
 
-        // ------------------------------------
-        // Defect 22774 - (BML 10/3/06) added ability to set the initial index array size prior to creating the index words.
-        // This should improve performance a little for little models and a little more for large models with many indexes.
-        // ------------------------------------
-        int initialIndexSize = 10;
-        List eObjects = Collections.EMPTY_LIST;
-        String modelPath = null;
-
-        if (document instanceof ModelDocument) {
-            // Get the indexName from the given ModelDocument
-            final ModelDocument modelDocument = (ModelDocument)document;
-            modelPath = modelDocument.getIResource().getFullPath().toString();
-            // get the emf resource
-            Resource emfResource = modelDocument.getResource();
-
-            final ModelObjectCollector moc = new ModelObjectCollector(emfResource);
-            eObjects = moc.getEObjects();
-            initialIndexSize += eObjects.size();
-        }
-
-        // list of words to be added to the index
-        List indexWords = new ArrayList(initialIndexSize);
-
-        // Add any WordEntry instances for the resource being indexed
-        this.addResourceWordEntries(document, indexWords);
-        // ModelerCore.Util.log(IStatus.INFO, "    -------------- ModelIndexer.index() START ----------------------");
-        // ModelerCore.Util.log(IStatus.INFO, "        >> Indexing emfResource = " + document.getName());
-        // ModelerCore.Util.log(IStatus.INFO, "        >>           # EObjects = " + eObjects.size());
-        if (document instanceof ModelDocument) {
-
-            IndexingContext context = createQueryContext();
-            for (final Iterator iter = eObjects.iterator(); iter.hasNext();) {
-                final EObject eObject = (EObject)iter.next();
-                // Add the appropriate word entries for the given EObject
-                this.addIndexWord(eObject, context, modelPath, indexWords);
-            }
-
+        List indexWords;
+        if (incrementalIndexing && document instanceof ModelDocument) {
+            indexWords = getChangedIndexWords((ModelDocument)document);
+        } else {
+            indexWords = getIndexWords(document);
         }
 
-        // Preprocess the WordEntry list prior to creating the index file
-        this.sortWordEntries(indexWords);
-
-        // Add the entries to the index file
+        // Add the entries to the index file; the index sorts all of its words when it is saved, so they are not sorted here
         output.addDocument(document);
         addEntries(output, indexWords);
 
+        // Keep the references between the objects of the model up to date while the model is at hand
+        final ModelDependencyTracker dependencyTracker = ModelerCore.getModelDependencyTracker();
+        if (dependencyTracker != null && document instanceof ModelDocument) {
+            final ModelDocument modelDocument = (ModelDocument)document;
+            dependencyTracker.updateReferences(modelDocument.getIResource().getFullPath().toString(), modelDocument.getResource());
+        }
+
         if (PRINT_INDEX_CONTENTS && !(this instanceof ModelSearchIndexer)) {
+            this.sortWordEntries(indexWords);
             printWordEntryList(indexWords, System.out);
         }
 
@@ -308,11 +343,12 @@ public class ModelIndexer implements ResourceIndexer {
                                  IndexingContext context,
                                  final String modelPath,
                                  final List wordEntries ) {
-        RuntimeAdapter.addIndexWord(eObject, context, modelPath, wordEntries, true);
+        RuntimeAdapter.addIndexWord(eObject, context, modelPath, wordEntries, true, this.binaryRecords);
     }
 
     /**
-     * Sort the list of WordEntry instances prior to adding the entries to the IIndexerOutput.
+     * Sort the list of WordEntry instances prior to printing them. The entries added to the IIndexerOutput need no sorting, since
+     * the index sorts all of its words when it is saved.
      * 
      * @param wordEntries the list to be sorted
      */
@@ -337,6 +373,121 @@ public class ModelIndexer implements ResourceIndexer {
     // P R I V A T E M E T H O D S
     // ==================================================================================
 
+    /**
+     * Walks the whole document and creates the word entries of all of its objects.
+     */
+    private List getIndexWords( final IDocument document ) {
+        // ------------------------------------
+        // Defect 22774 - (BML 10/3/06) added ability to set the initial index array size prior to creating the index words.
+        // This should improve performance a little for little models and a little more for large models with many indexes.
+        // ------------------------------------
+        int initialIndexSize = 10;
+        List eObjects = Collections.EMPTY_LIST;
+        String modelPath = null;
+
+        if (document instanceof ModelDocument) {
+            // Get the indexName from the given ModelDocument
+            final ModelDocument modelDocument = (ModelDocument)document;
+            modelPath = modelDocument.getIResource().getFullPath().toString();
+            // get the emf resource
+            Resource emfResource = modelDocument.getResource();
+
+            final ModelObjectCollector moc = new ModelObjectCollector(emfResource);
+            eObjects = moc.getEObjects();
+            initialIndexSize += eObjects.size();
+        }
+
+        // list of words to be added to the index
+        List indexWords = new ArrayList(initialIndexSize);
+
+        // Add any WordEntry instances for the resource being indexed
+        this.addResourceWordEntries(document, indexWords);
+        if (document instanceof ModelDocument) {
+
+            IndexingContext context = createQueryContext();
+            for (final Iterator iter = eObjects.iterator(); iter.hasNext();) {
+                final EObject eObject = (EObject)iter.next();
+                // Add the appropriate word entries for the given EObject
+                this.addIndexWord(eObject, context, modelPath, indexWords);
+            }
+
+        }
+        return indexWords;
+    }
+
+    /**
+     * Creates the word entries of the document from the words last indexed for it, recomputing only the words of the objects
+     * changed since. The whole model is walked the first time, and whenever the changes cannot be applied on their own.
+     */
+    private List getChangedIndexWords( final ModelDocument document ) {
+        final String modelPath = document.getIResource().getFullPath().toString();
+        final Resource emfResource = document.getResource();
+        // binary and text words of the same model are kept apart
+        final String indexerName = this.binaryRecords ? getClass().getName() + ".binary" : getClass().getName(); //$NON-NLS-1$
+        final IndexedWords indexedWords = IndexedWordsAdapter.adapt(emfResource).getIndexedWords(indexerName);
+
+        synchronized (indexedWords) {
+            final Collection<Resource> importedModels = getImportedModels(modelPath);
+            Collection eObjects = importedModels == null ? null : indexedWords.takeChangedObjects(modelPath, importedModels);
+            IndexingContext context = indexedWords.getContext();
+            if (eObjects == null || context == null) {
+                context = createQueryContext();
+                indexedWords.reset(modelPath, context);
+                eObjects = new ModelObjectCollector(emfResource).getEObjects();
+            } else {
+                context.setResourcesInContext(getResourcesInContext());
+                // forget the old words first, so that a target freed by one changed transformation can be claimed by another
+                for (final Iterator iter = eObjects.iterator(); iter.hasNext();) {
+                    final EObject eObject = (EObject)iter.next();
+                    indexedWords.removeWords(eObject);
+                    context.removeTargetTransform(eObject);
+                }
+            }
+
+            for (final Iterator iter = eObjects.iterator(); iter.hasNext();) {
+                final EObject eObject = (EObject)iter.next();
+                // objects removed from the model keep no words
+                if (eObject.eResource() == emfResource) {
+                    final List objectWords = new ArrayList(2);
+                    this.addIndexWord(eObject, context, modelPath, objectWords);
+                    indexedWords.setWords(eObject, objectWords.isEmpty() ? Collections.EMPTY_LIST : objectWords);
+                }
+            }
+
+            final List indexWords = new ArrayList(indexedWords.size() + 10);
+            this.addResourceWordEntries(document, indexWords);
+            indexedWords.addAllWords(indexWords);
+            return indexWords;
+        }
+    }
+
+    /**
+     * Returns the loaded models that the model imports, as found in the dependency graph. A model that is not loaded is
+     * skipped; once it is loaded again, it is adapted anew, which counts as a change.
+     *
+     * @return the models, or <code>null</code> if they cannot be found
+     */
+    private Collection<Resource> getImportedModels( final String modelPath ) {
+        final ModelDependencyTracker dependencyTracker = ModelerCore.getModelDependencyTracker();
+        if (dependencyTracker == null) {
+            return null;
+        }
+        final ModelWorkspace workspace = ModelerCore.getModelWorkspace();
+        final Collection<Resource> importedModels = new ArrayList<Resource>();
+        for (final String importPath : dependencyTracker.getReconciledGraph().getImports(modelPath)) {
+            final ModelResource modelResource = workspace.findModelResource(new Path(importPath));
+            if (modelResource != null && modelResource.isLoaded()) {
+                try {
+                    importedModels.add(modelResource.getEmfResource());
+                } catch (final ModelWorkspaceException e) {
+                    ModelerCore.Util.log(e);
+                    return null;
+                }
+            }
+        }
+        return importedModels;
+    }
+
     /**
      * Add word entries to indexoutput.
      */
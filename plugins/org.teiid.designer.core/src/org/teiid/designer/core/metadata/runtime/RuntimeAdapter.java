@@ -52,6 +52,7 @@ import org.teiid.designer.extension.definition.ModelExtensionAssistant;
 import org.teiid.designer.extension.definition.ModelObjectExtensionAssistant;
 import org.teiid.designer.extension.properties.ModelExtensionPropertyDefinition;
 import org.teiid.designer.extension.registry.ModelExtensionRegistry;
+import org.teiid.designer.metadata.runtime.impl.BinaryIndexRecord;
 import org.teiid.designer.metadata.runtime.impl.RecordFactory;
 import org.teiid.designer.metamodels.core.Annotation;
 
@@ -63,6 +64,16 @@ import org.teiid.designer.metamodels.core.Annotation;
  */
 public class RuntimeAdapter extends RecordFactory {
 
+    /**
+     * The system property that makes the {@link org.teiid.designer.core.index.ModelIndexer} write the table and column records of
+     * workspace indexes in the compact {@link BinaryIndexRecord} form. Index files holding binary records can only be read by
+     * readers that know the {@link #BINARY_RECORD_INDEX_VERSION}, so text records are written unless binary records are asked
+     * for, and the indexes packaged into VDBs are always written with text records.
+     * 
+     * @since 8.1
+     */
+    public static final String BINARY_RECORDS_PROPERTY = "org.teiid.designer.index.binaryRecords"; //$NON-NLS-1$
+
     private static HashMap metaClassUriMap = new HashMap();
 
     // ==================================================================================
@@ -124,6 +135,26 @@ public class RuntimeAdapter extends RecordFactory {
                                      final String modelPath,
                                      final Collection wordEntries,
                                      final boolean addAllWords ) {
+        addIndexWord(eObject, context, modelPath, wordEntries, addAllWords, false);
+    }
+
+    /**
+     * Create the {@link WordEntry} instance(s) to be used as the index file record(s) for
+     * this SqlAspect instance. The word entries are added to the list provided by the calling method.
+     * 
+     * @param sqlAspect
+     * @param modelPath
+     * @param wordEntries the list to which WordEntry instances are added
+     * @param addAllWords boolean indicating if certain types of indexes can be skipped based on type of indexer call this.
+     * @param binaryRecords true to write table and column records in the {@link BinaryIndexRecord} form
+     * @since 8.1
+     */
+    public static void addIndexWord( final Object eObject,
+                                     final IndexingContext context,
+                                     final String modelPath,
+                                     final Collection wordEntries,
+                                     final boolean addAllWords,
+                                     final boolean binaryRecords ) {
         CoreArgCheck.isInstanceOf(EObject.class, eObject);
         SqlAspect sqlAspect = AspectManager.getSqlAspect((EObject)eObject);
         if (sqlAspect == null || !sqlAspect.isQueryable((EObject)eObject)) {
@@ -131,10 +162,10 @@ public class RuntimeAdapter extends RecordFactory {
         }
 
         if (sqlAspect.isRecordType(IndexConstants.RECORD_TYPE.COLUMN)) {
-            addColumnWord((SqlColumnAspect)sqlAspect, (EObject)eObject, modelPath, wordEntries);
+            addColumnWord((SqlColumnAspect)sqlAspect, (EObject)eObject, modelPath, wordEntries, binaryRecords);
         }
         if (sqlAspect.isRecordType(IndexConstants.RECORD_TYPE.TABLE)) {
-            addTableWord((SqlTableAspect)sqlAspect, (EObject)eObject, context, modelPath, wordEntries);
+            addTableWord((SqlTableAspect)sqlAspect, (EObject)eObject, context, modelPath, wordEntries, binaryRecords);
         }
         if (sqlAspect.isRecordType(IndexConstants.RECORD_TYPE.DATATYPE)) {
             addDatatypeWord((SqlDatatypeAspect)sqlAspect, (EObject)eObject, modelPath, wordEntries);
@@ -622,6 +653,20 @@ public class RuntimeAdapter extends RecordFactory {
                                      final IndexingContext context,
                                      final String modelPath,
                                      final Collection wordEntries ) {
+        addTableWord(aspect, eObject, context, modelPath, wordEntries, false);
+    }
+
+    /**
+     * Create a {@link WordEntry} instance representing a table, in the {@link BinaryIndexRecord} form if asked for.
+     * 
+     * @since 8.1
+     */
+    public static void addTableWord( final SqlTableAspect aspect,
+                                     final EObject eObject,
+                                     final IndexingContext context,
+                                     final String modelPath,
+                                     final Collection wordEntries,
+                                     final boolean binaryRecords ) {
 
         final String objectID = getObjectIdString(aspect.getObjectID(eObject));
         final String name = aspect.getName(eObject);
@@ -656,7 +701,8 @@ public class RuntimeAdapter extends RecordFactory {
                      materializedTableID,
                      modelPath,
                      name,
-                     wordEntries);
+                     wordEntries,
+                     binaryRecords);
     }
 
     /**
@@ -684,12 +730,34 @@ public class RuntimeAdapter extends RecordFactory {
                               final String materializedTableID,
                               final String modelPath,
                               final String name,
-                              final Collection wordEntries ) {
+                              final Collection wordEntries,
+                              final boolean binaryRecords ) {
 
         // Construct a string containing the runtime metadata
         final StringBuffer sb = new StringBuffer(getIniitalBufferSize());
         appendWordHeader(IndexConstants.RECORD_TYPE.TABLE, objectID, fullName, nameInSource, parentObjectID, sb);
 
+        if (binaryRecords) {
+            final BinaryIndexRecord.Writer writer = new BinaryIndexRecord.Writer(sb);
+            writer.writeInt(cardinality);
+            writer.writeInt(tableType);
+            writer.writeFlags(new boolean[] {isVirtual, isSystem, supportsUpdate, isMaterialized});
+            // See the text record below for why the column UUIDs are not stored
+            writer.writeStrings(Collections.EMPTY_LIST);
+            writer.writeString(getIdToken(primaryKeyID));
+            writer.writeStrings(getIdStrings(foreignKeyIDs));
+            writer.writeStrings(getIdStrings(indexIDs));
+            writer.writeStrings(getIdStrings(uniqueKeyIDs));
+            writer.writeStrings(getIdStrings(accessPatternIDs));
+            writer.writeString(getIdToken(materializedTableID));
+            writer.writeString(getIdToken(null));
+            writer.end();
+
+            appendWordFooter(modelPath, name, BINARY_RECORD_INDEX_VERSION, sb);
+            addNewWordEntryToList(objectID, sb, wordEntries);
+            return;
+        }
+
         // Append the cardinality
         sb.append(cardinality);
         sb.append(IndexConstants.RECORD_STRING.RECORD_DELIMITER);
@@ -759,6 +827,19 @@ public class RuntimeAdapter extends RecordFactory {
                                       final EObject eObject,
                                       final String modelPath,
                                       final Collection wordEntries ) {
+        addColumnWord(aspect, eObject, modelPath, wordEntries, false);
+    }
+
+    /**
+     * Create a {@link WordEntry} instance representing a column, in the {@link BinaryIndexRecord} form if asked for.
+     * 
+     * @since 8.1
+     */
+    public static void addColumnWord( final SqlColumnAspect aspect,
+                                      final EObject eObject,
+                                      final String modelPath,
+                                      final Collection wordEntries,
+                                      final boolean binaryRecords ) {
 
         final String objectID = getObjectIdString(aspect.getObjectID(eObject));
         final String parentObjectID = getObjectIdString(aspect.getParentObjectID(eObject));
@@ -799,7 +880,8 @@ public class RuntimeAdapter extends RecordFactory {
                       aspect.getPosition(eObject),
                       modelPath,
                       name,
-                      wordEntries);
+                      wordEntries,
+                      binaryRecords);
     }
 
     /**
@@ -839,12 +921,41 @@ public class RuntimeAdapter extends RecordFactory {
                                final int position,
                                final String modelPath,
                                final String name,
-                               final Collection wordEntries ) {
+                               final Collection wordEntries,
+                               final boolean binaryRecords ) {
 
         // Construct a string containing the runtime metadata
         final StringBuffer sb = new StringBuffer(getIniitalBufferSize());
         appendWordHeader(IndexConstants.RECORD_TYPE.COLUMN, objectID, fullName, nameInSource, parentObjectID, sb);
 
+        if (binaryRecords) {
+            final BinaryIndexRecord.Writer writer = new BinaryIndexRecord.Writer(sb);
+            writer.writeFlags(new boolean[] {isSelectable, isUpdatable, isAutoIncrementable, isCaseSensitive, isSigned,
+                isCurrency, isFixedLength, isTranformationInputParameter});
+            writer.writeInt(nullType);
+            writer.writeInt(searchType);
+            writer.writeInt(length);
+            writer.writeInt(scale);
+            writer.writeInt(precision);
+            writer.writeInt(position);
+            writer.writeInt(charOctetLength);
+            writer.writeInt(radix);
+            writer.writeInt(distinctValues);
+            writer.writeInt(nullValues);
+            writer.writeString(getObjectToken(minValue));
+            writer.writeString(getObjectToken(maxValue));
+            writer.writeString(getObjectToken(format));
+            writer.writeString(getObjectToken(runtimeType));
+            writer.writeString(getObjectToken(nativeType));
+            writer.writeString(getObjectToken(datatypeObjectID));
+            writer.writeString(getObjectToken(defaultValue));
+            writer.end();
+
+            appendWordFooter(modelPath, name, BINARY_RECORD_INDEX_VERSION, sb);
+            addNewWordEntryToList(objectID, sb, wordEntries);
+            return;
+        }
+
         // Append the supports flags
         appendBoolean(isSelectable, sb);
         appendBoolean(isUpdatable, sb);
@@ -1905,15 +2016,57 @@ public class RuntimeAdapter extends RecordFactory {
     private static void appendWordFooter( final String modelPath,
                                           final String name,
                                           final StringBuffer sb ) {
+        appendWordFooter(modelPath, name, getCurrentIndexVersionNumber(), sb);
+    }
+
+    private static void appendWordFooter( final String modelPath,
+                                          final String name,
+                                          final int indexVersion,
+                                          final StringBuffer sb ) {
         sb.append(IndexConstants.RECORD_STRING.RECORD_DELIMITER);
         appendObject(modelPath, sb);
         sb.append(IndexConstants.RECORD_STRING.RECORD_DELIMITER);
         appendObject(name, sb);
         sb.append(IndexConstants.RECORD_STRING.RECORD_DELIMITER);
-        appendIndexVersion(getCurrentIndexVersionNumber(), sb);
+        appendIndexVersion(indexVersion, sb);
         sb.append(IndexConstants.RECORD_STRING.RECORD_DELIMITER);
     }
 
+    /**
+     * Return the value a text record holds for the object, so that a binary record decodes to the same value.
+     */
+    private static String getObjectToken( final Object obj ) {
+        final StringBuffer sb = new StringBuffer();
+        appendObject(obj, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Return the value a text record holds for the identifier, so that a binary record decodes to the same value.
+     */
+    private static String getIdToken( final Object obj ) {
+        final StringBuffer sb = new StringBuffer();
+        appendID(obj, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Return the non-empty identifiers of the objects in the collection.
+     */
+    private static List getIdStrings( final Collection objs ) {
+        if (objs == null || objs.isEmpty()) {
+            return Collections.EMPTY_LIST;
+        }
+        final List result = new ArrayList(objs.size());
+        for (Iterator iter = objs.iterator(); iter.hasNext();) {
+            String id = getObjectIdString(iter.next());
+            if (id != null && id.trim().length() != 0) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
     /**
      * Create the continuation "header" portion of an index record. This header is used to prefix a record that is a continuation
      * of another record and is of the form: RECORD_CONTINUATION|objectID|segmentCount|
@@ -8,7 +8,6 @@
 package org.teiid.designer.core.resource;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -16,32 +15,35 @@ import java.util.Map;
 
 import org.eclipse.emf.ecore.EObject;
 import org.teiid.core.designer.id.ObjectID;
+import org.teiid.core.designer.id.UUID;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.core.ModelerCore;
 
 
 
 /**
- * EObjectCacheImpl - manager of maps containing EObject instances for resources
- * in a resource set.  The maps are keyed on the UUID associated with the EObject.
+ * EObjectCacheImpl - manager of EObject instances for resources
+ * in a resource set, keyed on the UUID associated with the EObject.
+ * <p>
+ * EObjects with {@link UUID} keys are held in a {@link UUIDObjectTable}, which finds
+ * an EObject in constant time from the two <code>long</code> values of its UUID.  The
+ * rare EObjects with other kinds of keys are held in a separate map.  The cache is
+ * emptied by {@link #clear()} when its resource is unloaded.
+ * </p>
  * @since 8.0
  */
 public class EObjectCacheImpl implements EObjectCache {
 
-    private static final int MAX_MAP_SIZE = 1500;
-    private static final int MAP_CONSOLIDATION_SIZE = 300;
-
-    private final Collection mapOfMaps;
-    private Map currentMap;
+    private final UUIDObjectTable uuidTable;
+    private final Map otherKeyMap;
 
     // ==================================================================================
     //                        C O N S T R U C T O R S
     // ==================================================================================
 
     public EObjectCacheImpl() {
-        this.currentMap = createMap();
-        this.mapOfMaps  = new ArrayList();
-        this.mapOfMaps.add(this.currentMap);
+        this.uuidTable = new UUIDObjectTable();
+        this.otherKeyMap = new HashMap();
     }
 
     //==================================================================================
@@ -69,39 +71,14 @@ public class EObjectCacheImpl implements EObjectCache {
                     final boolean recurse) {
         CoreArgCheck.isNotNull(value);
 
-        final Object key = getCacheKey(value);
-
-        // If the manager already has an EObject for this key then remove it.
+        // If the manager already has an EObject for this key then it is replaced.
         // A new EObject instance may have been instantiated due to reloading
-        // a resource so we want this instance in the maps now.
-        final Map eObjMap = findMapForKey(key);
-        if (eObjMap != null) {
-            eObjMap.remove(key);
-        }
-
-        // Add the new value to the current map
-        if (this.currentMap.size() < MAX_MAP_SIZE) {
-            this.currentMap.put(key, value);
+        // a resource so we want this instance in the cache now.
+        final Object key = getCacheKey(value);
+        if (key instanceof UUID) {
+            this.uuidTable.put(UUID.getPart1((UUID)key), UUID.getPart2((UUID)key), value);
         } else {
-            boolean newMap = true;
-
-            // Add to existing map if one has room
-            for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-                final Map next = (Map)iter.next();
-                if (next != this.currentMap && next.size() < MAX_MAP_SIZE) {
-                    this.currentMap = next;
-                    this.currentMap.put(key, value);
-                    newMap = false;
-                    break;
-                }
-            }
-
-            // need to create a new map
-            if (newMap) {
-                this.currentMap = createMap();
-                mapOfMaps.add(this.currentMap);
-                this.currentMap.put(key, value);
-            }
+            this.otherKeyMap.put(key, value);
         }
 
         // Continue the add operation which will add this EObject
@@ -124,20 +101,9 @@ public class EObjectCacheImpl implements EObjectCache {
      */
     @Override
 	public void clear() {
-        try {
-            for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-                Map next = (Map)iter.next();
-                next.clear();
-                iter.remove();
-            }
-            // Reset the state back to when it was first constructed
-            this.currentMap = createMap();
-            this.mapOfMaps.add(this.currentMap);
-
-        } finally {
-            runGC();
-        }
-
+        // Reset the state back to when it was first constructed
+        this.uuidTable.clear();
+        this.otherKeyMap.clear();
     }
 
     /**
@@ -146,16 +112,10 @@ public class EObjectCacheImpl implements EObjectCache {
      */
     @Override
 	public boolean containsKey(final ObjectID key) {
-        if (this.currentMap.containsKey(key)) {
-            return true;
+        if (key instanceof UUID) {
+            return this.uuidTable.get(UUID.getPart1(key), UUID.getPart2(key)) != null;
         }
-        for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-            Map next = (Map)iter.next();
-            if (next != this.currentMap && next.containsKey(key)) {
-                return true;
-            }
-        }
-        return false;
+        return this.otherKeyMap.containsKey(key);
     }
 
     /**
@@ -164,16 +124,7 @@ public class EObjectCacheImpl implements EObjectCache {
      */
     @Override
 	public boolean containsValue(final EObject value) {
-        if (this.currentMap.containsValue(value)) {
-            return true;
-        }
-        for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-            Map next = (Map)iter.next();
-            if (next != this.currentMap && next.containsValue(value)) {
-                return true;
-            }
-        }
-        return false;
+        return this.uuidTable.containsValue(value) || this.otherKeyMap.containsValue(value);
     }
 
     /**
@@ -185,11 +136,10 @@ public class EObjectCacheImpl implements EObjectCache {
         if (key == null) {
             return null;
         }
-        final Map map = findMapForKey(key);
-        if (map != null) {
-            return (EObject)map.get(key);
+        if (key instanceof UUID) {
+            return (EObject)this.uuidTable.get(UUID.getPart1(key), UUID.getPart2(key));
         }
-        return null;
+        return (EObject)this.otherKeyMap.get(key);
     }
 
     /**
@@ -201,17 +151,7 @@ public class EObjectCacheImpl implements EObjectCache {
                        final boolean recurse) {
         CoreArgCheck.isNotNull(value);
 
-        final Object key = getCacheKey(value);
-
-        final Map map = findMapForValue(value);
-        if (map != null) {
-            map.remove(key);
-
-            // See if we should consolidate this map
-            if(map != this.currentMap && map.size() < MAP_CONSOLIDATION_SIZE) {
-                consolidateMap(map);
-            }
-        }
+        removeKey(getCacheKey(value));
 
         // Remove the entire tree
         if (recurse) {
@@ -245,17 +185,7 @@ public class EObjectCacheImpl implements EObjectCache {
                        final boolean recurse) {
         CoreArgCheck.isNotNull(key);
 
-        EObject value = null;
-
-        final Map map = findMapForKey(key);
-        if (map != null) {
-            value = (EObject)map.remove(key);
-
-            // See if we should consolidate this map
-            if(map != this.currentMap && map.size() < MAP_CONSOLIDATION_SIZE) {
-                consolidateMap(map);
-            }
-        }
+        final EObject value = removeKey(key);
 
         // Remove the entire tree
         if (recurse && value != null) {
@@ -286,12 +216,7 @@ public class EObjectCacheImpl implements EObjectCache {
      */
     @Override
 	public int size() {
-        int size = 0;
-        for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-            Map next = (Map)iter.next();
-            size += next.size();
-        }
-        return size;
+        return this.uuidTable.size() + this.otherKeyMap.size();
     }
 
     /**
@@ -301,10 +226,8 @@ public class EObjectCacheImpl implements EObjectCache {
     @Override
 	public EObject[] values() {
         final List values = new ArrayList(size());
-        for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-            Map next = (Map)iter.next();
-            values.addAll(next.values());
-        }
+        this.uuidTable.addValuesTo(values);
+        values.addAll(this.otherKeyMap.values());
         return (EObject[])values.toArray(new EObject[values.size()]);
     }
 
@@ -317,76 +240,19 @@ public class EObjectCacheImpl implements EObjectCache {
         return ModelerCore.getObjectId(value);
     }
 
-    protected void consolidateMap(final Map map) {
-        if(map == this.currentMap) {
-            return;
-        }
-
-        try {
-            // Try currentMap first
-            final int size = map.size();
-            if (this.currentMap.size() + size < MAX_MAP_SIZE) {
-                this.currentMap.putAll(map);
-                this.mapOfMaps.remove(map);
-                return;
-            }
-
-            // Check other maps in the list
-            for (final Iterator iter = mapOfMaps.iterator(); iter.hasNext();) {
-                final Map next = (Map)iter.next();
-                if ((next != this.currentMap) && (next.size() + size < MAX_MAP_SIZE)) {
-                    next.putAll(map);
-                    this.mapOfMaps.remove(map);
-                    return;
-                }
-            }
-
-        } finally {
-            runGC();
-        }
-
-    }
-
-    protected Map findMapForValue(final EObject eObject){
-        final Object id = ModelerCore.getObjectId(eObject);
-        return findMapForKey(id);
-    }
-
-    protected Map findMapForKey(final Object id) {
-        if(id == null) {
+    /**
+     * Remove the EObject cached under the key.
+     * @param key the key; may be null
+     * @return the EObject removed, or null if none was cached under the key
+     * @since 8.1
+     */
+    protected EObject removeKey(final Object key) {
+        if (key == null) {
             return null;
         }
-
-        //check current map first;
-        if(this.currentMap.containsKey(id) ) {
-            return this.currentMap;
-        }
-
-        final Iterator maps = mapOfMaps.iterator();
-        while(maps.hasNext() ) {
-            final Map next = (Map)maps.next();
-            if(next != this.currentMap && next.containsKey(id) ) {
-                return next;
-            }
+        if (key instanceof UUID) {
+            return (EObject)this.uuidTable.remove(UUID.getPart1((UUID)key), UUID.getPart2((UUID)key));
         }
-
-        return null;
-    }
-
-    /**
-     * @return Returns the mapOfMaps.
-     * @since 4.3
-     */
-    protected Collection getMapOfMaps() {
-        return this.mapOfMaps;
-    }
-
-    protected Map createMap() {
-        return new HashMap();
-    }
-
-    protected void runGC() {
-//        System.gc();
-//        Thread.yield();
+        return (EObject)this.otherKeyMap.remove(key);
     }
 }
@@ -0,0 +1,445 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.teiid.core.designer.ModelerCoreException;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.core.designer.util.NamedThreadFactory;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.container.Container;
+import org.teiid.designer.core.container.ContainerImpl;
+import org.teiid.designer.core.container.DuplicateResourceException;
+import org.teiid.designer.core.metamodel.MetamodelRegistry;
+import org.teiid.designer.core.transaction.UnitOfWork;
+import org.teiid.designer.core.xmi.XMIHeader;
+import org.teiid.designer.core.xmi.XMIHeaderReader;
+
+/**
+ * Loads many model files into a {@link ResourceSet} on several threads.
+ * <p>
+ * The XMI headers of the models are read first, to find which of the models each one imports. Each model is then parsed on a
+ * worker thread into a detached resource, which belongs to a staging resource set of its own, so that parsing shares no mutable
+ * state with the other workers. The parsed resources are attached to the shared resource set on the calling thread, in
+ * dependency order, so listeners see the imported models before the models importing them.
+ * </p>
+ * <p>
+ * The staging resource sets have no {@link Container}, so a worker never starts a {@link UnitOfWork} or touches the state of the
+ * container; the transaction that adds a model to the container is started on the calling thread when the model is attached.
+ * Workers share only the package and factory registries, which are not changed while models load, the metamodel registry, whose
+ * metamodels are loaded before any model, and the synchronized maps that keep the UUIDs of detached objects.
+ * </p>
+ * <p>
+ * A model that is already in the resource set, that duplicates a model already loaded, or that fails to parse is not attached;
+ * it is left to the normal load path, which reports the problem as it always has.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class ParallelResourceLoader {
+
+    /**
+     * The system property that enables loading the models of a build on several threads.
+     */
+    public static final String PARALLEL_LOAD_PROPERTY = "org.teiid.designer.resource.parallelLoad"; //$NON-NLS-1$
+
+    /**
+     * The system property that sets the number of threads that parse models. Defaults to the number of processors, but no more
+     * than {@link #DEFAULT_MAX_THREADS}; one or less loads the models on the calling thread.
+     */
+    public static final String LOAD_THREADS_PROPERTY = "org.teiid.designer.resource.loadThreads"; //$NON-NLS-1$
+
+    /**
+     * Parsing is mostly bound by memory bandwidth, so more threads than this rarely help.
+     */
+    public static final int DEFAULT_MAX_THREADS = 4;
+
+    private static volatile boolean parallelLoad = Boolean.getBoolean(PARALLEL_LOAD_PROPERTY);
+
+    /**
+     * @return <code>true</code> if the models of a build are loaded on several threads
+     */
+    public static boolean isParallelLoad() {
+        return parallelLoad;
+    }
+
+    /**
+     * @param parallel <code>true</code> if the models of a build should be loaded on several threads
+     */
+    public static void setParallelLoad( final boolean parallel ) {
+        parallelLoad = parallel;
+    }
+
+    /**
+     * @return the number of threads set by the {@link #LOAD_THREADS_PROPERTY}
+     */
+    public static int getDefaultThreads() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        return Integer.getInteger(LOAD_THREADS_PROPERTY, Math.min(processors, DEFAULT_MAX_THREADS)).intValue();
+    }
+
+    /**
+     * A model being loaded.
+     */
+    private static final class Load {
+        final URI uri;
+        final List<URI> dependencies = new ArrayList<URI>();
+        Future<Resource> parsed;
+
+        Load( final URI uri ) {
+            this.uri = uri;
+        }
+    }
+
+    private final ResourceSet resourceSet;
+    private final int threads;
+
+    /**
+     * Create a loader using the number of threads set by the {@link #LOAD_THREADS_PROPERTY}.
+     *
+     * @param resourceSet the resource set the models are loaded into; may not be null
+     */
+    public ParallelResourceLoader( final ResourceSet resourceSet ) {
+        this(resourceSet, getDefaultThreads());
+    }
+
+    /**
+     * @param resourceSet the resource set the models are loaded into; may not be null
+     * @param threads the number of threads that parse models; one or less loads the models on the calling thread
+     */
+    public ParallelResourceLoader( final ResourceSet resourceSet,
+                                   final int threads ) {
+        CoreArgCheck.isNotNull(resourceSet);
+        // a container only forwards to its resource set, which does the duplicate checks
+        this.resourceSet = (resourceSet instanceof ContainerImpl) ? ((ContainerImpl)resourceSet).getResourceSet() : resourceSet;
+        this.threads = threads;
+    }
+
+    /**
+     * Load the models at the supplied file URIs.
+     *
+     * @param uris the file URIs of the models; may not be null
+     * @param monitor the progress monitor; may be null
+     * @return the resources loaded and attached to the resource set, in the order they were attached; never null
+     */
+    public List<Resource> load( final Collection<URI> uris,
+                                final IProgressMonitor monitor ) {
+        CoreArgCheck.isNotNull(uris);
+        final IProgressMonitor progressMonitor = (monitor != null ? monitor : new NullProgressMonitor());
+
+        final Map<URI, Load> loads = new LinkedHashMap<URI, Load>();
+        for (final URI uri : uris) {
+            if (uri.isFile() && this.resourceSet.getResource(uri, false) == null && getFactory(uri) != null) {
+                loads.put(uri, new Load(uri));
+            }
+        }
+        if (loads.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (this.threads <= 1 || loads.size() == 1) {
+            return loadSequentially(loads.keySet(), progressMonitor);
+        }
+
+        progressMonitor.beginTask("", 2 * loads.size()); //$NON-NLS-1$
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.threads, loads.size()),
+                                                                      new NamedThreadFactory("Model Load Worker")); //$NON-NLS-1$
+        final List<Resource> attached = new ArrayList<Resource>(loads.size());
+        try {
+            // read the headers first, since the pool runs the tasks in the order they are submitted
+            final Map<Load, Future<List<URI>>> headers = new LinkedHashMap<Load, Future<List<URI>>>();
+            for (final Load load : loads.values()) {
+                headers.put(load, executor.submit(new Callable<List<URI>>() {
+                    @Override
+                    public List<URI> call() {
+                        return getDependencies(load.uri);
+                    }
+                }));
+            }
+            final Map options = new LinkedHashMap(this.resourceSet.getLoadOptions());
+            final MetamodelRegistry registry = getMetamodelRegistry();
+            for (final Load load : loads.values()) {
+                final Resource resource = createStagingResource(load.uri, registry);
+                load.parsed = executor.submit(new Callable<Resource>() {
+                    @Override
+                    public Resource call() throws Exception {
+                        if (progressMonitor.isCanceled()) {
+                            return null;
+                        }
+                        resource.load(options);
+                        return resource;
+                    }
+                });
+            }
+
+            for (final Map.Entry<Load, Future<List<URI>>> entry : headers.entrySet()) {
+                final List<URI> dependencies = getResult(entry.getValue());
+                if (dependencies != null) {
+                    entry.getKey().dependencies.addAll(dependencies);
+                }
+                progressMonitor.worked(1);
+            }
+
+            final List<Load> ordered = new ArrayList<Load>(loads.size());
+            final Set<URI> visited = new HashSet<URI>();
+            for (final Load load : loads.values()) {
+                addInDependencyOrder(load, loads, visited, ordered);
+            }
+
+            // attach each model as soon as it is parsed, after the models it imports
+            for (final Load load : ordered) {
+                if (progressMonitor.isCanceled()) {
+                    discard(load);
+                    continue;
+                }
+                final Resource resource = getResult(load.parsed);
+                if (resource != null && attach(resource)) {
+                    attached.add(resource);
+                } else if (resource != null) {
+                    resource.unload();
+                }
+                progressMonitor.worked(1);
+            }
+        } finally {
+            executor.shutdownNow();
+            progressMonitor.done();
+        }
+        return attached;
+    }
+
+    private List<Resource> loadSequentially( final Collection<URI> uris,
+                                             final IProgressMonitor monitor ) {
+        final List<Resource> loaded = new ArrayList<Resource>(uris.size());
+        for (final URI uri : uris) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            try {
+                final Resource resource = this.resourceSet.getResource(uri, true);
+                if (resource != null) {
+                    loaded.add(resource);
+                }
+            } catch (final RuntimeException e) {
+                // left to the normal load path, which reports it
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Find the models imported by a model. This method is called on the worker threads, and may not use the resource set.
+     *
+     * @param uri the file URI of the model; never null
+     * @return the file URIs of the imported models; may be null
+     */
+    protected List<URI> getDependencies( final URI uri ) {
+        final File file = new File(uri.toFileString());
+        try {
+            final XMIHeader header = XMIHeaderReader.readHeader(file);
+            if (header == null) {
+                return null;
+            }
+            final String[] locations = header.getModelImportLocations();
+            final List<URI> dependencies = new ArrayList<URI>(locations.length);
+            for (int i = 0; i < locations.length; ++i) {
+                if (locations[i] != null && locations[i].length() != 0) {
+                    final URI location = URI.createURI(locations[i]);
+                    dependencies.add(location.isRelative() ? location.resolve(uri) : location);
+                }
+            }
+            return dependencies;
+        } catch (final Exception e) {
+            // the model is still loaded; it just is not ordered after its imports
+            return null;
+        }
+    }
+
+    private Resource.Factory getFactory( final URI uri ) {
+        return this.resourceSet.getResourceFactoryRegistry().getFactory(uri);
+    }
+
+    /**
+     * @return the metamodel registry of the container the models are loaded into, or null if they are not loaded into a container
+     */
+    private MetamodelRegistry getMetamodelRegistry() {
+        if (this.resourceSet instanceof EmfResourceSetImpl) {
+            return ((EmfResourceSetImpl)this.resourceSet).getContainer().getMetamodelRegistry();
+        }
+        return null;
+    }
+
+    /**
+     * Create a resource for the model in a resource set of its own, which shares the registries and URI mappings of the resource
+     * set the model is loaded into but not its container.
+     */
+    private Resource createStagingResource( final URI uri,
+                                            final MetamodelRegistry registry ) {
+        final ResourceSet staging = new StagingResourceSet(registry);
+        staging.setPackageRegistry(this.resourceSet.getPackageRegistry());
+        staging.setResourceFactoryRegistry(this.resourceSet.getResourceFactoryRegistry());
+        staging.getURIConverter().getURIMap().putAll(this.resourceSet.getURIConverter().getURIMap());
+
+        final Resource resource = getFactory(uri).createResource(uri);
+        staging.getResources().add(resource);
+        return resource;
+    }
+
+    /**
+     * Move a parsed resource from its staging resource set to the shared one.
+     *
+     * @return <code>true</code> if the resource was attached, or <code>false</code> if it is a duplicate of a loaded model
+     */
+    private boolean attach( final Resource resource ) {
+        final URI uri = resource.getURI();
+        if (this.resourceSet.getResource(uri, false) != null) {
+            return false;
+        }
+        if (this.resourceSet instanceof EmfResourceSetImpl) {
+            try {
+                ((EmfResourceSetImpl)this.resourceSet).canCreateResource(uri);
+            } catch (final DuplicateResourceException e) {
+                return false;
+            }
+        }
+
+        // keep the URI mappings the model added while it was parsed
+        final Map uriMap = this.resourceSet.getURIConverter().getURIMap();
+        for (final Iterator iter = resource.getResourceSet().getURIConverter().getURIMap().entrySet().iterator(); iter.hasNext();) {
+            final Map.Entry entry = (Map.Entry)iter.next();
+            if (!uriMap.containsKey(entry.getKey())) {
+                uriMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        final UnitOfWork txn = getTransaction();
+        this.resourceSet.getResources().add(resource);
+        resource.setModified(false);
+        if (txn != null) {
+            try {
+                txn.commit();
+            } catch (final ModelerCoreException e) {
+                ModelerCore.Util.log(IStatus.ERROR, e, e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the transaction started for attaching a resource, or null if none was started
+     */
+    private UnitOfWork getTransaction() {
+        if (!(this.resourceSet instanceof EmfResourceSetImpl)) {
+            return null;
+        }
+        final Container container = ((EmfResourceSetImpl)this.resourceSet).getContainer();
+        final UnitOfWork txn = container.getEmfTransactionProvider().getCurrent();
+        if (txn.isStarted()) {
+            return null;
+        }
+        try {
+            txn.begin();
+        } catch (final ModelerCoreException e) {
+            ModelerCore.Util.log(IStatus.ERROR, e, e.getMessage());
+            return null;
+        }
+        return txn;
+    }
+
+    /**
+     * A resource set that a model is parsed into on a worker thread. Like {@link EmfResourceSetImpl}, it finds the resources of
+     * metamodels in the metamodel registry, but it has no container.
+     */
+    private static final class StagingResourceSet extends ResourceSetImpl {
+        private final MetamodelRegistry registry;
+
+        StagingResourceSet( final MetamodelRegistry registry ) {
+            this.registry = registry;
+        }
+
+        @Override
+        protected Resource delegatedGetResource( final URI uri,
+                                                 final boolean loadOnDemand ) {
+            if (this.registry != null && this.registry.containsURI(uri)) {
+                return this.registry.getResource(uri);
+            }
+            return super.delegatedGetResource(uri, loadOnDemand);
+        }
+    }
+
+    private static void discard( final Load load ) {
+        load.parsed.cancel(false);
+        if (load.parsed.isDone() && !load.parsed.isCancelled()) {
+            final Resource resource = getResult(load.parsed);
+            if (resource != null) {
+                resource.unload();
+            }
+        }
+    }
+
+    /**
+     * @return the result of the task, or null if it failed or was cancelled
+     */
+    private static <T> T getResult( final Future<T> future ) {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    return future.get();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                } catch (final ExecutionException e) {
+                    // the model is left to the normal load path
+                    return null;
+                } catch (final RuntimeException e) {
+                    // cancelled
+                    return null;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void addInDependencyOrder( final Load load,
+                                              final Map<URI, Load> loads,
+                                              final Set<URI> visited,
+                                              final List<Load> ordered ) {
+        if (!visited.add(load.uri)) {
+            return; // also breaks import cycles
+        }
+        for (final URI dependency : load.dependencies) {
+            final Load dependencyLoad = loads.get(dependency);
+            if (dependencyLoad != null) {
+                addInDependencyOrder(dependencyLoad, loads, visited, ordered);
+            }
+        }
+        ordered.add(load);
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import org.eclipse.core.runtime.Plugin;
+import org.eclipse.emf.common.util.BasicEMap;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.teiid.core.designer.util.ChecksumUtil;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.core.designer.util.NamedThreadFactory;
+import org.teiid.designer.core.ModelerCore;
+
+/**
+ * Keeps a binary snapshot of each model loaded from an XMI file, so that the model can be loaded again without parsing the XMI.
+ * <p>
+ * A snapshot holds the contents of the resource in EMF's binary resource format, followed by the UUID of each object and the
+ * namespace prefixes of the XMI file. It is keyed by the path, modification time, length and CRC-32 checksum of the model file,
+ * and by the version of the producer that wrote it. The checksum is only computed once the path, modification time and length
+ * of a snapshot match the file. A snapshot that no longer matches its model file, or that cannot be read, is deleted and the
+ * model is parsed from its XMI file as usual.
+ * </p>
+ * <p>
+ * A new snapshot is serialized into memory on the thread that loaded the model, since the model may be changed as soon as it
+ * is loaded, and is then checksummed and written to disk by a background thread.
+ * </p>
+ * <p>
+ * Snapshots are kept in the <code>snapshots</code> folder of this plug-in's state location, and are only used when the
+ * {@link #SNAPSHOTS_PROPERTY} is set.
+ * </p>
+ *
+ * @since 8.1
+ */
+public final class ResourceSnapshotCache {
+
+    /**
+     * The system property that enables loading models from, and saving them to, binary snapshots.
+     */
+    public static final String SNAPSHOTS_PROPERTY = "org.teiid.designer.resource.snapshots"; //$NON-NLS-1$
+
+    /**
+     * The load option whose value is the cache a resource is being loaded from; the input stream then holds the snapshot rather
+     * than the XMI.
+     */
+    public static final String OPTION_SNAPSHOT = "SNAPSHOT_CACHE"; //$NON-NLS-1$
+
+    private static final String FOLDER_NAME = "snapshots"; //$NON-NLS-1$
+    private static final String EXTENSION = ".snapshot"; //$NON-NLS-1$
+    private static final String TEMP_EXTENSION = ".tmp"; //$NON-NLS-1$
+    private static final int MAGIC = 0x544D5353;
+    private static final int VERSION = 1;
+
+    private static ResourceSnapshotCache instance;
+    private static boolean initialized;
+
+    /**
+     * @return the cache in this plug-in's state location, or null if snapshots are not enabled or the plug-in is not running
+     */
+    public static synchronized ResourceSnapshotCache getInstance() {
+        if (!initialized) {
+            initialized = true;
+            final Plugin plugin = ModelerCore.getPlugin();
+            if (Boolean.getBoolean(SNAPSHOTS_PROPERTY) && plugin != null) {
+                instance = new ResourceSnapshotCache(plugin.getStateLocation().append(FOLDER_NAME).toFile(),
+                                                     ModelerCore.ILicense.VERSION);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * The model file a snapshot was taken of.
+     */
+    public static final class Key {
+        final String path;
+        final long lastModified;
+        final long length;
+
+        Key( final String path,
+             final long lastModified,
+             final long length ) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        boolean isSameFile( final String thatPath,
+                            final long thatLastModified,
+                            final long thatLength ) {
+            return this.path.equals(thatPath) && this.lastModified == thatLastModified && this.length == thatLength;
+        }
+
+        /**
+         * @return true if the file still has the modification time and length it had when this key was read
+         */
+        boolean isUnchanged() {
+            final File file = new File(this.path);
+            return file.lastModified() == this.lastModified && file.length() == this.length;
+        }
+
+        long computeChecksum() throws IOException {
+            return ChecksumUtil.computeChecksum(new File(this.path));
+        }
+    }
+
+    private final File folder;
+    private final String producerVersion;
+    private ExecutorService writer;
+    private Future lastWrite;
+
+    /**
+     * @param folder the folder in which the snapshots are kept; may not be null
+     * @param producerVersion the version of the code writing the snapshots; snapshots written by other versions are discarded
+     */
+    public ResourceSnapshotCache( final File folder,
+                                  final String producerVersion ) {
+        CoreArgCheck.isNotNull(folder);
+        this.folder = folder;
+        this.producerVersion = (producerVersion == null ? "" : producerVersion); //$NON-NLS-1$
+    }
+
+    /**
+     * Read the key of the file a resource is loaded from. The key should be read before the file is parsed, so a snapshot never
+     * claims to match a file that changed while it was being parsed. Reading a key does not read the file.
+     *
+     * @param resource the resource; may not be null
+     * @return the key, or null if the resource is not loaded from an existing file
+     */
+    public Key getKey( final XMLResource resource ) {
+        final URI uri = resource.getURI();
+        if (uri == null || !uri.isFile()) {
+            return null;
+        }
+        final File file = new File(uri.toFileString());
+        if (!file.isFile()) {
+            return null;
+        }
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+        return new Key(file.getAbsolutePath(), lastModified, length);
+    }
+
+    private File getSnapshotFile( final Key key ) {
+        final CRC32 hash = new CRC32();
+        hash.update(key.path.getBytes());
+        return new File(this.folder, Long.toHexString(hash.getValue()) + '_' + new File(key.path).getName() + EXTENSION);
+    }
+
+    /**
+     * Load the resource from its snapshot, if there is a valid one. A snapshot that does not match the file, or that cannot be
+     * read, is deleted and the resource is left unloaded.
+     *
+     * @param resource the resource; may not be null
+     * @param key the key of the file the resource is loaded from; may be null
+     * @param options the load options; may be null
+     * @return true if the resource was loaded from its snapshot
+     */
+    public boolean load( final XMLResource resource,
+                         final Key key,
+                         final Map options ) {
+        if (key == null) {
+            return false;
+        }
+        final File snapshot = getSnapshotFile(key);
+        if (!snapshot.isFile()) {
+            return false;
+        }
+        InputStream stream = null;
+        boolean loaded = false;
+        try {
+            stream = new BufferedInputStream(new FileInputStream(snapshot));
+            final DataInputStream header = new DataInputStream(stream);
+            if (header.readInt() == MAGIC && header.readInt() == VERSION && this.producerVersion.equals(header.readUTF())
+                && key.isSameFile(header.readUTF(), header.readLong(), header.readLong())
+                && header.readLong() == key.computeChecksum()) {
+                final Map snapshotOptions = (options == null ? new HashMap() : new HashMap(options));
+                snapshotOptions.put(OPTION_SNAPSHOT, this);
+                resource.load(stream, snapshotOptions);
+                loaded = true;
+            }
+        } catch (final Exception e) {
+            // discarded below
+        } finally {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (final IOException e) {
+                    // ignore
+                }
+            }
+            if (!loaded) {
+                if (resource.isLoaded()) {
+                    resource.unload();
+                }
+                snapshot.delete();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Read the contents of a resource from a snapshot stream. This is called by the resource's <code>doLoad</code> method when
+     * the {@link #OPTION_SNAPSHOT} load option is set.
+     *
+     * @param resource the resource being loaded; may not be null
+     * @param stream the snapshot, positioned after its key; may not be null
+     * @return the namespace prefixes and URIs of the XMI file the snapshot was taken of
+     * @throws IOException if the snapshot cannot be read, or does not match the objects read
+     */
+    public List read( final XMLResource resource,
+                      final InputStream stream ) throws IOException {
+        final EObjectInputStream input = new EObjectInputStream(stream, Collections.EMPTY_MAP);
+        input.loadResource(resource);
+
+        final int count = input.readCompressedInt();
+        int index = 0;
+        for (final Iterator iter = resource.getAllContents(); iter.hasNext(); ++index) {
+            final EObject eObject = (EObject)iter.next();
+            if (index == count) {
+                throw new IOException(snapshotMismatch(resource));
+            }
+            final String uuid = input.readString();
+            if (uuid != null) {
+                resource.setID(eObject, uuid);
+            }
+        }
+        if (index != count) {
+            throw new IOException(snapshotMismatch(resource));
+        }
+
+        final BasicEMap prefixesToURIs = new BasicEMap();
+        for (int i = input.readCompressedInt(); i > 0; --i) {
+            final String prefix = input.readString();
+            prefixesToURIs.put(prefix, input.readString());
+        }
+        return prefixesToURIs;
+    }
+
+    private static String snapshotMismatch( final XMLResource resource ) {
+        return "The snapshot does not match the objects of " + resource.getURI(); //$NON-NLS-1$
+    }
+
+    /**
+     * Save a snapshot of a resource just loaded from its XMI file. The resource is serialized before this method returns, and the
+     * snapshot is written to disk in the background. Failures are ignored; the model is then parsed again next time.
+     *
+     * @param resource the loaded resource; may not be null
+     * @param key the key of the file the resource was loaded from, read before the file was parsed; may be null
+     * @param prefixesToURIs the namespace prefixes and URIs of the XMI file, as a map or a list of map entries; may be null
+     */
+    public void save( final XMLResource resource,
+                      final Key key,
+                      final List prefixesToURIs ) {
+        if (key == null || !resource.isLoaded() || !resource.getErrors().isEmpty()) {
+            return;
+        }
+        final ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        try {
+            final EObjectOutputStream output = new EObjectOutputStream(contents, Collections.EMPTY_MAP);
+            output.saveResource(resource);
+
+            final List<String> uuids = new ArrayList<String>();
+            for (final Iterator iter = resource.getAllContents(); iter.hasNext();) {
+                uuids.add(resource.getID((EObject)iter.next()));
+            }
+            output.writeCompressedInt(uuids.size());
+            for (final String uuid : uuids) {
+                output.writeString(uuid);
+            }
+
+            final List entries = (prefixesToURIs == null ? Collections.EMPTY_LIST : prefixesToURIs);
+            output.writeCompressedInt(entries.size());
+            for (final Iterator iter = entries.iterator(); iter.hasNext();) {
+                final Map.Entry entry = (Map.Entry)iter.next();
+                output.writeString((String)entry.getKey());
+                output.writeString((String)entry.getValue());
+            }
+            output.flush();
+        } catch (final Exception e) {
+            // the model is parsed again next time
+            return;
+        }
+
+        synchronized (this) {
+            if (this.writer == null) {
+                this.writer = Executors.newSingleThreadExecutor(new NamedThreadFactory("Model Snapshot Writer")); //$NON-NLS-1$
+            }
+            this.lastWrite = this.writer.submit(new Runnable() {
+                @Override
+                public void run() {
+                    write(key, contents);
+                }
+            });
+        }
+    }
+
+    /**
+     * Write a snapshot of the serialized contents of a resource, unless its model file has changed since it was parsed.
+     */
+    private void write( final Key key,
+                        final ByteArrayOutputStream contents ) {
+        final File snapshot = getSnapshotFile(key);
+        final File temp = new File(this.folder, snapshot.getName() + TEMP_EXTENSION);
+        boolean saved = false;
+        try {
+            if (!key.isUnchanged()) {
+                return;
+            }
+            final long checksum = key.computeChecksum();
+            this.folder.mkdirs();
+            final BufferedOutputStream stream = new BufferedOutputStream(new FileOutputStream(temp));
+            try {
+                final DataOutputStream header = new DataOutputStream(stream);
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeUTF(this.producerVersion);
+                header.writeUTF(key.path);
+                header.writeLong(key.lastModified);
+                header.writeLong(key.length);
+                header.writeLong(checksum);
+                header.flush();
+                contents.writeTo(stream);
+            } finally {
+                stream.close();
+            }
+            // the file may have been changed while it was checksummed
+            if (key.isUnchanged()) {
+                snapshot.delete();
+                saved = temp.renameTo(snapshot);
+            }
+        } catch (final Exception e) {
+            // the model is parsed again next time
+        } finally {
+            if (!saved) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Wait until the snapshots saved so far have been written.
+     */
+    public void waitForWrites() {
+        final Future write;
+        synchronized (this) {
+            write = this.lastWrite;
+        }
+        if (write == null) {
+            return;
+        }
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    write.get();
+                    return;
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (final ExecutionException e) {
+            // a failed write leaves no snapshot
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Delete all snapshots.
+     */
+    public void clear() {
+        waitForWrites();
+        final File[] files = this.folder.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; ++i) {
+                if (files[i].getName().endsWith(EXTENSION) || files[i].getName().endsWith(TEMP_EXTENSION)) {
+                    files[i].delete();
+                }
+            }
+        }
+    }
+}
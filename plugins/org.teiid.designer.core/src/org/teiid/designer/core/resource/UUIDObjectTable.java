@@ -0,0 +1,201 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.util.Collection;
+
+/**
+ * A hash table of objects keyed on the two <code>long</code> values of a 128-bit UUID. The table uses open addressing with
+ * linear probing, storing the key halves in one <code>long</code> array and the values in a parallel array, so that lookups
+ * take constant time and create no key objects. Removal shifts the following entries back rather than leaving tombstones.
+ * <p>
+ * Null values are not allowed, since an empty slot is one without a value. This class is not thread-safe.
+ * </p>
+ *
+ * @since 8.1
+ */
+final class UUIDObjectTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * The table is grown when more than three quarters of the slots are used.
+     */
+    private static final int LOAD_FACTOR_PERCENT = 75;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int threshold;
+
+    UUIDObjectTable() {
+        allocate(MIN_CAPACITY);
+    }
+
+    private void allocate( final int capacity ) {
+        this.keys = new long[capacity * 2];
+        this.values = new Object[capacity];
+        this.threshold = (int)((long)capacity * LOAD_FACTOR_PERCENT / 100);
+    }
+
+    /**
+     * Spread both halves of the UUID over the bits used to pick a slot.
+     */
+    private static int hash( final long mostSig,
+                             final long leastSig ) {
+        final long bits = mostSig ^ leastSig;
+        final int h = (int)(bits ^ (bits >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf( final long mostSig,
+                         final long leastSig ) {
+        final int mask = this.values.length - 1;
+        int index = hash(mostSig, leastSig) & mask;
+        while (this.values[index] != null) {
+            if (this.keys[2 * index] == mostSig && this.keys[2 * index + 1] == leastSig) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the value for the UUID, or null if there is none
+     */
+    Object get( final long mostSig,
+                final long leastSig ) {
+        final int index = indexOf(mostSig, leastSig);
+        return index < 0 ? null : this.values[index];
+    }
+
+    /**
+     * @param value the value; may not be null
+     * @return the value previously held for the UUID, or null if there was none
+     */
+    Object put( final long mostSig,
+                final long leastSig,
+                final Object value ) {
+        final int mask = this.values.length - 1;
+        int index = hash(mostSig, leastSig) & mask;
+        while (this.values[index] != null) {
+            if (this.keys[2 * index] == mostSig && this.keys[2 * index + 1] == leastSig) {
+                final Object previous = this.values[index];
+                this.values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        this.keys[2 * index] = mostSig;
+        this.keys[2 * index + 1] = leastSig;
+        this.values[index] = value;
+        if (++this.size > this.threshold) {
+            resize(this.values.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * @return the value removed, or null if there was none for the UUID
+     */
+    Object remove( final long mostSig,
+                   final long leastSig ) {
+        int gap = indexOf(mostSig, leastSig);
+        if (gap < 0) {
+            return null;
+        }
+        final Object previous = this.values[gap];
+        final int mask = this.values.length - 1;
+
+        // Move back each following entry of the run that could not otherwise be found from its home slot
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            if (this.values[index] == null) {
+                break;
+            }
+            final int home = hash(this.keys[2 * index], this.keys[2 * index + 1]) & mask;
+            final boolean stays = (gap <= index) ? (gap < home && home <= index) : (gap < home || home <= index);
+            if (!stays) {
+                this.keys[2 * gap] = this.keys[2 * index];
+                this.keys[2 * gap + 1] = this.keys[2 * index + 1];
+                this.values[gap] = this.values[index];
+                gap = index;
+            }
+        }
+        this.values[gap] = null;
+        --this.size;
+        return previous;
+    }
+
+    private void resize( final int capacity ) {
+        final long[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        allocate(capacity);
+        final int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; ++i) {
+            if (oldValues[i] != null) {
+                final long mostSig = oldKeys[2 * i];
+                final long leastSig = oldKeys[2 * i + 1];
+                int index = hash(mostSig, leastSig) & mask;
+                while (this.values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                this.keys[2 * index] = mostSig;
+                this.keys[2 * index + 1] = leastSig;
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * @return true if the table holds a value equal to the supplied one
+     */
+    boolean containsValue( final Object value ) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i < this.values.length; ++i) {
+            if (this.values[i] != null && this.values[i].equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add all of the values to the supplied collection.
+     */
+    void addValuesTo( final Collection result ) {
+        for (int i = 0; i < this.values.length; ++i) {
+            if (this.values[i] != null) {
+                result.add(this.values[i]);
+            }
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of slots in the table
+     */
+    int capacity() {
+        return this.values.length;
+    }
+
+    /**
+     * Remove all of the values, and release the memory held by the slots.
+     */
+    void clear() {
+        allocate(MIN_CAPACITY);
+        this.size = 0;
+    }
+}
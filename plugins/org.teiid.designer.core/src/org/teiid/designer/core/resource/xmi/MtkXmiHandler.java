@@ -308,6 +308,8 @@ public class MtkXmiHandler extends SAXXMIHandler {
                         if (this.container != null) {
                             return EcoreUtil.resolve(internalEObject, this.container.getMetamodelRegistry().getResource(uri));
                         }
+                        // parsed outside of a container, so resolve against the package registry of the resource set
+                        return EcoreUtil.resolve(internalEObject, this.resource.getResourceSet());
                     }
                 }
             }
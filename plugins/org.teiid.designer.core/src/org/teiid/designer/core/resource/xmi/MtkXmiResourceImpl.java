@@ -51,6 +51,7 @@ import org.teiid.designer.core.container.ObjectManager;
 import org.teiid.designer.core.metamodel.MetamodelRegistry;
 import org.teiid.designer.core.resource.EmfResource;
 import org.teiid.designer.core.resource.EmfResourceSet;
+import org.teiid.designer.core.resource.ResourceSnapshotCache;
 import org.teiid.designer.core.resource.XResource;
 import org.teiid.designer.core.resource.XmlXResourceDelegate;
 import org.teiid.designer.core.transaction.UnitOfWork;
@@ -86,6 +87,9 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
 
     private List prefixesToURIs;
 
+    // True while the contents are read from a snapshot, which supplies the UUIDs once all objects are attached
+    private boolean loadingSnapshot;
+
     private ModelContents modelContents;
 
     private XmlXResourceDelegate delegate = new XmlXResourceDelegate();
@@ -117,7 +121,9 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
         if (isTrackingModification()) {
             eObject.eAdapters().add(modificationTrackingAdapter);
         }
-        delegate.attachedHelper(this, eObject);
+        if (!this.loadingSnapshot) {
+            delegate.attachedHelper(this, eObject);
+        }
     }
 
     /**
@@ -221,7 +227,15 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
             ModelerCore.Util.log(IStatus.INFO,
                                  ModelerCore.Util.getString("MtkXmiResourceImpl.DEBUG.Loading_model_using_URI_3", new Object[] {uri})); //$NON-NLS-1$
         }
-        super.load(options);
+        // Load an unchanged model from its binary snapshot, if snapshots are enabled, and otherwise take one after parsing it
+        final ResourceSnapshotCache snapshots = ResourceSnapshotCache.getInstance();
+        final ResourceSnapshotCache.Key snapshotKey = (snapshots != null ? snapshots.getKey(this) : null);
+        if (snapshots == null || !snapshots.load(this, snapshotKey, options)) {
+            super.load(options);
+            if (snapshots != null) {
+                snapshots.save(this, snapshotKey, this.prefixesToURIs);
+            }
+        }
 
         // commit the txn if we started it.
         if (selfStarted) {
@@ -279,9 +293,20 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
                 }
             }
 
-            XMLHelper xmiHelper = createXMLHelper();
-            MtkXmiResourceLoader loader = new MtkXmiResourceLoader(xmiHelper, getContainer());
-            loader.load(this, inputStream, options == null ? Collections.EMPTY_MAP : options);
+            final Object snapshots = (options == null ? null : options.get(ResourceSnapshotCache.OPTION_SNAPSHOT));
+            XMLHelper xmiHelper = null;
+            if (snapshots instanceof ResourceSnapshotCache) {
+                this.loadingSnapshot = true;
+                try {
+                    this.prefixesToURIs = ((ResourceSnapshotCache)snapshots).read(this, inputStream);
+                } finally {
+                    this.loadingSnapshot = false;
+                }
+            } else {
+                xmiHelper = createXMLHelper();
+                MtkXmiResourceLoader loader = new MtkXmiResourceLoader(xmiHelper, getContainer());
+                loader.load(this, inputStream, options == null ? Collections.EMPTY_MAP : options);
+            }
             // Loop through contents to ensure even transient objects created by EMF during the load have a UUID.
             // This is a very inefficient way of handling this problem, but no other reasonable solution is currently apparent.
             for (Iterator iter = getAllContents(); iter.hasNext();) {
@@ -423,7 +448,10 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
      */
     @Override
     public void attached( EObject eObject ) {
-        ensureUuid(eObject, true);
+        // the snapshot supplies the UUIDs, so none are generated only to be replaced
+        if (!this.loadingSnapshot) {
+            ensureUuid(eObject, true);
+        }
         super.attached(eObject);
     }
 
@@ -1006,6 +1034,9 @@ public class MtkXmiResourceImpl extends XMIResourceImpl implements EmfResource,
             final Container ctnr = this.getContainer(); // may load/create/initialize it
             if (ctnr instanceof ContainerImpl) {
                 this.objectManager = ((ContainerImpl)ctnr).getObjectManager();
+            } else if (ctnr == null) {
+                // not cached, since a resource parsed outside of a container is attached to one afterwards
+                return doGetDefaultObjectManager();
             } else {
                 this.objectManager = doGetDefaultObjectManager();
             }
@@ -10,7 +10,6 @@ package org.teiid.designer.core.resource.xmi;
 import org.eclipse.emf.ecore.xmi.XMIResource;
 import org.eclipse.emf.ecore.xmi.XMLHelper;
 import org.eclipse.emf.ecore.xmi.impl.XMILoadImpl;
-import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.container.Container;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -28,13 +27,10 @@ public class MtkXmiResourceLoader extends XMILoadImpl {
      * @param is
      * @param options
      * @param helper
+     * @param container the container of the resource; may be null when the resource is parsed outside of a container
      */
     public MtkXmiResourceLoader(XMLHelper helper, Container container) {
         super(helper);
-        if (container == null) {
-            final String msg = ModelerCore.Util.getString("MtkXmiResourceLoader.The_Container_may_not_be_null"); //$NON-NLS-1$
-            throw new IllegalArgumentException(msg);
-        }
         this.container = container;
     }
 
@@ -9,6 +9,8 @@ package org.teiid.designer.core.search;
 
 import java.util.List;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.teiid.designer.core.ModelerCore;
@@ -220,4 +222,22 @@ public interface MetadataSearch extends ISearchEngine {
      *        define the search scope; may not be null but may be empty
      */
     public void setModelScope( List modelWorkspaceItems );
+
+    /**
+     * Perform the search, passing the result records to the collector a page at a time as each model's index is searched, rather
+     * than collecting all of them before returning. The {@link #getResults() results} of the last {@link #execute(IProgressMonitor)
+     * executed} search are not changed. The records found are those that {@link #execute(IProgressMonitor)} would find, though not
+     * necessarily in the same order.
+     * 
+     * @param monitor the progress monitor (may be <code>null</code>)
+     * @param collector the collector of the result records; may not be null
+     * @param pageSize the number of records in each page but the last; must be positive
+     * @param limit the number of records after which the search stops, or a negative number if the search finds all records
+     * @return the status of the search (never <code>null</code>)
+     * @since 8.1
+     */
+    public IStatus execute( IProgressMonitor monitor,
+                            SearchResultCollector collector,
+                            int pageSize,
+                            int limit );
 }
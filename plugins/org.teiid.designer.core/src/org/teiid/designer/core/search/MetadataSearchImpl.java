@@ -33,6 +33,7 @@ import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.core.designer.util.I18nUtil;
 import org.teiid.core.designer.util.IPathComparator;
 import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.index.Index;
 import org.teiid.designer.core.index.IndexSelector;
 import org.teiid.designer.core.index.IndexSelectorFactory;
 import org.teiid.designer.core.index.ModelWorkspaceSearchIndexSelector;
@@ -40,6 +41,7 @@ import org.teiid.designer.core.search.commands.FindObjectCommand;
 import org.teiid.designer.core.search.commands.FindObjectCommandImpl;
 import org.teiid.designer.core.search.commands.FindTypedObjectCommand;
 import org.teiid.designer.core.search.commands.FindTypedObjectCommandImpl;
+import org.teiid.designer.core.search.commands.IndexSearchCommand;
 import org.teiid.designer.core.search.runtime.AnnotatedObjectRecord;
 import org.teiid.designer.core.search.runtime.ResourceObjectRecord;
 import org.teiid.designer.core.search.runtime.SearchRecord;
@@ -468,7 +470,7 @@ public class MetadataSearchImpl implements MetadataSearch {
         try {
 
             // jh fix: always provide the scopeto the selector, even when empty:
-            final IndexSelector scopeSelector = new ModelWorkspaceSearchIndexSelector(this.readOnlyModelScope);
+            final IndexSelector scopeSelector = createIndexSelector();
 
             // Perform a search using datatype criteria ...
             if (this.datatype != null || this.runtimeType != null) {
@@ -524,6 +526,109 @@ public class MetadataSearchImpl implements MetadataSearch {
         return status;
     }
 
+    /**
+     * @see org.teiid.designer.core.search.MetadataSearch#execute(org.eclipse.core.runtime.IProgressMonitor,
+     *      org.teiid.designer.core.search.SearchResultCollector, int, int)
+     * @since 8.1
+     */
+    @Override
+    public IStatus execute( final IProgressMonitor progressMonitor,
+                            final SearchResultCollector collector,
+                            final int pageSize,
+                            final int limit ) {
+        CoreArgCheck.isNotNull(collector);
+        CoreArgCheck.isPositive(pageSize);
+        final IStatus canStatus = canExecute();
+        if (!canStatus.isOK()) {
+            return canStatus;
+        }
+
+        final IProgressMonitor monitor = progressMonitor != null ? progressMonitor : new NullProgressMonitor();
+        final ResultPager pager = new ResultPager(collector, pageSize, limit);
+        try {
+            final IndexSelector scopeSelector = createIndexSelector();
+            final Index[] indexes = scopeSelector.getIndexes();
+
+            IndexSearchCommand command = null;
+            Set ids = null;
+            // Perform a search using datatype criteria ...
+            if (this.datatype != null || this.runtimeType != null) {
+                final EObject[] otherTypes = (this.includeSubtypes ? getSubtypes(this.datatype) : EMPTY_EOBJECT_ARRAY);
+                command = createCommand(scopeSelector, this.metaClass, this.datatype, otherTypes, this.runtimeType);
+
+                // Join the feature search results with the datatype search results on their identifiers: keep the
+                // identifiers of the datatype search results, and pass on the feature search results with those identifiers
+                if (this.metaClass != null || this.textPattern != null) {
+                    ids = new HashSet();
+                    for (int i = 0; i < indexes.length && !monitor.isCanceled(); i++) {
+                        for (final Iterator iter = command.findRecords(indexes[i]).iterator(); iter.hasNext();) {
+                            final String id = getIdentifier((SearchRecord)iter.next());
+                            if (id != null) {
+                                ids.add(id);
+                            }
+                        }
+                    }
+                    command = createCommand(scopeSelector,
+                                            this.metaClass,
+                                            this.featureName,
+                                            this.textPattern,
+                                            this.containsPattern);
+                }
+            }
+            // Perform searches using feature pattern criteria ...
+            else if (this.metaClass != null || this.textPattern != null) {
+                command = createCommand(scopeSelector, this.metaClass, this.featureName, this.textPattern, this.containsPattern);
+            }
+
+            if (command != null && command.canExecute()) {
+                if (command.canFindRecords()) {
+                    for (int i = 0; i < indexes.length && !pager.isDone() && !monitor.isCanceled(); i++) {
+                        addRecords(command.findRecords(indexes[i]), ids, pager);
+                    }
+                } else {
+                    final IStatus status = command.execute();
+                    if (!status.isOK()) {
+                        return status;
+                    }
+                    addRecords(command.getRecordInfo(), ids, pager);
+                }
+            }
+            pager.flush();
+        } catch (Throwable e) {
+            final int code = 0;
+            final String msg = e.getLocalizedMessage();
+            return new Status(IStatus.ERROR, ModelerCore.PLUGIN_ID, code, msg, e);
+        }
+
+        if (monitor.isCanceled()) {
+            return Status.CANCEL_STATUS;
+        }
+        final int code = 0;
+        final String msg = ModelerCore.Util.getString("MetadataSearchImpl.Search_completed_successfully"); //$NON-NLS-1$
+        return new Status(IStatus.OK, ModelerCore.PLUGIN_ID, code, msg, null);
+    }
+
+    /**
+     * Pass on the records whose identifiers are among the specified identifiers, if any, and that are not excluded from search
+     * results.
+     */
+    private void addRecords( final Collection records,
+                             final Set ids,
+                             final ResultPager pager ) {
+        for (final Iterator iter = records.iterator(); iter.hasNext() && !pager.isDone();) {
+            final SearchRecord record = (SearchRecord)iter.next();
+            if (ids != null) {
+                final String id = getIdentifier(record);
+                if (id == null || !ids.contains(id)) {
+                    continue;
+                }
+            }
+            if (!isExcluded(record)) {
+                pager.add(record);
+            }
+        }
+    }
+
     /**
      * Intersect the two lists of {@link SearchRecord} instances. The intersection is performed by iterating through each record
      * in firstResult and checking if a record with the same identifier exists in secondResult. If one is not found, the record is
@@ -566,14 +671,7 @@ public class MetadataSearchImpl implements MetadataSearch {
                                  final boolean containsPattern,
                                  final List results ) {
         // Do nothing
-        final FindObjectCommand command = new FindObjectCommandImpl();
-
-        // Set the search scope ...
-        command.setIndexSelector(scopeSelector);
-
-        // Set the command parameters ...
-        command.setMetaClass(metaClass);
-        command.setFeatureCriteria(featureName, textPattern, containsPattern);
+        final FindObjectCommand command = createCommand(scopeSelector, metaClass, featureName, textPattern, containsPattern);
 
         if (!command.canExecute()) {
             return null;
@@ -593,6 +691,51 @@ public class MetadataSearchImpl implements MetadataSearch {
                                  final String runtimeType,
                                  final List results ) {
         // Do nothing
+        final FindTypedObjectCommand command = createCommand(scopeSelector, metaClass, datatype, subtypes, runtimeType);
+
+        if (!command.canExecute()) {
+            return null;
+        }
+
+        final IStatus status = command.execute();
+        final Collection recordInfo = command.getRecordInfo();
+        results.addAll(recordInfo);
+        return status;
+    }
+
+    /**
+     * @return the selector of the indexes of the models in the search scope
+     * @since 8.1
+     */
+    protected IndexSelector createIndexSelector() {
+        return new ModelWorkspaceSearchIndexSelector(this.readOnlyModelScope);
+    }
+
+    /**
+     * @return the command that searches the indexes for objects with the specified metaclass and feature criteria
+     * @since 8.1
+     */
+    protected FindObjectCommand createCommand( final IndexSelector scopeSelector,
+                                               final EClass metaClass,
+                                               final String featureName,
+                                               final String textPattern,
+                                               final boolean containsPattern ) {
+        final FindObjectCommand command = new FindObjectCommandImpl();
+
+        // Set the search scope ...
+        command.setIndexSelector(scopeSelector);
+
+        // Set the command parameters ...
+        command.setMetaClass(metaClass);
+        command.setFeatureCriteria(featureName, textPattern, containsPattern);
+        return command;
+    }
+
+    private static FindTypedObjectCommand createCommand( final IndexSelector scopeSelector,
+                                                         final EClass metaClass,
+                                                         final EObject datatype,
+                                                         final EObject[] subtypes,
+                                                         final String runtimeType ) {
         final FindTypedObjectCommand command = new FindTypedObjectCommandImpl();
 
         // Set the search scope ...
@@ -603,15 +746,7 @@ public class MetadataSearchImpl implements MetadataSearch {
         command.setDatatype(datatype);
         command.setSubTypes(subtypes);
         command.setRuntimeType(runtimeType);
-
-        if (!command.canExecute()) {
-            return null;
-        }
-
-        final IStatus status = command.execute();
-        final Collection recordInfo = command.getRecordInfo();
-        results.addAll(recordInfo);
-        return status;
+        return command;
     }
 
     protected List getPaths( final List modelWorkspaceItems ) {
@@ -765,16 +900,20 @@ public class MetadataSearchImpl implements MetadataSearch {
 
     private void filterRecords( final List records ) {
         for (final Iterator it = records.iterator(); it.hasNext();) {
-            final Object o = it.next();
-            if (o instanceof ResourceObjectRecord) {
-                final String metaclassURI = ((ResourceObjectRecord)o).getMetaclassURI();
-                if (isMetaclassURIExcluded(metaclassURI)) {
-                    it.remove();
-                }
+            if (isExcluded(it.next())) {
+                it.remove();
             }
         }
     }
 
+    private boolean isExcluded( final Object record ) {
+        if (record instanceof ResourceObjectRecord) {
+            final String metaclassURI = ((ResourceObjectRecord)record).getMetaclassURI();
+            return isMetaclassURIExcluded(metaclassURI);
+        }
+        return false;
+    }
+
     private boolean isMetaclassURIExcluded( final String metaclassURI ) {
         boolean success = false;
         if (metaclassURI != null && metaclassURI.length() > 0) {
@@ -800,4 +939,50 @@ public class MetadataSearchImpl implements MetadataSearch {
         }
         return success;
     }
+
+    /**
+     * Passes result records to a {@link SearchResultCollector} a page at a time, until the limit is reached or the collector stops
+     * the search.
+     */
+    private static final class ResultPager {
+        private final SearchResultCollector collector;
+        private final int pageSize;
+        private final int limit;
+        private List<SearchRecord> page;
+        private int count;
+        private boolean stopped;
+
+        ResultPager( final SearchResultCollector collector,
+                     final int pageSize,
+                     final int limit ) {
+            this.collector = collector;
+            this.pageSize = pageSize;
+            this.limit = limit;
+            this.page = newPage();
+        }
+
+        private List<SearchRecord> newPage() {
+            return new ArrayList<SearchRecord>(Math.min(this.pageSize, 1024));
+        }
+
+        boolean isDone() {
+            return this.stopped || (this.limit >= 0 && this.count >= this.limit);
+        }
+
+        void add( final SearchRecord record ) {
+            this.page.add(record);
+            ++this.count;
+            if (this.page.size() >= this.pageSize || isDone()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!this.page.isEmpty() && !this.stopped) {
+                final List<SearchRecord> records = this.page;
+                this.page = newPage();
+                this.stopped = !this.collector.accept(records);
+            }
+        }
+    }
 }
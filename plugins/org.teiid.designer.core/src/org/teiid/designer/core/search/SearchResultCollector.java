@@ -0,0 +1,28 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.search;
+
+import java.util.List;
+import org.teiid.designer.core.search.runtime.SearchRecord;
+
+/**
+ * Receives the result records of a search a page at a time, as they are found.
+ *
+ * @see MetadataSearch#execute(org.eclipse.core.runtime.IProgressMonitor, SearchResultCollector, int, int)
+ * @since 8.1
+ */
+public interface SearchResultCollector {
+
+    /**
+     * Accept the next page of result records. Every page but the last holds the page size of records.
+     *
+     * @param records the records of the page (never <code>null</code> or empty); the list is not used by the search afterwards
+     * @return <code>true</code> if the search should go on, or <code>false</code> if it should stop
+     */
+    boolean accept( List<SearchRecord> records );
+}
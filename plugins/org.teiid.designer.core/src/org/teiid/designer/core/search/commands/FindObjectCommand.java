@@ -18,7 +18,7 @@ import org.teiid.designer.core.search.MetadataSearch;
  *
  * @since 8.0
  */
-public interface FindObjectCommand extends SearchCommand {
+public interface FindObjectCommand extends IndexSearchCommand {
 
     /**
      * Return a collection of record
@@ -12,15 +12,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.teiid.core.designer.ModelerCoreException;
 import org.teiid.core.designer.util.CoreStringUtil;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.index.IEntryResult;
+import org.teiid.designer.core.index.Index;
 import org.teiid.designer.core.index.IndexConstants;
 import org.teiid.designer.core.index.IndexSelector;
 import org.teiid.designer.core.index.IndexUtil;
@@ -117,6 +120,35 @@ public class FindObjectCommandImpl implements FindObjectCommand {
 	public boolean canExecute() {
         return (this.isMetaclassSearch() || this.isFeatureSearch());
     }
+
+    /**
+     * Object URI searches, and searches for the objects not matching a pattern, cannot be done one index at a time.
+     *
+     * @see org.teiid.designer.core.search.commands.IndexSearchCommand#canFindRecords()
+     * @since 8.1
+     */
+    @Override
+    public boolean canFindRecords() {
+        if (!canExecute()) {
+            return false;
+        }
+        return !(isFeatureSearch() && (this.featureName.equals(MetadataSearch.OBJECT_URI_FEATURE) || !this.containsPattern));
+    }
+
+    /**
+     * @see org.teiid.designer.core.search.commands.IndexSearchCommand#findRecords(org.teiid.designer.core.index.Index)
+     * @since 8.1
+     */
+    @Override
+    public List findRecords(final Index index) throws ModelerCoreException {
+        final String matchPattern = this.getMatchPattern(this.featureName, this.textPattern, getMetaclassUri(metaClass));
+        final IEntryResult[] results = IndexUtil.queryIndex(new Index[] {index},
+                                                            matchPattern.toCharArray(),
+                                                            IndexConstants.RECORD_STRING.RECORD_DELIMITER);
+        final List records = new ArrayList(results.length);
+        addRecords(results, records);
+        return records;
+    }
     
     private IStatus executeObjectUriSearch() {
         IStatus result = null;
@@ -160,10 +192,7 @@ public class FindObjectCommandImpl implements FindObjectCommand {
                                                           matchPattern.toCharArray(), 
                                                           IndexConstants.RECORD_STRING.RECORD_DELIMITER);
             this.recordInfos = new ArrayList(results.length);
-            for(int i=0; i < results.length; i++) {
-                IEntryResult result = results[i];
-                this.recordInfos.add(SearchRuntimeAdapter.getSearchRecord(result.getWord()));
-            }
+            addRecords(results, this.recordInfos);
 
             // If we are trying to exclude matching records ...
             if (this.isFeatureSearch() && !this.containsPattern) {
@@ -307,6 +336,13 @@ public class FindObjectCommandImpl implements FindObjectCommand {
         return (this.metaClass != null);
     }
     
+    private static void addRecords(final IEntryResult[] results, final Collection records) {
+        for(int i=0; i < results.length; i++) {
+            IEntryResult result = results[i];
+            records.add(SearchRuntimeAdapter.getSearchRecord(result.getWord()));
+        }
+    }
+
     private IndexSelector getIndexSelector() {
         // selector used to lookup relationship indexes     
         this.selector = this.selector != null ?
@@ -17,7 +17,7 @@ import org.teiid.designer.core.index.IndexSelector;
  *
  * @since 8.0
  */
-public interface FindTypedObjectCommand	extends SearchCommand {
+public interface FindTypedObjectCommand	extends IndexSearchCommand {
 
 	/**
 	 * Return a collection of record
@@ -10,14 +10,17 @@ package org.teiid.designer.core.search.commands;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xsd.XSDSimpleTypeDefinition;
 import org.teiid.core.designer.util.CoreStringUtil;
+import org.teiid.core.designer.ModelerCoreException;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.index.IEntryResult;
+import org.teiid.designer.core.index.Index;
 import org.teiid.designer.core.index.IndexConstants;
 import org.teiid.designer.core.index.IndexSelector;
 import org.teiid.designer.core.index.IndexUtil;
@@ -131,6 +134,39 @@ public class FindTypedObjectCommandImpl implements FindTypedObjectCommand {
 	public boolean canExecute() {
         return (this.datatype != null || this.runtimeType != null);
     }
+
+    /**
+     * @see org.teiid.designer.core.search.commands.IndexSearchCommand#canFindRecords()
+     * @since 8.1
+     */
+    @Override
+    public boolean canFindRecords() {
+        return canExecute();
+    }
+
+    /**
+     * @see org.teiid.designer.core.search.commands.IndexSearchCommand#findRecords(org.teiid.designer.core.index.Index)
+     * @since 8.1
+     */
+    @Override
+    public List findRecords(final Index index) throws ModelerCoreException {
+        final Index[] indexes = new Index[] {index};
+        final String runtimeTypeName = this.runtimeType;
+        final String metaclassUri = getMetaclassUri(metaClass);
+        final List records = new ArrayList();
+        addRecords(IndexUtil.queryIndex(indexes,
+                                        this.getMatchPattern(getDatatypeName(datatype), runtimeTypeName, metaclassUri).toCharArray(),
+                                        IndexConstants.RECORD_STRING.RECORD_DELIMITER),
+                   records);
+        if (this.subtypes != null) {
+            for (int j = 0; j != this.subtypes.length; ++j) {
+                final String matchPattern = this.getMatchPattern(getDatatypeName(this.subtypes[j]), runtimeTypeName, metaclassUri);
+                addRecords(IndexUtil.queryIndex(indexes, matchPattern.toCharArray(), IndexConstants.RECORD_STRING.RECORD_DELIMITER),
+                           records);
+            }
+        }
+        return records;
+    }
     /** 
      * @see org.teiid.designer.core.search.commands.SearchCommand#execute()
      * @since 4.1
@@ -150,10 +186,7 @@ public class FindTypedObjectCommandImpl implements FindTypedObjectCommand {
                                                           matchPattern.toCharArray(), 
                                                           IndexConstants.RECORD_STRING.RECORD_DELIMITER);
             this.recordInfos = new ArrayList(results.length);
-            for(int i=0; i < results.length; i++) {
-                IEntryResult result = results[i];
-                this.recordInfos.add(SearchRuntimeAdapter.getSearchRecord(result.getWord()));
-            }
+            addRecords(results, this.recordInfos);
             
             if (this.subtypes != null && this.subtypes.length > 0) {
                 for (int j = 0; j != this.subtypes.length; ++j) {
@@ -162,10 +195,7 @@ public class FindTypedObjectCommandImpl implements FindTypedObjectCommand {
                     results = IndexUtil.queryIndex(getIndexSelector().getIndexes(), 
                                                    matchPattern.toCharArray(), 
                                                    IndexConstants.RECORD_STRING.RECORD_DELIMITER);
-                    for(int i=0; i < results.length; i++) {
-                        IEntryResult result = results[i];
-                        this.recordInfos.add(SearchRuntimeAdapter.getSearchRecord(result.getWord()));
-                    }
+                    addRecords(results, this.recordInfos);
                 }
             }
 
@@ -224,6 +254,13 @@ public class FindTypedObjectCommandImpl implements FindTypedObjectCommand {
     //                         P R I V A T E   M E T H O D S
     // ==================================================================================
     
+    private static void addRecords(final IEntryResult[] results, final Collection records) {
+        for(int i=0; i < results.length; i++) {
+            IEntryResult result = results[i];
+            records.add(SearchRuntimeAdapter.getSearchRecord(result.getWord()));
+        }
+    }
+
     private IndexSelector getIndexSelector() {
         // selector used to lookup relationship indexes     
         this.selector = this.selector != null ?
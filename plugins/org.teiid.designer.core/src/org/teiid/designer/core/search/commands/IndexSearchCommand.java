@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.search.commands;
+
+import java.util.Collection;
+import java.util.List;
+import org.teiid.core.designer.ModelerCoreException;
+import org.teiid.designer.core.index.Index;
+
+/**
+ * A search command that can find its records one index at a time, so that the records of each index can be used before the
+ * next index is searched rather than after all indexes are searched.
+ *
+ * @since 8.1
+ */
+public interface IndexSearchCommand extends SearchCommand {
+
+    /**
+     * Return true if the records can be found one index at a time. Some searches need the records of all indexes at once, and can
+     * only be {@link #execute() executed}.
+     *
+     * @return true if {@link #findRecords(Index)} may be called
+     */
+    boolean canFindRecords();
+
+    /**
+     * Find the records of one index that match the criteria of this command. Finding the records of each index of the command's
+     * index selector in turn finds the records found by executing the command, though not necessarily in the same order.
+     *
+     * @param index the index to search
+     * @return the {@link org.teiid.designer.core.search.runtime.SearchRecord records} found (never null)
+     * @throws ModelerCoreException if the index cannot be queried
+     */
+    List findRecords( Index index ) throws ModelerCoreException;
+
+    /**
+     * Return the records found by the last execution of this command.
+     *
+     * @return a collection of records
+     */
+    Collection getRecordInfo();
+}
@@ -12,6 +12,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -35,12 +36,30 @@ import org.teiid.designer.metamodels.transformation.TransformationContainer;
 
 
 /**
+ * Aggregates the notifications of a transaction into one {@link SourcedNotification} per notifier, dropping the notifications
+ * of notifiers contained by another notifier that has notifications.
+ * <p>
+ * Event sets are found by notifier through a hash map, and the event sets below a notifier through a map keyed on the EObjects
+ * containing their notifiers, so each notification costs time in proportion to the depth of its notifier rather than the number
+ * of notifiers in the transaction. The containers of each event set's notifier are cached when the set is created, and added to
+ * when a containment notification moves the notifier, or one of its containers, below a new container.
+ * </p>
+ *
  * @since 8.0
  */
 public class TxnNotificationFilter {
 
+    // The event sets, in the order they were created; removed sets are kept until the list is compacted
     private final List eventSets;
+    // Map, keyed on notifier, of the event set for that notifier
+    private final Map eventSetsByNotifier;
+    // Map, keyed on EObject, of the lists of event sets whose notifiers are, or were, contained by that EObject
+    private final Map eventSetsByContainer;
+    // The event sets emptied by their last notification, which are removed by removeEmptyEventSets()
+    private final List emptiedEventSets;
     private final ResourceSet resourceSet;
+    private int removedCount;
+    private int nextSequence;
 
     // ==================================================================================
     // C O N S T R U C T O R S
@@ -52,6 +71,9 @@ public class TxnNotificationFilter {
     public TxnNotificationFilter( final ResourceSet theResourceSet ) {
         CoreArgCheck.isNotNull(theResourceSet);
         this.eventSets = new ArrayList();
+        this.eventSetsByNotifier = new IdentityHashMap();
+        this.eventSetsByContainer = new IdentityHashMap();
+        this.emptiedEventSets = new ArrayList();
         this.resourceSet = theResourceSet;
     }
 
@@ -70,7 +92,7 @@ public class TxnNotificationFilter {
         List result = new ArrayList(this.eventSets.size());
         for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
             NotifierEventSet es = (NotifierEventSet)i.next();
-            if (!es.isEmpty()) {
+            if (!es.isRemoved() && !es.isEmpty()) {
                 SourcedNotification sn = es.getSourcedNotification(source);
                 if (sn != null) {
                     result.add(sn);
@@ -89,6 +111,10 @@ public class TxnNotificationFilter {
             es.clear();
         }
         this.eventSets.clear();
+        this.eventSetsByNotifier.clear();
+        this.eventSetsByContainer.clear();
+        this.emptiedEventSets.clear();
+        this.removedCount = 0;
     }
 
     /**
@@ -99,6 +125,9 @@ public class TxnNotificationFilter {
      * @since 5.0
      */
     public boolean addNotification( final Notification notification ) {
+        // If the notification moves objects below a new container, index the event sets below those objects under it
+        updateContainers(notification);
+
         // If the notification can be ignored then return
         if (isIgnorable(notification)) {
             return false;
@@ -112,7 +141,7 @@ public class TxnNotificationFilter {
         final Object notifier = notification.getNotifier();
         NotifierEventSet eventSet = getExistingEventSet(notifier);
         if (eventSet != null) {
-            eventSet.addNotification(notification);
+            addToEventSet(eventSet, notification);
             return true;
         }
 
@@ -120,37 +149,32 @@ public class TxnNotificationFilter {
         // object then create a new NotifierEventSet instance and return
         final Object feature = notification.getFeature();
         if (feature == null && (notifier instanceof Resource || notifier instanceof ResourceSet)) {
-            eventSet = new NotifierEventSet(notifier);
-            eventSet.addNotification(notification);
-            this.eventSets.add(eventSet);
+            addEventSet(notifier, notification);
             return true;
         }
 
         // If the new notifier is the ancestor of the notifier for an existing NotifierEventSet
         // instance then we should remove the existing instance and create a new NotifierEventSet
         // for the parent notifier
-        for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
-            NotifierEventSet es = (NotifierEventSet)i.next();
-
-            // If the new notifier is the ancestor of the notifier for an existing NotifierEventSet
-            if (!es.isEmpty() && isAncestor(notifier, es.getNotifier())) {
+        final List descendants = getDescendantEventSets(notifier);
+        if (!descendants.isEmpty()) {
+            final List ancestors = getAncestors(notifier);
+            for (Iterator i = descendants.iterator(); i.hasNext();) {
+                NotifierEventSet es = (NotifierEventSet)i.next();
 
                 // One exception to this is when the notifier for a remove notification is not
                 // a child of any NotifierEventSet added objects. We don't want to remove
                 // notifications in which an object is removed from one eContainer and
                 // added to a newly created eContainer (e.g. remove column from an existing
                 // table and add it to a new created table)
-                if (isRemove(notification) && !isAncestor(es.getAddObjects(), notifier)) {
+                if (isRemove(notification) && !containsAny(es.getAddObjects(), ancestors)) {
                     // do nothing
                 } else {
-                    es.clear();
-                    i.remove();
+                    removeEventSet(es);
                 }
             }
         }
-        eventSet = new NotifierEventSet(notifier);
-        eventSet.addNotification(notification);
-        this.eventSets.add(eventSet);
+        addEventSet(notifier, notification);
 
         return true;
     }
@@ -265,23 +289,30 @@ public class TxnNotificationFilter {
         // Check if the notifier for this notification is a descendant of one of the
         // notifiers in an existing NotifierEventSet. If we have captured notifications
         // for the parent object, then we can ignore the notifications for the child.
-        for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
-            NotifierEventSet es = (NotifierEventSet)i.next();
+        // Of the event sets for the notifier's ancestors, the one created first decides.
+        final List ancestors = getAncestors(notifier);
+        NotifierEventSet ancestorEventSet = null;
+        for (Iterator i = ancestors.iterator(); i.hasNext();) {
+            NotifierEventSet es = (NotifierEventSet)this.eventSetsByNotifier.get(i.next());
+            if (es != null && !es.isEmpty()
+                && (ancestorEventSet == null || es.getSequence() < ancestorEventSet.getSequence())) {
+                ancestorEventSet = es;
+            }
+        }
 
-            // If the NotifierEventSet notifier is a parent of the notification's notifier
-            // then we can ignore the child notification
-            if (!es.isEmpty() && isAncestor(es.getNotifier(), notifier)) {
+        // If the NotifierEventSet notifier is a parent of the notification's notifier
+        // then we can ignore the child notification
+        if (ancestorEventSet != null) {
 
-                // One exception to this is when the notifier for a remove notification is not
-                // a child of any NotifierEventSet added objects. We don't want to ignore
-                // notifications in which an object is removed from one eContainer and
-                // added to a newly created eContainer (e.g. remove column from an existing
-                // table and add it to a new created table)
-                if (isRemove(notification) && !isAncestor(es.getAddObjects(), notifier)) {
-                    return false;
-                }
-                return true;
+            // One exception to this is when the notifier for a remove notification is not
+            // a child of any NotifierEventSet added objects. We don't want to ignore
+            // notifications in which an object is removed from one eContainer and
+            // added to a newly created eContainer (e.g. remove column from an existing
+            // table and add it to a new created table)
+            if (isRemove(notification) && !containsAny(ancestorEventSet.getAddObjects(), ancestors)) {
+                return false;
             }
+            return true;
         }
 
         return false;
@@ -393,26 +424,24 @@ public class TxnNotificationFilter {
      * @return
      */
     protected NotifierEventSet getExistingEventSet( final Object notifier ) {
-        for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
-            NotifierEventSet es = (NotifierEventSet)i.next();
-            if (es.getNotifier() == notifier) {
-                return es;
-            }
+        if (notifier == null) {
+            return null;
         }
-        return null;
+        return (NotifierEventSet)this.eventSetsByNotifier.get(notifier);
     }
 
     /**
      * Check all existing NotifierEventSet instances and remove those that current are empty
      */
     protected void removeEmptyEventSets() {
-        for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
+        // Event sets are only emptied by a notification cancelling their earlier notifications
+        for (Iterator i = this.emptiedEventSets.iterator(); i.hasNext();) {
             NotifierEventSet eventSet = (NotifierEventSet)i.next();
-            if (eventSet.isEmpty()) {
-                eventSet.clear();
-                i.remove();
+            if (!eventSet.isRemoved() && eventSet.isEmpty()) {
+                removeEventSet(eventSet);
             }
         }
+        this.emptiedEventSets.clear();
     }
 
     /**
@@ -469,6 +498,215 @@ public class TxnNotificationFilter {
         return false;
     }
 
+    // ==================================================================================
+    // P R I V A T E M E T H O D S
+    // ==================================================================================
+
+    /**
+     * Return the objects of which the specified object is a descendant, as defined by {@link #isAncestor(Object, Object)}: the
+     * containers of an EObject and the resources and resource sets of the EObject and its containers, or the resource set of a
+     * resource.
+     *
+     * @param obj
+     * @return the ancestors, nearest first
+     */
+    private static List getAncestors( final Object obj ) {
+        final List ancestors = new ArrayList();
+        if (obj instanceof EObject) {
+            for (InternalEObject eObject = (InternalEObject)obj; eObject != null; eObject = eObject.eInternalContainer()) {
+                if (eObject != obj) {
+                    ancestors.add(eObject);
+                }
+                final Resource resource = eObject.eDirectResource();
+                if (resource != null) {
+                    ancestors.add(resource);
+                    if (resource.getResourceSet() != null) {
+                        ancestors.add(resource.getResourceSet());
+                    }
+                }
+            }
+        } else if (obj instanceof Resource) {
+            if (((Resource)obj).getResourceSet() != null) {
+                ancestors.add(((Resource)obj).getResourceSet());
+            }
+        }
+        return ancestors;
+    }
+
+    /**
+     * Return true if any of the ancestors is one of the objects
+     */
+    private static boolean containsAny( final Collection objects,
+                                        final List ancestors ) {
+        if (!objects.isEmpty()) {
+            for (Iterator i = ancestors.iterator(); i.hasNext();) {
+                if (objects.contains(i.next())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the non-empty NotifierEventSet instances whose notifiers are descendants of the specified notifier
+     */
+    private List getDescendantEventSets( final Object notifier ) {
+        final List result = new ArrayList();
+        if (!(notifier instanceof EObject)) {
+            // Only EObjects are indexed as containers
+            for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
+                NotifierEventSet es = (NotifierEventSet)i.next();
+                if (!es.isRemoved() && !es.isEmpty() && isAncestor(notifier, es.getNotifier())) {
+                    result.add(es);
+                }
+            }
+            return result;
+        }
+
+        final List indexed = (List)this.eventSetsByContainer.get(notifier);
+        if (indexed == null) {
+            return result;
+        }
+        // Drop the removed event sets, and those whose notifiers have since moved out of the notifier
+        final List kept = new ArrayList(indexed.size());
+        for (Iterator i = indexed.iterator(); i.hasNext();) {
+            NotifierEventSet es = (NotifierEventSet)i.next();
+            if (es.isRemoved()) {
+                continue;
+            }
+            if (!isAncestor(notifier, es.getNotifier())) {
+                es.getContainers().remove(notifier);
+                continue;
+            }
+            kept.add(es);
+            if (!es.isEmpty()) {
+                result.add(es);
+            }
+        }
+        if (kept.isEmpty()) {
+            this.eventSetsByContainer.remove(notifier);
+        } else if (kept.size() != indexed.size()) {
+            this.eventSetsByContainer.put(notifier, kept);
+        }
+        return result;
+    }
+
+    /**
+     * Create a NotifierEventSet for the specified notifier, and add the notification to it
+     */
+    private void addEventSet( final Object notifier,
+                              final Notification notification ) {
+        final NotifierEventSet eventSet = new NotifierEventSet(notifier, this.nextSequence++);
+        addToEventSet(eventSet, notification);
+        this.eventSets.add(eventSet);
+        this.eventSetsByNotifier.put(notifier, eventSet);
+        indexContainers(eventSet);
+    }
+
+    private void addToEventSet( final NotifierEventSet eventSet,
+                                final Notification notification ) {
+        eventSet.addNotification(notification);
+        if (eventSet.isEmpty()) {
+            this.emptiedEventSets.add(eventSet);
+        }
+    }
+
+    private void removeEventSet( final NotifierEventSet eventSet ) {
+        eventSet.clear();
+        eventSet.setRemoved();
+        if (this.eventSetsByNotifier.get(eventSet.getNotifier()) == eventSet) {
+            this.eventSetsByNotifier.remove(eventSet.getNotifier());
+        }
+
+        // Compact the list once most of it is removed event sets
+        if (++this.removedCount > this.eventSets.size() / 2) {
+            final List live = new ArrayList(this.eventSets.size() - this.removedCount);
+            for (Iterator i = this.eventSets.iterator(); i.hasNext();) {
+                NotifierEventSet es = (NotifierEventSet)i.next();
+                if (!es.isRemoved()) {
+                    live.add(es);
+                }
+            }
+            this.eventSets.clear();
+            this.eventSets.addAll(live);
+            this.removedCount = 0;
+        }
+    }
+
+    /**
+     * Index the NotifierEventSet under each current container of its notifier not already indexed
+     */
+    private void indexContainers( final NotifierEventSet eventSet ) {
+        if (!(eventSet.getNotifier() instanceof EObject)) {
+            return;
+        }
+        final List containers = eventSet.getContainers();
+        InternalEObject container = ((InternalEObject)eventSet.getNotifier()).eInternalContainer();
+        for (; container != null; container = container.eInternalContainer()) {
+            if (!containers.contains(container)) {
+                containers.add(container);
+                List indexed = (List)this.eventSetsByContainer.get(container);
+                if (indexed == null) {
+                    indexed = new ArrayList(2);
+                    this.eventSetsByContainer.put(container, indexed);
+                }
+                indexed.add(eventSet);
+            }
+        }
+    }
+
+    /**
+     * If the notification adds objects to a containment feature, index the event sets for those objects and their descendants
+     * under their new containers
+     */
+    private void updateContainers( final Notification notification ) {
+        if (this.eventSetsByNotifier.isEmpty() || notification == null) {
+            return;
+        }
+        final Object feature = notification.getFeature();
+        if (!(feature instanceof EReference) || !((EReference)feature).isContainment()) {
+            return;
+        }
+        switch (notification.getEventType()) {
+            case Notification.ADD:
+            case Notification.SET: {
+                updateContainers(notification.getNewValue());
+                break;
+            }
+            case Notification.ADD_MANY: {
+                if (notification.getNewValue() instanceof List) {
+                    for (Iterator i = ((List)notification.getNewValue()).iterator(); i.hasNext();) {
+                        updateContainers(i.next());
+                    }
+                }
+                break;
+            }
+            default: {
+                // do nothing
+            }
+        }
+    }
+
+    private void updateContainers( final Object child ) {
+        if (!(child instanceof EObject)) {
+            return;
+        }
+        final NotifierEventSet eventSet = (NotifierEventSet)this.eventSetsByNotifier.get(child);
+        if (eventSet != null) {
+            indexContainers(eventSet);
+        }
+        final List indexed = (List)this.eventSetsByContainer.get(child);
+        if (indexed != null) {
+            for (Iterator i = new ArrayList(indexed).iterator(); i.hasNext();) {
+                NotifierEventSet es = (NotifierEventSet)i.next();
+                if (!es.isRemoved()) {
+                    indexContainers(es);
+                }
+            }
+        }
+    }
+
     // ==================================================================================
     // I N N E R C L A S S
     // ==================================================================================
@@ -479,6 +717,9 @@ public class TxnNotificationFilter {
     private class NotifierEventSet {
 
         private final Object notifier;
+        private final int sequence;
+        private final List containers;
+        private boolean removed;
         private final List notifications;
         private final Map addEvents;
         private final Map removeEvents;
@@ -492,8 +733,11 @@ public class TxnNotificationFilter {
         /**
          * @since 4.3
          */
-        public NotifierEventSet( final Object theNotifier ) {
+        public NotifierEventSet( final Object theNotifier,
+                                 final int theSequence ) {
             this.notifier = theNotifier;
+            this.sequence = theSequence;
+            this.containers = new ArrayList(4);
             this.notifications = new ArrayList();
             this.addEvents = new HashMap();
             this.removeEvents = new HashMap();
@@ -751,6 +995,28 @@ public class TxnNotificationFilter {
             return this.addObjects;
         }
 
+        /**
+         * Return the order in which this NotifierEventSet was created
+         */
+        public int getSequence() {
+            return this.sequence;
+        }
+
+        /**
+         * Return the containers of the notifier under which this NotifierEventSet is indexed
+         */
+        public List getContainers() {
+            return this.containers;
+        }
+
+        public boolean isRemoved() {
+            return this.removed;
+        }
+
+        public void setRemoved() {
+            this.removed = true;
+        }
+
         public boolean isEmpty() {
             return this.notifications.isEmpty();
         }
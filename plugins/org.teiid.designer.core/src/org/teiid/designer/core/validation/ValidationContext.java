@@ -94,6 +94,9 @@ public class ValidationContext {
     // A place to store any other data
     private Map dataMap;
 
+    // collects the time spent in each validation rule; null unless rule timing is wanted
+    private ValidationRuleTimings ruleTimings;
+
     /**
      * Construct an instance of ValidationContext.
      */
@@ -109,6 +112,22 @@ public class ValidationContext {
         this.preferenceStatusMap = new HashMap<String, Integer>();   
     }
 
+    /**
+     * @return the timings of the validation rules run with this context, or <code>null</code> if rule timing is not wanted
+     * @since 8.1
+     */
+    public ValidationRuleTimings getRuleTimings() {
+        return this.ruleTimings;
+    }
+
+    /**
+     * @param ruleTimings collects the time spent in each validation rule; may be <code>null</code> if rule timing is not wanted
+     * @since 8.1
+     */
+    public void setRuleTimings( final ValidationRuleTimings ruleTimings ) {
+        this.ruleTimings = ruleTimings;
+    }
+
     /**
      * Add the uuid to the context, these uuid strings are used to check uniqueness.
      */
@@ -464,6 +483,7 @@ public class ValidationContext {
         this.indexDirectory = IndexUtil.INDEX_PATH;
         this.uuidsInContext = null;
         this.dataMap = null;
+        this.ruleTimings = null;
     }
 
     public boolean hasResults() {
@@ -86,6 +86,7 @@ public class ValidationRuleSetImpl implements ValidationRuleSet {
             return;
         }
 		final IProgressMonitor monitor = progressMonitor != null ? progressMonitor : new NullProgressMonitor();
+        final ValidationRuleTimings timings = context.getRuleTimings();
 
         try {
             // Run the ObjectValidationRule set
@@ -113,6 +114,7 @@ public class ValidationRuleSetImpl implements ValidationRuleSet {
                 }
 
 				final ValidationRule rule = (ValidationRule)ruleSet.get(i);
+				final long start = (timings != null ? System.nanoTime() : 0);
 				if(object instanceof EObject) {
 					final EObject target = (EObject)object;
 	                if (rule instanceof ObjectValidationRule) {
@@ -145,6 +147,9 @@ public class ValidationRuleSetImpl implements ValidationRuleSet {
 						rscRule.validate(resource,context);
 					}
 				}
+				if (timings != null) {
+				    timings.record(rule, System.nanoTime() - start);
+				}
             }
         } catch (Throwable e) {
             String errMsg = e.getMessage();
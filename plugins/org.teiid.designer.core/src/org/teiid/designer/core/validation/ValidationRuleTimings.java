@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.teiid.core.designer.util.CoreArgCheck;
+
+/**
+ * Accumulates how often and for how long each {@link ValidationRule} ran. Timings are collected by
+ * {@link ValidationRuleSetImpl} whenever the {@link ValidationContext} has a timings instance set.
+ *
+ * @since 8.1
+ */
+public class ValidationRuleTimings {
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final Map<String, Timing> timings = new HashMap<String, Timing>();
+
+    /**
+     * @param rule the rule that ran (may not be <code>null</code>)
+     * @param nanos the time the rule took
+     */
+    public void record( final ValidationRule rule,
+                        final long nanos ) {
+        CoreArgCheck.isNotNull(rule);
+        final String ruleName = rule.getClass().getName();
+        Timing timing = this.timings.get(ruleName);
+        if (timing == null) {
+            timing = new Timing(ruleName);
+            this.timings.put(ruleName, timing);
+        }
+        timing.count++;
+        timing.nanos += nanos;
+    }
+
+    /**
+     * @return the timing of every rule that ran, the most expensive first (never <code>null</code>)
+     */
+    public List<Timing> getTimings() {
+        final List<Timing> result = new ArrayList<Timing>(this.timings.values());
+        Collections.sort(result, new Comparator<Timing>() {
+            @Override
+            public int compare( final Timing first,
+                                final Timing second ) {
+                final long firstNanos = first.getTotalNanos();
+                final long secondNanos = second.getTotalNanos();
+                return (firstNanos < secondNanos ? 1 : (firstNanos == secondNanos ? 0 : -1));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Clears all timings.
+     */
+    public void clear() {
+        this.timings.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Validation rule timings:"); //$NON-NLS-1$
+        for (final Timing timing : getTimings()) {
+            sb.append("\n  ").append(timing); //$NON-NLS-1$
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The accumulated timing of one rule.
+     */
+    public static final class Timing {
+        private final String ruleName;
+        long count;
+        long nanos;
+
+        Timing( final String ruleName ) {
+            this.ruleName = ruleName;
+        }
+
+        /**
+         * @return the class name of the rule
+         */
+        public String getRuleName() {
+            return this.ruleName;
+        }
+
+        /**
+         * @return the number of times the rule ran
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * @return the total time spent in the rule, in nanoseconds
+         */
+        public long getTotalNanos() {
+            return this.nanos;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return this.ruleName + ": " + getCount() + " runs, " + (getTotalNanos() / NANOS_PER_MILLI) + " ms"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+}
@@ -0,0 +1,533 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.teiid.core.designer.util.CoreArgCheck;
+
+/**
+ * The dependencies between the models of the workspace, and between the objects of those models. Models are identified by their
+ * workspace paths, and objects by their UUID strings.
+ * <p>
+ * A model depends on the models it imports; an object depends on the objects it references through unidirectional, non-containment
+ * references (the references that cannot be followed back from the referenced object). Each model keeps the stamp of the file its
+ * imports were read from, so that only the models changed since can be read again. The imports a model declares that could not be
+ * found are kept under keys chosen by the caller, such as the names of the missing files, so that only the models that may import a
+ * file added later need be read again.
+ * </p>
+ * <p>
+ * The graph is safe for use by several threads: any number of queries may run at once, and each update is seen in full or not at
+ * all. Queries return copies that are not changed by later updates.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class ModelDependencyGraph {
+
+    /**
+     * The stamp of a model that is not in the graph.
+     */
+    public static final long NO_STAMP = -1L;
+
+    private static final int VERSION = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // model path -> stamp of the file the imports were read from
+    private final Map<String, Long> stamps = new HashMap<String, Long>();
+    // model path -> paths of the models it imports
+    private final Map<String, Set<String>> imports = new HashMap<String, Set<String>>();
+    // model path -> paths of the models that import it
+    private final Map<String, Set<String>> importers = new HashMap<String, Set<String>>();
+    // model path -> keys of the imports of the model that could not be found
+    private final Map<String, Set<String>> unresolvedImports = new HashMap<String, Set<String>>();
+    // key of an import that could not be found -> paths of the models that declare it
+    private final Map<String, Set<String>> unresolvedImporters = new HashMap<String, Set<String>>();
+
+    // model path -> UUIDs of its objects that reference other objects
+    private final Map<String, Set<String>> referencingObjectsByModel = new HashMap<String, Set<String>>();
+    // object UUID -> UUIDs of the objects it references
+    private final Map<String, Set<String>> references = new HashMap<String, Set<String>>();
+    // object UUID -> UUIDs of the objects that reference it
+    private final Map<String, Set<String>> referencers = new HashMap<String, Set<String>>();
+
+    /**
+     * Read a graph saved by {@link #save(File)}.
+     *
+     * @param file the file the graph was saved to (may not be <code>null</code>)
+     * @return the graph
+     * @throws IOException if the file cannot be read or was not written by {@link #save(File)}
+     */
+    public static ModelDependencyGraph load( final File file ) throws IOException {
+        CoreArgCheck.isNotNull(file);
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != VERSION) {
+                throw new IOException(file.getPath());
+            }
+            final ModelDependencyGraph graph = new ModelDependencyGraph();
+            for (int models = in.readInt(); models > 0; --models) {
+                final String modelPath = in.readUTF();
+                final long stamp = in.readLong();
+                final Set<String> importedPaths = readStrings(in);
+                final Set<String> unresolvedKeys = readStrings(in);
+                final Map<String, Set<String>> modelReferences = new HashMap<String, Set<String>>();
+                for (int objects = in.readInt(); objects > 0; --objects) {
+                    final String uuid = in.readUTF();
+                    modelReferences.put(uuid, readStrings(in));
+                }
+                if (stamp != NO_STAMP) {
+                    graph.setImports(modelPath, stamp, importedPaths, unresolvedKeys);
+                }
+                graph.setReferences(modelPath, modelReferences);
+            }
+            return graph;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static Set<String> readStrings( final DataInputStream in ) throws IOException {
+        final int size = in.readInt();
+        final Set<String> strings = new HashSet<String>(size * 2);
+        for (int i = 0; i < size; i++) {
+            strings.add(in.readUTF());
+        }
+        return strings;
+    }
+
+    private static void writeStrings( final DataOutputStream out,
+                                      final Collection<String> strings ) throws IOException {
+        out.writeInt(strings.size());
+        for (final String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+
+    private static void addEdge( final Map<String, Set<String>> edges,
+                                 final String from,
+                                 final String to ) {
+        Set<String> targets = edges.get(from);
+        if (targets == null) {
+            targets = new HashSet<String>();
+            edges.put(from, targets);
+        }
+        targets.add(to);
+    }
+
+    private static void removeEdge( final Map<String, Set<String>> edges,
+                                    final String from,
+                                    final String to ) {
+        final Set<String> targets = edges.get(from);
+        if (targets != null && targets.remove(to) && targets.isEmpty()) {
+            edges.remove(from);
+        }
+    }
+
+    private static Set<String> copy( final Set<String> strings ) {
+        return strings == null ? Collections.<String>emptySet() : new HashSet<String>(strings);
+    }
+
+    /**
+     * Return everything reachable from the start by following the edges, not counting the start unless it lies on a cycle.
+     */
+    private static Set<String> closure( final Map<String, Set<String>> edges,
+                                        final String start ) {
+        final Set<String> reached = new HashSet<String>();
+        final LinkedList<String> queue = new LinkedList<String>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final Set<String> targets = edges.get(queue.removeFirst());
+            if (targets != null) {
+                for (final String target : targets) {
+                    if (reached.add(target)) {
+                        queue.add(target);
+                    }
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Remove every model and object from the graph.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            stamps.clear();
+            imports.clear();
+            importers.clear();
+            unresolvedImports.clear();
+            unresolvedImporters.clear();
+            referencingObjectsByModel.clear();
+            references.clear();
+            referencers.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param modelPath the workspace path of the model
+     * @return <code>true</code> if the imports of the model are in the graph
+     */
+    public boolean contains( final String modelPath ) {
+        lock.readLock().lock();
+        try {
+            return stamps.containsKey(modelPath);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param modelPath the workspace path of the model
+     * @return the stamp given with the imports of the model, or {@link #NO_STAMP} if the model is not in the graph
+     */
+    public long getStamp( final String modelPath ) {
+        lock.readLock().lock();
+        try {
+            final Long stamp = stamps.get(modelPath);
+            return stamp == null ? NO_STAMP : stamp.longValue();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the workspace paths of the models in the graph
+     */
+    public Set<String> getModelPaths() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<String>(stamps.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the imports of a model.
+     *
+     * @param modelPath the workspace path of the model (may not be <code>null</code>)
+     * @param stamp the stamp of the file the imports were read from
+     * @param importedPaths the workspace paths of the models it imports (may not be <code>null</code>)
+     */
+    public void setImports( final String modelPath,
+                            final long stamp,
+                            final Collection<String> importedPaths ) {
+        setImports(modelPath, stamp, importedPaths, Collections.<String>emptySet());
+    }
+
+    /**
+     * Replace the imports of a model, and the keys of the imports it declares that could not be found.
+     *
+     * @param modelPath the workspace path of the model (may not be <code>null</code>)
+     * @param stamp the stamp of the file the imports were read from
+     * @param importedPaths the workspace paths of the models it imports (may not be <code>null</code>)
+     * @param unresolvedKeys the keys of the imports that could not be found (may not be <code>null</code>)
+     * @see #getModelsWithUnresolvedImports(Collection)
+     */
+    public void setImports( final String modelPath,
+                            final long stamp,
+                            final Collection<String> importedPaths,
+                            final Collection<String> unresolvedKeys ) {
+        CoreArgCheck.isNotNull(modelPath);
+        CoreArgCheck.isNotNull(importedPaths);
+        CoreArgCheck.isNotNull(unresolvedKeys);
+        lock.writeLock().lock();
+        try {
+            removeImports(modelPath);
+            stamps.put(modelPath, new Long(stamp));
+            for (final String importedPath : importedPaths) {
+                addEdge(imports, modelPath, importedPath);
+                addEdge(importers, importedPath, modelPath);
+            }
+            for (final String key : unresolvedKeys) {
+                addEdge(unresolvedImports, modelPath, key);
+                addEdge(unresolvedImporters, key, modelPath);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the references of the objects of a model.
+     *
+     * @param modelPath the workspace path of the model (may not be <code>null</code>)
+     * @param modelReferences the UUIDs of the objects each object of the model references, by the UUID of the referencing object
+     *        (may not be <code>null</code>)
+     */
+    public void setReferences( final String modelPath,
+                               final Map<String, ? extends Collection<String>> modelReferences ) {
+        CoreArgCheck.isNotNull(modelPath);
+        CoreArgCheck.isNotNull(modelReferences);
+        lock.writeLock().lock();
+        try {
+            removeReferences(modelPath);
+            if (modelReferences.isEmpty()) {
+                return;
+            }
+            final Set<String> referencingObjects = new HashSet<String>(modelReferences.keySet());
+            referencingObjectsByModel.put(modelPath, referencingObjects);
+            for (final Iterator<? extends Map.Entry<String, ? extends Collection<String>>> iter = modelReferences.entrySet().iterator(); iter.hasNext();) {
+                final Map.Entry<String, ? extends Collection<String>> entry = iter.next();
+                final String uuid = entry.getKey();
+                for (final String referencedUuid : entry.getValue()) {
+                    addEdge(references, uuid, referencedUuid);
+                    addEdge(referencers, referencedUuid, uuid);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a model and the references of its objects. The models that import it, and the objects that reference its objects, are
+     * not changed, since they still depend on it.
+     *
+     * @param modelPath the workspace path of the model
+     */
+    public void remove( final String modelPath ) {
+        lock.writeLock().lock();
+        try {
+            removeImports(modelPath);
+            removeReferences(modelPath);
+            stamps.remove(modelPath);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeImports( final String modelPath ) {
+        final Set<String> importedPaths = imports.remove(modelPath);
+        if (importedPaths != null) {
+            for (final String importedPath : importedPaths) {
+                removeEdge(importers, importedPath, modelPath);
+            }
+        }
+        final Set<String> unresolvedKeys = unresolvedImports.remove(modelPath);
+        if (unresolvedKeys != null) {
+            for (final String key : unresolvedKeys) {
+                removeEdge(unresolvedImporters, key, modelPath);
+            }
+        }
+    }
+
+    private void removeReferences( final String modelPath ) {
+        final Set<String> referencingObjects = referencingObjectsByModel.remove(modelPath);
+        if (referencingObjects != null) {
+            for (final String uuid : referencingObjects) {
+                final Set<String> referencedUuids = references.remove(uuid);
+                if (referencedUuids != null) {
+                    for (final String referencedUuid : referencedUuids) {
+                        removeEdge(referencers, referencedUuid, uuid);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param modelPath the workspace path of the model
+     * @return the workspace paths of the models the model imports (never <code>null</code>)
+     */
+    public Set<String> getImports( final String modelPath ) {
+        lock.readLock().lock();
+        try {
+            return copy(imports.get(modelPath));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param modelPath the workspace path of the model
+     * @return the workspace paths of the models that import the model (never <code>null</code>)
+     */
+    public Set<String> getImporters( final String modelPath ) {
+        lock.readLock().lock();
+        try {
+            return copy(importers.get(modelPath));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param modelPath the workspace path of the model
+     * @return the keys of the imports of the model that could not be found (never <code>null</code>)
+     */
+    public Set<String> getUnresolvedImports( final String modelPath ) {
+        lock.readLock().lock();
+        try {
+            return copy(unresolvedImports.get(modelPath));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param unresolvedKeys the keys of imports that could not be found (may not be <code>null</code>)
+     * @return the workspace paths of the models that declare an import, that could not be found, under any of the keys (never
+     *         <code>null</code>)
+     */
+    public Set<String> getModelsWithUnresolvedImports( final Collection<String> unresolvedKeys ) {
+        CoreArgCheck.isNotNull(unresolvedKeys);
+        lock.readLock().lock();
+        try {
+            final Set<String> modelPaths = new HashSet<String>();
+            for (final String key : unresolvedKeys) {
+                final Set<String> importerPaths = unresolvedImporters.get(key);
+                if (importerPaths != null) {
+                    modelPaths.addAll(importerPaths);
+                }
+            }
+            return modelPaths;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param modelPath the workspace path of the model
+     * @return the workspace paths of the models the model imports, directly or through other models (never <code>null</code>)
+     */
+    public Set<String> getTransitiveImports( final String modelPath ) {
+        lock.readLock().lock();
+        try {
+            return closure(imports, modelPath);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param modelPath the workspace path of the model
+     * @return the workspace paths of the models that import the model, directly or through other models (never <code>null</code>)
+     */
+    public Set<String> getTransitiveImporters( final String modelPath ) {
+        lock.readLock().lock();
+        try {
+            return closure(importers, modelPath);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param uuid the UUID string of the object
+     * @return the UUID strings of the objects the object references (never <code>null</code>)
+     */
+    public Set<String> getReferencedObjects( final String uuid ) {
+        lock.readLock().lock();
+        try {
+            return copy(references.get(uuid));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param uuid the UUID string of the object
+     * @return the UUID strings of the objects that reference the object (never <code>null</code>)
+     */
+    public Set<String> getReferencingObjects( final String uuid ) {
+        lock.readLock().lock();
+        try {
+            return copy(referencers.get(uuid));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param uuid the UUID string of the object
+     * @return the UUID strings of the objects the object references, directly or through other objects (never <code>null</code>)
+     */
+    public Set<String> getTransitiveReferencedObjects( final String uuid ) {
+        lock.readLock().lock();
+        try {
+            return closure(references, uuid);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param uuid the UUID string of the object
+     * @return the UUID strings of the objects that reference the object, directly or through other objects (never
+     *         <code>null</code>)
+     */
+    public Set<String> getTransitiveReferencingObjects( final String uuid ) {
+        lock.readLock().lock();
+        try {
+            return closure(referencers, uuid);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the graph to a file, from which it can be {@link #load(File) loaded}.
+     *
+     * @param file the file (may not be <code>null</code>)
+     * @throws IOException if the file cannot be written
+     */
+    public void save( final File file ) throws IOException {
+        CoreArgCheck.isNotNull(file);
+        lock.readLock().lock();
+        try {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            try {
+                out.writeInt(VERSION);
+                // the objects of a model may be indexed before its imports are read
+                final Set<String> modelPaths = new HashSet<String>(stamps.keySet());
+                modelPaths.addAll(referencingObjectsByModel.keySet());
+                out.writeInt(modelPaths.size());
+                for (final String modelPath : modelPaths) {
+                    final Long stamp = stamps.get(modelPath);
+                    out.writeUTF(modelPath);
+                    out.writeLong(stamp == null ? NO_STAMP : stamp.longValue());
+                    writeStrings(out, copy(imports.get(modelPath)));
+                    writeStrings(out, copy(unresolvedImports.get(modelPath)));
+                    final Set<String> referencingObjects = copy(referencingObjectsByModel.get(modelPath));
+                    out.writeInt(referencingObjects.size());
+                    for (final String uuid : referencingObjects) {
+                        out.writeUTF(uuid);
+                        writeStrings(out, copy(references.get(uuid)));
+                    }
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
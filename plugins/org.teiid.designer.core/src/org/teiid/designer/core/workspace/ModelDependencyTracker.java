@@ -0,0 +1,318 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.index.IndexConstants;
+import org.teiid.designer.core.index.WordEntry;
+import org.teiid.designer.core.search.runtime.SearchRuntimeAdapter;
+import org.teiid.designer.core.util.ModelObjectCollector;
+
+/**
+ * Keeps a {@link ModelDependencyGraph} up to date with the workspace. The imports of a model file are read again from its header
+ * whenever the file changes, and the references of the objects of a model are taken whenever the model is indexed.
+ * <p>
+ * The graph may have been saved in an earlier session, so it is reconciled with the workspace before it is first used: only the
+ * files changed since they were last read are read again.
+ * </p>
+ * <p>
+ * The imports of a file that could not be found are kept in the graph under the name of the missing file, so that when a file is
+ * added only the files that may import it are read again.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class ModelDependencyTracker implements IResourceChangeListener {
+
+    private static final char DELIMITER = IndexConstants.RECORD_STRING.RECORD_DELIMITER;
+
+    // the key of the imports by URL that could not be found, since an added schema may declare the URL as its target namespace
+    private static final String URL_KEY = "http:"; //$NON-NLS-1$
+
+    /**
+     * The files whose imports are tracked: models, XML schemas and VDB archives.
+     */
+    public static final ResourceFilter TRACKED_FILES = new ResourceFilter() {
+        @Override
+        public boolean accept( final IResource res ) {
+            return res.getType() == IResource.FILE && res.getName().charAt(0) != '.'
+                   && (ModelUtil.isModelFile(res) || ModelUtil.isXsdFile(res) || ModelUtil.isVdbArchiveFile(res));
+        }
+    };
+
+    private final ModelDependencyGraph graph;
+
+    // whether the graph has been reconciled with the workspace since it was loaded, or since projects were opened or closed
+    private volatile boolean reconciled;
+
+    /**
+     * @param graph the graph to keep up to date (may not be <code>null</code>)
+     */
+    public ModelDependencyTracker( final ModelDependencyGraph graph ) {
+        CoreArgCheck.isNotNull(graph);
+        this.graph = graph;
+    }
+
+    /**
+     * Return the graph, without reconciling it with the workspace first.
+     *
+     * @return the graph (never <code>null</code>)
+     */
+    public ModelDependencyGraph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * Return the graph, once it holds the imports of every file of the workspace.
+     *
+     * @return the graph (never <code>null</code>)
+     */
+    public ModelDependencyGraph getReconciledGraph() {
+        if (!this.reconciled) {
+            reconcile();
+        }
+        return this.graph;
+    }
+
+    private synchronized void reconcile() {
+        if (this.reconciled) {
+            return;
+        }
+        // clear the flag first, so that changes made while reconciling are not lost
+        this.reconciled = true;
+
+        final Collection files = getTrackedFiles();
+        final Set<String> removed = this.graph.getModelPaths();
+        final List<IResource> added = new ArrayList<IResource>();
+        for (final Iterator iter = files.iterator(); iter.hasNext();) {
+            final IResource file = (IResource)iter.next();
+            final String path = file.getFullPath().toString();
+            removed.remove(path);
+            if (!this.graph.contains(path)) {
+                added.add(file);
+            }
+        }
+        for (final String path : removed) {
+            this.graph.remove(path);
+        }
+        final Set<String> read = new HashSet<String>();
+        for (final Iterator iter = files.iterator(); iter.hasNext();) {
+            final IResource file = (IResource)iter.next();
+            final String path = file.getFullPath().toString();
+            if (isStale(file)) {
+                updateImports(file);
+                read.add(path);
+            }
+        }
+        // a file new since the graph was saved may be imported by files that could not find it then
+        updateImporters(added, read);
+    }
+
+    /**
+     * Read again the files that could not find one of their imports, if the import may be one of the added files.
+     *
+     * @param added the files added
+     * @param read the workspace paths of the files already read since the files were added
+     */
+    private void updateImporters( final Collection<IResource> added,
+                                  final Set<String> read ) {
+        if (added.isEmpty()) {
+            return;
+        }
+        final Set<String> keys = new HashSet<String>();
+        for (final IResource file : added) {
+            keys.add(file.getName());
+            if (ModelUtil.isXsdFile(file)) {
+                keys.add(URL_KEY);
+            }
+        }
+        for (final String path : this.graph.getModelsWithUnresolvedImports(keys)) {
+            if (read.add(path)) {
+                final IResource file = findTrackedFile(path);
+                if (file != null) {
+                    updateImports(file);
+                }
+            }
+        }
+    }
+
+    // whether the file changed since its imports were last read
+    private boolean isStale( final IResource file ) {
+        return this.graph.getStamp(file.getFullPath().toString()) != file.getLocalTimeStamp();
+    }
+
+    private void updateImports( final IResource file ) {
+        final long stamp = file.getLocalTimeStamp();
+        final List<String> unresolvedLocations = new ArrayList<String>();
+        final Collection<String> importedPaths = readImports(file, unresolvedLocations);
+        final Set<String> unresolvedKeys = new HashSet<String>();
+        for (final String location : unresolvedLocations) {
+            // an import by URL may name a target namespace rather than a file
+            final String trimmed = location.trim();
+            if (trimmed.startsWith(URL_KEY) || trimmed.startsWith("https:")) { //$NON-NLS-1$
+                unresolvedKeys.add(URL_KEY);
+            }
+            final String name = trimmed.substring(Math.max(trimmed.lastIndexOf('/'), trimmed.lastIndexOf('\\')) + 1);
+            if (name.length() != 0) {
+                unresolvedKeys.add(name);
+            }
+        }
+        this.graph.setImports(file.getFullPath().toString(), stamp, importedPaths, unresolvedKeys);
+    }
+
+    /**
+     * Return the files of the workspace whose imports are tracked.
+     *
+     * @return the {@link #TRACKED_FILES tracked} files (never <code>null</code>)
+     */
+    protected Collection getTrackedFiles() {
+        return WorkspaceResourceFinderUtil.getAllWorkspaceResources(TRACKED_FILES);
+    }
+
+    /**
+     * Return a tracked file of the workspace.
+     *
+     * @param path the workspace path of the file
+     * @return the file, or <code>null</code> if there is no tracked file at the path
+     */
+    protected IResource findTrackedFile( final String path ) {
+        final IResource file = ModelerCore.getWorkspace().getRoot().findMember(path);
+        return file != null && TRACKED_FILES.accept(file) ? file : null;
+    }
+
+    /**
+     * Read the imports declared in the header of a file.
+     *
+     * @param file the file (never <code>null</code>)
+     * @param unresolvedLocations the list to add the locations of the imports that could not be found to (never
+     *        <code>null</code>)
+     * @return the workspace paths of the files imported (never <code>null</code>)
+     */
+    protected Collection<String> readImports( final IResource file,
+                                              final List<String> unresolvedLocations ) {
+        final IResource[] resources = WorkspaceResourceFinderUtil.getDependentResources(file, unresolvedLocations);
+        final List<String> importedPaths = new ArrayList<String>(resources.length);
+        for (int i = 0; i < resources.length; i++) {
+            importedPaths.add(resources[i].getFullPath().toString());
+        }
+        return importedPaths;
+    }
+
+    /**
+     * Replace the references of the objects of a model with the references the objects now have.
+     *
+     * @param modelPath the workspace path of the model (may not be <code>null</code>)
+     * @param resource the EMF resource of the model (may not be <code>null</code>)
+     */
+    public void updateReferences( final String modelPath,
+                                  final Resource resource ) {
+        CoreArgCheck.isNotNull(modelPath);
+        CoreArgCheck.isNotNull(resource);
+
+        // collect the same references as the search index, from its object reference words: D|referencedID|referencingID|
+        final List words = new ArrayList();
+        for (final Iterator iter = new ModelObjectCollector(resource).getEObjects().iterator(); iter.hasNext();) {
+            SearchRuntimeAdapter.addUniDirectionalReferencesSearchWords((EObject)iter.next(), words);
+        }
+        final Map<String, Set<String>> references = new HashMap<String, Set<String>>();
+        for (final Iterator iter = words.iterator(); iter.hasNext();) {
+            final String word = new String(((WordEntry)iter.next()).getWord());
+            final int referencedStart = word.indexOf(DELIMITER) + 1;
+            final int referencingStart = word.indexOf(DELIMITER, referencedStart) + 1;
+            final int referencingEnd = referencingStart == 0 ? -1 : word.indexOf(DELIMITER, referencingStart);
+            if (referencingEnd < 0) {
+                continue;
+            }
+            final String referencing = word.substring(referencingStart, referencingEnd);
+            Set<String> referenced = references.get(referencing);
+            if (referenced == null) {
+                referenced = new HashSet<String>();
+                references.put(referencing, referenced);
+            }
+            referenced.add(word.substring(referencedStart, referencingStart - 1));
+        }
+        this.graph.setReferences(modelPath, references);
+    }
+
+    /**
+     * Update the graph with the files added, changed and removed. Both {@link IResourceChangeEvent#PRE_BUILD} and
+     * {@link IResourceChangeEvent#POST_CHANGE} deltas are processed, since builders ask for the importers of the files they build
+     * before the change is broadcast; a file already read for one of the deltas is not read again for the other.
+     *
+     * @see org.eclipse.core.resources.IResourceChangeListener#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)
+     */
+    @Override
+    public void resourceChanged( final IResourceChangeEvent event ) {
+        if ((event.getType() != IResourceChangeEvent.PRE_BUILD && event.getType() != IResourceChangeEvent.POST_CHANGE)
+            || event.getDelta() == null) {
+            return;
+        }
+        final List<IResource> added = new ArrayList<IResource>();
+        final Set<String> read = new HashSet<String>();
+        try {
+            event.getDelta().accept(new IResourceDeltaVisitor() {
+                @Override
+                public boolean visit( final IResourceDelta delta ) {
+                    final IResource resource = delta.getResource();
+                    if (resource.getType() == IResource.PROJECT && (delta.getFlags() & IResourceDelta.OPEN) != 0) {
+                        // the files of a project that is opened or closed are not reported
+                        reconciled = false;
+                        return false;
+                    }
+                    if (!TRACKED_FILES.accept(resource)) {
+                        return true;
+                    }
+                    switch (delta.getKind()) {
+                        case IResourceDelta.REMOVED:
+                            graph.remove(resource.getFullPath().toString());
+                            break;
+                        case IResourceDelta.ADDED:
+                            if (isStale(resource)) {
+                                updateImports(resource);
+                                added.add(resource);
+                                read.add(resource.getFullPath().toString());
+                            }
+                            break;
+                        case IResourceDelta.CHANGED:
+                            if ((delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0
+                                && isStale(resource)) {
+                                updateImports(resource);
+                                read.add(resource.getFullPath().toString());
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    return false;
+                }
+            });
+            // the files of the delta are all in the workspace by now, so their importers can find them
+            updateImporters(added, read);
+        } catch (final CoreException e) {
+            ModelerCore.Util.log(e);
+            this.reconciled = false;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -439,6 +440,21 @@ public class WorkspaceResourceFinderUtil {
      * @return the IResource[] references of dependent resources
      */
     public static IResource[] getDependentResources( final IResource iResource ) {
+        return getDependentResources(iResource, null);
+    }
+
+    /**
+     * Return IResource[] array representing the dependent IResource instances, as {@link #getDependentResources(IResource)} does,
+     * and collect the locations of the import declarations for which no IResource could be found in the workspace.
+     * 
+     * @param iResource the IResource to examine for import declarations. If null, or it not running in a Eclipse runtime
+     *        environment, an empty array will be returned.
+     * @param unresolvedLocations the collection to add the locations that could not be found to; may be null
+     * @return the IResource[] references of dependent resources
+     * @since 8.1
+     */
+    public static IResource[] getDependentResources( final IResource iResource,
+                                                     final Collection unresolvedLocations ) {
         if (iResource == null || getWorkspace() == null) return EMPTY_IRESOURCE_ARRAY;
 
         final File iResourceFile = iResource.getRawLocation().toFile();
@@ -463,6 +479,7 @@ public class WorkspaceResourceFinderUtil {
                             dependentIResource = findIResource(absolutePath);
                         }
                         if (dependentIResource != null && !result.contains(dependentIResource)) result.add(dependentIResource);
+                        else if (dependentIResource == null && unresolvedLocations != null && !isGlobalResource(location)) unresolvedLocations.add(location);
                     }
 
                     // Add all the included schema locations
@@ -475,6 +492,7 @@ public class WorkspaceResourceFinderUtil {
                             dependentIResource = findIResource(absolutePath);
                         }
                         if (dependentIResource != null && !result.contains(dependentIResource)) result.add(dependentIResource);
+                        else if (dependentIResource == null && unresolvedLocations != null && !isGlobalResource(location)) unresolvedLocations.add(location);
                     }
                 }
 
@@ -489,8 +507,10 @@ public class WorkspaceResourceFinderUtil {
 
                         final String location = info.getLocation();
                         final String path = info.getPath();
-                        if (!CoreStringUtil.isEmpty(path)) dependentIResource = findIResource(path);
-                        else if (!CoreStringUtil.isEmpty(location)) {
+                        if (!CoreStringUtil.isEmpty(path)) {
+                            dependentIResource = findIResource(path);
+                            if (dependentIResource == null && unresolvedLocations != null && !isGlobalResource(path)) unresolvedLocations.add(path);
+                        } else if (!CoreStringUtil.isEmpty(location)) {
                             final String depPath = iResource.getFullPath().removeLastSegments(1).append(location).toString();
                             if (!isGlobalResource(depPath)) {
                                 dependentIResource = findIResource(depPath);
@@ -498,6 +518,7 @@ public class WorkspaceResourceFinderUtil {
                                     final String absolutePath = getAbsoluteLocation(iResourceFile, location);
                                     dependentIResource = findIResource(absolutePath);
                                 }
+                                if (dependentIResource == null && unresolvedLocations != null) unresolvedLocations.add(location);
                             }
                         }
                         if (dependentIResource != null && !result.contains(dependentIResource)) result.add(dependentIResource);
@@ -516,13 +537,16 @@ public class WorkspaceResourceFinderUtil {
 
                         final String location = info.getLocation();
                         final String path = info.getPath();
-                        if (!CoreStringUtil.isEmpty(path)) dependentIResource = findIResource(path);
-                        else if (!CoreStringUtil.isEmpty(location)) if (!isGlobalResource(location)) {
+                        if (!CoreStringUtil.isEmpty(path)) {
+                            dependentIResource = findIResource(path);
+                            if (dependentIResource == null && unresolvedLocations != null && !isGlobalResource(path)) unresolvedLocations.add(path);
+                        } else if (!CoreStringUtil.isEmpty(location)) if (!isGlobalResource(location)) {
                             dependentIResource = findIResource(location);
                             if (dependentIResource == null) {
                                 final String absolutePath = getAbsoluteLocation(iResourceFile, location);
                                 dependentIResource = findIResource(absolutePath);
                             }
+                            if (dependentIResource == null && unresolvedLocations != null) unresolvedLocations.add(location);
                         }
                         if (dependentIResource != null && !result.contains(dependentIResource)) result.add(dependentIResource);
                     }
@@ -677,6 +701,12 @@ public class WorkspaceResourceFinderUtil {
 
     public static Collection getResourcesThatUse( final IResource resource,
                                                   final ResourceFilter filter ) {
+        // the dependency graph knows the importers without reading the header of every file
+        final ModelDependencyTracker dependencyTracker = ModelerCore.getModelDependencyTracker();
+        if (dependencyTracker != null) {
+            return getImportingResources(dependencyTracker.getReconciledGraph(), resource, filter);
+        }
+
         // search the workspace for any models that import anything beneath the path that is moving
         final Collection allResources = getAllWorkspaceResources(filter);
         final Collection colDependentResources = new ArrayList();
@@ -703,6 +733,24 @@ public class WorkspaceResourceFinderUtil {
     public static void getResourcesThatUseRecursive( final IResource resource,
                                                      final ResourceFilter filter,
                                                      final Collection dependentResources ) {
+        final ModelDependencyTracker dependencyTracker = ModelerCore.getModelDependencyTracker();
+        if (dependencyTracker != null) {
+            final ModelDependencyGraph graph = dependencyTracker.getReconciledGraph();
+            final LinkedList queue = new LinkedList();
+            queue.add(resource);
+            while (!queue.isEmpty()) {
+                final Collection importingResources = getImportingResources(graph, (IResource)queue.removeFirst(), filter);
+                for (final Iterator iter = importingResources.iterator(); iter.hasNext();) {
+                    final IResource nextResource = (IResource)iter.next();
+                    if (!dependentResources.contains(nextResource)) {
+                        dependentResources.add(nextResource);
+                        queue.add(nextResource);
+                    }
+                }
+            }
+            return;
+        }
+
         // search the workspace for any models that import anything beneath the path that is moving
         final Collection allResources = getAllWorkspaceResources(filter);
 
@@ -726,6 +774,24 @@ public class WorkspaceResourceFinderUtil {
         }
     }
 
+    /**
+     * Return the files of the workspace that import the given resource, as found in the dependency graph, in the same way as
+     * {@link #getResourcesThatUse(IResource, ResourceFilter)} finds them by reading the imports of every file.
+     */
+    private static Collection getImportingResources( final ModelDependencyGraph graph,
+                                                     final IResource resource,
+                                                     final ResourceFilter filter ) {
+        final Collection importingResources = new ArrayList();
+        final IWorkspaceRoot root = getWorkspace().getRoot();
+        for (final String modelPath : graph.getImporters(resource.getFullPath().toString())) {
+            if (isGlobalResource(modelPath)) continue;
+            final IResource nextResource = root.findMember(modelPath);
+            if (nextResource != null && nextResource.exists() && nextResource.getType() == IResource.FILE
+                && (filter == null || filter.accept(nextResource))) importingResources.add(nextResource);
+        }
+        return importingResources;
+    }
+
     /**
      * Return IResource[] array representing vdb archive IResource instances in the workspace that contain a version of any
      * IResource in the specified collection. If the method is called outside of the Eclipse runtime environment, or if the
@@ -15,6 +15,7 @@ import java.util.LinkedList;
 import java.util.List;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamResult;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -35,6 +36,7 @@ import org.teiid.designer.core.workspace.ModelWorkspaceException;
 import org.teiid.designer.core.workspace.ModelWorkspaceSelections;
 import org.teiid.designer.core.xslt.Style;
 import org.teiid.designer.core.xslt.XsltTransform;
+import org.xml.sax.SAXException;
 
 
 /**
@@ -214,16 +216,15 @@ public class DdlWriterImpl implements DdlWriter {
         // Write the DDL ...
         try {
 
-            // Phase 1: Create the intermediate XML document ...
-            final Document intDoc = formatter.createDocument();
-
-            // Phase 2: Transform the intermediate XML document using the stylesheet ...
             final Style style = this.options.getStyle();
             if (style != null) {
+                // Stream the intermediate form through the (compiled and cached) stylesheet as it is produced,
+                // rather than building the whole document and serializing it for the transformer to parse again ...
                 final XsltTransform xform = new XsltTransform(style);
-                xform.transform(intDoc, stream);
+                formatter.write(xform.createTransformerHandler(new StreamResult(stream)));
             } else {
-                // Write the intermediate form out to the stream ...
+                // Create the intermediate XML document and write it out to the stream ...
+                final Document intDoc = formatter.createDocument();
                 XMLOutputter outputter = new XMLOutputter(JdomHelper.getFormat("  ", true)); //$NON-NLS-1$
                 outputter.output(intDoc, stream);
             }
@@ -242,6 +243,11 @@ public class DdlWriterImpl implements DdlWriter {
             final String msg = DdlPlugin.Util.getString("DdlWriterImpl.Error_while_transforming_the_model_into_DDL"); //$NON-NLS-1$
             final Status status = new Status(IStatus.ERROR, PLUGINID, code, msg, e);
             problems.add(status);
+        } catch (SAXException e) {
+            final int code = XSLT_PROBLEMS;
+            final String msg = DdlPlugin.Util.getString("DdlWriterImpl.Error_while_transforming_the_model_into_DDL"); //$NON-NLS-1$
+            final Status status = new Status(IStatus.ERROR, PLUGINID, code, msg, e);
+            problems.add(status);
         } catch (Throwable e) {
             final int code = UNEXPECTED_EXCEPTION;
             final String msg = DdlPlugin.Util.getString("DdlWriterImpl.Unexpected_exception"); //$NON-NLS-1$
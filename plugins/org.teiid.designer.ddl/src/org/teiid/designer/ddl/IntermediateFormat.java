@@ -21,9 +21,11 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
-import org.jdom.Attribute;
 import org.jdom.Document;
-import org.jdom.Element;
+import org.jdom.IllegalDataException;
+import org.jdom.IllegalNameException;
+import org.jdom.Verifier;
+import org.jdom.input.SAXHandler;
 import org.teiid.core.designer.ModelerCoreException;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.core.ModelEditor;
@@ -48,6 +50,9 @@ import org.teiid.designer.metamodels.relational.Schema;
 import org.teiid.designer.metamodels.relational.SearchabilityType;
 import org.teiid.designer.metamodels.relational.Table;
 import org.teiid.designer.metamodels.relational.UniqueKey;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
 
 
 /**
@@ -383,41 +388,76 @@ public class IntermediateFormat {
     }
 
     // =========================================================================
-    // Helper methods for setting attributes
+    // Helper methods for setting attributes and writing elements
     // =========================================================================
 
-    protected void setAttribute( final Element element,
+    private static final String CDATA = "CDATA"; //$NON-NLS-1$
+
+    protected void setAttribute( final AttributesImpl attributes,
                                  final String attributeName,
                                  final String value ) {
         if (value != null && value.trim().length() != 0) {
-            final Attribute attrib = new Attribute(attributeName, value);
-            element.setAttribute(attrib);
+            addAttribute(attributes, attributeName, value);
         }
     }
 
-    protected void setAttribute( final Element element,
+    protected void setAttribute( final AttributesImpl attributes,
                                  final String attributeName,
                                  final Object value ) {
         if (value != null) {
-            final Attribute attrib = new Attribute(attributeName, value.toString());
-            element.setAttribute(attrib);
+            addAttribute(attributes, attributeName, value.toString());
         }
     }
 
-    protected void setAttribute( final Element element,
+    protected void setAttribute( final AttributesImpl attributes,
                                  final String attributeName,
                                  final boolean value ) {
         final String strValue = value ? TRUE_VALUE : FALSE_VALUE;
-        final Attribute attrib = new Attribute(attributeName, strValue);
-        element.setAttribute(attrib);
+        addAttribute(attributes, attributeName, strValue);
     }
 
-    protected void setAttribute( final Element element,
+    protected void setAttribute( final AttributesImpl attributes,
                                  final String attributeName,
                                  final int value ) {
         final String strValue = Integer.toString(value);
-        final Attribute attrib = new Attribute(attributeName, strValue);
-        element.setAttribute(attrib);
+        addAttribute(attributes, attributeName, strValue);
+    }
+
+    /**
+     * Add (or replace) an attribute, checking its name and value the same way a JDOM {@link org.jdom.Attribute} does, so that
+     * malformed content is reported whether or not a JDOM document is built.
+     * 
+     * @throws IllegalNameException if the name is not a legal XML attribute name
+     * @throws IllegalDataException if the value contains characters that are not legal in XML
+     */
+    private void addAttribute( final AttributesImpl attributes,
+                               final String attributeName,
+                               final String value ) {
+        String reason = Verifier.checkAttributeName(attributeName);
+        if (reason != null) {
+            throw new IllegalNameException("The name \"" + attributeName + "\" is not legal for JDOM/XML attributes: " + reason + "."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        reason = Verifier.checkCharacterData(value);
+        if (reason != null) {
+            throw new IllegalDataException("The data \"" + value + "\" is not legal for a JDOM attribute: " + reason + "."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        final int index = attributes.getIndex(attributeName);
+        if (index < 0) {
+            attributes.addAttribute("", attributeName, attributeName, CDATA, value); //$NON-NLS-1$
+        } else {
+            attributes.setValue(index, value);
+        }
+    }
+
+    protected void startElement( final ContentHandler handler,
+                                 final String tag,
+                                 final AttributesImpl attributes ) throws SAXException {
+        handler.startElement("", tag, tag, attributes); //$NON-NLS-1$
+    }
+
+    protected void endElement( final ContentHandler handler,
+                               final String tag ) throws SAXException {
+        handler.endElement("", tag, tag); //$NON-NLS-1$
     }
 
     // =========================================================================
@@ -425,25 +465,46 @@ public class IntermediateFormat {
     // =========================================================================
 
     /**
-     * @param emfResource
-     * @param monitor
-     * @return
+     * Create the intermediate document in memory. Use {@link #write(ContentHandler)} instead to pass the content straight on to
+     * an XSLT processor or serializer.
+     * 
+     * @return the intermediate document; never null
      */
     public Document createDocument() {
-        final Element ddlElement = new Element(Xml.DDL.TAG);
-        final Document doc = new Document(ddlElement);
+        final SAXHandler builder = new SAXHandler();
+        try {
+            write(builder);
+        } catch (SAXException e) {
+            // the JDOM builder only throws when given malformed content
+            throw new IllegalStateException(e);
+        }
+        return builder.getDocument();
+    }
 
+    /**
+     * Write the intermediate document as SAX events, without building it in memory.
+     * 
+     * @param handler the handler to which the document content is written; may not be null
+     * @throws SAXException if the handler fails to process the content
+     * @since 8.1
+     */
+    public void write( final ContentHandler handler ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         final Date now = new Date(System.currentTimeMillis());
 
         // Set the model-level attributes ...
-        setAttribute(ddlElement, Xml.Model.Attributes.GENERATE_INFO_COMMENTS, options.isGenerateInfoComments());
-        setAttribute(ddlElement, Xml.Model.Attributes.GENERATE_TABLE_COMMENTS, options.isGenerateTableComments());
-        setAttribute(ddlElement, Xml.Model.Attributes.GENERATE_COLUMN_COMMENTS, options.isGenerateColumnComments());
-        setAttribute(ddlElement, Xml.Model.Attributes.GENERATE_DROPS, options.isGenerateDropStatements());
-        setAttribute(ddlElement, Xml.Model.Attributes.EXPORT_TOOL, exporterTool);
-        setAttribute(ddlElement, Xml.Model.Attributes.EXPORT_VERSION, exporterVersion);
-        setAttribute(ddlElement, Xml.Model.Attributes.EXPORT_DATE, DATE_FORMATTER.format(now));
-        setAttribute(ddlElement, Xml.Model.Attributes.EXPORT_TIME, TIME_FORMATTER.format(now));
+        final AttributesImpl ddlAttributes = new AttributesImpl();
+        setAttribute(ddlAttributes, Xml.Model.Attributes.GENERATE_INFO_COMMENTS, options.isGenerateInfoComments());
+        setAttribute(ddlAttributes, Xml.Model.Attributes.GENERATE_TABLE_COMMENTS, options.isGenerateTableComments());
+        setAttribute(ddlAttributes, Xml.Model.Attributes.GENERATE_COLUMN_COMMENTS, options.isGenerateColumnComments());
+        setAttribute(ddlAttributes, Xml.Model.Attributes.GENERATE_DROPS, options.isGenerateDropStatements());
+        setAttribute(ddlAttributes, Xml.Model.Attributes.EXPORT_TOOL, exporterTool);
+        setAttribute(ddlAttributes, Xml.Model.Attributes.EXPORT_VERSION, exporterVersion);
+        setAttribute(ddlAttributes, Xml.Model.Attributes.EXPORT_DATE, DATE_FORMATTER.format(now));
+        setAttribute(ddlAttributes, Xml.Model.Attributes.EXPORT_TIME, TIME_FORMATTER.format(now));
+
+        handler.startDocument();
+        startElement(handler, Xml.DDL.TAG, ddlAttributes);
 
         // -------------------------------------------------------------------------
         // Walk the models that have at least some content to be written out ...
@@ -461,20 +522,21 @@ public class IntermediateFormat {
             } catch (ModelerCoreException e) {
                 // handle the exception
             }
-            create(ddlElement, wrapper); // this method calls other methods to walk the tree
+            create(handler, wrapper); // this method calls other methods to walk the tree
         }
 
-        return doc;
+        endElement(handler, Xml.DDL.TAG);
+        handler.endDocument();
     }
 
     /**
      * Method to create document contents for a ModelWrapper object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the ModelWrapper that contains some objects to be written to the document content; may not be null
      */
-    protected void create( final Element parent,
-                           final ModelWrapper wrapper ) {
+    protected void create( final ContentHandler handler,
+                           final ModelWrapper wrapper ) throws SAXException {
         final Resource emfResource = wrapper.getEmfResource();
         final ModelAnnotation modelAnnotation = wrapper.getContents().getModelAnnotation();
 
@@ -498,16 +560,16 @@ public class IntermediateFormat {
         final String primaryMetamodel = mmDesc != null ? mmDesc.getName() : primaryMetamodelUri;
 
         // Set the model-level attributes ...
-        final Element modelElement = new Element(Xml.Model.TAG);
-        parent.addContent(modelElement);
-        setAttribute(modelElement, Xml.Model.Attributes.NAME, wrapper.getModelName());
-        setAttribute(modelElement, Xml.Model.Attributes.UUID, getModelEditor().getObjectID(modelAnnotation));
-        setAttribute(modelElement, Xml.Model.Attributes.MODEL_FILENAME, wrapper.getModelFilename());
+        final AttributesImpl modelAttributes = new AttributesImpl();
+        setAttribute(modelAttributes, Xml.Model.Attributes.NAME, wrapper.getModelName());
+        setAttribute(modelAttributes, Xml.Model.Attributes.UUID, getModelEditor().getObjectID(modelAnnotation));
+        setAttribute(modelAttributes, Xml.Model.Attributes.MODEL_FILENAME, wrapper.getModelFilename());
         if (modelType != null) {
-            setAttribute(modelElement, Xml.Model.Attributes.MODEL_TYPE, modelType);
+            setAttribute(modelAttributes, Xml.Model.Attributes.MODEL_TYPE, modelType);
         }
-        setAttribute(modelElement, Xml.Model.Attributes.METAMODEL, primaryMetamodel);
-        setAttribute(modelElement, Xml.Model.Attributes.METAMODEL_URL, primaryMetamodelUri);
+        setAttribute(modelAttributes, Xml.Model.Attributes.METAMODEL, primaryMetamodel);
+        setAttribute(modelAttributes, Xml.Model.Attributes.METAMODEL_URL, primaryMetamodelUri);
+        startElement(handler, Xml.Model.TAG, modelAttributes);
 
         // -------------------------------------------------------------------------
         // Walk the root-level objects and call the corresponding method ...
@@ -516,37 +578,39 @@ public class IntermediateFormat {
         final Iterator iter = emfResource.getContents().iterator();
         while (iter.hasNext()) {
             final EObject eObj = (EObject)iter.next();
-            create(modelElement, eObj, wrapper); // this method calls other methods to walk the tree
+            create(handler, eObj, wrapper); // this method calls other methods to walk the tree
         }
 
+        endElement(handler, Xml.Model.TAG);
+
     }
 
     /**
      * Method to create document contents for a general EObject. This method does nothing, since there are overloaded forms of
      * this method that handle specific types of EObjects.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler handler,
                            final EObject eObj,
-                           final ModelWrapper wrapper ) {
+                           final ModelWrapper wrapper ) throws SAXException {
         if (eObj instanceof Catalog) {
-            create(parent, (Catalog)eObj, wrapper);
+            create(handler, (Catalog)eObj, wrapper);
         } else if (eObj instanceof Schema) {
-            create(parent, (Schema)eObj, wrapper);
+            create(handler, (Schema)eObj, wrapper);
         } else if (eObj instanceof Table) {
-            create(parent, (Table)eObj, wrapper);
+            create(handler, (Table)eObj, wrapper);
         } else if (eObj instanceof Index) {
-            create(parent, (Index)eObj, wrapper);
+            create(handler, (Index)eObj, wrapper);
         } else if (eObj instanceof Column) {
-            create(parent, (Column)eObj, wrapper);
+            create(handler, (Column)eObj, wrapper);
         } else if (eObj instanceof ForeignKey) {
-            create(parent, (ForeignKey)eObj, wrapper);
+            create(handler, (ForeignKey)eObj, wrapper);
         } else if (eObj instanceof PrimaryKey) {
-            create(parent, (PrimaryKey)eObj, wrapper);
+            create(handler, (PrimaryKey)eObj, wrapper);
         } else if (eObj instanceof UniqueKey) {
-            create(parent, (UniqueKey)eObj, wrapper);
+            create(handler, (UniqueKey)eObj, wrapper);
         }
         // else, do nothing
     }
@@ -555,13 +619,13 @@ public class IntermediateFormat {
      * Method to create document contents for a Catalog object. This method does nothing for processing the Catalog object itself,
      * but
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the Catalog representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler handler,
                            final Catalog catalog,
-                           final ModelWrapper wrapper ) {
-        CoreArgCheck.isNotNull(parent);
+                           final ModelWrapper wrapper ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         CoreArgCheck.isNotNull(catalog);
 
         // Skip this object if it is not to be exported ...
@@ -573,20 +637,20 @@ public class IntermediateFormat {
         final Iterator iter = catalog.eContents().iterator();
         while (iter.hasNext()) {
             final EObject eobj = (EObject)iter.next();
-            create(parent, eobj, wrapper);
+            create(handler, eobj, wrapper);
         }
     }
 
     /**
      * Method to create document contents for a Schema object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the Schema representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler handler,
                            final Schema schema,
-                           final ModelWrapper wrapper ) {
-        CoreArgCheck.isNotNull(parent);
+                           final ModelWrapper wrapper ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         CoreArgCheck.isNotNull(schema);
 
         // Skip this object if it is not to be exported ...
@@ -594,36 +658,37 @@ public class IntermediateFormat {
             return;
         }
 
-        Element parentOfNewElements = parent;
-        if (this.options.isGenerateSchema()) {
-            final Element schemaElement = new Element(Xml.Schema.TAG);
-            parent.addContent(schemaElement);
-
-            setAttribute(schemaElement, Xml.Schema.Attributes.NAME, getObjectNameInDdl(schema));
-            setAttribute(schemaElement, Xml.Schema.Attributes.UUID, editor.getObjectID(schema));
-            setAttribute(schemaElement, Xml.Schema.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(schema));
-
-            parentOfNewElements = schemaElement;
+        final boolean generateSchema = this.options.isGenerateSchema();
+        if (generateSchema) {
+            final AttributesImpl schemaAttributes = new AttributesImpl();
+            setAttribute(schemaAttributes, Xml.Schema.Attributes.NAME, getObjectNameInDdl(schema));
+            setAttribute(schemaAttributes, Xml.Schema.Attributes.UUID, editor.getObjectID(schema));
+            setAttribute(schemaAttributes, Xml.Schema.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(schema));
+            startElement(handler, Xml.Schema.TAG, schemaAttributes);
         }
 
         // Walk the contents and create any elements for this object's children ...
         final Iterator iter = schema.eContents().iterator();
         while (iter.hasNext()) {
             final EObject eobj = (EObject)iter.next();
-            create(parentOfNewElements, eobj, wrapper);
+            create(handler, eobj, wrapper);
+        }
+
+        if (generateSchema) {
+            endElement(handler, Xml.Schema.TAG);
         }
     }
 
     /**
      * Method to create document contents for a Table object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler handler,
                            final Table table,
-                           final ModelWrapper wrapper ) {
-        CoreArgCheck.isNotNull(parent);
+                           final ModelWrapper wrapper ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         CoreArgCheck.isNotNull(table);
 
         // Skip this object if it is not to be exported ...
@@ -631,44 +696,44 @@ public class IntermediateFormat {
             return;
         }
 
-        final Element tableElement = new Element(Xml.Table.TAG);
-        parent.addContent(tableElement);
-
-        setAttribute(tableElement, Xml.Table.Attributes.NAME, getObjectNameInDdl(table));
-        setAttribute(tableElement, Xml.Table.Attributes.UUID, editor.getObjectID(table));
-        setAttribute(tableElement, Xml.Table.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(table));
+        final AttributesImpl tableAttributes = new AttributesImpl();
+        setAttribute(tableAttributes, Xml.Table.Attributes.NAME, getObjectNameInDdl(table));
+        setAttribute(tableAttributes, Xml.Table.Attributes.UUID, editor.getObjectID(table));
+        setAttribute(tableAttributes, Xml.Table.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(table));
         final Annotation annotation = wrapper.getContents().getAnnotation(table);
         if (annotation != null) {
-            setAttribute(tableElement, Xml.Table.Attributes.DESCRIPTION, annotation.getDescription());
+            setAttribute(tableAttributes, Xml.Table.Attributes.DESCRIPTION, annotation.getDescription());
         }
+        startElement(handler, Xml.Table.TAG, tableAttributes);
 
         // Process the columns ...
         final Iterator iter = table.getColumns().iterator();
         while (iter.hasNext()) {
             final EObject eobj = (EObject)iter.next();
-            create(tableElement, eobj, wrapper);
+            create(handler, eobj, wrapper);
         }
+        endElement(handler, Xml.Table.TAG);
 
         if (table instanceof BaseTable) {
             final BaseTable baseTable = (BaseTable)table;
             // Process the primary key ...
             final PrimaryKey pk = baseTable.getPrimaryKey();
             if (pk != null) {
-                create(parent, pk, wrapper); // primary keys go under model, not under table
+                create(handler, pk, wrapper); // primary keys go under model, not under table
             }
 
             // Process the foreign key ...
             final Iterator fkIter = baseTable.getForeignKeys().iterator();
             while (fkIter.hasNext()) {
                 final EObject fkey = (EObject)fkIter.next();
-                create(parent, fkey, wrapper); // foreign keys go under model, not under table
+                create(handler, fkey, wrapper); // foreign keys go under model, not under table
             }
 
             // Process the unique keys ...
             final Iterator ukIter = baseTable.getUniqueConstraints().iterator();
             while (ukIter.hasNext()) {
                 final EObject ukey = (EObject)ukIter.next();
-                create(parent, ukey, wrapper); // foreign keys go under model, not under table
+                create(handler, ukey, wrapper); // foreign keys go under model, not under table
             }
         }
     }
@@ -676,59 +741,60 @@ public class IntermediateFormat {
     /**
      * Method to create document contents for a Column object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler handler,
                            final Column column,
-                           final ModelWrapper wrapper ) {
-        CoreArgCheck.isNotNull(parent);
+                           final ModelWrapper wrapper ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         CoreArgCheck.isNotNull(column);
-        final Element columnElement = new Element(Xml.Column.TAG);
-        parent.addContent(columnElement);
-        setAttribute(columnElement, Xml.Column.Attributes.NAME, getObjectNameInDdl(column));
-        setAttribute(columnElement, Xml.Column.Attributes.UUID, editor.getObjectID(column));
+        final AttributesImpl columnAttributes = new AttributesImpl();
+        setAttribute(columnAttributes, Xml.Column.Attributes.NAME, getObjectNameInDdl(column));
+        setAttribute(columnAttributes, Xml.Column.Attributes.UUID, editor.getObjectID(column));
         final Annotation annotation = wrapper.getContents().getAnnotation(column);
         if (annotation != null) {
-            setAttribute(columnElement, Xml.Column.Attributes.DESCRIPTION, annotation.getDescription());
+            setAttribute(columnAttributes, Xml.Column.Attributes.DESCRIPTION, annotation.getDescription());
         }
 
         // Set the type and length information
-        setAttribute(columnElement, Xml.Column.Attributes.TYPE, getType(column));
+        setAttribute(columnAttributes, Xml.Column.Attributes.TYPE, getType(column));
         final int precision = column.getPrecision();
         final int scale = column.getScale();
         final int length = column.getLength();
         if (precision != 0) {
-            setAttribute(columnElement, Xml.Column.Attributes.PRECISION, precision);
+            setAttribute(columnAttributes, Xml.Column.Attributes.PRECISION, precision);
         }
         if (length != 0) {
-            setAttribute(columnElement, Xml.Column.Attributes.LENGTH, length);
+            setAttribute(columnAttributes, Xml.Column.Attributes.LENGTH, length);
         }
         if (scale != 0) {
-            setAttribute(columnElement, Xml.Column.Attributes.SCALE, scale);
+            setAttribute(columnAttributes, Xml.Column.Attributes.SCALE, scale);
         }
-        setAttribute(columnElement, Xml.Column.Attributes.IS_FIXED_LENGTH, column.isFixedLength());
+        setAttribute(columnAttributes, Xml.Column.Attributes.IS_FIXED_LENGTH, column.isFixedLength());
 
         // Set the default value ...
         final String defaultValue = column.getDefaultValue();
         if (defaultValue != null && defaultValue.trim().length() != 0) {
-            setAttribute(columnElement, Xml.Column.Attributes.DEFAULT_VALUE, defaultValue);
+            setAttribute(columnAttributes, Xml.Column.Attributes.DEFAULT_VALUE, defaultValue);
         }
 
         // The column is nullable only if known to be nullable ...
         final boolean isNullable = column.getNullable() != null && NullableType.NULLABLE_LITERAL.equals(column.getNullable());
-        setAttribute(columnElement, Xml.Column.Attributes.IS_NULLABLE, isNullable);
-
-        setAttribute(columnElement, Xml.Column.Attributes.SUPPORTS_SELECT, column.isSelectable());
-        setAttribute(columnElement, Xml.Column.Attributes.SUPPORTS_UPDATE, column.isUpdateable());
-        setAttribute(columnElement, Xml.Column.Attributes.IS_CASE_SENSITIVE, column.isCaseSensitive());
-        setAttribute(columnElement, Xml.Column.Attributes.IS_SIGNED, column.isSigned());
-        setAttribute(columnElement, Xml.Column.Attributes.IS_CURRENCY, column.isCurrency());
-        setAttribute(columnElement, Xml.Column.Attributes.IS_AUTOINCREMENTED, column.isAutoIncremented());
+        setAttribute(columnAttributes, Xml.Column.Attributes.IS_NULLABLE, isNullable);
+
+        setAttribute(columnAttributes, Xml.Column.Attributes.SUPPORTS_SELECT, column.isSelectable());
+        setAttribute(columnAttributes, Xml.Column.Attributes.SUPPORTS_UPDATE, column.isUpdateable());
+        setAttribute(columnAttributes, Xml.Column.Attributes.IS_CASE_SENSITIVE, column.isCaseSensitive());
+        setAttribute(columnAttributes, Xml.Column.Attributes.IS_SIGNED, column.isSigned());
+        setAttribute(columnAttributes, Xml.Column.Attributes.IS_CURRENCY, column.isCurrency());
+        setAttribute(columnAttributes, Xml.Column.Attributes.IS_AUTOINCREMENTED, column.isAutoIncremented());
         final SearchabilityType searchType = column.getSearchability();
         if (searchType != null) {
         }
-        setAttribute(columnElement, Xml.Column.Attributes.SEARCH_TYPE, null);
+        setAttribute(columnAttributes, Xml.Column.Attributes.SEARCH_TYPE, null);
+        startElement(handler, Xml.Column.TAG, columnAttributes);
+        endElement(handler, Xml.Column.TAG);
 
     }
 
@@ -788,97 +854,99 @@ public class IntermediateFormat {
     /**
      * Method to create document contents for a PrimaryKey object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler handler,
                            final PrimaryKey pkey,
-                           final ModelWrapper wrapper ) {
-        CoreArgCheck.isNotNull(parent);
+                           final ModelWrapper wrapper ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         CoreArgCheck.isNotNull(pkey);
-        final Element pkElement = new Element(Xml.PrimaryKey.TAG);
-        parent.addContent(pkElement);
-
-        setAttribute(pkElement, Xml.PrimaryKey.Attributes.NAME, getUniqueObjectName(pkey));
-        setAttribute(pkElement, Xml.PrimaryKey.Attributes.UUID, editor.getObjectID(pkey));
-        setAttribute(pkElement, Xml.PrimaryKey.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(pkey));
+        final AttributesImpl pkAttributes = new AttributesImpl();
+        setAttribute(pkAttributes, Xml.PrimaryKey.Attributes.NAME, getUniqueObjectName(pkey));
+        setAttribute(pkAttributes, Xml.PrimaryKey.Attributes.UUID, editor.getObjectID(pkey));
+        setAttribute(pkAttributes, Xml.PrimaryKey.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(pkey));
 
         // Process the table that contains the primary key ...
         final Table pkTable = pkey.getTable();
         if (pkTable != null) { // should never be null, but check just in case ...
-            setAttribute(pkElement, Xml.PrimaryKey.Attributes.TABLE_NAME, getObjectNameInDdl(pkTable));
+            setAttribute(pkAttributes, Xml.PrimaryKey.Attributes.TABLE_NAME, getObjectNameInDdl(pkTable));
         }
+        startElement(handler, Xml.PrimaryKey.TAG, pkAttributes);
 
         // Process the columns that the primary key references ...
         final List columns = pkey.getColumns();
         final Iterator iter = columns.iterator();
         while (iter.hasNext()) {
             final Column column = (Column)iter.next();
-            final Element pkColumnElement = new Element(Xml.PrimaryKeyColumn.TAG);
-            setAttribute(pkColumnElement, Xml.PrimaryKeyColumn.Attributes.NAME, getObjectNameInDdl(column));
-            setAttribute(pkColumnElement, Xml.PrimaryKeyColumn.Attributes.UUID, editor.getObjectID(column));
-            pkElement.addContent(pkColumnElement);
+            final AttributesImpl pkColumnAttributes = new AttributesImpl();
+            setAttribute(pkColumnAttributes, Xml.PrimaryKeyColumn.Attributes.NAME, getObjectNameInDdl(column));
+            setAttribute(pkColumnAttributes, Xml.PrimaryKeyColumn.Attributes.UUID, editor.getObjectID(column));
+            startElement(handler, Xml.PrimaryKeyColumn.TAG, pkColumnAttributes);
+            endElement(handler, Xml.PrimaryKeyColumn.TAG);
         }
+        endElement(handler, Xml.PrimaryKey.TAG);
 
     }
 
     /**
      * Method to create document contents for a UniqueKey object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler handler,
                            final UniqueKey ukey,
-                           final ModelWrapper wrapper ) {
-        CoreArgCheck.isNotNull(parent);
+                           final ModelWrapper wrapper ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         CoreArgCheck.isNotNull(ukey);
-        final Element pkElement = new Element(Xml.UniqueKey.TAG);
-        parent.addContent(pkElement);
-        setAttribute(pkElement, Xml.UniqueKey.Attributes.NAME, getUniqueObjectName(ukey));
-        setAttribute(pkElement, Xml.UniqueKey.Attributes.UUID, editor.getObjectID(ukey));
-        setAttribute(pkElement, Xml.UniqueKey.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(ukey));
+        final AttributesImpl ukAttributes = new AttributesImpl();
+        setAttribute(ukAttributes, Xml.UniqueKey.Attributes.NAME, getUniqueObjectName(ukey));
+        setAttribute(ukAttributes, Xml.UniqueKey.Attributes.UUID, editor.getObjectID(ukey));
+        setAttribute(ukAttributes, Xml.UniqueKey.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(ukey));
 
         // Process the table that contains the primary key ...
         final Table ukTable = ukey.getTable();
         if (ukTable != null) { // should never be null, but check just in case ...
-            setAttribute(pkElement, Xml.PrimaryKey.Attributes.TABLE_NAME, getObjectNameInDdl(ukTable));
+            setAttribute(ukAttributes, Xml.PrimaryKey.Attributes.TABLE_NAME, getObjectNameInDdl(ukTable));
         }
+        startElement(handler, Xml.UniqueKey.TAG, ukAttributes);
 
         // Process the columns that the unique key references ...
         final List columns = ukey.getColumns();
         final Iterator iter = columns.iterator();
         while (iter.hasNext()) {
             final Column column = (Column)iter.next();
-            final Element pkColumnElement = new Element(Xml.UniqueKeyColumn.TAG);
-            setAttribute(pkColumnElement, Xml.UniqueKeyColumn.Attributes.NAME, getObjectNameInDdl(column));
-            setAttribute(pkColumnElement, Xml.UniqueKeyColumn.Attributes.UUID, editor.getObjectID(column));
-            pkElement.addContent(pkColumnElement);
+            final AttributesImpl ukColumnAttributes = new AttributesImpl();
+            setAttribute(ukColumnAttributes, Xml.UniqueKeyColumn.Attributes.NAME, getObjectNameInDdl(column));
+            setAttribute(ukColumnAttributes, Xml.UniqueKeyColumn.Attributes.UUID, editor.getObjectID(column));
+            startElement(handler, Xml.UniqueKeyColumn.TAG, ukColumnAttributes);
+            endElement(handler, Xml.UniqueKeyColumn.TAG);
         }
+        endElement(handler, Xml.UniqueKey.TAG);
 
     }
 
     /**
      * Method to create document contents for a ForeignKey object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the EObject representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler handler,
                            final ForeignKey fkey,
-                           final ModelWrapper wrapper ) {
-        CoreArgCheck.isNotNull(parent);
+                           final ModelWrapper wrapper ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         CoreArgCheck.isNotNull(fkey);
-        final Element fkElement = new Element(Xml.ForeignKey.TAG);
-        parent.addContent(fkElement);
-        setAttribute(fkElement, Xml.ForeignKey.Attributes.NAME, getUniqueObjectName(fkey));
-        setAttribute(fkElement, Xml.ForeignKey.Attributes.UUID, editor.getObjectID(fkey));
-        setAttribute(fkElement, Xml.ForeignKey.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(fkey));
+        final AttributesImpl fkAttributes = new AttributesImpl();
+        setAttribute(fkAttributes, Xml.ForeignKey.Attributes.NAME, getUniqueObjectName(fkey));
+        setAttribute(fkAttributes, Xml.ForeignKey.Attributes.UUID, editor.getObjectID(fkey));
+        setAttribute(fkAttributes, Xml.ForeignKey.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(fkey));
 
         // Process the table that contains the foreign key ...
         final Table fkTable = fkey.getTable();
         if (fkTable != null) { // should never be null, but just in case ...
-            setAttribute(fkElement, Xml.ForeignKey.Attributes.TABLE_NAME, getObjectNameInDdl(fkTable));
+            setAttribute(fkAttributes, Xml.ForeignKey.Attributes.TABLE_NAME, getObjectNameInDdl(fkTable));
         }
 
         // Process the table of the primary key ...
@@ -887,10 +955,11 @@ public class IntermediateFormat {
         if (ukey != null) { // should never be null, but check just in case ...
             final Table ukeyTable = ukey.getTable();
             if (ukeyTable != null) { // should never be null, but check just in case ...
-                setAttribute(fkElement, Xml.ForeignKey.Attributes.PK_TABLE_NAME, getObjectNameInDdl(ukeyTable));
+                setAttribute(fkAttributes, Xml.ForeignKey.Attributes.PK_TABLE_NAME, getObjectNameInDdl(ukeyTable));
             }
             pkColumns = ukey.getColumns();
         }
+        startElement(handler, Xml.ForeignKey.TAG, fkAttributes);
 
         // Process the columns that the foreign key references ...
         final List columns = fkey.getColumns();
@@ -898,30 +967,32 @@ public class IntermediateFormat {
         final Iterator iter = columns.iterator();
         while (iter.hasNext()) {
             final Column column = (Column)iter.next();
-            final Element fkColumnElement = new Element(Xml.ForignKeyColumn.TAG);
-            setAttribute(fkColumnElement, Xml.ForignKeyColumn.Attributes.NAME, getObjectNameInDdl(column));
-            setAttribute(fkColumnElement, Xml.ForignKeyColumn.Attributes.UUID, editor.getObjectID(column));
+            final AttributesImpl fkColumnAttributes = new AttributesImpl();
+            setAttribute(fkColumnAttributes, Xml.ForignKeyColumn.Attributes.NAME, getObjectNameInDdl(column));
+            setAttribute(fkColumnAttributes, Xml.ForignKeyColumn.Attributes.UUID, editor.getObjectID(column));
             // Find the corresponding column in the primary key; do this by order, but be tolerant
             // of when the # of pk columns is different than the number of fk columns
             if (pkColumns != null && pkColumns.size() > index) {
                 final Column pkColumn = (Column)pkColumns.get(index);
-                setAttribute(fkColumnElement, Xml.ForignKeyColumn.Attributes.PK_COLUMN_NAME, getObjectNameInDdl(pkColumn));
+                setAttribute(fkColumnAttributes, Xml.ForignKeyColumn.Attributes.PK_COLUMN_NAME, getObjectNameInDdl(pkColumn));
             }
-            fkElement.addContent(fkColumnElement);
+            startElement(handler, Xml.ForignKeyColumn.TAG, fkColumnAttributes);
+            endElement(handler, Xml.ForignKeyColumn.TAG);
             ++index;
         }
+        endElement(handler, Xml.ForeignKey.TAG);
     }
 
     /**
      * Method to create document contents for an Index object.
      * 
-     * @param parent the Element that is the parent of any created Elements or Attributes; may not be null
+     * @param handler the handler to which the content is written, within the element that is to contain it; may not be null
      * @param eobj the Index representing the graph of objects for which document content may be created; may not be null
      */
-    protected void create( final Element parent,
+    protected void create( final ContentHandler handler,
                            final Index index,
-                           final ModelWrapper wrapper ) {
-        CoreArgCheck.isNotNull(parent);
+                           final ModelWrapper wrapper ) throws SAXException {
+        CoreArgCheck.isNotNull(handler);
         CoreArgCheck.isNotNull(index);
 
         // Skip this object if it is not to be exported ...
@@ -929,32 +1000,35 @@ public class IntermediateFormat {
             return;
         }
 
-        final Element indexElement = new Element(Xml.Index.TAG);
-        parent.addContent(indexElement);
-        setAttribute(indexElement, Xml.Index.Attributes.NAME, getUniqueObjectName(index));
-        setAttribute(indexElement, Xml.Index.Attributes.UUID, editor.getObjectID(index));
-        setAttribute(indexElement, Xml.Index.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(index));
+        final AttributesImpl indexAttributes = new AttributesImpl();
+        setAttribute(indexAttributes, Xml.Index.Attributes.NAME, getUniqueObjectName(index));
+        setAttribute(indexAttributes, Xml.Index.Attributes.UUID, editor.getObjectID(index));
+        setAttribute(indexAttributes, Xml.Index.Attributes.PATH_IN_MODEL, editor.getModelRelativePath(index));
 
-        // Process the columns that the primary key references ...
+        // Process the table that contains the indexed columns, which is the owner of the last column ...
         final List columns = index.getColumns();
-        final Element indexColumnElement = new Element(Xml.IndexColumns.TAG);
-        indexElement.addContent(indexColumnElement);
         Table indexedTable = null;
-        final Iterator iter = columns.iterator();
-        while (iter.hasNext()) {
-            final Column column = (Column)iter.next();
-            final Element indexedColumnElement = new Element(Xml.IndexColumn.TAG);
-            setAttribute(indexedColumnElement, Xml.IndexColumn.Attributes.NAME, getObjectNameInDdl(column));
-            setAttribute(indexedColumnElement, Xml.IndexColumn.Attributes.UUID, editor.getObjectID(column));
-            indexColumnElement.addContent(indexedColumnElement);
-            indexedTable = (Table)column.getOwner();
+        if (!columns.isEmpty()) {
+            indexedTable = (Table)((Column)columns.get(columns.size() - 1)).getOwner();
         }
-
-        // Process the table that contains the foreign key ...
         if (indexedTable != null) { // should never be null, but just in case ...
-            setAttribute(indexElement, Xml.ForeignKey.Attributes.TABLE_NAME, getObjectNameInDdl(indexedTable));
+            setAttribute(indexAttributes, Xml.ForeignKey.Attributes.TABLE_NAME, getObjectNameInDdl(indexedTable));
         }
+        startElement(handler, Xml.Index.TAG, indexAttributes);
 
+        // Process the columns that the primary key references ...
+        startElement(handler, Xml.IndexColumns.TAG, new AttributesImpl());
+        final Iterator iter = columns.iterator();
+        while (iter.hasNext()) {
+            final Column column = (Column)iter.next();
+            final AttributesImpl indexedColumnAttributes = new AttributesImpl();
+            setAttribute(indexedColumnAttributes, Xml.IndexColumn.Attributes.NAME, getObjectNameInDdl(column));
+            setAttribute(indexedColumnAttributes, Xml.IndexColumn.Attributes.UUID, editor.getObjectID(column));
+            startElement(handler, Xml.IndexColumn.TAG, indexedColumnAttributes);
+            endElement(handler, Xml.IndexColumn.TAG);
+        }
+        endElement(handler, Xml.IndexColumns.TAG);
+        endElement(handler, Xml.Index.TAG);
     }
 
     /**
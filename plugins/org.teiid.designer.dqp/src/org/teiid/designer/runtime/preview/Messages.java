@@ -57,6 +57,7 @@ public final class Messages extends NLS {
     public static String PreviewSetupValidationCheckTask;
     public static String PreviewShutdownTeiidCleanupTask;
     public static String PreviewVdbDeletedPostProcessingError;
+    public static String PreviewVdbUpdateSchedulerJob;
     public static String UnexpectedErrorGettingVdbMarkers;
     public static String UnexpectedErrorRunningJob;
     public static String UpdatePreviewVdbJob;
@@ -274,6 +274,32 @@ public final class PreviewManager extends JobChangeAdapter
      */
     private final PreviewContext context;
 
+    /**
+     * Batches the Preview VDB updates of changed models (never <code>null</code>).
+     */
+    private final PreviewVdbUpdateScheduler updateScheduler = new PreviewVdbUpdateScheduler(new PreviewVdbUpdateScheduler.Updater() {
+
+        @Override
+        public Job createUpdateJob( IFile model ) throws Exception {
+            ModelChangedJob job = new ModelChangedJob(model, PreviewManager.this.context, getPreviewServer());
+            job.addChildJobChangeListener(PreviewManager.this);
+            return job;
+        }
+
+        @Override
+        public Collection<IFile> getDependencies( IFile model ) {
+            Collection<IFile> dependencies = new ArrayList<IFile>();
+
+            for (IResource dependency : WorkspaceResourceFinderUtil.getDependentResources(model)) {
+                if (dependency instanceof IFile) {
+                    dependencies.add((IFile)dependency);
+                }
+            }
+
+            return dependencies;
+        }
+    });
+
     /**
      * A flag indicating if preview is enabled. This will match the value of preferenced
      * {@link PreferenceConstants#PREVIEW_ENABLED}.
@@ -535,6 +561,8 @@ public final class PreviewManager extends JobChangeAdapter
                 IFile pvdbFile = this.context.getPreviewVdb(file);
 
                 // if the Preview VDB exists then the associated model was selected and deleted by user
+                this.updateScheduler.modelRemoved(file);
+
                 if ((pvdbFile != null) && pvdbFile.exists()) {
                     DeletePreviewVdbJob job = new DeletePreviewVdbJob(this.context, file);
                     job.addJobChangeListener(this);
@@ -699,6 +727,14 @@ public final class PreviewManager extends JobChangeAdapter
         return pvdbPath.removeFileExtension().lastSegment();
     }
 
+    /**
+     * @return the scheduler of Preview VDB updates, whose queue depth and update latencies can be monitored (never
+     *         <code>null</code>)
+     */
+    public PreviewVdbUpdateScheduler getUpdateScheduler() {
+        return this.updateScheduler;
+    }
+
     private String getPreviewVdbJndiName( IFile pvdb ) {
         return this.context.getPreviewVdbJndiName(pvdb.getFullPath());
     }
@@ -1031,13 +1067,8 @@ public final class PreviewManager extends JobChangeAdapter
         assert (model != null) : "model is null"; //$NON-NLS-1$
         assert isPreviewableResource(model) : "model is not previewable: " + model; //$NON-NLS-1$
 
-        try {
-            ModelChangedJob job = new ModelChangedJob(model, this.context, getPreviewServer());
-            job.addChildJobChangeListener(this);
-            job.schedule(500); // delay to let auto build start
-        } catch (Exception e) {
-            Util.log(IStatus.ERROR, e, NLS.bind(Messages.ModelChangedJobError, model.getFullPath()));
-        }
+        // changes are batched so that a refactoring touching many models does not schedule one job per model
+        this.updateScheduler.modelChanged(model);
     }
 
     /**
@@ -1699,6 +1730,8 @@ public final class PreviewManager extends JobChangeAdapter
      */
     public void shutdown( IProgressMonitor monitor ) throws Exception {
         try {
+            this.updateScheduler.dispose();
+
             // remove listeners
             ModelerCore.getModelContainer().getChangeNotifier().removeListener(this);
             IEclipsePreferences prefs = DqpPlugin.getInstance().getPreferences();
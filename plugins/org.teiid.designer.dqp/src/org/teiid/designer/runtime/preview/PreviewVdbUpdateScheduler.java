@@ -0,0 +1,365 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+
+package org.teiid.designer.runtime.preview;
+
+import static org.teiid.designer.runtime.DqpPlugin.Util;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * The <code>PreviewVdbUpdateScheduler</code> collects the models changed in the workspace and updates their Preview VDBs in
+ * batches, instead of scheduling one job per resource delta.
+ * <p>
+ * Changes are collected until no model has changed for the {@link #WINDOW_PROPERTY window}, or until the oldest change has
+ * waited ten windows. Each Preview VDB is updated once per batch however often its model changed. Within a batch, the models a
+ * model depends on are updated first, and no more than the {@link #MAX_UPDATES_PROPERTY maximum number} of updates run at the
+ * same time.
+ * </p>
+ *
+ * @since 8.1
+ */
+@ThreadSafe
+public final class PreviewVdbUpdateScheduler {
+
+    /**
+     * The system property giving the number of milliseconds changes are collected for before their Preview VDBs are updated.
+     * Default is 500, which also gives the auto build time to start.
+     */
+    public static final String WINDOW_PROPERTY = "org.teiid.designer.preview.updateWindow"; //$NON-NLS-1$
+
+    /**
+     * The system property giving the maximum number of Preview VDB updates that run at the same time. Default is 2.
+     */
+    public static final String MAX_UPDATES_PROPERTY = "org.teiid.designer.preview.maxConcurrentUpdates"; //$NON-NLS-1$
+
+    /**
+     * Creates the jobs updating Preview VDBs and finds the dependencies between models.
+     */
+    interface Updater {
+
+        /**
+         * @param model the changed model (never <code>null</code>)
+         * @return the job synchronizing the model's Preview VDB (never <code>null</code>)
+         * @throws Exception if the job cannot be created
+         */
+        Job createUpdateJob( IFile model ) throws Exception;
+
+        /**
+         * @param model the changed model (never <code>null</code>)
+         * @return the models the model depends on (never <code>null</code>)
+         */
+        Collection<IFile> getDependencies( IFile model );
+    }
+
+    /**
+     * A model waiting for, or undergoing, the update of its Preview VDB.
+     */
+    private static final class Update {
+        final IFile model;
+        final long queuedTime;
+        final Set<IPath> dependencies = new HashSet<IPath>();
+
+        Update( IFile model,
+                long queuedTime ) {
+            this.model = model;
+            this.queuedTime = queuedTime;
+        }
+    }
+
+    private final Updater updater;
+    private final long window;
+    private final int maxUpdates;
+
+    /**
+     * The changed models not yet ordered, keyed by model path, in the order they first changed.
+     */
+    @GuardedBy( "this" )
+    private final Map<IPath, Update> pending = new LinkedHashMap<IPath, Update>();
+
+    /**
+     * The models ordered for update, dependencies first.
+     */
+    @GuardedBy( "this" )
+    private final LinkedList<Update> ready = new LinkedList<Update>();
+
+    /**
+     * The models whose update jobs are running, keyed by model path.
+     */
+    @GuardedBy( "this" )
+    private final Map<IPath, Update> running = new HashMap<IPath, Update>();
+
+    @GuardedBy( "this" )
+    private long updateCount;
+
+    @GuardedBy( "this" )
+    private long totalLatency;
+
+    @GuardedBy( "this" )
+    private long maxLatency;
+
+    @GuardedBy( "this" )
+    private boolean disposed;
+
+    /**
+     * The time the pending models are updated at, unless more changes postpone it.
+     */
+    @GuardedBy( "this" )
+    private long deadline;
+
+    private final Job batchJob = new Job(Messages.PreviewVdbUpdateSchedulerJob) {
+
+        @Override
+        protected IStatus run( IProgressMonitor monitor ) {
+            // scheduling a waiting job does not delay it, so a job woken before the deadline waits for the rest of the window
+            synchronized (PreviewVdbUpdateScheduler.this) {
+                if (disposed) return Status.OK_STATUS;
+                long delay = deadline - System.currentTimeMillis();
+                if (!pending.isEmpty() && (delay > 0)) {
+                    schedule(delay);
+                    return Status.OK_STATUS;
+                }
+            }
+            startBatch();
+            return Status.OK_STATUS;
+        }
+    };
+
+    /**
+     * @param updater creates the update jobs (may not be <code>null</code>)
+     */
+    PreviewVdbUpdateScheduler( Updater updater ) {
+        this(updater, Long.getLong(WINDOW_PROPERTY, 500).longValue(), Integer.getInteger(MAX_UPDATES_PROPERTY, 2).intValue());
+    }
+
+    /**
+     * @param updater creates the update jobs (may not be <code>null</code>)
+     * @param window the number of milliseconds changes are collected for
+     * @param maxUpdates the maximum number of updates running at the same time
+     */
+    PreviewVdbUpdateScheduler( Updater updater,
+                               long window,
+                               int maxUpdates ) {
+        assert (updater != null) : "updater is null"; //$NON-NLS-1$
+        this.updater = updater;
+        this.window = Math.max(0, window);
+        this.maxUpdates = Math.max(1, maxUpdates);
+        this.batchJob.setSystem(true);
+    }
+
+    /**
+     * Queues the update of the Preview VDB of a changed model.
+     *
+     * @param model the changed model (may not be <code>null</code>)
+     */
+    synchronized void modelChanged( IFile model ) {
+        assert (model != null) : "model is null"; //$NON-NLS-1$
+        if (this.disposed) return;
+        long now = System.currentTimeMillis();
+        Update first = this.pending.isEmpty() ? null : this.pending.values().iterator().next();
+        if (!this.pending.containsKey(model.getFullPath())) {
+            this.pending.put(model.getFullPath(), new Update(model, now));
+        }
+
+        // restart the window, unless changes keep coming and the oldest one has waited long enough
+        long oldest = (first == null) ? now : first.queuedTime;
+        this.deadline = Math.min(now + this.window, oldest + (10 * this.window));
+        this.batchJob.schedule(Math.max(0, this.deadline - now));
+    }
+
+    /**
+     * Forgets any queued update of the Preview VDB of a model that no longer exists.
+     *
+     * @param model the removed model (may not be <code>null</code>)
+     */
+    synchronized void modelRemoved( IFile model ) {
+        assert (model != null) : "model is null"; //$NON-NLS-1$
+        IPath path = model.getFullPath();
+        this.pending.remove(path);
+        for (Iterator<Update> iter = this.ready.iterator(); iter.hasNext();) {
+            if (iter.next().model.getFullPath().equals(path)) iter.remove();
+        }
+    }
+
+    /**
+     * Stops scheduling updates. Running updates are left to finish.
+     */
+    void dispose() {
+        synchronized (this) {
+            this.disposed = true;
+            this.pending.clear();
+            this.ready.clear();
+        }
+        this.batchJob.cancel();
+    }
+
+    /**
+     * Orders the pending models, dependencies first, and starts as many updates as allowed.
+     */
+    private void startBatch() {
+        List<Update> batch;
+        synchronized (this) {
+            batch = new ArrayList<Update>(this.pending.values());
+            this.pending.clear();
+        }
+
+        // find dependencies outside of the lock, since they may require the model to be read
+        Map<IPath, Update> batchByPath = new LinkedHashMap<IPath, Update>();
+        for (Update update : batch) {
+            batchByPath.put(update.model.getFullPath(), update);
+        }
+        for (Update update : batch) {
+            try {
+                for (IFile dependency : this.updater.getDependencies(update.model)) {
+                    IPath path = dependency.getFullPath();
+                    if (!path.equals(update.model.getFullPath())) update.dependencies.add(path);
+                }
+            } catch (Exception e) {
+                Util.log(IStatus.ERROR, e, NLS.bind(Messages.ModelChangedJobError, update.model.getFullPath()));
+            }
+        }
+        List<Update> ordered = new ArrayList<Update>(batch.size());
+        Set<IPath> visited = new HashSet<IPath>();
+        for (Update update : batch) {
+            addInDependencyOrder(update, batchByPath, visited, ordered);
+        }
+
+        synchronized (this) {
+            if (this.disposed) return;
+            // an already queued model is only updated once, at its original place
+            Set<IPath> queued = new HashSet<IPath>();
+            for (Update update : this.ready) {
+                queued.add(update.model.getFullPath());
+            }
+            for (Update update : ordered) {
+                if (queued.add(update.model.getFullPath())) this.ready.add(update);
+            }
+        }
+        startUpdates();
+    }
+
+    private static void addInDependencyOrder( Update update,
+                                              Map<IPath, Update> batchByPath,
+                                              Set<IPath> visited,
+                                              List<Update> ordered ) {
+        if (!visited.add(update.model.getFullPath())) return; // also breaks dependency cycles
+        for (IPath dependency : update.dependencies) {
+            Update dependencyUpdate = batchByPath.get(dependency);
+            if (dependencyUpdate != null) addInDependencyOrder(dependencyUpdate, batchByPath, visited, ordered);
+        }
+        ordered.add(update);
+    }
+
+    /**
+     * Starts the next ready updates whose dependencies are neither running nor waiting, up to the maximum.
+     */
+    private void startUpdates() {
+        List<Update> started = new ArrayList<Update>();
+        synchronized (this) {
+            Set<IPath> waiting = new HashSet<IPath>(this.running.keySet());
+            for (Iterator<Update> iter = this.ready.iterator(); iter.hasNext()
+                                                                 && (this.running.size() < this.maxUpdates);) {
+                Update update = iter.next();
+                IPath path = update.model.getFullPath();
+                boolean blocked = this.running.containsKey(path);
+                for (Iterator<IPath> deps = update.dependencies.iterator(); !blocked && deps.hasNext();) {
+                    blocked = waiting.contains(deps.next());
+                }
+                waiting.add(path);
+                if (blocked) continue;
+                iter.remove();
+                this.running.put(path, update);
+                started.add(update);
+            }
+        }
+
+        for (final Update update : started) {
+            try {
+                Job job = this.updater.createUpdateJob(update.model);
+                job.addJobChangeListener(new JobChangeAdapter() {
+
+                    @Override
+                    public void done( IJobChangeEvent event ) {
+                        event.getJob().removeJobChangeListener(this);
+                        updateDone(update);
+                    }
+                });
+                job.schedule();
+            } catch (Exception e) {
+                Util.log(IStatus.ERROR, e, NLS.bind(Messages.ModelChangedJobError, update.model.getFullPath()));
+                updateDone(update);
+            }
+        }
+    }
+
+    private void updateDone( Update update ) {
+        synchronized (this) {
+            this.running.remove(update.model.getFullPath());
+            long latency = System.currentTimeMillis() - update.queuedTime;
+            ++this.updateCount;
+            this.totalLatency += latency;
+            this.maxLatency = Math.max(this.maxLatency, latency);
+        }
+        startUpdates();
+    }
+
+    /**
+     * @return the number of models whose Preview VDB updates have not started yet
+     */
+    public synchronized int getQueueDepth() {
+        return this.pending.size() + this.ready.size();
+    }
+
+    /**
+     * @return the number of Preview VDB updates running
+     */
+    public synchronized int getRunningCount() {
+        return this.running.size();
+    }
+
+    /**
+     * @return the number of Preview VDB updates done
+     */
+    public synchronized long getUpdateCount() {
+        return this.updateCount;
+    }
+
+    /**
+     * @return the average number of milliseconds between a model first changing and its Preview VDB being updated, or zero if
+     *         no update is done yet
+     */
+    public synchronized long getAverageLatency() {
+        return (this.updateCount == 0) ? 0 : (this.totalLatency / this.updateCount);
+    }
+
+    /**
+     * @return the largest number of milliseconds between a model first changing and its Preview VDB being updated
+     */
+    public synchronized long getMaxLatency() {
+        return this.maxLatency;
+    }
+}
@@ -9,6 +9,8 @@ package org.teiid.designer.extension.registry;
 
 import static org.teiid.designer.extension.ExtensionPlugin.Util;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
@@ -17,6 +19,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -64,6 +67,29 @@ public final class ModelExtensionRegistry {
      */
     private ModelExtensionDefinitionParser parser;
 
+    /**
+     * Key is metaclass name, value is the model extension assistants of the definitions that extend that metaclass. Rebuilt
+     * whenever a definition is added, removed or changed, and never changed once built. Never <code>null</code>.
+     */
+    private volatile Map<String, Collection<ModelExtensionAssistant>> assistantsByMetaclass = Collections.emptyMap();
+
+    /**
+     * Key is metaclass name, value is a map whose key is property definition identifier and whose value is the property
+     * definition. Rebuilt whenever a definition is added, removed or changed, and never changed once built. Never
+     * <code>null</code>.
+     */
+    private volatile Map<String, Map<String, ModelExtensionPropertyDefinition>> propertyDefinitionsByMetaclass = Collections.emptyMap();
+
+    /**
+     * Rebuilds the metaclass indexes when a registered definition is changed. Never <code>null</code>.
+     */
+    private final PropertyChangeListener definitionListener = new PropertyChangeListener() {
+        @Override
+        public void propertyChange( PropertyChangeEvent e ) {
+            rebuildIndexes();
+        }
+    };
+
     /**
      * @param medSchema the model extension definition schema file (cannot be <code>null</code> and must exist)
      * @throws IllegalStateException if there is a problem with the model extension XSD
@@ -133,6 +159,8 @@ public final class ModelExtensionRegistry {
         // add to registry
         this.definitions.put(namespacePrefix, definition);
         this.namespaces.put(namespaceUri, namespacePrefix);
+        definition.addListener(this.definitionListener);
+        rebuildIndexes();
 
         // notify registry listeners
         fireEvent(RegistryEvent.createAddDefinitionEvent(definition));
@@ -153,6 +181,8 @@ public final class ModelExtensionRegistry {
             ModelExtensionDefinition removedMed = this.definitions.remove(namespacePrefix);
             if (removedMed != null) {
                 this.namespaces.remove(removedMed.getNamespaceUri());
+                removedMed.removeListener(this.definitionListener);
+                rebuildIndexes();
 
                 // notify registry listeners
                 fireEvent(RegistryEvent.createRemoveDefinitionEvent(removedMed));
@@ -329,16 +359,14 @@ public final class ModelExtensionRegistry {
 
     /**
      * @param metaclassName the metaclass name whose model extension assistants are being requested
-     * @return the model extension assistants of model extension definitions that extend the specified metaclass name (never
-     *         <code>null</code>)
+     * @return an unmodifiable collection of the model extension assistants of model extension definitions that extend the specified
+     *         metaclass name (never <code>null</code>)
      */
     public Collection<ModelExtensionAssistant> getModelExtensionAssistants( String metaclassName ) {
-        Collection<ModelExtensionAssistant> assistants = new ArrayList<ModelExtensionAssistant>();
+        Collection<ModelExtensionAssistant> assistants = this.assistantsByMetaclass.get(metaclassName);
 
-        for (ModelExtensionDefinition definition : getAllDefinitions()) {
-            if (definition.extendsMetaclass(metaclassName)) {
-                assistants.add(definition.getModelExtensionAssistant());
-            }
+        if (assistants == null) {
+            return Collections.emptyList();
         }
 
         return assistants;
@@ -352,17 +380,60 @@ public final class ModelExtensionRegistry {
     public ModelExtensionPropertyDefinition getPropertyDefinition( String metaclassName,
                                                                    String propId ) {
         CoreArgCheck.isNotEmpty(propId, "propId is empty"); //$NON-NLS-1$
+        CoreArgCheck.isNotEmpty(metaclassName, "metaclassName is empty"); //$NON-NLS-1$
+        Map<String, ModelExtensionPropertyDefinition> propDefns = this.propertyDefinitionsByMetaclass.get(metaclassName);
 
-        for (ModelExtensionDefinition definition : getAllDefinitions()) {
-            ModelExtensionPropertyDefinition propDefn = definition.getPropertyDefinition(metaclassName, propId);
+        if (propDefns == null) {
+            // not found
+            return null;
+        }
 
-            if (propDefn != null) {
-                return propDefn;
+        return propDefns.get(propId);
+    }
+
+    /**
+     * Replaces the metaclass indexes with ones built from the definitions now registered. The indexes are built in the order the
+     * definitions are iterated, so that a lookup returns what a search of the definitions in that order would.
+     */
+    synchronized void rebuildIndexes() {
+        Map<String, Collection<ModelExtensionAssistant>> assistants = new HashMap<String, Collection<ModelExtensionAssistant>>();
+        Map<String, Map<String, ModelExtensionPropertyDefinition>> propDefns = new HashMap<String, Map<String, ModelExtensionPropertyDefinition>>();
+
+        for (ModelExtensionDefinition definition : this.definitions.values()) {
+            for (Map.Entry<String, Collection<ModelExtensionPropertyDefinition>> entry : definition.getPropertyDefinitions().entrySet()) {
+                String metaclassName = entry.getKey();
+                Collection<ModelExtensionAssistant> metaclassAssistants = assistants.get(metaclassName);
+
+                if (metaclassAssistants == null) {
+                    metaclassAssistants = new ArrayList<ModelExtensionAssistant>();
+                    assistants.put(metaclassName, metaclassAssistants);
+                }
+
+                metaclassAssistants.add(definition.getModelExtensionAssistant());
+                Map<String, ModelExtensionPropertyDefinition> metaclassPropDefns = propDefns.get(metaclassName);
+
+                if (metaclassPropDefns == null) {
+                    metaclassPropDefns = new LinkedHashMap<String, ModelExtensionPropertyDefinition>();
+                    propDefns.put(metaclassName, metaclassPropDefns);
+                }
+
+                for (ModelExtensionPropertyDefinition propDefn : entry.getValue()) {
+                    String propId = propDefn.getId();
+
+                    // first definition found wins
+                    if ((propId != null) && !metaclassPropDefns.containsKey(propId)) {
+                        metaclassPropDefns.put(propId, propDefn);
+                    }
+                }
             }
         }
 
-        // not found
-        return null;
+        for (Map.Entry<String, Collection<ModelExtensionAssistant>> entry : assistants.entrySet()) {
+            entry.setValue(Collections.unmodifiableCollection(entry.getValue()));
+        }
+
+        this.assistantsByMetaclass = assistants;
+        this.propertyDefinitionsByMetaclass = propDefns;
     }
 
     /**
@@ -15,6 +15,7 @@ import org.teiid.designer.core.workspace.ModelResource;
 import org.teiid.designer.core.workspace.ModelWorkspaceException;
 import org.teiid.designer.jdbc.JdbcImportSettings;
 import org.teiid.designer.jdbc.metadata.JdbcDatabase;
+import org.teiid.designer.jdbc.metadata.impl.JdbcMetadataPrefetcher;
 
 
 /**
@@ -93,6 +94,15 @@ public interface RelationalModelProcessor {
      */
     boolean getDebugLogTiming();
 
+    /**
+     * Set the factory of the additional connections used to read the metadata of many tables in parallel, when
+     * {@link JdbcMetadataPrefetcher#PREFETCH_PROPERTY prefetching} is enabled.
+     * 
+     * @param connectionFactory the factory; may be null if no additional connections are to be used
+     * @since 8.1
+     */
+    void setMetadataConnectionFactory( JdbcMetadataPrefetcher.ConnectionFactory connectionFactory );
+
     /**
      * Set whether to include incomplete foreign keys
      * 
@@ -25,6 +25,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
@@ -80,6 +81,7 @@ import org.teiid.designer.jdbc.metadata.impl.GetImportedForeignKeysRequest;
 import org.teiid.designer.jdbc.metadata.impl.GetIndexesRequest;
 import org.teiid.designer.jdbc.metadata.impl.GetPrimaryKeyRequest;
 import org.teiid.designer.jdbc.metadata.impl.GetProcedureParametersRequest;
+import org.teiid.designer.jdbc.metadata.impl.JdbcMetadataPrefetcher;
 import org.teiid.designer.jdbc.relational.ContextImpl;
 import org.teiid.designer.jdbc.relational.JdbcRelationalPlugin;
 import org.teiid.designer.jdbc.relational.ModelerJdbcRelationalConstants;
@@ -131,6 +133,7 @@ public class RelationalModelProcessorImpl implements ModelerJdbcRelationalConsta
     private static final int UNITS_PHASE_0 = 10;
     private static final int UNITS_PHASE_1 = 1000;
     private static final int UNITS_PHASE_2 = 1000;
+    private static final int UNITS_PHASE_2B = 5000;
     private static final int UNITS_PHASE_3 = 10000;
     private static final int UNITS_PHASE_4 = 10;
     private static final int UNITS_PHASE_5 = 10000;
@@ -154,6 +157,7 @@ public class RelationalModelProcessorImpl implements ModelerJdbcRelationalConsta
     private boolean moveRatherThanCopyAdds;
     private boolean includeIncompleteFKs;
     private boolean debugTimingEnabled = false;
+    private JdbcMetadataPrefetcher.ConnectionFactory metadataConnectionFactory;
 
     /**
      * Construct an instance of RelationalModelProcessorImpl.
@@ -566,6 +570,15 @@ public class RelationalModelProcessorImpl implements ModelerJdbcRelationalConsta
         this.moveRatherThanCopyAdds = moveRatherThanCopyAdds;
     }
 
+    /**
+     * @see org.teiid.designer.jdbc.relational.RelationalModelProcessor#setMetadataConnectionFactory(org.teiid.designer.jdbc.metadata.impl.JdbcMetadataPrefetcher.ConnectionFactory)
+     * @since 8.1
+     */
+    @Override
+    public void setMetadataConnectionFactory( final JdbcMetadataPrefetcher.ConnectionFactory connectionFactory ) {
+        this.metadataConnectionFactory = connectionFactory;
+    }
+
     /**
      * @see org.teiid.designer.jdbc.relational.RelationalModelProcessor#setIncludeIncompleteFKs(boolean)
      */
@@ -719,7 +732,7 @@ public class RelationalModelProcessorImpl implements ModelerJdbcRelationalConsta
         // Start the progress monitor tasks ...
         final Object[] taskNameParams = new Object[] {context.getJdbcDatabase().getName()};
         final String taskName = org.teiid.designer.jdbc.relational.ModelerJdbcRelationalConstants.Util.getString("RelationalModelProcessorImpl.Progress_main_task_name", taskNameParams); //$NON-NLS-1$
-        final int numUnits = UNITS_PHASE_0 + UNITS_PHASE_1 + UNITS_PHASE_2 + UNITS_PHASE_3 + UNITS_PHASE_4 + UNITS_PHASE_5
+        final int numUnits = UNITS_PHASE_0 + UNITS_PHASE_1 + UNITS_PHASE_2 + UNITS_PHASE_2B + UNITS_PHASE_3 + UNITS_PHASE_4 + UNITS_PHASE_5
                              + UNITS_PHASE_6 + UNITS_PHASE_7;
         final IProgressMonitor monitor = context.getProgressMonitor();
         monitor.beginTask(null, numUnits);
@@ -798,6 +811,24 @@ public class RelationalModelProcessorImpl implements ModelerJdbcRelationalConsta
                 }
             }
 
+            // ----------------------------------------------------------------------------------------
+            // Phase 2b: If enabled, read the columns, keys and indexes of all the new tables at once,
+            // rather than one table at a time as each is created in Phase 3 and 5
+            // ----------------------------------------------------------------------------------------
+            if (JdbcMetadataPrefetcher.isEnabled()) {
+                final JdbcMetadataPrefetcher prefetcher = new JdbcMetadataPrefetcher(this.metadataConnectionFactory);
+                final IStatus status = prefetcher.prefetch(matcher.getUnmatchedJdbcNodes(),
+                                                           new SubProgressMonitor(monitor, UNITS_PHASE_2B));
+                if (status.getSeverity() == IStatus.CANCEL) {
+                    throw new UserCancelledException();
+                }
+                if (!status.isOK()) {
+                    problems.add(status);
+                }
+            } else {
+                monitor.worked(UNITS_PHASE_2B);
+            }
+
             // ----------------------------------------------------------------------------------------
             // Phase 3: Create all the new RelationalEntity objects for which there were no matches.
             // Foreign keys are not created at this point, since they require references
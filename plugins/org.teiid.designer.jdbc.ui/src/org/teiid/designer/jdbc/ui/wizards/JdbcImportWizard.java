@@ -66,6 +66,7 @@ import org.teiid.designer.jdbc.JdbcPlugin;
 import org.teiid.designer.jdbc.JdbcSource;
 import org.teiid.designer.jdbc.metadata.JdbcDatabase;
 import org.teiid.designer.jdbc.metadata.JdbcNode;
+import org.teiid.designer.jdbc.metadata.impl.JdbcMetadataPrefetcher;
 import org.teiid.designer.jdbc.relational.JdbcImporter;
 import org.teiid.designer.jdbc.relational.RelationalModelProcessor;
 import org.teiid.designer.jdbc.relational.impl.RelationalModelProcessorImpl;
@@ -357,6 +358,7 @@ public class JdbcImportWizard extends AbstractWizard
                         final JdbcSource src = getSource();
                         final RelationalModelProcessor processor = JdbcModelProcessorManager.createRelationalModelProcessor(srcPg.getMetadataProcessor());
                         processor.setMoveRatherThanCopyAdds(!isUpdatedModel());
+                        processor.setMetadataConnectionFactory(createMetadataConnectionFactory(src));
 
                         // set property on processor for Inclusion of incomplete FKs.
                         final boolean includeIncompleteFKs = getDatabase().getIncludes().includeIncompleteFKs();
@@ -505,6 +507,21 @@ public class JdbcImportWizard extends AbstractWizard
         return result;
     }
 
+    /**
+     * @param source the source being imported
+     * @return the factory of the additional connections used to read the metadata of many tables in parallel
+     * @since 8.1
+     */
+    private JdbcMetadataPrefetcher.ConnectionFactory createMetadataConnectionFactory( final JdbcSource source ) {
+        final String password = getPassword();
+        return new JdbcMetadataPrefetcher.ConnectionFactory() {
+            @Override
+            public Connection createConnection() throws Exception {
+                return JdbcRelationalUtil.connect(source, password);
+            }
+        };
+    }
+
     private IJdbcImportPostProcessor[] getPostProcessors() {
         if (this.postProcessors == null) {
             final String EXT_PT = ExtensionPoints.JdbcImportPostProcessor.ID;
@@ -711,6 +728,7 @@ public class JdbcImportWizard extends AbstractWizard
             if (ppProcessorPack == null) {
                 final JdbcSource src = getSource();
                 final RelationalModelProcessor processor = JdbcModelProcessorManager.createRelationalModelProcessor(srcPg.getMetadataProcessor());
+                processor.setMetadataConnectionFactory(createMetadataConnectionFactory(src));
 
                 // set property on processor for Inclusion of incomplete FKs.
                 final boolean includeIncompleteFKs = getDatabase().getIncludes().includeIncompleteFKs();
@@ -27,8 +27,30 @@ public class MetadataRequest extends MethodRequest {
         super(name, metadata, methodName, params);
     }
     
+    /**
+     * The metadata to use instead of the target while {@link #invoke(DatabaseMetaData) invoking} on another connection.
+     */
+    private DatabaseMetaData invocationMetadata;
+
+    /**
+     * Invoke this request using the supplied metadata, which is typically obtained from another connection to the same
+     * database, rather than the metadata this request was created with.  This allows requests of different tables to be
+     * invoked concurrently.
+     * @param metadata the metadata to invoke the request on; may not be null
+     * @return true if the request was invoked without problems
+     * @since 8.1
+     */
+    public synchronized boolean invoke( final DatabaseMetaData metadata ) {
+        this.invocationMetadata = metadata;
+        try {
+            return invoke();
+        } finally {
+            this.invocationMetadata = null;
+        }
+    }
+
     protected DatabaseMetaData getDatabaseMetaData() {
-        return (DatabaseMetaData)getTarget();
+        return this.invocationMetadata != null ? this.invocationMetadata : (DatabaseMetaData)getTarget();
     }
 
 }
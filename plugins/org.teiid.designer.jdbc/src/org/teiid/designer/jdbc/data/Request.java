@@ -200,6 +200,21 @@ public abstract class Request {
         }
     }
     
+    /**
+     * Set the response for this request from records obtained on its behalf by a single call shared with other requests,
+     * so that this request need not be {@link #invoke() invoked}.
+     * @param response the response containing the records for this request; may not be null, and must have been created
+     * for this request
+     * @since 8.1
+     */
+    public final void setResponse( final Response response ) {
+        CoreArgCheck.isNotNull(response);
+        CoreArgCheck.isTrue(response.getRequest() == this, "response is not for this request"); //$NON-NLS-1$
+        this.problems = null;
+        this.response = response;
+        this.results = new ResultsImpl(this.response);
+    }
+
     /**
      * Clear the problems and response for this request.  This can be done prior to re-issuing
      * the {@link #invoke() invocation} of this request.  Calling this method has no effect
@@ -0,0 +1,462 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.jdbc.metadata.impl;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.core.designer.util.NamedThreadFactory;
+import org.teiid.designer.jdbc.JdbcException;
+import org.teiid.designer.jdbc.JdbcPlugin;
+import org.teiid.designer.jdbc.data.MetadataRequest;
+import org.teiid.designer.jdbc.data.Request;
+import org.teiid.designer.jdbc.data.Response;
+import org.teiid.designer.jdbc.metadata.JdbcNode;
+import org.teiid.designer.jdbc.metadata.JdbcTable;
+import org.teiid.designer.jdbc.metadata.JdbcTableType;
+
+/**
+ * Reads the columns, primary keys, imported foreign keys and indexes of many tables before a model is built from them, so
+ * that the model builder finds the results of the tables' {@link Request requests} already in place.
+ * <p>
+ * When enough of the tables of a catalog and schema are imported, the columns of all of its tables are read with a single
+ * {@link DatabaseMetaData#getColumns(String, String, String, String) getColumns} call with a wildcard table pattern, on the
+ * connection the tables were read from, and the rows of the imported tables are kept. The keys and indexes, for which JDBC has no such bulk call, are read one table at a
+ * time by up to {@link #CONNECTIONS_PROPERTY a few} workers, each using its own connection from the
+ * {@link ConnectionFactory}. Anything that cannot be prefetched is left for the requests to read themselves when they are
+ * first used.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class JdbcMetadataPrefetcher {
+
+    /**
+     * The system property that, when set to <code>true</code>, enables prefetching during relational imports.
+     */
+    public static final String PREFETCH_PROPERTY = "org.teiid.designer.jdbc.import.prefetch"; //$NON-NLS-1$
+
+    /**
+     * The system property giving the maximum number of extra connections used to read keys and indexes. Default is
+     * {@link #DEFAULT_CONNECTIONS}.
+     */
+    public static final String CONNECTIONS_PROPERTY = "org.teiid.designer.jdbc.import.prefetchConnections"; //$NON-NLS-1$
+
+    public static final int DEFAULT_CONNECTIONS = 4;
+
+    /**
+     * The smallest percentage of the tables of one catalog and schema that must be imported for all of that schema's columns
+     * to be read at once; the columns of fewer tables are cheaper to read one table at a time than to pick out of the
+     * columns of the whole schema.
+     */
+    public static final int BULK_COLUMNS_PERCENTAGE = 20;
+
+    /**
+     * The smallest number of tables of one catalog and schema for which the columns are read at once.
+     */
+    public static final int BULK_COLUMNS_MINIMUM = 2;
+
+    private static final String I18N_PREFIX = "JdbcMetadataPrefetcher."; //$NON-NLS-1$
+    private static final int COLUMN_TABLE_CAT = 1;
+    private static final int COLUMN_TABLE_SCHEM = 2;
+    private static final int COLUMN_TABLE_NAME = 3;
+    private static final long POLL_MILLIS = 200;
+    private static final String[] KEY_REQUEST_NAMES = new String[] {GetPrimaryKeyRequest.NAME,
+        GetImportedForeignKeysRequest.NAME, GetIndexesRequest.NAME};
+
+    /**
+     * Opens additional connections to the database the tables were read from.
+     */
+    public interface ConnectionFactory {
+
+        /**
+         * @return a new connection, which the caller closes; never null
+         * @throws Exception if the connection cannot be opened
+         */
+        Connection createConnection() throws Exception;
+    }
+
+    /**
+     * @return true if prefetching is enabled by the {@link #PREFETCH_PROPERTY system property}
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PREFETCH_PROPERTY);
+    }
+
+    private static IStatus createWarning( final Throwable e,
+                                         final String msg ) {
+        return new Status(IStatus.WARNING, JdbcPlugin.PLUGIN_ID, 0, msg, e);
+    }
+
+    private static String getString( final String id,
+                                     final Object param ) {
+        return JdbcPlugin.Util.getString(I18N_PREFIX + id, param);
+    }
+
+    private final ConnectionFactory connectionFactory;
+    private final int maxConnections;
+    private int bulkColumnsCallCount;
+
+    /**
+     * Construct an instance of JdbcMetadataPrefetcher that uses up to the {@link #CONNECTIONS_PROPERTY configured} number of
+     * extra connections.
+     *
+     * @param connectionFactory the factory of the connections used to read keys and indexes; may be null if only columns
+     *        are to be prefetched
+     */
+    public JdbcMetadataPrefetcher( final ConnectionFactory connectionFactory ) {
+        this(connectionFactory, Integer.getInteger(CONNECTIONS_PROPERTY, DEFAULT_CONNECTIONS).intValue());
+    }
+
+    /**
+     * Construct an instance of JdbcMetadataPrefetcher.
+     *
+     * @param connectionFactory the factory of the connections used to read keys and indexes; may be null if only columns
+     *        are to be prefetched
+     * @param maxConnections the maximum number of extra connections; keys and indexes are not prefetched if less than one
+     */
+    public JdbcMetadataPrefetcher( final ConnectionFactory connectionFactory,
+                                   final int maxConnections ) {
+        this.connectionFactory = connectionFactory;
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * @return the number of bulk <code>getColumns</code> calls made so far
+     */
+    public int getBulkColumnsCallCount() {
+        return this.bulkColumnsCallCount;
+    }
+
+    /**
+     * Prefetch the metadata of the supplied tables.
+     *
+     * @param tables the {@link JdbcTable tables} whose metadata is to be read; may not be null
+     * @param monitor the progress monitor; may not be null
+     * @return the status of the prefetch, which is {@link IStatus#CANCEL} if the monitor was cancelled and otherwise at
+     *         worst a warning, since whatever was not prefetched is read later
+     */
+    public IStatus prefetch( final List tables,
+                             final IProgressMonitor monitor ) {
+        CoreArgCheck.isNotNull(tables);
+        CoreArgCheck.isNotNull(monitor);
+
+        final Map columnGroups = new LinkedHashMap();
+        final Map groupParents = new HashMap();
+        final List keyTables = new ArrayList();
+        final Iterator iter = tables.iterator();
+        while (iter.hasNext()) {
+            final Object table = iter.next();
+            if (!(table instanceof JdbcTableImpl)) {
+                continue;
+            }
+            final RequestContainer container = ((JdbcTableImpl)table).getRequestContainer();
+            final Request columns = container.findRequest(GetColumnsRequest.NAME);
+            if (columns instanceof GetColumnsRequest && !columns.hasResults() && !columns.hasProblems()) {
+                final Object[] params = ((GetColumnsRequest)columns).getParameters();
+                final List key = Arrays.asList(new Object[] {params[0], params[1]});
+                Map group = (Map)columnGroups.get(key);
+                if (group == null) {
+                    group = new HashMap();
+                    columnGroups.put(key, group);
+                    groupParents.put(key, ((JdbcTableImpl)table).getParent());
+                }
+                group.put(params[2], columns);
+            }
+            if (!getKeyRequests(container).isEmpty()) {
+                keyTables.add(container);
+            }
+        }
+
+        final MultiStatus status = new MultiStatus(JdbcPlugin.PLUGIN_ID, 0, getString("completed", new Integer(tables.size())), null); //$NON-NLS-1$
+        final boolean prefetchKeys = this.connectionFactory != null && this.maxConnections > 0 && !keyTables.isEmpty();
+        monitor.beginTask(getString("taskName", new Integer(tables.size())), columnGroups.size() + (prefetchKeys ? keyTables.size() : 0)); //$NON-NLS-1$
+        try {
+            final Iterator groupIter = columnGroups.entrySet().iterator();
+            while (groupIter.hasNext()) {
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                final Map.Entry entry = (Map.Entry)groupIter.next();
+                final Map group = (Map)entry.getValue();
+                if (isBulkColumnsWorthwhile(group.size(), (JdbcNode)groupParents.get(entry.getKey()))) {
+                    final List key = (List)entry.getKey();
+                    monitor.subTask(getString("readingColumns", key)); //$NON-NLS-1$
+                    final IStatus error = prefetchColumns((String)key.get(0), (String)key.get(1), group);
+                    if (error != null) {
+                        status.add(error);
+                    }
+                }
+                monitor.worked(1);
+            }
+
+            if (prefetchKeys) {
+                if (!prefetchKeys(keyTables, status, monitor)) {
+                    return Status.CANCEL_STATUS;
+                }
+            }
+        } finally {
+            monitor.done();
+        }
+        return status;
+    }
+
+    /**
+     * @param numTables the number of imported tables of a catalog and schema
+     * @param tableType the parent of one of those tables
+     * @return true if the columns of the tables are to be read with one call for the whole catalog and schema
+     */
+    private static boolean isBulkColumnsWorthwhile( final int numTables,
+                                                    final JdbcNode tableType ) {
+        if (numTables < BULK_COLUMNS_MINIMUM) {
+            return false;
+        }
+        final int numSchemaTables = countSchemaTables(tableType);
+        return numSchemaTables <= 0 || numTables * 100 >= numSchemaTables * BULK_COLUMNS_PERCENTAGE;
+    }
+
+    /**
+     * @return the number of tables of all types that share the catalog and schema of the tables of the given type, or -1 if
+     *         they cannot be counted
+     */
+    private static int countSchemaTables( final JdbcNode tableType ) {
+        if (tableType == null || tableType.getParent() == null) {
+            return -1;
+        }
+        try {
+            int count = 0;
+            final JdbcNode[] siblings = tableType.getParent().getChildren();
+            for (int i = 0; i < siblings.length; ++i) {
+                if (siblings[i] instanceof JdbcTableType) {
+                    count += siblings[i].getChildren().length;
+                }
+            }
+            return count;
+        } catch (final JdbcException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param name the catalog or schema name given to the request; null if it is not used to narrow the search, or empty for
+     *        tables that have none
+     * @param value the TABLE_CAT or TABLE_SCHEM of a row
+     * @return true if the row is of the given catalog or schema
+     */
+    private static boolean isSameName( final String name,
+                                       final Object value ) {
+        if (name == null) {
+            return true;
+        }
+        if (name.length() == 0) {
+            return value == null || name.equals(value);
+        }
+        return name.equals(value);
+    }
+
+    /**
+     * Read the columns of all tables matching the patterns with one call, and give each request in the group its rows.
+     *
+     * @return the error, or null if the columns were read
+     */
+    private IStatus prefetchColumns( final String catalogPattern,
+                                     final String schemaPattern,
+                                     final Map requestsByTableName ) {
+        final GetColumnsRequest first = (GetColumnsRequest)requestsByTableName.values().iterator().next();
+        final DatabaseMetaData metadata = (DatabaseMetaData)first.getTarget();
+        if (metadata == null) {
+            return null;
+        }
+        final Map responses = new HashMap();
+        ResultSet resultSet = null;
+        try {
+            ++this.bulkColumnsCallCount;
+            resultSet = metadata.getColumns(catalogPattern, schemaPattern, JdbcNodeImpl.WILDCARD_PATTERN, JdbcNodeImpl.WILDCARD_PATTERN);
+            final int numColumns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                final List tuple = new ArrayList(numColumns);
+                for (int i = 1; i <= numColumns; ++i) {
+                    tuple.add(resultSet.getObject(i)); // index starts at 1!!!
+                }
+                // the patterns may also match other catalogs and schemas, such as those with a '_' in place of any character
+                if (!isSameName(catalogPattern, tuple.get(COLUMN_TABLE_CAT - 1))
+                    || !isSameName(schemaPattern, tuple.get(COLUMN_TABLE_SCHEM - 1))) {
+                    continue;
+                }
+                final Request request = (Request)requestsByTableName.get(tuple.get(COLUMN_TABLE_NAME - 1));
+                if (request == null) {
+                    continue; // a table that is not being imported
+                }
+                Response response = (Response)responses.get(request);
+                if (response == null) {
+                    response = new Response(request);
+                    responses.put(request, response);
+                }
+                response.addRecord(tuple);
+            }
+        } catch (final SQLException e) {
+            // Leave the requests to be invoked one table at a time ...
+            return createWarning(e, getString("bulkColumnsFailed", Arrays.asList(new Object[] {catalogPattern, schemaPattern}))); //$NON-NLS-1$
+        } finally {
+            if (resultSet != null) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e1) {
+                }
+            }
+        }
+
+        final Iterator iter = requestsByTableName.values().iterator();
+        while (iter.hasNext()) {
+            final Request request = (Request)iter.next();
+            final Response response = (Response)responses.get(request);
+            request.setMetadataRequested(false);
+            request.setResponse(response != null ? response : new Response(request));
+        }
+        return null;
+    }
+
+    /**
+     * Read the keys and indexes of the tables on the extra connections, reporting progress as tables are done.
+     *
+     * @return false if the monitor was cancelled
+     */
+    private boolean prefetchKeys( final List containers,
+                                  final MultiStatus status,
+                                  final IProgressMonitor monitor ) {
+        final ConcurrentLinkedQueue queue = new ConcurrentLinkedQueue(containers);
+        final AtomicInteger done = new AtomicInteger();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final int numWorkers = Math.min(this.maxConnections, containers.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(numWorkers, new NamedThreadFactory("JDBC Metadata Prefetch")); //$NON-NLS-1$
+        try {
+            final List futures = new ArrayList(numWorkers);
+            for (int i = 0; i < numWorkers; ++i) {
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        prefetchKeys(queue, done, cancelled);
+                    }
+                }));
+            }
+
+            int reported = 0;
+            final Iterator iter = futures.iterator();
+            while (iter.hasNext()) {
+                final Future future = (Future)iter.next();
+                while (true) {
+                    try {
+                        future.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (final TimeoutException e) {
+                        // Report progress and check for cancellation, then keep waiting ...
+                    } catch (final ExecutionException e) {
+                        status.add(createWarning(e.getCause(), getString("connectionFailed", e.getCause().getLocalizedMessage()))); //$NON-NLS-1$
+                        break;
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        cancelled.set(true);
+                        return false;
+                    } finally {
+                        final int current = done.get();
+                        if (current > reported) {
+                            monitor.worked(current - reported);
+                            monitor.subTask(getString("readingKeys", Arrays.asList(new Object[] {new Integer(current), new Integer(containers.size())}))); //$NON-NLS-1$
+                            reported = current;
+                        }
+                    }
+                    if (monitor.isCanceled()) {
+                        cancelled.set(true);
+                    }
+                }
+            }
+            return !cancelled.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The work of one worker: open a connection and read the keys and indexes of queued tables until none are left.
+     */
+    void prefetchKeys( final ConcurrentLinkedQueue queue,
+                       final AtomicInteger done,
+                       final AtomicBoolean cancelled ) {
+        if (queue.isEmpty()) {
+            return;
+        }
+        final Connection connection;
+        try {
+            connection = this.connectionFactory.createConnection();
+        } catch (final Exception e) {
+            throw new IllegalStateException(e.getLocalizedMessage(), e);
+        }
+        try {
+            final DatabaseMetaData metadata = connection.getMetaData();
+            RequestContainer container = (RequestContainer)queue.poll();
+            while (container != null && !cancelled.get()) {
+                final Iterator iter = getKeyRequests(container).iterator();
+                while (iter.hasNext()) {
+                    final MetadataRequest request = (MetadataRequest)iter.next();
+                    request.setMetadataRequested(false);
+                    if (!request.invoke(metadata)) {
+                        // Leave the request to be invoked on the import connection ...
+                        request.clear();
+                    }
+                }
+                done.incrementAndGet();
+                container = (RequestContainer)queue.poll();
+            }
+        } catch (final SQLException e) {
+            throw new IllegalStateException(e.getLocalizedMessage(), e);
+        } finally {
+            try {
+                connection.close();
+            } catch (final SQLException e) {
+                JdbcPlugin.Util.log(e);
+            }
+        }
+    }
+
+    /**
+     * @return the key and index requests of the table that have yet to be invoked
+     */
+    private static List getKeyRequests( final RequestContainer container ) {
+        final List result = new ArrayList(KEY_REQUEST_NAMES.length);
+        for (int i = 0; i < KEY_REQUEST_NAMES.length; ++i) {
+            final Request request = container.findRequest(KEY_REQUEST_NAMES[i]);
+            if (request instanceof MetadataRequest && !(request instanceof DisabledRequest) && !request.hasResults()
+                && !request.hasProblems()) {
+                result.add(request);
+            }
+        }
+        return result;
+    }
+}
@@ -73,4 +73,20 @@ public class RequestContainer {
         return null;
     }
 
+    /**
+     * Returns the {@link Request} with the supplied name, without invoking it.
+     * 
+     * @param name the name of the request
+     * @return the Request, or null if there is no Request with that name
+     * @since 8.1
+     */
+    public Request findRequest( final String name ) {
+        for (int i = 0; i < requests.length; ++i) {
+            if (requests[i].getName().equals(name)) {
+                return requests[i];
+            }
+        }
+        return null;
+    }
+
 }
@@ -14,6 +14,7 @@ package org.teiid.designer.core.index;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 
 /**
  * A block is a container that can hold information (a list of file names, a list of
@@ -55,6 +56,16 @@ public abstract class Block {
 		raf.seek(blockNum * (long) blockSize);
 		raf.readFully(field.buffer());
 	}
+	/**
+	 * Loads the block with the given number in memory, reading it from a (typically memory-mapped) buffer
+	 * holding the whole index file. The position of the given buffer is left untouched.
+	 */
+	public void read(ByteBuffer buffer, int blockNum) {
+		ByteBuffer source= buffer.duplicate();
+		source.position(blockNum * blockSize);
+		byte[] bytes= field.buffer();
+		source.get(bytes, 0, Math.min(bytes.length, source.remaining()));
+	}
 	/**
 	 * Writes the block in a RandomAccessFile, giving it a block number.
 	 */
@@ -48,6 +48,17 @@ public class CodeByteStream {
 		}
 		return result;
 	}
+	/**
+	 * Copies the bytes written so far into dest at destOffset, as {@link #toByteArray()} would return them.
+	 */
+	public void copyTo(byte[] dest, int destOffset) {
+		int byteLength= byteLength();
+		System.arraycopy(bytes, 0, dest, destOffset, byteLength);
+		if (bitOffset != 0) {
+			int mask= (1 << bitOffset) - 1;
+			dest[destOffset + byteLength - 1] &= (mask << 8 - bitOffset);
+		}
+	}
 	protected void grow() {
 		byte[] newBytes= new byte[bytes.length * 2 + 1];
 		System.arraycopy(bytes, 0, newBytes, 0, bytes.length);
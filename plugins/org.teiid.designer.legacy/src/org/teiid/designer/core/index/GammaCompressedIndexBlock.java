@@ -35,12 +35,13 @@ public class GammaCompressedIndexBlock extends IndexBlock {
     public boolean addEntry(WordEntry entry) {
 		writeCodeStream.reset();
 		encodeEntry(entry, prevWord, writeCodeStream);
-		if (offset + writeCodeStream.byteLength() > this.blockSize - 2) {
+		int byteLength= writeCodeStream.byteLength();
+		if (offset + byteLength > this.blockSize - 2) {
 			return false;
 		}
-		byte[] bytes= writeCodeStream.toByteArray();
-		field.put(offset, bytes);
-		offset += bytes.length;
+		// copy straight into the block, rather than through a new array for each entry
+		writeCodeStream.copyTo(field.buffer(), field.offset() + offset);
+		offset += byteLength;
 		prevWord= entry.getWord();
 		return true;
 	}
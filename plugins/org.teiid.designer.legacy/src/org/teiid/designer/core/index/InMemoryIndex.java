@@ -13,23 +13,42 @@ package org.teiid.designer.core.index;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 
 /**
- * This index stores the document names in an <code>ArrayList</code>, and the words in an <code>HashtableOfObjects</code>.
+ * This index stores the document names in an <code>ArrayList</code>, and the words in a growable character arena, each word
+ * being known by its position in the arena. The words are sorted by sorting their positions, so that no object is created for a
+ * word until it is read back.
  *
  * @since 8.0
  */
 
 public class InMemoryIndex {
 
+    private static final int INITIAL_WORDS = 256;
+
+    /**
+     * Words are sorted by insertion below this size, and by merging above it.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 7;
+
+    /**
+     * The characters of all the words, one after the other.
+     */
+    private char[] wordChars;
+
+    /**
+     * The end of each word in the word characters; each word starts where the previous one ends.
+     */
+    private int[] wordEnds;
+
     /**
-     * hashtable of WordEntrys = words+numbers of the files they appear in.
+     * The number of the file each word appears in.
      */
-    protected List<WordEntry> words;
+    private int[] wordFiles;
+
+    private int numWords;
 
     /**
      * List of IndexedFiles = file name + a unique number.
@@ -41,7 +60,7 @@ public class InMemoryIndex {
      */
     protected long footprint;
 
-    private WordEntry[] sortedWordEntries;
+    private int[] sortedWords;
     private IndexedFile[] sortedFiles;
 
     public InMemoryIndex() {
@@ -56,32 +75,26 @@ public class InMemoryIndex {
     }
 
     /**
-     * Looks if the word already exists in the index and add the fileNum to this word. If the word does not exist, it adds it in
-     * the index.
+     * Adds the word with the fileNum to the index. Our indexes are already unique, so the word is not looked for in the index
+     * first: each call adds one entry.
      */
     protected void addRef( char[] word,
                            int fileNum ) {
-        // Assuming that our indexes are already unique we shouldn't
-        // worry about whether or not one exists already in the list
-        // So let's change this a little and improve performance.
-        // WordEntry entry= (WordEntry) this.words.get(word);
-        // if (entry == null) {
-        // entry= new WordEntry(word);
-        // entry.addRef(fileNum);
-        // this.words.add(entry);
-        // this.sortedWordEntries= null;
-        // this.footprint += entry.footprint();
-        // } else {
-        // this.footprint += entry.addRef(fileNum);
-        // }
-        // return;
-
-        // NEW CODE BELOW
-        WordEntry entry = new WordEntry(word);
-        entry.addRef(fileNum);
-        this.words.add(entry);
-        this.sortedWordEntries = null;
-        this.footprint += entry.footprint();
+        final int start = this.numWords == 0 ? 0 : this.wordEnds[this.numWords - 1];
+        final int end = start + word.length;
+        if (end > this.wordChars.length) {
+            this.wordChars = Arrays.copyOf(this.wordChars, Math.max(end, this.wordChars.length * 2));
+        }
+        if (this.numWords == this.wordEnds.length) {
+            this.wordEnds = Arrays.copyOf(this.wordEnds, this.numWords * 2);
+            this.wordFiles = Arrays.copyOf(this.wordFiles, this.numWords * 2);
+        }
+        System.arraycopy(word, 0, this.wordChars, start, word.length);
+        this.wordEnds[this.numWords] = end;
+        this.wordFiles[this.numWords] = fileNum;
+        this.numWords++;
+        this.sortedWords = null;
+        this.footprint += word.length * 2 + 8;
     }
 
     public void addRef( IndexedFile indexedFile,
@@ -114,7 +127,7 @@ public class InMemoryIndex {
      * @see IIndex#getNumWords()
      */
     public int getNumWords() {
-        return words.size();
+        return numWords;
     }
 
     /**
@@ -130,25 +143,102 @@ public class InMemoryIndex {
     }
 
     /**
-     * Returns the word entries contained in the hashtable of words, sorted by alphabetical order.
+     * Returns the positions of the words, sorted by the alphabetical order of the words. Words that are equal keep the order they
+     * were added in.
+     */
+    protected int[] getSortedWords() {
+        if (this.sortedWords == null) {
+            final int[] words = new int[this.numWords];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = i;
+            }
+            mergeSort(words.clone(), words, 0, words.length);
+            this.sortedWords = words;
+        }
+        return this.sortedWords;
+    }
+
+    /**
+     * Resets the entry to the word at the given position and the file it appears in. The entry gets its own copy of the word, so
+     * one entry can be reused to read each word in turn.
+     */
+    protected void readWordEntry( int word,
+                                  WordEntry entry ) {
+        final int start = word == 0 ? 0 : this.wordEnds[word - 1];
+        entry.reset(Arrays.copyOfRange(this.wordChars, start, this.wordEnds[word]));
+        entry.addRef(this.wordFiles[word]);
+    }
+
+    /**
+     * Compares the words at the given positions, as {@link Util#compare(char[], char[])} compares them.
+     */
+    private int compareWords( int word1,
+                              int word2 ) {
+        int i1 = word1 == 0 ? 0 : this.wordEnds[word1 - 1];
+        int i2 = word2 == 0 ? 0 : this.wordEnds[word2 - 1];
+        final int len1 = this.wordEnds[word1] - i1;
+        final int len2 = this.wordEnds[word2] - i2;
+        int n = Math.min(len1, len2);
+        while (n-- != 0) {
+            char c1 = this.wordChars[i1++];
+            char c2 = this.wordChars[i2++];
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /**
+     * Sorts the words between low and high into dest, using src (which holds the same words) as scratch space. This is the stable
+     * merge sort of {@link Arrays#sort(Object[])}, on the positions of the words.
      */
-    protected WordEntry[] getSortedWordEntries() {
-        if (this.sortedWordEntries == null) {
-            WordEntry[] words = this.words.toArray(new WordEntry[this.words.size()]);
-            Arrays.sort(words);
-            this.sortedWordEntries = words;
+    private void mergeSort( int[] src,
+                            int[] dest,
+                            int low,
+                            int high ) {
+        final int length = high - low;
+        if (length < INSERTION_SORT_THRESHOLD) {
+            for (int i = low; i < high; i++) {
+                for (int j = i; j > low && compareWords(dest[j - 1], dest[j]) > 0; j--) {
+                    final int t = dest[j];
+                    dest[j] = dest[j - 1];
+                    dest[j - 1] = t;
+                }
+            }
+            return;
+        }
+
+        final int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid);
+        mergeSort(dest, src, mid, high);
+
+        // the halves are already in order
+        if (compareWords(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, low, length);
+            return;
+        }
+
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || p < mid && compareWords(src[p], src[q]) <= 0) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
         }
-        return this.sortedWordEntries;
     }
 
     /**
      * Initialises the fields of the index
      */
     public void init() {
-        words = new ArrayList<WordEntry>(256);
+        wordChars = new char[INITIAL_WORDS * 16];
+        wordEnds = new int[INITIAL_WORDS];
+        wordFiles = new int[INITIAL_WORDS];
+        numWords = 0;
         files = new IndexedFileHashedArray(101);
         footprint = 0;
-        sortedWordEntries = null;
+        sortedWords = null;
         sortedFiles = null;
     }
 
@@ -176,9 +266,15 @@ public class InMemoryIndex {
             IndexedFile[] indexedFiles = files.asArray();
             for (int i = 0, length = indexedFiles.length; i < length; ++i)
                 output.addFile(indexedFiles[i]); // written out in order BUT not alphabetical
-            getSortedWordEntries(); // init the slot
-            for (int i = 0, numWords = sortedWordEntries.length; i < numWords; ++i)
-                output.addWord(sortedWordEntries[i]);
+            if (output instanceof BlocksIndexOutput) ((BlocksIndexOutput)output).flushFiles();
+            // stream the words to the output in order, through a single entry
+            int[] words = getSortedWords();
+            WordEntry entry = new WordEntry();
+            for (int i = 0; i < words.length; ++i) {
+                readWordEntry(words[i], entry);
+                output.addWord(entry);
+            }
+            if (output instanceof BlocksIndexOutput) ((BlocksIndexOutput)output).flushWords();
             output.flush();
             output.close();
             ok = true;
@@ -32,6 +32,14 @@ public class Index implements IIndex {
      */
     public static final int MAX_FOOTPRINT = 10000000;
 
+    /**
+     * System property which, when set to <code>true</code>, makes indexes read their files through a memory-mapped
+     * {@link MappedBlocksIndexInput} instead of a {@link BlocksIndexInput}.
+     */
+    public static final String MAPPED_INPUT_PROPERTY = "org.teiid.designer.index.mappedInput"; //$NON-NLS-1$
+
+    private static volatile boolean useMappedInput = Boolean.getBoolean(MAPPED_INPUT_PROPERTY);
+
     /**
      * Index in memory, who is merged with mainIndex each times it reaches a certain size.
      */
@@ -449,7 +457,7 @@ public class Index implements IIndex {
                 boolean wasLoaded = false;
                 try {
                     if (getCachedInput() == null) {
-                        setCachedInput(new BlocksIndexInput(indexFile));
+                        setCachedInput(createBlocksIndexInput(indexFile));
                         getCachedInput().open();
                         wasLoaded = true;
                     }
@@ -466,7 +474,42 @@ public class Index implements IIndex {
             }
         }
 
-        return new BlocksIndexInput(indexFile);
+        return createBlocksIndexInput(indexFile);
+    }
+
+    /**
+     * Creates the input used to read the given index file, memory-mapped if {@link #isUseMappedInput()} is set and
+     * {@link MappedBlocksIndexInput#isSupported() supported}.
+     * 
+     * @param file the index file
+     * @return the new, unopened input
+     * @since 8.1
+     */
+    public static BlocksIndexInput createBlocksIndexInput( File file ) {
+        if (useMappedInput && MappedBlocksIndexInput.isSupported()) {
+            return new MappedBlocksIndexInput(file);
+        }
+        return new BlocksIndexInput(file);
+    }
+
+    /**
+     * @return <code>true</code> if index files are read through a memory-mapped {@link MappedBlocksIndexInput}
+     * @since 8.1
+     */
+    public static boolean isUseMappedInput() {
+        return useMappedInput;
+    }
+
+    /**
+     * Switches between the memory-mapped and the {@link java.io.RandomAccessFile} based index readers. Only inputs created
+     * after the call are affected.
+     * 
+     * @param theUseMappedInput <code>true</code> to read index files through a {@link MappedBlocksIndexInput}
+     * @see #MAPPED_INPUT_PROPERTY
+     * @since 8.1
+     */
+    public static void setUseMappedInput( boolean theUseMappedInput ) {
+        useMappedInput = theUseMappedInput;
     }
 
     @Override
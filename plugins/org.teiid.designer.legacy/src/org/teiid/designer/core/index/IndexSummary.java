@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.teiid.designer.core.index;
 
+import java.io.DataInput;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.util.ArrayList;
@@ -288,6 +289,12 @@ public class IndexSummary {
 	 * Loads the summary in memory.
 	 */
 	public void read(RandomAccessFile raf) throws IOException {
+		read((DataInput) raf);
+	}
+	/**
+	 * Loads the summary in memory from any data input positioned at the start of the summary.
+	 */
+	public void read(DataInput raf) throws IOException {
 		numFiles= raf.readInt();
 		numWords= raf.readInt();
 		firstWordBlockNum= raf.readInt();
@@ -0,0 +1,374 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A read-only {@link BlocksIndexInput} that memory-maps the whole index file instead of reading 8K blocks through a
+ * {@link java.io.RandomAccessFile}. Blocks are decoded from the mapped pages without any file system call, so the operating
+ * system page cache replaces the small per-input LRU block cache.
+ * <p>
+ * The query methods ({@link #queryEntriesPrefixedBy(char[])}, {@link #queryEntriesMatching(char[], boolean)},
+ * {@link #queryFilesReferringToPrefix(char[])}, ...) may be called concurrently once the input is open: every read works on
+ * its own view of the shared mapping and decoded index blocks are never shared between callers. The sequential cursor methods
+ * inherited from {@link IndexInput} (<code>moveToNextWordEntry()</code>, <code>getCurrentFile()</code>, ...) remain
+ * single-threaded, as they are for {@link BlocksIndexInput}.
+ * </p>
+ * <p>
+ * Queries hold a read lock while they run, and {@link #close()} takes the write lock, so the input is never closed under a
+ * running query; a query started on a closed input opens it again. Closing unmaps the file right away, so that it is not left
+ * locked on Windows until the mapping is garbage collected. Where the JVM offers no way to unmap a buffer, {@link #isSupported()}
+ * is <code>false</code> on Windows and {@link Index} reads through a {@link BlocksIndexInput} instead.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class MappedBlocksIndexInput extends BlocksIndexInput {
+
+    /**
+     * Unmaps a buffer on Java 9 and later: <code>sun.misc.Unsafe.invokeCleaner(ByteBuffer)</code>, or <code>null</code>
+     */
+    private static final Method INVOKE_CLEANER;
+
+    /**
+     * The <code>sun.misc.Unsafe</code> instance {@link #INVOKE_CLEANER} is called on, or <code>null</code>
+     */
+    private static final Object UNSAFE;
+
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class unsafeClass = Class.forName("sun.misc.Unsafe"); //$NON-NLS-1$
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", new Class[] {ByteBuffer.class}); //$NON-NLS-1$
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe"); //$NON-NLS-1$
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (Exception e) {
+            // Before Java 9 the buffer's own cleaner is used, see unmap(MappedByteBuffer)
+            invokeCleaner = null;
+            unsafe = null;
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+    private static volatile Boolean unmapSupported;
+
+    /**
+     * The mapping of the whole index file; <code>null</code> while the input is closed. Written last when opening so that
+     * a non-null value also publishes the {@link #summary}.
+     */
+    private volatile MappedByteBuffer buffer;
+
+    /**
+     * Held for reading by the queries and for writing by {@link #open()} and {@link #close()}.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * File list blocks are immutable once their paths have been decoded, so they can safely be shared between threads.
+     */
+    private final Map<Integer, FileListBlock> fileListBlocks = new ConcurrentHashMap<Integer, FileListBlock>();
+
+    public MappedBlocksIndexInput( File inputFile ) {
+        super(inputFile);
+    }
+
+    /**
+     * @see IndexInput#clearCache()
+     */
+    @Override
+    public void clearCache() {
+        fileListBlocks.clear();
+    }
+
+    /**
+     * @see IndexInput#close()
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (isOpen()) {
+                MappedByteBuffer mapped = this.buffer;
+                this.buffer = null;
+                summary = null;
+                clearCache();
+                setOpen(false);
+                // No query is running and decoded blocks are copies, so nothing refers to the mapping anymore
+                if (mapped != null) unmap(mapped);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Acquires the read lock with the input open, opening it first if it is closed. The caller must release the read lock.
+     */
+    private void lockOpen() throws IOException {
+        for (;;) {
+            lock.readLock().lock();
+            if (this.buffer != null) return;
+            lock.readLock().unlock();
+            open();
+        }
+    }
+
+    /**
+     * @see BlocksIndexInput#query(String)
+     */
+    @Override
+    public IQueryResult[] query( String word ) throws IOException {
+        lockOpen();
+        try {
+            return super.query(word);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @see BlocksIndexInput#queryEntriesMatching(char[], boolean)
+     */
+    @Override
+    public IEntryResult[] queryEntriesMatching( char[] pattern,
+                                                boolean isCaseSensitive ) throws IOException {
+        lockOpen();
+        try {
+            return super.queryEntriesMatching(pattern, isCaseSensitive);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @see BlocksIndexInput#queryEntriesPrefixedBy(char[])
+     */
+    @Override
+    public IEntryResult[] queryEntriesPrefixedBy( char[] prefix ) throws IOException {
+        lockOpen();
+        try {
+            return super.queryEntriesPrefixedBy(prefix);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @see BlocksIndexInput#queryEntriesPrefixedBy(char[], boolean)
+     */
+    @Override
+    public IEntryResult[] queryEntriesPrefixedBy( char[] prefix,
+                                                  boolean isCaseSensitive ) throws IOException {
+        lockOpen();
+        try {
+            return super.queryEntriesPrefixedBy(prefix, isCaseSensitive);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @see BlocksIndexInput#queryFilesReferringToPrefix(char[])
+     */
+    @Override
+    public IQueryResult[] queryFilesReferringToPrefix( char[] prefix ) throws IOException {
+        lockOpen();
+        try {
+            return super.queryFilesReferringToPrefix(prefix);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @see BlocksIndexInput#queryInDocumentNames(String)
+     */
+    @Override
+    public IQueryResult[] queryInDocumentNames( String word ) throws IOException {
+        lockOpen();
+        try {
+            return super.queryInDocumentNames(word);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @see BlocksIndexInput#getFileListBlock(int)
+     */
+    @Override
+    protected FileListBlock getFileListBlock( int blockNum ) throws IOException {
+        Integer key = Integer.valueOf(blockNum);
+        FileListBlock fileListBlock = fileListBlocks.get(key);
+        if (fileListBlock == null) {
+            fileListBlock = new FileListBlock(IIndexConstants.BLOCK_SIZE);
+            fileListBlock.read(getBuffer(), blockNum);
+            // decode the paths before publishing so the block is never mutated once shared
+            fileListBlock.getPaths();
+            fileListBlocks.put(key, fileListBlock);
+        }
+        return fileListBlock;
+    }
+
+    /**
+     * @see BlocksIndexInput#getIndexBlock(int)
+     */
+    @Override
+    protected IndexBlock getIndexBlock( int blockNum ) throws IOException {
+        // Index blocks keep a read cursor, so each caller gets its own block decoded from the shared mapping
+        IndexBlock indexBlock = new GammaCompressedIndexBlock(IIndexConstants.BLOCK_SIZE);
+        indexBlock.read(getBuffer(), blockNum);
+        return indexBlock;
+    }
+
+    private ByteBuffer getBuffer() throws IOException {
+        ByteBuffer mapped = this.buffer;
+        if (mapped == null) throw new IOException(Util.bind("exception.inputNotOpened")); //$NON-NLS-1$
+        return mapped;
+    }
+
+    /**
+     * @see IndexInput#open()
+     */
+    @Override
+    public void open() throws IOException {
+        if (this.buffer != null) return;
+        lock.writeLock().lock();
+        try {
+            if (this.buffer != null) return;
+
+            MappedByteBuffer mapped = null;
+            FileInputStream stream = new FileInputStream(indexFile);
+            try {
+                FileChannel channel = stream.getChannel();
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) throw new IOException(Util.bind("exception.wrongFormat")); //$NON-NLS-1$
+                // the mapping stays valid after the channel is closed
+                mapped = channel.map(MapMode.READ_ONLY, 0, size);
+            } finally {
+                stream.close();
+            }
+
+            IndexSummary indexSummary;
+            try {
+                DataInputStream header = new DataInputStream(new ByteBufferInputStream(mapped.duplicate()));
+                String sig = header.readUTF();
+                if (!sig.equals(IIndexConstants.SIGNATURE)) throw new IOException(Util.bind("exception.wrongFormat")); //$NON-NLS-1$
+                int summaryBlockNum = header.readInt();
+
+                ByteBuffer summaryBuffer = mapped.duplicate();
+                summaryBuffer.position(summaryBlockNum * IIndexConstants.BLOCK_SIZE);
+                indexSummary = new IndexSummary();
+                indexSummary.read(new DataInputStream(new ByteBufferInputStream(summaryBuffer)));
+            } catch (IOException e) {
+                unmap(mapped);
+                throw e;
+            }
+
+            summary = indexSummary;
+            this.buffer = mapped;
+            init();
+            setOpen(true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return <code>false</code> if the index file cannot be unmapped when the input is closed and so would stay locked on
+     *         Windows until the mapping is garbage collected; {@link Index} then reads through a {@link BlocksIndexInput}
+     */
+    public static boolean isSupported() {
+        if (!WINDOWS) return true;
+        if (unmapSupported == null) {
+            // every direct buffer is released the same way as a mapped one
+            unmapSupported = Boolean.valueOf(unmap(ByteBuffer.allocateDirect(1)));
+        }
+        return unmapSupported.booleanValue();
+    }
+
+    /**
+     * Releases the mapping of the given buffer now instead of when it is garbage collected. The buffer must not be used
+     * afterwards.
+     *
+     * @return <code>true</code> if the buffer was unmapped
+     */
+    private static boolean unmap( ByteBuffer mapped ) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                // Java 9 and later
+                INVOKE_CLEANER.invoke(UNSAFE, new Object[] {mapped});
+                return true;
+            }
+            // Before Java 9 every direct buffer has a sun.misc.Cleaner
+            Method cleanerMethod = mapped.getClass().getMethod("cleaner", new Class[0]); //$NON-NLS-1$
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(mapped, new Object[0]);
+            if (cleaner == null) return false;
+            Method cleanMethod = cleaner.getClass().getMethod("clean", new Class[0]); //$NON-NLS-1$
+            cleanMethod.setAccessible(true);
+            cleanMethod.invoke(cleaner, new Object[0]);
+            return true;
+        } catch (Exception e) {
+            // Left to the garbage collector
+            return false;
+        }
+    }
+
+    /**
+     * Minimal stream over a private view of the mapped buffer, used to decode the signature and the summary.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer source;
+
+        ByteBufferInputStream( ByteBuffer source ) {
+            this.source = source;
+        }
+
+        @Override
+        public int available() {
+            return source.remaining();
+        }
+
+        @Override
+        public int read() {
+            return source.hasRemaining() ? (source.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read( byte[] bytes,
+                         int off,
+                         int len ) {
+            if (len == 0) return 0;
+            if (!source.hasRemaining()) return -1;
+            int count = Math.min(len, source.remaining());
+            source.get(bytes, off, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.teiid.core.designer.util.NamedThreadFactory;
+
+/**
+ * Runs the same query against many indexes on a shared pool of worker threads. The results are returned in the order of the
+ * given indexes, so callers merge them exactly as the sequential loops in {@link SimpleIndexUtil} do.
+ * <p>
+ * Each distinct {@link Index} is only ever queried by one worker at a time, because an index caches a single, non thread-safe
+ * input when caching is enabled. The optional {@link SimpleIndexUtil.ProgressMonitor} is only called from the calling thread.
+ * </p>
+ *
+ * @since 8.1
+ */
+final class ParallelIndexQuery {
+
+    /**
+     * The work done against a single index.
+     */
+    interface IndexQuery {
+
+        /**
+         * @param index the index to query
+         * @return the matching entries (may be <code>null</code>)
+         * @throws IOException if the index cannot be read
+         */
+        IEntryResult[] query( Index index ) throws IOException;
+    }
+
+    /**
+     * How long the calling thread waits for a result before checking the progress monitor for cancellation.
+     */
+    private static final long CANCEL_POLL_MILLIS = 100;
+
+    private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static ExecutorService executor;
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(POOL_SIZE, new NamedThreadFactory("Index Query Worker")); //$NON-NLS-1$
+        }
+        return executor;
+    }
+
+    /**
+     * @param monitor an optional monitor; it receives one unit of work per index and is polled for cancellation
+     * @param indexes the indexes to query (may contain the same index more than once)
+     * @param query the query run against each index
+     * @return the results, one (possibly <code>null</code>) array per given index and in the same order
+     * @throws IOException if any of the indexes cannot be read
+     * @throws OperationCanceledException if the monitor was canceled before all indexes were queried
+     */
+    static IEntryResult[][] execute( final SimpleIndexUtil.ProgressMonitor monitor,
+                                     final Index[] indexes,
+                                     final IndexQuery query ) throws IOException {
+        final IEntryResult[][] results = new IEntryResult[indexes.length][];
+        final AtomicBoolean canceled = new AtomicBoolean();
+
+        // Submit one task per distinct index, remembering every position it appears at
+        final Map<Index, List<Integer>> positions = new IdentityHashMap<Index, List<Integer>>();
+        final List<Index> distinctIndexes = new ArrayList<Index>();
+        for (int i = 0; i < indexes.length; i++) {
+            List<Integer> indexPositions = positions.get(indexes[i]);
+            if (indexPositions == null) {
+                indexPositions = new ArrayList<Integer>(1);
+                positions.put(indexes[i], indexPositions);
+                distinctIndexes.add(indexes[i]);
+            }
+            indexPositions.add(Integer.valueOf(i));
+        }
+
+        final ExecutorService service = getExecutor();
+        final List<Future<IEntryResult[]>> futures = new ArrayList<Future<IEntryResult[]>>(distinctIndexes.size());
+        for (final Index index : distinctIndexes) {
+            futures.add(service.submit(new Callable<IEntryResult[]>() {
+                @Override
+                public IEntryResult[] call() throws Exception {
+                    if (canceled.get() || index == null) return null;
+                    return query.query(index);
+                }
+            }));
+        }
+
+        boolean completed = false;
+        try {
+            for (int i = 0, size = distinctIndexes.size(); i < size; i++) {
+                final IEntryResult[] indexResults = waitFor(futures.get(i), monitor);
+                final List<Integer> indexPositions = positions.get(distinctIndexes.get(i));
+                for (final Integer position : indexPositions) {
+                    results[position.intValue()] = indexResults;
+                }
+                if (monitor != null) {
+                    monitor.worked(indexPositions.size());
+                }
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                // canceled or failed: skip the indexes nobody has started on yet
+                canceled.set(true);
+                for (final Future<IEntryResult[]> future : futures) {
+                    // do not interrupt: an interrupted thread closes the file channel it is reading
+                    future.cancel(false);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    private static IEntryResult[] waitFor( final Future<IEntryResult[]> future,
+                                           final SimpleIndexUtil.ProgressMonitor monitor ) throws IOException {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                if (monitor != null && monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                try {
+                    return future.get(CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (final TimeoutException e) {
+                    // poll the monitor again
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                } catch (final CancellationException e) {
+                    throw new OperationCanceledException();
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof IOException) throw (IOException)cause;
+                    if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+                    if (cause instanceof Error) throw (Error)cause;
+                    throw new IOException(cause.getMessage());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ParallelIndexQuery() {
+    }
+}
@@ -15,13 +15,14 @@ import java.util.ArrayList;
 
 
 /**
- * A simpleIndexInput is an input on an in memory Index.
+ * A simpleIndexInput is an input on an in memory Index. The word entries are read from the index one at a time, into the same
+ * entry, so the current word entry is only valid until the input moves to the next one.
  *
  * @since 8.0
  */
 
 public class SimpleIndexInput extends IndexInput {
-    protected WordEntry[] sortedWordEntries;
+    protected int[] sortedWords;
     protected IndexedFile currentFile;
     protected IndexedFile[] sortedFiles;
     protected InMemoryIndex index;
@@ -91,7 +92,7 @@ public class SimpleIndexInput extends IndexInput {
      */
     @Override
     public int getNumWords() {
-        return sortedWordEntries.length;
+        return sortedWords.length;
     }
 
     /**
@@ -125,7 +126,7 @@ public class SimpleIndexInput extends IndexInput {
     @Override
     public void moveToNextWordEntry() {
         wordPosition++;
-        if (hasMoreWords()) currentWordEntry = sortedWordEntries[wordPosition - 1];
+        if (hasMoreWords()) index.readWordEntry(sortedWords[wordPosition - 1], currentWordEntry);
     }
 
     /**
@@ -133,7 +134,8 @@ public class SimpleIndexInput extends IndexInput {
      */
     @Override
     public void open() {
-        sortedWordEntries = index.getSortedWordEntries();
+        sortedWords = index.getSortedWords();
+        currentWordEntry = new WordEntry();
         sortedFiles = index.getSortedFiles();
         filePosition = 1;
         wordPosition = 1;
@@ -185,6 +187,6 @@ public class SimpleIndexInput extends IndexInput {
     @Override
     protected void setFirstWord() {
         wordPosition = 1;
-        if (sortedWordEntries.length > 0) currentWordEntry = sortedWordEntries[0];
+        if (sortedWords.length > 0) index.readWordEntry(sortedWords[0], currentWordEntry);
     }
 }
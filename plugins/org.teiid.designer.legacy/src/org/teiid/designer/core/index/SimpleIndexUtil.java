@@ -34,6 +34,12 @@ public class SimpleIndexUtil {
 		public void beginTask(String name, int totalWork);
 		
 		public void worked(int work);
+
+		/**
+		 * @return <code>true</code> if the query should stop as soon as possible
+		 * @since 8.1
+		 */
+		public boolean isCanceled();
 	}
     
     //############################################################################################################################
@@ -42,6 +48,17 @@ public class SimpleIndexUtil {
 
     public static final boolean CASE_SENSITIVE_INDEX_FILE_NAMES = false;
 
+    /**
+     * System property holding the minimum number of indexes for which a query fans out over a pool of worker threads instead
+     * of querying the indexes one after another. A value of zero or less always queries sequentially.
+     */
+    public static final String PARALLEL_QUERY_THRESHOLD_PROPERTY = "org.teiid.designer.index.parallelQueryThreshold"; //$NON-NLS-1$
+
+    public static final int DEFAULT_PARALLEL_QUERY_THRESHOLD = 16;
+
+    private static volatile int parallelQueryThreshold = Integer.getInteger(PARALLEL_QUERY_THRESHOLD_PROPERTY,
+                                                                             DEFAULT_PARALLEL_QUERY_THRESHOLD).intValue();
+
     //############################################################################################################################
     //# Indexing Methods                                                                                                       #
     //############################################################################################################################
@@ -80,19 +97,25 @@ public class SimpleIndexUtil {
         final List<IEntryResult> queryResult = new ArrayList<IEntryResult>();
 
         try {
-            for (int i = 0; i < indexes.length; i++) {
-                // Search for index records matching the specified pattern  
-                IEntryResult[] partialResults = indexes[i].queryEntriesMatching(pattern,isCaseSensitive);
-                
-                // If any of these IEntryResults represent an index record that is continued
-                // across multiple entries within the index file then we must query for those
-                // records and build the complete IEntryResult
-                if (partialResults != null) {
-                    partialResults = addContinuationRecords(indexes[i], partialResults);
+            if (shouldQueryInParallel(indexes, false)) {
+                final IEntryResult[][] results = ParallelIndexQuery.execute(null, indexes, new ParallelIndexQuery.IndexQuery() {
+                    @Override
+                    public IEntryResult[] query( Index index ) throws IOException {
+                        return queryEntries(index, pattern, false, isCaseSensitive);
+                    }
+                });
+                for (int i = 0; i < results.length; i++) {
+                    if (results[i] != null) {
+                        queryResult.addAll(Arrays.asList(results[i]));
+                    }
                 }
-                
-                if (partialResults != null) {
-                    queryResult.addAll(Arrays.asList(partialResults));
+            } else {
+                for (int i = 0; i < indexes.length; i++) {
+                    // Search for index records matching the specified pattern
+                    IEntryResult[] partialResults = queryEntries(indexes[i], pattern, false, isCaseSensitive);
+                    if (partialResults != null) {
+                        queryResult.addAll(Arrays.asList(partialResults));
+                    }
                 }
             }
         } catch(IOException e) {
@@ -100,14 +123,15 @@ public class SimpleIndexUtil {
         }
         
         // Remove any results that do not match after tokenizing the record
+        final List<IEntryResult> matchingResult = new ArrayList<IEntryResult>(queryResult.size());
         for (int i = 0, n = queryResult.size(); i < n; i++) {
             IEntryResult record = queryResult.get(i);
-            if ( record == null || !entryMatches(record.getWord(),pattern,fieldDelimiter) ) {
-            	queryResult.remove(record);
+            if ( record != null && entryMatches(record.getWord(),pattern,fieldDelimiter) ) {
+                matchingResult.add(record);
             }
         }
                 
-        return queryResult.toArray(new IEntryResult[queryResult.size()]);
+        return matchingResult.toArray(new IEntryResult[matchingResult.size()]);
     }
     
     /**
@@ -197,48 +221,29 @@ public class SimpleIndexUtil {
         }
         
         try {
-            for (int i = 0; i < indexes.length; i++) {
-                
-                if ( monitor != null ) {
-                    monitor.worked( 1 );
-                }
-                
-                IEntryResult[] partialResults = null;
-                if(isPrefix) {
-                    // Query based on prefix. This uses a fast binary search
-                    // based on matching the first n characters in the index record.  
-                    // The index files contain records that are sorted alphabetically
-                    // by fullname such that the search algorithm can quickly determine
-                    // which index block(s) contain the matching prefixes.
-                    partialResults = indexes[i].queryEntries(pattern, isCaseSensitive);
-                } else {
-                    // Search for index records matching the specified pattern
-                    partialResults = indexes[i].queryEntriesMatching(pattern, isCaseSensitive);
+            if (shouldQueryInParallel(indexes, returnFirstMatch)) {
+                final IEntryResult[][] results = ParallelIndexQuery.execute(monitor, indexes, new ParallelIndexQuery.IndexQuery() {
+                    @Override
+                    public IEntryResult[] query( Index index ) throws IOException {
+                        return queryEntries(index, pattern, isPrefix, isCaseSensitive);
+                    }
+                });
+                for (int i = 0; i < results.length; i++) {
+                    addRecords(results[i], queryResult);
                 }
+            } else {
+                for (int i = 0; i < indexes.length; i++) {
 
-                // If any of these IEntryResults represent an index record that is continued
-                // across multiple entries within the index file then we must query for those
-                // records and build the complete IEntryResult
-                if (partialResults != null) {
-                    partialResults = addContinuationRecords(indexes[i], partialResults);
-                }
+                    if ( monitor != null ) {
+                        monitor.worked( 1 );
+                    }
 
-                // Process these results against the specified pattern and return
-                // only the subset entries that match both criteria  
-                if (partialResults != null) {
-                    for (int j = 0; j < partialResults.length; j++) {
-                    	// filter out any continuation records, they should already appended
-                    	// to index record thet is continued
-						IEntryResult result = partialResults[j];
-						if(result != null && result.getWord()[0] != IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {
-	                        queryResult.add(partialResults[j]);
-						}
+                    addRecords(queryEntries(indexes[i], pattern, isPrefix, isCaseSensitive), queryResult);
+
+                    if (returnFirstMatch && queryResult.size() > 0) {
+                        break;
                     }
                 }
-
-                if (returnFirstMatch && queryResult.size() > 0) {
-                    break; 
-                }                
             }
         } catch(IOException e) {
             throw new TeiidDesignerException(e);
@@ -266,84 +271,166 @@ public class SimpleIndexUtil {
             monitor.beginTask( null, indexes.length );        
         }
         
-        // index file input
-        BlocksIndexInput input = null;
-        
         try {
-            for (int i = 0; i < indexes.length; i++) {
-                
-                if ( monitor != null ) {
-                    monitor.worked( 1 );
-                }
-                // initialize input for the index file
-                input = new BlocksIndexInput(indexes[i].getIndexFile());
-
-                IEntryResult[] partialResults = null;
-                for(final Iterator patternIter = patterns.iterator(); patternIter.hasNext();) {
-                    char[] pattern = ((String) patternIter.next()).toCharArray();
-                    if(isPrefix) {
-                        // Query based on prefix. This uses a fast binary search
-                        // based on matching the first n characters in the index record.  
-                        // The index files contain records that are sorted alphabetically
-                        // by fullname such that the search algorithm can quickly determine
-                        // which index block(s) contain the matching prefixes.
-                        partialResults = input.queryEntriesPrefixedBy(pattern, isCaseSensitive);
-                    } else {
-                        // Search for index records matching the specified pattern
-                        partialResults = input.queryEntriesMatching(pattern, isCaseSensitive);
+            if (shouldQueryInParallel(indexes, returnFirstMatch)) {
+                final IEntryResult[][] results = ParallelIndexQuery.execute(monitor, indexes, new ParallelIndexQuery.IndexQuery() {
+                    @Override
+                    public IEntryResult[] query( Index index ) throws IOException {
+                        final List<IEntryResult> indexResult = new ArrayList<IEntryResult>();
+                        queryEntries(index, patterns, isPrefix, isCaseSensitive, false, indexResult);
+                        return indexResult.toArray(new IEntryResult[indexResult.size()]);
                     }
-                    
-                    // If any of these IEntryResults represent an index record that is continued
-                    // across multiple entries within the index file then we must query for those
-                    // records and build the complete IEntryResult
-                    if (partialResults != null) {
-                        partialResults = addContinuationRecords(indexes[i], partialResults);
+                });
+                for (int i = 0; i < results.length; i++) {
+                    queryResult.addAll(Arrays.asList(results[i]));
+                }
+            } else {
+                for (int i = 0; i < indexes.length; i++) {
+
+                    if ( monitor != null ) {
+                        monitor.worked( 1 );
                     }
+                    queryEntries(indexes[i], patterns, isPrefix, isCaseSensitive, returnFirstMatch, queryResult);
+                }
+            }
+        } catch(IOException e) {
+            throw new TeiidDesignerException(e);
+        }
+
+        return queryResult.toArray(new IEntryResult[queryResult.size()]);       
+    }
     
-                    // Process these results against the specified pattern and return
-                    // only the subset entries that match both criteria  
-                    if (partialResults != null) {
-                        for (int j = 0; j < partialResults.length; j++) {
-                            IEntryResult record = partialResults[j];
-                            if(record != null) {
-                                char[] recordWord = partialResults[j].getWord();
-                                // filter out any continuation records, they should already appended
-                                // to index record thet is continued
-                                if(recordWord[0] != IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {                            
-                                    if (!isPrefix) {
-                                        // filter results that do not match after tokenizing the record
-                                        if(entryMatches(recordWord,pattern,IndexConstants.RECORD_STRING.RECORD_DELIMITER) ) {
-                                            queryResult.add(partialResults[j]);
-                                        }
-                                    } else {
+
+    /**
+     * Return true if a query against the given indexes should fan out over the worker threads of {@link ParallelIndexQuery}.
+     * Queries that stop at the first index with a match stay sequential, since their answer depends on the query order.
+     */
+    private static boolean shouldQueryInParallel(final Index[] indexes, final boolean returnFirstMatch) {
+        final int threshold = parallelQueryThreshold;
+        return !returnFirstMatch && threshold > 0 && indexes.length >= threshold;
+    }
+
+    /**
+     * @return the minimum number of indexes for which queries are run in parallel
+     * @see #PARALLEL_QUERY_THRESHOLD_PROPERTY
+     * @since 8.1
+     */
+    public static int getParallelQueryThreshold() {
+        return parallelQueryThreshold;
+    }
+
+    /**
+     * @param threshold the minimum number of indexes for which queries are run in parallel; zero or less disables parallel queries
+     * @see #PARALLEL_QUERY_THRESHOLD_PROPERTY
+     * @since 8.1
+     */
+    public static void setParallelQueryThreshold(final int threshold) {
+        parallelQueryThreshold = threshold;
+    }
+
+    /**
+     * Query a single index by prefix or pattern, joining any continued records.  The result still contains
+     * the continuation records themselves.
+     */
+    private static IEntryResult[] queryEntries(final Index index, final char[] pattern, final boolean isPrefix, final boolean isCaseSensitive) throws IOException {
+        IEntryResult[] partialResults = null;
+        if(isPrefix) {
+            // Query based on prefix. This uses a fast binary search
+            // based on matching the first n characters in the index record.  
+            // The index files contain records that are sorted alphabetically
+            // by fullname such that the search algorithm can quickly determine
+            // which index block(s) contain the matching prefixes.
+            partialResults = index.queryEntries(pattern, isCaseSensitive);
+        } else {
+            // Search for index records matching the specified pattern
+            partialResults = index.queryEntriesMatching(pattern, isCaseSensitive);
+        }
+
+        // If any of these IEntryResults represent an index record that is continued
+        // across multiple entries within the index file then we must query for those
+        // records and build the complete IEntryResult
+        if (partialResults != null) {
+            partialResults = addContinuationRecords(index, partialResults);
+        }
+        return partialResults;
+    }
+
+    /**
+     * Add the given results to the query result, skipping null entries and continuation records.
+     */
+    private static void addRecords(final IEntryResult[] partialResults, final List<IEntryResult> queryResult) {
+        if (partialResults != null) {
+            for (int j = 0; j < partialResults.length; j++) {
+            	// filter out any continuation records, they should already appended
+            	// to index record thet is continued
+				IEntryResult result = partialResults[j];
+				if(result != null && result.getWord()[0] != IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {
+                    queryResult.add(partialResults[j]);
+				}
+            }
+        }
+    }
+
+    /**
+     * Query a single index for each of the given prefixes or patterns, adding the matching records to the query result.
+     */
+    private static void queryEntries(final Index index, final Collection patterns, final boolean isPrefix, final boolean isCaseSensitive, final boolean returnFirstMatch, final List<IEntryResult> queryResult) throws IOException {
+        // initialize input for the index file
+        BlocksIndexInput input = Index.createBlocksIndexInput(index.getIndexFile());
+        try {
+            IEntryResult[] partialResults = null;
+            for(final Iterator patternIter = patterns.iterator(); patternIter.hasNext();) {
+                char[] pattern = ((String) patternIter.next()).toCharArray();
+                if(isPrefix) {
+                    // Query based on prefix. This uses a fast binary search
+                    // based on matching the first n characters in the index record.  
+                    // The index files contain records that are sorted alphabetically
+                    // by fullname such that the search algorithm can quickly determine
+                    // which index block(s) contain the matching prefixes.
+                    partialResults = input.queryEntriesPrefixedBy(pattern, isCaseSensitive);
+                } else {
+                    // Search for index records matching the specified pattern
+                    partialResults = input.queryEntriesMatching(pattern, isCaseSensitive);
+                }
+                
+                // If any of these IEntryResults represent an index record that is continued
+                // across multiple entries within the index file then we must query for those
+                // records and build the complete IEntryResult
+                if (partialResults != null) {
+                    partialResults = addContinuationRecords(index, partialResults);
+                }
+
+                // Process these results against the specified pattern and return
+                // only the subset entries that match both criteria  
+                if (partialResults != null) {
+                    for (int j = 0; j < partialResults.length; j++) {
+                        IEntryResult record = partialResults[j];
+                        if(record != null) {
+                            char[] recordWord = partialResults[j].getWord();
+                            // filter out any continuation records, they should already appended
+                            // to index record thet is continued
+                            if(recordWord[0] != IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {                            
+                                if (!isPrefix) {
+                                    // filter results that do not match after tokenizing the record
+                                    if(entryMatches(recordWord,pattern,IndexConstants.RECORD_STRING.RECORD_DELIMITER) ) {
                                         queryResult.add(partialResults[j]);
                                     }
+                                } else {
+                                    queryResult.add(partialResults[j]);
                                 }
                             }
                         }
                     }
-                    if (returnFirstMatch && queryResult.size() > 0) {
-                        break;
-                    }
-                    
-                    // close file input
-                    input.close();
+                }
+                if (returnFirstMatch && queryResult.size() > 0) {
+                    break;
                 }
             }
-        } catch(IOException e) {
-            throw new TeiidDesignerException(e);
         } finally {
             // close file input
-            try {
-                if(input != null) {
-                    input.close();
-                }
-            } catch(IOException io) {}
+            input.close();
         }
-
-        return queryResult.toArray(new IEntryResult[queryResult.size()]);       
     }
-    
 
     private static IEntryResult[] addContinuationRecords(final Index index, final IEntryResult[] partialResults) throws IOException {
                                                       
@@ -0,0 +1,340 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+
+package org.teiid.designer.metadata.runtime.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.designer.core.index.IndexConstants;
+
+/**
+ * An index record whose fields, between the usual text header and footer, are stored in binary form.
+ * <p>
+ * The header (<code>recordType|upperFullName|objectID|fullName|nameInSource|parentObjectID|</code>) and the footer
+ * (<code>|modelPath|name|indexVersion|</code>) are the same as those of a text record, so index queries on record type, names
+ * and UUIDs match binary records as they match text records. Between them is the {@link #MARKER}, a field count, and the
+ * fields, each prefixed by its length in chars:
+ * <ul>
+ * <li>a string is stored as is;</li>
+ * <li>an integer between -1 and {@link #MAX_SHORT_INT} is stored as a single char, and any other integer as its decimal
+ * digits;</li>
+ * <li>a set of flags is stored as a single bit mask char;</li>
+ * <li>a list of strings is stored as a sequence of length-prefixed strings.</li>
+ * </ul>
+ * Lengths and values are offset by one so that no char of the record is 0, which the index stores in two bytes rather than one.
+ * The index stores each char of a record in its modified UTF-8 form, so the binary fields are stored as length-prefixed UTF-8.
+ * </p>
+ * <p>
+ * Reading a binary record locates the header, the fields and the footer in one pass over the length prefixes; each field is
+ * then decoded only when it is asked for, straight from the record's chars, without tokenizing the record.
+ * </p>
+ *
+ * @since 8.1
+ */
+public final class BinaryIndexRecord {
+
+    /**
+     * The char following the header of a binary record. It never starts a field of a text record.
+     */
+    public static final char MARKER = '\u0001';
+
+    /**
+     * The largest integer stored as a single char.
+     */
+    public static final int MAX_SHORT_INT = 0x7FFD;
+
+    // Lengths up to this value are stored in one char, longer ones in two
+    private static final int MAX_SHORT_LENGTH = 0x7FFE;
+
+    private static final int HEADER_FIELD_COUNT = 6;
+
+    private static final char DELIMITER = IndexConstants.RECORD_STRING.RECORD_DELIMITER;
+
+    /**
+     * Writes the fields of a binary record after its header.
+     */
+    public static final class Writer {
+        private final StringBuffer sb;
+        private final int countIndex;
+        private int count;
+
+        /**
+         * @param sb the buffer holding the header of the record; may not be null
+         */
+        public Writer( final StringBuffer sb ) {
+            CoreArgCheck.isNotNull(sb);
+            this.sb = sb;
+            this.sb.append(MARKER);
+            this.countIndex = this.sb.length();
+            this.sb.append((char)1);
+        }
+
+        /**
+         * @param value the string; a null value is stored as an empty string
+         */
+        public void writeString( final String value ) {
+            final int length = (value == null ? 0 : value.length());
+            appendLength(length);
+            if (length > 0) {
+                this.sb.append(value);
+            }
+            ++this.count;
+        }
+
+        /**
+         * @param value the integer
+         */
+        public void writeInt( final int value ) {
+            if (value >= -1 && value <= MAX_SHORT_INT) {
+                appendLength(1);
+                this.sb.append((char)(value + 2));
+                ++this.count;
+            } else {
+                writeString(Integer.toString(value));
+            }
+        }
+
+        /**
+         * @param flags the flags; at most 15
+         */
+        public void writeFlags( final boolean[] flags ) {
+            CoreArgCheck.isTrue(flags.length < 16, "Too many flags"); //$NON-NLS-1$
+            int mask = 0;
+            for (int i = 0; i < flags.length; ++i) {
+                if (flags[i]) {
+                    mask |= (1 << i);
+                }
+            }
+            appendLength(1);
+            this.sb.append((char)(mask + 1));
+            ++this.count;
+        }
+
+        /**
+         * @param values the strings; may be null
+         */
+        public void writeStrings( final Collection values ) {
+            if (values == null || values.isEmpty()) {
+                appendLength(0);
+                ++this.count;
+                return;
+            }
+            int length = 0;
+            for (final Iterator iter = values.iterator(); iter.hasNext();) {
+                final int itemLength = ((String)iter.next()).length();
+                length += itemLength + (itemLength > MAX_SHORT_LENGTH ? 2 : 1);
+            }
+            appendLength(length);
+            for (final Iterator iter = values.iterator(); iter.hasNext();) {
+                final String value = (String)iter.next();
+                appendLength(value.length());
+                this.sb.append(value);
+            }
+            ++this.count;
+        }
+
+        /**
+         * Finish the fields of the record; the footer follows.
+         */
+        public void end() {
+            CoreArgCheck.isTrue(this.count < 0xFFFF, "Too many fields"); //$NON-NLS-1$
+            this.sb.setCharAt(this.countIndex, (char)(this.count + 1));
+        }
+
+        private void appendLength( final int length ) {
+            if (length > MAX_SHORT_LENGTH) {
+                this.sb.append((char)(0x8000 | (length >>> 15)));
+                this.sb.append((char)((length & 0x7FFF) + 1));
+            } else {
+                this.sb.append((char)(length + 1));
+            }
+        }
+    }
+
+    /**
+     * @param record the index record; may not be null
+     * @return the binary record, or null if the record is a text record
+     */
+    public static BinaryIndexRecord read( final char[] record ) {
+        CoreArgCheck.isNotNull(record);
+        final int[] headerEnds = new int[HEADER_FIELD_COUNT];
+        if (!findHeader(record, headerEnds)) {
+            return null;
+        }
+        return new BinaryIndexRecord(record, headerEnds, headerEnds[HEADER_FIELD_COUNT - 1] + 2);
+    }
+
+    /**
+     * Whether an index record is a binary record. Only the header is looked at, so the first segment of a record split into
+     * continuation records is enough.
+     * 
+     * @param record the index record; may not be null
+     * @return true if the record is a binary record
+     */
+    public static boolean isBinaryRecord( final char[] record ) {
+        CoreArgCheck.isNotNull(record);
+        return findHeader(record, new int[HEADER_FIELD_COUNT]);
+    }
+
+    // Find the ends of the header fields, and return whether the MARKER follows them
+    private static boolean findHeader( final char[] record,
+                                       final int[] headerEnds ) {
+        int field = 0;
+        for (int i = 0; i < record.length && field < HEADER_FIELD_COUNT; ++i) {
+            if (record[i] == DELIMITER) {
+                headerEnds[field++] = i;
+            }
+        }
+        if (field < HEADER_FIELD_COUNT) {
+            return false;
+        }
+        final int markerIndex = headerEnds[HEADER_FIELD_COUNT - 1] + 1;
+        return markerIndex + 1 < record.length && record[markerIndex] == MARKER;
+    }
+
+    private final char[] record;
+    private final int[] headerEnds;
+    // The index of the first char, and the length, of each field
+    private final int[] starts;
+    private final int[] lengths;
+    private final int footerStart;
+
+    private BinaryIndexRecord( final char[] record,
+                               final int[] headerEnds,
+                               final int countIndex ) {
+        this.record = record;
+        this.headerEnds = headerEnds;
+        final int count = record[countIndex] - 1;
+        this.starts = new int[count];
+        this.lengths = new int[count];
+        int index = countIndex + 1;
+        for (int i = 0; i < count; ++i) {
+            int length = record[index++];
+            if (length >= 0x8000) {
+                length = ((length & 0x7FFF) << 15) | (record[index++] - 1);
+            } else {
+                --length;
+            }
+            this.starts[i] = index;
+            this.lengths[i] = length;
+            index += length;
+        }
+        this.footerStart = index;
+    }
+
+    /**
+     * @return the number of binary fields
+     */
+    public int getFieldCount() {
+        return this.starts.length;
+    }
+
+    /**
+     * @param index the index of the header field: 0 for the record type, through 5 for the parent object ID
+     * @return the text of the header field
+     */
+    public String getHeaderField( final int index ) {
+        final int start = (index == 0 ? 0 : this.headerEnds[index - 1] + 1);
+        return new String(this.record, start, this.headerEnds[index] - start);
+    }
+
+    /**
+     * @param index the index of the footer field: 0 for the model path, 1 for the name
+     * @return the text of the footer field, or null if there is none
+     */
+    public String getFooterField( final int index ) {
+        // the footer starts with a delimiter
+        int start = this.footerStart + 1;
+        for (int i = 0; i < index; ++i) {
+            start = indexOfDelimiter(start) + 1;
+            if (start == 0) {
+                return null;
+            }
+        }
+        final int end = indexOfDelimiter(start);
+        if (start >= this.record.length || end < 0) {
+            return null;
+        }
+        return new String(this.record, start, end - start);
+    }
+
+    private int indexOfDelimiter( final int start ) {
+        for (int i = start; i < this.record.length; ++i) {
+            if (this.record[i] == DELIMITER) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param index the index of the field
+     * @return the string, or an empty string if the record has no such field
+     */
+    public String getString( final int index ) {
+        if (index >= this.starts.length) {
+            return ""; //$NON-NLS-1$
+        }
+        return new String(this.record, this.starts[index], this.lengths[index]);
+    }
+
+    /**
+     * @param index the index of the field
+     * @return the integer, or 0 if the record has no such field
+     */
+    public int getInt( final int index ) {
+        if (index >= this.starts.length) {
+            return 0;
+        }
+        if (this.lengths[index] == 1) {
+            return this.record[this.starts[index]] - 2;
+        }
+        return Integer.parseInt(getString(index));
+    }
+
+    /**
+     * @param index the index of the field
+     * @param flag the index of the flag within the field
+     * @return the flag, or false if the record has no such field
+     */
+    public boolean getFlag( final int index,
+                            final int flag ) {
+        if (index >= this.starts.length) {
+            return false;
+        }
+        return ((this.record[this.starts[index]] - 1) & (1 << flag)) != 0;
+    }
+
+    /**
+     * @param index the index of the field
+     * @return the strings; empty if the record has no such field
+     */
+    public List getStrings( final int index ) {
+        if (index >= this.starts.length || this.lengths[index] == 0) {
+            return Collections.EMPTY_LIST;
+        }
+        final List result = new ArrayList(4);
+        int i = this.starts[index];
+        final int end = i + this.lengths[index];
+        while (i < end) {
+            int length = this.record[i++];
+            if (length >= 0x8000) {
+                length = ((length & 0x7FFF) << 15) | (this.record[i++] - 1);
+            } else {
+                --length;
+            }
+            result.add(new String(this.record, i, length));
+            i += length;
+        }
+        return result;
+    }
+}
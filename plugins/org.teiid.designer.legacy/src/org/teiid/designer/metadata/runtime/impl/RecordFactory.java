@@ -130,6 +130,15 @@ public class RecordFactory {
      */
     public static final int TABLE_CARDINALITY_MINUS_ONE_VERSION = 10;
 
+    /**
+     * The version number that is associated with the change made to store the fields
+     * of table and column records, between the text header and footer, in the compact
+     * {@link BinaryIndexRecord} form.  Records are only written in this form when
+     * binary index records are enabled; text records keep the current version.
+     * @release 8.1
+     */
+    public static final int BINARY_RECORD_INDEX_VERSION = 11;
+
 
     /**
      * The version number that is encoded with all newly created index records
@@ -496,6 +505,10 @@ public class RecordFactory {
      * Create a TableRecord instance from the specified index record
      */
     public static TableRecord createTableRecord(final char[] record) {
+        final BinaryIndexRecord binary = readBinaryRecord(record);
+        if (binary != null) {
+            return createTableRecord(binary, getIndexVersion(record));
+        }
         final String str = new String(record);
         final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
         final TableRecordImpl table = new TableRecordImpl();
@@ -565,6 +578,10 @@ public class RecordFactory {
      * Create a ColumnRecord instance from the specified index record
      */
     public static ColumnRecord createColumnRecord(final char[] record) {
+        final BinaryIndexRecord binary = readBinaryRecord(record);
+        if (binary != null) {
+            return createColumnRecord(binary, getIndexVersion(record));
+        }
         final String str = new String(record);
         final List tokens = CoreStringUtil.split(str,String.valueOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER));
         final ColumnRecordImpl column = new ColumnRecordImpl();
@@ -652,6 +669,75 @@ public class RecordFactory {
         return column;
     }
 
+    /**
+     * Create a TableRecord instance from the specified binary index record. The fields are
+     * those of the text record, in the same order.
+     */
+    private static TableRecord createTableRecord(final BinaryIndexRecord record, final int indexVersion) {
+        final TableRecordImpl table = new TableRecordImpl();
+        table.setIndexVersion(indexVersion);
+        setRecordHeaderValues(table, record);
+
+        int field = 0;
+        table.setCardinality(record.getInt(field++));
+        table.setTableType(record.getInt(field++));
+        table.setVirtual(record.getFlag(field, 0));
+        table.setSystem(record.getFlag(field, 1));
+        table.setSupportsUpdate(record.getFlag(field, 2));
+        table.setMaterialized(record.getFlag(field++, 3));
+        table.setColumnIDs(record.getStrings(field++));
+        table.setPrimaryKeyID(record.getString(field++));
+        table.setForeignKeyIDs(record.getStrings(field++));
+        table.setIndexIDs(record.getStrings(field++));
+        table.setUniqueKeyIDs(record.getStrings(field++));
+        table.setAccessPatternIDs(record.getStrings(field++));
+        table.setMaterializedTableID(record.getString(field++));
+        table.setMaterializedStageTableID(record.getString(field++));
+
+        setRecordFooterValues(table, record);
+        return table;
+    }
+
+    /**
+     * Create a ColumnRecord instance from the specified binary index record. The fields are
+     * those of the text record, in the same order.
+     */
+    private static ColumnRecord createColumnRecord(final BinaryIndexRecord record, final int indexVersion) {
+        final ColumnRecordImpl column = new ColumnRecordImpl();
+        column.setIndexVersion(indexVersion);
+        setRecordHeaderValues(column, record);
+
+        int field = 0;
+        column.setSelectable(record.getFlag(field, 0));
+        column.setUpdatable(record.getFlag(field, 1));
+        column.setAutoIncrementable(record.getFlag(field, 2));
+        column.setCaseSensitive(record.getFlag(field, 3));
+        column.setSigned(record.getFlag(field, 4));
+        column.setCurrency(record.getFlag(field, 5));
+        column.setFixedLength(record.getFlag(field, 6));
+        column.setTransformationInputParameter(record.getFlag(field++, 7));
+        column.setNullType(record.getInt(field++));
+        column.setSearchType(record.getInt(field++));
+        column.setLength(record.getInt(field++));
+        column.setScale(record.getInt(field++));
+        column.setPrecision(record.getInt(field++));
+        column.setPosition(record.getInt(field++));
+        column.setCharOctetLength(record.getInt(field++));
+        column.setRadix(record.getInt(field++));
+        column.setDistinctValues(record.getInt(field++));
+        column.setNullValues(record.getInt(field++));
+        column.setMinValue(getObjectValue(record.getString(field++)));
+        column.setMaxValue(getObjectValue(record.getString(field++)));
+        column.setFormat(getObjectValue(record.getString(field++)));
+        column.setRuntimeType(getObjectValue(record.getString(field++)));
+        column.setNativeType(getObjectValue(record.getString(field++)));
+        column.setDatatypeUUID(getObjectValue(record.getString(field++)));
+        column.setDefaultValue(getObjectValue(record.getString(field++)));
+
+        setRecordFooterValues(column, record);
+        return column;
+    }
+
     /**
      * Create a ColumnSetRecord instance from the specified index record
      */
@@ -1198,6 +1284,33 @@ public class RecordFactory {
         record.setParentUUID(getObjectValue(parentObjectID));
     }
 
+    /**
+     * Return the binary form of the specified index record, or null if it is a text record.
+     */
+    private static BinaryIndexRecord readBinaryRecord(final char[] record) {
+        if (getIndexVersion(record) < BINARY_RECORD_INDEX_VERSION) {
+            return null;
+        }
+        return BinaryIndexRecord.read(record);
+    }
+
+    /**
+     * Set the "header" values on the specified MetadataRecord from a binary index record.
+     */
+    private static void setRecordHeaderValues(final AbstractMetadataRecord record, final BinaryIndexRecord binary) {
+        setRecordHeaderValues(record, binary.getHeaderField(0), null, binary.getHeaderField(2), binary.getHeaderField(3),
+                              binary.getHeaderField(4), binary.getHeaderField(5));
+    }
+
+    /**
+     * Set the "footer" values on the specified MetadataRecord from a binary index record.
+     * The index version has already been set from the record.
+     */
+    private static void setRecordFooterValues(final AbstractMetadataRecord record, final BinaryIndexRecord binary) {
+        record.setResourcePath(binary.getFooterField(0));
+        record.setName(binary.getFooterField(1));
+    }
+
     /**
      * Set the "footer" values on the specified MetadataRecord.
      * All index file record footers are of the form:
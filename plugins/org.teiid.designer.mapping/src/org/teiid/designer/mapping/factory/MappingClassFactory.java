@@ -407,19 +407,19 @@ public class MappingClassFactory {
 
         List locations = mapping.getMappingClassOutputLocations(theMappingClass);
 
-        List columnLocations = new ArrayList();
+        // a set, since every node in the extent is looked up in it
+        Set columnLocations = new HashSet();
         for (Iterator iter = theMappingClass.getColumns().iterator(); iter.hasNext();) {
             columnLocations.addAll(mapping.getMappingClassColumnOutputLocations((MappingClassColumn)iter.next()));
         }
 
         if (!locations.isEmpty()) {
-            List allMCLocations = mapping.getAllMappingClassLocations();
             for (Iterator iter = locations.iterator(); iter.hasNext();) {
                 EObject nextLocation = (EObject)iter.next();
                 // add the location to the collection of extent nodes
                 extentNodes.add(nextLocation);
                 // recurse down this location and collect up the extent nodes
-                extentNodes.addAll(gatherExtentNodes(nextLocation, columnLocations, allMCLocations));
+                extentNodes.addAll(gatherExtentNodes(nextLocation, columnLocations));
             }
         }
 
@@ -1243,13 +1243,10 @@ public class MappingClassFactory {
      * 
      * @param visibleNode the branch node that this method will look beneath
      * @param columnLocations a Collection of tree nodes that should automatically be added in the result
-     * @param mappingClassLocations a Collection of mapping class locations. Any node inside this collection should not be added
-     *        to the result.
      * @return
      */
     private List gatherExtentNodes( EObject locationNode,
-                                    Collection columnLocations,
-                                    Collection mappingClassLocations ) {
+                                    Collection columnLocations ) {
         ArrayList result = new ArrayList();
         for (Iterator childIter = mapper.getMappableTree().getChildren(locationNode).iterator(); childIter.hasNext();) {
             EObject node = (EObject)childIter.next();
@@ -1258,16 +1255,16 @@ public class MappingClassFactory {
                 // if so, then this node is in the extent
                 result.add(node);
                 // recurse down this node's children
-                result.addAll(gatherExtentNodes(node, columnLocations, mappingClassLocations));
+                result.addAll(gatherExtentNodes(node, columnLocations));
             } else {
                 // see if there is a mapping class located at this node
-                if (mappingClassLocations.contains(node)) {
+                if (mapping.getMappingClass(node) != null) {
                     // stop; this node is in another extent. do not check this node's children.
                 } else {
                     // this node is in the extent
                     result.add(node);
                     // recurse down this node's children
-                    result.addAll(gatherExtentNodes(node, columnLocations, mappingClassLocations));
+                    result.addAll(gatherExtentNodes(node, columnLocations));
                 }
             }
 
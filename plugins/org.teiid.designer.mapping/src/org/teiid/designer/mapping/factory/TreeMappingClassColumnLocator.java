@@ -9,6 +9,7 @@ package org.teiid.designer.mapping.factory;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import org.eclipse.core.runtime.IStatus;
@@ -54,6 +55,12 @@ public class TreeMappingClassColumnLocator implements PluginConstants  {
     /** Map of key=tree node, value=Mapping Class */
     private HashMap treeNodesToMappingClassColumnsMap = new HashMap();
     
+    /** Map of key=Mapping Class Column, value=its column Mapping.  Each Mapping is checked to still be nested in the column's
+     *  mapping root and to still have the column as an input before it is used, so removed mappings are never returned.
+     *  Columns that are no longer in a mapping class are dropped when the tree node map is loaded again, and all are
+     *  dropped when the locator is cleared. */
+    private HashMap columnMappingsMap = new HashMap();
+    
     /**
      * @since 5.0
      */
@@ -194,6 +201,7 @@ public class TreeMappingClassColumnLocator implements PluginConstants  {
         } else {
             treeNodesToMappingClassColumnsMap = new HashMap();                
         }
+        HashSet currentColumns = new HashSet(columnMappingsMap.size());
         List mappingClasses = mappingClassLocator.getMappingClasses();
         // for each mapping class, get mapping class columns, see if specified node is mapped
         for (int size = mappingClasses.size(), i = 0; i < size; i++) {
@@ -206,6 +214,7 @@ public class TreeMappingClassColumnLocator implements PluginConstants  {
                 if ( ( columns != null ) && !columns.isEmpty() ) {
                     for ( int numColumns = columns.size(), j = 0; j < numColumns; j++ ) {
                         MappingClassColumn col = (MappingClassColumn)columns.get( j );
+                        currentColumns.add( col );
                         List treeNodes = getMappingClassColumnOutputLocations( col );
                         Iterator itNodes = treeNodes.iterator();
                         
@@ -221,9 +230,24 @@ public class TreeMappingClassColumnLocator implements PluginConstants  {
                 }
             }
         }
+        // don't keep the Mappings of deleted columns
+        columnMappingsMap.keySet().retainAll( currentColumns );
         //stopTracking("loadTreeNodesToMappingClassColumnsMap()"); //$NON-NLS-1$
     }
     
+    /**
+     * Clears the tree node and column Mapping maps, when the XML Document no longer has any mapping roots.
+     * @since 8.1
+     */
+    public void clear() {
+        if( !treeNodesToMappingClassColumnsMap.isEmpty() ) {
+            treeNodesToMappingClassColumnsMap.clear();
+        }
+        if( !columnMappingsMap.isEmpty() ) {
+            columnMappingsMap.clear();
+        }
+    }
+    
     /**
      * Obtains the tree nodes that are mapped to the specified <code>MappingClassColumn</code>.
      * @param theMappingColumn the <code>MappingClassColumn</code> whose mapped tree nodes are being requested
@@ -239,6 +263,13 @@ public class TreeMappingClassColumnLocator implements PluginConstants  {
 
         MappingRoot mappingRoot = (MappingRoot)mappingClassLocator.getMappingRoot(mappingClass);
         if (mappingRoot != null) {
+            
+            Mapping cachedMapping = (Mapping)columnMappingsMap.get(theMappingColumn);
+            if (cachedMapping != null && cachedMapping.eContainer() == mappingRoot
+                && cachedMapping.getInputs().contains(theMappingColumn)) {
+                //stopTracking("getMappingClassColumnMappingList()"); //$NON-NLS-1$
+                return new MappingList(cachedMapping, cachedMapping.getOutputs());
+            }
 
             List columnMappings = mappingRoot.getNested();
             
@@ -273,6 +304,9 @@ public class TreeMappingClassColumnLocator implements PluginConstants  {
                 Mapping newMapping = createColumnMapping(mappingRoot, theMappingColumn);
                 result = new MappingList(newMapping, newMapping.getOutputs());
             }
+            if (result.mapping != null) {
+                columnMappingsMap.put(theMappingColumn, result.mapping);
+            }
         }
         //stopTracking("getMappingClassColumnMappingList()"); //$NON-NLS-1$
         return result;
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import org.eclipse.core.runtime.IStatus;
@@ -20,7 +21,6 @@ import org.teiid.core.designer.ModelerCoreException;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.util.ListAndMapUtil;
-import org.teiid.designer.core.util.ModelContents;
 import org.teiid.designer.mapping.PluginConstants;
 import org.teiid.designer.metamodels.transformation.FragmentMappingRoot;
 import org.teiid.designer.metamodels.transformation.MappingClass;
@@ -50,9 +50,6 @@ public class TreeMappingClassLocator implements PluginConstants {
     // FIELDS
     // ---------------------------------------------------------------------------------------------------------------------------
     
-    /** The model contents object to assist in creating an EMF Tree iterator */
-    private ModelContents modelContents;
-    
     /** The tree root. */
     private EObject root;
     
@@ -79,6 +76,8 @@ public class TreeMappingClassLocator implements PluginConstants {
     // KEY = tree location (EObject), VALUE = MappingClass
     // Note:  Multiple locations can reference the same mapping class
     private HashMap locationToMappingClassMap   = new HashMap();
+    // KEY = MappingClass, VALUE = List of tree locations, kept in step with locationToMappingClassMap
+    private HashMap mappingClassLocationsMap    = new HashMap();
     // KEY = tree location, VALUE = StagingTable
     private HashMap locationToStagingTableMap   = new HashMap();
     // KEY = StagingTable, VALUE = location
@@ -98,8 +97,26 @@ public class TreeMappingClassLocator implements PluginConstants {
      * */
     private HashMap treeNodesToMappingClassScopeMap = new HashMap();
     
+    /** Map of key=Mapping Class, value=List of the tree nodes in its scope */
+    private HashMap mappingClassScopeNodesMap = new HashMap();
+    
+    /** Map of key=tree node, value=List of the Mapping Classes whose scope it is in.  The mapping class in
+     *      treeNodesToMappingClassScopeMap is the last of these in the ordered list of mapping classes.
+     * */
+    private HashMap treeNodesToScopeMappingClassesMap = new HashMap();
+    
+    /** Map of key=Mapping Class, value=Integer position in the ordered list of mapping classes */
+    private HashMap mappingClassPositionMap = new HashMap();
+    
+    /** The mapping classes whose scope must be found again because their column locations have changed */
+    private HashSet changedScopeMappingClasses = new HashSet();
+    
     private boolean hasChanges = false;
     
+    /** Whether mapping class or staging table locations have changed, so that the ordered lists and all of the scopes must be
+     *  found again */
+    private boolean hasLocationChanges = false;
+    
     private boolean generatingMappingClasses = false;
     
     
@@ -111,12 +128,23 @@ public class TreeMappingClassLocator implements PluginConstants {
      * @since 5.0
      */
     public TreeMappingClassLocator(EObject treeRoot) {
+        this(treeRoot, ModelMapperFactory.createModelMapper(treeRoot),
+             ModelerCore.getModelEditor().getModelContents(treeRoot).getTransformations(treeRoot));
+    }
+    
+    /** 
+     * Constructor for a tree whose mapper and mapping roots are already known.
+     * @param treeRoot the XML Document tree root
+     * @param mapper the mapper for the tree
+     * @param mappingRoots the {@link MappingRoot}s of the tree root; may be null
+     * @since 8.1
+     */
+    TreeMappingClassLocator(EObject treeRoot, ITreeToRelationalMapper mapper, List mappingRoots) {
         super();
         this.root = treeRoot;
-        this.modelContents = ModelerCore.getModelEditor().getModelContents(root);
-        this.mapper = ModelMapperFactory.createModelMapper(root);
+        this.mapper = mapper;
         this.columnMappingLocator = new TreeMappingClassColumnLocator(this);
-        initialize();
+        initialize(mappingRoots);
     }
     // ---------------------------------------------------------------------------------------------------------------------------
     // PUBLIC METHODS
@@ -231,16 +259,8 @@ public class TreeMappingClassLocator implements PluginConstants {
         //startTracking("getMappingClassLocations()"); //$NON-NLS-1$
         resetIfChanged();
         
-        List locations = new ArrayList();
-        Iterator iter = locationToMappingClassMap.keySet().iterator();
-        // Gather up all locations for this mapping class
-        while( iter.hasNext() ) {
-            EObject nextLoc = (EObject)iter.next();
-            EObject nextMC = (EObject)locationToMappingClassMap.get(nextLoc);
-            if( nextMC == mappingClass ) {
-                locations.add(nextLoc);
-            }
-        }
+        List locations = (List)mappingClassLocationsMap.get(mappingClass);
+        locations = locations == null ? new ArrayList() : new ArrayList(locations);
         //stopTracking("getMappingClassLocations()"); //$NON-NLS-1$
         return locations;
     }
@@ -284,7 +304,7 @@ public class TreeMappingClassLocator implements PluginConstants {
     
     public void addMappingClassAtLocation(EObject treeMappingRoot, MappingClass mappingClass, EObject location) {
         //startTracking("addMappingClassAtLocation()"); //$NON-NLS-1$
-        hasChanges = true;
+        setLocationsChanged();
         // MAPPING CLASS
         if( mappingClass instanceof StagingTable ) {
             // MAPPING CLASS
@@ -302,7 +322,7 @@ public class TreeMappingClassLocator implements PluginConstants {
                 mappingClassesNameMap.put(mappingClass.getName(), mappingClass.getName());
             }
             // Note that Mapping Classes CAN be mapped to multiple locations 
-            locationToMappingClassMap.put( location, mappingClass );
+            putMappingClassLocation( location, mappingClass );
         }
         addOutputLocation(mappingClass, location);
         //stopTracking("addMappingClassAtLocation()"); //$NON-NLS-1$
@@ -310,7 +330,7 @@ public class TreeMappingClassLocator implements PluginConstants {
     
     public void removeMappingClassFromLocation(EObject treeMappingRoot, MappingClass mappingClass, EObject location) {
         //startTracking("removeMappingClassFromLocation()"); //$NON-NLS-1$
-        hasChanges = true;
+        setLocationsChanged();
         // MAPPING CLASS
         if( mappingClassesToRootMap.get(mappingClass) != null ) {
             mappingClassesToRootMap.remove(mappingClass);
@@ -318,7 +338,7 @@ public class TreeMappingClassLocator implements PluginConstants {
             mappingClassesNameMap.remove(mappingClass.getName());
         }
         // Note that Mapping Classes CAN be mapped to multiple locations 
-        locationToMappingClassMap.remove( location);
+        removeMappingClassLocation( location );
         
         removeOutputLocation(mappingClass, location);
         //stopTracking("removeMappingClassFromLocation()"); //$NON-NLS-1$
@@ -352,7 +372,7 @@ public class TreeMappingClassLocator implements PluginConstants {
             if( !treeMappingRoot.getOutputs().contains(theTreeNode) ) {
                 ModelerCore.getModelEditor().addValue(treeMappingRoot, theTreeNode, treeMappingRoot.getOutputs());
                 //addEntryToTreeNodesToMappingClassScopeMap( theMappingClass );
-                hasChanges = true;
+                setLocationsChanged();
             }
         } catch (Exception e) {
             PluginConstants.Util.log(IStatus.ERROR, e, e.getMessage());
@@ -370,7 +390,7 @@ public class TreeMappingClassLocator implements PluginConstants {
             if( treeMappingRoot.getOutputs().contains(theTreeNode) ) {
                 ModelerCore.getModelEditor().removeValue(treeMappingRoot, theTreeNode, treeMappingRoot.getOutputs());
                 removeEntryFromTreeNodesToMappingClassScopeMap(theMappingClass);
-                hasChanges = true;
+                setLocationsChanged();
             }
         } catch (Exception e) {
             PluginConstants.Util.log(IStatus.ERROR, e, e.getMessage());
@@ -405,16 +425,18 @@ public class TreeMappingClassLocator implements PluginConstants {
             ModelerCore.getModelEditor().delete(mappingClass);
             
             // Remove all "Locations" for this mapping Class
-            List locations = getMappingClassLocations(mappingClass);
-            for( Iterator iter = locations.iterator(); iter.hasNext(); ) {
-                locationToMappingClassMap.remove(iter.next());
+            List locations = (List)mappingClassLocationsMap.remove(mappingClass);
+            if( locations != null ) {
+                for( Iterator iter = locations.iterator(); iter.hasNext(); ) {
+                    locationToMappingClassMap.remove(iter.next());
+                }
             }
         }
         
         mappingClassesNameMap.remove( ((MappingClass)mappingClass).getName());
 
         //stopTracking("deleteMappingClass()"); //$NON-NLS-1$
-        hasChanges = true;
+        setLocationsChanged();
     }
     
     
@@ -504,6 +526,9 @@ public class TreeMappingClassLocator implements PluginConstants {
     public void loadTreeNodesToMappingClassScopeMap() {
         //startTracking("loadTreeNodesToMappingClassScopeMap()"); //$NON-NLS-1$
         treeNodesToMappingClassScopeMap = new HashMap(mappingClassesArray.size());                
+        mappingClassScopeNodesMap = new HashMap(mappingClassesArray.size());
+        treeNodesToScopeMappingClassesMap = new HashMap(mappingClassesArray.size());
+        changedScopeMappingClasses.clear();
         
         // for each mapping class, get the treenodes in its scope
         for (int size = mappingClassesArray.size(), i = 0; i < size; i++) {
@@ -520,6 +545,7 @@ public class TreeMappingClassLocator implements PluginConstants {
     private void addEntryToTreeNodesToMappingClassScopeMap( MappingClass mappingClass ) {
         //startTracking("addEntryToTreeNodesToMappingClassScopeMap()"); //$NON-NLS-1$
         List lstNodes = getTreeNodesInAMappingClassScope( mappingClass );
+        List scopeNodes = new ArrayList();
         
         if ( ( lstNodes != null ) && !lstNodes.isEmpty() ) {
             for ( int iNodes = lstNodes.size(), j = 0; j < iNodes; j++ ) {
@@ -538,10 +564,22 @@ public class TreeMappingClassLocator implements PluginConstants {
                      * jh Defect 21277: Shouldn't we also do this when we add a new MC?
                      * ( Also see: getTreeNodesToMappingClassColumnsMap
                      */
-                    treeNodesToMappingClassScopeMap.put( eoTemp, mappingClass );
+                    List scopeMappingClasses = (List)treeNodesToScopeMappingClassesMap.get( eoTemp );
+                    if ( scopeMappingClasses == null ) {
+                        scopeMappingClasses = new ArrayList(1);
+                        treeNodesToScopeMappingClassesMap.put( eoTemp, scopeMappingClasses );
+                    }
+                    if ( !scopeMappingClasses.contains( mappingClass ) ) {
+                        scopeMappingClasses.add( mappingClass );
+                        scopeNodes.add( eoTemp );
+                        setScopeMappingClass( eoTemp, scopeMappingClasses );
+                    }
                 }
             }
         }
+        if ( !scopeNodes.isEmpty() ) {
+            mappingClassScopeNodesMap.put( mappingClass, scopeNodes );
+        }
         //stopTracking("addEntryToTreeNodesToMappingClassScopeMap()"); //$NON-NLS-1$
     }
     
@@ -550,36 +588,76 @@ public class TreeMappingClassLocator implements PluginConstants {
      */
     private void removeEntryFromTreeNodesToMappingClassScopeMap( MappingClass mappingClass ) {                
         //startTracking("removeEntryFromTreeNodesToMappingClassScopeMap()"); //$NON-NLS-1$
-        Collection colNodes = treeNodesToMappingClassScopeMap.keySet();
-        
-        if ( ( colNodes != null ) && !colNodes.isEmpty() ) {
-            Iterator it = colNodes.iterator();
-            
-            while( it.hasNext() ) {
-                EObject tempNodeKey = (EObject)it.next();
-                
-                // get the MC for this tree node key
-                MappingClass tempMappingClass = (MappingClass)treeNodesToMappingClassScopeMap.get( tempNodeKey );
-                
-                // if this MC is the same as our arg, remove the key
-                if ( tempMappingClass == mappingClass ) {
-                    it.remove();
+        List scopeNodes = (List)mappingClassScopeNodesMap.remove( mappingClass );
+        
+        if ( scopeNodes != null ) {
+            for ( int iNodes = scopeNodes.size(), j = 0; j < iNodes; j++ ) {
+                EObject eoTemp = (EObject)scopeNodes.get( j );
+                List scopeMappingClasses = (List)treeNodesToScopeMappingClassesMap.get( eoTemp );
+                if ( scopeMappingClasses != null ) {
+                    scopeMappingClasses.remove( mappingClass );
+                    if ( scopeMappingClasses.isEmpty() ) {
+                        treeNodesToScopeMappingClassesMap.remove( eoTemp );
+                    }
+                    setScopeMappingClass( eoTemp, scopeMappingClasses );
                 }
             }
         }
         //stopTracking("removeEntryFromTreeNodesToMappingClassScopeMap()"); //$NON-NLS-1$
     }
     
+    /*
+     * A tree node may be in the scope of more than one mapping class when it is mapped to the column of an enclosing
+     * mapping class.  It is then put in the scope of the last of them in the ordered list of mapping classes, as it is when
+     * all of the scopes are found in order.
+     */
+    private void setScopeMappingClass( EObject treeNode, List scopeMappingClasses ) {
+        MappingClass scopeMappingClass = null;
+        int scopePosition = -1;
+        for ( int size = scopeMappingClasses.size(), i = 0; i < size; i++ ) {
+            MappingClass next = (MappingClass)scopeMappingClasses.get( i );
+            Integer position = (Integer)mappingClassPositionMap.get( next );
+            int nextPosition = position == null ? -1 : position.intValue();
+            if ( scopeMappingClass == null || nextPosition >= scopePosition ) {
+                scopeMappingClass = next;
+                scopePosition = nextPosition;
+            }
+        }
+        if ( scopeMappingClass == null ) {
+            treeNodesToMappingClassScopeMap.remove( treeNode );
+        } else {
+            treeNodesToMappingClassScopeMap.put( treeNode, scopeMappingClass );
+        }
+    }
+    
+    /*
+     * Find the scope of only those mapping classes whose column locations have changed
+     */
+    private void updateTreeNodesToMappingClassScopeMap() {
+        //startTracking("updateTreeNodesToMappingClassScopeMap()"); //$NON-NLS-1$
+        List changed = new ArrayList( changedScopeMappingClasses );
+        changedScopeMappingClasses.clear();
+        for ( int size = changed.size(), i = 0; i < size; i++ ) {
+            MappingClass mappingClass = (MappingClass)changed.get( i );
+            removeEntryFromTreeNodesToMappingClassScopeMap( mappingClass );
+            // only the mapping classes in the ordered list have a scope
+            if ( mappingClassPositionMap.containsKey( mappingClass ) ) {
+                addEntryToTreeNodesToMappingClassScopeMap( mappingClass );
+            }
+        }
+        //stopTracking("updateTreeNodesToMappingClassScopeMap()"); //$NON-NLS-1$
+    }
+    
     // ----------------------------
     // Mapping Class Column Methods
     // ----------------------------
     public void addMappingClassColumnLocation(MappingClassColumn theMappingColumn, EObject theTreeNode) {
-        hasChanges = true;
+        setColumnLocationsChanged(theMappingColumn);
         columnMappingLocator.addMappingClassColumnLocation(theMappingColumn, theTreeNode);
     }
     
     public void removeMappingClassColumnLocation(MappingClassColumn theMappingColumn, EObject theTreeNode) {
-        hasChanges = true;
+        setColumnLocationsChanged(theMappingColumn);
         columnMappingLocator.removeMappingClassColumnLocation(theMappingColumn, theTreeNode);
     }
     
@@ -633,9 +711,9 @@ public class TreeMappingClassLocator implements PluginConstants {
     /**
      * Interrogate this treeMappingRoot, find and organize the mapping classes and staging tables into maps
      */
-    private void initialize() {
+    private void initialize(List theMappingRoots) {
         fragmentRoots = new ArrayList();
-        mappingRoots = modelContents.getTransformations(root);
+        mappingRoots = theMappingRoots;
     
         if ((mappingRoots == null) || mappingRoots.isEmpty()) {
             mappingRoots = new ArrayList();
@@ -665,8 +743,8 @@ public class TreeMappingClassLocator implements PluginConstants {
                         mappingClassesNameMap.put(mappingClass.getName(), mappingClass.getName());
                         // Note that Mapping Classes CAN be mapped to multiple locations 
                         while ( outputIter.hasNext() ) {
-                            Object oTemp = outputIter.next();
-                            locationToMappingClassMap.put( oTemp, mappingClass );
+                            EObject oTemp = (EObject)outputIter.next();
+                            putMappingClassLocation( oTemp, mappingClass );
                         }
                     }
                 } else if (mappingRoot instanceof FragmentMappingRoot) {
@@ -681,8 +759,72 @@ public class TreeMappingClassLocator implements PluginConstants {
     
     private void resetIfChanged() {
         if( hasChanges && !isGeneratingMappingClasses() ) {
-            resetOrderedLists();
-            loadTreeNodesToMappingClassScopeMap();
+            if( hasLocationChanges ) {
+                resetOrderedLists();
+                loadTreeNodesToMappingClassScopeMap();
+            } else {
+                // Only column locations have changed (i.e. mapping links), so only the scopes of their mapping classes
+                // must be found again.  The Mapping Class Column Locator keeps its own map up to date.
+                hasChanges = false;
+                updateTreeNodesToMappingClassScopeMap();
+            }
+        }
+    }
+    
+    /*
+     * Find the ordered lists and all of the scopes again, as when mapping class locations have changed
+     */
+    void reload() {
+        resetOrderedLists();
+        loadTreeNodesToMappingClassScopeMap();
+    }
+
+    private void setLocationsChanged() {
+        hasChanges = true;
+        hasLocationChanges = true;
+    }
+    
+    private void setColumnLocationsChanged(MappingClassColumn theMappingColumn) {
+        hasChanges = true;
+        MappingClass mappingClass = theMappingColumn.getMappingClass();
+        if( mappingClass != null ) {
+            changedScopeMappingClasses.add(mappingClass);
+        }
+    }
+    
+    /*
+     * Map the location to the mapping class, keeping the list of locations of each mapping class in step
+     */
+    private void putMappingClassLocation(EObject location, MappingClass mappingClass) {
+        MappingClass previous = (MappingClass)locationToMappingClassMap.put(location, mappingClass);
+        if( previous == mappingClass ) {
+            return;
+        }
+        if( previous != null ) {
+            removeFromMappingClassLocations(previous, location);
+        }
+        List locations = (List)mappingClassLocationsMap.get(mappingClass);
+        if( locations == null ) {
+            locations = new ArrayList(1);
+            mappingClassLocationsMap.put(mappingClass, locations);
+        }
+        locations.add(location);
+    }
+    
+    private void removeMappingClassLocation(EObject location) {
+        MappingClass previous = (MappingClass)locationToMappingClassMap.remove(location);
+        if( previous != null ) {
+            removeFromMappingClassLocations(previous, location);
+        }
+    }
+    
+    private void removeFromMappingClassLocations(MappingClass mappingClass, EObject location) {
+        List locations = (List)mappingClassLocationsMap.get(mappingClass);
+        if( locations != null ) {
+            locations.remove(location);
+            if( locations.isEmpty() ) {
+                mappingClassLocationsMap.remove(mappingClass);
+            }
         }
     }
 
@@ -713,15 +855,42 @@ public class TreeMappingClassLocator implements PluginConstants {
         mappingClassesArray = visitor.getOrderedMappingClasses();
         
         stagingTablesArray = visitor.getOrderedStagingTables();
+        resetMappingClassPositions();
         hasChanges = false;
+        hasLocationChanges = false;
         //System.out.println(this.toString());
         //stopTracking("resetOrderedLists()"); //$NON-NLS-1$
     }
     
+    private void resetMappingClassPositions() {
+        mappingClassPositionMap = new HashMap(mappingClassesArray.size());
+        for (int size = mappingClassesArray.size(), i = 0; i < size; i++) {
+            Object mappingClass = mappingClassesArray.get(i);
+            if (mappingClass != null) {
+                mappingClassPositionMap.put(mappingClass, new Integer(i));
+            }
+        }
+    }
+    
     private void clear() {
         // DON'T Want to do anything if there are NO roots except set the arrays to NULL;
         mappingClassesArray = Collections.EMPTY_LIST;
         stagingTablesArray = Collections.EMPTY_LIST;
+        hasChanges = false;
+        hasLocationChanges = false;
+        changedScopeMappingClasses.clear();
+        if( !mappingClassPositionMap.isEmpty() ) {
+            mappingClassPositionMap.clear();
+        }
+        if( !mappingClassLocationsMap.isEmpty() ) {
+            mappingClassLocationsMap.clear();
+        }
+        if( !mappingClassScopeNodesMap.isEmpty() ) {
+            mappingClassScopeNodesMap.clear();
+        }
+        if( !treeNodesToScopeMappingClassesMap.isEmpty() ) {
+            treeNodesToScopeMappingClassesMap.clear();
+        }
         if( !locationToMappingClassMap.isEmpty() ) {
             locationToMappingClassMap.clear();
         }
@@ -746,6 +915,7 @@ public class TreeMappingClassLocator implements PluginConstants {
         if( !mappingClassesNameMap.isEmpty() ) {
             mappingClassesNameMap.clear();
         }
+        columnMappingLocator.clear();
     }
     
     /**
@@ -32,6 +32,7 @@ import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.core.designer.util.I18nUtil;
 import org.teiid.designer.metamodels.builder.MetamodelEntityBuilder;
 import org.teiid.designer.metamodels.builder.MetamodelEntityRecord;
+import org.teiid.designer.metamodels.builder.execution.util.EntityPathIndex;
 import org.teiid.designer.metamodels.builder.execution.util.MetamodelBuilderUtil;
 import org.teiid.designer.metamodels.builder.util.MetaClassUriHelper;
 import org.teiid.designer.metamodels.core.Annotation;
@@ -50,7 +51,7 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
 
     // Instance variables
     private final MultiStatus status;
-    private final ResourceSet resources;
+    private final EntityPathIndex pathIndex;
     private boolean builderDebugEnabled = false;
     private static final String ENTITY_NAME = "Name"; //$NON-NLS-1$
     private MetamodelEntityRecord currentRecord;
@@ -90,7 +91,7 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
         CoreArgCheck.isNotEmpty(resources.getResources());
 
         this.status = status;
-        this.resources = resources;
+        this.pathIndex = new EntityPathIndex(resources, status);
     }
 
     /**
@@ -118,10 +119,7 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
         if (nameValue != null) {
             String shortName = (String)nameValue;
             String fullPath = parentPath + "\\\\" + shortName; //$NON-NLS-1$
-            final Object existingEntity = MetamodelBuilderUtil.findEObjectByPath(resources,
-                                                                                 fullPath,
-                                                                                 record.getMetaClassUri(),
-                                                                                 status);
+            final Object existingEntity = this.pathIndex.findEObjectByPath(fullPath, record.getMetaClassUri());
             if (existingEntity != null && existingEntity instanceof EObject) {
                 entity = (EObject)existingEntity;
                 isExisting = true;
@@ -163,7 +161,10 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
         }
 
         // Process the information in the entity record and return the new object
-        process(entity, record, factory, isExisting);
+        if (process(entity, record, factory, isExisting) && !isExisting) {
+            // Index the new entity by its path, now that it has a parent and a name
+            this.pathIndex.add(entity);
+        }
 
         if (monitor != null) {
             monitor.worked(1);
@@ -205,8 +206,9 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
      * @param - entity - The EObject to process
      * @param - entityRecord - The MetamodelEntityRecord information to use to populate
      *           the new entity.
+     * @return - true if the entity was added to a parent or is an existing entity
      */
-    private void process( final EObject entity,
+    private boolean process( final EObject entity,
                           final MetamodelEntityRecord entityRecord,
                           EFactory factory,
                           boolean isExisting ) {
@@ -214,7 +216,7 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
             // Add the entity to a parent or resource first
             boolean added = addEntity(entity, entityRecord);
             if (!added) {
-                return;
+                return false;
             }
         }
 
@@ -238,6 +240,7 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
                 setFeatureValue(entity, factory, name, value, isExisting);
             }
         }
+        return true;
     }
 
     /*
@@ -253,7 +256,7 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
         CoreArgCheck.isNotNull(path);
 
         // Find the rsrc using the path info - Log if null
-        final Resource rsrc = MetamodelBuilderUtil.findResource(resources, path);
+        final Resource rsrc = this.pathIndex.findResource(path);
         if (rsrc == null) {
             final String msg = getString("noRsrc", entityRecord.getParentPath()); //$NON-NLS-1$
             MetamodelBuilderUtil.addStatus(status, IStatus.ERROR, msg);
@@ -264,10 +267,7 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
         }
 
         // Find the parent using the path info - Log if null (root objects will return the resource)
-        final Object parent = MetamodelBuilderUtil.findEObjectByPath(resources,
-                                                                     path,
-                                                                     entityRecord.getParentMetaClassUri(),
-                                                                     status);
+        final Object parent = this.pathIndex.findEObjectByPath(path, entityRecord.getParentMetaClassUri());
         if (parent == null) {
             final String msg = getString("noParent", entity.eClass().getName(), entityRecord.getParentPath()); //$NON-NLS-1$
             MetamodelBuilderUtil.addStatus(status, IStatus.ERROR, msg);
@@ -416,7 +416,7 @@ public class MetamodelEntityBuilderImpl implements MetamodelEntityBuilder, Metam
                 while (refs.hasMoreTokens()) {
                     // resolve each path
                     final String ref = refs.nextToken();
-                    final Object next = MetamodelBuilderUtil.findEObjectByPath(resources, ref, null, status);
+                    final Object next = this.pathIndex.findEObjectByPath(ref, null);
                     if (next != null) {
                         refObjects.add(next);
                         if (first == null) {
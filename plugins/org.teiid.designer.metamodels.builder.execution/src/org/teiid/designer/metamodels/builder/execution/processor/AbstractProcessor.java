@@ -87,5 +87,27 @@ public abstract class AbstractProcessor implements Processor {
 		// Execute the query
 		return stmt.executeQuery(sql);
 	}
+	
+	/** 
+	 * Execute a "SELECT COUNT(*)" query against the specified table, so that
+	 * the rows do not have to be read just to be counted.
+	 * @param tableName the table whose rows are to be counted.
+	 * @return the number of rows in the table
+	 * @since 8.1
+	 */
+	protected int countTableRows(String tableName) throws SQLException {
+		Statement stmt = this.sqlConnection.createStatement();
+		try {
+			// Construct the query string
+			String sql = "SELECT COUNT(*) FROM "+this.modelAndSchemaName+DELIM+tableName;  //$NON-NLS-1$
+			// Execute the query
+			ResultSet rs = stmt.executeQuery(sql);
+			int rowCount = rs.next() ? rs.getInt(1) : 0;
+			rs.close();
+			return rowCount;
+		} finally {
+			stmt.close();
+		}
+	}
 
 }
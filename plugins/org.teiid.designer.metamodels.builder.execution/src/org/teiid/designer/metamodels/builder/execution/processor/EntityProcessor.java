@@ -10,18 +10,15 @@ package org.teiid.designer.metamodels.builder.execution.processor;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Iterator;
 import java.util.List;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.metamodels.builder.MetamodelEntityBuilder;
-import org.teiid.designer.metamodels.builder.MetamodelEntityRecord;
 import org.teiid.designer.metamodels.builder.execution.MetamodelBuilderConstants;
 import org.teiid.designer.metamodels.builder.execution.util.MetamodelBuilderUtil;
 import org.teiid.designer.metamodels.builder.translator.RecordGenerator;
-import org.teiid.designer.metamodels.builder.translator.ResultSetTranslator;
 
 
 /**
@@ -81,7 +78,7 @@ public class EntityProcessor extends AbstractProcessor implements MetamodelBuild
         if (tableNames != null) {
             for (int i = 0; i < processingOrder.length; i++) {
                 if (tableNames.contains(processingOrder[i])) {
-                    int tableRows = countTableRows(processingOrder[i]);
+                    int tableRows = getTableRowCount(processingOrder[i]);
                     if (tableRows > 0) {
                         totalRows += tableRows;
                     }
@@ -144,12 +141,8 @@ public class EntityProcessor extends AbstractProcessor implements MetamodelBuild
             ResultSet rs = null;
             try {
                 rs = executeTableQuery(tableName);
-                List entityRecords = RecordGenerator.generateEntityRecords(rs, this.status, monitor);
-                // Iterate for progress monitor
-                Iterator iter = entityRecords.iterator();
-                while (iter.hasNext()) {
-                    this.entityBuilder.create((MetamodelEntityRecord)iter.next(), monitor);
-                }
+                // Create the entities as the rows are read, rather than reading all of the records first
+                RecordGenerator.buildEntities(rs, this.entityBuilder, this.status, monitor);
                 rs.close();
             } catch (SQLException e) {
                 final String msg = "Error Processing Table " + this.modelAndSchemaName + DELIM + tableName; //$NON-NLS-1$
@@ -162,17 +155,14 @@ public class EntityProcessor extends AbstractProcessor implements MetamodelBuild
         MetamodelBuilderUtil.addStatus(status, IStatus.WARNING, msg);
     }
 
-    private int countTableRows( String tableName ) {
+    private int getTableRowCount( String tableName ) {
         int tableRows = 0;
         if (isValidTable(tableName)) {
-            ResultSet rs = null;
             try {
-                rs = executeTableQuery(tableName);
-                int rsRowCount = ResultSetTranslator.getRowCount(rs);
+                int rsRowCount = countTableRows(tableName);
                 if (rsRowCount > 0) {
                     tableRows += rsRowCount;
                 }
-                rs.close();
             } catch (SQLException e) {
                 final String msg = "Error doing rowCount on table " + this.modelAndSchemaName + DELIM + tableName; //$NON-NLS-1$
                 MetamodelBuilderUtil.addStatus(status, IStatus.WARNING, msg, e);
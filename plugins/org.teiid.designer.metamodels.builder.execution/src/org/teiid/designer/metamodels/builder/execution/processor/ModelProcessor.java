@@ -19,7 +19,6 @@ import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.designer.metamodels.builder.ModelBuilder;
 import org.teiid.designer.metamodels.builder.execution.util.MetamodelBuilderUtil;
 import org.teiid.designer.metamodels.builder.translator.RecordGenerator;
-import org.teiid.designer.metamodels.builder.translator.ResultSetTranslator;
 
 
 /**
@@ -187,14 +186,11 @@ public class ModelProcessor extends AbstractProcessor {
      */
     private int countToCreateTableRows() {
         int tableRows = 0;
-        ResultSet rs = null;
         try {
-            rs = executeTableQuery(TOCREATE_TABLE);
-            int rsRowCount = ResultSetTranslator.getRowCount(rs);
+            int rsRowCount = countTableRows(TOCREATE_TABLE);
             if (rsRowCount > 0) {
                 tableRows += rsRowCount;
             }
-            rs.close();
         } catch (SQLException e) {
             final String msg = "Error doing row count on the ToCreate Table"; //$NON-NLS-1$
             MetamodelBuilderUtil.addStatus(this.status, IStatus.WARNING, msg, e);
@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.metamodels.builder.execution.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.StringTokenizer;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.designer.metamodels.builder.execution.MetamodelBuilderConstants;
+import org.teiid.designer.metamodels.builder.util.MetaClassUriHelper;
+
+
+/**
+ * An index of the entities of the resources in a ResourceSet by their path, used to find entities by path during a build
+ * without scanning the children at each level of the path as {@link MetamodelBuilderUtil#findEObjectByPath} does.
+ * <p>
+ * The entities of a resource are indexed the first time the resource is used, and each entity the builder creates must then
+ * be {@link #add(EObject) added}. As with {@link MetamodelBuilderUtil#findEObjectByPath}, each segment of a path is the first
+ * child of its parent with that name, so a later sibling with the same name and its descendants are not indexed. An entity
+ * found in the index is checked to still be that child of its parent; when it is not, or the path is not in the index, only
+ * the children of the parent are searched.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class EntityPathIndex implements MetamodelBuilderConstants {
+
+    private final ResourceSet resources;
+    private final MultiStatus status;
+
+    // the resources already indexed, by the first segment of the paths of their entities
+    private final Map resourcesByModelName = new HashMap();
+
+    // the first entity with each path, by the path with its segments joined with the PATH_SEPARATOR
+    private final Map entitiesByPath = new HashMap();
+
+    /**
+     * Constructor
+     *
+     * @param resources - ResourceSet containing the resources to index - May not be null
+     * @param status - MultiStatus to accumulate errors and warnings - May not be null
+     */
+    public EntityPathIndex( final ResourceSet resources,
+                            final MultiStatus status ) {
+        CoreArgCheck.isNotNull(resources);
+        CoreArgCheck.isNotNull(status);
+        this.resources = resources;
+        this.status = status;
+    }
+
+    /**
+     * Find the resource for the first segment of the given path, indexing its entities if it has not been used before.
+     *
+     * @param path - Path to use - May not be null
+     * @return matching resource
+     * @see MetamodelBuilderUtil#findResource(ResourceSet, String)
+     */
+    public Resource findResource( final String path ) {
+        final String modelName = new StringTokenizer(path, PATH_SEPARATOR).nextToken();
+        Resource rsrc = (Resource)this.resourcesByModelName.get(modelName);
+        if (rsrc == null) {
+            rsrc = MetamodelBuilderUtil.findResource(this.resources, path);
+            if (rsrc != null) {
+                this.resourcesByModelName.put(modelName, rsrc);
+                final Iterator roots = rsrc.getContents().iterator();
+                while (roots.hasNext()) {
+                    addAll(modelName, (EObject)roots.next());
+                }
+            }
+        }
+        return rsrc;
+    }
+
+    /**
+     * Find an entity by path.
+     *
+     * @param path - Full path (including ModelName) to EObject
+     * @param metaClassUri - EClass for entity - May be null.
+     * @return matching entity - May be a Resource or EObject
+     * @see MetamodelBuilderUtil#findEObjectByPath(ResourceSet, String, String, MultiStatus)
+     */
+    public Object findEObjectByPath( final String path,
+                                     final String metaClassUri ) {
+        final String[] segments = getSegments(path);
+        final Resource rsrc = segments.length == 0 ? null : findResource(path);
+        if (rsrc == null) {
+            // Not a path in a model, such as the URI of a datatype or metaclass
+            return MetamodelBuilderUtil.findEObjectByPath(this.resources, path, metaClassUri, this.status);
+        }
+        return find(rsrc, segments, segments.length, metaClassUri);
+    }
+
+    /**
+     * Add a newly created entity, once it has been added to its parent and its name has been set.
+     *
+     * @param entity - the entity to add - May not be null
+     */
+    public void add( final EObject entity ) {
+        CoreArgCheck.isNotNull(entity);
+        final String key = getKey(entity);
+        if (key != null && !this.entitiesByPath.containsKey(key)) {
+            this.entitiesByPath.put(key, entity);
+        }
+    }
+
+    // Add the entity and all of its descendants
+    private void addAll( final String parentKey,
+                         final EObject entity ) {
+        final String name = MetamodelBuilderUtil.getName(entity);
+        if (name == null) {
+            // Neither this entity nor its descendants can be found by path
+            return;
+        }
+        final String key = parentKey + PATH_SEPARATOR + name;
+        if (this.entitiesByPath.containsKey(key)) {
+            // A sibling with the same name comes first, so neither this entity nor its descendants can be found by path
+            return;
+        }
+        this.entitiesByPath.put(key, entity);
+        final Iterator children = entity.eContents().iterator();
+        while (children.hasNext()) {
+            addAll(key, (EObject)children.next());
+        }
+    }
+
+    // Get the path of the entity from the names of it and its containers, or null if it has no path
+    private String getKey( final EObject entity ) {
+        final String name = MetamodelBuilderUtil.getName(entity);
+        if (name == null) {
+            return null;
+        }
+        final EObject container = entity.eContainer();
+        if (container != null) {
+            final String parentKey = getKey(container);
+            return parentKey == null ? null : parentKey + PATH_SEPARATOR + name;
+        }
+        final Resource rsrc = entity.eResource();
+        if (rsrc == null) {
+            return null;
+        }
+        final String lastSegment = rsrc.getURI().lastSegment();
+        if (lastSegment == null || !lastSegment.endsWith(MODEL_EXT)) {
+            return null;
+        }
+        return lastSegment.substring(0, lastSegment.length() - MODEL_EXT.length()) + PATH_SEPARATOR + name;
+    }
+
+    // Find the entity at the first count segments of the path, the resource being the first segment
+    private Object find( final Resource rsrc,
+                         final String[] segments,
+                         final int count,
+                         final String metaClassUri ) {
+        if (count == 1) {
+            return rsrc;
+        }
+        final Object parent = find(rsrc, segments, count - 1, null);
+        if (parent == null) {
+            return null;
+        }
+        final String name = segments[count - 1];
+        final String key = getKey(segments, count);
+        final EObject entity = (EObject)this.entitiesByPath.get(key);
+        if (entity != null && isChild(entity, parent, rsrc) && name.equals(MetamodelBuilderUtil.getName(entity))) {
+            if (metaClassUri == null || entity.eClass().getName().equals(MetaClassUriHelper.getEClassName(metaClassUri))) {
+                return entity;
+            }
+        }
+
+        // The path is not in the index, the entity has been moved or renamed, or an entity of another metaclass is first
+        final EObject child = (EObject)MetamodelBuilderUtil.findChild(name, parent, metaClassUri);
+        if (child != null && metaClassUri == null) {
+            // The first child with the name
+            this.entitiesByPath.put(key, child);
+        }
+        return child;
+    }
+
+    private static boolean isChild( final EObject entity,
+                                    final Object parent,
+                                    final Resource rsrc ) {
+        if (parent == rsrc) {
+            return entity.eContainer() == null && entity.eResource() == rsrc;
+        }
+        return entity.eContainer() == parent;
+    }
+
+    private static String[] getSegments( final String path ) {
+        final StringTokenizer pathTokens = new StringTokenizer(path, PATH_SEPARATOR);
+        final String[] segments = new String[pathTokens.countTokens()];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = pathTokens.nextToken();
+        }
+        return segments;
+    }
+
+    private static String getKey( final String[] segments,
+                                  final int count ) {
+        final StringBuffer key = new StringBuffer(segments[0]);
+        for (int i = 1; i < count; i++) {
+            key.append(PATH_SEPARATOR).append(segments[i]);
+        }
+        return key.toString();
+    }
+}
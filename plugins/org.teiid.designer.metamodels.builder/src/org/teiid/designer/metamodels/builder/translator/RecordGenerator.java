@@ -10,7 +10,7 @@ package org.teiid.designer.metamodels.builder.translator;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -18,6 +18,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.teiid.core.designer.util.I18nUtil;
 import org.teiid.designer.metamodels.builder.MetamodelBuilderPlugin;
+import org.teiid.designer.metamodels.builder.MetamodelEntityBuilder;
 import org.teiid.designer.metamodels.builder.MetamodelEntityRecord;
 import org.teiid.designer.metamodels.builder.ModelRecord;
 import org.teiid.designer.metamodels.builder.util.BuilderUtil;
@@ -66,18 +67,16 @@ public class RecordGenerator {
                                              String locationPathStr,
                                              MultiStatus status,
                                              IProgressMonitor monitor ) throws SQLException {
-        List mapList = ResultSetTranslator.translate(resultSet);
-        List recordList = new ArrayList(mapList.size());
-
-        Iterator iter = mapList.iterator();
-        while (iter.hasNext()) {
-            Map recordMap = (Map)iter.next();
-            String modelType = (String)recordMap.get(MODEL_TYPE);
-            String subType = (String)recordMap.get(MODEL_SUBTYPE);
-            String name = (String)recordMap.get(MODEL_NAME);
-            String nameInSource = (String)recordMap.get(MODEL_NAME_IN_SOURCE);
-            String desc = (String)recordMap.get(MODEL_DESC);
-            String extPackage = (String)recordMap.get(MODEL_EXT_PACKAGE);
+        List recordList = new ArrayList();
+
+        ResultSetRow row = new ResultSetRow(resultSet);
+        while (row.next()) {
+            String modelType = (String)row.getValue(MODEL_TYPE);
+            String subType = (String)row.getValue(MODEL_SUBTYPE);
+            String name = (String)row.getValue(MODEL_NAME);
+            String nameInSource = (String)row.getValue(MODEL_NAME_IN_SOURCE);
+            String desc = (String)row.getValue(MODEL_DESC);
+            String extPackage = (String)row.getValue(MODEL_EXT_PACKAGE);
             ModelRecord record = null;
             // Check for null modelType or name up front.
             if (modelType == null || name == null) {
@@ -114,18 +113,96 @@ public class RecordGenerator {
     public static List generateEntityRecords( ResultSet resultSet,
                                               MultiStatus status,
                                               IProgressMonitor monitor ) throws SQLException {
-        List mapList = ResultSetTranslator.translate(resultSet);
-        List recordList = new ArrayList(mapList.size());
-
-        Iterator iter = mapList.iterator();
-        while (iter.hasNext()) {
-            Map recordMap = (Map)iter.next();
-            // Get the special mappings - (they are removed since the map is used for setting the features)
-            String metaClassUri = (String)recordMap.remove(METACLASS_URI);
-            String parentPath = (String)recordMap.remove(PARENT_PATH);
-            String parentMetaclassUri = (String)recordMap.remove(PARENT_METACLASS_URI);
-            String name = (String)recordMap.get(ENTITY_NAME);
-            MetamodelEntityRecord record = null;
+        List recordList = new ArrayList();
+
+        EntityRowReader reader = new EntityRowReader(resultSet);
+        while (reader.next()) {
+            MetamodelEntityRecord record = reader.createRecord(new MetamodelEntityRecord(), new HashMap(), status);
+            if (record != null) {
+                recordList.add(record);
+            }
+            if (monitor != null) {
+                monitor.worked(1);
+            }
+        }
+
+        return recordList;
+    }
+
+    /**
+     * Creates an entity with the supplied builder for each row of the supplied resultSet, reading the resultSet once. A single
+     * record and features map are reused for all of the rows, so the builder must not keep a reference to the record it is
+     * given once it has created the entity.
+     * 
+     * @param resultSet the query ResultSet
+     * @param builder the builder used to create the entities
+     * @param status the MultiStatus used to record status
+     * @param monitor the progress monitor; processing stops once it is cancelled
+     * @return the number of rows read
+     * @throws IllegalArgumentException if the input is <code>null</code>
+     * @since 8.1
+     */
+    public static int buildEntities( ResultSet resultSet,
+                                     MetamodelEntityBuilder builder,
+                                     MultiStatus status,
+                                     IProgressMonitor monitor ) throws SQLException {
+        int rowCount = 0;
+
+        EntityRowReader reader = new EntityRowReader(resultSet);
+        MetamodelEntityRecord reusableRecord = new MetamodelEntityRecord();
+        Map reusableFeatures = new HashMap(reader.getColumnCount());
+        while ((monitor == null || !monitor.isCanceled()) && reader.next()) {
+            rowCount++;
+            reusableFeatures.clear();
+            MetamodelEntityRecord record = reader.createRecord(reusableRecord, reusableFeatures, status);
+            if (monitor != null) {
+                monitor.worked(1);
+            }
+            if (record != null) {
+                builder.create(record, monitor);
+            }
+        }
+
+        return rowCount;
+    }
+
+    /**
+     * Reads the rows of an entity ResultSet, telling the special columns apart from the feature columns once.
+     */
+    private static class EntityRowReader {
+        private final ResultSetRow row;
+        private final int metaClassUriIndex;
+        private final int parentPathIndex;
+        private final int parentMetaClassUriIndex;
+        private final int nameIndex;
+
+        EntityRowReader( ResultSet resultSet ) throws SQLException {
+            this.row = new ResultSetRow(resultSet);
+            this.metaClassUriIndex = row.getColumnIndex(METACLASS_URI);
+            this.parentPathIndex = row.getColumnIndex(PARENT_PATH);
+            this.parentMetaClassUriIndex = row.getColumnIndex(PARENT_METACLASS_URI);
+            this.nameIndex = row.getColumnIndex(ENTITY_NAME);
+        }
+
+        int getColumnCount() {
+            return this.row.getColumnCount();
+        }
+
+        boolean next() throws SQLException {
+            return this.row.next();
+        }
+
+        /*
+         * Populate the given record with the current row, or log a warning and return null if the row
+         * has no metaClassUri or parentPath.
+         */
+        MetamodelEntityRecord createRecord( MetamodelEntityRecord record,
+                                            Map featuresMap,
+                                            MultiStatus status ) {
+            String metaClassUri = (String)row.getValue(this.metaClassUriIndex);
+            String parentPath = (String)row.getValue(this.parentPathIndex);
+            String parentMetaclassUri = (String)row.getValue(this.parentMetaClassUriIndex);
+            String name = (String)row.getValue(this.nameIndex);
 
             // Error Check for null metaClassUri or parentPath up front
             if (metaClassUri == null || parentPath == null) {
@@ -136,25 +213,21 @@ public class RecordGenerator {
                 // Log warning message
                 final String msg = getString("unableToCreateEntityRecord", metaClass, name); //$NON-NLS-1$
                 BuilderUtil.addStatus(status, IStatus.WARNING, msg);
-                // Create the record
-            } else {
-                try {
-                    record = new MetamodelEntityRecord(metaClassUri, parentPath, parentMetaclassUri, recordMap);
-                } catch (IllegalArgumentException ex) {
-                    String metaClass = "NullMetaClass"; //$NON-NLS-1$
-                    metaClass = MetaClassUriHelper.getEClassName(metaClassUri);
-                    final String msg = getString("unableToCreateEntityRecord", metaClass, name); //$NON-NLS-1$
-                    BuilderUtil.addStatus(status, IStatus.WARNING, msg, ex);
-                }
-            }
-            if (record != null) {
-                recordList.add(record);
+                return null;
             }
-            if (monitor != null) {
-                monitor.worked(1);
+
+            // The special columns are not features
+            for (int i = 0; i < row.getColumnCount(); i++) {
+                String colName = row.getColumnName(i);
+                if (!METACLASS_URI.equals(colName) && !PARENT_PATH.equals(colName) && !PARENT_METACLASS_URI.equals(colName)) {
+                    featuresMap.put(colName, row.getValue(i));
+                }
             }
+            record.setMetaClassUri(metaClassUri);
+            record.setParentPath(parentPath);
+            record.setParentMetaClassUri(parentMetaclassUri);
+            record.setFeaturesNameValueMap(featuresMap);
+            return record;
         }
-
-        return recordList;
     }
 }
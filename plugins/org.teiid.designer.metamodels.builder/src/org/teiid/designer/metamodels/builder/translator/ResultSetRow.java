@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.metamodels.builder.translator;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import org.teiid.core.designer.util.CoreArgCheck;
+
+/**
+ * A single, reusable row of a ResultSet. The column names are read from the ResultSet MetaData once, and each call to
+ * {@link #next()} reads the values of the next row into the same row, so that a ResultSet can be processed in a single pass
+ * without a Map being created for each of its rows.
+ *
+ * @since 8.1
+ */
+public class ResultSetRow {
+
+    private final ResultSet resultSet;
+    private final String[] columnNames;
+    private final Map columnIndexes;
+    private final Object[] values;
+
+    /**
+     * Constructor
+     * @param resultSet the query ResultSet; may not be null
+     */
+    public ResultSetRow( ResultSet resultSet ) throws SQLException {
+        CoreArgCheck.isNotNull(resultSet);
+        this.resultSet = resultSet;
+
+        // Get the ResultSet column names from ResultSet MetaData
+        ResultSetMetaData metadata = resultSet.getMetaData();
+        int nCols = metadata.getColumnCount();
+        this.columnNames = new String[nCols];
+        this.columnIndexes = new HashMap(nCols);
+        for (int i = 0; i < nCols; i++) {
+            this.columnNames[i] = metadata.getColumnName(i + 1);
+            // The last column with a given name wins, as in a Map of the row
+            this.columnIndexes.put(this.columnNames[i], new Integer(i));
+        }
+        this.values = new Object[nCols];
+    }
+
+    /**
+     * Read the values of the next row of the ResultSet into this row.
+     * @return true if there was a next row, or false if the ResultSet has no more rows
+     */
+    public boolean next() throws SQLException {
+        if (!this.resultSet.next()) {
+            return false;
+        }
+        for (int i = 0; i < this.values.length; i++) {
+            this.values[i] = this.resultSet.getObject(i + 1);
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of columns of the ResultSet
+     */
+    public int getColumnCount() {
+        return this.columnNames.length;
+    }
+
+    /**
+     * @param index the zero-based index of the column
+     * @return the name of the column
+     */
+    public String getColumnName( int index ) {
+        return this.columnNames[index];
+    }
+
+    /**
+     * @param name the column name
+     * @return the zero-based index of the column, or -1 if the ResultSet has no column with the name
+     */
+    public int getColumnIndex( String name ) {
+        Integer index = (Integer)this.columnIndexes.get(name);
+        return index == null ? -1 : index.intValue();
+    }
+
+    /**
+     * @param index the zero-based index of the column, or -1
+     * @return the value of the column in the current row, or null if the index is -1
+     */
+    public Object getValue( int index ) {
+        return index < 0 ? null : this.values[index];
+    }
+
+    /**
+     * @param name the column name
+     * @return the value of the column in the current row, or null if the ResultSet has no column with the name
+     */
+    public Object getValue( String name ) {
+        return getValue(getColumnIndex(name));
+    }
+
+}
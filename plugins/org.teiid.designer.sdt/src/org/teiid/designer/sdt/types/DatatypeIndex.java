@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.sdt.types;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.teiid.core.designer.util.CoreArgCheck;
+
+/**
+ * Hash indexes, by UUID, name, runtime type name and URI fragment, over the datatypes of a {@link WorkspaceDatatypeManager}:
+ * its built-in datatypes and the global simple types of each of its datatype resources.
+ * <p>
+ * The indexes of a datatype resource are dropped on any change to the resource, and rebuilt the next time they are needed; the
+ * indexes of the other resources are kept. The list of datatype resources is the one last supplied to
+ * {@link #setDatatypeResources(List)}. A datatype found in the indexes is checked against its resource before it is returned, so
+ * the indexes never answer with a datatype that has since moved or changed its UUID.
+ * </p>
+ *
+ * @since 8.1
+ */
+final class DatatypeIndex {
+
+    /**
+     * The indexes of one set of datatypes.
+     */
+    private static final class Entry {
+        // Map, keyed on UUID string, of datatypes
+        final Map byUuid = new HashMap();
+        // Map, keyed on URI fragment, of datatypes
+        final Map byHref = new HashMap();
+        // Map, keyed on name, of lists of datatypes
+        final Map byName = new HashMap();
+        // Map, keyed on runtime type name, of lists of datatypes
+        final Map byRuntimeType = new HashMap();
+    }
+
+    private final WorkspaceDatatypeManager manager;
+    private final BuiltInTypesManager builtInTypesMgr;
+
+    // The indexes of the built-in datatypes, which never change
+    private Entry builtIns;
+
+    // The datatype resources, in the order they are searched
+    private List resources = Collections.EMPTY_LIST;
+
+    // Map, keyed on datatype resource, of the indexes of that resource's datatypes
+    private final Map entries = new HashMap();
+
+    // True while this index reads a resource; the changes made by reading it do not drop its indexes
+    private boolean indexing;
+
+    private final EContentAdapter adapter = new EContentAdapter() {
+        @Override
+        public void notifyChanged( final Notification notification ) {
+            super.notifyChanged(notification);
+            if (!notification.isTouch()) {
+                final Object notifier = notification.getNotifier();
+                if (notifier instanceof Resource) {
+                    changed((Resource)notifier);
+                } else if (notifier instanceof EObject && ((EObject)notifier).eResource() != null) {
+                    changed(((EObject)notifier).eResource());
+                }
+            }
+        }
+    };
+
+    /**
+     * @param manager the manager whose datatypes are indexed; may not be null
+     * @param builtInTypesMgr the manager of its built-in datatypes; may not be null
+     */
+    DatatypeIndex( final WorkspaceDatatypeManager manager,
+                   final BuiltInTypesManager builtInTypesMgr ) {
+        CoreArgCheck.isNotNull(manager);
+        CoreArgCheck.isNotNull(builtInTypesMgr);
+        this.manager = manager;
+        this.builtInTypesMgr = builtInTypesMgr;
+    }
+
+    /**
+     * Set the datatype resources to index. The indexes of resources no longer in the list are dropped, and those of the
+     * resources still in the list are kept.
+     *
+     * @param datatypeResources the {@link Resource EMF Resources} holding user-defined datatypes; may not be null
+     */
+    synchronized void setDatatypeResources( final List datatypeResources ) {
+        CoreArgCheck.isNotNull(datatypeResources);
+        if (datatypeResources.equals(this.resources)) {
+            return;
+        }
+        for (final Iterator iter = this.resources.iterator(); iter.hasNext();) {
+            final Resource resource = (Resource)iter.next();
+            if (!datatypeResources.contains(resource)) {
+                this.entries.remove(resource);
+                resource.eAdapters().remove(this.adapter);
+            }
+        }
+        this.resources = new ArrayList(datatypeResources);
+    }
+
+    /**
+     * Drop all the indexes, and stop listening to the datatype resources.
+     */
+    synchronized void dispose() {
+        for (final Iterator iter = this.resources.iterator(); iter.hasNext();) {
+            ((Resource)iter.next()).eAdapters().remove(this.adapter);
+        }
+        this.resources = Collections.EMPTY_LIST;
+        this.entries.clear();
+        this.builtIns = null;
+    }
+
+    /**
+     * @param uuidString the UUID string of the datatype
+     * @return the built-in or user-defined datatype with the UUID, or null if there is none in the indexes
+     */
+    synchronized EObject findByUuid( final String uuidString ) {
+        EObject result = (EObject)getBuiltIns().byUuid.get(uuidString);
+        if (result != null) {
+            return result;
+        }
+        for (final Iterator iter = this.resources.iterator(); iter.hasNext();) {
+            final Resource resource = (Resource)iter.next();
+            result = (EObject)getEntry(resource).byUuid.get(uuidString);
+            if (result != null) {
+                if (result.eResource() == resource && uuidString.equals(this.manager.getUuidString(result))) {
+                    return result;
+                }
+                changed(resource);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param uriFragment the URI fragment of the datatype within its resource
+     * @return the first user-defined datatype, in the order of the datatype resources, with the URI fragment; or null if there is
+     *         none in the indexes
+     */
+    synchronized EObject findByHref( final String uriFragment ) {
+        for (final Iterator iter = this.resources.iterator(); iter.hasNext();) {
+            final Resource resource = (Resource)iter.next();
+            final EObject result = (EObject)getEntry(resource).byHref.get(uriFragment);
+            if (result != null) {
+                if (result.eResource() == resource && uriFragment.equals(resource.getURIFragment(result))) {
+                    return result;
+                }
+                changed(resource);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param name the name of the datatypes
+     * @return the built-in and user-defined datatypes with the name (never null)
+     */
+    synchronized EObject[] findByName( final String name ) {
+        final List result = new ArrayList();
+        addAll(getBuiltIns().byName, name, result);
+        for (final Iterator iter = this.resources.iterator(); iter.hasNext();) {
+            addAll(getEntry((Resource)iter.next()).byName, name, result);
+        }
+        return (EObject[])result.toArray(new EObject[result.size()]);
+    }
+
+    /**
+     * @param runtimeTypeName the runtime type name of the datatypes
+     * @return the built-in and user-defined datatypes with the runtime type (never null)
+     */
+    synchronized EObject[] findByRuntimeType( final String runtimeTypeName ) {
+        final List result = new ArrayList();
+        addAll(getBuiltIns().byRuntimeType, runtimeTypeName, result);
+        for (final Iterator iter = this.resources.iterator(); iter.hasNext();) {
+            addAll(getEntry((Resource)iter.next()).byRuntimeType, runtimeTypeName, result);
+        }
+        return (EObject[])result.toArray(new EObject[result.size()]);
+    }
+
+    private static void addAll( final Map index,
+                                final String key,
+                                final List result ) {
+        final List datatypes = (List)index.get(key);
+        if (datatypes != null) {
+            for (final Iterator iter = datatypes.iterator(); iter.hasNext();) {
+                final Object datatype = iter.next();
+                if (!result.contains(datatype)) {
+                    result.add(datatype);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop the indexes of a changed resource.
+     */
+    synchronized void changed( final Resource resource ) {
+        if (!this.indexing) {
+            this.entries.remove(resource);
+        }
+    }
+
+    private Entry getBuiltIns() {
+        if (this.builtIns == null) {
+            this.builtIns = createEntry(this.builtInTypesMgr.getAllDatatypes(), false);
+        }
+        return this.builtIns;
+    }
+
+    private Entry getEntry( final Resource resource ) {
+        Entry entry = (Entry)this.entries.get(resource);
+        if (entry == null) {
+            if (!resource.eAdapters().contains(this.adapter)) {
+                resource.eAdapters().add(this.adapter);
+            }
+            this.indexing = true;
+            try {
+                entry = createEntry(this.manager.getDatatypes(resource), true);
+            } finally {
+                this.indexing = false;
+            }
+            this.entries.put(resource, entry);
+        }
+        return entry;
+    }
+
+    private Entry createEntry( final EObject[] datatypes,
+                               final boolean indexHrefs ) {
+        final Entry entry = new Entry();
+        for (int i = 0; i < datatypes.length; ++i) {
+            final EObject datatype = datatypes[i];
+            if (datatype == null) {
+                continue;
+            }
+            final String uuidString = this.manager.getUuidString(datatype);
+            if (uuidString != null && !entry.byUuid.containsKey(uuidString)) {
+                entry.byUuid.put(uuidString, datatype);
+            }
+            if (indexHrefs && datatype.eResource() != null) {
+                final String uriFragment = datatype.eResource().getURIFragment(datatype);
+                if (uriFragment != null && !entry.byHref.containsKey(uriFragment)) {
+                    entry.byHref.put(uriFragment, datatype);
+                }
+            }
+            put(entry.byName, this.manager.getName(datatype), datatype);
+            put(entry.byRuntimeType, this.manager.getRuntimeTypeName(datatype), datatype);
+        }
+        return entry;
+    }
+
+    private static void put( final Map index,
+                             final String key,
+                             final EObject datatype ) {
+        if (key != null) {
+            List datatypes = (List)index.get(key);
+            if (datatypes == null) {
+                datatypes = new ArrayList(1);
+                index.put(key, datatypes);
+            }
+            datatypes.add(datatype);
+        }
+    }
+}
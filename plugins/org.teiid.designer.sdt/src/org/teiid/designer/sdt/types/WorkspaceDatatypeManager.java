@@ -47,6 +47,7 @@ import org.teiid.designer.sdt.ModelerSdtPlugin;
 public class WorkspaceDatatypeManager extends AbstractDatatypeManager {
 
     private BuiltInTypesManager builtInTypesMgr;
+    private DatatypeIndex index;
 
     // ==================================================================================
     // C O N S T R U C T O R S
@@ -71,6 +72,10 @@ public class WorkspaceDatatypeManager extends AbstractDatatypeManager {
     private void init() throws ModelerCoreException {
         this.builtInTypesMgr = new BuiltInTypesManager();
         this.builtInTypesMgr.initialize(this.getContainer());
+        if (this.index != null) {
+            this.index.dispose();
+        }
+        this.index = new DatatypeIndex(this, this.builtInTypesMgr);
     }
 
     // ==================================================================================
@@ -472,6 +477,38 @@ public class WorkspaceDatatypeManager extends AbstractDatatypeManager {
         return null;
     }
 
+    /**
+     * Return the built-in and user-defined datatypes with the specified name, found through the datatype indexes rather than by
+     * scanning {@link #getAllDatatypes()}.
+     *
+     * @param name the datatype name
+     * @return the datatypes with the name; never null
+     * @since 8.1
+     */
+    public EObject[] findDatatypesByName( final String name ) {
+        if (name == null) {
+            return new EObject[0];
+        }
+        this.index.setDatatypeResources(getDatatypeResources());
+        return this.index.findByName(name);
+    }
+
+    /**
+     * Return the built-in and user-defined datatypes with the specified runtime type, found through the datatype indexes rather
+     * than by scanning {@link #getAllDatatypes()}.
+     *
+     * @param runtimeTypeName the runtime type name
+     * @return the datatypes with the runtime type; never null
+     * @since 8.1
+     */
+    public EObject[] findDatatypesByRuntimeTypeName( final String runtimeTypeName ) {
+        if (runtimeTypeName == null) {
+            return new EObject[0];
+        }
+        this.index.setDatatypeResources(getDatatypeResources());
+        return this.index.findByRuntimeType(runtimeTypeName);
+    }
+
     /**
      * @see org.teiid.designer.core.types.DatatypeManager#getRuntimeTypeJavaClassName(java.lang.String)
      */
@@ -698,8 +735,9 @@ public class WorkspaceDatatypeManager extends AbstractDatatypeManager {
 
         // The identifier is a UUID string, check the proxy manager first ...
         EObject result = null;
+        String uuidString = null;
         if (containsUuidPattern(id)) {
-            String uuidString = extractUuidString(id);
+            uuidString = extractUuidString(id);
             final ResourceSet rsrcSet = this.getContainer();
             Container container = null;
             if (rsrcSet instanceof Container) {
@@ -718,19 +756,17 @@ public class WorkspaceDatatypeManager extends AbstractDatatypeManager {
             if (result != null) {
                 return (result instanceof XSDSimpleTypeDefinition ? result : null);
             }
-            // Else check all known datatypes for this uuid
-            EObject[] allDatatypes = this.getAllDatatypes();
-            for (int i = 0; i != allDatatypes.length; ++i) {
-                final EObject datatype = allDatatypes[i];
-                final SqlDatatypeAspect aspect = getSqlAspect(datatype);
-                if (aspect != null && uuidString.equals(aspect.getUuidString(datatype))) {
-                    return datatype;
-                }
-            }
+        }
+
+        // Else check the index of all known datatypes for this uuid or href, once it covers any datatype models added since
+        final List resources = getDatatypeResources();
+        this.index.setDatatypeResources(resources);
+        result = (uuidString != null ? this.index.findByUuid(uuidString) : this.index.findByHref(id));
+        if (result != null) {
+            return result;
         }
 
         // If not found, try to lookup the EObject instance in the resource set ...
-        List resources = getDatatypeResources();
         final Iterator iter = resources.iterator();
         while (iter.hasNext()) {
             final Resource emfResource = (Resource)iter.next();
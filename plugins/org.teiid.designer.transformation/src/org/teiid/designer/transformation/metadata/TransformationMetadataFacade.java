@@ -10,14 +10,17 @@ package org.teiid.designer.transformation.metadata;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import org.teiid.core.designer.util.ConcurrentLRUCache;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.core.designer.util.CoreStringUtil;
-import org.teiid.core.designer.util.LRUCache;
 import org.teiid.designer.core.index.IndexConstants;
 import org.teiid.designer.metadata.runtime.ColumnRecord;
 import org.teiid.designer.metadata.runtime.ColumnSetRecord.ColumnSetRecordProperties;
@@ -58,10 +61,11 @@ public class TransformationMetadataFacade implements IQueryMetadataInterface {
     private static final String GROUP_INFO_CACHE_PREFIX = "groupinfo/"; //$NON-NLS-1$
 
     private final TransformationMetadata metadata;
-    private final Map<String, Object> nameToIdCache;
-    private final Map<Object, MetadataRecord> idToRecordCache;
-    private final Map<String, String> partialNameToFullNameCache;
-    private final Map groupInfoCache = Collections.synchronizedMap(new LRUCache(GROUP_INFO_CACHE_SIZE));
+    private final ConcurrentLRUCache<String, Object> nameToIdCache;
+    private final ConcurrentLRUCache<Object, MetadataRecord> idToRecordCache;
+    private final ConcurrentLRUCache<String, String> partialNameToFullNameCache;
+    private final ConcurrentMap<String, FutureTask<Collection>> partialNameSearches = new ConcurrentHashMap<String, FutureTask<Collection>>();
+    private final ConcurrentLRUCache<String, Object> groupInfoCache = new ConcurrentLRUCache<String, Object>(GROUP_INFO_CACHE_SIZE);
 
     public TransformationMetadataFacade( final TransformationMetadata delegate ) {
         this(delegate, DEFAULT_SPACELIMIT);
@@ -71,10 +75,9 @@ public class TransformationMetadataFacade implements IQueryMetadataInterface {
                                          int cacheSize ) {
         CoreArgCheck.isNotNull(delegate);
         this.metadata = delegate;
-        this.nameToIdCache = Collections.synchronizedMap(new LRUCache<String, Object>(cacheSize));
-        this.idToRecordCache = Collections.synchronizedMap(new LRUCache<Object, MetadataRecord>(cacheSize));
-        this.partialNameToFullNameCache = Collections.synchronizedMap(new LRUCache<String, String>(
-                                                                                                   DEFAULT_SPACELIMIT_PARTIAL_NAME_CACHE));
+        this.nameToIdCache = new ConcurrentLRUCache<String, Object>(cacheSize);
+        this.idToRecordCache = new ConcurrentLRUCache<Object, MetadataRecord>(cacheSize);
+        this.partialNameToFullNameCache = new ConcurrentLRUCache<String, String>(DEFAULT_SPACELIMIT_PARTIAL_NAME_CACHE);
     }
 
     // ==================================================================================
@@ -83,68 +86,105 @@ public class TransformationMetadataFacade implements IQueryMetadataInterface {
 
     @Override
 	public Object getElementID( final String elementName ) throws Exception {
-        // Check the cache first ...
-        MetadataRecord record = getRecordByName(elementName, IndexConstants.RECORD_TYPE.COLUMN);
-
-        // If not found in the cache then retrieve it from the index
-        if (record == null) {
-            record = (MetadataRecord)this.metadata.getElementID(elementName);
-            // Update the cache ...
-            if (record != null) {
-                updateNameToIdCache(elementName, IndexConstants.RECORD_TYPE.COLUMN, record.getUUID());
-                updateIdToRecordCache(record.getUUID(), record);
+        // Check the cache first, if not found in the cache then retrieve it from the index
+        return getRecordByName(elementName, IndexConstants.RECORD_TYPE.COLUMN, new RecordLookup() {
+            @Override
+            public MetadataRecord lookup() throws Exception {
+                return (MetadataRecord)metadata.getElementID(elementName);
             }
-        }
-        return record;
+        });
     }
 
     @Override
 	public Object getGroupID( final String groupName ) throws Exception {
-        // Check the cache first ...
-        MetadataRecord record = getRecordByName(groupName, IndexConstants.RECORD_TYPE.TABLE);
-
-        // If not found in the cache then Sretrieve it from the index
-        if (record == null) {
-            record = (MetadataRecord)this.metadata.getGroupID(groupName);
-            // Update the cache ...
-            if (record != null) {
-                updateNameToIdCache(groupName, IndexConstants.RECORD_TYPE.TABLE, record.getUUID());
-                updateIdToRecordCache(record.getUUID(), record);
+        // Check the cache first, if not found in the cache then retrieve it from the index
+        return getRecordByName(groupName, IndexConstants.RECORD_TYPE.TABLE, new RecordLookup() {
+            @Override
+            public MetadataRecord lookup() throws Exception {
+                return (MetadataRecord)metadata.getGroupID(groupName);
             }
-        }
-        return record;
+        });
     }
 
     @Override
 	public Collection getGroupsForPartialName( final String partialGroupName )
         throws Exception {
-        // Check the cache first ...
-        String fullName = getFullNameByPartialName(partialGroupName, IndexConstants.RECORD_TYPE.TABLE);
+        CoreArgCheck.isNotZeroLength(partialGroupName);
 
-        // If not found in the cache then retrieve it from the index
-        if (fullName == null) {
-            synchronized (partialNameToFullNameCache) {
-                // look up the cache again, might have been updated by
-                // the thread that just released the lock
-                fullName = getFullNameByPartialName(partialGroupName, IndexConstants.RECORD_TYPE.TABLE);
-                if (fullName == null) {
-                    // search for the records that match the partial name
-                    Collection partialNameRecords = this.metadata.getGroupsForPartialName(partialGroupName);
-                    // Update the cache only if there is one matching record...otherwise its a failure case (ambiguous)
-                    if (partialNameRecords != null && partialNameRecords.size() == 1) {
-                        updatePartialNameToFullName(partialGroupName,
-                                                    (String)partialNameRecords.iterator().next(),
-                                                    IndexConstants.RECORD_TYPE.TABLE);
-                    }
-                    return partialNameRecords;
+        // Check the cache first, if not found in the cache then retrieve it from the index
+        final String key = getLookupKey(partialGroupName, IndexConstants.RECORD_TYPE.TABLE);
+        String fullName = this.partialNameToFullNameCache.get(key);
+        if (fullName != null) {
+            return toCollection(fullName);
+        }
+
+        // Concurrent lookups of the same partial name wait for, and share, the records found by the one searching the index
+        final FutureTask<Collection> search = new FutureTask<Collection>(new Callable<Collection>() {
+            @Override
+            public Collection call() throws Exception {
+                // another lookup may have finished between our miss and registering this search
+                String cachedName = partialNameToFullNameCache.get(key);
+                if (cachedName != null) {
+                    return toCollection(cachedName);
+                }
+                // search for the records that match the partial name
+                Collection partialNameRecords = metadata.getGroupsForPartialName(partialGroupName);
+                // Update the cache only if there is one matching record...otherwise its a failure case (ambiguous)
+                if (partialNameRecords != null && partialNameRecords.size() == 1) {
+                    partialNameToFullNameCache.put(key, (String)partialNameRecords.iterator().next());
                 }
+                return partialNameRecords;
             }
+        });
+        FutureTask<Collection> running = this.partialNameSearches.putIfAbsent(key, search);
+        if (running == null) {
+            running = search;
+            try {
+                search.run();
+            } finally {
+                // the name is cached before the search is removed, so later lookups find one or the other
+                this.partialNameSearches.remove(key, search);
+            }
+        }
+        Collection partialNameRecords = getSearchResult(running);
+        if (running != search && partialNameRecords != null) {
+            // each caller gets its own copy of the shared records
+            return new ArrayList(partialNameRecords);
         }
+        return partialNameRecords;
+    }
+
+    private static Collection toCollection( final String fullName ) {
         Collection partialNameRecords = new ArrayList(1);
         partialNameRecords.add(fullName);
         return partialNameRecords;
     }
 
+    /**
+     * Wait for the given search to finish and return its records, rethrowing the exception it failed with.
+     */
+    private static Collection getSearchResult( final FutureTask<Collection> search ) throws Exception {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    return search.get();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception)cause;
+            if (cause instanceof Error) throw (Error)cause;
+            throw e;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     @Override
 	public Object getModelID( final Object groupOrElementID ) throws Exception {
         CoreArgCheck.isInstanceOf(MetadataRecord.class, groupOrElementID);
@@ -211,20 +251,20 @@ public class TransformationMetadataFacade implements IQueryMetadataInterface {
         ColumnRecord columnRecord = (ColumnRecord)elementID;
 
         String tableUUID = columnRecord.getParentUUID();
-
-        // Check the cache first ...
-        MetadataRecord record = getRecordByID(tableUUID);
-
-        // If not found in the cache then retrieve it from the index
-        if (record == null) {
-            record = (MetadataRecord)this.metadata.getGroupID(tableUUID);
-            // Update the cache ...
-            if (record != null) {
-                updateNameToIdCache(record.getFullName(), record.getRecordType(), record.getUUID());
-                updateIdToRecordCache(record.getUUID(), record);
+        CoreArgCheck.isNotNull(tableUUID);
+
+        // Check the cache first, if not found in the cache then retrieve it from the index
+        return this.idToRecordCache.get(tableUUID, new ConcurrentLRUCache.Loader<Object, MetadataRecord>() {
+            @Override
+            public MetadataRecord load( final Object id ) throws Exception {
+                MetadataRecord record = (MetadataRecord)metadata.getGroupID((String)id);
+                // Update the name cache ...
+                if (record != null) {
+                    updateNameToIdCache(record.getFullName(), record.getRecordType(), record.getUUID());
+                }
+                return record;
             }
-        }
-        return record;
+        });
     }
 
     @Override
@@ -233,26 +273,26 @@ public class TransformationMetadataFacade implements IQueryMetadataInterface {
 
         IStoredProcedureInfo procInfo = null;
 
-        // Check the cache first ...
-        MetadataRecord record = getRecordByName(fullyQualifiedProcedureName, IndexConstants.RECORD_TYPE.CALLABLE);
-
-        // If not found in the cache then retrieve it from the index
-        if (record == null) {
-            // lookup the indexes for the record
-            procInfo = this.metadata.getStoredProcedureInfoForProcedure(fullyQualifiedProcedureName);
-            if (procInfo != null) {
+        // Check the cache first, if not found in the cache then retrieve it from the index
+        RecordLookup lookup = new RecordLookup() {
+            @Override
+            public MetadataRecord lookup() throws Exception {
+                // lookup the indexes for the record
+                IStoredProcedureInfo info = metadata.getStoredProcedureInfoForProcedure(fullyQualifiedProcedureName);
+                if (info == null) {
+                    return null;
+                }
                 // a record should always be found on the procInfo
-                record = (MetadataRecord)procInfo.getProcedureID();
+                MetadataRecord procRecord = (MetadataRecord)info.getProcedureID();
                 // update the cache on the record with the procIndo object
-                record.setPropertyValue(ProcedureRecordProperties.STORED_PROC_INFO_FOR_RECORD, procInfo);
-                // Update the cache ... with procedure info
-                updateNameToIdCache(fullyQualifiedProcedureName, IndexConstants.RECORD_TYPE.CALLABLE, record.getUUID());
-                updateIdToRecordCache(record.getUUID(), record);
+                procRecord.setPropertyValue(ProcedureRecordProperties.STORED_PROC_INFO_FOR_RECORD, info);
+                return procRecord;
             }
-        }
+        };
+        MetadataRecord record = getRecordByName(fullyQualifiedProcedureName, IndexConstants.RECORD_TYPE.CALLABLE, lookup);
 
         // found record
-        if (procInfo == null && record != null) {
+        if (record != null) {
             // if the record is found it should have been update with the procInfo object
             procInfo = (IStoredProcedureInfo)record.getPropertyValue(ProcedureRecordProperties.STORED_PROC_INFO_FOR_RECORD);
             // this should never occur but if procInfo cannot be found on the record
@@ -664,35 +704,73 @@ public class TransformationMetadataFacade implements IQueryMetadataInterface {
         return this.metadata;
     }
 
+    /**
+     * Return the cache of record identifiers keyed by record name, to allow its hit, miss and eviction counts to be inspected.
+     * 
+     * @return the name cache
+     * @since 8.1
+     */
+    public ConcurrentLRUCache<String, Object> getNameToIdCache() {
+        return this.nameToIdCache;
+    }
+
+    /**
+     * Return the cache of records keyed by identifier, to allow its hit, miss and eviction counts to be inspected.
+     * 
+     * @return the record cache
+     * @since 8.1
+     */
+    public ConcurrentLRUCache<Object, MetadataRecord> getIdToRecordCache() {
+        return this.idToRecordCache;
+    }
+
     // ==================================================================================
     // P R I V A T E M E T H O D S
     // ==================================================================================
 
+    /**
+     * Finds the record for the name in the caches, using the lookup to retrieve it from the index if it is not cached. When
+     * several threads miss the same name at once only one of them runs the lookup, the others wait for its result.
+     */
     private MetadataRecord getRecordByName( final String fullname,
-                                            final char recordType ) {
+                                            final char recordType,
+                                            final RecordLookup lookup ) throws Exception {
         CoreArgCheck.isNotZeroLength(fullname);
 
         // Check the cache for the identifier corresponding to this name ...
-        Object id = this.nameToIdCache.get(getLookupKey(fullname, recordType));
+        final MetadataRecord[] loaded = new MetadataRecord[1];
+        Object id = this.nameToIdCache.get(getLookupKey(fullname, recordType), new ConcurrentLRUCache.Loader<String, Object>() {
+            @Override
+            public Object load( final String key ) throws Exception {
+                MetadataRecord record = lookup.lookup();
+                if (record == null) {
+                    return null;
+                }
+                // Update the record cache before the identifier becomes visible to other threads ...
+                updateIdToRecordCache(record.getUUID(), record);
+                loaded[0] = record;
+                return record.getUUID();
+            }
+        });
 
-        // If the identifier was found then check the cache for the record object for this identifier ...
-        if (id != null) {
-            return getRecordByID(id);
+        // this thread retrieved the record from the index
+        if (loaded[0] != null) {
+            return loaded[0];
+        }
+        if (id == null) {
+            return null;
         }
-        return null;
-    }
-
-    private String getFullNameByPartialName( final String partialName,
-                                             final char recordType ) {
-        CoreArgCheck.isNotZeroLength(partialName);
-
-        // Check the cache for the identifier corresponding to this partialname ...
-        return this.partialNameToFullNameCache.get(getLookupKey(partialName, recordType));
-    }
 
-    private MetadataRecord getRecordByID( final Object id ) {
-        CoreArgCheck.isNotNull(id);
-        return this.idToRecordCache.get(id);
+        // If the identifier was found then check the cache for the record object for this identifier ...
+        MetadataRecord record = this.idToRecordCache.get(id);
+        if (record == null) {
+            // the record has been evicted since its identifier was cached
+            record = lookup.lookup();
+            if (record != null) {
+                updateIdToRecordCache(record.getUUID(), record);
+            }
+        }
+        return record;
     }
 
     private void updateNameToIdCache( final String fullName,
@@ -710,14 +788,6 @@ public class TransformationMetadataFacade implements IQueryMetadataInterface {
         }
     }
 
-    private void updatePartialNameToFullName( final String partialName,
-                                              final String fullName,
-                                              final char recordType ) {
-        if (!CoreStringUtil.isEmpty(partialName) && !CoreStringUtil.isEmpty(fullName)) {
-            this.partialNameToFullNameCache.put(getLookupKey(partialName, recordType), fullName);
-        }
-    }
-
     private String getLookupKey( final String name,
                                  final char recordType ) {
         return name.toUpperCase() + recordType;
@@ -916,4 +986,10 @@ public class TransformationMetadataFacade implements IQueryMetadataInterface {
         return null;
     }
 
+    /**
+     * Retrieves a record from the index when it is not found in the caches.
+     */
+    private interface RecordLookup {
+        MetadataRecord lookup() throws Exception;
+    }
 }
@@ -10,7 +10,7 @@ package org.teiid.designer.transformation.util;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EventObject;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -45,11 +45,21 @@ import org.teiid.designer.transformation.validation.TransformationValidator;
  */
 public class SqlMappingRootCache implements ISQLConstants {
 
-    // Caches for each command type
-    private static HashMap selectSqlCache = new HashMap();
-    private static HashMap insertSqlCache = new HashMap();
-    private static HashMap updateSqlCache = new HashMap();
-    private static HashMap deleteSqlCache = new HashMap();
+    /**
+     * The system property that sets the maximum number of mapping roots whose status is cached.
+     * @since 8.1
+     */
+    public static final String STATUS_CACHE_SIZE_PROPERTY = "org.teiid.designer.transformation.statusCacheSize"; //$NON-NLS-1$
+
+    /**
+     * The default maximum number of mapping roots whose status is cached.
+     * @since 8.1
+     */
+    public static final int DEFAULT_STATUS_CACHE_SIZE = 20000;
+
+    // Cached status for each command type, indexed by source and target group
+    private static final SqlMappingRootStatusCache statusCache = new SqlMappingRootStatusCache(
+                                                                 Integer.getInteger(STATUS_CACHE_SIZE_PROPERTY, DEFAULT_STATUS_CACHE_SIZE).intValue());
 
     /** List of listeners registered for cache events */
     private static List eventListeners;
@@ -93,10 +103,7 @@ public class SqlMappingRootCache implements ISQLConstants {
      * Invalidate the entire cache for all command types and all transformation mappings roots 
      */
     public static void invalidateCache() {
-        getCache(QueryValidator.SELECT_TRNS).clear();
-        getCache(QueryValidator.INSERT_TRNS).clear();
-        getCache(QueryValidator.UPDATE_TRNS).clear();
-        getCache(QueryValidator.DELETE_TRNS).clear();
+        statusCache.clear();
     }
 
     /**
@@ -151,51 +158,22 @@ public class SqlMappingRootCache implements ISQLConstants {
      * time status is requested, the query will need to be parsed/resolved/validated.
      */
     public static void invalidateRootsWithSourceGroups(final Set sourceGroups) {
-        // Go thru all the cached select MappingRoots
-        
-        HashMap currentSelectSqlCache = new HashMap(getCache(QueryValidator.SELECT_TRNS));
-
-        Iterator selectIter = currentSelectSqlCache.keySet().iterator();
+        // Source groups are indexed as procedures rather than procedure result sets
+        Set groups = new HashSet(sourceGroups.size());
+        Iterator grpIter = sourceGroups.iterator();
+        while(grpIter.hasNext()) {
+            Object sourceGroup = grpIter.next();
+            if(TransformationHelper.isSqlProcedureResultSet(sourceGroup)) {
+                sourceGroup = TransformationHelper.getSqlProcedureForResultSet(sourceGroup);
+            }
+            groups.add(sourceGroup);
+        }
 
-        while (selectIter.hasNext()) {
-            EObject selectRoot = (EObject)selectIter.next();
-            boolean invalidateRoot = false;
-            Iterator grpIter = sourceGroups.iterator();
-            while(grpIter.hasNext()) {
-                Object sourceGroup = grpIter.next();
-                if(TransformationHelper.isSqlProcedureResultSet(sourceGroup)) {
-                    sourceGroup = TransformationHelper.getSqlProcedureForResultSet(sourceGroup);
-                }
-                if(containsStatus(selectRoot,QueryValidator.SELECT_TRNS)) {
-                    SqlTransformationResult selectStatus = getStatus(selectRoot,QueryValidator.SELECT_TRNS,false);
-                    if(selectStatus != null && selectStatus.hasSourceGroup(sourceGroup)) {
-                        invalidateRoot = true;
-                        break;
-                    }
-                    if(containsStatus(selectRoot,QueryValidator.INSERT_TRNS)) {
-                        SqlTransformationResult insertStatus = getStatus(selectRoot,QueryValidator.INSERT_TRNS,false);
-                            if(insertStatus != null && insertStatus.hasSourceGroup(sourceGroup)) {
-                                invalidateRoot = true;
-                                break;
-                            }
-                        }
-                    if(containsStatus(selectRoot,QueryValidator.UPDATE_TRNS)) {
-                        SqlTransformationResult updateStatus = getStatus(selectRoot,QueryValidator.UPDATE_TRNS,false);
-                            if(updateStatus != null && updateStatus.hasSourceGroup(sourceGroup)) {
-                                invalidateRoot = true;
-                                break;
-                            }
-                        }
-                    if(containsStatus(selectRoot,QueryValidator.DELETE_TRNS)) {
-                        SqlTransformationResult deleteStatus = getStatus(selectRoot,QueryValidator.DELETE_TRNS,false);
-                            if(deleteStatus != null && deleteStatus.hasSourceGroup(sourceGroup)) {
-                                invalidateRoot = true;
-                                break;
-                            }
-                        }
-                    }
-                }
-            if(invalidateRoot) {
+        // Only visit the cached MappingRoots that have one of the groups as a source
+        Iterator rootIter = statusCache.getRootsWithSourceGroups(groups).iterator();
+        while (rootIter.hasNext()) {
+            EObject selectRoot = (EObject)rootIter.next();
+            if(containsStatus(selectRoot,QueryValidator.SELECT_TRNS)) {
                 invalidateSelectStatus(selectRoot,true,null);
             }
         }
@@ -206,17 +184,12 @@ public class SqlMappingRootCache implements ISQLConstants {
      * the next time status is requested, the query will need to be parsed/resolved/validated.
      */
     public static void invalidateRootsWithTargetGroups(final Set groups) {
-        // Go thru all the cached select MappingRoots
-
-        HashMap currentSelectSqlCache = new HashMap(getCache(QueryValidator.SELECT_TRNS));
-        Iterator selectIter = currentSelectSqlCache.keySet().iterator();
-        while (selectIter.hasNext()) {
-            EObject mappingRoot = (EObject)selectIter.next();
+        // Only visit the cached MappingRoots that target one of the groups
+        Iterator rootIter = statusCache.getRootsWithTargets(groups).iterator();
+        while (rootIter.hasNext()) {
+            EObject mappingRoot = (EObject)rootIter.next();
             if(containsStatus(mappingRoot,QueryValidator.SELECT_TRNS)) {
-                EObject targetGrp = TransformationHelper.getTransformationLinkTarget(mappingRoot);
-                if(groups!=null && groups.contains(targetGrp)) {
-                    invalidateSelectStatus(mappingRoot,true,null);
-                }
+                invalidateSelectStatus(mappingRoot,true,null);
             }
         }
     }
@@ -239,8 +212,7 @@ public class SqlMappingRootCache implements ISQLConstants {
 			}
     		
 	        // Iterate thru all the cached SELECT MappingRoots
-	        HashMap currentSelectSqlCache = new HashMap(getCache(QueryValidator.SELECT_TRNS));
-	        Iterator selectIter = currentSelectSqlCache.keySet().iterator();
+	        Iterator selectIter = statusCache.getSelectRoots().iterator();
 	        while (selectIter.hasNext()) {
 	            EObject mappingRoot = (EObject)selectIter.next();
             	// If mapping root is within a model in the supplied project, invalidate it.
@@ -260,9 +232,7 @@ public class SqlMappingRootCache implements ISQLConstants {
      */
     public static void invalidateRootsOnProjectOrModelRemove() {
         // Go thru all the cached select MappingRoots
-        HashMap currentSelectSqlCache = new HashMap(getCache(QueryValidator.SELECT_TRNS));
-
-        Iterator selectIter = currentSelectSqlCache.keySet().iterator();
+        Iterator selectIter = statusCache.getSelectRoots().iterator();
 
         while (selectIter.hasNext()) {
             EObject selectRoot = (EObject)selectIter.next();
@@ -477,11 +447,9 @@ public class SqlMappingRootCache implements ISQLConstants {
                                             final String userSql) {
         boolean isDifferent = true;
         if(transMappingRoot!=null && TransformationHelper.isSqlTransformationMappingRoot(transMappingRoot)) {
-            if(containsStatus((EObject)transMappingRoot,cmdType)) {
-                // get status from the cache
-                HashMap cache = getCache(cmdType);
-                SqlTransformationResult status = (SqlTransformationResult)cache.get(transMappingRoot);
-                
+            // get status from the cache; a single get, since the status may be evicted at any time
+            SqlTransformationResult status = statusCache.get((EObject)transMappingRoot,cmdType);
+            if(status != null) {
                 // check whether the status is a uuid status or user status when doing comparison
                 String cachedSql = status.getSqlString();
                 // If uuid status, use uuidSql for the comparison
@@ -701,8 +669,7 @@ public class SqlMappingRootCache implements ISQLConstants {
      * @return 'true' if the cache contains a result, 'false' if not.
      */
     public static boolean containsStatus(final EObject transMappingRoot,final int cmdType) {
-        HashMap cache = getCache(cmdType);
-        return cache.containsKey(transMappingRoot);
+        return statusCache.contains(transMappingRoot,cmdType);
     }
 
     /**
@@ -715,8 +682,7 @@ public class SqlMappingRootCache implements ISQLConstants {
     	//	EObject target = TransformationHelper.getTransformationTarget(transMappingRoot);
     	//	System.out.println(" ===>> SqlMappingRootCache.removeStatus(TYPE=" + cmdType + ")  Target = " + ModelerCore.getModelEditor().getName(target));
     	//}
-        HashMap cache = getCache(cmdType);
-        cache.remove(transMappingRoot);
+        statusCache.remove(transMappingRoot,cmdType);
     }
 
     /**
@@ -772,13 +738,12 @@ public class SqlMappingRootCache implements ISQLConstants {
      * Add a SELECT status object for a mappingRoot
      */
     public static void setStatus(final EObject transMappingRoot,final int cmdType,final SqlTransformationResult status) {
-        HashMap cache = getCache(cmdType);
         if(status!=null ) {
         	//if( cmdType == QueryValidator.SELECT_TRNS) {
         	//	EObject target = TransformationHelper.getTransformationTarget(transMappingRoot);
         	//	System.out.println(" ===>> SqlMappingRootCache.setStatus(TYPE=" + cmdType + ")  Target = " + ModelerCore.getModelEditor().getName(target));
         	//}
-            cache.put(transMappingRoot,status);
+            statusCache.put(transMappingRoot,cmdType,status);
             
             notifyEventListeners(new SqlTransformationStatusChangeEvent(transMappingRoot, new Object(), false));
         } else {
@@ -807,24 +772,8 @@ public class SqlMappingRootCache implements ISQLConstants {
     private static synchronized SqlTransformationResult getStatus(final EObject transMappingRoot, final int cmdType, 
                                                                   final boolean restrictSearch,
                                                                   final ValidationContext context) {
-        SqlTransformationResult statusResult = null;
-
-        // If there's a cached Status, try to use it
-        if(containsStatus(transMappingRoot,cmdType)) {
-            
-            // get status from the cache
-            HashMap cache = getCache(cmdType);
-            SqlTransformationResult status = (SqlTransformationResult)cache.get(transMappingRoot);
-            
-            // If statusType is EITHER, use the cached status
-            // If statusType is USER, check that the cached status is not a UUID Status
-            if(status != null) {
-//                if(statusType==EITHER_STATUS || 
-//                   statusType==USER_STATUS && !status.isUUIDStatus()) {
-                    statusResult = status;
-//                }
-            }
-        }
+        // If there's a cached Status, use it.  A single get, since the status may be evicted at any time
+        SqlTransformationResult statusResult = statusCache.get(transMappingRoot,cmdType);
         
         // If a cached status not found, create it
         if(statusResult==null) {
@@ -841,24 +790,6 @@ public class SqlMappingRootCache implements ISQLConstants {
         return statusResult;
     }
 
-    /**
-     * Get the Cache for the supplied command type
-     */
-    private static HashMap getCache(final int cmdType) {
-        switch (cmdType) {
-            case QueryValidator.SELECT_TRNS:
-                return selectSqlCache;
-            case QueryValidator.INSERT_TRNS:
-                return insertSqlCache;
-            case QueryValidator.UPDATE_TRNS:
-				return updateSqlCache;
-            case QueryValidator.DELETE_TRNS:
-				return deleteSqlCache;
-            default:
-                return null;
-        }
-    }
-
 	/**
 	 * Get the SQL string, given a SqlTransformationMappingRoot and a command type
 	 * @param transMappingRoot the transformation mapping root
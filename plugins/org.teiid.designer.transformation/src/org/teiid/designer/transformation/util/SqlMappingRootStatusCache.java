@@ -0,0 +1,294 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.transformation.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.mapping.MappingRoot;
+import org.teiid.designer.core.query.QueryValidator;
+import org.teiid.designer.metamodels.transformation.SqlTransformationMappingRoot;
+import org.teiid.designer.metamodels.transformation.TransformationPackage;
+import org.teiid.designer.transformation.validation.SqlTransformationResult;
+
+/**
+ * The status store behind {@link SqlMappingRootCache}. It holds the SELECT, INSERT, UPDATE and DELETE status of each
+ * transformation mapping root together with two reverse indexes, from source group to the roots reading it and from target group
+ * to the roots producing it, so that a model change only visits the affected roots.
+ * <p>
+ * The indexes are built from the source groups of the statuses, the inputs and the target of a root when one of its statuses is
+ * set, and are updated whenever a status is set again or removed. While a root is cached an adapter on it re-indexes the root when
+ * its inputs, outputs or target change, so that the indexes never miss a root whose target or inputs changed without a new
+ * status; the adapter is removed when the root leaves the store. The store holds at most a fixed number of mapping roots; when it is full the least recently
+ * used root is dropped with all of its statuses, which are recomputed the next time they are requested. All methods are
+ * thread-safe.
+ * </p>
+ *
+ * @since 8.1
+ */
+final class SqlMappingRootStatusCache {
+
+    private static final int NUM_CMD_TYPES = 4;
+
+    private final int capacity;
+
+    /** The cached statuses keyed by mapping root, in least recently used order */
+    private final LinkedHashMap<EObject, Entry> entries;
+
+    /** Source group -> mapping roots whose cached statuses reference it */
+    private final Map<Object, Set<EObject>> rootsBySourceGroup = new HashMap<Object, Set<EObject>>();
+
+    /** Target group -> mapping roots targeting it */
+    private final Map<Object, Set<EObject>> rootsByTarget = new HashMap<Object, Set<EObject>>();
+
+    /** Re-indexes a cached mapping root when its inputs, outputs or target change */
+    private final Adapter rootListener = new AdapterImpl() {
+        @Override
+        public void notifyChanged( final Notification notification ) {
+            if (notification.isTouch()) return;
+            switch (notification.getFeatureID(SqlTransformationMappingRoot.class)) {
+                case TransformationPackage.SQL_TRANSFORMATION_MAPPING_ROOT__INPUTS:
+                case TransformationPackage.SQL_TRANSFORMATION_MAPPING_ROOT__OUTPUTS:
+                case TransformationPackage.SQL_TRANSFORMATION_MAPPING_ROOT__TARGET:
+                    rootChanged((EObject)notification.getNotifier());
+                    break;
+                default:
+                    break;
+            }
+        }
+    };
+
+    /**
+     * @param capacity the maximum number of mapping roots whose statuses are cached
+     */
+    SqlMappingRootStatusCache( final int capacity ) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<EObject, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<EObject, Entry> eldest ) {
+                if (size() > SqlMappingRootStatusCache.this.capacity) {
+                    unindex(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    synchronized boolean contains( final EObject mappingRoot,
+                                   final int cmdType ) {
+        final Entry entry = this.entries.get(mappingRoot);
+        return entry != null && entry.statuses[cmdType] != null;
+    }
+
+    synchronized SqlTransformationResult get( final EObject mappingRoot,
+                                              final int cmdType ) {
+        final Entry entry = this.entries.get(mappingRoot);
+        return entry == null ? null : entry.statuses[cmdType];
+    }
+
+    synchronized void put( final EObject mappingRoot,
+                           final int cmdType,
+                           final SqlTransformationResult status ) {
+        Entry entry = this.entries.get(mappingRoot);
+        if (entry == null) {
+            entry = new Entry();
+            this.entries.put(mappingRoot, entry);
+        }
+        entry.statuses[cmdType] = status;
+        reindex(mappingRoot, entry);
+    }
+
+    synchronized void remove( final EObject mappingRoot,
+                              final int cmdType ) {
+        final Entry entry = this.entries.get(mappingRoot);
+        if (entry == null || entry.statuses[cmdType] == null) return;
+
+        entry.statuses[cmdType] = null;
+        if (entry.isEmpty()) {
+            this.entries.remove(mappingRoot);
+            unindex(mappingRoot, entry);
+        } else {
+            reindex(mappingRoot, entry);
+        }
+    }
+
+    synchronized void clear() {
+        for (final EObject mappingRoot : this.entries.keySet()) {
+            mappingRoot.eAdapters().remove(this.rootListener);
+        }
+        this.entries.clear();
+        this.rootsBySourceGroup.clear();
+        this.rootsByTarget.clear();
+    }
+
+    /**
+     * @return a snapshot of the mapping roots that have a cached SELECT status
+     */
+    synchronized List<EObject> getSelectRoots() {
+        final List<EObject> roots = new ArrayList<EObject>(this.entries.size());
+        for (final Map.Entry<EObject, Entry> mapEntry : this.entries.entrySet()) {
+            if (mapEntry.getValue().statuses[QueryValidator.SELECT_TRNS] != null) {
+                roots.add(mapEntry.getKey());
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * @param sourceGroups the source groups
+     * @return a snapshot of the mapping roots whose cached statuses reference any of the source groups
+     */
+    synchronized Set<EObject> getRootsWithSourceGroups( final Collection sourceGroups ) {
+        return collectRoots(this.rootsBySourceGroup, sourceGroups);
+    }
+
+    /**
+     * @param targets the target groups
+     * @return a snapshot of the mapping roots targeting any of the groups
+     */
+    synchronized Set<EObject> getRootsWithTargets( final Collection targets ) {
+        return collectRoots(this.rootsByTarget, targets);
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    synchronized void rootChanged( final EObject mappingRoot ) {
+        final Entry entry = this.entries.get(mappingRoot);
+        if (entry != null) {
+            reindex(mappingRoot, entry);
+        }
+    }
+
+    private static Set<EObject> collectRoots( final Map<Object, Set<EObject>> index,
+                                              final Collection keys ) {
+        if (keys == null || keys.isEmpty()) return Collections.emptySet();
+        final Set<EObject> roots = new HashSet<EObject>();
+        for (final Iterator iter = keys.iterator(); iter.hasNext();) {
+            final Set<EObject> keyRoots = index.get(iter.next());
+            if (keyRoots != null) {
+                roots.addAll(keyRoots);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Re-reads the source groups, inputs and target of the mapping root and updates the indexes to match.
+     */
+    private void reindex( final EObject mappingRoot,
+                          final Entry entry ) {
+        final Set<Object> sourceGroups = new HashSet<Object>();
+        for (int i = 0; i < NUM_CMD_TYPES; i++) {
+            if (entry.statuses[i] != null) {
+                final Collection statusGroups = entry.statuses[i].getSourceGroups();
+                if (statusGroups != null) {
+                    sourceGroups.addAll(statusGroups);
+                }
+            }
+        }
+        if (mappingRoot instanceof MappingRoot) {
+            sourceGroups.addAll(((MappingRoot)mappingRoot).getInputs());
+        }
+        if (!entry.listening) {
+            mappingRoot.eAdapters().add(this.rootListener);
+            entry.listening = true;
+        }
+
+        for (final Object oldGroup : entry.sourceGroups) {
+            if (!sourceGroups.contains(oldGroup)) {
+                removeFromIndex(this.rootsBySourceGroup, oldGroup, mappingRoot);
+            }
+        }
+        for (final Object newGroup : sourceGroups) {
+            if (!entry.sourceGroups.contains(newGroup)) {
+                addToIndex(this.rootsBySourceGroup, newGroup, mappingRoot);
+            }
+        }
+        entry.sourceGroups = sourceGroups;
+
+        final Object target = TransformationHelper.getTransformationLinkTarget(mappingRoot);
+        if (target != entry.target) {
+            if (entry.target != null) {
+                removeFromIndex(this.rootsByTarget, entry.target, mappingRoot);
+            }
+            if (target != null) {
+                addToIndex(this.rootsByTarget, target, mappingRoot);
+            }
+            entry.target = target;
+        }
+    }
+
+    private void unindex( final EObject mappingRoot,
+                          final Entry entry ) {
+        if (entry.listening) {
+            mappingRoot.eAdapters().remove(this.rootListener);
+            entry.listening = false;
+        }
+        for (final Object group : entry.sourceGroups) {
+            removeFromIndex(this.rootsBySourceGroup, group, mappingRoot);
+        }
+        entry.sourceGroups = Collections.emptySet();
+        if (entry.target != null) {
+            removeFromIndex(this.rootsByTarget, entry.target, mappingRoot);
+            entry.target = null;
+        }
+    }
+
+    private static void addToIndex( final Map<Object, Set<EObject>> index,
+                                    final Object key,
+                                    final EObject mappingRoot ) {
+        Set<EObject> roots = index.get(key);
+        if (roots == null) {
+            roots = new HashSet<EObject>(4);
+            index.put(key, roots);
+        }
+        roots.add(mappingRoot);
+    }
+
+    private static void removeFromIndex( final Map<Object, Set<EObject>> index,
+                                         final Object key,
+                                         final EObject mappingRoot ) {
+        final Set<EObject> roots = index.get(key);
+        if (roots != null && roots.remove(mappingRoot) && roots.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * The statuses of one mapping root and the keys it is indexed under.
+     */
+    private static final class Entry {
+        final SqlTransformationResult[] statuses = new SqlTransformationResult[NUM_CMD_TYPES];
+        Set<Object> sourceGroups = Collections.emptySet();
+        Object target;
+        boolean listening;
+
+        boolean isEmpty() {
+            for (int i = 0; i < NUM_CMD_TYPES; i++) {
+                if (this.statuses[i] != null) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -8,11 +8,17 @@
 package org.teiid.designer.udf;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import org.eclipse.core.internal.resources.Marker;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -67,7 +73,28 @@ public final class UdfManager implements IResourceChangeListener {
     
     private IFunctionLibrary systemFunctionLibrary;
     
-    private IFunctionLibrary cachedFunctionLibrary;
+    /**
+     * The library of the functions of the workspace, as last built. It is never changed once built, but replaced by a new library
+     * when a model changes, so that it can be read without locking.
+     */
+    private volatile IFunctionLibrary cachedFunctionLibrary;
+
+    /**
+     * Held while the library is built. Only a reader that finds no library at all waits for it; the others are given the library
+     * last built until the new one is ready.
+     */
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    /**
+     * The function descriptors of each model, as last built from the model. Only the models that have changed since are built
+     * again when the library is next built.
+     */
+    private final Map<ModelResource, ModelFunctions> modelFunctions = new ConcurrentHashMap<ModelResource, ModelFunctions>();
+
+    /**
+     * The models changed since the library was last built.
+     */
+    private final Set<ModelResource> changedModels = Collections.newSetFromMap(new ConcurrentHashMap<ModelResource, Boolean>());
    
     /**
      * A set of function models.
@@ -78,7 +105,7 @@ public final class UdfManager implements IResourceChangeListener {
 
     private volatile boolean initialized;
     
-    private boolean changed = false;
+    private volatile boolean changed = false;
 
     private ITeiidServerVersionListener teiidServerVersionListener = new ITeiidServerVersionListener() {
         
@@ -259,6 +286,7 @@ public final class UdfManager implements IResourceChangeListener {
      */
     public void registerFunctionModel( ModelResource modelResource, boolean delete ) throws Exception {
         makeModification(modelResource, delete);
+        changedModels.add(modelResource);
         changed = true;
     }
     
@@ -269,6 +297,7 @@ public final class UdfManager implements IResourceChangeListener {
      * @param delete whether it was a delete or not
      */
     public void notifySourceModelChanged( ModelResource modelResource, boolean delete ) {
+        changedModels.add(modelResource);
         changed = true;
     }
 
@@ -359,173 +388,234 @@ public final class UdfManager implements IResourceChangeListener {
     }
     
     /**
-     * Get the FunctionLibrary
+     * Get the FunctionLibrary. The library is only built again when a model has changed since it was last built, and then only
+     * the functions of the changed models are read again; until then it is returned without locking. While another thread
+     * builds the library, the library last built is returned rather than waiting for the new one.
+     * 
      * @return the FunctionLibrary
      */
-    public synchronized IFunctionLibrary<IFunctionForm, IFunctionDescriptor> getFunctionLibrary() {
+    public IFunctionLibrary<IFunctionForm, IFunctionDescriptor> getFunctionLibrary() {
+        IFunctionLibrary<IFunctionForm, IFunctionDescriptor> library = this.cachedFunctionLibrary;
+        if (!changed && library != null) {
+            return library;
+        }
+
+        if (library == null) {
+            this.buildLock.lock();
+        } else if (!this.buildLock.tryLock()) {
+            // being built by another thread
+            return library;
+        }
+        try {
+            return buildFunctionLibrary();
+        } finally {
+            this.buildLock.unlock();
+        }
+    }
+
+    /*
+     * Build the library again from the models changed since it was last built. Must only be called holding the build lock.
+     */
+    private IFunctionLibrary<IFunctionForm, IFunctionDescriptor> buildFunctionLibrary() {
     	//System.out.println("UdfManger.getFunctionLibrary()");
     	if( !changed && this.cachedFunctionLibrary != null ) {
     		return this.cachedFunctionLibrary;
     	}
-    	
-    	List<FunctionMethodDescriptor> functionMethodDescriptors = new ArrayList<FunctionMethodDescriptor>();
-    	
-        for( ModelResource functionModelResource : functionModels ) {
-        	ScalarFunction[] functions = getScalarFunctions(functionModelResource);
-        	if( functions.length == 0 )
-        	    continue;
-        	    
-        	IMarker[] markers = getMarkers(functionModelResource);
-        		
-        	String schema = FileUtils.getFilenameWithoutExtension(functionModelResource.getItemName());
-        		
-        	for( ScalarFunction function : functions ) {
-        	    // Function's must have a return parameter and a Scalar function may not yet have one after
-        	    // it's initially created (intermediate state)
-        	    // Also the Function AND it's return parameter (if non-null) need to be error free
-        	    if( !isFunctionObjectErrorFree(function.getReturnParameter(), markers, functionModelResource) ||
-        	    function.getReturnParameter() == null || 
-        	    !isFunctionObjectErrorFree(function.getReturnParameter(), markers, functionModelResource)) {
-        	        continue;
-        	    }
-        	    String description = null;
-        			
-        	    try {
-        	        description = ModelerCore.getModelEditor().getDescription(function);
-        	    } catch (ModelerCoreException ex) {
-        	        UdfPlugin.UTIL.log(ex);
-        	    }
-        			
-        	    boolean functionPamameterHasError = false;
-					
-        	    Collection<FunctionParameterDescriptor> fParams = new ArrayList<FunctionParameterDescriptor>();
-        			
-        	    for( Object inputParam : function.getInputParameters() ) {
-        	        if( inputParam instanceof org.teiid.designer.metamodels.function.FunctionParameter) {
-        	            org.teiid.designer.metamodels.function.FunctionParameter param = (org.teiid.designer.metamodels.function.FunctionParameter)inputParam;
-        	            fParams.add(new FunctionParameterDescriptor(param.getName(), param.getType()));
-        	            // If any function parameter has an error don't add this
-        	            if( !functionPamameterHasError && !isFunctionObjectErrorFree(param, markers, functionModelResource)){
-        	                functionPamameterHasError = true;
-        	            }
-        	        }
-        	    }
-        			
-        	    if( functionPamameterHasError ) {
-        	        continue;
-        	    }
-        			
-        	    String returnParamName = ModelerCore.getModelEditor().getName(function.getReturnParameter());
-        	    FunctionParameterDescriptor outputParam = new FunctionParameterDescriptor(returnParamName, function.getReturnParameter().getType()); 
-        			
-        	    FunctionMethodDescriptor fMethodDescriptor = new FunctionMethodDescriptor(function,
-        	                                                                                    function.getName(), 
-        	                                                                                    description, 
-        	                                                                                    function.getCategory(), 
-        	                                                                                    function.getInvocationClass(), 
-        	                                                                                    function.getInvocationMethod(),
-        	                                                                                    fParams.toArray(new FunctionParameterDescriptor[0]),
-        	                                                                                    outputParam,
-        	                                                                                    schema);
-        	    
-        	    fMethodDescriptor.setPushDown(function.getPushDown().getLiteral());
-        	    fMethodDescriptor.setDeterministic(function.isDeterministic());
-        	   
-        	    functionMethodDescriptors.add(fMethodDescriptor);
-        	}
-        }
-        
+
+        // clear the flag before reading the models, so that a change made while building causes another build
+        this.changed = false;
+        Set<ModelResource> changedSinceBuilt = new HashSet<ModelResource>(this.changedModels);
+        this.changedModels.removeAll(changedSinceBuilt);
+
         // Now walk "Relational models" to search for new Procedures that have FUNCTION = true set
         // -- Source procedures will be the pushdown functions
         // -- View procedures will be the user-defined functions
-        
-        for( ModelResource sourceModel : getRelationalModels() ) {
-        	
-    		IMarker[] markers = getMarkers(sourceModel);
-    		
-    		String schema = FileUtils.getFilenameWithoutExtension(sourceModel.getItemName());
-    		
-    		for( Procedure procedure : getFunctions(sourceModel) ) {
-    		    
-    		    // Determine if working with a Source or View Model
-    		    boolean isPhysical = ModelUtil.isPhysical(procedure);
-    		    
-    			// Also the Function's input parameters AND it's return parameter (if non-null) need to be error free
-    			
-    			ProcedureWrapper wrappedProcedure = new ProcedureWrapper(procedure);
-    			
-    			if( !isFunctionObjectErrorFree(wrappedProcedure.getReturnParameter(), markers, sourceModel) ||
-    					wrappedProcedure.getReturnParameter() == null || 
-    				!isFunctionObjectErrorFree(wrappedProcedure.getReturnParameter(), markers, sourceModel)) {
-    				continue;
-    			}
-    			String description = null;
-    			
-    			try {
-					description = ModelerCore.getModelEditor().getDescription(procedure);
-				} catch (ModelerCoreException ex) {
-					UdfPlugin.UTIL.log(ex);
-				}
-    			
-				boolean functionPamameterHasError = false;
-				
-    			Collection<FunctionParameterDescriptor> fParams = new ArrayList<FunctionParameterDescriptor>();
-    			
-    			for( ProcedureParameter inputParam : wrappedProcedure.getInputParameters() ) {
-    				String dTypeName = ModelerCore.getModelEditor().getName(inputParam.getType());
-					fParams.add(new FunctionParameterDescriptor(inputParam.getName(), dTypeName));
-					// If any function parameter has an error don't add this
-					if( !functionPamameterHasError && !isFunctionObjectErrorFree(inputParam, markers, sourceModel)){
-						functionPamameterHasError = true;
-					}
-    			}
-    			
-    			if( functionPamameterHasError ) {
-    				continue;
-    			}
-    			
-    			String dTypeName = ModelerCore.getModelEditor().getName(wrappedProcedure.getReturnParameter().getType());
-    			String returnParamName = ModelerCore.getModelEditor().getName(wrappedProcedure.getReturnParameter());
-    			FunctionParameterDescriptor outputParam = new FunctionParameterDescriptor(returnParamName, dTypeName); 
-    			
-    			String category = wrappedProcedure.getCategory();
-                String javaClass = wrappedProcedure.getJavaClass();
-                String javaMethod = wrappedProcedure.getJavaMethod();
-
-                boolean javaClassAndMethodEmpty = (javaClass==null && javaMethod==null) ? true : false;
-                
-    			// For source pushdown function, set the category name as the Model Name
-                if(isPhysical && javaClassAndMethodEmpty) {
-                    category = sourceModel.getItemName();
-                    if( category.endsWith(".xmi")) { //$NON-NLS-1$
-                        category = category.replaceAll(".xmi", StringUtilities.EMPTY_STRING); //$NON-NLS-1$
-                    }
-                }
-    			
-    			FunctionMethodDescriptor fMethodDescriptor = new FunctionMethodDescriptor(procedure,
-    			                                                                            wrappedProcedure.getName(), 
-    			                                                                            description, 
-    			                                                                            category, 
-    			                                                                            javaClass, 
-    			                                                                            javaMethod,
-    			                                                                            fParams.toArray(new FunctionParameterDescriptor[0]),
-    			                                                                            outputParam,
-    			                                                                            schema);
-    			
-    			fMethodDescriptor.setPushDown(Boolean.toString(true));
-    			fMethodDescriptor.setDeterministic(wrappedProcedure.isDeterministic());
-    			
-    			functionMethodDescriptors.add(fMethodDescriptor);
-    		}
+        Collection<ModelResource> relationalModels = getRelationalModels();
+
+        // forget the functions of models no longer in the workspace
+        Set<ModelResource> models = new LinkedHashSet<ModelResource>(functionModels);
+        models.addAll(relationalModels);
+        this.modelFunctions.keySet().retainAll(models);
+
+    	List<FunctionMethodDescriptor> functionMethodDescriptors = new ArrayList<FunctionMethodDescriptor>();
+        for( ModelResource functionModelResource : functionModels ) {
+            functionMethodDescriptors.addAll(getModelFunctions(functionModelResource, changedSinceBuilt).getScalarFunctionDescriptors());
+        }
+        for( ModelResource sourceModel : relationalModels ) {
+            functionMethodDescriptors.addAll(getModelFunctions(sourceModel, changedSinceBuilt).getProcedureDescriptors());
         }
         
         IQueryService queryService = ModelerCore.getTeiidQueryService();
         
         this.cachedFunctionLibrary = queryService.createFunctionLibrary(functionMethodDescriptors);
-
-        this.changed = false;
         return this.cachedFunctionLibrary;
     }
+
+    /*
+     * Get the function descriptors last built for the supplied model, unless it has changed since
+     */
+    private ModelFunctions getModelFunctions( ModelResource model, Set<ModelResource> changedSinceBuilt ) {
+        ModelFunctions functions = this.modelFunctions.get(model);
+        if (functions == null || changedSinceBuilt.contains(model) || !functions.isCurrent()) {
+            functions = new ModelFunctions(model);
+            this.modelFunctions.put(model, functions);
+        }
+        return functions;
+    }
+
+    /*
+     * Create the descriptors of the error free ScalarFunctions of the supplied function model
+     */
+    private List<FunctionMethodDescriptor> createScalarFunctionDescriptors( ModelResource functionModelResource, IMarker[] markers ) {
+        List<FunctionMethodDescriptor> functionMethodDescriptors = new ArrayList<FunctionMethodDescriptor>();
+
+        ScalarFunction[] functions = getScalarFunctions(functionModelResource);
+        if( functions.length == 0 )
+            return functionMethodDescriptors;
+
+        String schema = FileUtils.getFilenameWithoutExtension(functionModelResource.getItemName());
+
+        for( ScalarFunction function : functions ) {
+            // Function's must have a return parameter and a Scalar function may not yet have one after
+            // it's initially created (intermediate state)
+            // Also the Function AND it's return parameter (if non-null) need to be error free
+            if( !isFunctionObjectErrorFree(function.getReturnParameter(), markers, functionModelResource) ||
+            function.getReturnParameter() == null || 
+            !isFunctionObjectErrorFree(function.getReturnParameter(), markers, functionModelResource)) {
+                continue;
+            }
+            String description = null;
+
+            try {
+                description = ModelerCore.getModelEditor().getDescription(function);
+            } catch (ModelerCoreException ex) {
+                UdfPlugin.UTIL.log(ex);
+            }
+
+            boolean functionPamameterHasError = false;
+
+            Collection<FunctionParameterDescriptor> fParams = new ArrayList<FunctionParameterDescriptor>();
+
+            for( Object inputParam : function.getInputParameters() ) {
+                if( inputParam instanceof org.teiid.designer.metamodels.function.FunctionParameter) {
+                    org.teiid.designer.metamodels.function.FunctionParameter param = (org.teiid.designer.metamodels.function.FunctionParameter)inputParam;
+                    fParams.add(new FunctionParameterDescriptor(param.getName(), param.getType()));
+                    // If any function parameter has an error don't add this
+                    if( !functionPamameterHasError && !isFunctionObjectErrorFree(param, markers, functionModelResource)){
+                        functionPamameterHasError = true;
+                    }
+                }
+            }
+
+            if( functionPamameterHasError ) {
+                continue;
+            }
+
+            String returnParamName = ModelerCore.getModelEditor().getName(function.getReturnParameter());
+            FunctionParameterDescriptor outputParam = new FunctionParameterDescriptor(returnParamName, function.getReturnParameter().getType()); 
+
+            FunctionMethodDescriptor fMethodDescriptor = new FunctionMethodDescriptor(function,
+                                                                                            function.getName(), 
+                                                                                            description, 
+                                                                                            function.getCategory(), 
+                                                                                            function.getInvocationClass(), 
+                                                                                            function.getInvocationMethod(),
+                                                                                            fParams.toArray(new FunctionParameterDescriptor[0]),
+                                                                                            outputParam,
+                                                                                            schema);
+
+            fMethodDescriptor.setPushDown(function.getPushDown().getLiteral());
+            fMethodDescriptor.setDeterministic(function.isDeterministic());
+
+            functionMethodDescriptors.add(fMethodDescriptor);
+        }
+
+        return functionMethodDescriptors;
+    }
+
+    /*
+     * Create the descriptors of the error free Procedures of the supplied relational model, where FUNCTION=true
+     */
+    private List<FunctionMethodDescriptor> createProcedureDescriptors( ModelResource sourceModel, IMarker[] markers ) {
+        List<FunctionMethodDescriptor> functionMethodDescriptors = new ArrayList<FunctionMethodDescriptor>();
+
+        String schema = FileUtils.getFilenameWithoutExtension(sourceModel.getItemName());
+
+        for( Procedure procedure : getFunctions(sourceModel) ) {
+
+            // Determine if working with a Source or View Model
+            boolean isPhysical = ModelUtil.isPhysical(procedure);
+
+            // Also the Function's input parameters AND it's return parameter (if non-null) need to be error free
+
+            ProcedureWrapper wrappedProcedure = new ProcedureWrapper(procedure);
+
+            if( !isFunctionObjectErrorFree(wrappedProcedure.getReturnParameter(), markers, sourceModel) ||
+                    wrappedProcedure.getReturnParameter() == null || 
+                !isFunctionObjectErrorFree(wrappedProcedure.getReturnParameter(), markers, sourceModel)) {
+                continue;
+            }
+            String description = null;
+
+            try {
+                description = ModelerCore.getModelEditor().getDescription(procedure);
+            } catch (ModelerCoreException ex) {
+                UdfPlugin.UTIL.log(ex);
+            }
+
+            boolean functionPamameterHasError = false;
+
+            Collection<FunctionParameterDescriptor> fParams = new ArrayList<FunctionParameterDescriptor>();
+
+            for( ProcedureParameter inputParam : wrappedProcedure.getInputParameters() ) {
+                String dTypeName = ModelerCore.getModelEditor().getName(inputParam.getType());
+                fParams.add(new FunctionParameterDescriptor(inputParam.getName(), dTypeName));
+                // If any function parameter has an error don't add this
+                if( !functionPamameterHasError && !isFunctionObjectErrorFree(inputParam, markers, sourceModel)){
+                    functionPamameterHasError = true;
+                }
+            }
+
+            if( functionPamameterHasError ) {
+                continue;
+            }
+
+            String dTypeName = ModelerCore.getModelEditor().getName(wrappedProcedure.getReturnParameter().getType());
+            String returnParamName = ModelerCore.getModelEditor().getName(wrappedProcedure.getReturnParameter());
+            FunctionParameterDescriptor outputParam = new FunctionParameterDescriptor(returnParamName, dTypeName); 
+
+            String category = wrappedProcedure.getCategory();
+            String javaClass = wrappedProcedure.getJavaClass();
+            String javaMethod = wrappedProcedure.getJavaMethod();
+
+            boolean javaClassAndMethodEmpty = (javaClass==null && javaMethod==null) ? true : false;
+
+            // For source pushdown function, set the category name as the Model Name
+            if(isPhysical && javaClassAndMethodEmpty) {
+                category = sourceModel.getItemName();
+                if( category.endsWith(".xmi")) { //$NON-NLS-1$
+                    category = category.replaceAll(".xmi", StringUtilities.EMPTY_STRING); //$NON-NLS-1$
+                }
+            }
+
+            FunctionMethodDescriptor fMethodDescriptor = new FunctionMethodDescriptor(procedure,
+                                                                                        wrappedProcedure.getName(), 
+                                                                                        description, 
+                                                                                        category, 
+                                                                                        javaClass, 
+                                                                                        javaMethod,
+                                                                                        fParams.toArray(new FunctionParameterDescriptor[0]),
+                                                                                        outputParam,
+                                                                                        schema);
+
+            fMethodDescriptor.setPushDown(Boolean.toString(true));
+            fMethodDescriptor.setDeterministic(wrappedProcedure.isDeterministic());
+
+            functionMethodDescriptors.add(fMethodDescriptor);
+        }
+
+        return functionMethodDescriptors;
+    }
     
     /*
      * Get all procedures from the supplied model, where FUNCTION=true
@@ -585,6 +675,65 @@ public final class UdfManager implements IResourceChangeListener {
             
     }
     
+    /*
+     * The function descriptors of a model, built only when first asked for, and the state of the model they are built from
+     */
+    class ModelFunctions {
+    	final ModelResource model;
+    	final long stamp;
+    	final IMarker[] markers;
+    	final long[] markerSignature;
+    	List<FunctionMethodDescriptor> scalarFunctionDescriptors;
+    	List<FunctionMethodDescriptor> procedureDescriptors;
+
+    	public ModelFunctions(ModelResource model) {
+    		super();
+    		this.model = model;
+    		this.stamp = getStamp(model);
+    		this.markers = getMarkers(model);
+    		this.markerSignature = getMarkerSignature(this.markers);
+    	}
+
+    	/*
+    	 * Whether the model has neither been saved nor validated again since the descriptors were built
+    	 */
+    	public boolean isCurrent() {
+    		return this.stamp == getStamp(this.model)
+    		    && Arrays.equals(this.markerSignature, getMarkerSignature(getMarkers(this.model)));
+    	}
+
+    	public List<FunctionMethodDescriptor> getScalarFunctionDescriptors() {
+    		if( this.scalarFunctionDescriptors == null ) {
+    			this.scalarFunctionDescriptors = createScalarFunctionDescriptors(this.model, this.markers);
+    		}
+    		return this.scalarFunctionDescriptors;
+    	}
+
+    	public List<FunctionMethodDescriptor> getProcedureDescriptors() {
+    		if( this.procedureDescriptors == null ) {
+    			this.procedureDescriptors = createProcedureDescriptors(this.model, this.markers);
+    		}
+    		return this.procedureDescriptors;
+    	}
+
+    	private long getStamp(ModelResource mr) {
+    		IResource resrc = mr.getResource();
+    		return resrc == null ? IResource.NULL_STAMP : resrc.getModificationStamp();
+    	}
+
+    	/*
+    	 * The ids and severities of the markers, since markers are replaced when a model is validated again
+    	 */
+    	private long[] getMarkerSignature(IMarker[] markers) {
+    		long[] signature = new long[markers.length * 2];
+    		for( int ndx = 0; ndx < markers.length; ndx++ ) {
+    			signature[ndx * 2] = markers[ndx].getId();
+    			signature[ndx * 2 + 1] = markers[ndx].getAttribute(IMarker.SEVERITY, -1);
+    		}
+    		return signature;
+    	}
+    }
+
     class ScalarFunctionFinder implements ModelVisitor {
     	
     	Collection<ScalarFunction> functions;
@@ -0,0 +1,291 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.vdb;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.teiid.core.designer.util.ChecksumUtil;
+import org.teiid.core.designer.util.CoreArgCheck;
+import org.teiid.core.designer.util.NamedThreadFactory;
+
+/**
+ * Remembers the checksums of workspace files so that VDB entries do not have to re-read a file to find out whether it changed.
+ * <p>
+ * A checksum is keyed by the file's workspace path and is reused for as long as the file's modification stamp, and the size
+ * and last modification time of its local file, are unchanged. Only files with local contents are cached. The cache is saved
+ * in this plug-in's state location when the plug-in stops, so that it survives across sessions.
+ * </p>
+ *
+ * @since 8.1
+ */
+@ThreadSafe
+final class ChecksumCache {
+
+    /**
+     * The system property giving the number of threads used to checksum the files of a VDB being opened. A value of one or
+     * less checksums the files one at a time, as each entry is created.
+     */
+    public static final String THREADS_PROPERTY = "org.teiid.designer.vdb.checksumThreads"; //$NON-NLS-1$
+
+    /**
+     * The maximum number of checksums remembered; the least recently used ones are forgotten first.
+     */
+    static final int MAX_ENTRIES = 10000;
+
+    private static final String FILE_NAME = "checksums.dat"; //$NON-NLS-1$
+    private static final int VERSION = 1;
+
+    private static ChecksumCache instance;
+    private static ExecutorService executor;
+
+    /**
+     * @return the cache shared by all VDBs, saved in this plug-in's state location if the plug-in is running
+     */
+    static synchronized ChecksumCache getInstance() {
+        if (instance == null) {
+            final VdbPlugin plugin = VdbPlugin.singleton();
+            instance = new ChecksumCache(plugin == null ? null : plugin.getStateLocation().append(FILE_NAME).toFile());
+        }
+        return instance;
+    }
+
+    /**
+     * Saves the shared cache, if it has been used.
+     */
+    static synchronized void saveInstance() {
+        if (instance != null) instance.save();
+    }
+
+    /**
+     * @return the pool checksumming files, or <code>null</code> if files are to be checksummed on the calling thread
+     * @see #THREADS_PROPERTY
+     */
+    static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            final int defaultThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+            final int threads = Integer.getInteger(THREADS_PROPERTY, defaultThreads).intValue();
+            if (threads <= 1) return null;
+            executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("VDB Checksum Worker")); //$NON-NLS-1$
+        }
+        return executor;
+    }
+
+    private final File store;
+    private final Map<String, Record> records = new LinkedHashMap<String, Record>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry<String, Record> eldest ) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private boolean loaded;
+    private boolean modified;
+
+    /**
+     * @param store the file in which the checksums are saved across sessions, or <code>null</code> if they are not to be saved
+     */
+    ChecksumCache( final File store ) {
+        this.store = store;
+        this.loaded = (store == null);
+    }
+
+    /**
+     * @param file the workspace file (may not be <code>null</code>)
+     * @return the CRC-32 checksum of the file's contents
+     * @throws Exception if the file cannot be read
+     */
+    long getChecksum( final IFile file ) throws Exception {
+        CoreArgCheck.isNotNull(file);
+        final Record current = currentRecord(file);
+        if (current == null) return ChecksumUtil.computeChecksum(file.getContents()).getValue();
+        final Record cached = get(current.path);
+        if (cached != null && cached.isSameFile(current)) return cached.checksum;
+        return compute(current);
+    }
+
+    /**
+     * Checksums, in parallel, the files whose checksums are not cached, and waits until all are done. Files that cannot be
+     * read are ignored here; their errors are reported by {@link #getChecksum(IFile)}.
+     *
+     * @param files the workspace files whose checksums will soon be requested (may not be <code>null</code>)
+     */
+    void prefetch( final Collection<IFile> files ) {
+        CoreArgCheck.isNotNull(files);
+        final ExecutorService pool = getExecutor();
+        if (pool == null) return;
+        final List<Callable<Long>> tasks = new ArrayList<Callable<Long>>();
+        for (final IFile file : files) {
+            final Record current = currentRecord(file);
+            if (current == null) continue;
+            final Record cached = get(current.path);
+            if (cached != null && cached.isSameFile(current)) continue;
+            tasks.add(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    return compute(current);
+                }
+            });
+        }
+        // a single file is checksummed as cheaply by the caller
+        if (tasks.size() < 2) return;
+        try {
+            pool.invokeAll(tasks);
+        } catch (final InterruptedException error) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the number of cached checksums
+     */
+    synchronized int size() {
+        load();
+        return this.records.size();
+    }
+
+    /**
+     * Saves the checksums, if they have changed since they were loaded or last saved.
+     */
+    synchronized void save() {
+        if (this.store == null || !this.modified) return;
+        try {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.store)));
+            try {
+                out.writeInt(VERSION);
+                out.writeInt(this.records.size());
+                for (final Record record : this.records.values()) {
+                    record.write(out);
+                }
+            } finally {
+                out.close();
+            }
+            this.modified = false;
+        } catch (final IOException error) {
+            VdbPlugin.UTIL.log(error);
+            this.store.delete();
+        }
+    }
+
+    private long compute( final Record current ) throws IOException {
+        final long checksum = ChecksumUtil.computeChecksum(current.localFile);
+        // a file changed while it was read gets a new last modification time, so the stale checksum is never reused
+        put(new Record(current.path, current.modificationStamp, current.lastModified, current.length, checksum));
+        return checksum;
+    }
+
+    private synchronized Record get( final String path ) {
+        load();
+        return this.records.get(path);
+    }
+
+    private synchronized void put( final Record record ) {
+        load();
+        this.records.put(record.path, record);
+        this.modified = true;
+    }
+
+    /**
+     * Must be called while synchronized
+     */
+    private void load() {
+        if (this.loaded) return;
+        this.loaded = true;
+        if (!this.store.isFile()) return;
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.store)));
+            try {
+                if (in.readInt() != VERSION) return;
+                for (int count = in.readInt(); count > 0; count--) {
+                    final Record record = Record.read(in);
+                    this.records.put(record.path, record);
+                }
+            } finally {
+                in.close();
+            }
+        } catch (final IOException error) {
+            // a damaged cache only costs the files being checksummed again
+            VdbPlugin.UTIL.log(error);
+            this.records.clear();
+        }
+    }
+
+    /**
+     * @return the current state of the file, without its checksum, or <code>null</code> if the file's checksum cannot be cached
+     */
+    private static Record currentRecord( final IFile file ) {
+        final IPath path = file.getFullPath();
+        final long modificationStamp = file.getModificationStamp();
+        if (path == null || modificationStamp == IResource.NULL_STAMP) return null;
+        final IPath location = file.getLocation();
+        final File localFile = (location == null ? null : location.toFile());
+        if (localFile == null || !localFile.isFile()) return null;
+        final Record record = new Record(path.toString(), modificationStamp, localFile.lastModified(), localFile.length(), 0L);
+        record.localFile = localFile;
+        return record;
+    }
+
+    private static final class Record {
+
+        static Record read( final DataInputStream in ) throws IOException {
+            return new Record(in.readUTF(), in.readLong(), in.readLong(), in.readLong(), in.readLong());
+        }
+
+        final String path;
+        final long modificationStamp;
+        final long lastModified;
+        final long length;
+        final long checksum;
+        File localFile;
+
+        Record( final String path,
+                final long modificationStamp,
+                final long lastModified,
+                final long length,
+                final long checksum ) {
+            this.path = path;
+            this.modificationStamp = modificationStamp;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.checksum = checksum;
+        }
+
+        boolean isSameFile( final Record other ) {
+            return this.modificationStamp == other.modificationStamp && this.lastModified == other.lastModified
+                   && this.length == other.length;
+        }
+
+        void write( final DataOutputStream out ) throws IOException {
+            out.writeUTF(this.path);
+            out.writeLong(this.modificationStamp);
+            out.writeLong(this.lastModified);
+            out.writeLong(this.length);
+            out.writeLong(this.checksum);
+        }
+    }
+}
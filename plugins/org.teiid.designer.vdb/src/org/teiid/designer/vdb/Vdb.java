@@ -9,8 +9,8 @@ package org.teiid.designer.vdb;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -24,11 +24,12 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
-import java.util.zip.ZipOutputStream;
 
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
@@ -43,14 +44,17 @@ import net.jcip.annotations.ThreadSafe;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.teiid.core.designer.util.CoreArgCheck;
 import org.teiid.core.designer.util.FileUtils;
+import org.teiid.core.designer.util.NamedThreadFactory;
 import org.teiid.core.designer.util.OperationUtil;
 import org.teiid.core.designer.util.OperationUtil.Unreliable;
+import org.teiid.core.designer.util.ParallelZipWriter;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.builder.VdbModelBuilder;
 import org.teiid.designer.core.util.StringUtilities;
@@ -89,6 +93,16 @@ public final class Vdb {
     
     private static final int DEFAULT_TIMEOUT = 0;
 
+    /**
+     * System property holding the number of threads VDB entries are compressed on when a VDB is saved. Defaults to the number
+     * of processors; <code>1</code> compresses them on the saving thread. ( {@value} )
+     * 
+     * @since 8.1
+     */
+    public static final String SAVE_THREADS_PROPERTY = "org.teiid.designer.vdb.saveThreads"; //$NON-NLS-1$
+
+    private static ExecutorService saveExecutor;
+
     /**
      * The prefix used before the workspace identifier when creating a Preview VDB name.
      */
@@ -210,6 +224,7 @@ public final class Vdb {
                                 }
                             } else assert false;
                         }
+                        prefetchChecksums(manifest);
                         for (final EntryElement element : manifest.getEntries()) {
                             entries.add(new VdbFileEntry(Vdb.this, element, monitor));
                         }
@@ -805,7 +820,7 @@ public final class Vdb {
         final File tmpFolder = VdbPlugin.singleton().getStateLocation().toFile();
         OperationUtil.perform(new Unreliable() {
 
-            ZipOutputStream out = null;
+            ParallelZipWriter out = null;
 
             @Override
             public void doIfFails() {
@@ -823,19 +838,18 @@ public final class Vdb {
                                                             '.' + path.getFileExtension(),
                                                             tmpFolder);
                 tmpArchive.getParentFile().mkdirs();
-                out = new ZipOutputStream(new FileOutputStream(tmpArchive));
+                final File archiveFile = ModelerCore.getWorkspace().getRoot().findMember(getName()).getLocation().toFile();
+                // Entries unchanged since the last save are copied from the current archive without being compressed again
+                out = new ParallelZipWriter(tmpArchive, archiveFile, getSaveExecutor());
                 // Create VDB manifest
                 final ZipEntry zipEntry = new ZipEntry(MANIFEST);
                 zipEntry.setComment(getDescription());
-                out.putNextEntry(zipEntry);
-                try {
-                    final Marshaller marshaller = getJaxbContext().createMarshaller();
-                    marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-                    marshaller.setSchema(getManifestSchema());
-                    marshaller.marshal(vdbElement, out);
-                } finally {
-                    out.closeEntry();
-                }
+                final ByteArrayOutputStream manifest = new ByteArrayOutputStream();
+                final Marshaller marshaller = getJaxbContext().createMarshaller();
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+                marshaller.setSchema(getManifestSchema());
+                marshaller.marshal(vdbElement, manifest);
+                out.add(zipEntry, manifest.toByteArray());
                 // Clear all problem markers on VDB file
                 for (final IMarker marker : file.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE))
                     marker.delete();
@@ -846,11 +860,11 @@ public final class Vdb {
                 for (final VdbModelEntry entry : modelEntries)
                     entry.save(out, monitor);
 
-                // Close zip output stream so its fully writen and any locks are removed.
+                // Finish and close the archive so its fully writen and any locks are removed.
+                out.finish();
                 out.close();
                 out = null;
                 // Replace archive in workspace with temporary archive
-                final File archiveFile = ModelerCore.getWorkspace().getRoot().findMember(getName()).getLocation().toFile();
                 if (!archiveFile.delete()) throw new RuntimeException(VdbPlugin.UTIL.getString("unableToDelete", archiveFile)); //$NON-NLS-1$
                 if (!tmpArchive.renameTo(archiveFile)) throw new RuntimeException(
                                                                                   VdbPlugin.UTIL.getString("unableToRename", tmpArchive, archiveFile)); //$NON-NLS-1$
@@ -862,6 +876,35 @@ public final class Vdb {
         });
     }
 
+    /**
+     * @return the pool VDB entries are compressed on when saving, or <code>null</code> if they are compressed by the saving thread
+     * @see #SAVE_THREADS_PROPERTY
+     */
+    static synchronized ExecutorService getSaveExecutor() {
+        if (saveExecutor == null) {
+            final int threads = Integer.getInteger(SAVE_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()).intValue();
+            if (threads <= 1) return null;
+            saveExecutor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("VDB Save Worker")); //$NON-NLS-1$
+        }
+        return saveExecutor;
+    }
+
+    /**
+     * Checksums in parallel the workspace files of the entries about to be created, so that each entry finds its file's checksum
+     * cached.
+     */
+    private static void prefetchChecksums( final VdbElement manifest ) {
+        final IWorkspaceRoot root = ModelerCore.getWorkspace().getRoot();
+        final Collection<IFile> files = new ArrayList<IFile>();
+        final Collection<EntryElement> elements = new ArrayList<EntryElement>(manifest.getEntries());
+        elements.addAll(manifest.getModels());
+        for (final EntryElement element : elements) {
+            final IResource resource = root.findMember(Path.fromPortableString(element.getPath()));
+            if (resource instanceof IFile) files.add((IFile)resource);
+        }
+        ChecksumCache.getInstance().prefetch(files);
+    }
+
     /**
      * @param description Sets description to the specified value.
      */
@@ -13,12 +13,10 @@ import static org.teiid.designer.vdb.Vdb.Event.ENTRY_SYNCHRONIZATION;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import net.jcip.annotations.ThreadSafe;
 
@@ -28,10 +26,9 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.teiid.core.designer.CoreModelerPlugin;
-import org.teiid.core.designer.util.ChecksumUtil;
 import org.teiid.core.designer.util.FileUtils;
 import org.teiid.core.designer.util.OperationUtil;
-import org.teiid.core.designer.util.ZipUtil;
+import org.teiid.core.designer.util.ParallelZipWriter;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.util.StringUtilities;
 import org.teiid.designer.vdb.manifest.EntryElement;
@@ -103,22 +100,18 @@ public class VdbEntry {
     private long computeChecksum( final IFile file ) {
         return OperationUtil.perform(new OperationUtil.ReturningUnreliable<Long>() {
 
-            private InputStream stream = null;
-
             @Override
             public void doIfFails() {
                 setSynchronization(Synchronization.NotSynchronized);
             }
 
             @Override
-            public void finallyDo() throws Exception {
-                if (stream != null) stream.close();
+            public void finallyDo() {
             }
 
             @Override
             public Long tryToDo() throws Exception {
-                stream = file.getContents();
-                return ChecksumUtil.computeChecksum(stream).getValue();
+                return ChecksumCache.getInstance().getChecksum(file);
             }
         });
     }
@@ -237,7 +230,7 @@ public class VdbEntry {
         return hashcode;
     }
 
-    void save( final ZipOutputStream out,
+    void save( final ParallelZipWriter out,
                final IProgressMonitor monitor ) {
     	String zipName = name.toString();
     	// Need to strip off the leading delimeter if it exists, else a "jar" extract command will result in models
@@ -256,11 +249,15 @@ public class VdbEntry {
      * @param file
      * @param monitor
      */
-    protected final void save( final ZipOutputStream out,
+    protected final void save( final ParallelZipWriter out,
                                final ZipEntry zipEntry,
                                final File file,
                                final IProgressMonitor monitor ) {
-        ZipUtil.copy(file, zipEntry, out);
+        try {
+            out.add(zipEntry, file);
+        } catch (final IOException error) {
+            throw CoreModelerPlugin.toRuntimeException(error);
+        }
     }
 
     /**
@@ -9,13 +9,13 @@ package org.teiid.designer.vdb;
 
 import java.io.File;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import net.jcip.annotations.ThreadSafe;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
+import org.teiid.core.designer.util.ParallelZipWriter;
 import org.teiid.designer.core.util.VdbHelper;
 import org.teiid.designer.vdb.manifest.EntryElement;
 
@@ -104,7 +104,7 @@ public final class VdbFileEntry extends VdbEntry {
     }
     
     @Override
-    void save( final ZipOutputStream out,
+    void save( final ParallelZipWriter out,
                final IProgressMonitor monitor ) {
         // Name of VDB entry
         String zipName = getName().toString();
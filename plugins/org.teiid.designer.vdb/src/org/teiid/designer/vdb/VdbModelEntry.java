@@ -24,7 +24,6 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import net.jcip.annotations.ThreadSafe;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
@@ -42,6 +41,7 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.teiid.core.designer.CoreModelerPlugin;
 import org.teiid.core.designer.util.CoreStringUtil;
 import org.teiid.core.designer.util.FileUtils;
+import org.teiid.core.designer.util.ParallelZipWriter;
 import org.teiid.designer.core.ModelerCore;
 import org.teiid.designer.core.container.ResourceFinder;
 import org.teiid.designer.core.index.Index;
@@ -492,10 +492,10 @@ public final class VdbModelEntry extends VdbEntry {
     /**
      * {@inheritDoc}
      * 
-     * @see org.teiid.designer.vdb.VdbEntry#save(java.util.zip.ZipOutputStream, org.eclipse.core.runtime.IProgressMonitor)
+     * @see org.teiid.designer.vdb.VdbEntry#save(org.teiid.core.designer.util.ParallelZipWriter, org.eclipse.core.runtime.IProgressMonitor)
      */
     @Override
-    final void save( final ZipOutputStream out,
+    final void save( final ParallelZipWriter out,
                      final IProgressMonitor monitor ) {
         super.save(out, monitor);
         // Save model index
@@ -726,7 +726,14 @@ public final class VdbModelEntry extends VdbEntry {
             // Copy snapshot of workspace file index to VDB folder
             // TODO: If index name of workspace file can change (?), we have to delete the old index and update our index name
             final Index index = IndexUtil.getIndexFile(indexName, IndexUtil.INDEX_PATH + indexName, getName().lastSegment());
-            FileUtils.copy(index.getIndexFile(), getIndexFile().getParentFile(), true);
+            if (IndexUtil.hasBinaryRecords(index)) {
+                // Teiid servers only read text records, so the model is indexed again for the VDB
+                final File indexFolder = getIndexFile().getParentFile();
+                indexFolder.mkdirs();
+                IndexUtil.indexResourceForVdb(model, workspaceFile.getFullPath().toString(), indexFolder.getAbsolutePath(), indexName);
+            } else {
+                FileUtils.copy(index.getIndexFile(), getIndexFile().getParentFile(), true);
+            }
         } catch (final Exception error) {
             throw CoreModelerPlugin.toRuntimeException(error);
         }
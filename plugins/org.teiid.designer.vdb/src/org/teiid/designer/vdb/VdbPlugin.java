@@ -57,6 +57,7 @@ public class VdbPlugin extends Plugin {
      */
     @Override
     public void stop( final BundleContext context ) throws Exception {
+        ChecksumCache.saveInstance();
         singleton = null;
         super.stop(context);
     }
@@ -4,8 +4,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.teiid.core.designer.TestCorePlugin;
 import org.teiid.core.designer.TestModelerCoreException;
+import org.teiid.core.designer.util.TestConcurrentLRUCache;
 import org.teiid.core.designer.util.TestI18nUtil;
 import org.teiid.core.designer.util.TestIPathComparator;
+import org.teiid.core.designer.util.TestParallelZipWriter;
 import org.teiid.core.designer.util.TestPluginUtilImpl;
 import org.teiid.core.designer.util.TestRunnableState;
 import org.teiid.core.designer.util.TestStreamPipe;
@@ -13,7 +15,8 @@ import org.teiid.core.designer.util.TestStreamPipe;
 
 @RunWith( Suite.class )
 @Suite.SuiteClasses( {TestModelerCoreException.class, TestStreamPipe.class, TestRunnableState.class, TestPluginUtilImpl.class,
-    TestIPathComparator.class, TestI18nUtil.class, TestCorePlugin.class} )
+    TestIPathComparator.class, TestI18nUtil.class, TestCorePlugin.class, TestConcurrentLRUCache.class,
+    TestParallelZipWriter.class} )
 public class AllTests {
     // nothing to do
 }
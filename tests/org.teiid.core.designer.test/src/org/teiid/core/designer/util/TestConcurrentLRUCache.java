@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.core.designer.util;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+
+/**
+ */
+public class TestConcurrentLRUCache extends TestCase {
+
+    /**
+     * Constructor for TestConcurrentLRUCache.
+     *
+     * @param name
+     */
+    public TestConcurrentLRUCache( String name ) {
+        super(name);
+    }
+
+    public void testPutAndGet() {
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<String, String>(10);
+        assertNull(cache.put("a", "1")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals("1", cache.put("a", "2")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        assertEquals("2", cache.get("a")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertNull(cache.get("b")); //$NON-NLS-1$
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        assertEquals("2", cache.remove("a")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(0, cache.size());
+    }
+
+    public void testEvictsLeastRecentlyRead() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<Integer, Integer>(100);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        // read the oldest half so that the other half becomes the least recently used
+        for (int i = 0; i < 50; i++) {
+            cache.get(i);
+        }
+        cache.put(100, 100);
+
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.getEvictionCount() > 0);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+        assertEquals(Integer.valueOf(100), cache.get(100));
+        assertNull(cache.get(50));
+    }
+
+    public void testSizeStaysBounded() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<Integer, Integer>(50);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        assertTrue(cache.size() <= 50);
+        assertEquals(1000 - cache.size(), cache.getEvictionCount());
+    }
+
+    public void testLoaderRunsOncePerKey() throws Exception {
+        final ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<String, String>(10);
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ConcurrentLRUCache.Loader<String, String> loader = new ConcurrentLRUCache.Loader<String, String>() {
+            @Override
+            public String load( String key ) throws Exception {
+                loads.incrementAndGet();
+                Thread.sleep(50);
+                return key.toUpperCase();
+            }
+        };
+
+        final String[] results = new String[8];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        results[index] = cache.get("key", loader); //$NON-NLS-1$
+                    } catch (Exception e) {
+                        // leave the result empty
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+
+        assertEquals(1, loads.get());
+        for (int i = 0; i < results.length; i++) {
+            assertEquals("KEY", results[i]); //$NON-NLS-1$
+        }
+        assertEquals("KEY", cache.get("key")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testNullAndFailedLoadsAreNotCached() throws Exception {
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<String, String>(10);
+        assertNull(cache.get("key", new ConcurrentLRUCache.Loader<String, String>() { //$NON-NLS-1$
+            @Override
+            public String load( String key ) {
+                return null;
+            }
+        }));
+        assertEquals(0, cache.size());
+
+        try {
+            cache.get("key", new ConcurrentLRUCache.Loader<String, String>() { //$NON-NLS-1$
+                @Override
+                public String load( String key ) throws Exception {
+                    throw new IOException();
+                }
+            });
+            fail("Expected the loader's exception"); //$NON-NLS-1$
+        } catch (IOException expected) {
+            // expected
+        }
+        assertEquals(0, cache.size());
+    }
+}
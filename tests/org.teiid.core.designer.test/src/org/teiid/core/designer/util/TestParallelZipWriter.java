@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.core.designer.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import junit.framework.TestCase;
+
+/**
+ */
+public class TestParallelZipWriter extends TestCase {
+
+    private static final int NUM_FILES = 20;
+
+    private ExecutorService executor;
+    private File folder;
+    private File[] files;
+
+    /**
+     * Constructor for TestParallelZipWriter.
+     *
+     * @param name
+     */
+    public TestParallelZipWriter( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(4, new NamedThreadFactory("Test Zip Writer")); //$NON-NLS-1$
+        folder = File.createTempFile("TestParallelZipWriter", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        folder.delete();
+        folder.mkdirs();
+
+        final Random random = new Random(0);
+        files = new File[NUM_FILES];
+        for (int i = 0; i < NUM_FILES; i++) {
+            // half random and half repetitive content, of varying sizes
+            final byte[] content = new byte[1000 * (i + 1)];
+            random.nextBytes(content);
+            Arrays.fill(content, 0, content.length / 2, (byte)'a');
+            files[i] = new File(folder, "file" + i); //$NON-NLS-1$
+            write(files[i], content);
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        FileUtils.removeDirectoryAndChildren(folder);
+    }
+
+    private static void write( File file,
+                               byte[] content ) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] read( InputStream in ) throws IOException {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            for (int count = in.read(buffer); count >= 0; count = in.read(buffer)) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private int writeArchive( File archive,
+                              File previous,
+                              int bufferedEntryLimit ) throws IOException {
+        final ParallelZipWriter writer = new ParallelZipWriter(archive, previous, executor, bufferedEntryLimit);
+        try {
+            final ZipEntry manifest = new ZipEntry("META-INF/manifest.xml"); //$NON-NLS-1$
+            manifest.setComment("The description"); //$NON-NLS-1$
+            writer.add(manifest, "<manifest/>".getBytes()); //$NON-NLS-1$
+            for (int i = 0; i < NUM_FILES; i++) {
+                writer.add(new ZipEntry("folder/" + files[i].getName()), files[i]); //$NON-NLS-1$
+            }
+            writer.finish();
+            return writer.getCopiedEntryCount();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void assertArchive( File archive ) throws IOException {
+        final ZipFile zipFile = new ZipFile(archive);
+        try {
+            assertEquals(NUM_FILES + 1, zipFile.size());
+            final ZipEntry manifest = zipFile.getEntry("META-INF/manifest.xml"); //$NON-NLS-1$
+            assertEquals("The description", manifest.getComment()); //$NON-NLS-1$
+            assertEquals("<manifest/>", new String(read(zipFile.getInputStream(manifest)))); //$NON-NLS-1$
+            for (int i = 0; i < NUM_FILES; i++) {
+                final ZipEntry entry = zipFile.getEntry("folder/" + files[i].getName()); //$NON-NLS-1$
+                assertNotNull(entry);
+                assertTrue(Arrays.equals(read(new java.io.FileInputStream(files[i])), read(zipFile.getInputStream(entry))));
+            }
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    public void testWritesReadableArchive() throws Exception {
+        final File archive = new File(folder, "archive.zip"); //$NON-NLS-1$
+        assertEquals(0, writeArchive(archive, null, ParallelZipWriter.DEFAULT_BUFFERED_ENTRY_LIMIT));
+        assertArchive(archive);
+    }
+
+    public void testStreamsLargeEntries() throws Exception {
+        final File archive = new File(folder, "archive.zip"); //$NON-NLS-1$
+        writeArchive(archive, null, 5000);
+        assertArchive(archive);
+    }
+
+    public void testWritesOnCallingThreadWithoutExecutor() throws Exception {
+        executor.shutdown();
+        executor = null;
+        final File archive = new File(folder, "archive.zip"); //$NON-NLS-1$
+        writeArchive(archive, null, ParallelZipWriter.DEFAULT_BUFFERED_ENTRY_LIMIT);
+        assertArchive(archive);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    public void testCopiesUnchangedEntriesFromPreviousArchive() throws Exception {
+        final File previous = new File(folder, "previous.zip"); //$NON-NLS-1$
+        writeArchive(previous, null, 5000);
+
+        // change one file
+        final byte[] content = read(new java.io.FileInputStream(files[3]));
+        content[0]++;
+        write(files[3], content);
+
+        final File archive = new File(folder, "archive.zip"); //$NON-NLS-1$
+        assertEquals(NUM_FILES, writeArchive(archive, previous, 5000));
+        assertArchive(archive);
+    }
+
+    public void testRejectsDuplicateEntries() throws Exception {
+        final ParallelZipWriter writer = new ParallelZipWriter(new File(folder, "archive.zip"), null, executor); //$NON-NLS-1$
+        try {
+            writer.add(new ZipEntry("a"), new byte[1]); //$NON-NLS-1$
+            writer.add(new ZipEntry("a"), new byte[1]); //$NON-NLS-1$
+            fail("Expected a duplicate entry"); //$NON-NLS-1$
+        } catch (ZipException expected) {
+            // expected
+        } finally {
+            writer.close();
+        }
+    }
+}
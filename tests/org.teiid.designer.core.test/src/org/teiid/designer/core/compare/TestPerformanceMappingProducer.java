@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.compare;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.mapping.Mapping;
+import org.eclipse.emf.mapping.impl.MappingFactoryImpl;
+import org.teiid.core.designer.util.Stopwatch;
+
+/**
+ * Times the mapping by a {@link MappingProducer} of two generated models of 5,000 tables of 20 columns each, on one thread and on
+ * several, and checks that both produce the same mappings.
+ * <p>
+ * Not part of {@link org.teiid.designer.core.test.AllTests}, so it is run on its own.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class TestPerformanceMappingProducer extends TestCase {
+
+    private static final int NUM_TABLES = 5000;
+    private static final int NUM_COLUMNS = 20;
+    private static final int THREADS = 4;
+
+    private EPackage before;
+    private EPackage after;
+
+    /**
+     * Constructor for TestPerformanceMappingProducer.
+     *
+     * @param name
+     */
+    public TestPerformanceMappingProducer( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        // Model the tables and columns as EClasses and EAttributes
+        before = EcoreFactory.eINSTANCE.createEPackage();
+        before.setName("schema"); //$NON-NLS-1$
+        for (int i = 0; i < NUM_TABLES; i++) {
+            final EClass table = EcoreFactory.eINSTANCE.createEClass();
+            table.setName("table" + i); //$NON-NLS-1$
+            for (int j = 0; j < NUM_COLUMNS; j++) {
+                final EAttribute column = EcoreFactory.eINSTANCE.createEAttribute();
+                column.setName("column" + j); //$NON-NLS-1$
+                table.getEStructuralFeatures().add(column);
+            }
+            before.getEClassifiers().add(table);
+        }
+
+        // Re-import it with a tenth of the tables dropped, a tenth added, and a column renamed in every other table
+        after = (EPackage)EcoreUtil.copy(before);
+        final List tables = new ArrayList(after.getEClassifiers());
+        for (int i = 0; i < NUM_TABLES; i++) {
+            final EClass table = (EClass)tables.get(i);
+            if (i % 10 == 0) {
+                after.getEClassifiers().remove(table);
+            } else if (i % 2 == 0) {
+                ((EAttribute)table.getEStructuralFeatures().get(i % NUM_COLUMNS)).setName("renamed"); //$NON-NLS-1$
+            }
+        }
+        for (int i = 0; i < NUM_TABLES / 10; i++) {
+            final EClass table = EcoreFactory.eINSTANCE.createEClass();
+            table.setName("newTable" + i); //$NON-NLS-1$
+            after.getEClassifiers().add(table);
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        before = null;
+        after = null;
+    }
+
+    private Mapping createMappings( final int threads,
+                                    final String description ) {
+        final MappingProducer producer = new MappingProducer(new HashMap(), threads);
+        producer.getEObjectMatcherCache().getEObjectMatcherFactories().add(new EcoreMatcherFactory());
+        final Stopwatch sw = new Stopwatch();
+        sw.start();
+        final Mapping mapping = producer.createMappings(Collections.singletonList(before),
+                                                        Collections.singletonList(after),
+                                                        true,
+                                                        new MappingFactoryImpl(),
+                                                        new NullProgressMonitor());
+        sw.stop();
+        System.out.println("  Mapped " + NUM_TABLES * (NUM_COLUMNS + 1) + " objects " + description + " in " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                           + sw.getTotalDuration() + " ms"); //$NON-NLS-1$
+        return mapping;
+    }
+
+    /**
+     * Describe each mapping, in the order they are nested, by the names of its inputs and outputs.
+     */
+    private void describe( final Mapping mapping,
+                           final List descriptions ) {
+        descriptions.add(getNames(mapping.getInputs()) + "->" + getNames(mapping.getOutputs())); //$NON-NLS-1$
+        for (final Iterator iter = mapping.getNested().iterator(); iter.hasNext();) {
+            describe((Mapping)iter.next(), descriptions);
+        }
+    }
+
+    private String getNames( final List objects ) {
+        final StringBuffer sb = new StringBuffer();
+        for (final Iterator iter = objects.iterator(); iter.hasNext();) {
+            sb.append(((ENamedElement)iter.next()).getName()).append(' ');
+        }
+        return sb.toString();
+    }
+
+    private int countMappings( final Mapping mapping,
+                               final boolean withInputs,
+                               final boolean withOutputs ) {
+        int count = 0;
+        for (final Iterator iter = mapping.getNested().iterator(); iter.hasNext();) {
+            final Mapping nested = (Mapping)iter.next();
+            if (nested.getInputs().isEmpty() != withInputs && nested.getOutputs().isEmpty() != withOutputs) {
+                ++count;
+            }
+            count += countMappings(nested, withInputs, withOutputs);
+        }
+        return count;
+    }
+
+    public void testMapOnOneThread() {
+        System.out.println("\nTestPerformanceMappingProducer.testMapOnOneThread()"); //$NON-NLS-1$
+        final Mapping mapping = createMappings(1, "on one thread"); //$NON-NLS-1$
+
+        final int droppedTables = NUM_TABLES / 10;
+        final int renamedColumns = NUM_TABLES / 2 - droppedTables;
+        // the schema, the kept tables and their kept columns
+        assertEquals(1 + (NUM_TABLES - droppedTables) * (NUM_COLUMNS + 1) - renamedColumns, countMappings(mapping, true, true));
+        // the dropped tables and the old names of the renamed columns
+        assertEquals(droppedTables + renamedColumns, countMappings(mapping, true, false));
+        // the added tables and the new names of the renamed columns
+        assertEquals(NUM_TABLES / 10 + renamedColumns, countMappings(mapping, false, true));
+    }
+
+    public void testMapOnSeveralThreads() {
+        System.out.println("\nTestPerformanceMappingProducer.testMapOnSeveralThreads()"); //$NON-NLS-1$
+        final List expected = new ArrayList();
+        describe(createMappings(1, "on one thread"), expected); //$NON-NLS-1$
+        final List actual = new ArrayList();
+        describe(createMappings(THREADS, "on " + THREADS + " threads"), actual); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual);
+    }
+}
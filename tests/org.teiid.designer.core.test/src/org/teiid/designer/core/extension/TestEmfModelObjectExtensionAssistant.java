@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.extension;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.Collections;
+import java.util.Properties;
+import junit.framework.TestCase;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.teiid.designer.core.ModelEditor;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.spi.RegistrySPI;
+import org.teiid.designer.core.workspace.ModelObjectAnnotations;
+import org.teiid.designer.core.workspace.ModelResource;
+import org.teiid.designer.extension.definition.ModelExtensionDefinition;
+import org.teiid.designer.extension.properties.ModelExtensionPropertyDefinition;
+import org.teiid.designer.metamodels.core.Annotation;
+import org.teiid.designer.metamodels.core.CoreFactory;
+import org.teiid.designer.metamodels.core.ModelAnnotation;
+import org.teiid.designer.metamodels.core.ModelType;
+
+/**
+ * @since 8.1
+ */
+public class TestEmfModelObjectExtensionAssistant extends TestCase {
+
+    private static final String NAMESPACE_PREFIX = "test"; //$NON-NLS-1$
+    private static final String COLOR = NAMESPACE_PREFIX + ":color"; //$NON-NLS-1$
+    private static final String SIZE = NAMESPACE_PREFIX + ":size"; //$NON-NLS-1$
+
+    private Object previousModelEditor;
+    private EObject modelObject;
+    private Annotation annotation;
+    private CountingAssistant assistant;
+
+    /**
+     * Constructor for TestEmfModelObjectExtensionAssistant.
+     *
+     * @param name
+     */
+    public TestEmfModelObjectExtensionAssistant( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        modelObject = EcoreFactory.eINSTANCE.createEClass();
+        annotation = CoreFactory.eINSTANCE.createAnnotation();
+        annotation.getTags().put(COLOR, "red"); //$NON-NLS-1$
+        annotation.getTags().put(SIZE, "large"); //$NON-NLS-1$
+        annotation.getTags().put("other:color", "blue"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // the model supports the namespace of the assistant
+        final Annotation resourceAnnotation = CoreFactory.eINSTANCE.createAnnotation();
+        resourceAnnotation.getTags().put("modelExtensionDefinition:" + NAMESPACE_PREFIX, NAMESPACE_PREFIX); //$NON-NLS-1$
+        final ModelAnnotation modelAnnotation = mock(ModelAnnotation.class);
+        final ModelObjectAnnotations annotations = mock(ModelObjectAnnotations.class);
+        when(annotations.getAnnotation(modelAnnotation)).thenReturn(resourceAnnotation);
+        final ModelResource modelResource = mock(ModelResource.class);
+        when(modelResource.getModelAnnotation()).thenReturn(modelAnnotation);
+        when(modelResource.getAnnotations()).thenReturn(annotations);
+        when(modelResource.getModelType()).thenReturn(ModelType.PHYSICAL_LITERAL);
+
+        final ModelEditor modelEditor = mock(ModelEditor.class);
+        when(modelEditor.getAnnotation(modelObject, false)).thenReturn(annotation);
+        previousModelEditor = ModelerCore.getRegistry().lookup(ModelerCore.MODEL_EDITOR_KEY);
+        ((RegistrySPI)ModelerCore.getRegistry()).register(ModelerCore.MODEL_EDITOR_KEY, modelEditor);
+
+        assistant = new CountingAssistant(modelResource);
+        final ModelExtensionDefinition med = assistant.createModelExtensionDefinition(NAMESPACE_PREFIX,
+                                                                                      "http://www.example.org/test", //$NON-NLS-1$
+                                                                                      "http://www.example.org/metamodel", //$NON-NLS-1$
+                                                                                      Collections.<String>emptySet(),
+                                                                                      "Test", //$NON-NLS-1$
+                                                                                      "1"); //$NON-NLS-1$
+        med.addPropertyDefinition(modelObject.getClass().getName(), createPropertyDefinition("color")); //$NON-NLS-1$
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (previousModelEditor == null) {
+            ((RegistrySPI)ModelerCore.getRegistry()).unregister(ModelerCore.MODEL_EDITOR_KEY);
+        } else {
+            ((RegistrySPI)ModelerCore.getRegistry()).register(ModelerCore.MODEL_EDITOR_KEY, previousModelEditor);
+        }
+        previousModelEditor = null;
+        modelObject = null;
+        annotation = null;
+        assistant = null;
+    }
+
+    private ModelExtensionPropertyDefinition createPropertyDefinition( final String simpleId ) {
+        return assistant.createPropertyDefinition(simpleId, "string", "false", null, null, "false", "false", "false", null, null, null); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+    }
+
+    private static Properties properties( final String... keysAndValues ) {
+        final Properties props = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            props.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return props;
+    }
+
+    public void testShouldReuseOverriddenValuesWhileTagsAreUnchanged() throws Exception {
+        final int adapters = modelObject.eAdapters().size() + annotation.eAdapters().size();
+        assertEquals(properties(COLOR, "red"), assistant.getOverriddenValues(modelObject)); //$NON-NLS-1$
+        final int computed = assistant.computed;
+        assertTrue(computed > 0);
+
+        assertEquals(properties(COLOR, "red"), assistant.getOverriddenValues(modelObject)); //$NON-NLS-1$
+        assertEquals(computed, assistant.computed);
+
+        // reading the values does not change the model
+        assertEquals(adapters, modelObject.eAdapters().size() + annotation.eAdapters().size());
+    }
+
+    public void testShouldComputeOverriddenValuesAgainWhenTagValueChanges() throws Exception {
+        assistant.getOverriddenValues(modelObject);
+        final int computed = assistant.computed;
+
+        annotation.getTags().put(COLOR, "green"); //$NON-NLS-1$
+        assertEquals(properties(COLOR, "green"), assistant.getOverriddenValues(modelObject)); //$NON-NLS-1$
+        assertTrue(assistant.computed > computed);
+
+        annotation.getTags().removeKey(COLOR);
+        assertEquals(properties(), assistant.getOverriddenValues(modelObject));
+    }
+
+    public void testShouldComputeOverriddenValuesAgainWhenMedChanges() throws Exception {
+        assertEquals(properties(COLOR, "red"), assistant.getOverriddenValues(modelObject)); //$NON-NLS-1$
+
+        // the tag of the new property definition is now a property
+        assistant.getModelExtensionDefinition().addPropertyDefinition(modelObject.getClass().getName(),
+                                                                     createPropertyDefinition("size")); //$NON-NLS-1$
+        assertEquals(properties(COLOR, "red", SIZE, "large"), assistant.getOverriddenValues(modelObject)); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * An assistant of a single model, that counts the overridden values it computes.
+     */
+    static class CountingAssistant extends EmfModelObjectExtensionAssistant {
+        private final ModelResource modelResource;
+        int computed;
+
+        CountingAssistant( final ModelResource modelResource ) {
+            this.modelResource = modelResource;
+        }
+
+        @Override
+        protected ModelResource getModelResource( final Object modelObject ) {
+            return this.modelResource;
+        }
+
+        @Override
+        protected String getOverriddenValue( final Object modelObject,
+                                             final String propId,
+                                             final String currentValue ) throws Exception {
+            this.computed++;
+            return super.getOverriddenValue(modelObject, propId, currentValue);
+        }
+    }
+}
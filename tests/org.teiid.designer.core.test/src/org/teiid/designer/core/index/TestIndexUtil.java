@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import junit.framework.TestCase;
+import org.teiid.core.util.SmartTestDesignerSuite;
+import org.teiid.designer.core.metadata.runtime.FakeSqlColumnAspect;
+import org.teiid.designer.core.metadata.runtime.FakeSqlTableAspect;
+import org.teiid.designer.core.metadata.runtime.RuntimeAdapter;
+import org.teiid.designer.metadata.runtime.impl.RecordFactory;
+
+/**
+ * @since 8.1
+ */
+public class TestIndexUtil extends TestCase {
+
+    private static final String TEST_INDEX_FILE_NAME = "binary_records_test.index"; //$NON-NLS-1$
+    private static final String FAKE_MODEL_FILE_PATH = SmartTestDesignerSuite.getTestDataPath(TestIndexUtil.class)
+                                                       + File.separator + "PartsRelational.mmm"; //$NON-NLS-1$
+    private static final String MODEL_PATH = "myprj/myModel"; //$NON-NLS-1$
+
+    private Index index;
+
+    /**
+     * Constructor for TestIndexUtil.
+     *
+     * @param name
+     */
+    public TestIndexUtil( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        System.setProperty(RuntimeAdapter.BINARY_RECORDS_PROPERTY, "true"); //$NON-NLS-1$
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        System.clearProperty(RuntimeAdapter.BINARY_RECORDS_PROPERTY);
+        if (index != null && !index.getIndexFile().delete()) {
+            index.getIndexFile().deleteOnExit();
+        }
+        index = null;
+    }
+
+    /**
+     * Index a table and its column with the records the given indexer writes.
+     */
+    private Index createIndex( final ModelIndexer modelIndexer ) throws Exception {
+        final File indexDirectory = new File(SmartTestDesignerSuite.getTestDataPath(TestIndexUtil.class));
+        index = new Index(indexDirectory, TEST_INDEX_FILE_NAME, false);
+        index.add(new FileDocument(new File(FAKE_MODEL_FILE_PATH)), new TableIndexer(modelIndexer.isBinaryRecords()));
+        index.save();
+        return index;
+    }
+
+    private static List queryWords( final IIndex index,
+                                    final char recordType ) throws Exception {
+        final IEntryResult[] results = index.queryEntries(new char[] {recordType, IndexConstants.RECORD_STRING.RECORD_DELIMITER});
+        final List words = new ArrayList();
+        for (int i = 0; i < results.length; i++) {
+            words.add(results[i].getWord());
+        }
+        return words;
+    }
+
+    public void testWorkspaceIndexerShouldFollowBinaryRecordsProperty() {
+        assertTrue(new ModelIndexer().isBinaryRecords());
+
+        System.clearProperty(RuntimeAdapter.BINARY_RECORDS_PROPERTY);
+        assertFalse(new ModelIndexer().isBinaryRecords());
+    }
+
+    public void testShouldFindBinaryRecordsOfWorkspaceIndex() throws Exception {
+        final IIndex workspaceIndex = createIndex(new ModelIndexer());
+        assertTrue(IndexUtil.hasBinaryRecords(workspaceIndex));
+    }
+
+    public void testVdbIndexShouldBeTextWhileBinaryRecordsPropertyIsSet() throws Exception {
+        final ModelIndexer vdbIndexer = IndexUtil.createVdbIndexer();
+        assertFalse(vdbIndexer.isBinaryRecords());
+
+        final IIndex vdbIndex = createIndex(vdbIndexer);
+        assertFalse(IndexUtil.hasBinaryRecords(vdbIndex));
+
+        final List words = queryWords(vdbIndex, IndexConstants.RECORD_TYPE.TABLE);
+        words.addAll(queryWords(vdbIndex, IndexConstants.RECORD_TYPE.COLUMN));
+        assertEquals(2, words.size());
+        for (final Iterator iter = words.iterator(); iter.hasNext();) {
+            assertTrue(RecordFactory.getIndexVersion((char[])iter.next()) < RecordFactory.BINARY_RECORD_INDEX_VERSION);
+        }
+    }
+
+    static class TableIndexer implements IIndexer {
+        private final boolean binaryRecords;
+
+        TableIndexer( final boolean binaryRecords ) {
+            this.binaryRecords = binaryRecords;
+        }
+
+        @Override
+        public String[] getFileTypes() {
+            return null;
+        }
+
+        @Override
+        public void index( IDocument document,
+                           IIndexerOutput output ) {
+            output.addDocument(document);
+
+            final FakeSqlTableAspect table = new FakeSqlTableAspect();
+            table.uuid = "mmuuid:table"; //$NON-NLS-1$
+            table.fullName = "Model.Table"; //$NON-NLS-1$
+            table.name = "Table"; //$NON-NLS-1$
+            final FakeSqlColumnAspect column = new FakeSqlColumnAspect();
+            column.uuid = "mmuuid:column"; //$NON-NLS-1$
+            column.parentUuid = "mmuuid:table"; //$NON-NLS-1$
+            column.fullName = "Model.Table.Column"; //$NON-NLS-1$
+            column.name = "Column"; //$NON-NLS-1$
+
+            final List wordEntries = new ArrayList();
+            RuntimeAdapter.addTableWord(table, null, null, MODEL_PATH, wordEntries, this.binaryRecords);
+            RuntimeAdapter.addColumnWord(column, null, MODEL_PATH, wordEntries, this.binaryRecords);
+            for (final Iterator iter = wordEntries.iterator(); iter.hasNext();) {
+                output.addRef(((WordEntry)iter.next()).getWord());
+            }
+        }
+
+        @Override
+        public void setFileTypes( String[] fileTypes ) {
+        }
+
+        @Override
+        public boolean shouldIndex( IDocument document ) {
+            return true;
+        }
+    }
+}
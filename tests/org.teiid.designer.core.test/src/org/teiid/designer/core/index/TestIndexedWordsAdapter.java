@@ -0,0 +1,229 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.teiid.designer.core.index.IndexedWordsAdapter.IndexedWords;
+import org.teiid.designer.core.util.ModelObjectCollector;
+
+/**
+ * TestIndexedWordsAdapter
+ */
+public class TestIndexedWordsAdapter extends TestCase {
+
+    private static final String MODEL_PATH = "/project/model.xmi"; //$NON-NLS-1$
+    private static final String INDEXER = "indexer"; //$NON-NLS-1$
+
+    private Resource resource;
+    private EPackage root;
+    private EClass table1;
+    private EAttribute column1;
+    private EClass table2;
+    private EReference reference;
+    private IndexedWords words;
+
+    /**
+     * Constructor for TestIndexedWordsAdapter.
+     *
+     * @param name
+     */
+    public TestIndexedWordsAdapter( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        final EcoreFactory factory = EcoreFactory.eINSTANCE;
+        root = factory.createEPackage();
+        table1 = factory.createEClass();
+        column1 = factory.createEAttribute();
+        column1.setEType(EcorePackage.eINSTANCE.getEString());
+        table1.getEStructuralFeatures().add(column1);
+        table2 = factory.createEClass();
+        reference = factory.createEReference();
+        reference.setEType(table2);
+        table1.getEStructuralFeatures().add(reference);
+        root.getEClassifiers().add(table1);
+        root.getEClassifiers().add(table2);
+        // unrelated objects, so that small changes stay below the full index threshold
+        for (int i = 0; i < 20; i++) {
+            root.getEClassifiers().add(factory.createEClass());
+        }
+
+        resource = new ResourceImpl(URI.createURI("model.xmi")); //$NON-NLS-1$
+        resource.getContents().add(root);
+
+        words = IndexedWordsAdapter.adapt(resource).getIndexedWords(INDEXER);
+        indexAll();
+    }
+
+    /**
+     * Mimics a full index of the model, giving each object one word.
+     */
+    private void indexAll() {
+        words.reset(MODEL_PATH, new IndexingContext());
+        for (final Object eObject : new ModelObjectCollector(resource).getEObjects()) {
+            words.setWords((EObject)eObject, Collections.singletonList(eObject));
+        }
+    }
+
+    private static Resource createImportedModel() {
+        final Resource imported = new ResourceImpl(URI.createURI("imported.xmi")); //$NON-NLS-1$
+        imported.getContents().add(EcoreFactory.eINSTANCE.createEClass());
+        return imported;
+    }
+
+    public void testAdapterIsSharedByIndexers() {
+        assertSame(IndexedWordsAdapter.adapt(resource), IndexedWordsAdapter.adapt(resource));
+        assertSame(words, IndexedWordsAdapter.adapt(resource).getIndexedWords(INDEXER));
+        assertNotSame(words, IndexedWordsAdapter.adapt(resource).getIndexedWords("searchIndexer")); //$NON-NLS-1$
+    }
+
+    public void testNothingChangedAfterIndexing() {
+        final Collection<EObject> changed = words.takeChangedObjects(MODEL_PATH);
+        assertNotNull(changed);
+        assertTrue(changed.isEmpty());
+    }
+
+    public void testChangeMarksObjectContentsAndContainers() {
+        table1.setName("Renamed"); //$NON-NLS-1$
+
+        final Collection<EObject> changed = words.takeChangedObjects(MODEL_PATH);
+        assertNotNull(changed);
+        assertTrue(changed.contains(table1));
+        assertTrue(changed.contains(column1));
+        assertTrue(changed.contains(root));
+        assertFalse(changed.contains(table2));
+
+        // changes are only reported once
+        assertTrue(words.takeChangedObjects(MODEL_PATH).isEmpty());
+    }
+
+    public void testChangeMarksReferencedObjects() {
+        reference.setName("ref"); //$NON-NLS-1$
+
+        final Collection<EObject> changed = words.takeChangedObjects(MODEL_PATH);
+        assertNotNull(changed);
+        assertTrue(changed.contains(reference));
+        assertTrue(changed.contains(table2));
+    }
+
+    public void testRemovedAndAddedObjectsAreMarked() {
+        table1.getEStructuralFeatures().remove(column1);
+        final EAttribute column2 = EcoreFactory.eINSTANCE.createEAttribute();
+        table1.getEStructuralFeatures().add(column2);
+
+        final Collection<EObject> changed = words.takeChangedObjects(MODEL_PATH);
+        assertNotNull(changed);
+        assertTrue(changed.contains(column1));
+        assertTrue(changed.contains(column2));
+        assertNull(column1.eResource());
+
+        // the adapter follows the added object but no longer the removed one
+        column1.setName("ignored"); //$NON-NLS-1$
+        column2.setName("column2"); //$NON-NLS-1$
+        final Collection<EObject> changedAgain = words.takeChangedObjects(MODEL_PATH);
+        assertTrue(changedAgain.contains(column2));
+        assertFalse(changedAgain.contains(column1));
+    }
+
+    public void testAddedObjectContentsAreMarked() {
+        final EPackage root2 = EcoreFactory.eINSTANCE.createEPackage();
+        final EClass table3 = EcoreFactory.eINSTANCE.createEClass();
+        final EAttribute column3 = EcoreFactory.eINSTANCE.createEAttribute();
+        table3.getEStructuralFeatures().add(column3);
+        root2.getEClassifiers().add(table3);
+        resource.getContents().add(root2);
+
+        final Collection<EObject> changed = words.takeChangedObjects(MODEL_PATH);
+        assertNotNull(changed);
+        assertTrue(changed.contains(root2));
+        assertTrue(changed.contains(table3));
+        assertTrue(changed.contains(column3));
+        assertFalse(changed.contains(root));
+    }
+
+    public void testRepeatedChangesReportEachObjectOnce() {
+        for (int i = 0; i < 100; i++) {
+            table1.setName("Renamed" + i); //$NON-NLS-1$
+            column1.setName("column" + i); //$NON-NLS-1$
+        }
+
+        final Collection<EObject> changed = words.takeChangedObjects(MODEL_PATH);
+        assertNotNull(changed);
+        int column1Count = 0;
+        for (final EObject eObject : changed) {
+            if (eObject == column1) column1Count++;
+        }
+        assertEquals(1, column1Count);
+        assertTrue(changed.contains(table1));
+        assertTrue(changed.contains(root));
+        assertFalse(changed.contains(table2));
+    }
+
+    public void testWholeModelIsIndexedAfterUnloadOrMove() {
+        resource.unload();
+        assertNull(words.takeChangedObjects(MODEL_PATH));
+
+        indexAll();
+        assertNotNull(words.takeChangedObjects(MODEL_PATH));
+        assertNull(words.takeChangedObjects("/project/moved.xmi")); //$NON-NLS-1$
+    }
+
+    public void testWholeModelIsIndexedAfterImportedModelChanges() {
+        final Resource imported = createImportedModel();
+        IndexedWordsAdapter.adapt(imported);
+        indexAll();
+        final Collection<Resource> importedModels = Collections.singletonList(imported);
+        assertNotNull(words.takeChangedObjects(MODEL_PATH, importedModels));
+
+        ((EClass)imported.getContents().get(0)).setName("Renamed"); //$NON-NLS-1$
+        assertNull(words.takeChangedObjects(MODEL_PATH, importedModels));
+
+        indexAll();
+        assertNotNull(words.takeChangedObjects(MODEL_PATH, importedModels));
+    }
+
+    public void testWholeModelIsIndexedOnceAfterImportedModelIsLoaded() {
+        final Collection<Resource> importedModels = Collections.singletonList(createImportedModel());
+        assertNull(words.takeChangedObjects(MODEL_PATH, importedModels));
+
+        indexAll();
+        assertNotNull(words.takeChangedObjects(MODEL_PATH, importedModels));
+    }
+
+    public void testChangesToOtherModelsAreIgnored() {
+        final Resource imported = createImportedModel();
+        final Resource other = createImportedModel();
+        IndexedWordsAdapter.adapt(imported);
+        IndexedWordsAdapter.adapt(other);
+        indexAll();
+
+        ((EClass)other.getContents().get(0)).setName("Renamed"); //$NON-NLS-1$
+        final Collection<EObject> changed = words.takeChangedObjects(MODEL_PATH, Collections.singletonList(imported));
+        assertNotNull(changed);
+        assertTrue(changed.isEmpty());
+    }
+
+    public void testWholeModelIsIndexedAfterLargeChange() {
+        root.setName("Renamed"); //$NON-NLS-1$
+        assertNull(words.takeChangedObjects(MODEL_PATH));
+    }
+}
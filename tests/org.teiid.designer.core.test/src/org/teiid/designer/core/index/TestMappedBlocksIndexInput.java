@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import junit.framework.TestCase;
+import org.teiid.core.util.SmartTestDesignerSuite;
+
+/**
+ * @since 8.1
+ */
+public class TestMappedBlocksIndexInput extends TestCase {
+
+    private static final String TEST_INDEX_FILE_NAME = "mapped_close_test.index"; //$NON-NLS-1$
+    private static final String FAKE_MODEL_FILE_PATH = SmartTestDesignerSuite.getTestDataPath(TestMappedBlocksIndexInput.class)
+                                                       + File.separator + "PartsRelational.mmm"; //$NON-NLS-1$
+
+    private static final int NUM_TABLES = 50;
+    private static final int NUM_COLUMNS = 20;
+
+    private File indexFile;
+    private volatile boolean queriesDone;
+
+    /**
+     * Constructor for TestMappedBlocksIndexInput.
+     *
+     * @param name
+     */
+    public TestMappedBlocksIndexInput( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        final File indexDirectory = new File(SmartTestDesignerSuite.getTestDataPath(TestMappedBlocksIndexInput.class));
+        Index index = new Index(indexDirectory, TEST_INDEX_FILE_NAME, false);
+        index.add(new FileDocument(new File(FAKE_MODEL_FILE_PATH)), new ColumnIndexer());
+        index.save();
+        indexFile = index.getIndexFile();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (indexFile != null && !indexFile.delete()) {
+            indexFile.deleteOnExit();
+        }
+    }
+
+    private static char[] getTablePrefix( int tableNum ) {
+        return ("" + IndexConstants.RECORD_TYPE.COLUMN + IndexConstants.RECORD_STRING.RECORD_DELIMITER + "Model.Table" + tableNum + '.').toCharArray(); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testShouldReopenWhenQueriedAfterClose() throws Exception {
+        MappedBlocksIndexInput input = new MappedBlocksIndexInput(indexFile);
+        try {
+            assertEquals(NUM_COLUMNS, input.queryEntriesPrefixedBy(getTablePrefix(0), true).length);
+            input.close();
+            assertFalse(input.isOpen());
+
+            assertEquals(NUM_COLUMNS, input.queryEntriesPrefixedBy(getTablePrefix(1), true).length);
+            assertTrue(input.isOpen());
+        } finally {
+            input.close();
+        }
+    }
+
+    public void testShouldReleaseFileWhenClosed() throws Exception {
+        MappedBlocksIndexInput input = new MappedBlocksIndexInput(indexFile);
+        assertEquals(NUM_COLUMNS, input.queryEntriesPrefixedBy(getTablePrefix(0), true).length);
+        input.close();
+
+        // a mapped file cannot be renamed or deleted on Windows while it is still mapped
+        File renamed = new File(indexFile.getParentFile(), indexFile.getName() + ".renamed"); //$NON-NLS-1$
+        assertTrue(indexFile.renameTo(renamed));
+        assertTrue(renamed.renameTo(indexFile));
+    }
+
+    public void testShouldNotFailQueriesRacingWithClose() throws Exception {
+        final MappedBlocksIndexInput input = new MappedBlocksIndexInput(indexFile);
+        final List failures = Collections.synchronizedList(new ArrayList());
+
+        List threads = new ArrayList();
+        for (int i = 0; i < 4; i++) {
+            final int threadNum = i;
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 500; j++) {
+                            IEntryResult[] results = input.queryEntriesPrefixedBy(getTablePrefix((threadNum + j) % NUM_TABLES), true);
+                            if (results == null || results.length != NUM_COLUMNS) {
+                                failures.add("Wrong number of results for query " + j); //$NON-NLS-1$
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        Thread closer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    while (!queriesDone) {
+                        input.close();
+                        Thread.yield();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }
+        };
+
+        closer.start();
+        for (int i = 0; i < threads.size(); i++) {
+            ((Thread)threads.get(i)).start();
+        }
+        for (int i = 0; i < threads.size(); i++) {
+            ((Thread)threads.get(i)).join(60000);
+        }
+        queriesDone = true;
+        closer.join(60000);
+        input.close();
+
+        assertEquals(Collections.EMPTY_LIST, failures);
+    }
+
+    public void testShouldBeSupportedOutsideWindows() {
+        if (!System.getProperty("os.name", "").startsWith("Windows")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            assertTrue(MappedBlocksIndexInput.isSupported());
+        }
+    }
+
+    static class ColumnIndexer implements IIndexer {
+        @Override
+        public String[] getFileTypes() {
+            return null;
+        }
+
+        @Override
+        public void index( IDocument document,
+                           IIndexerOutput output ) {
+            output.addDocument(document);
+            for (int i = 0; i < NUM_TABLES; i++) {
+                for (int j = 0; j < NUM_COLUMNS; j++) {
+                    output.addRef(TestPerformanceMappedBlocksIndexInput.createColumnWord(i, j).toCharArray());
+                }
+            }
+        }
+
+        @Override
+        public void setFileTypes( String[] fileTypes ) {
+        }
+
+        @Override
+        public boolean shouldIndex( IDocument document ) {
+            return true;
+        }
+    }
+}
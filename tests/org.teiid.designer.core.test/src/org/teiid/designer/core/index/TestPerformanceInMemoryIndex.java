@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.teiid.core.designer.util.Stopwatch;
+import org.teiid.core.util.SmartTestDesignerSuite;
+
+/**
+ * Times the sorting and saving of the words of a large {@link InMemoryIndex}, and checks that they are saved in order.
+ * <p>
+ * Not part of {@link org.teiid.designer.core.test.AllTests}, so it is run on its own.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class TestPerformanceInMemoryIndex extends TestCase {
+
+    private static final int NUM_TABLES = 2000;
+    private static final int NUM_COLUMNS = 100;
+
+    private static final char DELIMITER = IndexConstants.RECORD_STRING.RECORD_DELIMITER;
+
+    private File indexDirectory;
+    private List<String> words;
+
+    /**
+     * Constructor for TestPerformanceInMemoryIndex.
+     *
+     * @param name
+     */
+    public TestPerformanceInMemoryIndex( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        indexDirectory = new File(SmartTestDesignerSuite.getTestScratchPath(), "inMemoryIndexes"); //$NON-NLS-1$
+        indexDirectory.mkdirs();
+
+        words = new ArrayList<String>(NUM_TABLES * NUM_COLUMNS);
+        for (int i = 0; i < NUM_TABLES; i++) {
+            for (int j = 0; j < NUM_COLUMNS; j++) {
+                words.add(createColumnWord(i, j));
+            }
+        }
+        Collections.shuffle(words, new Random(1));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        File[] files = indexDirectory.listFiles();
+        for (int i = 0; files != null && i < files.length; i++) {
+            files[i].delete();
+        }
+        indexDirectory.delete();
+        words = null;
+    }
+
+    private static String createColumnWord( int tableNum,
+                                            int columnNum ) {
+        return "" + IndexConstants.RECORD_TYPE.COLUMN + DELIMITER + "Model.Table" + tableNum + ".Column" + columnNum //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+               + DELIMITER + "mmuuid:" + tableNum + '-' + columnNum; //$NON-NLS-1$
+    }
+
+    private List<String> readWords( File indexFile ) throws Exception {
+        List<String> savedWords = new ArrayList<String>(words.size());
+        BlocksIndexInput input = new BlocksIndexInput(indexFile);
+        try {
+            input.open();
+            while (input.hasMoreWords()) {
+                savedWords.add(new String(input.getCurrentWordEntry().getWord()));
+                input.moveToNextWordEntry();
+            }
+        } finally {
+            input.close();
+        }
+        return savedWords;
+    }
+
+    public void testSaveSortsWords() throws Exception {
+        System.out.println("\nTestPerformanceInMemoryIndex.testSaveSortsWords()"); //$NON-NLS-1$
+        InMemoryIndex index = new InMemoryIndex();
+        IndexedFile indexedFile = index.addDocument(new FileDocument(new File(indexDirectory, "Model.xmi"))); //$NON-NLS-1$
+
+        Stopwatch sw = new Stopwatch();
+        sw.start();
+        for (String word : words) {
+            index.addRef(indexedFile, word.toCharArray());
+        }
+        File indexFile = new File(indexDirectory, "Model.INDEX"); //$NON-NLS-1$
+        index.save(indexFile);
+        sw.stop();
+        System.out.println("  Added and saved " + words.size() + " words in " + sw.getTotalDuration() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+        Collections.sort(words);
+        assertEquals(words, readWords(indexFile));
+    }
+
+    public void testSortKeepsEqualWordsInOrder() {
+        InMemoryIndex index = new InMemoryIndex();
+        String[] added = {"b", "a", "ab", "b", "", "a", "ba"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+        for (int i = 0; i < added.length; i++) {
+            index.addRef(added[i].toCharArray(), i + 1);
+        }
+
+        int[] sorted = index.getSortedWords();
+        assertEquals(added.length, sorted.length);
+        int[] expected = {4, 1, 5, 2, 0, 3, 6};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], sorted[i]);
+        }
+
+        WordEntry entry = new WordEntry();
+        index.readWordEntry(sorted[6], entry);
+        assertEquals("ba", new String(entry.getWord())); //$NON-NLS-1$
+        assertEquals(1, entry.getNumRefs());
+        assertEquals(7, entry.getRef(0));
+    }
+
+    public void testMergeKeepsWordsOfEachDocument() throws Exception {
+        System.out.println("\nTestPerformanceInMemoryIndex.testMergeKeepsWordsOfEachDocument()"); //$NON-NLS-1$
+        Index index = new Index(indexDirectory, "Merged.INDEX", false); //$NON-NLS-1$
+        final int half = words.size() / 2;
+
+        Stopwatch sw = new Stopwatch();
+        sw.start();
+        index.add(new FileDocument(new File(indexDirectory, "Model1.xmi")), new WordIndexer(words.subList(0, half))); //$NON-NLS-1$
+        index.save();
+        index.add(new FileDocument(new File(indexDirectory, "Model2.xmi")), //$NON-NLS-1$
+                  new WordIndexer(words.subList(half, words.size())));
+        index.save();
+        sw.stop();
+        System.out.println("  Indexed and merged " + words.size() + " words in " + sw.getTotalDuration() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+        List<String> savedWords = readWords(index.getIndexFile());
+        index.dispose();
+        Collections.sort(words);
+        assertEquals(words, savedWords);
+    }
+
+    static class WordIndexer implements IIndexer {
+        private final List<String> words;
+
+        WordIndexer( List<String> words ) {
+            this.words = words;
+        }
+
+        @Override
+        public String[] getFileTypes() {
+            return null;
+        }
+
+        @Override
+        public void index( IDocument document,
+                           IIndexerOutput output ) {
+            output.addDocument(document);
+            for (String word : words) {
+                output.addRef(word);
+            }
+        }
+
+        @Override
+        public void setFileTypes( String[] fileTypes ) {
+        }
+
+        @Override
+        public boolean shouldIndex( IDocument document ) {
+            return true;
+        }
+    }
+}
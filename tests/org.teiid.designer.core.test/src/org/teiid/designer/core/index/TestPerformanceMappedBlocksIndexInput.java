@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.io.File;
+import java.io.IOException;
+import junit.framework.TestCase;
+import org.teiid.core.designer.util.Stopwatch;
+import org.teiid.core.util.SmartTestDesignerSuite;
+
+/**
+ * Compares the {@link BlocksIndexInput} and {@link MappedBlocksIndexInput} readers for prefix and pattern queries against a
+ * large generated index.
+ * <p>
+ * Not part of {@link org.teiid.designer.core.test.AllTests}, so it is run on its own.
+ * </p>
+ */
+public class TestPerformanceMappedBlocksIndexInput extends TestCase {
+
+    private static final String TEST_INDEX_FILE_NAME = "mapped_test.index"; //$NON-NLS-1$
+    private static final String FAKE_MODEL_FILE_PATH = SmartTestDesignerSuite.getTestDataPath(TestPerformanceMappedBlocksIndexInput.class)
+                                                       + File.separator + "PartsRelational.mmm"; //$NON-NLS-1$
+
+    private static final int NUM_TABLES = 500;
+    private static final int NUM_COLUMNS = 200;
+    private static final int NUM_QUERIES = 200;
+
+    private static final char DELIMITER = IndexConstants.RECORD_STRING.RECORD_DELIMITER;
+
+    private File indexFile;
+
+    /**
+     * Constructor for TestPerformanceMappedBlocksIndexInput.
+     *
+     * @param name
+     */
+    public TestPerformanceMappedBlocksIndexInput( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        final File indexDirectory = new File(SmartTestDesignerSuite.getTestDataPath(TestPerformanceMappedBlocksIndexInput.class));
+        Index index = new Index(indexDirectory, TEST_INDEX_FILE_NAME, false);
+        index.add(new FileDocument(new File(FAKE_MODEL_FILE_PATH)), new ColumnIndexer());
+        index.save();
+        indexFile = index.getIndexFile();
+        System.out.println("  " + indexFile + " is " + indexFile.length() + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Index.setUseMappedInput(false);
+        if (indexFile != null && !indexFile.delete()) {
+            indexFile.deleteOnExit();
+        }
+    }
+
+    static String createColumnWord( int tableNum,
+                                    int columnNum ) {
+        return "" + IndexConstants.RECORD_TYPE.COLUMN + DELIMITER + "Model.Table" + tableNum + ".Column" + columnNum //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+               + DELIMITER + "mmuuid:" + tableNum + '-' + columnNum; //$NON-NLS-1$
+    }
+
+    private long runPrefixQueries( BlocksIndexInput input,
+                                   int[] counts ) throws IOException {
+        Stopwatch watch = new Stopwatch();
+        watch.start();
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            char[] prefix = ("" + IndexConstants.RECORD_TYPE.COLUMN + DELIMITER + "Model.Table" + (i % NUM_TABLES) + '.').toCharArray(); //$NON-NLS-1$ //$NON-NLS-2$
+            IEntryResult[] results = input.queryEntriesPrefixedBy(prefix, true);
+            counts[i] = results == null ? 0 : results.length;
+        }
+        watch.stop();
+        return watch.getTotalDuration();
+    }
+
+    private long runPatternQueries( BlocksIndexInput input,
+                                    int[] counts ) throws IOException {
+        Stopwatch watch = new Stopwatch();
+        watch.start();
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            char[] pattern = ("*Column" + (i % NUM_COLUMNS) + DELIMITER + '*').toCharArray(); //$NON-NLS-1$
+            IEntryResult[] results = input.queryEntriesMatching(pattern, false);
+            counts[i] = results == null ? 0 : results.length;
+        }
+        watch.stop();
+        return watch.getTotalDuration();
+    }
+
+    public void testPrefixQueries() throws Exception {
+        System.out.println("\nTestPerformanceMappedBlocksIndexInput.testPrefixQueries()"); //$NON-NLS-1$
+        int[] blocksCounts = new int[NUM_QUERIES];
+        int[] mappedCounts = new int[NUM_QUERIES];
+
+        BlocksIndexInput blocksInput = new BlocksIndexInput(indexFile);
+        BlocksIndexInput mappedInput = new MappedBlocksIndexInput(indexFile);
+        try {
+            long blocksTime = runPrefixQueries(blocksInput, blocksCounts);
+            long mappedTime = runPrefixQueries(mappedInput, mappedCounts);
+            System.out.println("  BlocksIndexInput prefix queries       = " + blocksTime + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+            System.out.println("  MappedBlocksIndexInput prefix queries = " + mappedTime + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        } finally {
+            blocksInput.close();
+            mappedInput.close();
+        }
+
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            assertEquals(NUM_COLUMNS, blocksCounts[i]);
+            assertEquals(blocksCounts[i], mappedCounts[i]);
+        }
+    }
+
+    public void testPatternQueries() throws Exception {
+        System.out.println("\nTestPerformanceMappedBlocksIndexInput.testPatternQueries()"); //$NON-NLS-1$
+        int[] blocksCounts = new int[NUM_QUERIES];
+        int[] mappedCounts = new int[NUM_QUERIES];
+
+        BlocksIndexInput blocksInput = new BlocksIndexInput(indexFile);
+        BlocksIndexInput mappedInput = new MappedBlocksIndexInput(indexFile);
+        try {
+            long blocksTime = runPatternQueries(blocksInput, blocksCounts);
+            long mappedTime = runPatternQueries(mappedInput, mappedCounts);
+            System.out.println("  BlocksIndexInput pattern queries       = " + blocksTime + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+            System.out.println("  MappedBlocksIndexInput pattern queries = " + mappedTime + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        } finally {
+            blocksInput.close();
+            mappedInput.close();
+        }
+
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            assertEquals(NUM_TABLES, blocksCounts[i]);
+            assertEquals(blocksCounts[i], mappedCounts[i]);
+        }
+    }
+
+    public void testIndexUsesMappedInputWhenEnabled() throws Exception {
+        Index.setUseMappedInput(true);
+        Index index = new Index(indexFile.getAbsolutePath(), true);
+        assertTrue(index.getBlocksIndexInput() instanceof MappedBlocksIndexInput);
+        assertEquals(1, index.getNumDocuments());
+        assertEquals(NUM_TABLES * NUM_COLUMNS, index.getNumWords());
+
+        Index.setUseMappedInput(false);
+        assertFalse(index.getBlocksIndexInput() instanceof MappedBlocksIndexInput);
+    }
+
+    class ColumnIndexer implements IIndexer {
+        @Override
+        public String[] getFileTypes() {
+            return null;
+        }
+
+        @Override
+        public void index( IDocument document,
+                           IIndexerOutput output ) {
+            output.addDocument(document);
+            for (int i = 0; i < NUM_TABLES; i++) {
+                for (int j = 0; j < NUM_COLUMNS; j++) {
+                    output.addRef(createColumnWord(i, j).toCharArray());
+                }
+            }
+        }
+
+        @Override
+        public void setFileTypes( String[] fileTypes ) {
+        }
+
+        @Override
+        public boolean shouldIndex( IDocument document ) {
+            return true;
+        }
+    }
+}
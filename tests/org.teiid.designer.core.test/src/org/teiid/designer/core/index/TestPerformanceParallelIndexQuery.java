@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.index;
+
+import java.io.File;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.teiid.core.designer.util.FileUtils;
+import org.teiid.core.designer.util.Stopwatch;
+import org.teiid.core.util.SmartTestDesignerSuite;
+
+/**
+ * Compares the sequential and the parallel paths of {@link IndexUtil#queryIndex} against a synthetic workspace of 500 model
+ * indexes.
+ * <p>
+ * Not part of {@link org.teiid.designer.core.test.AllTests}, so it is run on its own.
+ * </p>
+ */
+public class TestPerformanceParallelIndexQuery extends TestCase {
+
+    private static final int NUM_MODELS = 500;
+    private static final int NUM_TABLES = 100;
+
+    private static final char DELIMITER = IndexConstants.RECORD_STRING.RECORD_DELIMITER;
+
+    private File indexDirectory;
+    private Index[] indexes;
+    private int originalThreshold;
+
+    /**
+     * Constructor for TestPerformanceParallelIndexQuery.
+     *
+     * @param name
+     */
+    public TestPerformanceParallelIndexQuery( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        originalThreshold = SimpleIndexUtil.getParallelQueryThreshold();
+        indexDirectory = new File(SmartTestDesignerSuite.getTestScratchPath(), "parallelQueryIndexes"); //$NON-NLS-1$
+        indexDirectory.mkdirs();
+
+        Stopwatch watch = new Stopwatch();
+        watch.start();
+        indexes = new Index[NUM_MODELS];
+        for (int i = 0; i < NUM_MODELS; i++) {
+            Index index = new Index(indexDirectory, "Model" + i + '.' + IndexConstants.INDEX_EXT, false); //$NON-NLS-1$
+            index.add(new FileDocument(new File(indexDirectory, "Model" + i + ".xmi")), new TableIndexer(i)); //$NON-NLS-1$ //$NON-NLS-2$
+            index.save();
+            indexes[i] = index;
+        }
+        watch.stop();
+        System.out.println("  Created " + NUM_MODELS + " model indexes in " + watch.getTotalDuration() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        SimpleIndexUtil.setParallelQueryThreshold(originalThreshold);
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] != null) {
+                indexes[i].dispose();
+            }
+        }
+        FileUtils.removeDirectoryAndChildren(indexDirectory);
+    }
+
+    static String createTableWord( int modelNum,
+                                   int tableNum ) {
+        return "" + IndexConstants.RECORD_TYPE.TABLE + DELIMITER + "mmuuid:" + modelNum + '-' + tableNum + DELIMITER //$NON-NLS-1$ //$NON-NLS-2$
+               + "Model" + modelNum + ".Table" + tableNum + DELIMITER; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private IEntryResult[] query( char[] pattern,
+                                  boolean isPrefix,
+                                  int threshold,
+                                  String label ) throws Exception {
+        SimpleIndexUtil.setParallelQueryThreshold(threshold);
+        Stopwatch watch = new Stopwatch();
+        watch.start();
+        IEntryResult[] results = IndexUtil.queryIndex(new NullProgressMonitor(), indexes, pattern, isPrefix, false);
+        watch.stop();
+        System.out.println("  " + label + " = " + watch.getTotalDuration() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        return results;
+    }
+
+    private void assertSameResults( IEntryResult[] expected,
+                                    IEntryResult[] actual ) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(new String(expected[i].getWord()), new String(actual[i].getWord()));
+        }
+    }
+
+    public void testPrefixQuery() throws Exception {
+        System.out.println("\nTestPerformanceParallelIndexQuery.testPrefixQuery()"); //$NON-NLS-1$
+        char[] prefix = ("" + IndexConstants.RECORD_TYPE.TABLE + DELIMITER).toCharArray(); //$NON-NLS-1$
+
+        IEntryResult[] sequential = query(prefix, true, 0, "Sequential prefix query"); //$NON-NLS-1$
+        IEntryResult[] parallel = query(prefix, true, 1, "Parallel prefix query  "); //$NON-NLS-1$
+
+        assertEquals(NUM_MODELS * NUM_TABLES, sequential.length);
+        assertSameResults(sequential, parallel);
+    }
+
+    public void testPatternQuery() throws Exception {
+        System.out.println("\nTestPerformanceParallelIndexQuery.testPatternQuery()"); //$NON-NLS-1$
+        char[] pattern = ("*.Table7" + DELIMITER + '*').toCharArray(); //$NON-NLS-1$
+
+        IEntryResult[] sequential = query(pattern, false, 0, "Sequential pattern query"); //$NON-NLS-1$
+        IEntryResult[] parallel = query(pattern, false, 1, "Parallel pattern query  "); //$NON-NLS-1$
+
+        assertEquals(NUM_MODELS, sequential.length);
+        assertSameResults(sequential, parallel);
+    }
+
+    public void testParallelQueryHonorsCancellation() throws Exception {
+        SimpleIndexUtil.setParallelQueryThreshold(1);
+        NullProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+        try {
+            IndexUtil.queryIndex(monitor, indexes, new char[] {IndexConstants.RECORD_TYPE.TABLE}, true, false);
+            fail("Expected the query to be canceled"); //$NON-NLS-1$
+        } catch (OperationCanceledException expected) {
+            // expected
+        }
+    }
+
+    class TableIndexer implements IIndexer {
+        private final int modelNum;
+
+        TableIndexer( int modelNum ) {
+            this.modelNum = modelNum;
+        }
+
+        @Override
+        public String[] getFileTypes() {
+            return null;
+        }
+
+        @Override
+        public void index( IDocument document,
+                           IIndexerOutput output ) {
+            output.addDocument(document);
+            for (int i = 0; i < NUM_TABLES; i++) {
+                output.addRef(createTableWord(modelNum, i).toCharArray());
+            }
+        }
+
+        @Override
+        public void setFileTypes( String[] fileTypes ) {
+        }
+
+        @Override
+        public boolean shouldIndex( IDocument document ) {
+            return true;
+        }
+    }
+}
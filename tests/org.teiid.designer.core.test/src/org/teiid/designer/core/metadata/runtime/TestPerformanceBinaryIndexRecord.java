@@ -0,0 +1,305 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.metadata.runtime;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import junit.framework.TestCase;
+import org.teiid.core.designer.util.Stopwatch;
+import org.teiid.core.util.SmartTestDesignerSuite;
+import org.teiid.designer.core.index.BlocksIndexInput;
+import org.teiid.designer.core.index.FileDocument;
+import org.teiid.designer.core.index.IDocument;
+import org.teiid.designer.core.index.IEntryResult;
+import org.teiid.designer.core.index.IIndexer;
+import org.teiid.designer.core.index.IIndexerOutput;
+import org.teiid.designer.core.index.Index;
+import org.teiid.designer.core.index.IndexConstants;
+import org.teiid.designer.core.index.WordEntry;
+import org.teiid.designer.metadata.runtime.ColumnRecord;
+import org.teiid.designer.metadata.runtime.TableRecord;
+import org.teiid.designer.metadata.runtime.impl.RecordFactory;
+
+/**
+ * Compares the size, and the decoding time, of the text and binary forms of the table and column records of a real VDB's
+ * indexes.
+ * <p>
+ * Not part of {@link org.teiid.designer.core.test.AllTests}, so it is run on its own.
+ * </p>
+ */
+public class TestPerformanceBinaryIndexRecord extends TestCase {
+
+    private static final String VDB_FILE_PATH = SmartTestDesignerSuite.getTestDataPath(TestPerformanceBinaryIndexRecord.class)
+                                                + File.separator + "TestPartsSupplier.vdb"; //$NON-NLS-1$
+
+    private static final int NUM_DECODES = 200;
+
+    private File folder;
+
+    /**
+     * Constructor for TestPerformanceBinaryIndexRecord.
+     *
+     * @param name
+     */
+    public TestPerformanceBinaryIndexRecord( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        folder = File.createTempFile("TestPerformanceBinaryIndexRecord", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        folder.delete();
+        folder.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] files = folder.listFiles();
+        for (int i = 0; i < files.length; i++) {
+            files[i].delete();
+        }
+        folder.delete();
+    }
+
+    private File extractIndex( final String indexName ) throws Exception {
+        final ZipFile vdb = new ZipFile(VDB_FILE_PATH);
+        try {
+            final ZipEntry entry = vdb.getEntry("runtime-inf/" + indexName); //$NON-NLS-1$
+            assertNotNull(entry);
+            final File file = new File(folder, indexName);
+            final InputStream in = vdb.getInputStream(entry);
+            final OutputStream out = new FileOutputStream(file);
+            try {
+                final byte[] buffer = new byte[8192];
+                for (int n = in.read(buffer); n > 0; n = in.read(buffer)) {
+                    out.write(buffer, 0, n);
+                }
+            } finally {
+                in.close();
+                out.close();
+            }
+            return file;
+        } finally {
+            vdb.close();
+        }
+    }
+
+    /**
+     * Read the records of a type from an index file, joining those continued onto other records.
+     */
+    private List readWords( final File indexFile,
+                            final char recordType ) throws Exception {
+        final BlocksIndexInput input = new BlocksIndexInput(indexFile);
+        input.open();
+        try {
+            final List words = new ArrayList();
+            final IEntryResult[] results = input.queryEntriesPrefixedBy(new char[] {recordType});
+            for (int i = 0; results != null && i < results.length; i++) {
+                IEntryResult result = results[i];
+                final char[] word = result.getWord();
+                if (word.length >= RecordFactory.INDEX_RECORD_BLOCK_SIZE
+                    && word[RecordFactory.INDEX_RECORD_BLOCK_SIZE - 1] == IndexConstants.RECORD_TYPE.RECORD_CONTINUATION) {
+                    final String prefix = "" + IndexConstants.RECORD_TYPE.RECORD_CONTINUATION + recordType //$NON-NLS-1$
+                                          + IndexConstants.RECORD_STRING.RECORD_DELIMITER
+                                          + RecordFactory.extractUUIDString(result)
+                                          + IndexConstants.RECORD_STRING.RECORD_DELIMITER;
+                    result = RecordFactory.joinEntryResults(result, input.queryEntriesPrefixedBy(prefix.toCharArray()),
+                                                            RecordFactory.INDEX_RECORD_BLOCK_SIZE);
+                }
+                words.add(result.getWord());
+            }
+            return words;
+        } finally {
+            input.close();
+        }
+    }
+
+    private List toBinaryColumnWords( final List textWords ) {
+        final List wordEntries = new ArrayList(textWords.size());
+        for (final Iterator iter = textWords.iterator(); iter.hasNext();) {
+            final ColumnRecord column = RecordFactory.createColumnRecord((char[])iter.next());
+            RuntimeAdapter.addColumnWord(column.getUUID(), column.getFullName(), column.getNameInSource(),
+                                         column.getParentUUID(), column.isSelectable(), column.isUpdatable(),
+                                         column.getNullType(), column.isAutoIncrementable(), column.isCaseSensitive(),
+                                         column.isSigned(), column.isCurrency(), column.isFixedLength(),
+                                         column.isTranformationInputParameter(), column.getSearchType(),
+                                         column.getLength(), column.getScale(), column.getPrecision(),
+                                         column.getCharOctetLength(), column.getRadix(), column.getDistinctValues(),
+                                         column.getNullValues(), (String)column.getMinValue(),
+                                         (String)column.getMaxValue(), column.getFormat(), column.getRuntimeType(),
+                                         column.getNativeType(), column.getDatatypeUUID(),
+                                         (String)column.getDefaultValue(), column.getPosition(),
+                                         column.getResourcePath(), column.getName(), wordEntries, true);
+        }
+        return wordEntries;
+    }
+
+    private List toBinaryTableWords( final List textWords ) {
+        final List wordEntries = new ArrayList(textWords.size());
+        for (final Iterator iter = textWords.iterator(); iter.hasNext();) {
+            final TableRecord table = RecordFactory.createTableRecord((char[])iter.next());
+            RuntimeAdapter.addTableWord(table.getUUID(), table.getFullName(), table.getNameInSource(),
+                                        table.getParentUUID(), table.getCardinality(), table.getTableType(),
+                                        table.isVirtual(), table.isSystem(), table.isMaterialized(),
+                                        table.supportsUpdate(), (String)table.getPrimaryKeyID(),
+                                        table.getColumnIDs(), table.getForeignKeyIDs(), table.getIndexIDs(),
+                                        table.getUniqueKeyIDs(), table.getAccessPatternIDs(),
+                                        (String)table.getMaterializedTableID(), table.getResourcePath(),
+                                        table.getName(), wordEntries, true);
+        }
+        return wordEntries;
+    }
+
+    private static List getWords( final List wordEntries ) {
+        final List words = new ArrayList(wordEntries.size());
+        for (final Iterator iter = wordEntries.iterator(); iter.hasNext();) {
+            words.add(((WordEntry)iter.next()).getWord());
+        }
+        return words;
+    }
+
+    /**
+     * Write the words to a new index file, as the indexers do, and return the size of the file.
+     */
+    private long writeIndex( final String indexName,
+                             final File document,
+                             final List wordEntries ) throws Exception {
+        final Index index = new Index(folder, indexName, false);
+        index.add(new FileDocument(document), new IIndexer() {
+            @Override
+            public String[] getFileTypes() {
+                return null;
+            }
+
+            @Override
+            public void index( final IDocument doc,
+                               final IIndexerOutput output ) {
+                output.addDocument(doc);
+                for (final Iterator iter = wordEntries.iterator(); iter.hasNext();) {
+                    output.addRef(((WordEntry)iter.next()).getWord());
+                }
+            }
+
+            @Override
+            public void setFileTypes( final String[] fileTypes ) {
+            }
+
+            @Override
+            public boolean shouldIndex( final IDocument doc ) {
+                return true;
+            }
+        });
+        index.save();
+        return index.getIndexFile().length();
+    }
+
+    private static List toWordEntries( final List words ) {
+        final List wordEntries = new ArrayList(words.size());
+        for (final Iterator iter = words.iterator(); iter.hasNext();) {
+            wordEntries.add(new WordEntry((char[])iter.next()));
+        }
+        return wordEntries;
+    }
+
+    private static long countChars( final List words ) {
+        long count = 0;
+        for (final Iterator iter = words.iterator(); iter.hasNext();) {
+            count += ((char[])iter.next()).length;
+        }
+        return count;
+    }
+
+    private static long decode( final List words,
+                                final char recordType ) {
+        final Stopwatch sw = new Stopwatch();
+        sw.start();
+        for (int i = 0; i < NUM_DECODES; i++) {
+            for (final Iterator iter = words.iterator(); iter.hasNext();) {
+                if (recordType == IndexConstants.RECORD_TYPE.COLUMN) {
+                    RecordFactory.createColumnRecord((char[])iter.next());
+                } else {
+                    RecordFactory.createTableRecord((char[])iter.next());
+                }
+            }
+        }
+        sw.stop();
+        return sw.getTotalDuration();
+    }
+
+    private void compare( final String indexName,
+                          final char recordType,
+                          final List textWords,
+                          final List binaryWords ) throws Exception {
+        assertEquals(textWords.size(), binaryWords.size());
+        assertTrue(textWords.size() > 0);
+        for (int i = 0; i < textWords.size(); i++) {
+            final char[] text = (char[])textWords.get(i);
+            final char[] binary = (char[])binaryWords.get(i);
+            assertEquals(RecordFactory.BINARY_RECORD_INDEX_VERSION, RecordFactory.getIndexVersion(binary));
+            if (recordType == IndexConstants.RECORD_TYPE.COLUMN) {
+                final ColumnRecord expected = RecordFactory.createColumnRecord(text);
+                final ColumnRecord actual = RecordFactory.createColumnRecord(binary);
+                assertEquals(expected.getUUID(), actual.getUUID());
+                assertEquals(expected.getFullName(), actual.getFullName());
+                assertEquals(expected.getName(), actual.getName());
+                assertEquals(expected.getRuntimeType(), actual.getRuntimeType());
+                assertEquals(expected.getLength(), actual.getLength());
+                assertEquals(expected.getPosition(), actual.getPosition());
+                assertEquals(expected.getDatatypeUUID(), actual.getDatatypeUUID());
+            } else {
+                final TableRecord expected = RecordFactory.createTableRecord(text);
+                final TableRecord actual = RecordFactory.createTableRecord(binary);
+                assertEquals(expected.getUUID(), actual.getUUID());
+                assertEquals(expected.getFullName(), actual.getFullName());
+                assertEquals(expected.getName(), actual.getName());
+                assertEquals(expected.getCardinality(), actual.getCardinality());
+                assertEquals(expected.getPrimaryKeyID(), actual.getPrimaryKeyID());
+                assertEquals(expected.getForeignKeyIDs(), actual.getForeignKeyIDs());
+            }
+        }
+
+        final File document = new File(folder, indexName);
+        final long textSize = writeIndex("text_" + indexName, document, toWordEntries(textWords)); //$NON-NLS-1$
+        final long binarySize = writeIndex("binary_" + indexName, document, toWordEntries(binaryWords)); //$NON-NLS-1$
+
+        // warm up the JIT
+        decode(textWords, recordType);
+        decode(binaryWords, recordType);
+        final long textTime = decode(textWords, recordType);
+        final long binaryTime = decode(binaryWords, recordType);
+
+        System.out.println("  " + textWords.size() + " records of " + indexName); //$NON-NLS-1$ //$NON-NLS-2$
+        System.out.println("  Text records:   " + countChars(textWords) + " chars, index of " + textSize + " bytes, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                           + NUM_DECODES + " decodes in " + textTime + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        System.out.println("  Binary records: " + countChars(binaryWords) + " chars, index of " + binarySize + " bytes, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                           + NUM_DECODES + " decodes in " + binaryTime + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testColumnRecords() throws Exception {
+        System.out.println("\nTestPerformanceBinaryIndexRecord.testColumnRecords()"); //$NON-NLS-1$
+        final File indexFile = extractIndex(IndexConstants.INDEX_NAME.COLUMNS_INDEX);
+        final List textWords = readWords(indexFile, IndexConstants.RECORD_TYPE.COLUMN);
+        final List binaryWords = getWords(toBinaryColumnWords(textWords));
+        compare(IndexConstants.INDEX_NAME.COLUMNS_INDEX, IndexConstants.RECORD_TYPE.COLUMN, textWords, binaryWords);
+    }
+
+    public void testTableRecords() throws Exception {
+        System.out.println("\nTestPerformanceBinaryIndexRecord.testTableRecords()"); //$NON-NLS-1$
+        final File indexFile = extractIndex(IndexConstants.INDEX_NAME.TABLES_INDEX);
+        final List textWords = readWords(indexFile, IndexConstants.RECORD_TYPE.TABLE);
+        final List binaryWords = getWords(toBinaryTableWords(textWords));
+        compare(IndexConstants.INDEX_NAME.TABLES_INDEX, IndexConstants.RECORD_TYPE.TABLE, textWords, binaryWords);
+    }
+}
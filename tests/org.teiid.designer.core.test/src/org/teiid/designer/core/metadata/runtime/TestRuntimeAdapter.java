@@ -50,6 +50,7 @@ import org.teiid.designer.metadata.runtime.ColumnRecord;
 import org.teiid.designer.metadata.runtime.DatatypeRecord;
 import org.teiid.designer.metadata.runtime.FileRecord;
 import org.teiid.designer.metadata.runtime.ForeignKeyRecord;
+import org.teiid.designer.metadata.runtime.MetadataRecord;
 import org.teiid.designer.metadata.runtime.ModelRecord;
 import org.teiid.designer.metadata.runtime.ProcedureParameterRecord;
 import org.teiid.designer.metadata.runtime.ProcedureRecord;
@@ -152,6 +153,85 @@ public class TestRuntimeAdapter extends TestCase {
         return (WordEntry)WORD_ENTRIES.get(0);
     }
     
+    private List createBinaryColumnWords(final SqlColumnAspect aspect, final String modelPath) {
+        WORD_ENTRIES.clear();
+        RuntimeAdapter.addColumnWord(aspect,null,modelPath,WORD_ENTRIES,true);
+        return new ArrayList(WORD_ENTRIES);
+    }
+
+    private WordEntry createBinaryTableWord(final SqlTableAspect aspect, final String modelPath) {
+        WORD_ENTRIES.clear();
+        RuntimeAdapter.addTableWord(aspect,null,null,modelPath,WORD_ENTRIES,true);
+        return (WordEntry)WORD_ENTRIES.get(0);
+    }
+
+    private String getHeader(final WordEntry word) {
+        String str = new String(word.getWord());
+        int index = -1;
+        for (int i = 0; i < 6; i++) {
+            index = str.indexOf(IndexConstants.RECORD_STRING.RECORD_DELIMITER, index + 1);
+        }
+        return str.substring(0, index + 1);
+    }
+
+    private void assertSameHeaderAndFooter(final MetadataRecord expected, final MetadataRecord actual) {
+        assertEquals(expected.getRecordType(),actual.getRecordType());
+        assertEquals(expected.getUUID(),actual.getUUID());
+        assertEquals(expected.getFullName(),actual.getFullName());
+        assertEquals(expected.getNameInSource(),actual.getNameInSource());
+        assertEquals(expected.getParentUUID(),actual.getParentUUID());
+        assertEquals(expected.getResourcePath(),actual.getResourcePath());
+        assertEquals(expected.getName(),actual.getName());
+        assertEquals(expected.getPath(),actual.getPath());
+    }
+
+    private void assertSameColumn(final ColumnRecord expected, final ColumnRecord actual) {
+        assertSameHeaderAndFooter(expected, actual);
+        assertEquals(expected.isSelectable(),actual.isSelectable());
+        assertEquals(expected.isUpdatable(),actual.isUpdatable());
+        assertEquals(expected.isAutoIncrementable(),actual.isAutoIncrementable());
+        assertEquals(expected.isCaseSensitive(),actual.isCaseSensitive());
+        assertEquals(expected.isSigned(),actual.isSigned());
+        assertEquals(expected.isCurrency(),actual.isCurrency());
+        assertEquals(expected.isFixedLength(),actual.isFixedLength());
+        assertEquals(expected.isTranformationInputParameter(),actual.isTranformationInputParameter());
+        assertEquals(expected.getNullType(),actual.getNullType());
+        assertEquals(expected.getSearchType(),actual.getSearchType());
+        assertEquals(expected.getLength(),actual.getLength());
+        assertEquals(expected.getScale(),actual.getScale());
+        assertEquals(expected.getPrecision(),actual.getPrecision());
+        assertEquals(expected.getPosition(),actual.getPosition());
+        assertEquals(expected.getCharOctetLength(),actual.getCharOctetLength());
+        assertEquals(expected.getRadix(),actual.getRadix());
+        assertEquals(expected.getDistinctValues(),actual.getDistinctValues());
+        assertEquals(expected.getNullValues(),actual.getNullValues());
+        assertEquals(expected.getMinValue(),actual.getMinValue());
+        assertEquals(expected.getMaxValue(),actual.getMaxValue());
+        assertEquals(expected.getFormat(),actual.getFormat());
+        assertEquals(expected.getRuntimeType(),actual.getRuntimeType());
+        assertEquals(expected.getNativeType(),actual.getNativeType());
+        assertEquals(expected.getDatatypeUUID(),actual.getDatatypeUUID());
+        assertEquals(expected.getDefaultValue(),actual.getDefaultValue());
+    }
+
+    private void assertSameTable(final TableRecord expected, final TableRecord actual) {
+        assertSameHeaderAndFooter(expected, actual);
+        assertEquals(expected.getCardinality(),actual.getCardinality());
+        assertEquals(expected.getTableType(),actual.getTableType());
+        assertEquals(expected.isVirtual(),actual.isVirtual());
+        assertEquals(expected.isSystem(),actual.isSystem());
+        assertEquals(expected.supportsUpdate(),actual.supportsUpdate());
+        assertEquals(expected.isMaterialized(),actual.isMaterialized());
+        assertEquals(expected.getColumnIDs(),actual.getColumnIDs());
+        assertEquals(expected.getPrimaryKeyID(),actual.getPrimaryKeyID());
+        assertEquals(expected.getForeignKeyIDs(),actual.getForeignKeyIDs());
+        assertEquals(expected.getIndexIDs(),actual.getIndexIDs());
+        assertEquals(expected.getUniqueKeyIDs(),actual.getUniqueKeyIDs());
+        assertEquals(expected.getAccessPatternIDs(),actual.getAccessPatternIDs());
+        assertEquals(expected.getMaterializedTableID(),actual.getMaterializedTableID());
+        assertEquals(expected.getMaterializedStageTableID(),actual.getMaterializedStageTableID());
+    }
+
     private WordEntry createVdbWord(final SqlVdbAspect aspect, final String modelPath) {
         WORD_ENTRIES.clear();
         RuntimeAdapter.addVdbWord(aspect,null,modelPath,WORD_ENTRIES);
@@ -1424,6 +1504,153 @@ public class TestRuntimeAdapter extends TestCase {
         assertNotNull(record.getPathInVdb());
     }
 
+    public void testCreateBinaryColumnWord() {
+        System.out.println("TestRuntimeAdapter.testCreateBinaryColumnWord()"); //$NON-NLS-1$
+
+        String modelPath = "myprj/myModel"; //$NON-NLS-1$
+
+        FakeSqlColumnAspect aspect = new FakeSqlColumnAspect();
+        WordEntry text = createColumnWord(aspect,modelPath);
+        WordEntry binary = (WordEntry)createBinaryColumnWords(aspect,modelPath).get(0);
+        ColumnRecord record = RecordFactory.createColumnRecord(binary.getWord());
+        assertEquals(RecordFactory.BINARY_RECORD_INDEX_VERSION,RecordFactory.getIndexVersion(binary.getWord()));
+        assertSameColumn(RecordFactory.createColumnRecord(text.getWord()),record);
+
+        aspect.uuid = "mmuuid:column"; //$NON-NLS-1$
+        aspect.parentUuid = "mmuuid:table"; //$NON-NLS-1$
+        aspect.path = new Path("Model/Table/Column"); //$NON-NLS-1$
+        aspect.fullName = "Model.Table.Column"; //$NON-NLS-1$
+        aspect.name = "Column"; //$NON-NLS-1$
+        aspect.nameInSource = "COLUMN"; //$NON-NLS-1$
+        aspect.selectable = true;
+        aspect.caseSensitive = true;
+        aspect.fixedLength = true;
+        aspect.tranformationInputParameter = true;
+        aspect.nullType = 1;
+        aspect.searchType = 3;
+        aspect.length = 100000;
+        aspect.scale = -5;
+        aspect.precision = RecordFactory.INDEX_RECORD_BLOCK_SIZE;
+        aspect.position = 7;
+        aspect.charOctetLength = Integer.MAX_VALUE;
+        aspect.radix = 10;
+        aspect.distinctValues = -1;
+        aspect.nullValues = Integer.MIN_VALUE;
+        aspect.minValue = ""; //$NON-NLS-1$
+        aspect.maxValue = "zzz"; //$NON-NLS-1$
+        aspect.format = "###"; //$NON-NLS-1$
+        aspect.runtimeType = "string"; //$NON-NLS-1$
+        aspect.datatypeName = "varchar"; //$NON-NLS-1$
+        aspect.datatypeUUID = "mmuuid:datatype"; //$NON-NLS-1$
+        aspect.defaultValue = "a|b" + IndexConstants.RECORD_STRING.RECORD_DELIMITER + "c"; //$NON-NLS-1$ //$NON-NLS-2$
+        text = createColumnWord(aspect,modelPath);
+        binary = (WordEntry)createBinaryColumnWords(aspect,modelPath).get(0);
+        System.out.println("word = "+binary); //$NON-NLS-1$
+        assertEquals(getHeader(text),getHeader(binary));
+        assertTrue(binary.getWord().length < text.getWord().length);
+
+        record = RecordFactory.createColumnRecord(binary.getWord());
+        assertEquals(aspect.length,record.getLength());
+        assertEquals(aspect.scale,record.getScale());
+        assertEquals(aspect.nullValues,record.getNullValues());
+        assertEquals(aspect.runtimeType,record.getRuntimeType());
+        assertEquals(aspect.datatypeName,record.getNativeType());
+        assertNull(record.getMinValue());
+        assertTrue(record.isTranformationInputParameter());
+        assertFalse(record.isUpdatable());
+        assertEquals(RecordFactory.BINARY_RECORD_INDEX_VERSION,RecordFactory.getIndexVersion(binary.getWord()));
+        assertSameColumn(RecordFactory.createColumnRecord(text.getWord()),record);
+
+        // the delimiter in the default value is stored, not parsed, by the binary record
+        assertEquals(aspect.defaultValue,record.getDefaultValue());
+    }
+
+    public void testCreateBinaryColumnWordWithContinuations() {
+        System.out.println("TestRuntimeAdapter.testCreateBinaryColumnWordWithContinuations()"); //$NON-NLS-1$
+
+        FakeSqlColumnAspect aspect = new FakeSqlColumnAspect();
+        aspect.uuid = "mmuuid:column"; //$NON-NLS-1$
+        aspect.fullName = "Model.Table.Column"; //$NON-NLS-1$
+        aspect.name = "Column"; //$NON-NLS-1$
+        aspect.length = 40000;
+        StringBuffer sb = new StringBuffer();
+        for (int i = 0; i < 40000; i++) {
+            sb.append((char)('a' + i % 26));
+        }
+        aspect.defaultValue = sb.toString();
+
+        List entries = createBinaryColumnWords(aspect,"myprj/myModel"); //$NON-NLS-1$
+        assertTrue(entries.size() > 1);
+        IEntryResult result = helpTestJoinEntryResults(entries,RecordFactory.INDEX_RECORD_BLOCK_SIZE);
+        ColumnRecord record = RecordFactory.createColumnRecord(result.getWord());
+        assertEquals(aspect.defaultValue,record.getDefaultValue());
+        assertEquals(aspect.length,record.getLength());
+        assertEquals(aspect.name,record.getName());
+        assertEquals(RecordFactory.BINARY_RECORD_INDEX_VERSION,RecordFactory.getIndexVersion(result.getWord()));
+    }
+
+    public void testCreateBinaryTableWord() {
+        System.out.println("TestRuntimeAdapter.testCreateBinaryTableWord()"); //$NON-NLS-1$
+
+        String modelPath = "myprj/myModel"; //$NON-NLS-1$
+
+        FakeSqlTableAspect aspect = new FakeSqlTableAspect();
+        WordEntry text = createTableWord(aspect,modelPath);
+        WordEntry binary = createBinaryTableWord(aspect,modelPath);
+        TableRecord record = RecordFactory.createTableRecord(binary.getWord());
+        assertEquals(RecordFactory.BINARY_RECORD_INDEX_VERSION,RecordFactory.getIndexVersion(binary.getWord()));
+        assertSameTable(RecordFactory.createTableRecord(text.getWord()),record);
+
+        aspect.uuid = "mmuuid:table"; //$NON-NLS-1$
+        aspect.path = new Path("Model/Table"); //$NON-NLS-1$
+        aspect.fullName = "Model.Table"; //$NON-NLS-1$
+        aspect.name = "Table"; //$NON-NLS-1$
+        aspect.nameInSource = "TABLE"; //$NON-NLS-1$
+        aspect.virtual = true;
+        aspect.materialized = true;
+        aspect.cardinality = -1;
+        aspect.tableType = 2;
+        aspect.primaryKey = "mmuuid:pk"; //$NON-NLS-1$
+        aspect.foreignKeys = Arrays.asList(new String[] {"mmuuid:fk1", "mmuuid:fk2"}); //$NON-NLS-1$ //$NON-NLS-2$
+        aspect.indexes = Arrays.asList(new String[] {"mmuuid:index1", "", "mmuuid:index2"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        aspect.uniqueKeys = Arrays.asList(new String[] {"mmuuid:uk1"}); //$NON-NLS-1$
+        aspect.accessPatterns = Collections.EMPTY_LIST;
+        text = createTableWord(aspect,modelPath);
+        binary = createBinaryTableWord(aspect,modelPath);
+        System.out.println("word = "+binary); //$NON-NLS-1$
+        assertEquals(getHeader(text),getHeader(binary));
+
+        record = RecordFactory.createTableRecord(binary.getWord());
+        assertEquals(aspect.cardinality,record.getCardinality());
+        assertEquals(aspect.foreignKeys,record.getForeignKeyIDs());
+        assertEquals(Arrays.asList(new String[] {"mmuuid:index1", "mmuuid:index2"}),record.getIndexIDs()); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(record.getAccessPatternIDs().isEmpty());
+        assertTrue(record.isVirtual());
+        assertFalse(record.isSystem());
+        assertTrue(record.isMaterialized());
+        assertSameTable(RecordFactory.createTableRecord(text.getWord()),record);
+
+        // Binary records are found by the same queries as text records
+        assertEquals(RecordFactory.extractUUIDString(new EntryResult(text.getWord(),new int[0])),
+                     RecordFactory.extractUUIDString(new EntryResult(binary.getWord(),new int[0])));
+        assertEquals(RecordFactory.CURRENT_INDEX_VERSION,RecordFactory.getIndexVersion(text.getWord()));
+    }
+
+    public void testCreateTextWordsWhileBinaryRecordsPropertyIsSet() {
+        System.out.println("TestRuntimeAdapter.testCreateTextWordsWhileBinaryRecordsPropertyIsSet()"); //$NON-NLS-1$
+
+        // the property only changes the default of the workspace indexer, so records are text unless asked for
+        System.setProperty(RuntimeAdapter.BINARY_RECORDS_PROPERTY, "true"); //$NON-NLS-1$
+        try {
+            WordEntry column = createColumnWord(new FakeSqlColumnAspect(),"myprj/myModel"); //$NON-NLS-1$
+            assertEquals(RecordFactory.CURRENT_INDEX_VERSION,RecordFactory.getIndexVersion(column.getWord()));
+            WordEntry table = createTableWord(new FakeSqlTableAspect(),"myprj/myModel"); //$NON-NLS-1$
+            assertEquals(RecordFactory.CURRENT_INDEX_VERSION,RecordFactory.getIndexVersion(table.getWord()));
+        } finally {
+            System.clearProperty(RuntimeAdapter.BINARY_RECORDS_PROPERTY);
+        }
+    }
+
     public void testSplitWordEntryWithBadArgs() {
         System.out.println("TestRuntimeAdapter.testSplitWordEntryWithBadArgs()"); //$NON-NLS-1$
         try {
@@ -0,0 +1,242 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.teiid.designer.core.container.Container;
+import org.teiid.designer.core.transaction.UnitOfWork;
+import org.teiid.designer.core.transaction.UnitOfWorkProvider;
+
+/**
+ * @since 8.1
+ */
+public class TestParallelResourceLoader extends TestCase {
+
+    private static final int NUM_MODELS = 20;
+
+    private File folder;
+    private List<URI> uris;
+
+    /**
+     * Constructor for TestParallelResourceLoader.
+     *
+     * @param name
+     */
+    public TestParallelResourceLoader( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        folder = File.createTempFile("TestParallelResourceLoader", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        folder.delete();
+        folder.mkdirs();
+        uris = writeModels(folder, NUM_MODELS, 5);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] files = folder.listFiles();
+        for (int i = 0; i < files.length; i++) {
+            files[i].delete();
+        }
+        folder.delete();
+    }
+
+    /**
+     * Write models each holding an EPackage whose first EClass extends the first EClass of the previous model.
+     */
+    static List<URI> writeModels( final File folder,
+                                  final int numModels,
+                                  final int numClasses ) throws Exception {
+        final ResourceSet resourceSet = createResourceSet();
+        final List<URI> result = new ArrayList<URI>(numModels);
+        EClass previous = null;
+        for (int i = 0; i < numModels; i++) {
+            final URI uri = URI.createFileURI(new File(folder, "Model" + i + ".xmi").getAbsolutePath()); //$NON-NLS-1$ //$NON-NLS-2$
+            final EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+            ePackage.setName("model" + i); //$NON-NLS-1$
+            for (int j = 0; j < numClasses; j++) {
+                final EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+                eClass.setName("Class" + j); //$NON-NLS-1$
+                ePackage.getEClassifiers().add(eClass);
+            }
+            if (previous != null) {
+                ((EClass)ePackage.getEClassifiers().get(0)).getESuperTypes().add(previous);
+            }
+            previous = (EClass)ePackage.getEClassifiers().get(0);
+            final Resource resource = resourceSet.createResource(uri);
+            resource.getContents().add(ePackage);
+            result.add(uri);
+        }
+        for (final Resource resource : resourceSet.getResources()) {
+            resource.save(Collections.EMPTY_MAP);
+        }
+        return result;
+    }
+
+    static ResourceSet createResourceSet() {
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("xmi", new XMIResourceFactoryImpl()); //$NON-NLS-1$
+        return resourceSet;
+    }
+
+    public void testShouldLoadAllModels() {
+        final ResourceSet resourceSet = createResourceSet();
+        final List<Resource> loaded = new ParallelResourceLoader(resourceSet, 4).load(uris, null);
+
+        assertEquals(NUM_MODELS, loaded.size());
+        assertEquals(NUM_MODELS, resourceSet.getResources().size());
+        for (final URI uri : uris) {
+            final Resource resource = resourceSet.getResource(uri, false);
+            assertNotNull(resource);
+            assertTrue(resource.isLoaded());
+            assertFalse(resource.isModified());
+            assertSame(resourceSet, resource.getResourceSet());
+            assertEquals(1, resource.getContents().size());
+        }
+    }
+
+    public void testShouldAttachImportedModelsFirst() {
+        // each model imports the one after it
+        final Map<URI, List<URI>> imports = new HashMap<URI, List<URI>>();
+        for (int i = 0; i < NUM_MODELS - 1; i++) {
+            imports.put(uris.get(i), Collections.singletonList(uris.get(i + 1)));
+        }
+        final ResourceSet resourceSet = createResourceSet();
+        final List<Resource> loaded = new ParallelResourceLoader(resourceSet, 4) {
+            @Override
+            protected List<URI> getDependencies( final URI uri ) {
+                return imports.get(uri);
+            }
+        }.load(uris, null);
+
+        assertEquals(NUM_MODELS, loaded.size());
+        for (int i = 0; i < NUM_MODELS; i++) {
+            assertEquals(uris.get(NUM_MODELS - 1 - i), loaded.get(i).getURI());
+        }
+    }
+
+    public void testShouldResolveReferencesBetweenLoadedModels() {
+        final ResourceSet resourceSet = createResourceSet();
+        new ParallelResourceLoader(resourceSet, 4).load(uris, null);
+
+        final EPackage first = (EPackage)resourceSet.getResource(uris.get(0), false).getContents().get(0);
+        final EPackage second = (EPackage)resourceSet.getResource(uris.get(1), false).getContents().get(0);
+        final EClass superType = ((EClass)second.getEClassifiers().get(0)).getESuperTypes().get(0);
+        assertFalse(superType.eIsProxy());
+        assertSame(first.getEClassifiers().get(0), superType);
+        assertEquals(NUM_MODELS, resourceSet.getResources().size());
+    }
+
+    public void testShouldSkipModelsAlreadyLoaded() {
+        final ResourceSet resourceSet = createResourceSet();
+        final Resource existing = resourceSet.getResource(uris.get(3), true);
+        final List<Resource> loaded = new ParallelResourceLoader(resourceSet, 4).load(uris, null);
+
+        assertEquals(NUM_MODELS - 1, loaded.size());
+        assertFalse(loaded.contains(existing));
+        assertSame(existing, resourceSet.getResource(uris.get(3), false));
+        assertEquals(NUM_MODELS, resourceSet.getResources().size());
+    }
+
+    public void testShouldNotAttachModelsThatFailToParse() throws Exception {
+        final File broken = new File(folder, "Broken.xmi"); //$NON-NLS-1$
+        final FileWriter writer = new FileWriter(broken);
+        writer.write("<?xml version=\"1.0\"?><unterminated"); //$NON-NLS-1$
+        writer.close();
+        final List<URI> all = new ArrayList<URI>(uris);
+        all.add(2, URI.createFileURI(broken.getAbsolutePath()));
+
+        final ResourceSet resourceSet = createResourceSet();
+        final List<Resource> loaded = new ParallelResourceLoader(resourceSet, 4).load(all, null);
+
+        assertEquals(NUM_MODELS, loaded.size());
+        assertNull(resourceSet.getResource(URI.createFileURI(broken.getAbsolutePath()), false));
+    }
+
+    public void testShouldParseOutsideTheContainer() {
+        final Thread caller = Thread.currentThread();
+        final Set<Thread> containerThreads = new CopyOnWriteArraySet<Thread>();
+        final UnitOfWork txn = Mockito.mock(UnitOfWork.class);
+        final UnitOfWorkProvider provider = Mockito.mock(UnitOfWorkProvider.class);
+        Mockito.when(provider.getCurrent()).thenReturn(txn);
+        final Container container = Mockito.mock(Container.class, new Answer<Object>() {
+            @Override
+            public Object answer( final InvocationOnMock invocation ) throws Throwable {
+                containerThreads.add(Thread.currentThread());
+                if ("getEmfTransactionProvider".equals(invocation.getMethod().getName())) { //$NON-NLS-1$
+                    return provider;
+                }
+                return Mockito.RETURNS_DEFAULTS.answer(invocation);
+            }
+        });
+
+        // record the resource set each model is parsed into
+        final Set<ResourceSet> parsedInto = new CopyOnWriteArraySet<ResourceSet>();
+        final EmfResourceSetImpl resourceSet = new EmfResourceSetImpl(container);
+        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("xmi", new XMIResourceFactoryImpl() { //$NON-NLS-1$
+            @Override
+            public Resource createResource( final URI uri ) {
+                return new XMIResourceImpl(uri) {
+                    @Override
+                    public void doLoad( final InputStream inputStream,
+                                        final Map<?, ?> options ) throws IOException {
+                        parsedInto.add(getResourceSet());
+                        super.doLoad(inputStream, options);
+                    }
+                };
+            }
+        });
+        final List<Resource> loaded = new ParallelResourceLoader(resourceSet, 4).load(uris, null);
+
+        assertEquals(NUM_MODELS, loaded.size());
+        assertEquals(NUM_MODELS, parsedInto.size());
+        for (final ResourceSet staging : parsedInto) {
+            assertFalse(staging instanceof EmfResourceSet);
+        }
+        for (final Resource resource : loaded) {
+            assertSame(resourceSet, resource.getResourceSet());
+        }
+        assertEquals(Collections.singleton(caller), containerThreads);
+    }
+
+    public void testShouldLoadOnCallingThreadWithOneThread() {
+        final ResourceSet resourceSet = createResourceSet();
+        final List<Resource> loaded = new ParallelResourceLoader(resourceSet, 1).load(uris, null);
+
+        assertEquals(NUM_MODELS, loaded.size());
+        for (int i = 0; i < NUM_MODELS; i++) {
+            assertEquals(uris.get(i), loaded.get(i).getURI());
+            assertTrue(loaded.get(i).isLoaded());
+        }
+    }
+}
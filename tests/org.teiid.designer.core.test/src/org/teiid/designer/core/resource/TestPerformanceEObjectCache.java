@@ -0,0 +1,212 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.teiid.core.designer.id.ObjectID;
+import org.teiid.core.designer.id.UUID;
+import org.teiid.core.designer.util.Stopwatch;
+
+/**
+ * Compares the lookups of {@link EObjectCacheImpl} with those of the list of size-capped maps it used to hold its EObjects in.
+ * <p>
+ * Not part of {@link org.teiid.designer.core.test.AllTests}, so it is run on its own.
+ * </p>
+ */
+public class TestPerformanceEObjectCache extends TestCase {
+
+    private static final int NUM_OBJECTS = 200000;
+    private static final int NUM_LOOKUPS = 200000;
+
+    private EObject[] eObjects;
+    private ObjectID[] ids;
+    private Map idsByEObject;
+
+    /**
+     * Constructor for TestPerformanceEObjectCache.
+     *
+     * @param name
+     */
+    public TestPerformanceEObjectCache( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        final Random random = new Random(0);
+        eObjects = new EObject[NUM_OBJECTS];
+        ids = new ObjectID[NUM_OBJECTS];
+        idsByEObject = new IdentityHashMap(NUM_OBJECTS);
+        for (int i = 0; i < NUM_OBJECTS; i++) {
+            eObjects[i] = EcoreFactory.eINSTANCE.createEObject();
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+            idsByEObject.put(eObjects[i], ids[i]);
+        }
+    }
+
+    private EObjectCacheImpl createCache() {
+        return new EObjectCacheImpl() {
+            @Override
+            protected Object getCacheKey( EObject value ) {
+                return idsByEObject.get(value);
+            }
+        };
+    }
+
+    private long runLookups( EObjectCache cache,
+                             EObject[] found ) {
+        Stopwatch watch = new Stopwatch();
+        watch.start();
+        for (int i = 0; i < NUM_LOOKUPS; i++) {
+            found[i] = cache.get(ids[(i * 7919) % NUM_OBJECTS]);
+        }
+        watch.stop();
+        return watch.getTotalDuration();
+    }
+
+    public void testLookups() {
+        System.out.println("\nTestPerformanceEObjectCache.testLookups()"); //$NON-NLS-1$
+        final EObjectCacheImpl cache = createCache();
+        final MapOfMapsCache mapOfMaps = new MapOfMapsCache();
+        for (int i = 0; i < NUM_OBJECTS; i++) {
+            cache.add(eObjects[i], false);
+            mapOfMaps.put(ids[i], eObjects[i]);
+        }
+        assertEquals(NUM_OBJECTS, cache.size());
+
+        final EObject[] cacheFound = new EObject[NUM_LOOKUPS];
+        final EObject[] mapOfMapsFound = new EObject[NUM_LOOKUPS];
+        long mapOfMapsTime = runLookups(mapOfMaps, mapOfMapsFound);
+        long cacheTime = runLookups(cache, cacheFound);
+        System.out.println("  Map of maps lookups       = " + mapOfMapsTime + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        System.out.println("  EObjectCacheImpl lookups  = " + cacheTime + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        for (int i = 0; i < NUM_LOOKUPS; i++) {
+            assertSame(eObjects[(i * 7919) % NUM_OBJECTS], cacheFound[i]);
+            assertSame(mapOfMapsFound[i], cacheFound[i]);
+        }
+    }
+
+    public void testAddAndRemove() {
+        final EObjectCacheImpl cache = createCache();
+        cache.add(eObjects, false);
+        for (int i = 0; i < NUM_OBJECTS; i += 2) {
+            cache.remove(eObjects[i], false);
+        }
+        assertEquals(NUM_OBJECTS / 2, cache.size());
+        for (int i = 0; i < NUM_OBJECTS; i++) {
+            assertEquals(i % 2 != 0, cache.containsKey(ids[i]));
+        }
+        cache.remove(ids[1], false);
+        assertNull(cache.get(ids[1]));
+        assertEquals(NUM_OBJECTS / 2 - 1, cache.values().length);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(ids[3]));
+    }
+
+    /**
+     * The lookups of the list of maps, each capped at 1500 entries, that EObjectCacheImpl used to hold its EObjects in.
+     */
+    static class MapOfMapsCache implements EObjectCache {
+        private static final int MAX_MAP_SIZE = 1500;
+        private final List maps = new ArrayList();
+        private Map currentMap;
+
+        void put( ObjectID key,
+                  EObject value ) {
+            if (currentMap == null || currentMap.size() >= MAX_MAP_SIZE) {
+                currentMap = new HashMap();
+                maps.add(currentMap);
+            }
+            currentMap.put(key, value);
+        }
+
+        @Override
+        public EObject get( ObjectID key ) {
+            for (final Iterator iter = maps.iterator(); iter.hasNext();) {
+                final Map next = (Map)iter.next();
+                if (next.containsKey(key)) {
+                    return (EObject)next.get(key);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int size() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public EObject[] values() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean containsKey( ObjectID key ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean containsValue( EObject value ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void add( EObject value,
+                         boolean recurse ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void add( EObject[] values,
+                         boolean recurse ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void remove( EObject value,
+                            boolean recurse ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void remove( EObject[] values,
+                            boolean recurse ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void remove( ObjectID key,
+                            boolean recurse ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void remove( ObjectID[] keys,
+                            boolean recurse ) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.io.File;
+import java.util.List;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.teiid.core.designer.util.Stopwatch;
+
+/**
+ * Compares opening a generated workspace of models on the calling thread with opening it through a
+ * {@link ParallelResourceLoader}.
+ * <p>
+ * Not part of {@link org.teiid.designer.core.test.AllTests}, so it is run on its own.
+ * </p>
+ */
+public class TestPerformanceParallelResourceLoader extends TestCase {
+
+    private static final int NUM_MODELS = 1000;
+    private static final int NUM_CLASSES = 40;
+
+    private File folder;
+    private List<URI> uris;
+
+    /**
+     * Constructor for TestPerformanceParallelResourceLoader.
+     *
+     * @param name
+     */
+    public TestPerformanceParallelResourceLoader( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        folder = File.createTempFile("TestPerformanceParallelResourceLoader", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        folder.delete();
+        folder.mkdirs();
+        uris = TestParallelResourceLoader.writeModels(folder, NUM_MODELS, NUM_CLASSES);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] files = folder.listFiles();
+        for (int i = 0; i < files.length; i++) {
+            files[i].delete();
+        }
+        folder.delete();
+    }
+
+    private long open( final int threads ) {
+        final ResourceSet resourceSet = TestParallelResourceLoader.createResourceSet();
+        final Stopwatch sw = new Stopwatch();
+        sw.start();
+        final List<Resource> loaded = new ParallelResourceLoader(resourceSet, threads).load(uris, null);
+        sw.stop();
+        assertEquals(NUM_MODELS, loaded.size());
+        return sw.getTotalDuration();
+    }
+
+    public void testColdOpen() {
+        System.out.println("\nTestPerformanceParallelResourceLoader.testColdOpen()"); //$NON-NLS-1$
+        // warm up the class loading and the JIT
+        open(1);
+        open(ParallelResourceLoader.DEFAULT_MAX_THREADS);
+
+        final long sequential = open(1);
+        final long parallel = open(ParallelResourceLoader.DEFAULT_MAX_THREADS);
+        System.out.println("Opening " + NUM_MODELS + " models on one thread: " + sequential + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        System.out.println("Opening " + NUM_MODELS + " models on " + ParallelResourceLoader.DEFAULT_MAX_THREADS //$NON-NLS-1$ //$NON-NLS-2$
+                           + " threads: " + parallel + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
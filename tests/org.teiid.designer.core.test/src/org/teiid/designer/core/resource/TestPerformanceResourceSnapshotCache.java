@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.teiid.core.designer.util.Stopwatch;
+
+/**
+ * Compares reopening a set of unchanged models by parsing their XMI files with reopening them from their snapshots.
+ * <p>
+ * Not part of {@link org.teiid.designer.core.test.AllTests}, so it is run on its own.
+ * </p>
+ */
+public class TestPerformanceResourceSnapshotCache extends TestCase {
+
+    private static final int NUM_MODELS = 100;
+    private static final int NUM_CLASSES = 200;
+
+    private File folder;
+    private File snapshots;
+    private ResourceSnapshotCache cache;
+    private List<URI> uris;
+
+    /**
+     * Constructor for TestPerformanceResourceSnapshotCache.
+     *
+     * @param name
+     */
+    public TestPerformanceResourceSnapshotCache( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        folder = File.createTempFile("TestPerformanceResourceSnapshotCache", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        folder.delete();
+        folder.mkdirs();
+        snapshots = new File(folder, "snapshots"); //$NON-NLS-1$
+        cache = new ResourceSnapshotCache(snapshots, "8.1"); //$NON-NLS-1$
+        uris = new ArrayList<URI>(NUM_MODELS);
+        for (int i = 0; i < NUM_MODELS; i++) {
+            uris.add(TestResourceSnapshotCache.writeModel(folder, "Model" + i, NUM_CLASSES, null)); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        cache.clear();
+        snapshots.delete();
+        final File[] files = folder.listFiles();
+        for (int i = 0; i < files.length; i++) {
+            files[i].delete();
+        }
+        folder.delete();
+    }
+
+    private long open( final boolean fromSnapshots ) throws Exception {
+        final ResourceSet resourceSet = TestResourceSnapshotCache.createResourceSet();
+        final Stopwatch sw = new Stopwatch();
+        sw.start();
+        for (final URI uri : uris) {
+            final TestResourceSnapshotCache.SnapshotResource resource = (TestResourceSnapshotCache.SnapshotResource)resourceSet.createResource(uri);
+            final ResourceSnapshotCache.Key key = cache.getKey(resource);
+            if (!fromSnapshots || !cache.load(resource, key, null)) {
+                resource.load(null);
+                if (fromSnapshots) {
+                    cache.save(resource, key, null);
+                }
+            }
+        }
+        sw.stop();
+        // the snapshots are written in the background, and must be there for the next open
+        cache.waitForWrites();
+        int count = 0;
+        for (final Resource resource : resourceSet.getResources()) {
+            assertTrue(resource.isLoaded());
+            count += resource.getContents().size();
+        }
+        assertEquals(NUM_MODELS, count);
+        return sw.getTotalDuration();
+    }
+
+    public void testWarmOpen() throws Exception {
+        System.out.println("\nTestPerformanceResourceSnapshotCache.testWarmOpen()"); //$NON-NLS-1$
+        // warm up the class loading and the JIT, and take the snapshots
+        open(false);
+        final long snapshotting = open(true);
+        open(true);
+
+        final long parsing = open(false);
+        final long fromSnapshots = open(true);
+        System.out.println("Parsing " + NUM_MODELS + " models: " + parsing + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        System.out.println("Parsing and snapshotting " + NUM_MODELS + " models: " + snapshotting + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        System.out.println("Loading " + NUM_MODELS + " models from snapshots: " + fromSnapshots + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+}
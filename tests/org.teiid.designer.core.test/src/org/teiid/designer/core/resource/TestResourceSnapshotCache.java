@@ -0,0 +1,366 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.util.BasicEMap;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.teiid.designer.core.resource.xmi.MtkXmiResourceImpl;
+
+/**
+ * @since 8.1
+ */
+public class TestResourceSnapshotCache extends TestCase {
+
+    private static final String VERSION = "8.1"; //$NON-NLS-1$
+
+    /**
+     * An XMI resource with UUIDs which, like the model resources, loads from a snapshot when the snapshot option is set.
+     */
+    static class SnapshotResource extends XMIResourceImpl {
+        List prefixesToURIs;
+        private boolean loadingSnapshot;
+
+        SnapshotResource( final URI uri ) {
+            super(uri);
+        }
+
+        @Override
+        protected boolean useUUIDs() {
+            return true;
+        }
+
+        @Override
+        protected void attachedHelper( final EObject eObject ) {
+            if (!this.loadingSnapshot) {
+                super.attachedHelper(eObject);
+            }
+        }
+
+        @Override
+        public void doLoad( final InputStream inputStream,
+                            final Map options ) throws IOException {
+            final Object snapshots = (options == null ? null : options.get(ResourceSnapshotCache.OPTION_SNAPSHOT));
+            if (snapshots instanceof ResourceSnapshotCache) {
+                this.loadingSnapshot = true;
+                try {
+                    this.prefixesToURIs = ((ResourceSnapshotCache)snapshots).read(this, inputStream);
+                } finally {
+                    this.loadingSnapshot = false;
+                }
+            } else {
+                super.doLoad(inputStream, options);
+            }
+        }
+    }
+
+    private File folder;
+    private File snapshots;
+    private ResourceSnapshotCache cache;
+
+    /**
+     * Constructor for TestResourceSnapshotCache.
+     *
+     * @param name
+     */
+    public TestResourceSnapshotCache( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        folder = File.createTempFile("TestResourceSnapshotCache", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        folder.delete();
+        folder.mkdirs();
+        snapshots = new File(folder, "snapshots"); //$NON-NLS-1$
+        cache = new ResourceSnapshotCache(snapshots, VERSION);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        cache.clear();
+        snapshots.delete();
+        final File[] files = folder.listFiles();
+        for (int i = 0; i < files.length; i++) {
+            files[i].delete();
+        }
+        folder.delete();
+    }
+
+    static ResourceSet createResourceSet() {
+        final ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("xmi", new Resource.Factory() { //$NON-NLS-1$
+            @Override
+            public Resource createResource( final URI uri ) {
+                return new SnapshotResource(uri);
+            }
+        });
+        return resourceSet;
+    }
+
+    /**
+     * Write a model holding an EPackage of EClasses with attributes, whose first EClass extends the supplied one.
+     */
+    static URI writeModel( final File folder,
+                           final String name,
+                           final int numClasses,
+                           final EClass superType ) throws Exception {
+        final ResourceSet resourceSet = (superType != null ? superType.eResource().getResourceSet() : createResourceSet());
+        final URI uri = URI.createFileURI(new File(folder, name + ".xmi").getAbsolutePath()); //$NON-NLS-1$
+        final EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName(name);
+        ePackage.setNsURI("http://" + name); //$NON-NLS-1$
+        for (int i = 0; i < numClasses; i++) {
+            final EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+            eClass.setName("Class" + i); //$NON-NLS-1$
+            for (int j = 0; j < 5; j++) {
+                final EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+                attribute.setName("attribute" + j); //$NON-NLS-1$
+                attribute.setEType(EcorePackage.Literals.ESTRING);
+                eClass.getEStructuralFeatures().add(attribute);
+            }
+            ePackage.getEClassifiers().add(eClass);
+        }
+        if (superType != null) {
+            ((EClass)ePackage.getEClassifiers().get(0)).getESuperTypes().add(superType);
+        }
+        final Resource resource = resourceSet.createResource(uri);
+        resource.getContents().add(ePackage);
+        resource.save(Collections.EMPTY_MAP);
+        return uri;
+    }
+
+    /**
+     * Load a model from its XMI file, and save its snapshot.
+     */
+    private SnapshotResource loadAndSnapshot( final ResourceSet resourceSet,
+                                              final URI uri ) throws Exception {
+        final SnapshotResource resource = (SnapshotResource)resourceSet.createResource(uri);
+        final ResourceSnapshotCache.Key key = cache.getKey(resource);
+        assertFalse(cache.load(resource, key, null));
+        resource.load(null);
+        cache.save(resource, key, null);
+        cache.waitForWrites();
+        return resource;
+    }
+
+    private SnapshotResource loadFromSnapshot( final ResourceSet resourceSet,
+                                               final URI uri ) {
+        final SnapshotResource resource = (SnapshotResource)resourceSet.createResource(uri);
+        if (!cache.load(resource, cache.getKey(resource), null)) {
+            return null;
+        }
+        return resource;
+    }
+
+    private File[] getSnapshotFiles() {
+        final File[] files = snapshots.listFiles();
+        return (files == null ? new File[0] : files);
+    }
+
+    public void testShouldLoadContentsAndUuidsFromSnapshot() throws Exception {
+        final URI uri = writeModel(folder, "Model", 10, null); //$NON-NLS-1$
+        final SnapshotResource parsed = loadAndSnapshot(createResourceSet(), uri);
+        assertEquals(1, getSnapshotFiles().length);
+
+        final SnapshotResource snapshot = loadFromSnapshot(createResourceSet(), uri);
+        assertNotNull(snapshot);
+        assertTrue(snapshot.isLoaded());
+        assertFalse(snapshot.isModified());
+        final Iterator expected = parsed.getAllContents();
+        final Iterator actual = snapshot.getAllContents();
+        int count = 0;
+        while (expected.hasNext()) {
+            assertTrue(actual.hasNext());
+            final EObject expectedObject = (EObject)expected.next();
+            final EObject actualObject = (EObject)actual.next();
+            assertEquals(expectedObject.eClass(), actualObject.eClass());
+            assertNotNull(parsed.getID(expectedObject));
+            assertEquals(parsed.getID(expectedObject), snapshot.getID(actualObject));
+            assertSame(actualObject, snapshot.getEObject(parsed.getID(expectedObject)));
+            count++;
+        }
+        assertFalse(actual.hasNext());
+        assertTrue(count > 10 * 6);
+        assertEquals("Class3", ((EClass)((EPackage)snapshot.getContents().get(0)).getEClassifiers().get(3)).getName()); //$NON-NLS-1$
+    }
+
+    public void testShouldLoadModelResourceWithUuidsFromSnapshot() throws Exception {
+        final URI uri = writeModel(folder, "Model", 10, null); //$NON-NLS-1$
+        final Resource parsed = createResourceSet().getResource(uri, true);
+
+        // take a snapshot of a model resource holding the parsed contents, with the UUIDs it gave them
+        final MtkXmiResourceImpl original = new MtkXmiResourceImpl(uri);
+        new ResourceSetImpl().getResources().add(original);
+        final ResourceSnapshotCache.Key key = cache.getKey(original);
+        original.getContents().addAll(parsed.getContents());
+        cache.save(original, key, null);
+        cache.waitForWrites();
+        assertEquals(1, getSnapshotFiles().length);
+
+        final MtkXmiResourceImpl snapshot = new MtkXmiResourceImpl(uri);
+        new ResourceSetImpl().getResources().add(snapshot);
+        assertTrue(cache.load(snapshot, cache.getKey(snapshot), null));
+        assertTrue(snapshot.isLoaded());
+        final Iterator expected = original.getAllContents();
+        final Iterator actual = snapshot.getAllContents();
+        int count = 0;
+        while (expected.hasNext()) {
+            assertTrue(actual.hasNext());
+            final EObject expectedObject = (EObject)expected.next();
+            final EObject actualObject = (EObject)actual.next();
+            final String uuid = original.getUuid(expectedObject);
+            assertNotNull(uuid);
+            assertEquals(uuid, snapshot.getUuid(actualObject));
+            assertSame(actualObject, snapshot.getEObject(uuid));
+            assertNull(MtkXmiResourceImpl.DETACHED_EOBJECT_TO_UUID_MAP.get(actualObject));
+            assertNull(MtkXmiResourceImpl.DETACHED_UUID_TO_EOBJECT_MAP.get(uuid));
+            count++;
+        }
+        assertFalse(actual.hasNext());
+        assertTrue(count > 10 * 6);
+    }
+
+    public void testShouldResolveReferencesToOtherModels() throws Exception {
+        final URI baseUri = writeModel(folder, "Base", 3, null); //$NON-NLS-1$
+        final ResourceSet writing = createResourceSet();
+        final EClass superType = (EClass)((EPackage)writing.getResource(baseUri, true).getContents().get(0)).getEClassifiers().get(1);
+        final URI derivedUri = writeModel(folder, "Derived", 3, superType); //$NON-NLS-1$
+        loadAndSnapshot(createResourceSet(), derivedUri);
+
+        final ResourceSet resourceSet = createResourceSet();
+        final Resource base = resourceSet.getResource(baseUri, true);
+        final SnapshotResource derived = loadFromSnapshot(resourceSet, derivedUri);
+        assertNotNull(derived);
+        final EClass derivedClass = (EClass)((EPackage)derived.getContents().get(0)).getEClassifiers().get(0);
+        assertSame(((EPackage)base.getContents().get(0)).getEClassifiers().get(1), derivedClass.getESuperTypes().get(0));
+    }
+
+    public void testShouldKeepNamespacePrefixes() throws Exception {
+        final URI uri = writeModel(folder, "Model", 1, null); //$NON-NLS-1$
+        final SnapshotResource parsed = (SnapshotResource)createResourceSet().createResource(uri);
+        final ResourceSnapshotCache.Key key = cache.getKey(parsed);
+        parsed.load(null);
+        final List prefixes = new BasicEMap(Collections.singletonMap("ecore", EcorePackage.eNS_URI)); //$NON-NLS-1$
+        cache.save(parsed, key, prefixes);
+        cache.waitForWrites();
+
+        final SnapshotResource snapshot = loadFromSnapshot(createResourceSet(), uri);
+        assertNotNull(snapshot);
+        assertEquals(prefixes, snapshot.prefixesToURIs);
+    }
+
+    public void testShouldDiscardSnapshotOfChangedFile() throws Exception {
+        final URI uri = writeModel(folder, "Model", 2, null); //$NON-NLS-1$
+        loadAndSnapshot(createResourceSet(), uri);
+        writeModel(folder, "Model", 3, null); //$NON-NLS-1$
+
+        final ResourceSet resourceSet = createResourceSet();
+        assertNull(loadFromSnapshot(resourceSet, uri));
+        assertEquals(0, getSnapshotFiles().length);
+        assertFalse(resourceSet.getResource(uri, false).isLoaded());
+    }
+
+    public void testShouldDiscardSnapshotOfFileChangedWithoutChangingTimeOrLength() throws Exception {
+        final URI uri = writeModel(folder, "Model", 2, null); //$NON-NLS-1$
+        loadAndSnapshot(createResourceSet(), uri);
+        final File file = new File(uri.toFileString());
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+
+        // same length and modification time, other contents
+        writeModel(folder, "Mode1", 2, null); //$NON-NLS-1$
+        final File other = new File(folder, "Mode1.xmi"); //$NON-NLS-1$
+        assertTrue(file.delete());
+        assertTrue(other.renameTo(file));
+        file.setLastModified(lastModified);
+        assertEquals(length, file.length());
+        assertEquals(lastModified, file.lastModified());
+
+        assertNull(loadFromSnapshot(createResourceSet(), uri));
+        assertEquals(0, getSnapshotFiles().length);
+    }
+
+    public void testShouldNotSnapshotFileChangedSinceItWasParsed() throws Exception {
+        final URI uri = writeModel(folder, "Model", 2, null); //$NON-NLS-1$
+        final SnapshotResource resource = (SnapshotResource)createResourceSet().createResource(uri);
+        final ResourceSnapshotCache.Key key = cache.getKey(resource);
+        resource.load(null);
+        writeModel(folder, "Model", 3, null); //$NON-NLS-1$
+
+        cache.save(resource, key, null);
+        cache.waitForWrites();
+        assertEquals(0, getSnapshotFiles().length);
+    }
+
+    public void testShouldDiscardSnapshotThatCannotBeRead() throws Exception {
+        final URI uri = writeModel(folder, "Model", 10, null); //$NON-NLS-1$
+        loadAndSnapshot(createResourceSet(), uri);
+        final File snapshot = getSnapshotFiles()[0];
+        final RandomAccessFile file = new RandomAccessFile(snapshot, "rw"); //$NON-NLS-1$
+        file.setLength(file.length() / 2);
+        file.close();
+
+        final ResourceSet resourceSet = createResourceSet();
+        assertNull(loadFromSnapshot(resourceSet, uri));
+        assertFalse(snapshot.exists());
+        final Resource resource = resourceSet.getResource(uri, false);
+        assertFalse(resource.isLoaded());
+        assertTrue(resource.getContents().isEmpty());
+
+        // the model is still parsed from its XMI file
+        resource.load(null);
+        assertEquals(1, resource.getContents().size());
+    }
+
+    public void testShouldDiscardSnapshotOfOtherVersion() throws Exception {
+        final URI uri = writeModel(folder, "Model", 2, null); //$NON-NLS-1$
+        loadAndSnapshot(createResourceSet(), uri);
+
+        cache = new ResourceSnapshotCache(snapshots, "9.0"); //$NON-NLS-1$
+        assertNull(loadFromSnapshot(createResourceSet(), uri));
+        assertEquals(0, getSnapshotFiles().length);
+    }
+
+    public void testShouldNotSnapshotModelWithErrors() throws Exception {
+        final File file = new File(folder, "Broken.xmi"); //$NON-NLS-1$
+        final FileWriter writer = new FileWriter(file);
+        writer.write("<?xml version=\"1.0\"?><unterminated"); //$NON-NLS-1$
+        writer.close();
+        final Resource resource = createResourceSet().createResource(URI.createFileURI(file.getAbsolutePath()));
+        final ResourceSnapshotCache.Key key = cache.getKey((SnapshotResource)resource);
+        try {
+            resource.load(null);
+            fail();
+        } catch (final Exception e) {
+            // expected
+        }
+        cache.save((SnapshotResource)resource, key, null);
+        cache.waitForWrites();
+        assertEquals(0, getSnapshotFiles().length);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.resource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ */
+public class TestUUIDObjectTable extends TestCase {
+
+    private UUIDObjectTable table;
+
+    /**
+     * Constructor for TestUUIDObjectTable.
+     *
+     * @param name
+     */
+    public TestUUIDObjectTable( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        table = new UUIDObjectTable();
+    }
+
+    public void testPutAndGet() {
+        assertNull(table.put(1L, 2L, "a")); //$NON-NLS-1$
+        assertNull(table.put(2L, 1L, "b")); //$NON-NLS-1$
+        assertEquals("a", table.get(1L, 2L)); //$NON-NLS-1$
+        assertEquals("b", table.get(2L, 1L)); //$NON-NLS-1$
+        assertNull(table.get(1L, 1L));
+        assertEquals(2, table.size());
+    }
+
+    public void testPutReplacesValue() {
+        table.put(1L, 2L, "a"); //$NON-NLS-1$
+        assertEquals("a", table.put(1L, 2L, "b")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals("b", table.get(1L, 2L)); //$NON-NLS-1$
+        assertEquals(1, table.size());
+    }
+
+    public void testRemove() {
+        table.put(1L, 2L, "a"); //$NON-NLS-1$
+        assertEquals("a", table.remove(1L, 2L)); //$NON-NLS-1$
+        assertNull(table.remove(1L, 2L));
+        assertNull(table.get(1L, 2L));
+        assertEquals(0, table.size());
+    }
+
+    public void testRemoveWithinCollidingRun() {
+        // keys whose halves are equal all hash to the same slot, so they form a single run that wraps around the table
+        for (long i = 0; i < 10; i++) {
+            table.put(i, i, new Long(i));
+        }
+        for (long i = 0; i < 10; i += 3) {
+            assertEquals(new Long(i), table.remove(i, i));
+        }
+        for (long i = 0; i < 10; i++) {
+            assertEquals(i % 3 == 0 ? null : new Long(i), table.get(i, i));
+        }
+        assertEquals(6, table.size());
+    }
+
+    public void testGrowsAndMatchesHashMap() {
+        final Random random = new Random(0);
+        final Map expected = new HashMap();
+        final List keys = new ArrayList();
+        for (int i = 0; i < 100000; i++) {
+            final java.util.UUID key = new java.util.UUID(random.nextLong(), random.nextLong());
+            keys.add(key);
+            expected.put(key, new Integer(i));
+            table.put(key.getMostSignificantBits(), key.getLeastSignificantBits(), new Integer(i));
+        }
+        // remove every other key, then re-add a few
+        for (int i = 0; i < keys.size(); i += 2) {
+            final java.util.UUID key = (java.util.UUID)keys.get(i);
+            assertEquals(expected.remove(key), table.remove(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+        }
+        for (int i = 0; i < keys.size(); i += 10) {
+            final java.util.UUID key = (java.util.UUID)keys.get(i);
+            expected.put(key, "again"); //$NON-NLS-1$
+            table.put(key.getMostSignificantBits(), key.getLeastSignificantBits(), "again"); //$NON-NLS-1$
+        }
+
+        assertEquals(expected.size(), table.size());
+        for (final Iterator iter = keys.iterator(); iter.hasNext();) {
+            final java.util.UUID key = (java.util.UUID)iter.next();
+            assertEquals(expected.get(key), table.get(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+        }
+        final List values = new ArrayList();
+        table.addValuesTo(values);
+        assertEquals(new HashSet(expected.values()), new HashSet(values));
+        assertTrue(table.containsValue("again")); //$NON-NLS-1$
+    }
+
+    public void testClearReleasesSlots() {
+        for (long i = 0; i < 1000; i++) {
+            table.put(i, -i, new Long(i));
+        }
+        final int capacity = table.capacity();
+        table.clear();
+        assertEquals(0, table.size());
+        assertNull(table.get(1L, -1L));
+        assertTrue(table.capacity() < capacity);
+    }
+}
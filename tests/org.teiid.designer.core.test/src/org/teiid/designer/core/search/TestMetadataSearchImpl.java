@@ -0,0 +1,339 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.search;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.emf.ecore.EClass;
+import org.mockito.Mockito;
+import org.teiid.core.designer.util.FileUtils;
+import org.teiid.core.util.SmartTestDesignerSuite;
+import org.teiid.designer.core.index.AbstractIndexSelector;
+import org.teiid.designer.core.index.FileDocument;
+import org.teiid.designer.core.index.IDocument;
+import org.teiid.designer.core.index.IIndexer;
+import org.teiid.designer.core.index.IIndexerOutput;
+import org.teiid.designer.core.index.Index;
+import org.teiid.designer.core.index.IndexConstants;
+import org.teiid.designer.core.index.IndexSelector;
+import org.teiid.designer.core.index.IndexSelectorFactory;
+import org.teiid.designer.core.search.commands.FindObjectCommand;
+import org.teiid.designer.core.search.commands.FindObjectCommandImpl;
+import org.teiid.designer.core.search.runtime.SearchRecord;
+import org.teiid.designer.core.search.runtime.SearchRuntimeAdapter;
+import org.teiid.designer.core.workspace.ModelWorkspace;
+
+/**
+ * Checks that {@link MetadataSearchImpl#execute(org.eclipse.core.runtime.IProgressMonitor, SearchResultCollector, int, int)}
+ * pages the records found by {@link MetadataSearchImpl#execute(org.eclipse.core.runtime.IProgressMonitor)}.
+ *
+ * @since 8.1
+ */
+public class TestMetadataSearchImpl extends TestCase {
+
+    private static final int NUM_MODELS = 5;
+    private static final int NUM_COLUMNS = 20;
+
+    private static final char DELIMITER = IndexConstants.RECORD_STRING.RECORD_DELIMITER;
+    private static final char SPACE = IndexConstants.RECORD_STRING.SPACE;
+
+    private static final String STRING_TYPE = "string"; //$NON-NLS-1$
+    private static final String INTEGER_TYPE = "integer"; //$NON-NLS-1$
+
+    private File indexDirectory;
+    private Index[] indexes;
+
+    // The records found by the object URI search
+    private List objectUriRecords;
+
+    /**
+     * Constructor for TestMetadataSearchImpl.
+     *
+     * @param name
+     */
+    public TestMetadataSearchImpl( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        indexDirectory = new File(SmartTestDesignerSuite.getTestScratchPath(), "metadataSearchIndexes"); //$NON-NLS-1$
+        indexDirectory.mkdirs();
+
+        indexes = new Index[NUM_MODELS];
+        for (int i = 0; i < NUM_MODELS; i++) {
+            Index index = new Index(indexDirectory, "Model" + i + '.' + IndexConstants.INDEX_EXT, false); //$NON-NLS-1$
+            index.add(new FileDocument(new File(indexDirectory, "Model" + i + ".xmi")), new ColumnIndexer(i)); //$NON-NLS-1$ //$NON-NLS-2$
+            index.save();
+            indexes[i] = index;
+        }
+
+        objectUriRecords = new ArrayList();
+        for (int i = 0; i < 3; i++) {
+            objectUriRecords.add(SearchRuntimeAdapter.getSearchRecord(createObjectWord(0, i).toCharArray()));
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] != null) {
+                indexes[i].dispose();
+            }
+        }
+        FileUtils.removeDirectoryAndChildren(indexDirectory);
+    }
+
+    private static String getName( int columnNum ) {
+        return "Column" + columnNum; //$NON-NLS-1$
+    }
+
+    private static String getUuid( int modelNum,
+                                   int columnNum ) {
+        return "mmuuid:" + modelNum + '-' + columnNum; //$NON-NLS-1$
+    }
+
+    /**
+     * recordType|objectID|upperName|name|fullname|uri|modelPath|metaclassURI|
+     */
+    static String createObjectWord( int modelNum,
+                                    int columnNum ) {
+        final String name = getName(columnNum);
+        return "" + IndexConstants.SEARCH_RECORD_TYPE.OBJECT + DELIMITER + getUuid(modelNum, columnNum) + DELIMITER //$NON-NLS-1$
+               + name.toUpperCase() + DELIMITER + name + DELIMITER + "Model" + modelNum + ".Table." + name + DELIMITER //$NON-NLS-1$ //$NON-NLS-2$
+               + SPACE + DELIMITER + "/Project/Model" + modelNum + ".xmi" + DELIMITER + SPACE + DELIMITER; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * recordType|objectID|name|fullname|uri|datatypeName|datatypeID|runtimeType|modelPath|metaclassURI|
+     * <p>
+     * The even columns are strings, and the odd columns integers.
+     * </p>
+     */
+    static String createTypedObjectWord( int modelNum,
+                                         int columnNum ) {
+        final String name = getName(columnNum);
+        final String type = (columnNum % 2 == 0 ? STRING_TYPE : INTEGER_TYPE);
+        return "" + IndexConstants.SEARCH_RECORD_TYPE.TYPED_OBJECT + DELIMITER + getUuid(modelNum, columnNum) + DELIMITER //$NON-NLS-1$
+               + name + DELIMITER + "Model" + modelNum + ".Table." + name + DELIMITER + SPACE + DELIMITER + type + DELIMITER //$NON-NLS-1$ //$NON-NLS-2$
+               + SPACE + DELIMITER + type + DELIMITER + "/Project/Model" + modelNum + ".xmi" + DELIMITER + SPACE + DELIMITER; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private MetadataSearchImpl createSearch() {
+        return new MetadataSearchImpl(Mockito.mock(ModelWorkspace.class), Mockito.mock(IndexSelectorFactory.class)) {
+            @Override
+            protected IndexSelector createIndexSelector() {
+                return new AbstractIndexSelector() {
+                    @Override
+                    public Index[] getIndexes() {
+                        return indexes;
+                    }
+                };
+            }
+
+            @Override
+            protected FindObjectCommand createCommand( final IndexSelector scopeSelector,
+                                                       final EClass metaClass,
+                                                       final String featureName,
+                                                       final String textPattern,
+                                                       final boolean containsPattern ) {
+                if (!OBJECT_URI_FEATURE.equals(featureName)) {
+                    return super.createCommand(scopeSelector, metaClass, featureName, textPattern, containsPattern);
+                }
+                // an object URI search finds the object in the model container, which is not running here
+                final FindObjectCommand command = new FindObjectCommandImpl() {
+                    @Override
+                    public IStatus execute() {
+                        return Status.OK_STATUS;
+                    }
+
+                    @Override
+                    public Collection getRecordInfo() {
+                        return objectUriRecords;
+                    }
+                };
+                command.setIndexSelector(scopeSelector);
+                command.setMetaClass(metaClass);
+                command.setFeatureCriteria(featureName, textPattern, containsPattern);
+                return command;
+            }
+        };
+    }
+
+    /**
+     * Collects the pages of records, and stops the search after a number of pages.
+     */
+    static class PageCollector implements SearchResultCollector {
+        final List pages = new ArrayList();
+        final Set uuids = new HashSet();
+        private final int maxPages;
+
+        PageCollector( int maxPages ) {
+            this.maxPages = maxPages;
+        }
+
+        @Override
+        public boolean accept( List<SearchRecord> records ) {
+            assertFalse(records.isEmpty());
+            pages.add(new ArrayList(records));
+            for (SearchRecord record : records) {
+                assertTrue(uuids.add(record.getUUID()));
+            }
+            return pages.size() < maxPages;
+        }
+
+        int getPageSize( int page ) {
+            return ((List)pages.get(page)).size();
+        }
+    }
+
+    private static Set getUuids( Collection records ) {
+        Set uuids = new HashSet();
+        for (Iterator iter = records.iterator(); iter.hasNext();) {
+            assertTrue(uuids.add(((SearchRecord)iter.next()).getUUID()));
+        }
+        return uuids;
+    }
+
+    private void assertPages( PageCollector collector,
+                              int pageSize,
+                              int count ) {
+        assertEquals(count, collector.uuids.size());
+        assertEquals((count + pageSize - 1) / pageSize, collector.pages.size());
+        for (int i = 0; i < collector.pages.size() - 1; i++) {
+            assertEquals(pageSize, collector.getPageSize(i));
+        }
+    }
+
+    public void testShouldPageAllRecords() {
+        MetadataSearchImpl search = createSearch();
+        search.setFeatureCriteria(MetadataSearch.NAME_SEARCH_FEATURE, "column1*", true); //$NON-NLS-1$
+        assertTrue(search.execute(null).isOK());
+        Set expected = getUuids(search.getResults());
+        // Column1 and Column10 through Column19 of each model
+        assertEquals(NUM_MODELS * 11, expected.size());
+
+        PageCollector collector = new PageCollector(Integer.MAX_VALUE);
+        assertTrue(search.execute(null, collector, 10, -1).isOK());
+        assertPages(collector, 10, NUM_MODELS * 11);
+        assertEquals(expected, collector.uuids);
+    }
+
+    public void testShouldStopAtLimit() {
+        MetadataSearchImpl search = createSearch();
+        search.setFeatureCriteria(MetadataSearch.NAME_SEARCH_FEATURE, "column1*", true); //$NON-NLS-1$
+
+        PageCollector collector = new PageCollector(Integer.MAX_VALUE);
+        assertTrue(search.execute(null, collector, 3, 7).isOK());
+        assertPages(collector, 3, 7);
+        assertEquals(1, collector.getPageSize(2));
+    }
+
+    public void testShouldFindNothingWithZeroLimit() {
+        MetadataSearchImpl search = createSearch();
+        search.setFeatureCriteria(MetadataSearch.NAME_SEARCH_FEATURE, "column1*", true); //$NON-NLS-1$
+
+        PageCollector collector = new PageCollector(Integer.MAX_VALUE);
+        assertTrue(search.execute(null, collector, 3, 0).isOK());
+        assertTrue(collector.pages.isEmpty());
+    }
+
+    public void testShouldStopWhenCollectorDeclines() {
+        MetadataSearchImpl search = createSearch();
+        search.setFeatureCriteria(MetadataSearch.NAME_SEARCH_FEATURE, "column*", true); //$NON-NLS-1$
+
+        PageCollector collector = new PageCollector(2);
+        assertTrue(search.execute(null, collector, 4, -1).isOK());
+        assertEquals(2, collector.pages.size());
+        assertPages(collector, 4, 8);
+    }
+
+    public void testShouldJoinFeatureRecordsWithDatatypeRecords() {
+        MetadataSearchImpl search = createSearch();
+        search.setRuntimeType(STRING_TYPE);
+        search.setFeatureCriteria(MetadataSearch.NAME_SEARCH_FEATURE, "column1*", true); //$NON-NLS-1$
+        assertTrue(search.execute(null).isOK());
+        Set expected = getUuids(search.getResults());
+        // Column10, Column12, Column14, Column16 and Column18 of each model
+        assertEquals(NUM_MODELS * 5, expected.size());
+
+        PageCollector collector = new PageCollector(Integer.MAX_VALUE);
+        assertTrue(search.execute(null, collector, 4, -1).isOK());
+        assertPages(collector, 4, NUM_MODELS * 5);
+        assertEquals(expected, collector.uuids);
+        for (int i = 0; i < NUM_MODELS; i++) {
+            for (int j = 10; j < NUM_COLUMNS; j += 2) {
+                assertTrue(collector.uuids.contains(getUuid(i, j)));
+            }
+        }
+    }
+
+    public void testShouldPageRecordsOfExclusionSearch() {
+        MetadataSearchImpl search = createSearch();
+        search.setFeatureCriteria(MetadataSearch.NAME_SEARCH_FEATURE, "column1*", false); //$NON-NLS-1$
+        assertTrue(search.execute(null).isOK());
+        Set expected = getUuids(search.getResults());
+        // Column0 and Column2 through Column9 of each model
+        assertEquals(NUM_MODELS * 9, expected.size());
+
+        PageCollector collector = new PageCollector(Integer.MAX_VALUE);
+        assertTrue(search.execute(null, collector, 10, 20).isOK());
+        assertPages(collector, 10, 20);
+        assertTrue(expected.containsAll(collector.uuids));
+    }
+
+    public void testShouldPageRecordsOfObjectUriSearch() {
+        MetadataSearchImpl search = createSearch();
+        search.setFeatureCriteria(MetadataSearch.OBJECT_URI_FEATURE, "mmuri:Model0", true); //$NON-NLS-1$
+
+        PageCollector collector = new PageCollector(Integer.MAX_VALUE);
+        assertTrue(search.execute(null, collector, 2, -1).isOK());
+        assertPages(collector, 2, objectUriRecords.size());
+        assertEquals(getUuids(objectUriRecords), collector.uuids);
+    }
+
+    class ColumnIndexer implements IIndexer {
+        private final int modelNum;
+
+        ColumnIndexer( int modelNum ) {
+            this.modelNum = modelNum;
+        }
+
+        @Override
+        public String[] getFileTypes() {
+            return null;
+        }
+
+        @Override
+        public void index( IDocument document,
+                           IIndexerOutput output ) {
+            output.addDocument(document);
+            for (int i = 0; i < NUM_COLUMNS; i++) {
+                output.addRef(createObjectWord(modelNum, i).toCharArray());
+                output.addRef(createTypedObjectWord(modelNum, i).toCharArray());
+            }
+        }
+
+        @Override
+        public void setFileTypes( String[] fileTypes ) {
+        }
+
+        @Override
+        public boolean shouldIndex( IDocument document ) {
+            return true;
+        }
+    }
+}
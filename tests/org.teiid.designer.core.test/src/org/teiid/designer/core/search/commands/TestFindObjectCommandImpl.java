@@ -0,0 +1,171 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.search.commands;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.IStatus;
+import org.teiid.core.designer.util.FileUtils;
+import org.teiid.core.util.SmartTestDesignerSuite;
+import org.teiid.designer.core.index.AbstractIndexSelector;
+import org.teiid.designer.core.index.FileDocument;
+import org.teiid.designer.core.index.IDocument;
+import org.teiid.designer.core.index.IIndexer;
+import org.teiid.designer.core.index.IIndexerOutput;
+import org.teiid.designer.core.index.Index;
+import org.teiid.designer.core.index.IndexConstants;
+import org.teiid.designer.core.search.MetadataSearch;
+import org.teiid.designer.core.search.runtime.SearchRecord;
+
+/**
+ * Checks that finding the records of a {@link FindObjectCommandImpl} one index at a time finds the records found by executing
+ * it.
+ *
+ * @since 8.1
+ */
+public class TestFindObjectCommandImpl extends TestCase {
+
+    private static final int NUM_MODELS = 20;
+    private static final int NUM_COLUMNS = 50;
+
+    private static final char DELIMITER = IndexConstants.RECORD_STRING.RECORD_DELIMITER;
+
+    private File indexDirectory;
+    private Index[] indexes;
+
+    /**
+     * Constructor for TestFindObjectCommandImpl.
+     *
+     * @param name
+     */
+    public TestFindObjectCommandImpl( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        indexDirectory = new File(SmartTestDesignerSuite.getTestScratchPath(), "findObjectIndexes"); //$NON-NLS-1$
+        indexDirectory.mkdirs();
+
+        indexes = new Index[NUM_MODELS];
+        for (int i = 0; i < NUM_MODELS; i++) {
+            Index index = new Index(indexDirectory, "Model" + i + '.' + IndexConstants.INDEX_EXT, false); //$NON-NLS-1$
+            index.add(new FileDocument(new File(indexDirectory, "Model" + i + ".xmi")), new ColumnIndexer(i)); //$NON-NLS-1$ //$NON-NLS-2$
+            index.save();
+            indexes[i] = index;
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] != null) {
+                indexes[i].dispose();
+            }
+        }
+        FileUtils.removeDirectoryAndChildren(indexDirectory);
+    }
+
+    /**
+     * recordType|objectID|upperName|name|fullname|uri|modelPath|metaclassURI|
+     */
+    static String createObjectWord( int modelNum,
+                                    int columnNum ) {
+        final String name = "Column" + columnNum; //$NON-NLS-1$
+        return "" + IndexConstants.SEARCH_RECORD_TYPE.OBJECT + DELIMITER + "mmuuid:" + modelNum + '-' + columnNum + DELIMITER //$NON-NLS-1$ //$NON-NLS-2$
+               + name.toUpperCase() + DELIMITER + name + DELIMITER + "Model" + modelNum + ".Table." + name + DELIMITER //$NON-NLS-1$ //$NON-NLS-2$
+               + IndexConstants.RECORD_STRING.SPACE + DELIMITER + "/Project/Model" + modelNum + ".xmi" + DELIMITER //$NON-NLS-1$ //$NON-NLS-2$
+               + IndexConstants.RECORD_STRING.SPACE + DELIMITER;
+    }
+
+    private FindObjectCommandImpl createCommand( String featureName,
+                                                 String textPattern,
+                                                 boolean containsPattern ) {
+        FindObjectCommandImpl command = new FindObjectCommandImpl();
+        command.setFeatureCriteria(featureName, textPattern, containsPattern);
+        command.setIndexSelector(new AbstractIndexSelector() {
+            @Override
+            public Index[] getIndexes() {
+                return indexes;
+            }
+        });
+        return command;
+    }
+
+    private Set getUuids( Iterator records ) {
+        Set uuids = new HashSet();
+        while (records.hasNext()) {
+            assertTrue(uuids.add(((SearchRecord)records.next()).getUUID()));
+        }
+        return uuids;
+    }
+
+    public void testFindRecordsMatchesExecute() throws Exception {
+        FindObjectCommandImpl command = createCommand(MetadataSearch.NAME_SEARCH_FEATURE, "column1*", true); //$NON-NLS-1$
+        assertTrue(command.canFindRecords());
+
+        assertEquals(IStatus.OK, command.execute().getSeverity());
+        Set expected = getUuids(command.getRecordInfo().iterator());
+        // Column1 and Column10 through Column19 of each model
+        assertEquals(NUM_MODELS * 11, expected.size());
+
+        Set found = new HashSet();
+        for (int i = 0; i < indexes.length; i++) {
+            Set uuids = getUuids(command.findRecords(indexes[i]).iterator());
+            assertEquals(11, uuids.size());
+            found.addAll(uuids);
+        }
+        assertEquals(expected, found);
+    }
+
+    public void testCannotFindRecordsOfExclusionSearch() {
+        assertFalse(createCommand(MetadataSearch.NAME_SEARCH_FEATURE, "column1*", false).canFindRecords()); //$NON-NLS-1$
+    }
+
+    public void testCannotFindRecordsOfObjectUriSearch() {
+        assertFalse(createCommand(MetadataSearch.OBJECT_URI_FEATURE, "mmuri:Model1", true).canFindRecords()); //$NON-NLS-1$
+    }
+
+    public void testCannotFindRecordsWithoutCriteria() {
+        assertFalse(new FindObjectCommandImpl().canFindRecords());
+    }
+
+    class ColumnIndexer implements IIndexer {
+        private final int modelNum;
+
+        ColumnIndexer( int modelNum ) {
+            this.modelNum = modelNum;
+        }
+
+        @Override
+        public String[] getFileTypes() {
+            return null;
+        }
+
+        @Override
+        public void index( IDocument document,
+                           IIndexerOutput output ) {
+            output.addDocument(document);
+            for (int i = 0; i < NUM_COLUMNS; i++) {
+                output.addRef(createObjectWord(modelNum, i).toCharArray());
+            }
+        }
+
+        @Override
+        public void setFileTypes( String[] fileTypes ) {
+        }
+
+        @Override
+        public boolean shouldIndex( IDocument document ) {
+            return true;
+        }
+    }
+}
@@ -11,7 +11,11 @@ import org.teiid.designer.core.container.TestAbstractProxyContainer;
 import org.teiid.designer.core.container.TestDefaultContainerResultSetFinder;
 import org.teiid.designer.core.container.TestDefaultResourceFinder;
 import org.teiid.designer.core.container.TestResourceDescriptorImpl;
+import org.teiid.designer.core.extension.TestEmfModelObjectExtensionAssistant;
 import org.teiid.designer.core.index.TestCreateIndexFile;
+import org.teiid.designer.core.index.TestIndexedWordsAdapter;
+import org.teiid.designer.core.index.TestIndexUtil;
+import org.teiid.designer.core.index.TestMappedBlocksIndexInput;
 import org.teiid.designer.core.index.TestResourceFileIndexSelector;
 import org.teiid.designer.core.index.TestRuntimeIndexSelector;
 import org.teiid.designer.core.index.TestWordEntryComparator;
@@ -19,9 +23,15 @@ import org.teiid.designer.core.metadata.runtime.TestMetadataRecord;
 import org.teiid.designer.core.metadata.runtime.TestRuntimeAdapter;
 import org.teiid.designer.core.metamodel.TestMultiplicity;
 import org.teiid.designer.core.metamodel.aspect.TestAbstractMetamodelAspect;
+import org.teiid.designer.core.resource.TestParallelResourceLoader;
+import org.teiid.designer.core.resource.TestResourceSnapshotCache;
+import org.teiid.designer.core.resource.TestUUIDObjectTable;
+import org.teiid.designer.core.search.TestMetadataSearchImpl;
+import org.teiid.designer.core.search.commands.TestFindObjectCommandImpl;
 import org.teiid.designer.core.search.runtime.TestSearchRuntimeAdapter;
 import org.teiid.designer.core.transaction.TestSourcedNotificationImpl;
 import org.teiid.designer.core.transaction.TestTransactionStateConstants;
+import org.teiid.designer.core.transaction.TestTxnNotificationFilter;
 import org.teiid.designer.core.transaction.TestUnitOfWorkProviderImpl;
 import org.teiid.designer.core.types.TestDatatypeConstants;
 import org.teiid.designer.core.util.StringUtilitiesTest;
@@ -44,6 +54,8 @@ import org.teiid.designer.core.workspace.TestDotProjectUtil;
 import org.teiid.designer.core.workspace.TestModelBufferCache;
 import org.teiid.designer.core.workspace.TestModelBufferImpl;
 import org.teiid.designer.core.workspace.TestModelBufferManager;
+import org.teiid.designer.core.workspace.TestModelDependencyGraph;
+import org.teiid.designer.core.workspace.TestModelDependencyTracker;
 import org.teiid.designer.core.workspace.TestModelProjectImpl;
 import org.teiid.designer.core.workspace.TestModelProjectInfo;
 import org.teiid.designer.core.workspace.TestModelResourceInfo;
@@ -74,7 +86,10 @@ import org.teiid.designer.core.workspace.TestOpenableModelWorkspaceItemInfo;
     TestPrimaryMetamodelStatisticsVisitor.class, TestModelStatisticsVisitor.class, TestModelStatistics.class,
     TestIoUtilities.class, TestColumnRecordComparator.class, StringUtilitiesTest.class, TestDatatypeConstants.class,
     TestMultiplicity.class, TestMappingProducer.class, TestFakeMappableObject.class, TestModelerCore.class,
-    TestTransactionStateConstants.class, TestAbstractMetamodelAspect.class,} )
+    TestTransactionStateConstants.class, TestTxnNotificationFilter.class, TestAbstractMetamodelAspect.class, TestIndexedWordsAdapter.class, TestIndexUtil.class,
+    TestUUIDObjectTable.class, TestParallelResourceLoader.class, TestResourceSnapshotCache.class, TestFindObjectCommandImpl.class,
+    TestMetadataSearchImpl.class, TestModelDependencyGraph.class, TestModelDependencyTracker.class, TestMappedBlocksIndexInput.class,
+    TestEmfModelObjectExtensionAssistant.class,} )
 public class AllTests {
     // nothing to do
 }
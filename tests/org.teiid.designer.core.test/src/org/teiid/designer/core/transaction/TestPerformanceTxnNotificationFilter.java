@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.transaction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.teiid.core.designer.util.Stopwatch;
+
+/**
+ * Times the aggregation by a {@link TxnNotificationFilter} of transactions of 100,000 notifications on a model of 2,500 tables
+ * of 20 columns each, and checks the notifications it aggregates them into.
+ * <p>
+ * Not part of {@link org.teiid.designer.core.test.AllTests}, so it is run on its own.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class TestPerformanceTxnNotificationFilter extends TestCase {
+
+    private static final int NUM_TABLES = 2500;
+    private static final int NUM_COLUMNS = 20;
+
+    private ResourceSet resourceSet;
+    private EPackage schema;
+    private TxnNotificationFilter filter;
+    private int notificationCount;
+
+    /**
+     * Constructor for TestPerformanceTxnNotificationFilter.
+     *
+     * @param name
+     */
+    public TestPerformanceTxnNotificationFilter( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        resourceSet = new ResourceSetImpl();
+        final Resource resource = new ResourceImpl(URI.createURI("TestPerformanceTxnNotificationFilter.ecore")); //$NON-NLS-1$
+        resourceSet.getResources().add(resource);
+
+        // Model the tables and columns as EClasses and EAttributes
+        schema = EcoreFactory.eINSTANCE.createEPackage();
+        schema.setName("schema"); //$NON-NLS-1$
+        for (int i = 0; i < NUM_TABLES; i++) {
+            final EClass table = EcoreFactory.eINSTANCE.createEClass();
+            table.setName("table" + i); //$NON-NLS-1$
+            for (int j = 0; j < NUM_COLUMNS; j++) {
+                final EAttribute column = EcoreFactory.eINSTANCE.createEAttribute();
+                column.setName("column" + j); //$NON-NLS-1$
+                table.getEStructuralFeatures().add(column);
+            }
+            schema.getEClassifiers().add(table);
+        }
+        resource.getContents().add(schema);
+
+        // Feed the filter every notification of the resource, as a unit of work does
+        filter = new TxnNotificationFilter(resourceSet);
+        notificationCount = 0;
+        resource.eAdapters().add(new EContentAdapter() {
+            @Override
+            public void notifyChanged( final Notification notification ) {
+                super.notifyChanged(notification);
+                ++notificationCount;
+                filter.addNotification(notification);
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        filter.clear();
+        filter = null;
+        schema = null;
+        resourceSet = null;
+    }
+
+    private List getTables() {
+        return new ArrayList(schema.getEClassifiers());
+    }
+
+    private void print( final String description,
+                        final Stopwatch sw,
+                        final List notifications ) {
+        System.out.println("  " + notificationCount + " notifications " + description + " aggregated into " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                           + notifications.size() + " in " + sw.getTotalDuration() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Each column gets its own notification, holding both changes to the column.
+     */
+    public void testChangeColumns() {
+        System.out.println("\nTestPerformanceTxnNotificationFilter.testChangeColumns()"); //$NON-NLS-1$
+        final Stopwatch sw = new Stopwatch();
+        sw.start();
+        for (final Iterator iter = getTables().iterator(); iter.hasNext();) {
+            for (final Iterator columns = ((EClass)iter.next()).getEAttributes().iterator(); columns.hasNext();) {
+                final EAttribute column = (EAttribute)columns.next();
+                column.setName(column.getName() + "_renamed"); //$NON-NLS-1$
+                column.setLowerBound(1);
+            }
+        }
+        final List notifications = filter.getSourcedNotifications(this);
+        sw.stop();
+        print("changing columns", sw, notifications); //$NON-NLS-1$
+
+        assertEquals(NUM_TABLES * NUM_COLUMNS * 2, notificationCount);
+        assertEquals(NUM_TABLES * NUM_COLUMNS, notifications.size());
+        for (final Iterator iter = notifications.iterator(); iter.hasNext();) {
+            final SourcedNotification notification = (SourcedNotification)iter.next();
+            assertTrue(notification.getNotifier() instanceof EAttribute);
+            assertEquals(2, notification.getNotifications().size());
+        }
+    }
+
+    /**
+     * Renaming a table after changing its columns replaces the notifications of its columns by that of the table.
+     */
+    public void testChangeColumnsThenTables() {
+        System.out.println("\nTestPerformanceTxnNotificationFilter.testChangeColumnsThenTables()"); //$NON-NLS-1$
+        final Stopwatch sw = new Stopwatch();
+        sw.start();
+        for (final Iterator iter = getTables().iterator(); iter.hasNext();) {
+            final EClass table = (EClass)iter.next();
+            for (final Iterator columns = table.getEAttributes().iterator(); columns.hasNext();) {
+                final EAttribute column = (EAttribute)columns.next();
+                column.setName(column.getName() + "_renamed"); //$NON-NLS-1$
+                column.setLowerBound(1);
+            }
+            table.setName(table.getName() + "_renamed"); //$NON-NLS-1$
+        }
+        final List notifications = filter.getSourcedNotifications(this);
+        sw.stop();
+        print("changing columns, then their tables,", sw, notifications); //$NON-NLS-1$
+
+        assertEquals(NUM_TABLES * (NUM_COLUMNS * 2 + 1), notificationCount);
+        assertEquals(NUM_TABLES, notifications.size());
+        final Iterator tables = schema.getEClassifiers().iterator();
+        for (final Iterator iter = notifications.iterator(); iter.hasNext();) {
+            final SourcedNotification notification = (SourcedNotification)iter.next();
+            assertSame(tables.next(), notification.getNotifier());
+            assertEquals(1, notification.getNotifications().size());
+        }
+    }
+
+    /**
+     * Moving each column to a new table keeps the removals from the old tables, and drops the additions to the new tables, which
+     * are below the addition of the new tables to the schema.
+     */
+    public void testMoveColumnsToNewTables() {
+        System.out.println("\nTestPerformanceTxnNotificationFilter.testMoveColumnsToNewTables()"); //$NON-NLS-1$
+        final List tables = getTables();
+        final Stopwatch sw = new Stopwatch();
+        sw.start();
+        for (final Iterator iter = tables.iterator(); iter.hasNext();) {
+            final EClass table = (EClass)iter.next();
+            final EClass newTable = EcoreFactory.eINSTANCE.createEClass();
+            schema.getEClassifiers().add(newTable);
+            newTable.setName(table.getName() + "_new"); //$NON-NLS-1$
+            for (final Iterator columns = new ArrayList(table.getEAttributes()).iterator(); columns.hasNext();) {
+                final EAttribute column = (EAttribute)columns.next();
+                newTable.getEStructuralFeatures().add(column);
+                column.setName(column.getName() + "_moved"); //$NON-NLS-1$
+            }
+        }
+        final List notifications = filter.getSourcedNotifications(this);
+        sw.stop();
+        print("moving columns", sw, notifications); //$NON-NLS-1$
+
+        // moving a column also notifies the removal of the content adapter from it
+        assertTrue(notificationCount >= NUM_TABLES * (NUM_COLUMNS * 3 + 2));
+        assertEquals(NUM_TABLES + 1, notifications.size());
+        final SourcedNotification schemaNotification = (SourcedNotification)notifications.get(0);
+        assertSame(schema, schemaNotification.getNotifier());
+        assertEquals(NUM_TABLES, schemaNotification.getNotifications().size());
+        for (int i = 1; i < notifications.size(); i++) {
+            final SourcedNotification notification = (SourcedNotification)notifications.get(i);
+            assertSame(tables.get(i - 1), notification.getNotifier());
+            assertEquals(NUM_COLUMNS, notification.getNotifications().size());
+            assertEquals(Notification.REMOVE, notification.getEventType());
+        }
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.transaction;
+
+import java.util.List;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * @since 8.1
+ */
+public class TestTxnNotificationFilter extends TestCase {
+
+    private static final int NUM_TABLES = 3;
+    private static final int NUM_COLUMNS = 2;
+
+    private ResourceSet resourceSet;
+    private EPackage schema;
+    private EClass[] tables;
+    private EAttribute[][] columns;
+    private TxnNotificationFilter filter;
+
+    /**
+     * Constructor for TestTxnNotificationFilter.
+     *
+     * @param name
+     */
+    public TestTxnNotificationFilter( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        resourceSet = new ResourceSetImpl();
+        final Resource resource = new ResourceImpl(URI.createURI("TestTxnNotificationFilter.ecore")); //$NON-NLS-1$
+        resourceSet.getResources().add(resource);
+
+        // Model the tables and columns as EClasses and EAttributes
+        schema = EcoreFactory.eINSTANCE.createEPackage();
+        schema.setName("schema"); //$NON-NLS-1$
+        tables = new EClass[NUM_TABLES];
+        columns = new EAttribute[NUM_TABLES][NUM_COLUMNS];
+        for (int i = 0; i < NUM_TABLES; i++) {
+            tables[i] = createTable("table" + i); //$NON-NLS-1$
+            for (int j = 0; j < NUM_COLUMNS; j++) {
+                columns[i][j] = EcoreFactory.eINSTANCE.createEAttribute();
+                columns[i][j].setName("column" + j); //$NON-NLS-1$
+                tables[i].getEStructuralFeatures().add(columns[i][j]);
+            }
+            schema.getEClassifiers().add(tables[i]);
+        }
+        resource.getContents().add(schema);
+
+        // Feed the filter every notification of the resource, as a unit of work does
+        filter = new TxnNotificationFilter(resourceSet);
+        resource.eAdapters().add(new EContentAdapter() {
+            @Override
+            public void notifyChanged( final Notification notification ) {
+                super.notifyChanged(notification);
+                filter.addNotification(notification);
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        filter.clear();
+        filter = null;
+        schema = null;
+        tables = null;
+        columns = null;
+        resourceSet = null;
+    }
+
+    private static EClass createTable( final String name ) {
+        final EClass table = EcoreFactory.eINSTANCE.createEClass();
+        table.setName(name);
+        return table;
+    }
+
+    private static EAttribute createColumn( final String name ) {
+        final EAttribute column = EcoreFactory.eINSTANCE.createEAttribute();
+        column.setName(name);
+        return column;
+    }
+
+    private List getSourcedNotifications() {
+        return filter.getSourcedNotifications(this);
+    }
+
+    /**
+     * Check the notifier, event type and number of notifications of a SourcedNotification.
+     */
+    private static void assertSourcedNotification( final Object notifier,
+                                                   final int eventType,
+                                                   final int count,
+                                                   final Object actual ) {
+        final SourcedNotification notification = (SourcedNotification)actual;
+        assertSame(notifier, notification.getNotifier());
+        assertEquals(eventType, notification.getEventType());
+        assertEquals(count, notification.getNotifications().size());
+    }
+
+    public void testShouldAggregateNotificationsByNotifier() {
+        columns[1][0].setName("renamed"); //$NON-NLS-1$
+        columns[0][0].setName("renamed"); //$NON-NLS-1$
+        columns[1][0].setLowerBound(1);
+
+        final List notifications = getSourcedNotifications();
+        assertEquals(2, notifications.size());
+        assertSourcedNotification(columns[1][0], Notification.SET, 2, notifications.get(0));
+        assertSourcedNotification(columns[0][0], Notification.SET, 1, notifications.get(1));
+    }
+
+    public void testShouldIgnoreSetsToSameValue() {
+        columns[0][0].setName(columns[0][0].getName());
+
+        assertTrue(getSourcedNotifications().isEmpty());
+    }
+
+    public void testShouldCancelAddThenRemoveOfTable() {
+        final EClass newTable = createTable("newTable"); //$NON-NLS-1$
+        schema.getEClassifiers().add(newTable);
+        newTable.getEStructuralFeatures().add(createColumn("newColumn")); //$NON-NLS-1$
+        schema.getEClassifiers().remove(newTable);
+
+        assertTrue(getSourcedNotifications().isEmpty());
+    }
+
+    public void testShouldCancelAddThenRemoveOfColumn() {
+        tables[0].setName("renamed"); //$NON-NLS-1$
+        final EAttribute newColumn = createColumn("newColumn"); //$NON-NLS-1$
+        tables[1].getEStructuralFeatures().add(newColumn);
+        tables[1].getEStructuralFeatures().remove(newColumn);
+
+        // the emptied event set of the second table is dropped, and the rename of the first one kept
+        final List notifications = getSourcedNotifications();
+        assertEquals(1, notifications.size());
+        assertSourcedNotification(tables[0], Notification.SET, 1, notifications.get(0));
+    }
+
+    public void testShouldCancelRemoveThenAddToSameIndex() {
+        final EAttribute column = columns[0][1];
+        tables[0].getEStructuralFeatures().remove(column);
+        tables[0].getEStructuralFeatures().add(1, column);
+
+        assertTrue(getSourcedNotifications().isEmpty());
+    }
+
+    public void testShouldTurnRemoveThenAddToOtherIndexIntoMove() {
+        final EAttribute column = columns[0][1];
+        tables[0].getEStructuralFeatures().remove(column);
+        tables[0].getEStructuralFeatures().add(0, column);
+
+        final List notifications = getSourcedNotifications();
+        assertEquals(1, notifications.size());
+        assertSourcedNotification(tables[0], Notification.MOVE, 1, notifications.get(0));
+        final Notification move = (Notification)((SourcedNotification)notifications.get(0)).getNotifications().iterator().next();
+        assertSame(column, move.getNewValue());
+        assertEquals(1, ((Integer)move.getOldValue()).intValue());
+        assertEquals(0, move.getPosition());
+    }
+
+    public void testShouldKeepRemoveAndAddOfColumnMovedBetweenTables() {
+        final EAttribute column = columns[0][0];
+        tables[1].getEStructuralFeatures().add(column);
+
+        final List notifications = getSourcedNotifications();
+        assertEquals(2, notifications.size());
+        assertSourcedNotification(tables[0], Notification.REMOVE, 1, notifications.get(0));
+        assertSourcedNotification(tables[1], Notification.ADD, 1, notifications.get(1));
+        assertSame(column, ((SourcedNotification)notifications.get(1)).getNewValue());
+    }
+
+    public void testShouldKeepRemoveOfColumnMovedToNewTable() {
+        final EClass newTable = createTable("newTable"); //$NON-NLS-1$
+        schema.getEClassifiers().add(newTable);
+        final EAttribute column = columns[0][0];
+        newTable.getEStructuralFeatures().add(column);
+        column.setName("moved"); //$NON-NLS-1$
+
+        // the column is below the new table, whose addition covers the addition and rename of the column
+        final List notifications = getSourcedNotifications();
+        assertEquals(2, notifications.size());
+        assertSourcedNotification(schema, Notification.ADD, 1, notifications.get(0));
+        assertSame(newTable, ((SourcedNotification)notifications.get(0)).getNewValue());
+        assertSourcedNotification(tables[0], Notification.REMOVE, 1, notifications.get(1));
+        assertSame(column, ((SourcedNotification)notifications.get(1)).getOldValue());
+    }
+
+    public void testShouldDropChildEventsOfTableMovedToNewPackage() {
+        columns[0][0].setName("renamed"); //$NON-NLS-1$
+        columns[0][1].setLowerBound(1);
+
+        final EPackage newSchema = EcoreFactory.eINSTANCE.createEPackage();
+        newSchema.setName("newSchema"); //$NON-NLS-1$
+        schema.getESubpackages().add(newSchema);
+        newSchema.getEClassifiers().add(tables[0]);
+        columns[0][0].setName("renamedAgain"); //$NON-NLS-1$
+
+        // the sub-package is added by the schema, whose event set covers everything now below it
+        final List notifications = getSourcedNotifications();
+        assertEquals(1, notifications.size());
+        final SourcedNotification schemaNotification = (SourcedNotification)notifications.get(0);
+        assertSame(schema, schemaNotification.getNotifier());
+        assertEquals(2, schemaNotification.getNotifications().size());
+    }
+
+    public void testShouldReplaceChildEventsByThoseOfTheirTable() {
+        columns[0][0].setName("renamed"); //$NON-NLS-1$
+        columns[0][1].setName("renamed"); //$NON-NLS-1$
+        tables[0].getEStructuralFeatures().add(createColumn("newColumn")); //$NON-NLS-1$
+        columns[0][0].setLowerBound(1);
+
+        final List notifications = getSourcedNotifications();
+        assertEquals(1, notifications.size());
+        assertSourcedNotification(tables[0], Notification.ADD, 1, notifications.get(0));
+    }
+
+    public void testShouldKeepPendingEventsOfDeletedTable() {
+        columns[0][0].setName("renamed"); //$NON-NLS-1$
+        columns[0][1].setLowerBound(1);
+        schema.getEClassifiers().remove(tables[0]);
+
+        // a removal does not cover the events before it, since the table is no longer below the schema when it is notified
+        final List notifications = getSourcedNotifications();
+        assertEquals(3, notifications.size());
+        assertSourcedNotification(columns[0][0], Notification.SET, 1, notifications.get(0));
+        assertSourcedNotification(columns[0][1], Notification.SET, 1, notifications.get(1));
+        assertSourcedNotification(schema, Notification.REMOVE, 1, notifications.get(2));
+        assertSame(tables[0], ((SourcedNotification)notifications.get(2)).getOldValue());
+    }
+
+    public void testShouldCoverPendingEventsOfDeletedTableByThoseOfItsContainer() {
+        columns[0][0].setName("renamed"); //$NON-NLS-1$
+        schema.setName("renamed"); //$NON-NLS-1$
+        schema.getEClassifiers().remove(tables[0]);
+
+        final List notifications = getSourcedNotifications();
+        assertEquals(1, notifications.size());
+        final SourcedNotification schemaNotification = (SourcedNotification)notifications.get(0);
+        assertSame(schema, schemaNotification.getNotifier());
+        assertEquals(Notification.REMOVE, schemaNotification.getEventType());
+        assertEquals(2, schemaNotification.getNotifications().size());
+    }
+
+    public void testShouldIgnoreChildEventsOfDeletedTable() {
+        schema.getEClassifiers().remove(tables[0]);
+        columns[0][0].setName("renamed"); //$NON-NLS-1$
+        tables[0].getEStructuralFeatures().remove(columns[0][1]);
+
+        // the deleted table is no longer in the resource set
+        final List notifications = getSourcedNotifications();
+        assertEquals(1, notifications.size());
+        assertSourcedNotification(schema, Notification.REMOVE, 1, notifications.get(0));
+    }
+
+    public void testShouldOrderEventSetsByCreation() {
+        tables[2].setName("renamed"); //$NON-NLS-1$
+        columns[1][0].setName("renamed"); //$NON-NLS-1$
+        tables[0].setName("renamed"); //$NON-NLS-1$
+        columns[1][1].setName("renamed"); //$NON-NLS-1$
+        tables[2].setAbstract(true);
+
+        final List notifications = getSourcedNotifications();
+        assertEquals(4, notifications.size());
+        assertSourcedNotification(tables[2], Notification.SET, 2, notifications.get(0));
+        assertSourcedNotification(columns[1][0], Notification.SET, 1, notifications.get(1));
+        assertSourcedNotification(tables[0], Notification.SET, 1, notifications.get(2));
+        assertSourcedNotification(columns[1][1], Notification.SET, 1, notifications.get(3));
+    }
+
+    public void testShouldOrderReplacingEventSetAfterEarlierOnes() {
+        columns[1][0].setName("renamed"); //$NON-NLS-1$
+        tables[0].setName("renamed"); //$NON-NLS-1$
+        tables[2].setName("renamed"); //$NON-NLS-1$
+        tables[1].getEStructuralFeatures().add(createColumn("newColumn")); //$NON-NLS-1$
+
+        // the event set replacing that of the column is created last
+        final List notifications = getSourcedNotifications();
+        assertEquals(3, notifications.size());
+        assertSourcedNotification(tables[0], Notification.SET, 1, notifications.get(0));
+        assertSourcedNotification(tables[2], Notification.SET, 1, notifications.get(1));
+        assertSourcedNotification(tables[1], Notification.ADD, 1, notifications.get(2));
+    }
+
+    public void testShouldStartOverWhenCleared() {
+        tables[0].setName("renamed"); //$NON-NLS-1$
+        assertEquals(1, getSourcedNotifications().size());
+
+        filter.clear();
+        assertTrue(getSourcedNotifications().isEmpty());
+        columns[0][0].setName("renamed"); //$NON-NLS-1$
+        final List notifications = getSourcedNotifications();
+        assertEquals(1, notifications.size());
+        assertSourcedNotification(columns[0][0], Notification.SET, 1, notifications.get(0));
+    }
+}
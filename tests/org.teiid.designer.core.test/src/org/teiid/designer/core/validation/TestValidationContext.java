@@ -150,4 +150,38 @@ public final class TestValidationContext extends TestCase {
         }
     }
 
+    public void testRuleTimingsAreClearedWithState() {
+        final ValidationContext context = helpCreateValidationContext();
+        assertNull(context.getRuleTimings());
+
+        final ValidationRuleTimings timings = new ValidationRuleTimings();
+        context.setRuleTimings(timings);
+        assertSame(timings, context.getRuleTimings());
+
+        context.clearState();
+        assertNull(context.getRuleTimings());
+    }
+
+    public void testRuleTimingsAccumulatePerRule() {
+        final ValidationRule cheapRule = new ValidationRule() {
+        };
+        final ValidationRule expensiveRule = new ValidationRule() {
+        };
+        final ValidationRuleTimings timings = new ValidationRuleTimings();
+        timings.record(cheapRule, 10);
+        timings.record(expensiveRule, 100);
+        timings.record(cheapRule, 20);
+
+        assertEquals(2, timings.getTimings().size());
+        final ValidationRuleTimings.Timing expensive = timings.getTimings().get(0);
+        assertEquals(expensiveRule.getClass().getName(), expensive.getRuleName());
+        assertEquals(1, expensive.getCount());
+        final ValidationRuleTimings.Timing cheap = timings.getTimings().get(1);
+        assertEquals(cheapRule.getClass().getName(), cheap.getRuleName());
+        assertEquals(2, cheap.getCount());
+        assertEquals(30, cheap.getTotalNanos());
+
+        timings.clear();
+        assertTrue(timings.getTimings().isEmpty());
+    }
 }
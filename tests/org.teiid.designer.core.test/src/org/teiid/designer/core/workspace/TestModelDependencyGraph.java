@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import junit.framework.TestCase;
+import org.teiid.core.util.SmartTestDesignerSuite;
+
+/**
+ * @since 8.1
+ */
+public class TestModelDependencyGraph extends TestCase {
+
+    private static final String PHYSICAL = "/Project/Physical.xmi"; //$NON-NLS-1$
+    private static final String VIRTUAL = "/Project/Virtual.xmi"; //$NON-NLS-1$
+    private static final String WEB_SERVICE = "/Project/WebService.xmi"; //$NON-NLS-1$
+    private static final String SCHEMA = "/Project/Schema.xsd"; //$NON-NLS-1$
+
+    private ModelDependencyGraph graph;
+
+    /**
+     * Constructor for TestModelDependencyGraph.
+     *
+     * @param name
+     */
+    public TestModelDependencyGraph( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        graph = new ModelDependencyGraph();
+        graph.setImports(PHYSICAL, 1, Collections.<String>emptySet());
+        graph.setImports(VIRTUAL, 2, Collections.singleton(PHYSICAL));
+        graph.setImports(WEB_SERVICE, 3, Arrays.asList(new String[] {VIRTUAL, SCHEMA}));
+
+        // a view column maps to a physical column, and a web service operation to the view
+        Map references = new HashMap();
+        references.put("mmuuid:viewColumn", Collections.singleton("mmuuid:physicalColumn")); //$NON-NLS-1$ //$NON-NLS-2$
+        graph.setReferences(VIRTUAL, references);
+        references = new HashMap();
+        references.put("mmuuid:operation", Collections.singleton("mmuuid:viewColumn")); //$NON-NLS-1$ //$NON-NLS-2$
+        graph.setReferences(WEB_SERVICE, references);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        graph = null;
+    }
+
+    private static Set set( String... strings ) {
+        return new HashSet(Arrays.asList(strings));
+    }
+
+    public void testImports() {
+        assertEquals(set(PHYSICAL), graph.getImports(VIRTUAL));
+        assertEquals(set(VIRTUAL, SCHEMA), graph.getImports(WEB_SERVICE));
+        assertEquals(set(), graph.getImports(PHYSICAL));
+        assertEquals(set(WEB_SERVICE), graph.getImporters(SCHEMA));
+    }
+
+    public void testTransitiveImports() {
+        assertEquals(set(VIRTUAL, PHYSICAL, SCHEMA), graph.getTransitiveImports(WEB_SERVICE));
+        assertEquals(set(VIRTUAL, WEB_SERVICE), graph.getTransitiveImporters(PHYSICAL));
+        assertEquals(set(), graph.getTransitiveImporters(WEB_SERVICE));
+    }
+
+    public void testTransitiveImportsWithCycle() {
+        graph.setImports(PHYSICAL, 4, Collections.singleton(WEB_SERVICE));
+        assertEquals(set(VIRTUAL, PHYSICAL, SCHEMA, WEB_SERVICE), graph.getTransitiveImports(WEB_SERVICE));
+    }
+
+    public void testSetImportsReplacesImports() {
+        graph.setImports(WEB_SERVICE, 5, Collections.singleton(SCHEMA));
+        assertEquals(5, graph.getStamp(WEB_SERVICE));
+        assertEquals(set(SCHEMA), graph.getImports(WEB_SERVICE));
+        assertEquals(set(), graph.getImporters(VIRTUAL));
+    }
+
+    public void testRemoveKeepsImporters() {
+        graph.remove(VIRTUAL);
+        assertFalse(graph.contains(VIRTUAL));
+        assertEquals(ModelDependencyGraph.NO_STAMP, graph.getStamp(VIRTUAL));
+        assertEquals(set(), graph.getImporters(PHYSICAL));
+        // the web service still imports the removed model
+        assertEquals(set(WEB_SERVICE), graph.getImporters(VIRTUAL));
+        // but its operation no longer reaches the physical column through the view column
+        assertEquals(set(), graph.getReferencingObjects("mmuuid:physicalColumn")); //$NON-NLS-1$
+        assertEquals(set("mmuuid:viewColumn"), graph.getReferencedObjects("mmuuid:operation")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testReferences() {
+        assertEquals(set("mmuuid:operation"), graph.getReferencingObjects("mmuuid:viewColumn")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(set("mmuuid:viewColumn", "mmuuid:operation"), //$NON-NLS-1$ //$NON-NLS-2$
+                     graph.getTransitiveReferencingObjects("mmuuid:physicalColumn")); //$NON-NLS-1$
+        assertEquals(set("mmuuid:viewColumn", "mmuuid:physicalColumn"), //$NON-NLS-1$ //$NON-NLS-2$
+                     graph.getTransitiveReferencedObjects("mmuuid:operation")); //$NON-NLS-1$
+    }
+
+    public void testQueriesReturnCopies() {
+        Set imports = graph.getImports(VIRTUAL);
+        graph.setImports(VIRTUAL, 6, Collections.<String>emptySet());
+        assertEquals(set(PHYSICAL), imports);
+    }
+
+    public void testUnresolvedImports() {
+        graph.setImports(VIRTUAL, 7, Collections.singleton(PHYSICAL), set("Missing.xmi", "Other.xsd")); //$NON-NLS-1$ //$NON-NLS-2$
+        graph.setImports(WEB_SERVICE, 8, Collections.singleton(VIRTUAL), set("Missing.xmi")); //$NON-NLS-1$
+        assertEquals(set("Missing.xmi", "Other.xsd"), graph.getUnresolvedImports(VIRTUAL)); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(set(VIRTUAL, WEB_SERVICE), graph.getModelsWithUnresolvedImports(set("Missing.xmi"))); //$NON-NLS-1$
+        assertEquals(set(VIRTUAL), graph.getModelsWithUnresolvedImports(set("Other.xsd", "Unknown.xsd"))); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // once read again the imports are found
+        graph.setImports(VIRTUAL, 9, set(PHYSICAL, "/Project/Missing.xmi")); //$NON-NLS-1$
+        assertEquals(set(), graph.getUnresolvedImports(VIRTUAL));
+        assertEquals(set(WEB_SERVICE), graph.getModelsWithUnresolvedImports(set("Missing.xmi", "Other.xsd"))); //$NON-NLS-1$ //$NON-NLS-2$
+
+        graph.remove(WEB_SERVICE);
+        assertEquals(set(), graph.getModelsWithUnresolvedImports(set("Missing.xmi"))); //$NON-NLS-1$
+    }
+
+    public void testSaveAndLoad() throws Exception {
+        // the references of a model may be known before its imports
+        Map references = new HashMap();
+        references.put("mmuuid:element", Collections.singleton("mmuuid:type")); //$NON-NLS-1$ //$NON-NLS-2$
+        graph.setReferences(SCHEMA, references);
+        graph.setImports(PHYSICAL, 1, Collections.<String>emptySet(), Collections.singleton("Missing.xmi")); //$NON-NLS-1$
+
+        File file = new File(SmartTestDesignerSuite.getTestScratchPath(), "model.dependencies"); //$NON-NLS-1$
+        file.getParentFile().mkdirs();
+        try {
+            graph.save(file);
+            ModelDependencyGraph loaded = ModelDependencyGraph.load(file);
+
+            assertEquals(graph.getModelPaths(), loaded.getModelPaths());
+            assertEquals(3, loaded.getStamp(WEB_SERVICE));
+            assertFalse(loaded.contains(SCHEMA));
+            assertEquals(set(VIRTUAL, PHYSICAL, SCHEMA), loaded.getTransitiveImports(WEB_SERVICE));
+            assertEquals(set("mmuuid:viewColumn", "mmuuid:operation"), //$NON-NLS-1$ //$NON-NLS-2$
+                         loaded.getTransitiveReferencingObjects("mmuuid:physicalColumn")); //$NON-NLS-1$
+            assertEquals(set("mmuuid:element"), loaded.getReferencingObjects("mmuuid:type")); //$NON-NLS-1$ //$NON-NLS-2$
+            assertEquals(set(PHYSICAL), loaded.getModelsWithUnresolvedImports(set("Missing.xmi"))); //$NON-NLS-1$
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.core.workspace;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import junit.framework.TestCase;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.Path;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.teiid.core.util.SmartTestDesignerSuite;
+
+/**
+ * @since 8.1
+ */
+public class TestModelDependencyTracker extends TestCase {
+
+    private static final String TYPES = "/Project/Types.xsd"; //$NON-NLS-1$
+    private static final String PURCHASE_ORDER = "/Project/PurchaseOrder.xsd"; //$NON-NLS-1$
+    private static final String INVOICE = "/Project/Invoice.xsd"; //$NON-NLS-1$
+    private static final String ADDRESS = "/Project/Address.xsd"; //$NON-NLS-1$
+    private static final String CUSTOMER = "/Other/Customer.xsd"; //$NON-NLS-1$
+
+    // the files of the workspace, and of the project opened and closed, by workspace path
+    private Map<String, IResource> workspace;
+    private Map<String, IResource> otherProject;
+    // workspace path -> locations of the imports the file declares
+    private Map<String, List<String>> declaredImports;
+    private Map<String, Long> stamps;
+    // workspace path -> number of times the imports of the file were read
+    private Map<String, Integer> reads;
+
+    /**
+     * Constructor for TestModelDependencyTracker.
+     *
+     * @param name
+     */
+    public TestModelDependencyTracker( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        workspace = new HashMap<String, IResource>();
+        otherProject = new HashMap<String, IResource>();
+        declaredImports = new HashMap<String, List<String>>();
+        stamps = new HashMap<String, Long>();
+        reads = new HashMap<String, Integer>();
+
+        // the purchase order imports the types and an address schema that is not in the workspace yet
+        addFile(TYPES);
+        addFile(PURCHASE_ORDER, TYPES, "Address.xsd"); //$NON-NLS-1$
+        addFile(INVOICE, "Missing.xsd"); //$NON-NLS-1$
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        workspace = null;
+        otherProject = null;
+        declaredImports = null;
+        stamps = null;
+        reads = null;
+    }
+
+    private static Set set( String... strings ) {
+        return new HashSet(Arrays.asList(strings));
+    }
+
+    private IResource addFile( final String path,
+                               final String... locations ) {
+        final IResource file = createFile(path);
+        workspace.put(path, file);
+        declaredImports.put(path, Arrays.asList(locations));
+        stamps.put(path, new Long(1));
+        return file;
+    }
+
+    private IResource createFile( final String path ) {
+        final IResource file = mock(IFile.class);
+        final Path fullPath = new Path(path);
+        when(file.getType()).thenReturn(IResource.FILE);
+        when(file.getName()).thenReturn(fullPath.lastSegment());
+        when(file.getFileExtension()).thenReturn(fullPath.getFileExtension());
+        when(file.getFullPath()).thenReturn(fullPath);
+        when(file.getLocalTimeStamp()).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer( final InvocationOnMock invocation ) {
+                return stamps.get(path);
+            }
+        });
+        return file;
+    }
+
+    private void touch( final String path ) {
+        stamps.put(path, new Long(stamps.get(path).longValue() + 1));
+    }
+
+    private int getReads( final String path ) {
+        final Integer count = reads.get(path);
+        return count == null ? 0 : count.intValue();
+    }
+
+    private ModelDependencyTracker createTracker( final ModelDependencyGraph graph ) {
+        return new ModelDependencyTracker(graph) {
+            @Override
+            protected Collection getTrackedFiles() {
+                return new ArrayList(workspace.values());
+            }
+
+            @Override
+            protected IResource findTrackedFile( final String path ) {
+                return workspace.get(path);
+            }
+
+            @Override
+            protected Collection<String> readImports( final IResource file,
+                                                      final List<String> unresolvedLocations ) {
+                final String path = file.getFullPath().toString();
+                reads.put(path, new Integer(getReads(path) + 1));
+                final List<String> importedPaths = new ArrayList<String>();
+                for (final String location : declaredImports.get(path)) {
+                    final String importedPath = location.charAt(0) == '/' ? location : "/Project/" + location; //$NON-NLS-1$
+                    if (workspace.containsKey(importedPath)) {
+                        importedPaths.add(importedPath);
+                    } else {
+                        unresolvedLocations.add(location);
+                    }
+                }
+                return importedPaths;
+            }
+        };
+    }
+
+    private static IResourceDelta createDelta( final IResource resource,
+                                               final int kind,
+                                               final int flags,
+                                               final IResourceDelta... children ) throws Exception {
+        final IResourceDelta delta = mock(IResourceDelta.class);
+        when(delta.getResource()).thenReturn(resource);
+        when(delta.getKind()).thenReturn(kind);
+        when(delta.getFlags()).thenReturn(flags);
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer( final InvocationOnMock invocation ) throws Throwable {
+                final IResourceDeltaVisitor visitor = (IResourceDeltaVisitor)invocation.getArguments()[0];
+                if (visitor.visit(delta)) {
+                    for (int i = 0; i < children.length; i++) {
+                        children[i].accept(visitor);
+                    }
+                }
+                return null;
+            }
+        }).when(delta).accept(any(IResourceDeltaVisitor.class));
+        return delta;
+    }
+
+    private static IResourceChangeEvent createEvent( final IResourceDelta... children ) throws Exception {
+        return createEvent(IResourceChangeEvent.POST_CHANGE, children);
+    }
+
+    private static IResourceChangeEvent createEvent( final int type,
+                                                     final IResourceDelta... children ) throws Exception {
+        final IResource root = mock(IResource.class);
+        when(root.getType()).thenReturn(IResource.ROOT);
+        final IResourceDelta delta = createDelta(root, IResourceDelta.CHANGED, 0, children);
+        final IResourceChangeEvent event = mock(IResourceChangeEvent.class);
+        when(event.getType()).thenReturn(type);
+        when(event.getDelta()).thenReturn(delta);
+        return event;
+    }
+
+    public void testShouldRecordImportsThatCouldNotBeFound() {
+        final ModelDependencyGraph graph = createTracker(new ModelDependencyGraph()).getReconciledGraph();
+
+        assertEquals(set(TYPES), graph.getImports(PURCHASE_ORDER));
+        assertEquals(set("Address.xsd"), graph.getUnresolvedImports(PURCHASE_ORDER)); //$NON-NLS-1$
+        assertEquals(set("Missing.xsd"), graph.getUnresolvedImports(INVOICE)); //$NON-NLS-1$
+        assertEquals(set(), graph.getUnresolvedImports(TYPES));
+    }
+
+    public void testShouldReadOnlyImportersOfAddedFile() throws Exception {
+        final ModelDependencyTracker tracker = createTracker(new ModelDependencyGraph());
+        tracker.getReconciledGraph();
+        reads.clear();
+
+        final IResource address = addFile(ADDRESS);
+        tracker.resourceChanged(createEvent(createDelta(address, IResourceDelta.ADDED, 0)));
+
+        assertEquals(1, getReads(ADDRESS));
+        assertEquals(1, getReads(PURCHASE_ORDER));
+        assertEquals(0, getReads(INVOICE));
+        assertEquals(0, getReads(TYPES));
+        final ModelDependencyGraph graph = tracker.getReconciledGraph();
+        assertEquals(set(TYPES, ADDRESS), graph.getImports(PURCHASE_ORDER));
+        assertEquals(set(), graph.getUnresolvedImports(PURCHASE_ORDER));
+        // the graph is still reconciled, so nothing more is read
+        assertEquals(1, getReads(PURCHASE_ORDER));
+        assertEquals(0, getReads(INVOICE));
+    }
+
+    public void testShouldReadImportersOfAddedFileOnce() throws Exception {
+        final ModelDependencyTracker tracker = createTracker(new ModelDependencyGraph());
+        tracker.getReconciledGraph();
+        reads.clear();
+
+        // the importer changes in the same delta the imported file is added in
+        final IResource address = addFile(ADDRESS);
+        touch(PURCHASE_ORDER);
+        tracker.resourceChanged(createEvent(createDelta(workspace.get(PURCHASE_ORDER), IResourceDelta.CHANGED, IResourceDelta.CONTENT),
+                                            createDelta(address, IResourceDelta.ADDED, 0)));
+
+        assertEquals(1, getReads(PURCHASE_ORDER));
+        assertEquals(set(TYPES, ADDRESS), tracker.getGraph().getImports(PURCHASE_ORDER));
+    }
+
+    public void testShouldReadChangedFileOnlyWhenItsContentChanges() throws Exception {
+        final ModelDependencyTracker tracker = createTracker(new ModelDependencyGraph());
+        tracker.getReconciledGraph();
+        reads.clear();
+
+        tracker.resourceChanged(createEvent(createDelta(workspace.get(TYPES), IResourceDelta.CHANGED, IResourceDelta.MARKERS)));
+        assertEquals(0, getReads(TYPES));
+
+        declaredImports.put(TYPES, Collections.singletonList(INVOICE));
+        touch(TYPES);
+        tracker.resourceChanged(createEvent(createDelta(workspace.get(TYPES), IResourceDelta.CHANGED, IResourceDelta.CONTENT)));
+        assertEquals(1, getReads(TYPES));
+        assertEquals(set(INVOICE), tracker.getGraph().getImports(TYPES));
+        assertEquals(0, getReads(PURCHASE_ORDER));
+    }
+
+    public void testShouldReadImportsAddedBeforeChangeIsBroadcast() throws Exception {
+        final ModelDependencyTracker tracker = createTracker(new ModelDependencyGraph());
+        tracker.getReconciledGraph();
+        reads.clear();
+
+        // the invoice now imports the types, and a build runs before the change is broadcast
+        declaredImports.put(INVOICE, Arrays.asList(TYPES, "Missing.xsd")); //$NON-NLS-1$
+        touch(INVOICE);
+        final IResourceDelta delta = createDelta(workspace.get(INVOICE), IResourceDelta.CHANGED, IResourceDelta.CONTENT);
+        tracker.resourceChanged(createEvent(IResourceChangeEvent.PRE_BUILD, delta));
+
+        assertEquals(1, getReads(INVOICE));
+        assertEquals(set(PURCHASE_ORDER, INVOICE), tracker.getReconciledGraph().getImporters(TYPES));
+
+        // the same change, broadcast after the build, is not read again
+        tracker.resourceChanged(createEvent(IResourceChangeEvent.POST_CHANGE, delta));
+        assertEquals(1, getReads(INVOICE));
+        assertEquals(set(PURCHASE_ORDER, INVOICE), tracker.getGraph().getImporters(TYPES));
+    }
+
+    public void testShouldReadAddedFileOnceForBothDeltas() throws Exception {
+        final ModelDependencyTracker tracker = createTracker(new ModelDependencyGraph());
+        tracker.getReconciledGraph();
+        reads.clear();
+
+        final IResource address = addFile(ADDRESS);
+        final IResourceDelta delta = createDelta(address, IResourceDelta.ADDED, 0);
+        tracker.resourceChanged(createEvent(IResourceChangeEvent.PRE_BUILD, delta));
+        assertEquals(set(PURCHASE_ORDER), tracker.getGraph().getImporters(ADDRESS));
+
+        tracker.resourceChanged(createEvent(IResourceChangeEvent.POST_CHANGE, delta));
+        assertEquals(1, getReads(ADDRESS));
+        assertEquals(1, getReads(PURCHASE_ORDER));
+    }
+
+    public void testShouldRemoveRemovedFile() throws Exception {
+        final ModelDependencyTracker tracker = createTracker(new ModelDependencyGraph());
+        tracker.getReconciledGraph();
+        reads.clear();
+
+        final IResource types = workspace.remove(TYPES);
+        tracker.resourceChanged(createEvent(createDelta(types, IResourceDelta.REMOVED, 0)));
+
+        final ModelDependencyGraph graph = tracker.getReconciledGraph();
+        assertFalse(graph.contains(TYPES));
+        // the purchase order still depends on the types
+        assertEquals(set(PURCHASE_ORDER), graph.getImporters(TYPES));
+        assertTrue(reads.isEmpty());
+    }
+
+    public void testShouldReconcileLoadedGraph() throws Exception {
+        final File file = new File(SmartTestDesignerSuite.getTestScratchPath(), "tracked.dependencies"); //$NON-NLS-1$
+        file.getParentFile().mkdirs();
+        try {
+            createTracker(new ModelDependencyGraph()).getReconciledGraph().save(file);
+            reads.clear();
+
+            // while the workspace was closed the types changed, the address was added and the invoice was removed
+            touch(TYPES);
+            addFile(ADDRESS);
+            workspace.remove(INVOICE);
+
+            final ModelDependencyTracker tracker = createTracker(ModelDependencyGraph.load(file));
+            assertTrue(reads.isEmpty());
+            final ModelDependencyGraph graph = tracker.getReconciledGraph();
+
+            assertEquals(1, getReads(TYPES));
+            assertEquals(1, getReads(ADDRESS));
+            assertEquals(1, getReads(PURCHASE_ORDER));
+            assertEquals(0, getReads(INVOICE));
+            assertEquals(set(TYPES, ADDRESS), graph.getImports(PURCHASE_ORDER));
+            assertFalse(graph.contains(INVOICE));
+            assertEquals(set(TYPES, PURCHASE_ORDER, ADDRESS), graph.getModelPaths());
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testShouldReconcileWhenProjectIsOpenedOrClosed() throws Exception {
+        final ModelDependencyTracker tracker = createTracker(new ModelDependencyGraph());
+        tracker.getReconciledGraph();
+        reads.clear();
+
+        // the files of an opened project are not in the delta, only the project
+        final IProject project = mock(IProject.class);
+        when(project.getType()).thenReturn(IResource.PROJECT);
+        otherProject.put(CUSTOMER, addFile(CUSTOMER, ADDRESS));
+        tracker.resourceChanged(createEvent(createDelta(project, IResourceDelta.CHANGED, IResourceDelta.OPEN)));
+        assertTrue(reads.isEmpty());
+
+        ModelDependencyGraph graph = tracker.getReconciledGraph();
+        assertEquals(1, getReads(CUSTOMER));
+        assertEquals(0, getReads(PURCHASE_ORDER));
+        assertEquals(set("Address.xsd"), graph.getUnresolvedImports(CUSTOMER)); //$NON-NLS-1$
+
+        // once closed, the files of the project are no longer in the graph
+        workspace.keySet().removeAll(otherProject.keySet());
+        tracker.resourceChanged(createEvent(createDelta(project, IResourceDelta.CHANGED, IResourceDelta.OPEN)));
+        graph = tracker.getReconciledGraph();
+        assertFalse(graph.contains(CUSTOMER));
+        assertEquals(1, getReads(CUSTOMER));
+    }
+}
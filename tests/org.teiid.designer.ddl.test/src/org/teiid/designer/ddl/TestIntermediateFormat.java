@@ -0,0 +1,293 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.ddl;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.xml.transform.stream.StreamResult;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.jdom.Document;
+import org.jdom.IllegalDataException;
+import org.jdom.output.XMLOutputter;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.teiid.core.designer.id.ObjectID;
+import org.teiid.core.designer.id.UUID;
+import org.teiid.core.util.SmartTestDesignerSuite;
+import org.teiid.designer.common.xml.JdomHelper;
+import org.teiid.designer.core.ModelEditor;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.metamodel.MetamodelRegistry;
+import org.teiid.designer.core.spi.RegistrySPI;
+import org.teiid.designer.core.util.ModelContents;
+import org.teiid.designer.core.xslt.Style;
+import org.teiid.designer.core.xslt.StyleFromResource;
+import org.teiid.designer.core.xslt.XsltTransform;
+import org.teiid.designer.metamodels.core.Annotation;
+import org.teiid.designer.metamodels.core.CoreFactory;
+import org.teiid.designer.metamodels.core.ModelAnnotation;
+import org.teiid.designer.metamodels.core.ModelType;
+import org.teiid.designer.metamodels.relational.BaseTable;
+import org.teiid.designer.metamodels.relational.Column;
+import org.teiid.designer.metamodels.relational.ForeignKey;
+import org.teiid.designer.metamodels.relational.Index;
+import org.teiid.designer.metamodels.relational.NullableType;
+import org.teiid.designer.metamodels.relational.PrimaryKey;
+import org.teiid.designer.metamodels.relational.RelationalEntity;
+import org.teiid.designer.metamodels.relational.RelationalFactory;
+import org.teiid.designer.metamodels.relational.RelationalPackage;
+import org.teiid.designer.metamodels.relational.Schema;
+import org.teiid.designer.metamodels.relational.UniqueKey;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * @since 8.1
+ */
+public class TestIntermediateFormat extends TestCase {
+
+    /**
+     * The intermediate form of the relational model of {@link #createModel()}, as written by the JDOM implementation that built
+     * the document element by element, without the export date and time.
+     */
+    private static final String EXPECTED_DOCUMENT = "RelationalModel.xml"; //$NON-NLS-1$
+
+    private static final String STYLE = "xslt/DDL_oracle8_1_6.xsl"; //$NON-NLS-1$
+
+    private final Map<EObject, ObjectID> ids = new IdentityHashMap<EObject, ObjectID>();
+    private Object previousModelEditor;
+    private Object previousMetamodelRegistry;
+    private Resource resource;
+    private ModelContents contents;
+    private DdlOptionsImpl options;
+
+    /**
+     * Constructor for TestIntermediateFormat.
+     *
+     * @param name
+     */
+    public TestIntermediateFormat( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        final ModelEditor modelEditor = mock(ModelEditor.class);
+        when(modelEditor.getObjectID(any(EObject.class))).thenAnswer(new Answer<ObjectID>() {
+            @Override
+            public ObjectID answer( final InvocationOnMock invocation ) {
+                final EObject object = (EObject)invocation.getArguments()[0];
+                ObjectID id = ids.get(object);
+                if (id == null) {
+                    id = new UUID(0, ids.size() + 1);
+                    ids.put(object, id);
+                }
+                return id;
+            }
+        });
+        when(modelEditor.getModelRelativePath(any(EObject.class))).thenAnswer(new Answer<IPath>() {
+            @Override
+            public IPath answer( final InvocationOnMock invocation ) {
+                IPath path = Path.EMPTY;
+                for (EObject parent = ((EObject)invocation.getArguments()[0]).eContainer(); parent != null; parent = parent.eContainer()) {
+                    path = new Path(((RelationalEntity)parent).getName()).append(path);
+                }
+                return path;
+            }
+        });
+        previousModelEditor = ModelerCore.getRegistry().lookup(ModelerCore.MODEL_EDITOR_KEY);
+        previousMetamodelRegistry = ModelerCore.getRegistry().lookup(ModelerCore.METAMODEL_REGISTRY_KEY);
+        ((RegistrySPI)ModelerCore.getRegistry()).register(ModelerCore.MODEL_EDITOR_KEY, modelEditor);
+        ((RegistrySPI)ModelerCore.getRegistry()).register(ModelerCore.METAMODEL_REGISTRY_KEY, mock(MetamodelRegistry.class));
+
+        contents = mock(ModelContents.class);
+        resource = createModel();
+
+        options = new DdlOptionsImpl();
+        options.setGenerateSchema(true);
+        options.setGenerateInfoComments(false);
+        options.setNativeTypeUsed(true);
+        options.setUniqueNamesEnforced(false);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        restore(ModelerCore.MODEL_EDITOR_KEY, previousModelEditor);
+        restore(ModelerCore.METAMODEL_REGISTRY_KEY, previousMetamodelRegistry);
+        previousModelEditor = null;
+        previousMetamodelRegistry = null;
+        resource = null;
+        contents = null;
+        options = null;
+        ids.clear();
+    }
+
+    private static void restore( final String key,
+                                 final Object previous ) {
+        if (previous == null) {
+            ((RegistrySPI)ModelerCore.getRegistry()).unregister(key);
+        } else {
+            ((RegistrySPI)ModelerCore.getRegistry()).register(key, previous);
+        }
+    }
+
+    /**
+     * Create a physical relational model with a schema of two tables, related by a foreign key, and an index.
+     */
+    private Resource createModel() {
+        final RelationalFactory factory = RelationalFactory.eINSTANCE;
+        final Resource model = new ResourceImpl(URI.createFileURI("/Project/Sales.xmi")); //$NON-NLS-1$
+
+        final ModelAnnotation modelAnnotation = CoreFactory.eINSTANCE.createModelAnnotation();
+        modelAnnotation.setModelType(ModelType.PHYSICAL_LITERAL);
+        modelAnnotation.setPrimaryMetamodelUri(RelationalPackage.eNS_URI);
+        model.getContents().add(modelAnnotation);
+        when(contents.getModelAnnotation()).thenReturn(modelAnnotation);
+
+        final Schema schema = factory.createSchema();
+        schema.setName("Sales"); //$NON-NLS-1$
+        model.getContents().add(schema);
+
+        final BaseTable customer = factory.createBaseTable();
+        customer.setName("Customer"); //$NON-NLS-1$
+        customer.setNameInSource("CUSTOMER"); //$NON-NLS-1$
+        schema.getTables().add(customer);
+        describe(customer, "The customers & their \"names\""); //$NON-NLS-1$
+        final Column customerId = createColumn(customer, "ID", "NUMBER", 10, 0); //$NON-NLS-1$ //$NON-NLS-2$
+        customerId.setNullable(NullableType.NO_NULLS_LITERAL);
+        final Column customerName = createColumn(customer, "Name", "VARCHAR2", 0, 50); //$NON-NLS-1$ //$NON-NLS-2$
+        customerName.setDefaultValue("unknown"); //$NON-NLS-1$
+        describe(customerName, "Full name <first last>"); //$NON-NLS-1$
+        final PrimaryKey customerKey = factory.createPrimaryKey();
+        customerKey.setName("PK_Customer"); //$NON-NLS-1$
+        customer.setPrimaryKey(customerKey);
+        customerKey.getColumns().add(customerId);
+        final UniqueKey customerNameKey = factory.createUniqueConstraint();
+        customerNameKey.setName("UK_CustomerName"); //$NON-NLS-1$
+        customer.getUniqueConstraints().add(customerNameKey);
+        customerNameKey.getColumns().add(customerName);
+
+        final BaseTable order = factory.createBaseTable();
+        order.setName("Orders"); //$NON-NLS-1$
+        schema.getTables().add(order);
+        final Column orderId = createColumn(order, "ID", "NUMBER", 10, 0); //$NON-NLS-1$ //$NON-NLS-2$
+        final Column orderCustomer = createColumn(order, "CustomerID", "NUMBER", 10, 0); //$NON-NLS-1$ //$NON-NLS-2$
+        final Column amount = createColumn(order, "Amount", "DECIMAL", 12, 0); //$NON-NLS-1$ //$NON-NLS-2$
+        amount.setScale(2);
+        amount.setCurrency(true);
+        final PrimaryKey orderKey = factory.createPrimaryKey();
+        orderKey.setName("PK_Orders"); //$NON-NLS-1$
+        order.setPrimaryKey(orderKey);
+        orderKey.getColumns().add(orderId);
+        final ForeignKey orderCustomerKey = factory.createForeignKey();
+        orderCustomerKey.setName("FK_Orders_Customer"); //$NON-NLS-1$
+        order.getForeignKeys().add(orderCustomerKey);
+        orderCustomerKey.getColumns().add(orderCustomer);
+        orderCustomerKey.setUniqueKey(customerKey);
+
+        final Index index = factory.createIndex();
+        index.setName("IDX_Orders_Customer"); //$NON-NLS-1$
+        schema.getIndexes().add(index);
+        index.getColumns().add(orderCustomer);
+        return model;
+    }
+
+    private Column createColumn( final BaseTable table,
+                                 final String name,
+                                 final String nativeType,
+                                 final int precision,
+                                 final int length ) {
+        final Column column = RelationalFactory.eINSTANCE.createColumn();
+        column.setName(name);
+        column.setNativeType(nativeType);
+        column.setPrecision(precision);
+        column.setLength(length);
+        table.getColumns().add(column);
+        return column;
+    }
+
+    private void describe( final EObject object,
+                           final String description ) {
+        final Annotation annotation = CoreFactory.eINSTANCE.createAnnotation();
+        annotation.setDescription(description);
+        when(contents.getAnnotation(object)).thenReturn(annotation);
+    }
+
+    private IntermediateFormat createFormat() {
+        final ModelWrapper wrapper = new ModelWrapper(resource, contents, null, "Sales", "Sales.xmi"); //$NON-NLS-1$ //$NON-NLS-2$
+        final IntermediateFormat format = new IntermediateFormat(wrapper, options, null);
+        format.setExporterTool("Designer"); //$NON-NLS-1$
+        format.setExporterVersion("8.1"); //$NON-NLS-1$
+        return format;
+    }
+
+    private static String read( final File file ) throws Exception {
+        final InputStream stream = new FileInputStream(file);
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            for (int read = stream.read(buffer); read >= 0; read = stream.read(buffer)) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toString("UTF-8"); //$NON-NLS-1$
+        } finally {
+            stream.close();
+        }
+    }
+
+    public void testShouldCreateSameDocumentAsJdomImplementation() throws Exception {
+        final Document doc = createFormat().createDocument();
+        doc.getRootElement().removeAttribute(IntermediateFormat.Xml.Model.Attributes.EXPORT_DATE);
+        doc.getRootElement().removeAttribute(IntermediateFormat.Xml.Model.Attributes.EXPORT_TIME);
+
+        // written the way DdlWriterImpl writes the intermediate form when no style is selected
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        new XMLOutputter(JdomHelper.getFormat("  ", true)).output(doc, written); //$NON-NLS-1$
+
+        final File expected = SmartTestDesignerSuite.getTestDataFile(getClass(), EXPECTED_DOCUMENT);
+        assertEquals(read(expected), written.toString("UTF-8")); //$NON-NLS-1$
+    }
+
+    public void testShouldStreamThroughStyleAsTransformingDocument() throws Exception {
+        final Style style = new StyleFromResource(DdlPlugin.class.getClassLoader().getResource(STYLE), "Oracle"); //$NON-NLS-1$
+        final XsltTransform xform = new XsltTransform(style);
+
+        final ByteArrayOutputStream transformed = new ByteArrayOutputStream();
+        xform.transform(createFormat().createDocument(), transformed);
+
+        final ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        createFormat().write(xform.createTransformerHandler(new StreamResult(streamed)));
+
+        final String ddl = streamed.toString("UTF-8"); //$NON-NLS-1$
+        assertTrue(ddl, ddl.indexOf("CREATE TABLE") >= 0); //$NON-NLS-1$
+        assertTrue(ddl, ddl.indexOf("FK_Orders_Customer") >= 0); //$NON-NLS-1$
+        assertEquals(transformed.toString("UTF-8"), ddl); //$NON-NLS-1$
+    }
+
+    public void testShouldRejectIllegalAttributeValueWithoutBuildingDocument() throws Exception {
+        describe(resource.getContents().get(1).eContents().get(0), "Not \u0000 legal"); //$NON-NLS-1$
+        try {
+            createFormat().write(new DefaultHandler());
+            fail("Expected IllegalDataException"); //$NON-NLS-1$
+        } catch (IllegalDataException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.ddl;
+
+import static org.mockito.Mockito.mock;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import javax.xml.transform.Templates;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.jdom.output.XMLOutputter;
+import org.teiid.core.designer.id.ObjectID;
+import org.teiid.core.designer.id.UUID;
+import org.teiid.core.designer.util.Stopwatch;
+import org.teiid.designer.common.xml.JdomHelper;
+import org.teiid.designer.core.ModelEditor;
+import org.teiid.designer.core.ModelerCore;
+import org.teiid.designer.core.metamodel.MetamodelRegistry;
+import org.teiid.designer.core.spi.RegistrySPI;
+import org.teiid.designer.core.util.ModelContents;
+import org.teiid.designer.core.xslt.CoreXsltPlugin;
+import org.teiid.designer.core.xslt.Style;
+import org.teiid.designer.core.xslt.StyleFromResource;
+import org.teiid.designer.core.xslt.XsltTransform;
+import org.teiid.designer.metamodels.core.Annotation;
+import org.teiid.designer.metamodels.core.CoreFactory;
+import org.teiid.designer.metamodels.core.ModelAnnotation;
+import org.teiid.designer.metamodels.core.ModelType;
+import org.teiid.designer.metamodels.relational.BaseTable;
+import org.teiid.designer.metamodels.relational.Column;
+import org.teiid.designer.metamodels.relational.PrimaryKey;
+import org.teiid.designer.metamodels.relational.RelationalFactory;
+import org.teiid.designer.metamodels.relational.RelationalPackage;
+import org.teiid.designer.metamodels.relational.Schema;
+
+/**
+ * Measures exporting the DDL of a model of 5,000 tables with 50 columns each, by building the intermediate document, writing it
+ * to a string and transforming that with a newly compiled stylesheet, and by streaming the intermediate form into the cached,
+ * compiled stylesheet.
+ * <p>
+ * Not part of {@link org.teiid.designer.ddl.test.AllTests}, so it is run on its own.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class TestPerformanceIntermediateFormat extends TestCase {
+
+    private static final int NUM_TABLES = 5000;
+    private static final int NUM_COLUMNS = 50;
+    private static final int NUM_RUNS = 3;
+
+    private static final String STYLE = "xslt/DDL_oracle8_1_6.xsl"; //$NON-NLS-1$
+
+    private Object previousModelEditor;
+    private Object previousMetamodelRegistry;
+    private ModelWrapper wrapper;
+    private DdlOptionsImpl options;
+    private Style style;
+
+    /**
+     * Constructor for TestPerformanceIntermediateFormat.
+     *
+     * @param name
+     */
+    public TestPerformanceIntermediateFormat( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        // not a mock, which would record each of the hundreds of thousands of calls
+        final ObjectID id = new UUID(0, 1);
+        final IPath path = new Path("Schema"); //$NON-NLS-1$
+        final InvocationHandler modelEditorHandler = new InvocationHandler() {
+            @Override
+            public Object invoke( final Object proxy,
+                                  final Method method,
+                                  final Object[] args ) {
+                if ("getObjectID".equals(method.getName())) { //$NON-NLS-1$
+                    return id;
+                }
+                if ("getModelRelativePath".equals(method.getName())) { //$NON-NLS-1$
+                    return path;
+                }
+                return null;
+            }
+        };
+        final ModelEditor modelEditor = (ModelEditor)Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                                            new Class[] {ModelEditor.class},
+                                                                            modelEditorHandler);
+        previousModelEditor = ModelerCore.getRegistry().lookup(ModelerCore.MODEL_EDITOR_KEY);
+        previousMetamodelRegistry = ModelerCore.getRegistry().lookup(ModelerCore.METAMODEL_REGISTRY_KEY);
+        ((RegistrySPI)ModelerCore.getRegistry()).register(ModelerCore.MODEL_EDITOR_KEY, modelEditor);
+        ((RegistrySPI)ModelerCore.getRegistry()).register(ModelerCore.METAMODEL_REGISTRY_KEY, mock(MetamodelRegistry.class));
+
+        final Resource model = createModel();
+        final ModelAnnotation modelAnnotation = (ModelAnnotation)model.getContents().get(0);
+        final ModelContents contents = new ModelContents() {
+            @Override
+            public ModelAnnotation getModelAnnotation() {
+                return modelAnnotation;
+            }
+
+            @Override
+            public Annotation getAnnotation( final EObject annotatedObject ) {
+                return null;
+            }
+        };
+        wrapper = new ModelWrapper(model, contents, null, "Model", "Model.xmi"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        options = new DdlOptionsImpl();
+        options.setGenerateSchema(true);
+        options.setGenerateInfoComments(false);
+        options.setNativeTypeUsed(true);
+        options.setUniqueNamesEnforced(false);
+        style = new StyleFromResource(DdlPlugin.class.getClassLoader().getResource(STYLE), "Oracle"); //$NON-NLS-1$
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        restore(ModelerCore.MODEL_EDITOR_KEY, previousModelEditor);
+        restore(ModelerCore.METAMODEL_REGISTRY_KEY, previousMetamodelRegistry);
+        previousModelEditor = null;
+        previousMetamodelRegistry = null;
+        wrapper = null;
+        options = null;
+        style = null;
+    }
+
+    private static void restore( final String key,
+                                 final Object previous ) {
+        if (previous == null) {
+            ((RegistrySPI)ModelerCore.getRegistry()).unregister(key);
+        } else {
+            ((RegistrySPI)ModelerCore.getRegistry()).register(key, previous);
+        }
+    }
+
+    private static Resource createModel() {
+        final RelationalFactory factory = RelationalFactory.eINSTANCE;
+        final Resource model = new ResourceImpl(URI.createFileURI("/Project/Model.xmi")); //$NON-NLS-1$
+
+        final ModelAnnotation modelAnnotation = CoreFactory.eINSTANCE.createModelAnnotation();
+        modelAnnotation.setModelType(ModelType.PHYSICAL_LITERAL);
+        modelAnnotation.setPrimaryMetamodelUri(RelationalPackage.eNS_URI);
+        model.getContents().add(modelAnnotation);
+
+        final Schema schema = factory.createSchema();
+        schema.setName("Schema"); //$NON-NLS-1$
+        model.getContents().add(schema);
+        for (int i = 0; i < NUM_TABLES; i++) {
+            final BaseTable table = factory.createBaseTable();
+            table.setName("Table" + i); //$NON-NLS-1$
+            schema.getTables().add(table);
+            for (int j = 0; j < NUM_COLUMNS; j++) {
+                final Column column = factory.createColumn();
+                column.setName("Column" + j); //$NON-NLS-1$
+                column.setNativeType("VARCHAR2"); //$NON-NLS-1$
+                column.setLength(255);
+                table.getColumns().add(column);
+            }
+            final PrimaryKey key = factory.createPrimaryKey();
+            key.setName("PK_Table" + i); //$NON-NLS-1$
+            table.setPrimaryKey(key);
+            key.getColumns().add(table.getColumns().get(0));
+        }
+        return model;
+    }
+
+    /**
+     * Export the way it was done before the intermediate form was streamed: build the document, write it to a string, and have a
+     * newly compiled stylesheet parse that again.
+     */
+    private String exportThroughDocument() throws Exception {
+        final IntermediateFormat format = new IntermediateFormat(wrapper, options, null);
+        final String xml = new XMLOutputter(JdomHelper.getFormat("  ", true)).outputString(format.createDocument()); //$NON-NLS-1$
+        final Templates templates = CoreXsltPlugin.createFactory().newTemplates(style.getStreamSource());
+        final ByteArrayOutputStream ddl = new ByteArrayOutputStream();
+        templates.newTransformer().transform(new StreamSource(new StringReader(xml)), new StreamResult(ddl));
+        return ddl.toString("UTF-8"); //$NON-NLS-1$
+    }
+
+    private String exportStreaming() throws Exception {
+        final IntermediateFormat format = new IntermediateFormat(wrapper, options, null);
+        final ByteArrayOutputStream ddl = new ByteArrayOutputStream();
+        format.write(new XsltTransform(style).createTransformerHandler(new StreamResult(ddl)));
+        return ddl.toString("UTF-8"); //$NON-NLS-1$
+    }
+
+    public void testExport() throws Exception {
+        System.out.println("\nTestPerformanceIntermediateFormat.testExport()"); //$NON-NLS-1$
+        // warm up, and check that both produce the same DDL
+        final String ddl = exportStreaming();
+        assertEquals(exportThroughDocument(), ddl);
+
+        final Stopwatch throughDocument = new Stopwatch();
+        final Stopwatch streaming = new Stopwatch();
+        for (int i = 0; i < NUM_RUNS; i++) {
+            throughDocument.start();
+            exportThroughDocument();
+            throughDocument.stop();
+
+            streaming.start();
+            exportStreaming();
+            streaming.stop();
+        }
+
+        final int columns = NUM_TABLES * NUM_COLUMNS;
+        System.out.println("Exporting " + NUM_TABLES + " tables, " + columns + " columns, " + ddl.length() + " characters of DDL"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        System.out.println("Document, string and compiled stylesheet: " + throughDocument.getTotalDuration() / NUM_RUNS + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        System.out.println("Streaming into cached stylesheet: " + streaming.getTotalDuration() / NUM_RUNS + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -0,0 +1,11 @@
+package org.teiid.designer.ddl.test;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.teiid.designer.ddl.TestIntermediateFormat;
+
+@RunWith( Suite.class )
+@Suite.SuiteClasses( {TestIntermediateFormat.class} )
+public class AllTests {
+    // nothing to do
+}
@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.runtime.preview;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class PreviewVdbUpdateSchedulerTest {
+
+    private static final long TIMEOUT = 10000;
+
+    /**
+     * Records the order the models are updated in and the largest number of updates running at once.
+     */
+    class RecordingUpdater implements PreviewVdbUpdateScheduler.Updater {
+        final List<String> updated = Collections.synchronizedList(new ArrayList<String>());
+        final List<Long> started = Collections.synchronizedList(new ArrayList<Long>());
+        final Map<IFile, Collection<IFile>> dependencies = new HashMap<IFile, Collection<IFile>>();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        @Override
+        public Job createUpdateJob( final IFile model ) {
+            return new Job(model.getName()) {
+
+                @Override
+                protected IStatus run( IProgressMonitor monitor ) {
+                    started.add(Long.valueOf(System.currentTimeMillis()));
+                    int now = running.incrementAndGet();
+                    synchronized (maxRunning) {
+                        if (now > maxRunning.get()) maxRunning.set(now);
+                    }
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        // done
+                    }
+                    updated.add(model.getName());
+                    running.decrementAndGet();
+                    return Status.OK_STATUS;
+                }
+            };
+        }
+
+        @Override
+        public Collection<IFile> getDependencies( IFile model ) {
+            Collection<IFile> result = this.dependencies.get(model);
+            return (result == null) ? Collections.<IFile>emptyList() : result;
+        }
+    }
+
+    private PreviewVdbUpdateScheduler scheduler;
+
+    @After
+    public void afterEach() {
+        if (this.scheduler != null) this.scheduler.dispose();
+    }
+
+    private static IFile model( String name ) {
+        IFile model = mock(IFile.class);
+        when(model.getName()).thenReturn(name);
+        when(model.getFullPath()).thenReturn(new Path("/project/" + name)); //$NON-NLS-1$
+        return model;
+    }
+
+    private void waitForUpdates( long count ) throws Exception {
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while ((this.scheduler.getUpdateCount() < count) && (System.currentTimeMillis() < end)) {
+            Thread.sleep(10);
+        }
+        assertThat(this.scheduler.getUpdateCount(), is(count));
+    }
+
+    @Test
+    public void shouldUpdateEachChangedModelOnce() throws Exception {
+        RecordingUpdater updater = new RecordingUpdater();
+        this.scheduler = new PreviewVdbUpdateScheduler(updater, 100, 2);
+        IFile a = model("a.xmi"); //$NON-NLS-1$
+        IFile b = model("b.xmi"); //$NON-NLS-1$
+
+        for (int i = 0; i < 10; ++i) {
+            this.scheduler.modelChanged(a);
+            this.scheduler.modelChanged(b);
+        }
+        assertThat(this.scheduler.getQueueDepth(), is(2));
+
+        waitForUpdates(2);
+        Thread.sleep(200); // make sure no other update follows
+        assertThat(updater.updated.size(), is(2));
+        assertThat(this.scheduler.getQueueDepth(), is(0));
+        assertThat(this.scheduler.getRunningCount(), is(0));
+        assertTrue(this.scheduler.getMaxLatency() >= this.scheduler.getAverageLatency());
+        assertTrue(this.scheduler.getAverageLatency() >= 100);
+    }
+
+    @Test
+    public void shouldUpdateDependenciesFirst() throws Exception {
+        RecordingUpdater updater = new RecordingUpdater();
+        this.scheduler = new PreviewVdbUpdateScheduler(updater, 50, 4);
+        IFile view = model("view.xmi"); //$NON-NLS-1$
+        IFile source = model("source.xmi"); //$NON-NLS-1$
+        IFile other = model("other.xmi"); //$NON-NLS-1$
+        updater.dependencies.put(view, Collections.singletonList(source));
+
+        this.scheduler.modelChanged(view);
+        this.scheduler.modelChanged(other);
+        this.scheduler.modelChanged(source);
+        waitForUpdates(3);
+
+        assertTrue(updater.updated.indexOf("source.xmi") < updater.updated.indexOf("view.xmi")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Test
+    public void shouldLimitConcurrentUpdates() throws Exception {
+        RecordingUpdater updater = new RecordingUpdater();
+        this.scheduler = new PreviewVdbUpdateScheduler(updater, 10, 2);
+
+        for (int i = 0; i < 10; ++i) {
+            this.scheduler.modelChanged(model("model" + i + ".xmi")); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        waitForUpdates(10);
+
+        assertTrue(updater.maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void shouldNotUpdateRemovedModel() throws Exception {
+        RecordingUpdater updater = new RecordingUpdater();
+        this.scheduler = new PreviewVdbUpdateScheduler(updater, 100, 2);
+        IFile a = model("a.xmi"); //$NON-NLS-1$
+        IFile b = model("b.xmi"); //$NON-NLS-1$
+
+        this.scheduler.modelChanged(a);
+        this.scheduler.modelChanged(b);
+        this.scheduler.modelRemoved(a);
+        waitForUpdates(1);
+
+        assertThat(updater.updated, is(Collections.singletonList("b.xmi"))); //$NON-NLS-1$
+    }
+
+    @Test
+    public void shouldPostponeUpdatesWhileModelsKeepChangingWithinWindow() throws Exception {
+        RecordingUpdater updater = new RecordingUpdater();
+        this.scheduler = new PreviewVdbUpdateScheduler(updater, 300, 2);
+        IFile a = model("a.xmi"); //$NON-NLS-1$
+
+        // each change comes well within the window of the one before, for longer than one window
+        long start = System.currentTimeMillis();
+        long lastChange = start;
+        while ((lastChange - start) < 900) {
+            this.scheduler.modelChanged(a);
+            lastChange = System.currentTimeMillis();
+            Thread.sleep(30);
+        }
+        assertTrue(updater.started.isEmpty());
+        assertThat(this.scheduler.getQueueDepth(), is(1));
+
+        waitForUpdates(1);
+        assertTrue(updater.started.get(0).longValue() >= (lastChange + 300));
+    }
+
+    @Test
+    public void shouldUpdateOnceOldestChangeHasWaitedTenWindows() throws Exception {
+        RecordingUpdater updater = new RecordingUpdater();
+        this.scheduler = new PreviewVdbUpdateScheduler(updater, 50, 2);
+        IFile a = model("a.xmi"); //$NON-NLS-1$
+
+        // changes never stop for a whole window, so only the cap of ten windows starts the update
+        long start = System.currentTimeMillis();
+        while (updater.started.isEmpty() && ((System.currentTimeMillis() - start) < TIMEOUT)) {
+            this.scheduler.modelChanged(a);
+            Thread.sleep(10);
+        }
+        assertThat(updater.started.size(), is(1));
+        long waited = updater.started.get(0).longValue() - start;
+        assertTrue(waited >= 500);
+        assertTrue(waited < 5000);
+    }
+}
@@ -9,11 +9,12 @@ import org.teiid.designer.runtime.ServerUtilsTest;
 import org.teiid.designer.runtime.connection.ConnectionInfoHelperTest;
 import org.teiid.designer.runtime.connection.ConnectionProfileFactoryTest;
 import org.teiid.designer.runtime.connection.SourceBindingTest;
+import org.teiid.designer.runtime.preview.PreviewVdbUpdateSchedulerTest;
 
 @RunWith( Suite.class )
 @Suite.SuiteClasses( {ConnectionProfileFactoryTest.class, ConnectionInfoHelperTest.class,
     ServerUtilsTest.class, ServerTest.class, ServerManagerTest.class, ExecutionConfigurationEventTest.class,
-    SourceBindingTest.class} )
+    SourceBindingTest.class, PreviewVdbUpdateSchedulerTest.class} )
 public class AllTests {
     // nothing to do
 }
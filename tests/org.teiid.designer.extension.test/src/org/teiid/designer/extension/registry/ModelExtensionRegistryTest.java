@@ -9,10 +9,12 @@ package org.teiid.designer.extension.registry;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.Collection;
 import java.util.Set;
 
 import org.junit.Before;
@@ -22,6 +24,7 @@ import org.teiid.designer.extension.Factory;
 import org.teiid.designer.extension.MedRegistryListener;
 import org.teiid.designer.extension.definition.ModelExtensionAssistant;
 import org.teiid.designer.extension.definition.ModelExtensionDefinition;
+import org.teiid.designer.extension.properties.ModelExtensionPropertyDefinition;
 
 /**
  * 
@@ -112,4 +115,59 @@ public class ModelExtensionRegistryTest implements Constants {
         }
     }
 
+    @Test
+    public void shouldProvideAssistantsOfDefinitionsExtendingMetaclass() throws Exception {
+        ModelExtensionAssistant salesforceAssistant = Factory.createAssistant();
+        this.registry.addDefinition(new FileInputStream(new File(SALESFORCE_MED_FILE_NAME)), salesforceAssistant);
+        ModelExtensionAssistant restAssistant = Factory.createAssistant();
+        this.registry.addDefinition(new FileInputStream(new File(REST_MED_FILE_NAME)), restAssistant);
+
+        Collection<ModelExtensionAssistant> assistants = this.registry.getModelExtensionAssistants(TABLE_METACLASS_NAME);
+        assertEquals(1, assistants.size());
+        assertTrue(assistants.contains(salesforceAssistant));
+
+        assistants = this.registry.getModelExtensionAssistants(PROCEDURE_METACLASS_NAME);
+        assertEquals(1, assistants.size());
+        assertTrue(assistants.contains(restAssistant));
+
+        assertTrue(this.registry.getModelExtensionAssistants("unknown.Metaclass").isEmpty()); //$NON-NLS-1$
+    }
+
+    @Test
+    public void shouldProvidePropertyDefinitionOfMetaclass() throws Exception {
+        loadBuiltInMeds();
+        String propId = SALESFORCE_MED_PREFIX + ModelExtensionPropertyDefinition.ID_DELIM + "custom"; //$NON-NLS-1$
+
+        ModelExtensionPropertyDefinition propDefn = this.registry.getPropertyDefinition(TABLE_METACLASS_NAME, propId);
+        assertNotNull(propDefn);
+        assertEquals(propId, propDefn.getId());
+        assertNull(this.registry.getPropertyDefinition(PROCEDURE_METACLASS_NAME, propId));
+        assertNull(this.registry.getPropertyDefinition(TABLE_METACLASS_NAME, REST_MED_PREFIX
+                                                                            + ModelExtensionPropertyDefinition.ID_DELIM
+                                                                            + "custom")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void shouldNotProvidePropertyDefinitionsOfRemovedMed() throws Exception {
+        loadBuiltInMeds();
+        String propId = SALESFORCE_MED_PREFIX + ModelExtensionPropertyDefinition.ID_DELIM + "custom"; //$NON-NLS-1$
+        this.registry.removeDefinition(SALESFORCE_MED_PREFIX);
+
+        assertNull(this.registry.getPropertyDefinition(TABLE_METACLASS_NAME, propId));
+        assertNull(this.registry.getPropertyDefinition(COLUMN_METACLASS_NAME, propId));
+    }
+
+    @Test
+    public void shouldNotProvidePropertyDefinitionsOfMetaclassRemovedFromRegisteredMed() throws Exception {
+        File defnFile = new File(SALESFORCE_MED_FILE_NAME);
+        ModelExtensionDefinition med = this.registry.addDefinition(new FileInputStream(defnFile), this.assistant);
+        String propId = SALESFORCE_MED_PREFIX + ModelExtensionPropertyDefinition.ID_DELIM + "custom"; //$NON-NLS-1$
+        assertNotNull(this.registry.getPropertyDefinition(COLUMN_METACLASS_NAME, propId));
+
+        med.removeMetaclass(COLUMN_METACLASS_NAME);
+        assertNull(this.registry.getPropertyDefinition(COLUMN_METACLASS_NAME, propId));
+        assertTrue(this.registry.getModelExtensionAssistants(COLUMN_METACLASS_NAME).isEmpty());
+        assertNotNull(this.registry.getPropertyDefinition(TABLE_METACLASS_NAME, propId));
+    }
+
 }
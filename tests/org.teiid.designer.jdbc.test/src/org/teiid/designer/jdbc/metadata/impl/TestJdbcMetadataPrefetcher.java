@@ -0,0 +1,324 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.jdbc.metadata.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.teiid.designer.jdbc.FakeConnection;
+import org.teiid.designer.jdbc.data.Request;
+import org.teiid.designer.jdbc.metadata.JdbcNode;
+
+/**
+ * TestJdbcMetadataPrefetcher
+ */
+public class TestJdbcMetadataPrefetcher extends TestCase {
+
+    private static final int NUM_TABLES = 20;
+
+    /**
+     * An in-memory database whose tables each have a few columns, a primary key, one imported foreign key and one index. It
+     * records the metadata calls made on it, and the threads the keys and indexes were read on.
+     */
+    static class InMemoryDatabase implements InvocationHandler {
+        final Map calls = Collections.synchronizedMap(new HashMap());
+        final Set keyThreads = Collections.synchronizedSet(new HashSet());
+        final AtomicInteger connectionsOpened = new AtomicInteger();
+        final AtomicInteger connectionsClosed = new AtomicInteger();
+        // when set, a wildcard getColumns also returns the tables of this schema, with an extra column each
+        String similarSchemaName;
+        final DatabaseMetaData metadata = (DatabaseMetaData)Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                                                   new Class[] {DatabaseMetaData.class},
+                                                                                   this);
+
+        static int getColumnCount( final String tableName ) {
+            return tableName.length() % 3 + 1;
+        }
+
+        int getCallCount( final String methodName ) {
+            final AtomicInteger count = (AtomicInteger)this.calls.get(methodName);
+            return count == null ? 0 : count.get();
+        }
+
+        Connection openConnection() {
+            this.connectionsOpened.incrementAndGet();
+            return (Connection)Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {Connection.class}, new InvocationHandler() {
+                @Override
+                public Object invoke( final Object proxy,
+                                      final Method method,
+                                      final Object[] args ) {
+                    if (method.getName().equals("getMetaData")) { //$NON-NLS-1$
+                        return InMemoryDatabase.this.metadata;
+                    }
+                    if (method.getName().equals("close")) { //$NON-NLS-1$
+                        InMemoryDatabase.this.connectionsClosed.incrementAndGet();
+                    }
+                    return null;
+                }
+            });
+        }
+
+        @Override
+        public Object invoke( final Object proxy,
+                              final Method method,
+                              final Object[] args ) {
+            final String name = method.getName();
+            synchronized (this.calls) {
+                AtomicInteger count = (AtomicInteger)this.calls.get(name);
+                if (count == null) {
+                    count = new AtomicInteger();
+                    this.calls.put(name, count);
+                }
+                count.incrementAndGet();
+            }
+            final List rows = new ArrayList();
+            if (name.equals("getColumns")) { //$NON-NLS-1$
+                for (int i = 0; i < NUM_TABLES; ++i) {
+                    final String tableName = "TABLE" + i; //$NON-NLS-1$
+                    if (args[2].equals(JdbcNodeImpl.WILDCARD_PATTERN) || args[2].equals(tableName)) {
+                        for (int j = 0; j < getColumnCount(tableName); ++j) {
+                            rows.add(new Object[] {args[0], args[1], tableName, "COL" + j}); //$NON-NLS-1$
+                        }
+                        if (this.similarSchemaName != null && args[2].equals(JdbcNodeImpl.WILDCARD_PATTERN)) {
+                            for (int j = 0; j <= getColumnCount(tableName); ++j) {
+                                rows.add(new Object[] {args[0], this.similarSchemaName, tableName, "COL" + j}); //$NON-NLS-1$
+                            }
+                        }
+                    }
+                }
+                return createResultSet(rows, 4);
+            }
+            if (name.equals("getPrimaryKeys") || name.equals("getImportedKeys") || name.equals("getIndexInfo")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                this.keyThreads.add(Thread.currentThread());
+                rows.add(new Object[] {args[0], args[1], args[2], "COL0"}); //$NON-NLS-1$
+                return createResultSet(rows, 4);
+            }
+            final Class type = method.getReturnType();
+            if (type == Boolean.TYPE) {
+                return Boolean.FALSE;
+            }
+            if (type == Integer.TYPE) {
+                return new Integer(0);
+            }
+            return null;
+        }
+
+        static ResultSet createResultSet( final List rows,
+                                          final int numColumns ) {
+            final ResultSetMetaData metadata = (ResultSetMetaData)Proxy.newProxyInstance(InMemoryDatabase.class.getClassLoader(),
+                                                                                         new Class[] {ResultSetMetaData.class},
+                                                                                         new InvocationHandler() {
+                                                                                             @Override
+                                                                                             public Object invoke( final Object proxy,
+                                                                                                                   final Method method,
+                                                                                                                   final Object[] args ) {
+                                                                                                 return new Integer(numColumns);
+                                                                                             }
+                                                                                         });
+            return (ResultSet)Proxy.newProxyInstance(InMemoryDatabase.class.getClassLoader(), new Class[] {ResultSet.class}, new InvocationHandler() {
+                private int row = -1;
+
+                @Override
+                public Object invoke( final Object proxy,
+                                      final Method method,
+                                      final Object[] args ) {
+                    final String name = method.getName();
+                    if (name.equals("next")) { //$NON-NLS-1$
+                        return Boolean.valueOf(++this.row < rows.size());
+                    }
+                    if (name.equals("getObject") || name.equals("getString")) { //$NON-NLS-1$ //$NON-NLS-2$
+                        return ((Object[])rows.get(this.row))[((Integer)args[0]).intValue() - 1];
+                    }
+                    if (name.equals("getMetaData")) { //$NON-NLS-1$
+                        return metadata;
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    private InMemoryDatabase database;
+    private FakeJdbcDatabase dbNode;
+    private List tables;
+
+    /**
+     * Constructor for TestJdbcMetadataPrefetcher.
+     *
+     * @param name
+     */
+    public TestJdbcMetadataPrefetcher( String name ) {
+        super(name);
+    }
+
+    /*
+     * @see TestCase#setUp()
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.database = new InMemoryDatabase();
+        this.dbNode = new FakeJdbcDatabase("dbNode") { //$NON-NLS-1$
+            private final Connection connection = new FakeConnection();
+
+            @Override
+            public Connection getConnection() {
+                return this.connection;
+            }
+
+            @Override
+            public DatabaseMetaData getDatabaseMetaData() {
+                return TestJdbcMetadataPrefetcher.this.database.metadata;
+            }
+        };
+        final JdbcSchemaImpl schema = new JdbcSchemaImpl(this.dbNode, "PartsSupplier"); //$NON-NLS-1$
+        this.dbNode.addChildNode(schema);
+        final JdbcTableTypeImpl tablesNode = new JdbcTableTypeImpl(schema, "Table"); //$NON-NLS-1$
+        schema.addChild(tablesNode);
+        this.tables = new ArrayList();
+        for (int i = 0; i < NUM_TABLES; ++i) {
+            final JdbcTableImpl table = new JdbcTableImpl(tablesNode, "TABLE" + i); //$NON-NLS-1$
+            tablesNode.addChild(table);
+            this.tables.add(table);
+        }
+    }
+
+    private JdbcMetadataPrefetcher.ConnectionFactory createConnectionFactory() {
+        return new JdbcMetadataPrefetcher.ConnectionFactory() {
+            @Override
+            public Connection createConnection() {
+                return TestJdbcMetadataPrefetcher.this.database.openConnection();
+            }
+        };
+    }
+
+    private static int getRowCount( final JdbcNode table,
+                                    final String requestName ) {
+        final Request request = ((JdbcTableImpl)table).getRequest(requestName, false);
+        assertFalse(request.hasProblems());
+        return request.getResults().getRowCount();
+    }
+
+    public void testPrefetchReadsColumnsOfSchemaWithOneCall() {
+        final JdbcMetadataPrefetcher prefetcher = new JdbcMetadataPrefetcher(null, 0);
+        final IStatus status = prefetcher.prefetch(this.tables, new NullProgressMonitor());
+        assertTrue(status.isOK());
+        assertEquals(1, prefetcher.getBulkColumnsCallCount());
+        assertEquals(1, this.database.getCallCount("getColumns")); //$NON-NLS-1$
+
+        for (int i = 0; i < NUM_TABLES; ++i) {
+            final JdbcNode table = (JdbcNode)this.tables.get(i);
+            assertEquals(InMemoryDatabase.getColumnCount(table.getName()), getRowCount(table, GetColumnsRequest.NAME));
+        }
+        // the columns were not read again, and the keys were left to be read on demand
+        assertEquals(1, this.database.getCallCount("getColumns")); //$NON-NLS-1$
+        assertEquals(0, this.database.getCallCount("getPrimaryKeys")); //$NON-NLS-1$
+    }
+
+    public void testPrefetchReadsFewTablesOnDemand() {
+        final JdbcMetadataPrefetcher prefetcher = new JdbcMetadataPrefetcher(null, 0);
+        final List few = this.tables.subList(0, 2);
+        assertTrue(prefetcher.prefetch(few, new NullProgressMonitor()).isOK());
+        assertEquals(0, prefetcher.getBulkColumnsCallCount());
+        assertEquals(0, this.database.getCallCount("getColumns")); //$NON-NLS-1$
+
+        final JdbcNode table = (JdbcNode)few.get(1);
+        assertEquals(InMemoryDatabase.getColumnCount(table.getName()), getRowCount(table, GetColumnsRequest.NAME));
+        assertEquals(1, this.database.getCallCount("getColumns")); //$NON-NLS-1$
+    }
+
+    public void testPrefetchReadsColumnsOfEnoughTablesOfSchemaWithOneCall() {
+        final JdbcMetadataPrefetcher prefetcher = new JdbcMetadataPrefetcher(null, 0);
+        // a quarter of the tables of the schema
+        final List some = this.tables.subList(0, NUM_TABLES / 4);
+        assertTrue(prefetcher.prefetch(some, new NullProgressMonitor()).isOK());
+        assertEquals(1, prefetcher.getBulkColumnsCallCount());
+
+        for (int i = 0; i < some.size(); ++i) {
+            final JdbcNode table = (JdbcNode)some.get(i);
+            assertEquals(InMemoryDatabase.getColumnCount(table.getName()), getRowCount(table, GetColumnsRequest.NAME));
+        }
+        assertEquals(1, this.database.getCallCount("getColumns")); //$NON-NLS-1$
+    }
+
+    public void testPrefetchIgnoresColumnsOfSchemasMatchingThePattern() {
+        // '_' in a schema pattern matches any character
+        this.database.similarSchemaName = "PartsXSupplier"; //$NON-NLS-1$
+        final JdbcMetadataPrefetcher prefetcher = new JdbcMetadataPrefetcher(null, 0);
+        assertTrue(prefetcher.prefetch(this.tables, new NullProgressMonitor()).isOK());
+        assertEquals(1, prefetcher.getBulkColumnsCallCount());
+
+        for (int i = 0; i < NUM_TABLES; ++i) {
+            final JdbcNode table = (JdbcNode)this.tables.get(i);
+            assertEquals(InMemoryDatabase.getColumnCount(table.getName()), getRowCount(table, GetColumnsRequest.NAME));
+        }
+    }
+
+    public void testPrefetchReadsKeysAndIndexesOnOtherConnections() {
+        final JdbcMetadataPrefetcher prefetcher = new JdbcMetadataPrefetcher(createConnectionFactory(), 3);
+        final IStatus status = prefetcher.prefetch(this.tables, new NullProgressMonitor());
+        assertTrue(status.isOK());
+        assertEquals(NUM_TABLES, this.database.getCallCount("getPrimaryKeys")); //$NON-NLS-1$
+        assertEquals(NUM_TABLES, this.database.getCallCount("getImportedKeys")); //$NON-NLS-1$
+        assertEquals(NUM_TABLES, this.database.getCallCount("getIndexInfo")); //$NON-NLS-1$
+        assertFalse(this.database.keyThreads.contains(Thread.currentThread()));
+        assertTrue(this.database.connectionsOpened.get() <= 3);
+        assertEquals(this.database.connectionsOpened.get(), this.database.connectionsClosed.get());
+
+        for (int i = 0; i < NUM_TABLES; ++i) {
+            final JdbcNode table = (JdbcNode)this.tables.get(i);
+            assertEquals(1, getRowCount(table, GetPrimaryKeyRequest.NAME));
+            assertEquals(1, getRowCount(table, GetImportedForeignKeysRequest.NAME));
+            assertEquals(1, getRowCount(table, GetIndexesRequest.NAME));
+        }
+        // nothing was read again
+        assertEquals(NUM_TABLES, this.database.getCallCount("getPrimaryKeys")); //$NON-NLS-1$
+    }
+
+    public void testPrefetchLeavesKeysToBeReadOnDemandWhenConnectionFails() {
+        final JdbcMetadataPrefetcher prefetcher = new JdbcMetadataPrefetcher(new JdbcMetadataPrefetcher.ConnectionFactory() {
+            @Override
+            public Connection createConnection() throws SQLException {
+                throw new SQLException("No more connections"); //$NON-NLS-1$
+            }
+        }, 2);
+        final IStatus status = prefetcher.prefetch(this.tables, new NullProgressMonitor());
+        assertEquals(IStatus.WARNING, status.getSeverity());
+        assertEquals(0, this.database.getCallCount("getPrimaryKeys")); //$NON-NLS-1$
+
+        final JdbcNode table = (JdbcNode)this.tables.get(0);
+        assertEquals(1, getRowCount(table, GetPrimaryKeyRequest.NAME));
+        assertEquals(1, this.database.getCallCount("getPrimaryKeys")); //$NON-NLS-1$
+    }
+
+    public void testPrefetchStopsWhenCancelled() {
+        final NullProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+        final JdbcMetadataPrefetcher prefetcher = new JdbcMetadataPrefetcher(createConnectionFactory(), 2);
+        assertEquals(IStatus.CANCEL, prefetcher.prefetch(this.tables, monitor).getSeverity());
+        assertEquals(0, this.database.getCallCount("getColumns")); //$NON-NLS-1$
+        assertEquals(0, this.database.getCallCount("getPrimaryKeys")); //$NON-NLS-1$
+        assertEquals(0, this.database.connectionsOpened.get());
+    }
+}
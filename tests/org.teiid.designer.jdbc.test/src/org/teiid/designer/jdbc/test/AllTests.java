@@ -12,6 +12,7 @@ import org.teiid.designer.jdbc.data.TestQueryRequest;
 import org.teiid.designer.jdbc.jdbctest.TestJdbcMetadataClient;
 import org.teiid.designer.jdbc.metadata.impl.TestFakeJdbcDatabase;
 import org.teiid.designer.jdbc.metadata.impl.TestJdbcDatabaseImpl;
+import org.teiid.designer.jdbc.metadata.impl.TestJdbcMetadataPrefetcher;
 import org.teiid.designer.jdbc.metadata.impl.TestJdbcNodeCache;
 import org.teiid.designer.jdbc.metadata.impl.TestJdbcNodeImpl;
 import org.teiid.designer.jdbc.metadata.impl.TestJdbcNodeSelections;
@@ -23,7 +24,7 @@ import org.teiid.designer.jdbc.metadata.impl.TestJdbcTableImpl;
 @Suite.SuiteClasses( {TestJdbcTableImpl.class, TestJdbcProcedureImpl.class, TestJdbcNodeSelections.class, TestJdbcNodeImpl.class,
     TestJdbcNodeCache.class, TestJdbcDatabaseImpl.class, TestFakeJdbcDatabase.class, TestQueryRequest.class,
     TestMethodRequest.class, TestFakeRequest.class, TestExcelDatabaseMetaDataHandler.class, TestExcelConnectionHandler.class,
-    TestJdbcPlugin.class, TestJdbcManagerImpl.class, TestJdbcMetadataClient.class} )
+    TestJdbcPlugin.class, TestJdbcManagerImpl.class, TestJdbcMetadataClient.class, TestJdbcMetadataPrefetcher.class} )
 public class AllTests {
     // nothing to do
 }
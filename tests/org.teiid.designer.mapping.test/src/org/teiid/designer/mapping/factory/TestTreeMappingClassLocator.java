@@ -0,0 +1,482 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.mapping.factory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.teiid.designer.metamodels.transformation.MappingClass;
+import org.teiid.designer.metamodels.transformation.MappingClassColumn;
+import org.teiid.designer.metamodels.transformation.TransformationFactory;
+import org.teiid.designer.metamodels.transformation.TreeMappingRoot;
+
+/**
+ * Checks that the maps the locator keeps up to date as mapping classes and mapping links are edited are the same as the maps
+ * found again in full.
+ *
+ * @since 8.1
+ */
+public class TestTreeMappingClassLocator extends TestCase {
+
+    private StubTree tree;
+    private List mappingRoots;
+    private TreeMappingClassLocator locator;
+
+    // document:
+    // orders (MC orders)
+    // - orderId
+    // - status
+    // - items (MC items)
+    // - - itemId
+    // - - quantity
+    // customer
+    // - name
+    // - address
+    private EObject orders;
+    private EObject orderId;
+    private EObject status;
+    private EObject items;
+    private EObject itemId;
+    private EObject quantity;
+    private EObject customer;
+    private EObject name;
+    private EObject address;
+
+    private MappingClass ordersClass;
+    private MappingClass itemsClass;
+
+    /**
+     * Constructor for TestTreeMappingClassLocator.
+     *
+     * @param name
+     */
+    public TestTreeMappingClassLocator( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        tree = new StubTree();
+        orders = tree.addNode(tree.getTreeRoot());
+        orderId = tree.addNode(orders);
+        status = tree.addNode(orders);
+        items = tree.addNode(orders);
+        itemId = tree.addNode(items);
+        quantity = tree.addNode(items);
+        customer = tree.addNode(tree.getTreeRoot());
+        name = tree.addNode(customer);
+        address = tree.addNode(customer);
+
+        mappingRoots = new ArrayList();
+        ordersClass = createMappingClass("orders", orders); //$NON-NLS-1$
+        itemsClass = createMappingClass("items", items); //$NON-NLS-1$
+
+        locator = new TreeMappingClassLocator(tree.getTreeRoot(), new StubMapper(tree), new ArrayList(mappingRoots));
+        locator.loadTreeNodesToMappingClassScopeMap();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        tree = null;
+        mappingRoots = null;
+        locator = null;
+    }
+
+    /**
+     * Create a mapping class with two columns, and its tree mapping root with the given location.
+     */
+    private MappingClass createMappingClass( final String mappingClassName,
+                                             final EObject location ) {
+        final MappingClass mappingClass = TransformationFactory.eINSTANCE.createMappingClass();
+        mappingClass.setName(mappingClassName);
+        for (int i = 0; i < 2; i++) {
+            final MappingClassColumn column = TransformationFactory.eINSTANCE.createMappingClassColumn();
+            column.setName(mappingClassName + "Column" + i); //$NON-NLS-1$
+            mappingClass.getColumns().add(column);
+        }
+        final TreeMappingRoot mappingRoot = createMappingRoot(mappingClass);
+        if (location != null) {
+            mappingRoot.getOutputs().add(location);
+        }
+        return mappingClass;
+    }
+
+    private TreeMappingRoot createMappingRoot( final MappingClass mappingClass ) {
+        final TreeMappingRoot mappingRoot = TransformationFactory.eINSTANCE.createTreeMappingRoot();
+        mappingRoot.setTarget(tree.getTreeRoot());
+        mappingRoot.getInputs().add(mappingClass);
+        mappingRoots.add(mappingRoot);
+        return mappingRoot;
+    }
+
+    private static MappingClassColumn getColumn( final MappingClass mappingClass,
+                                                 final int index ) {
+        return (MappingClassColumn)mappingClass.getColumns().get(index);
+    }
+
+    /**
+     * Describe what the locator answers for every tree node and mapping class. The ordered lists and any changed scopes are
+     * found again first, as they are by any of the locator's queries.
+     */
+    private Map describe() {
+        final Map description = new HashMap();
+        final List mappingClasses = new ArrayList(locator.getMappingClasses());
+        description.put("mappingClasses", mappingClasses); //$NON-NLS-1$
+        description.put("stagingTables", new ArrayList(locator.getStagingTables())); //$NON-NLS-1$
+        description.put("allLocations", new HashSet(locator.getAllMappingClassLocations())); //$NON-NLS-1$
+        for (final Iterator iter = tree.getNodes().iterator(); iter.hasNext();) {
+            final EObject node = (EObject)iter.next();
+            final List nodeDescription = new ArrayList();
+            nodeDescription.add(locator.getMappingClass(node));
+            nodeDescription.add(locator.getMappingClassForTreeNode(node));
+            nodeDescription.add(locator.getMappingClassColumn(node));
+            description.put(node, nodeDescription);
+        }
+        for (final Iterator iter = mappingClasses.iterator(); iter.hasNext();) {
+            final MappingClass mappingClass = (MappingClass)iter.next();
+            final List mappingClassDescription = new ArrayList();
+            mappingClassDescription.add(new HashSet(locator.getMappingClassLocations(mappingClass)));
+            mappingClassDescription.add(new HashSet(locator.getTreeNodesInAMappingClassScope(mappingClass)));
+            mappingClassDescription.add(new HashSet(locator.getColumnLocations(mappingClass)));
+            description.put(mappingClass, mappingClassDescription);
+        }
+        return description;
+    }
+
+    /**
+     * Assert the maps kept up to date by the locator are the same as those found again in full.
+     */
+    private void assertSameAsFullLoad() {
+        final Map incremental = describe();
+
+        // the locations of each mapping class are kept next to the map of location to mapping class
+        for (final Iterator iter = locator.getMappingClasses().iterator(); iter.hasNext();) {
+            final MappingClass mappingClass = (MappingClass)iter.next();
+            final Collection locations = new HashSet();
+            for (final Iterator locIter = locator.getAllMappingClassLocations().iterator(); locIter.hasNext();) {
+                final EObject location = (EObject)locIter.next();
+                if (locator.getMappingClass(location) == mappingClass) {
+                    locations.add(location);
+                }
+            }
+            assertEquals(locations, new HashSet(locator.getMappingClassLocations(mappingClass)));
+        }
+
+        locator.reload();
+        assertEquals(describe(), incremental);
+    }
+
+    public void testShouldMatchFullLoadWhenLoaded() {
+        assertEquals(2, locator.getMappingClasses().size());
+        assertSame(ordersClass, locator.getMappingClassForTreeNode(orderId));
+        assertSame(itemsClass, locator.getMappingClassForTreeNode(itemId));
+        assertNull(locator.getMappingClassForTreeNode(name));
+        assertSameAsFullLoad();
+    }
+
+    public void testShouldMatchFullLoadAfterAddingMappingClass() {
+        final MappingClass customerClass = createMappingClass("customer", null); //$NON-NLS-1$
+        final EObject mappingRoot = (EObject)mappingRoots.get(mappingRoots.size() - 1);
+        locator.addMappingClassAtLocation(mappingRoot, customerClass, customer);
+
+        assertEquals(Collections.singletonList(customer), locator.getMappingClassLocations(customerClass));
+        assertSame(customerClass, locator.getMappingClassForTreeNode(name));
+        assertSameAsFullLoad();
+    }
+
+    public void testShouldMatchFullLoadAfterAddingLocationOfMappingClass() {
+        locator.addMappingClassAtLocation(locator.getMappingRoot(itemsClass), itemsClass, customer);
+
+        assertEquals(new HashSet(Arrays.asList(new EObject[] {items, customer})),
+                     new HashSet(locator.getMappingClassLocations(itemsClass)));
+        assertSame(itemsClass, locator.getMappingClassForTreeNode(address));
+        assertSameAsFullLoad();
+    }
+
+    public void testShouldMatchFullLoadAfterRemovingLocation() {
+        locator.addMappingClassAtLocation(locator.getMappingRoot(itemsClass), itemsClass, customer);
+        assertSameAsFullLoad();
+
+        locator.removeOutputLocation(itemsClass, customer);
+        assertFalse(((TreeMappingRoot)locator.getMappingRoot(itemsClass)).getOutputs().contains(customer));
+        assertSameAsFullLoad();
+    }
+
+    public void testShouldMatchFullLoadAfterDeletingMappingClass() throws Exception {
+        locator.deleteMappingClass(itemsClass);
+
+        assertEquals(Collections.singletonList(ordersClass), locator.getMappingClasses());
+        assertTrue(locator.getMappingClassLocations(itemsClass).isEmpty());
+        assertNull(locator.getMappingClass(items));
+        // the nodes of the deleted mapping class now belong to the enclosing one
+        assertSame(ordersClass, locator.getMappingClassForTreeNode(itemId));
+        assertSameAsFullLoad();
+    }
+
+    public void testShouldMatchFullLoadAfterAddingColumnLink() {
+        locator.addMappingClassColumnLocation(getColumn(ordersClass, 0), orderId);
+
+        assertSame(getColumn(ordersClass, 0), locator.getMappingClassColumn(orderId));
+        assertSameAsFullLoad();
+    }
+
+    public void testShouldMatchFullLoadAfterLinkingColumnIntoEnclosedMappingClass() {
+        // linking a column of the enclosing mapping class to the location of the enclosed one brings its nodes into both scopes
+        locator.addMappingClassColumnLocation(getColumn(ordersClass, 1), items);
+
+        assertTrue(locator.getTreeNodesInAMappingClassScope(ordersClass).contains(itemId));
+        assertTrue(locator.getTreeNodesInAMappingClassScope(itemsClass).contains(itemId));
+        // a node in several scopes belongs to the last mapping class in document order
+        assertSame(itemsClass, locator.getMappingClassForTreeNode(itemId));
+        assertSameAsFullLoad();
+    }
+
+    public void testShouldMatchFullLoadAfterRemovingColumnLink() {
+        locator.addMappingClassColumnLocation(getColumn(ordersClass, 1), items);
+        locator.addMappingClassColumnLocation(getColumn(itemsClass, 0), quantity);
+        assertSameAsFullLoad();
+
+        locator.removeMappingClassColumnLocation(getColumn(ordersClass, 1), items);
+        assertFalse(locator.getTreeNodesInAMappingClassScope(ordersClass).contains(itemId));
+        assertSameAsFullLoad();
+
+        locator.removeMappingClassColumnLocation(getColumn(itemsClass, 0), quantity);
+        assertNull(locator.getMappingClassColumn(quantity));
+        assertSameAsFullLoad();
+    }
+
+    public void testShouldMatchFullLoadAfterMixedEdits() {
+        locator.addMappingClassColumnLocation(getColumn(ordersClass, 1), items);
+        final MappingClass customerClass = createMappingClass("customer", null); //$NON-NLS-1$
+        locator.addMappingClassAtLocation((EObject)mappingRoots.get(mappingRoots.size() - 1), customerClass, customer);
+        locator.addMappingClassColumnLocation(getColumn(customerClass, 0), name);
+        assertSameAsFullLoad();
+
+        locator.removeMappingClassColumnLocation(getColumn(ordersClass, 1), items);
+        locator.addMappingClassColumnLocation(getColumn(itemsClass, 1), itemId);
+        assertSameAsFullLoad();
+
+        locator.removeOutputLocation(customerClass, customer);
+        locator.addMappingClassColumnLocation(getColumn(ordersClass, 0), status);
+        assertSameAsFullLoad();
+    }
+
+    public void testShouldNotFindScopesWhileGeneratingMappingClasses() {
+        locator.setGeneratingMappingClasses(true);
+        locator.addMappingClassColumnLocation(getColumn(ordersClass, 1), items);
+        final MappingClass customerClass = createMappingClass("customer", null); //$NON-NLS-1$
+        locator.addMappingClassAtLocation((EObject)mappingRoots.get(mappingRoots.size() - 1), customerClass, customer);
+        assertNull(locator.getMappingClassForTreeNode(name));
+
+        locator.setGeneratingMappingClasses(false);
+        assertSame(customerClass, locator.getMappingClassForTreeNode(name));
+        assertSameAsFullLoad();
+    }
+
+    /**
+     * A tree of plain objects, kept in a map of parent to children.
+     */
+    static class StubTree implements IMappableTree {
+        private final EObject treeRoot = EcoreFactory.eINSTANCE.createEObject();
+        private final Map children = new HashMap();
+        private final Map parents = new HashMap();
+        private final List nodes = new ArrayList();
+
+        EObject addNode( final EObject parent ) {
+            final EObject node = EcoreFactory.eINSTANCE.createEObject();
+            List parentChildren = (List)this.children.get(parent);
+            if (parentChildren == null) {
+                parentChildren = new ArrayList();
+                this.children.put(parent, parentChildren);
+            }
+            parentChildren.add(node);
+            this.parents.put(node, parent);
+            this.nodes.add(node);
+            return node;
+        }
+
+        List getNodes() {
+            return this.nodes;
+        }
+
+        @Override
+        public EObject getTreeRoot() {
+            return this.treeRoot;
+        }
+
+        @Override
+        public EObject getParent( final EObject node ) {
+            return (EObject)this.parents.get(node);
+        }
+
+        @Override
+        public Collection getChildren( final EObject node ) {
+            final List nodeChildren = (List)this.children.get(node);
+            return nodeChildren == null ? Collections.EMPTY_LIST : nodeChildren;
+        }
+
+        @Override
+        public boolean isParentOf( final EObject parent,
+                                   final EObject child ) {
+            return getParent(child) == parent;
+        }
+
+        @Override
+        public boolean isAncestorOf( final EObject ancestor,
+                                     final EObject descendent ) {
+            for (EObject parent = getParent(descendent); parent != null; parent = getParent(parent)) {
+                if (parent == ancestor) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isSiblingOf( final EObject instance,
+                                    final EObject possibleSibling,
+                                    final boolean higherOrderOnly ) {
+            final EObject parent = getParent(instance);
+            if (parent == null || instance == possibleSibling || getParent(possibleSibling) != parent) {
+                return false;
+            }
+            final List siblings = (List)getChildren(parent);
+            return !higherOrderOnly || siblings.indexOf(possibleSibling) < siblings.indexOf(instance);
+        }
+
+        @Override
+        public boolean isExternal( final EObject node ) {
+            return false;
+        }
+
+        @Override
+        public List getExternalRoots( final boolean recurseFragments ) {
+            return Collections.EMPTY_LIST;
+        }
+
+        @Override
+        public EObject getDatatype( final EObject node ) {
+            return null;
+        }
+
+        @Override
+        public boolean areEquivalent( final EObject objA,
+                                      final EObject objB ) {
+            return objA == objB;
+        }
+
+        @Override
+        public String getUniqueName( final EObject node ) {
+            return String.valueOf(this.nodes.indexOf(node));
+        }
+
+        @Override
+        public boolean isChoiceNode( final EObject node ) {
+            return false;
+        }
+    }
+
+    /**
+     * A mapper of the stub tree, in which only the leaves may be mapped.
+     */
+    static class StubMapper implements ITreeToRelationalMapper {
+        private final StubTree tree;
+
+        StubMapper( final StubTree tree ) {
+            this.tree = tree;
+        }
+
+        @Override
+        public boolean allowsMappingClass( final EObject theTreeNode ) {
+            return !isMappable(theTreeNode);
+        }
+
+        @Override
+        public boolean allowsStagingTable( final EObject theTreeNode ) {
+            return !isMappable(theTreeNode);
+        }
+
+        @Override
+        public boolean canIterate( final EObject theTreeNode ) {
+            return !isMappable(theTreeNode);
+        }
+
+        @Override
+        public IMappableTree getMappableTree() {
+            return this.tree;
+        }
+
+        @Override
+        public boolean isContainerNode( final EObject theNode ) {
+            return false;
+        }
+
+        @Override
+        public boolean isMappable( final EObject theTreeNode ) {
+            return theTreeNode != this.tree.getTreeRoot() && this.tree.getChildren(theTreeNode).isEmpty();
+        }
+
+        @Override
+        public boolean isMappingRequired( final EObject theTreeNode ) {
+            return false;
+        }
+
+        @Override
+        public boolean isRecursive( final EObject theTreeNode ) {
+            return false;
+        }
+
+        @Override
+        public boolean isTreeRoot( final EObject theTreeNode ) {
+            return theTreeNode == this.tree.getTreeRoot();
+        }
+
+        @Override
+        public boolean isChoiceNode( final EObject theTreeNode ) {
+            return false;
+        }
+
+        @Override
+        public void setTreeRoot( final EObject theTreeRoot ) {
+        }
+
+        @Override
+        public boolean isTreeNode( final EObject theTreeNode ) {
+            return this.tree.getNodes().contains(theTreeNode);
+        }
+
+        @Override
+        public String getPathInDocument( final EObject theTreeNode ) {
+            return this.tree.getUniqueName(theTreeNode);
+        }
+
+        @Override
+        public String getXsdQualifiedName( final EObject theTreeNode ) {
+            return null;
+        }
+
+        @Override
+        public String getXsdTargetNamespace( final EObject theTreeNode ) {
+            return null;
+        }
+
+        @Override
+        public EObject getXsdComponent( final EObject theTreeNode ) {
+            return null;
+        }
+    }
+}
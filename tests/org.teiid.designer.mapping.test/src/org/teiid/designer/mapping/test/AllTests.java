@@ -0,0 +1,11 @@
+package org.teiid.designer.mapping.test;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.teiid.designer.mapping.factory.TestTreeMappingClassLocator;
+
+@RunWith( Suite.class )
+@Suite.SuiteClasses( {TestTreeMappingClassLocator.class} )
+public class AllTests {
+    // nothing to do
+}
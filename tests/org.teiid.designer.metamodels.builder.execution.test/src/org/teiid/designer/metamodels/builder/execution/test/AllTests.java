@@ -0,0 +1,11 @@
+package org.teiid.designer.metamodels.builder.execution.test;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.teiid.designer.metamodels.builder.execution.util.TestEntityPathIndex;
+
+@RunWith( Suite.class )
+@Suite.SuiteClasses( {TestEntityPathIndex.class} )
+public class AllTests {
+    // nothing to do
+}
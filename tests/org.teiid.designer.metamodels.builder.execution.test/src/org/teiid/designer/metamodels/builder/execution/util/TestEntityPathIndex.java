@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.metamodels.builder.execution.util;
+
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.teiid.designer.metamodels.relational.BaseTable;
+import org.teiid.designer.metamodels.relational.Column;
+import org.teiid.designer.metamodels.relational.RelationalFactory;
+import org.teiid.designer.metamodels.relational.RelationalPackage;
+import org.teiid.designer.metamodels.relational.Schema;
+import org.teiid.designer.metamodels.relational.View;
+
+/**
+ * @since 8.1
+ */
+public class TestEntityPathIndex extends TestCase {
+
+    private static final String BASE_TABLE_URI = RelationalPackage.eNS_URI + "#//BaseTable"; //$NON-NLS-1$
+    private static final String VIEW_URI = RelationalPackage.eNS_URI + "#//View"; //$NON-NLS-1$
+
+    private ResourceSet resources;
+    private MultiStatus status;
+    private Resource model;
+    private Schema schema;
+    private BaseTable table;
+    private Column column;
+
+    /**
+     * Constructor for TestEntityPathIndex.
+     *
+     * @param name
+     */
+    public TestEntityPathIndex( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        resources = new ResourceSetImpl();
+        status = new MultiStatus("org.teiid.designer.metamodels.builder.execution", IStatus.OK, "", null); //$NON-NLS-1$ //$NON-NLS-2$
+        model = new ResourceImpl(URI.createFileURI("/Project/Model.xmi")); //$NON-NLS-1$
+        resources.getResources().add(model);
+
+        schema = createSchema("Schema"); //$NON-NLS-1$
+        table = createTable(schema, "Table"); //$NON-NLS-1$
+        column = createColumn(table, "Column"); //$NON-NLS-1$
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        resources = null;
+        status = null;
+        model = null;
+        schema = null;
+        table = null;
+        column = null;
+    }
+
+    private Schema createSchema( final String name ) {
+        final Schema newSchema = RelationalFactory.eINSTANCE.createSchema();
+        newSchema.setName(name);
+        model.getContents().add(newSchema);
+        return newSchema;
+    }
+
+    private static BaseTable createTable( final Schema parent,
+                                          final String name ) {
+        final BaseTable newTable = RelationalFactory.eINSTANCE.createBaseTable();
+        newTable.setName(name);
+        parent.getTables().add(newTable);
+        return newTable;
+    }
+
+    private static Column createColumn( final BaseTable parent,
+                                        final String name ) {
+        final Column newColumn = RelationalFactory.eINSTANCE.createColumn();
+        newColumn.setName(name);
+        parent.getColumns().add(newColumn);
+        return newColumn;
+    }
+
+    /**
+     * Check that the index finds the same entity as {@link MetamodelBuilderUtil#findEObjectByPath}, and return it.
+     */
+    private Object find( final EntityPathIndex index,
+                         final String path,
+                         final String metaClassUri ) {
+        final Object found = index.findEObjectByPath(path, metaClassUri);
+        assertSame(MetamodelBuilderUtil.findEObjectByPath(resources, path, metaClassUri, status), found);
+        return found;
+    }
+
+    public void testShouldFindEntitiesByPath() {
+        final EntityPathIndex index = new EntityPathIndex(resources, status);
+        assertSame(model, index.findResource("Model\\Schema")); //$NON-NLS-1$
+        assertSame(model, find(index, "Model", null)); //$NON-NLS-1$
+        assertSame(schema, find(index, "Model\\Schema", null)); //$NON-NLS-1$
+        assertSame(table, find(index, "Model\\Schema\\Table", BASE_TABLE_URI)); //$NON-NLS-1$
+        assertSame(column, find(index, "Model\\Schema\\Table\\Column", null)); //$NON-NLS-1$
+    }
+
+    public void testShouldNotFindMissingPaths() {
+        final EntityPathIndex index = new EntityPathIndex(resources, status);
+        assertNull(find(index, "Other\\Schema", null)); //$NON-NLS-1$
+        assertNull(find(index, "Model\\Other", null)); //$NON-NLS-1$
+        assertNull(find(index, "Model\\Other\\Table", null)); //$NON-NLS-1$
+        assertNull(find(index, "Model\\Schema\\Other", null)); //$NON-NLS-1$
+        assertNull(find(index, "Model\\Schema\\Table", VIEW_URI)); //$NON-NLS-1$
+    }
+
+    public void testShouldFindEntitiesNotAddedToIndex() {
+        final EntityPathIndex index = new EntityPathIndex(resources, status);
+        assertNull(find(index, "Model\\Schema\\NewTable", null)); //$NON-NLS-1$
+
+        // created after the resource was indexed, and not added
+        final BaseTable newTable = createTable(schema, "NewTable"); //$NON-NLS-1$
+        final Column newColumn = createColumn(newTable, "NewColumn"); //$NON-NLS-1$
+        assertSame(newTable, find(index, "Model\\Schema\\NewTable", BASE_TABLE_URI)); //$NON-NLS-1$
+        assertSame(newColumn, find(index, "Model\\Schema\\NewTable\\NewColumn", null)); //$NON-NLS-1$
+    }
+
+    public void testShouldFindAddedEntities() {
+        final EntityPathIndex index = new EntityPathIndex(resources, status);
+        index.findResource("Model"); //$NON-NLS-1$
+
+        final BaseTable newTable = createTable(schema, "NewTable"); //$NON-NLS-1$
+        index.add(newTable);
+        assertSame(newTable, find(index, "Model\\Schema\\NewTable", null)); //$NON-NLS-1$
+    }
+
+    public void testShouldFindMovedAndRenamedEntities() {
+        final EntityPathIndex index = new EntityPathIndex(resources, status);
+        assertSame(column, find(index, "Model\\Schema\\Table\\Column", null)); //$NON-NLS-1$
+
+        final Schema otherSchema = createSchema("OtherSchema"); //$NON-NLS-1$
+        otherSchema.getTables().add(table);
+        assertNull(find(index, "Model\\Schema\\Table", null)); //$NON-NLS-1$
+        assertNull(find(index, "Model\\Schema\\Table\\Column", null)); //$NON-NLS-1$
+        assertSame(table, find(index, "Model\\OtherSchema\\Table", null)); //$NON-NLS-1$
+        assertSame(column, find(index, "Model\\OtherSchema\\Table\\Column", null)); //$NON-NLS-1$
+
+        table.setName("RenamedTable"); //$NON-NLS-1$
+        assertNull(find(index, "Model\\OtherSchema\\Table", null)); //$NON-NLS-1$
+        assertSame(column, find(index, "Model\\OtherSchema\\RenamedTable\\Column", null)); //$NON-NLS-1$
+    }
+
+    public void testShouldFindFirstChildWithNameOfSegments() {
+        // a second schema with the same name, whose table can therefore not be found by path
+        final Schema sameNameSchema = createSchema("Schema"); //$NON-NLS-1$
+        createTable(sameNameSchema, "OtherTable"); //$NON-NLS-1$
+        final BaseTable sameNameTable = createTable(sameNameSchema, "Table"); //$NON-NLS-1$
+
+        final EntityPathIndex index = new EntityPathIndex(resources, status);
+        assertSame(schema, find(index, "Model\\Schema", null)); //$NON-NLS-1$
+        assertNull(find(index, "Model\\Schema\\OtherTable", null)); //$NON-NLS-1$
+        assertSame(table, find(index, "Model\\Schema\\Table", null)); //$NON-NLS-1$
+
+        // added to the second schema, and still not found
+        final BaseTable newTable = createTable(sameNameSchema, "NewTable"); //$NON-NLS-1$
+        index.add(newTable);
+        assertNull(find(index, "Model\\Schema\\NewTable", null)); //$NON-NLS-1$
+
+        // once the first schema is removed, the second one is the first child with the name
+        model.getContents().remove(schema);
+        assertSame(sameNameSchema, find(index, "Model\\Schema", null)); //$NON-NLS-1$
+        assertSame(sameNameTable, find(index, "Model\\Schema\\Table", null)); //$NON-NLS-1$
+        assertSame(newTable, find(index, "Model\\Schema\\NewTable", null)); //$NON-NLS-1$
+    }
+
+    public void testShouldFindFirstChildWithNameAndMetaClassOfLastSegment() {
+        final View view = RelationalFactory.eINSTANCE.createView();
+        view.setName("Table"); //$NON-NLS-1$
+        schema.getTables().add(view);
+
+        final EntityPathIndex index = new EntityPathIndex(resources, status);
+        assertSame(table, find(index, "Model\\Schema\\Table", null)); //$NON-NLS-1$
+        assertSame(table, find(index, "Model\\Schema\\Table", BASE_TABLE_URI)); //$NON-NLS-1$
+        assertSame(view, find(index, "Model\\Schema\\Table", VIEW_URI)); //$NON-NLS-1$
+        assertSame(table, find(index, "Model\\Schema\\Table", null)); //$NON-NLS-1$
+    }
+}
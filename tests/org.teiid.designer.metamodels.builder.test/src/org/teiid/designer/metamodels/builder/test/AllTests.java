@@ -0,0 +1,11 @@
+package org.teiid.designer.metamodels.builder.test;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.teiid.designer.metamodels.builder.translator.TestRecordGenerator;
+
+@RunWith( Suite.class )
+@Suite.SuiteClasses( {TestRecordGenerator.class} )
+public class AllTests {
+    // nothing to do
+}
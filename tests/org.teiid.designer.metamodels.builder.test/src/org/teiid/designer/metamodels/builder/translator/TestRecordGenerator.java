@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.metamodels.builder.translator;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.ecore.EObject;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.teiid.designer.metamodels.builder.MetamodelBuilderPlugin;
+import org.teiid.designer.metamodels.builder.MetamodelEntityBuilder;
+import org.teiid.designer.metamodels.builder.MetamodelEntityRecord;
+
+/**
+ * @since 8.1
+ */
+public class TestRecordGenerator extends TestCase {
+
+    private static final String TABLE_URI = "http://www.metamatrix.com/metamodels/Relational#//BaseTable"; //$NON-NLS-1$
+    private static final String SCHEMA_URI = "http://www.metamatrix.com/metamodels/Relational#//Schema"; //$NON-NLS-1$
+    private static final String[] COLUMNS = {"MetaClassUri", "ParentPath", "ParentMetaClassUri", "name", "nameInSource"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+    private MultiStatus status;
+    private RecordingBuilder builder;
+
+    /**
+     * Constructor for TestRecordGenerator.
+     *
+     * @param name
+     */
+    public TestRecordGenerator( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        status = new MultiStatus(MetamodelBuilderPlugin.PLUGIN_ID, IStatus.OK, "", null); //$NON-NLS-1$
+        builder = new RecordingBuilder();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        status = null;
+        builder = null;
+    }
+
+    /**
+     * Create a ResultSet with the given column names and rows.
+     */
+    private static ResultSet createResultSet( final String[] columnNames,
+                                              final Object[][] rows ) throws Exception {
+        final ResultSetMetaData metadata = mock(ResultSetMetaData.class);
+        when(metadata.getColumnCount()).thenReturn(columnNames.length);
+        when(metadata.getColumnName(anyInt())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer( final InvocationOnMock invocation ) {
+                return columnNames[((Integer)invocation.getArguments()[0]).intValue() - 1];
+            }
+        });
+
+        final int[] current = {-1};
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(metadata);
+        when(resultSet.next()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer( final InvocationOnMock invocation ) {
+                current[0]++;
+                return Boolean.valueOf(current[0] < rows.length);
+            }
+        });
+        when(resultSet.getObject(anyInt())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer( final InvocationOnMock invocation ) {
+                return rows[current[0]][((Integer)invocation.getArguments()[0]).intValue() - 1];
+            }
+        });
+        return resultSet;
+    }
+
+    private static Map features( final String name,
+                                 final String nameInSource ) {
+        final Map features = new HashMap();
+        features.put("name", name); //$NON-NLS-1$
+        features.put("nameInSource", nameInSource); //$NON-NLS-1$
+        return features;
+    }
+
+    private static void assertRecord( final String metaClassUri,
+                                      final String parentPath,
+                                      final String parentMetaClassUri,
+                                      final Map features,
+                                      final MetamodelEntityRecord record ) {
+        assertEquals(metaClassUri, record.getMetaClassUri());
+        assertEquals(parentPath, record.getParentPath());
+        assertEquals(parentMetaClassUri, record.getParentMetaClassUri());
+        assertEquals(features, record.getFeaturesNameValueMap());
+    }
+
+    public void testShouldBuildEntityForEachRow() throws Exception {
+        final ResultSet resultSet = createResultSet(COLUMNS, new Object[][] {
+            {TABLE_URI, "Model\\Schema", SCHEMA_URI, "Table1", "TABLE_1"}, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            {TABLE_URI, "Model\\Schema", null, "Table2", null}}); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertEquals(2, RecordGenerator.buildEntities(resultSet, builder, status, new NullProgressMonitor()));
+        assertEquals(2, builder.records.size());
+        assertRecord(TABLE_URI, "Model\\Schema", SCHEMA_URI, features("Table1", "TABLE_1"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                     (MetamodelEntityRecord)builder.records.get(0));
+        assertRecord(TABLE_URI, "Model\\Schema", null, features("Table2", null), //$NON-NLS-1$ //$NON-NLS-2$
+                     (MetamodelEntityRecord)builder.records.get(1));
+        assertTrue(status.isOK());
+    }
+
+    public void testShouldCreateSameRecordsAsGenerateEntityRecords() throws Exception {
+        final Object[][] rows = { {TABLE_URI, "Model\\Schema", SCHEMA_URI, "Table1", "TABLE_1"}, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            {TABLE_URI, "Model\\Schema", SCHEMA_URI, "Table2", "TABLE_2"}}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        RecordGenerator.buildEntities(createResultSet(COLUMNS, rows), builder, status, null);
+        final List generated = RecordGenerator.generateEntityRecords(createResultSet(COLUMNS, rows), status, null);
+
+        assertEquals(generated.size(), builder.records.size());
+        for (int i = 0; i < generated.size(); i++) {
+            final MetamodelEntityRecord expected = (MetamodelEntityRecord)generated.get(i);
+            assertRecord(expected.getMetaClassUri(),
+                         expected.getParentPath(),
+                         expected.getParentMetaClassUri(),
+                         expected.getFeaturesNameValueMap(),
+                         (MetamodelEntityRecord)builder.records.get(i));
+        }
+    }
+
+    public void testShouldSkipRowsWithoutMetaClassUriOrParentPath() throws Exception {
+        final ResultSet resultSet = createResultSet(COLUMNS, new Object[][] {
+            {null, "Model\\Schema", SCHEMA_URI, "Table1", null}, //$NON-NLS-1$ //$NON-NLS-2$
+            {TABLE_URI, null, SCHEMA_URI, "Table2", null}, //$NON-NLS-1$
+            {TABLE_URI, "Model\\Schema", SCHEMA_URI, "Table3", null}}); //$NON-NLS-1$ //$NON-NLS-2$
+
+        assertEquals(3, RecordGenerator.buildEntities(resultSet, builder, status, null));
+        assertEquals(1, builder.records.size());
+        assertRecord(TABLE_URI, "Model\\Schema", SCHEMA_URI, features("Table3", null), //$NON-NLS-1$ //$NON-NLS-2$
+                     (MetamodelEntityRecord)builder.records.get(0));
+        assertEquals(2, status.getChildren().length);
+        assertEquals(IStatus.WARNING, status.getSeverity());
+    }
+
+    public void testShouldStopWhenCancelled() throws Exception {
+        final ResultSet resultSet = createResultSet(COLUMNS, new Object[][] {
+            {TABLE_URI, "Model\\Schema", SCHEMA_URI, "Table1", null}, //$NON-NLS-1$ //$NON-NLS-2$
+            {TABLE_URI, "Model\\Schema", SCHEMA_URI, "Table2", null}, //$NON-NLS-1$ //$NON-NLS-2$
+            {TABLE_URI, "Model\\Schema", SCHEMA_URI, "Table3", null}}); //$NON-NLS-1$ //$NON-NLS-2$
+        final IProgressMonitor monitor = new NullProgressMonitor();
+        builder.cancelAfter(2, monitor);
+
+        assertEquals(2, RecordGenerator.buildEntities(resultSet, builder, status, monitor));
+        assertEquals(2, builder.records.size());
+    }
+
+    public void testShouldReadEmptyResultSet() throws Exception {
+        assertEquals(0, RecordGenerator.buildEntities(createResultSet(COLUMNS, new Object[0][]), builder, status, null));
+        assertTrue(builder.records.isEmpty());
+    }
+
+    /**
+     * A builder that keeps a copy of each record it is given, as the record is reused for the next row.
+     */
+    static class RecordingBuilder implements MetamodelEntityBuilder {
+        final List records = new ArrayList();
+        private int cancelAfter = -1;
+        private IProgressMonitor monitorToCancel;
+
+        void cancelAfter( final int count,
+                          final IProgressMonitor monitor ) {
+            this.cancelAfter = count;
+            this.monitorToCancel = monitor;
+        }
+
+        @Override
+        public EObject create( final MetamodelEntityRecord entityRecord,
+                               final IProgressMonitor monitor ) {
+            this.records.add(new MetamodelEntityRecord(entityRecord.getMetaClassUri(), entityRecord.getParentPath(),
+                                                       entityRecord.getParentMetaClassUri(),
+                                                       new HashMap(entityRecord.getFeaturesNameValueMap())));
+            if (this.records.size() == this.cancelAfter) {
+                this.monitorToCancel.setCanceled(true);
+            }
+            return mock(EObject.class);
+        }
+
+        @Override
+        public List create( final List entityRecords,
+                            final IProgressMonitor monitor ) {
+            final List entities = new ArrayList();
+            for (int i = 0; i < entityRecords.size(); i++) {
+                entities.add(create((MetamodelEntityRecord)entityRecords.get(i), monitor));
+            }
+            return entities;
+        }
+    }
+}
@@ -4,9 +4,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.teiid.designer.sdt.TestModelerSdtPlugin;
 import org.teiid.designer.sdt.types.TestBuiltInTypesManager;
+import org.teiid.designer.sdt.types.TestDatatypeIndex;
 
 @RunWith( Suite.class )
-@Suite.SuiteClasses( {TestModelerSdtPlugin.class, TestBuiltInTypesManager.class} )
+@Suite.SuiteClasses( {TestModelerSdtPlugin.class, TestBuiltInTypesManager.class, TestDatatypeIndex.class} )
 public class AllTests {
     // nothing to do
 }
@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.sdt.types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xsd.XSDFactory;
+import org.eclipse.xsd.XSDSchema;
+import org.eclipse.xsd.XSDSimpleTypeDefinition;
+import org.eclipse.xsd.impl.XSDPackageImpl;
+import org.eclipse.xsd.util.XSDResourceImpl;
+
+/**
+ * @since 8.1
+ */
+public class TestDatatypeIndex extends TestCase {
+
+    private static final String RUNTIME_TYPE = "string"; //$NON-NLS-1$
+
+    // Map, keyed on datatype, of the UUID strings the manager reports
+    private Map uuids;
+    private DatatypeIndex index;
+
+    /**
+     * Constructor for TestDatatypeIndex.
+     *
+     * @param name
+     */
+    public TestDatatypeIndex( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        XSDPackageImpl.init();
+        uuids = new HashMap();
+
+        final WorkspaceDatatypeManager manager = new WorkspaceDatatypeManager() {
+            @Override
+            public String getUuidString( final EObject type ) {
+                return (String)uuids.get(type);
+            }
+
+            @Override
+            public String getName( final EObject type ) {
+                return ((XSDSimpleTypeDefinition)type).getName();
+            }
+
+            @Override
+            public String getRuntimeTypeName( final EObject type ) {
+                return RUNTIME_TYPE;
+            }
+
+            @Override
+            protected EObject[] getDatatypes( final Resource resource ) {
+                final List result = new ArrayList();
+                for (final Iterator iter = resource.getContents().iterator(); iter.hasNext();) {
+                    final Object root = iter.next();
+                    if (root instanceof XSDSchema) {
+                        result.addAll(((XSDSchema)root).getTypeDefinitions());
+                    }
+                }
+                return (EObject[])result.toArray(new EObject[result.size()]);
+            }
+        };
+        final BuiltInTypesManager builtIns = new BuiltInTypesManager() {
+            @Override
+            public EObject[] getAllDatatypes() {
+                return new EObject[0];
+            }
+        };
+        index = new DatatypeIndex(manager, builtIns);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        index.dispose();
+    }
+
+    private Resource createResource( final String name,
+                                     final String... typeNames ) {
+        final Resource resource = new XSDResourceImpl(URI.createFileURI("/" + name + ".xsd")); //$NON-NLS-1$ //$NON-NLS-2$
+        final XSDSchema schema = XSDFactory.eINSTANCE.createXSDSchema();
+        schema.setTargetNamespace("http://" + name); //$NON-NLS-1$
+        resource.getContents().add(schema);
+        for (int i = 0; i < typeNames.length; i++) {
+            addType(schema, typeNames[i]);
+        }
+        return resource;
+    }
+
+    private XSDSimpleTypeDefinition addType( final XSDSchema schema,
+                                             final String typeName ) {
+        final XSDSimpleTypeDefinition type = XSDFactory.eINSTANCE.createXSDSimpleTypeDefinition();
+        type.setName(typeName);
+        schema.getContents().add(type);
+        uuids.put(type, "mmuuid:" + schema.getTargetNamespace() + '/' + typeName); //$NON-NLS-1$
+        return type;
+    }
+
+    private static XSDSchema getSchema( final Resource resource ) {
+        return (XSDSchema)resource.getContents().get(0);
+    }
+
+    private static XSDSimpleTypeDefinition getType( final Resource resource,
+                                                    final int index ) {
+        return (XSDSimpleTypeDefinition)getSchema(resource).getTypeDefinitions().get(index);
+    }
+
+    public void testShouldFindDatatypeByUuid() {
+        final Resource first = createResource("First", "a", "b"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        final Resource second = createResource("Second", "c"); //$NON-NLS-1$ //$NON-NLS-2$
+        index.setDatatypeResources(new ArrayList(Arrays.asList(new Resource[] {first, second})));
+
+        final XSDSimpleTypeDefinition b = getType(first, 1);
+        final XSDSimpleTypeDefinition c = getType(second, 0);
+        assertSame(b, index.findByUuid((String)uuids.get(b)));
+        assertSame(c, index.findByUuid((String)uuids.get(c)));
+        assertNull(index.findByUuid("mmuuid:unknown")); //$NON-NLS-1$
+    }
+
+    public void testShouldFindDatatypeByHref() {
+        final Resource resource = createResource("Types", "a", "b"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        index.setDatatypeResources(Collections.singletonList(resource));
+
+        final XSDSimpleTypeDefinition a = getType(resource, 0);
+        assertSame(a, index.findByHref(resource.getURIFragment(a)));
+        assertNull(index.findByHref("//unknown;XSDSimpleTypeDefinition")); //$NON-NLS-1$
+    }
+
+    public void testShouldFindDatatypeOfResourceAddedLater() {
+        final Resource first = createResource("First", "a"); //$NON-NLS-1$ //$NON-NLS-2$
+        index.setDatatypeResources(Collections.singletonList(first));
+        final Resource second = createResource("Second", "b"); //$NON-NLS-1$ //$NON-NLS-2$
+        final XSDSimpleTypeDefinition b = getType(second, 0);
+        assertNull(index.findByUuid((String)uuids.get(b)));
+
+        index.setDatatypeResources(new ArrayList(Arrays.asList(new Resource[] {first, second})));
+        assertSame(b, index.findByUuid((String)uuids.get(b)));
+    }
+
+    public void testShouldReindexResourceWhenItChanges() {
+        final Resource resource = createResource("Types", "a"); //$NON-NLS-1$ //$NON-NLS-2$
+        index.setDatatypeResources(Collections.singletonList(resource));
+        final XSDSimpleTypeDefinition a = getType(resource, 0);
+        assertEquals(1, index.findByName("a").length); //$NON-NLS-1$
+
+        // a renamed datatype is found by its new name only
+        a.setName("renamed"); //$NON-NLS-1$
+        assertEquals(0, index.findByName("a").length); //$NON-NLS-1$
+        assertSame(a, index.findByName("renamed")[0]); //$NON-NLS-1$
+
+        // an added datatype is found by UUID and href
+        final XSDSimpleTypeDefinition added = addType(getSchema(resource), "added"); //$NON-NLS-1$
+        assertSame(added, index.findByUuid((String)uuids.get(added)));
+        assertSame(added, index.findByHref(resource.getURIFragment(added)));
+
+        // a removed datatype is no longer found
+        getSchema(resource).getContents().remove(added);
+        assertNull(index.findByUuid((String)uuids.get(added)));
+        assertEquals(1, index.findByRuntimeType(RUNTIME_TYPE).length);
+    }
+
+    public void testShouldStopListeningToResourcesOnDispose() {
+        final Resource kept = createResource("Kept", "a"); //$NON-NLS-1$ //$NON-NLS-2$
+        final Resource dropped = createResource("Dropped", "b"); //$NON-NLS-1$ //$NON-NLS-2$
+        final int adapters = kept.eAdapters().size();
+        final int typeAdapters = getType(kept, 0).eAdapters().size();
+        index.setDatatypeResources(new ArrayList(Arrays.asList(new Resource[] {kept, dropped})));
+        index.findByName("a"); //$NON-NLS-1$
+        assertEquals(adapters + 1, kept.eAdapters().size());
+        assertEquals(adapters + 1, dropped.eAdapters().size());
+
+        index.setDatatypeResources(Collections.singletonList(kept));
+        assertEquals(adapters, dropped.eAdapters().size());
+        assertEquals(adapters + 1, kept.eAdapters().size());
+
+        index.dispose();
+        assertEquals(adapters, kept.eAdapters().size());
+        assertEquals(typeAdapters, getType(kept, 0).eAdapters().size());
+        assertEquals(0, index.findByName("a").length); //$NON-NLS-1$
+    }
+}
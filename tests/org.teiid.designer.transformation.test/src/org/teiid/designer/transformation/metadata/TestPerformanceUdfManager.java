@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.transformation.metadata;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import junit.framework.TestCase;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.teiid.core.designer.util.Stopwatch;
+import org.teiid.designer.core.workspace.ModelResource;
+import org.teiid.designer.metamodels.function.FunctionFactory;
+import org.teiid.designer.metamodels.function.FunctionParameter;
+import org.teiid.designer.metamodels.function.ReturnParameter;
+import org.teiid.designer.metamodels.function.ScalarFunction;
+import org.teiid.designer.udf.IFunctionLibrary;
+import org.teiid.designer.udf.UdfManager;
+
+/**
+ * Measures building the UDF function library of 50 function models with 5,000 functions in all, building it again once one model
+ * has changed, and how long readers wait while it is built again.
+ * <p>
+ * Not part of {@link org.teiid.designer.transformation.test.AllTests}: it registers its models with the shared {@link UdfManager},
+ * so it is run on its own.
+ * </p>
+ *
+ * @since 8.1
+ */
+public class TestPerformanceUdfManager extends TestCase {
+
+    private static final int NUM_MODELS = 50;
+    private static final int NUM_FUNCTIONS = 100;
+
+    private UdfManager manager;
+    private List<ModelResource> models;
+
+    /**
+     * Constructor for TestPerformanceUdfManager.
+     *
+     * @param name
+     */
+    public TestPerformanceUdfManager( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        manager = UdfManager.getInstance();
+        models = new ArrayList<ModelResource>(NUM_MODELS);
+        for (int i = 0; i < NUM_MODELS; i++) {
+            final ModelResource model = createFunctionModel("Functions" + i); //$NON-NLS-1$
+            manager.registerFunctionModel(model, false);
+            models.add(model);
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (final ModelResource model : models) {
+            manager.registerFunctionModel(model, true);
+        }
+        manager.getFunctionLibrary();
+        models = null;
+        manager = null;
+    }
+
+    private static ModelResource createFunctionModel( final String name ) throws Exception {
+        final Resource resource = new ResourceImpl(URI.createFileURI("/Project/" + name + ".xmi")); //$NON-NLS-1$ //$NON-NLS-2$
+        for (int i = 0; i < NUM_FUNCTIONS; i++) {
+            final ScalarFunction function = FunctionFactory.eINSTANCE.createScalarFunction();
+            function.setName(name + "_function" + i); //$NON-NLS-1$
+            function.setCategory(name);
+            function.setInvocationClass("org.example." + name); //$NON-NLS-1$
+            function.setInvocationMethod("function" + i); //$NON-NLS-1$
+            final FunctionParameter input = FunctionFactory.eINSTANCE.createFunctionParameter();
+            input.setName("value"); //$NON-NLS-1$
+            input.setType("string"); //$NON-NLS-1$
+            function.getInputParameters().add(input);
+            final ReturnParameter output = FunctionFactory.eINSTANCE.createReturnParameter();
+            output.setType("string"); //$NON-NLS-1$
+            function.setReturnParameter(output);
+            resource.getContents().add(function);
+        }
+
+        final ModelResource model = mock(ModelResource.class);
+        when(model.getItemName()).thenReturn(name + ".xmi"); //$NON-NLS-1$
+        when(model.getEmfResource()).thenReturn(resource);
+        return model;
+    }
+
+    private long build() {
+        final Stopwatch sw = new Stopwatch();
+        sw.start();
+        assertNotNull(manager.getFunctionLibrary());
+        sw.stop();
+        return sw.getTotalDuration();
+    }
+
+    public void testBuildAgainAfterOneModelChanged() throws Exception {
+        System.out.println("\nTestPerformanceUdfManager.testBuildAgainAfterOneModelChanged()"); //$NON-NLS-1$
+        final long full = build();
+        // warm up
+        manager.notifySourceModelChanged(models.get(0), false);
+        build();
+
+        manager.notifySourceModelChanged(models.get(NUM_MODELS / 2), false);
+        final long incremental = build();
+        for (final ModelResource model : models) {
+            manager.notifySourceModelChanged(model, false);
+        }
+        final long allChanged = build();
+
+        final int functions = NUM_MODELS * NUM_FUNCTIONS;
+        System.out.println("Building " + NUM_MODELS + " models, " + functions + " functions: " + full + " ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        System.out.println("Building again, all models changed: " + allChanged + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        System.out.println("Building again, one model changed: " + incremental + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    public void testReadersDoNotWaitForBuild() throws Exception {
+        System.out.println("\nTestPerformanceUdfManager.testReadersDoNotWaitForBuild()"); //$NON-NLS-1$
+        final IFunctionLibrary built = manager.getFunctionLibrary();
+
+        // every model changes, and one thread builds the library again while another keeps reading it
+        for (final ModelResource model : models) {
+            manager.notifySourceModelChanged(model, false);
+        }
+        final AtomicBoolean building = new AtomicBoolean(true);
+        final Stopwatch builder = new Stopwatch();
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                builder.start();
+                manager.getFunctionLibrary();
+                builder.stop();
+                building.set(false);
+            }
+        });
+        thread.start();
+
+        long longest = 0;
+        int reads = 0;
+        int stale = 0;
+        while (building.get()) {
+            final long start = System.currentTimeMillis();
+            final IFunctionLibrary library = manager.getFunctionLibrary();
+            longest = Math.max(longest, System.currentTimeMillis() - start);
+            reads++;
+            if (library == built) {
+                stale++;
+            }
+        }
+        thread.join();
+        assertNotSame(built, manager.getFunctionLibrary());
+
+        System.out.println("Building again, all models changed: " + builder.getTotalDuration() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+        System.out.println("Reads while building: " + reads + ", of the library last built: " + stale); //$NON-NLS-1$ //$NON-NLS-2$
+        System.out.println("Longest read while building: " + longest + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
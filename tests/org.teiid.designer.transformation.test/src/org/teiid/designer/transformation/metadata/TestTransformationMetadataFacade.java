@@ -15,6 +15,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import junit.extensions.TestSetup;
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -374,6 +376,65 @@ public class TestTransformationMetadataFacade extends TestCase {
         assertEquals(1, metadata.indexFileHitCount);
     }
 
+    public void testConcurrentGroupsForPartialNameShareSearch() throws Exception {
+        System.out.println("\nTestTransformationMetadataFacade.testConcurrentGroupsForPartialNameShareSearch()"); //$NON-NLS-1$
+
+        final IndexSelector selector = new TestIndexSelector(IndexConstants.INDEX_NAME.TABLES_INDEX);
+        List selectors = new ArrayList(1);
+        selectors.add(selector);
+        IndexSelector composite = new CompositeIndexSelector(selectors);
+        QueryMetadataContext context = new QueryMetadataContext(composite);
+        final CountDownLatch searching = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TestTransformationMetadata metadata = new TestTransformationMetadata(context) {
+            @Override
+            public Collection getGroupsForPartialName( String partialGroupName ) throws Exception {
+                searching.countDown();
+                release.await();
+                return super.getGroupsForPartialName(partialGroupName);
+            }
+        };
+        final TransformationMetadataFacade facade = new TransformationMetadataFacade(metadata);
+
+        // no unique match, so the result is not cached and the waiting lookup must not search the index again
+        final String partialGroupName = "NoSuchTable"; //$NON-NLS-1$
+        final Object[] results = new Object[2];
+        final Thread searcher = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    results[0] = facade.getGroupsForPartialName(partialGroupName);
+                } catch (Exception e) {
+                    results[0] = e;
+                }
+            }
+        };
+        final Thread waiter = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    results[1] = facade.getGroupsForPartialName(partialGroupName);
+                } catch (Exception e) {
+                    results[1] = e;
+                }
+            }
+        };
+        searcher.start();
+        assertTrue(searching.await(10, TimeUnit.SECONDS));
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING && waiter.isAlive()) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        searcher.join(10000);
+        waiter.join(10000);
+
+        assertFalse(results[0] instanceof Exception);
+        assertFalse(results[1] instanceof Exception);
+        assertEquals(results[0], results[1]);
+        assertEquals(1, metadata.indexFileHitCount);
+    }
+
     public void testGetElementID() throws Exception {
         System.out.println("\nTestTransformationMetadataFacade.testGetElementID()"); //$NON-NLS-1$
 
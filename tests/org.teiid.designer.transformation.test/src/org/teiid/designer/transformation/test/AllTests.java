@@ -9,6 +9,7 @@ import org.teiid.designer.transformation.metadata.TestPerformancePrefixAndPatter
 import org.teiid.designer.transformation.metadata.TestServerRuntimeMetadata;
 import org.teiid.designer.transformation.metadata.TestTransformationMetadata;
 import org.teiid.designer.transformation.metadata.TestTransformationMetadataFacade;
+import org.teiid.designer.transformation.util.TestSqlMappingRootStatusCache;
 
 
 
@@ -19,7 +20,8 @@ import org.teiid.designer.transformation.metadata.TestTransformationMetadataFaca
 					  TestPerformancePrefixAndPatternLookUp.class,
 					  TestServerRuntimeMetadata.class,
 					  TestTransformationMetadata.class,
-					  TestTransformationMetadataFacade.class} )
+					  TestTransformationMetadataFacade.class,
+					  TestSqlMappingRootStatusCache.class} )
 public class AllTests {
     // nothing to do
 }
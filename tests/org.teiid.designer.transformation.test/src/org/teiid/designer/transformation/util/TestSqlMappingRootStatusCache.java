@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.transformation.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import junit.framework.TestCase;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.teiid.designer.core.query.QueryValidator;
+import org.teiid.designer.metamodels.transformation.SqlTransformationMappingRoot;
+import org.teiid.designer.metamodels.transformation.TransformationFactory;
+import org.teiid.designer.transformation.validation.SqlTransformationResult;
+
+/**
+ * TestSqlMappingRootStatusCache
+ */
+public class TestSqlMappingRootStatusCache extends TestCase {
+
+    private SqlMappingRootStatusCache cache;
+    private EObject table1;
+    private EObject table2;
+    private EObject root1;
+    private EObject root2;
+
+    /**
+     * Constructor for TestSqlMappingRootStatusCache.
+     *
+     * @param name
+     */
+    public TestSqlMappingRootStatusCache( String name ) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        cache = new SqlMappingRootStatusCache(100);
+        table1 = EcoreFactory.eINSTANCE.createEClass();
+        table2 = EcoreFactory.eINSTANCE.createEClass();
+        root1 = EcoreFactory.eINSTANCE.createEClass();
+        root2 = EcoreFactory.eINSTANCE.createEClass();
+    }
+
+    private static SqlTransformationResult createStatus( Object... sourceGroups ) {
+        SqlTransformationResult status = new SqlTransformationResult();
+        status.setSourceGroups(Arrays.asList(sourceGroups));
+        return status;
+    }
+
+    public void testRootsAreIndexedBySourceGroup() {
+        cache.put(root1, QueryValidator.SELECT_TRNS, createStatus(table1));
+        cache.put(root2, QueryValidator.SELECT_TRNS, createStatus(table1, table2));
+
+        Set<EObject> roots = cache.getRootsWithSourceGroups(Collections.singleton(table1));
+        assertEquals(2, roots.size());
+
+        roots = cache.getRootsWithSourceGroups(Collections.singleton(table2));
+        assertEquals(Collections.singleton(root2), roots);
+    }
+
+    public void testIndexCoversAllCommandTypes() {
+        cache.put(root1, QueryValidator.SELECT_TRNS, createStatus(table1));
+        cache.put(root1, QueryValidator.UPDATE_TRNS, createStatus(table2));
+        assertEquals(Collections.singleton(root1), cache.getRootsWithSourceGroups(Collections.singleton(table2)));
+
+        cache.remove(root1, QueryValidator.UPDATE_TRNS);
+        assertTrue(cache.getRootsWithSourceGroups(Collections.singleton(table2)).isEmpty());
+        assertEquals(Collections.singleton(root1), cache.getRootsWithSourceGroups(Collections.singleton(table1)));
+    }
+
+    public void testReplacingStatusReindexes() {
+        cache.put(root1, QueryValidator.SELECT_TRNS, createStatus(table1));
+        cache.put(root1, QueryValidator.SELECT_TRNS, createStatus(table2));
+
+        assertTrue(cache.getRootsWithSourceGroups(Collections.singleton(table1)).isEmpty());
+        assertEquals(Collections.singleton(root1), cache.getRootsWithSourceGroups(Collections.singleton(table2)));
+    }
+
+    public void testRemovingLastStatusDropsRoot() {
+        cache.put(root1, QueryValidator.SELECT_TRNS, createStatus(table1));
+        assertTrue(cache.contains(root1, QueryValidator.SELECT_TRNS));
+        assertEquals(1, cache.getSelectRoots().size());
+
+        cache.remove(root1, QueryValidator.SELECT_TRNS);
+        assertFalse(cache.contains(root1, QueryValidator.SELECT_TRNS));
+        assertEquals(0, cache.size());
+        assertTrue(cache.getRootsWithSourceGroups(Collections.singleton(table1)).isEmpty());
+    }
+
+    public void testEvictsLeastRecentlyUsedRoot() {
+        cache = new SqlMappingRootStatusCache(1);
+        cache.put(root1, QueryValidator.SELECT_TRNS, createStatus(table1));
+        cache.put(root2, QueryValidator.SELECT_TRNS, createStatus(table2));
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get(root1, QueryValidator.SELECT_TRNS));
+        assertNotNull(cache.get(root2, QueryValidator.SELECT_TRNS));
+        assertTrue(cache.getRootsWithSourceGroups(Collections.singleton(table1)).isEmpty());
+    }
+
+    public void testTargetChangeReindexesRoot() {
+        SqlTransformationMappingRoot sqlRoot = TransformationFactory.eINSTANCE.createSqlTransformationMappingRoot();
+        sqlRoot.setTarget(table1);
+        cache.put(sqlRoot, QueryValidator.SELECT_TRNS, createStatus());
+        assertEquals(Collections.singleton(sqlRoot), cache.getRootsWithTargets(Collections.singleton(table1)));
+
+        // the target changes without a new status being set
+        sqlRoot.setTarget(table2);
+        assertTrue(cache.getRootsWithTargets(Collections.singleton(table1)).isEmpty());
+        assertEquals(Collections.singleton(sqlRoot), cache.getRootsWithTargets(Collections.singleton(table2)));
+    }
+
+    public void testInputChangeReindexesRoot() {
+        SqlTransformationMappingRoot sqlRoot = TransformationFactory.eINSTANCE.createSqlTransformationMappingRoot();
+        cache.put(sqlRoot, QueryValidator.SELECT_TRNS, createStatus());
+        assertTrue(cache.getRootsWithSourceGroups(Collections.singleton(table1)).isEmpty());
+
+        sqlRoot.getInputs().add(table1);
+        assertEquals(Collections.singleton(sqlRoot), cache.getRootsWithSourceGroups(Collections.singleton(table1)));
+
+        sqlRoot.getInputs().remove(table1);
+        assertTrue(cache.getRootsWithSourceGroups(Collections.singleton(table1)).isEmpty());
+    }
+
+    public void testListenerRemovedWhenRootLeavesCache() {
+        SqlTransformationMappingRoot sqlRoot = TransformationFactory.eINSTANCE.createSqlTransformationMappingRoot();
+        int adapters = sqlRoot.eAdapters().size();
+        cache.put(sqlRoot, QueryValidator.SELECT_TRNS, createStatus(table1));
+        assertEquals(adapters + 1, sqlRoot.eAdapters().size());
+
+        cache.remove(sqlRoot, QueryValidator.SELECT_TRNS);
+        assertEquals(adapters, sqlRoot.eAdapters().size());
+
+        cache.put(sqlRoot, QueryValidator.SELECT_TRNS, createStatus(table1));
+        cache.clear();
+        assertEquals(adapters, sqlRoot.eAdapters().size());
+
+        cache = new SqlMappingRootStatusCache(1);
+        cache.put(sqlRoot, QueryValidator.SELECT_TRNS, createStatus(table1));
+        cache.put(root1, QueryValidator.SELECT_TRNS, createStatus(table2));
+        assertEquals(adapters, sqlRoot.eAdapters().size());
+    }
+}
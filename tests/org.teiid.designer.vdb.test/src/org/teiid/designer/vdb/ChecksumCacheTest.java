@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ *
+ * See the LEGAL.txt file distributed with this work for information regarding copyright ownership and licensing.
+ *
+ * See the AUTHORS.txt file distributed with this work for a full listing of individual contributors.
+ */
+package org.teiid.designer.vdb;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.teiid.core.designer.util.ChecksumUtil;
+
+/**
+ *
+ */
+public class ChecksumCacheTest {
+
+    private File folder;
+    private File store;
+
+    @Before
+    public void before() throws Exception {
+        folder = File.createTempFile("ChecksumCacheTest", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        folder.delete();
+        folder.mkdirs();
+        store = new File(folder, "checksums.dat"); //$NON-NLS-1$
+    }
+
+    @After
+    public void after() {
+        for (final File file : folder.listFiles())
+            file.delete();
+        folder.delete();
+    }
+
+    private File createFile( final String name,
+                             final String contents ) throws Exception {
+        final File file = new File(folder, name);
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(contents.getBytes());
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private IFile mockWorkspaceFile( final File file,
+                                     final long modificationStamp ) {
+        final IFile iFile = mock(IFile.class);
+        when(iFile.getFullPath()).thenReturn(new Path("/project/" + file.getName())); //$NON-NLS-1$
+        when(iFile.getLocation()).thenReturn(new Path(file.getAbsolutePath()));
+        when(iFile.getModificationStamp()).thenReturn(modificationStamp);
+        return iFile;
+    }
+
+    private static long streamChecksum( final File file ) throws Exception {
+        return ChecksumUtil.computeChecksum(new FileInputStream(file)).getValue();
+    }
+
+    @Test
+    public void shouldComputeSameChecksumAsStream() throws Exception {
+        final File file = createFile("file1", "abcdef"); //$NON-NLS-1$ //$NON-NLS-2$
+        final ChecksumCache cache = new ChecksumCache(null);
+        assertThat(cache.getChecksum(mockWorkspaceFile(file, 1)), is(streamChecksum(file)));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void shouldReuseChecksumOfUnchangedFile() throws Exception {
+        final File file = createFile("file1", "abcdef"); //$NON-NLS-1$ //$NON-NLS-2$
+        final ChecksumCache cache = new ChecksumCache(null);
+        final long checksum = cache.getChecksum(mockWorkspaceFile(file, 1));
+
+        // same size and time stamps, so the new contents are not read
+        final long lastModified = file.lastModified();
+        createFile("file1", "xyzxyz"); //$NON-NLS-1$ //$NON-NLS-2$
+        file.setLastModified(lastModified);
+        assertThat(cache.getChecksum(mockWorkspaceFile(file, 1)), is(checksum));
+    }
+
+    @Test
+    public void shouldRecomputeChecksumOfChangedFile() throws Exception {
+        final File file = createFile("file1", "abcdef"); //$NON-NLS-1$ //$NON-NLS-2$
+        final ChecksumCache cache = new ChecksumCache(null);
+        cache.getChecksum(mockWorkspaceFile(file, 1));
+
+        final long lastModified = file.lastModified();
+        createFile("file1", "xyzxyz"); //$NON-NLS-1$ //$NON-NLS-2$
+        file.setLastModified(lastModified);
+        assertThat(cache.getChecksum(mockWorkspaceFile(file, 2)), is(streamChecksum(file)));
+
+        createFile("file1", "xyz"); //$NON-NLS-1$ //$NON-NLS-2$
+        file.setLastModified(lastModified);
+        assertThat(cache.getChecksum(mockWorkspaceFile(file, 2)), is(streamChecksum(file)));
+    }
+
+    @Test
+    public void shouldPersistChecksums() throws Exception {
+        final File file = createFile("file1", "abcdef"); //$NON-NLS-1$ //$NON-NLS-2$
+        final ChecksumCache cache = new ChecksumCache(store);
+        final long checksum = cache.getChecksum(mockWorkspaceFile(file, 1));
+        cache.save();
+        assertThat(store.isFile(), is(true));
+
+        final long lastModified = file.lastModified();
+        createFile("file1", "xyzxyz"); //$NON-NLS-1$ //$NON-NLS-2$
+        file.setLastModified(lastModified);
+        final ChecksumCache reloaded = new ChecksumCache(store);
+        assertThat(reloaded.size(), is(1));
+        assertThat(reloaded.getChecksum(mockWorkspaceFile(file, 1)), is(checksum));
+    }
+
+    @Test
+    public void shouldPrefetchChecksums() throws Exception {
+        final ChecksumCache cache = new ChecksumCache(null);
+        final Collection<IFile> files = new ArrayList<IFile>();
+        for (int i = 0; i < 10; i++) {
+            files.add(mockWorkspaceFile(createFile("file" + i, "contents" + i), 1)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        cache.prefetch(files);
+        if (ChecksumCache.getExecutor() != null) assertThat(cache.size(), is(10));
+        for (final IFile file : files) {
+            assertThat(cache.getChecksum(file), is(streamChecksum(file.getLocation().toFile())));
+        }
+        assertThat(cache.size(), is(10));
+    }
+
+    @Test
+    public void shouldNotCacheFilesWithoutLocalContents() throws Exception {
+        final IFile iFile = mock(IFile.class);
+        when(iFile.getContents()).thenReturn(new ByteArrayInputStream("abcdef".getBytes())); //$NON-NLS-1$
+        final ChecksumCache cache = new ChecksumCache(null);
+        assertThat(cache.getChecksum(iFile), is(ChecksumUtil.computeChecksum(new ByteArrayInputStream("abcdef".getBytes())).getValue())); //$NON-NLS-1$
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void shouldNotSaveWithoutStore() throws Exception {
+        final IFile iFile = mockWorkspaceFile(createFile("file1", "abcdef"), 1); //$NON-NLS-1$ //$NON-NLS-2$
+        final ChecksumCache cache = new ChecksumCache(null);
+        cache.getChecksum(iFile);
+        cache.save();
+        assertThat(store.exists(), is(false));
+        verify(iFile, never()).getContents();
+    }
+}